@@ -0,0 +1,213 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.data.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.knime.base.data.statistics.ColumnStatisticsEngine.QuantileMode;
+import org.knime.base.node.preproc.sorter.SorterNodeFactory;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.workflow.SingleNodeContainer;
+
+/**
+ * Tests {@link ColumnStatisticsEngine}, {@link DoubleMoments} and {@link QuantileSketch}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ColumnStatisticsEngineTest {
+
+    private static ExecutionContext EXEC_CONTEXT;
+
+    private final Random m_random = new Random(17);
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @SuppressWarnings("unchecked")
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        EXEC_CONTEXT =
+            new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(new SorterNodeFactory()),
+                SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, new HashMap<Integer, ContainerTable>());
+    }
+
+    /**
+     * Tests that merged moments are the same as the moments of the whole sequence.
+     */
+    @Test
+    public void testMergeMoments() {
+        final double[] values = new double[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 100 + Math.exp(m_random.nextGaussian());
+        }
+        final DoubleMoments all = new DoubleMoments();
+        for (double d : values) {
+            all.add(d);
+        }
+        final DoubleMoments merged = new DoubleMoments();
+        for (int start = 0; start < values.length; start += 317) {
+            final DoubleMoments part = new DoubleMoments();
+            for (int i = start; i < Math.min(values.length, start + 317); i++) {
+                part.add(values[i]);
+            }
+            merged.merge(part);
+        }
+        assertEquals(all.getN(), merged.getN());
+        assertEquals(all.getMean(), merged.getMean(), 1e-9);
+        assertEquals(all.getVariance(), merged.getVariance(), 1e-9);
+        assertEquals(all.getSkewness(), merged.getSkewness(), 1e-9);
+        assertEquals(all.getKurtosis(), merged.getKurtosis(), 1e-9);
+
+        final DoubleMoments empty = new DoubleMoments();
+        assertTrue(Double.isNaN(empty.getMean()));
+        assertTrue(Double.isNaN(empty.getVariance()));
+        empty.add(1);
+        assertEquals(0, empty.getVariance(), 0);
+        assertTrue(Double.isNaN(empty.getSkewness()));
+    }
+
+    /**
+     * Tests the rank error of merged sketches.
+     */
+    @Test
+    public void testSketch() {
+        final int n = 100000;
+        final double[] values = new double[n];
+        final QuantileSketch sketch = new QuantileSketch();
+        for (int start = 0; start < n; start += 1000) {
+            final QuantileSketch part = new QuantileSketch();
+            for (int i = start; i < start + 1000; i++) {
+                values[i] = m_random.nextGaussian();
+                part.add(values[i]);
+            }
+            sketch.merge(part);
+        }
+        Arrays.sort(values);
+        assertEquals(n, sketch.getN());
+        assertEquals(values[0], sketch.getQuantile(0), 0);
+        assertEquals(values[n - 1], sketch.getQuantile(1), 0);
+        for (double p = 0.05; p < 1; p += 0.05) {
+            final int rank = Arrays.binarySearch(values, sketch.getQuantile(p));
+            assertEquals("Rank of quantile " + p, p, rank / (double)(n - 1), 0.01);
+        }
+    }
+
+    /**
+     * Tests the statistics of a table against the sorted values.
+     *
+     * @throws Exception if it fails
+     */
+    @Test
+    public void testTable() throws Exception {
+        final DataTableSpec spec = new DataTableSpec(new DataColumnSpecCreator("a", DoubleCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("b", DoubleCell.TYPE).createSpec());
+        final BufferedDataContainer container = EXEC_CONTEXT.createDataContainer(spec);
+        final int n = 5001;
+        final double[] a = new double[n];
+        int bCount = 0;
+        for (int i = 0; i < n; i++) {
+            a[i] = m_random.nextInt(1000);
+            final DataCell b = i % 3 == 0 ? DataType.getMissingCell()
+                : new DoubleCell(i % 7 == 0 ? Double.NaN : m_random.nextDouble());
+            bCount += b.isMissing() ? 0 : 1;
+            container.addRowToTable(new DefaultRow(RowKey.createRowKey(i), new DoubleCell(a[i]), b));
+        }
+        container.close();
+        final BufferedDataTable table = container.getTable();
+
+        final ColumnStatisticsEngine exact = new ColumnStatisticsEngine(spec, new int[]{0, 1}, QuantileMode.EXACT);
+        exact.compute(table, EXEC_CONTEXT, null);
+        assertTrue(exact.isExact());
+        final double[] sorted = a.clone();
+        Arrays.sort(sorted);
+        assertEquals(sorted[n / 2], exact.getMedian(0), 0);
+        assertEquals(sorted[0], exact.getQuantile(0, 0), 0);
+        assertEquals(sorted[n / 4], exact.getQuantile(0, 0.25), 0);
+        assertEquals(new DoubleCell(sorted[0]), exact.getMinCell(0));
+        assertEquals(new DoubleCell(sorted[n - 1]), exact.getMaxCell(0));
+        assertEquals(0, exact.getMissingCount(0));
+        assertEquals(n - bCount, exact.getMissingCount(1));
+        assertEquals(bCount, exact.getMoments(1).getN());
+        assertTrue(exact.getNaNCount(1) > 0);
+        // the largest values are NaN
+        assertTrue(Double.isNaN(exact.getQuantile(1, 1)));
+
+        final ColumnStatisticsEngine sketch = new ColumnStatisticsEngine(spec, new int[]{0}, QuantileMode.SKETCH);
+        sketch.compute(table, EXEC_CONTEXT, null);
+        assertFalse(sketch.isExact());
+        assertEquals(sorted[n / 2], sketch.getMedian(0), 10);
+        assertEquals(exact.getMoments(0).getMean(), sketch.getMoments(0).getMean(), 1e-9);
+
+        // the values fit into memory, hence the quantiles are exact
+        final ColumnStatisticsEngine exactIfInMemory =
+            new ColumnStatisticsEngine(spec, new int[]{0}, QuantileMode.EXACT_IF_IN_MEMORY);
+        exactIfInMemory.compute(table, EXEC_CONTEXT, null);
+        assertTrue(exactIfInMemory.isExact());
+        assertEquals(sorted[n / 2], exactIfInMemory.getMedian(0), 0);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.io.csvwriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTable;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DefaultTable;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.ExecutionMonitor;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that the rows written in parallel to a stream are the same as the ones written sequentially to a writer.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class CSVWriterTest extends TestCase {
+
+    private static final int ROWS = 50000;
+
+    /**
+     * Tests the output with the default settings and with row IDs, another decimal separator and non-ASCII strings.
+     *
+     * @throws Exception if the table can't be written
+     */
+    public void testParallelOutput() throws Exception {
+        final DataTable table = createTable();
+        FileWriterSettings settings = new FileWriterSettings();
+        assertEquals(writeSequential(table, settings), writeParallel(table, settings, StandardCharsets.UTF_8));
+
+        settings = new FileWriterSettings();
+        settings.setWriteRowID(true);
+        settings.setColSeparator(";");
+        settings.setDecimalSeparator(',');
+        settings.setMissValuePattern("NA");
+        final String expected = writeSequential(table, settings);
+        assertEquals(expected, writeParallel(table, settings, StandardCharsets.UTF_8));
+        // with a byte order mark, encoded by the writer
+        assertEquals(expected, writeParallel(table, settings, StandardCharsets.UTF_16));
+        // encoded in parallel
+        assertEquals(expected, writeParallel(table, settings, StandardCharsets.UTF_16LE));
+        assertEquals(expected, writeParallel(table, settings, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Tests that the first warning in table order is reported.
+     *
+     * @throws Exception if the table can't be written
+     */
+    public void testWarning() throws Exception {
+        final FileWriterSettings settings = new FileWriterSettings();
+        settings.setDecimalSeparator('E');
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CSVWriter writer = new CSVWriter(bytes, settings, StandardCharsets.UTF_8)) {
+            writer.write(createTable(), new ExecutionMonitor());
+            assertTrue(writer.hasWarningMessage());
+            assertTrue(writer.getLastWarningMessage(), writer.getLastWarningMessage().contains("row #1000 column #1"));
+        }
+    }
+
+    /**
+     * Tests that the bytes compressed on another thread can be decompressed.
+     *
+     * @throws Exception if the table can't be written
+     */
+    public void testThreadedGZIP() throws Exception {
+        final DataTable table = createTable();
+        final FileWriterSettings settings = new FileWriterSettings();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CSVWriter writer =
+            new CSVWriter(new ThreadedGZIPOutputStream(bytes), settings, StandardCharsets.UTF_8)) {
+            writer.write(table, new ExecutionMonitor());
+        }
+        final ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                uncompressed.write(buffer, 0, n);
+            }
+        }
+        assertEquals(writeSequential(table, settings), new String(uncompressed.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tests that the compressing thread ends and the file stream is closed if the output fails partway through.
+     *
+     * @throws Exception if the test fails
+     */
+    public void testFailingOutput() throws Exception {
+        final DataTable table = createTable();
+        final FailingOutputStream fileOut = new FailingOutputStream(20);
+        final ThreadedGZIPOutputStream gzipOut = new ThreadedGZIPOutputStream(fileOut);
+        CSVWriter writer = null;
+        IOException error = null;
+        try {
+            writer = new CSVWriter(gzipOut, new FileWriterSettings(), StandardCharsets.UTF_8);
+            writer.write(table, new ExecutionMonitor());
+            writer.close();
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            CSVWriterNodeModel.closeQuietly(writer, gzipOut, fileOut);
+        }
+        assertNotNull("Writing must fail", error);
+        assertTrue("File stream not closed", fileOut.m_closed);
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if ("GZIP compression".equals(t.getName())) {
+                t.join(10000);
+                assertFalse("Compressing thread still alive", t.isAlive());
+            }
+        }
+    }
+
+    private static String writeSequential(final DataTable table, final FileWriterSettings settings)
+        throws Exception {
+        final StringWriter out = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(out, settings)) {
+            writer.write(table, new ExecutionMonitor());
+        }
+        return out.toString();
+    }
+
+    private static String writeParallel(final DataTable table, final FileWriterSettings settings,
+        final Charset charset) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CSVWriter writer = new CSVWriter(bytes, settings, charset)) {
+            writer.write(table, new ExecutionMonitor());
+        }
+        return new String(bytes.toByteArray(), charset);
+    }
+
+    /**
+     * Creates a table with an integer, a double and a string column with missing values. The double in row 1000 is
+     * written in scientific notation.
+     */
+    private static DataTable createTable() {
+        final DataTableSpec spec = new DataTableSpec(new DataColumnSpecCreator("id", IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("value", DoubleCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("text", StringCell.TYPE).createSpec());
+        final DataRow[] rows = new DataRow[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            final DataCell value = i % 11 == 0 ? DataType.getMissingCell()
+                : new DoubleCell(i == 1000 ? 1.5E20 : i / 4.0);
+            final DataCell text = i % 13 == 0 ? DataType.getMissingCell()
+                : new StringCell(i % 2 == 0 ? "r\u00e9sum\u00e9 " + i : "line, \"" + i + "\"");
+            rows[i] = new DefaultRow(RowKey.createRowKey(i), new IntCell(i), value, text);
+        }
+        return new DefaultTable(rows, spec);
+    }
+    /** Output stream that fails after a number of bytes and remembers whether it has been closed. */
+    private static final class FailingOutputStream extends OutputStream {
+
+        private int m_remaining;
+
+        private boolean m_closed;
+
+        FailingOutputStream(final int size) {
+            m_remaining = size;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte)b}, 0, 1);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len > m_remaining) {
+                m_remaining = 0;
+                throw new IOException("Disk full");
+            }
+            m_remaining -= len;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            m_closed = true;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.io.filereader;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the column types guessed by the {@link FileChunkAnalyzer}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class FileChunkAnalyzerTest extends TestCase {
+
+    private static final int ROWS = 2000;
+
+    /**
+     * Tests that the chunks find the double, the missing value pattern and the strings anywhere in the file.
+     *
+     * @throws Exception if the file can't be written or analyzed
+     */
+    public void testFullAnalysis() throws Exception {
+        final FileReaderNodeSettings settings = createSettings(createContent(ROWS / 2, true));
+        for (int chunkSize : new int[]{1, 100, 1 << 20}) {
+            final ColumnTypeGuess[] guesses = FileChunkAnalyzer.guessColumnTypes(settings, new DataType[4], true,
+                new FileReaderExecutionMonitor(), false, chunkSize, 1, 1, 0);
+            assertNotNull(guesses);
+            assertEquals(IntCell.TYPE, guesses[0].getType());
+            assertEquals(DoubleCell.TYPE, guesses[1].getType());
+            assertEquals(IntCell.TYPE, guesses[2].getType());
+            assertEquals("NA", guesses[2].getMissingValuePattern());
+            assertEquals(StringCell.TYPE, guesses[3].getType());
+            assertTrue(settings.analyzeUsedAllRows());
+        }
+    }
+
+    /**
+     * Tests that a sampled analysis misses a value between the samples and is cached until the file changes.
+     *
+     * @throws Exception if the file can't be written or analyzed
+     */
+    public void testSampleAndCache() throws Exception {
+        // the blocks are sampled at the beginning and in the middle of the file
+        final FileReaderNodeSettings settings = createSettings(createContent(ROWS / 4, false));
+        settings.allowLFinQuotes(false);
+        ColumnTypeGuess[] guesses = FileChunkAnalyzer.guessColumnTypes(settings, new DataType[4], true,
+            new FileReaderExecutionMonitor(), true, 1 << 20, 100, 2, 0);
+        assertEquals(IntCell.TYPE, guesses[1].getType());
+        assertFalse(settings.analyzeUsedAllRows());
+
+        settings.setAnalyzeUsedAllRows(true);
+        guesses = FileChunkAnalyzer.guessColumnTypes(settings, new DataType[4], true,
+            new FileReaderExecutionMonitor(), false, 1 << 20, 100, 2, 0);
+        assertEquals(DoubleCell.TYPE, guesses[1].getType());
+        assertTrue(settings.analyzeUsedAllRows());
+
+        // the full analysis is used for samples as well
+        final ColumnTypeGuess[] cached = FileChunkAnalyzer.guessColumnTypes(settings, new DataType[4], true,
+            new FileReaderExecutionMonitor(), true, 1 << 20, 100, 2, 0);
+        assertSame(guesses, cached);
+        assertTrue(settings.analyzeUsedAllRows());
+
+        // user types are not guessed and are part of the key
+        final DataType[] userTypes = new DataType[]{null, StringCell.TYPE, null, null};
+        assertNotSame(guesses, FileChunkAnalyzer.guessColumnTypes(settings, userTypes, true,
+            new FileReaderExecutionMonitor(), false, 1 << 20, 100, 2, 0));
+
+        // a changed file is analyzed again
+        final File file = new File(settings.getDataFileLocation().toURI());
+        FileReaderTestFixtures.writeFile(file, createContent(ROWS / 4, false).replace("x1", "x1x"));
+        assertNotSame(guesses, FileChunkAnalyzer.guessColumnTypes(settings, new DataType[4], true,
+            new FileReaderExecutionMonitor(), false, 1 << 20, 100, 2, 0));
+    }
+
+    /**
+     * Tests that the whole file is analyzed if a sample is requested but line feeds are allowed in quotes.
+     *
+     * @throws Exception if the file can't be written or analyzed
+     */
+    public void testSampleWithLineFeedsInQuotes() throws Exception {
+        final FileReaderNodeSettings settings = createSettings(createContent(ROWS / 4, true));
+        final FileReaderExecutionMonitor exec = new FileReaderExecutionMonitor();
+        exec.setSampleAnalysis(true);
+        final ColumnTypeGuess[] guesses =
+            FileChunkAnalyzer.guessColumnTypes(settings, new DataType[4], true, exec, true, 1 << 20, 100, 2, 0);
+        assertEquals(DoubleCell.TYPE, guesses[1].getType());
+        assertTrue(settings.analyzeUsedAllRows());
+        assertTrue(exec.wasSampleAnalysisImpossible());
+    }
+
+    /**
+     * Tests that sampled blocks starting within quotes with escaped line feeds start at the next record.
+     *
+     * @throws Exception if the file can't be written or analyzed
+     */
+    public void testSampleWithEscapedLineFeeds() throws Exception {
+        final StringBuilder content = new StringBuilder("id,value,count,text\n");
+        for (int i = 0; i < ROWS; i++) {
+            // a block starting in the quotes would see a quote after the number, and a line feed in quotes
+            content.append(i).append(',').append(i).append(',').append(i % 7).append(",\"x,\\\n").append(i);
+            content.append(i % 3 == 0 ? "\"\r\n" : "\"\n");
+        }
+        final FileReaderNodeSettings settings = createSettings(content.toString());
+        settings.allowLFinQuotes(false);
+        final FileReaderExecutionMonitor exec = new FileReaderExecutionMonitor();
+        final ColumnTypeGuess[] guesses =
+            FileChunkAnalyzer.guessColumnTypes(settings, new DataType[4], true, exec, true, 1 << 20, 10, 64, 0);
+        assertNotNull("A sample started within quotes", guesses);
+        assertEquals(IntCell.TYPE, guesses[0].getType());
+        assertEquals(IntCell.TYPE, guesses[1].getType());
+        assertEquals(IntCell.TYPE, guesses[2].getType());
+        assertEquals(StringCell.TYPE, guesses[3].getType());
+        assertFalse(settings.analyzeUsedAllRows());
+        assertFalse(exec.wasSampleAnalysisImpossible());
+    }
+
+    /**
+     * Tests that small files are left to the sequential analysis.
+     *
+     * @throws Exception if the file can't be written or analyzed
+     */
+    public void testSmallFile() throws Exception {
+        final FileReaderNodeSettings settings = createSettings(createContent(ROWS / 2, true));
+        assertNull(FileChunkAnalyzer.guessColumnTypes(settings, new DataType[4], true,
+            new FileReaderExecutionMonitor()));
+    }
+
+    /**
+     * Creates a file with an integer column, a double column with one double in the given row, an integer column with
+     * a missing value pattern and a string column with two different strings, one of them quoted and optionally with a
+     * line feed.
+     */
+    private static String createContent(final int doubleRow, final boolean quotedLineFeed) {
+        final StringBuilder content = new StringBuilder("# a comment\nid,value,count,text\n");
+        for (int i = 0; i < ROWS; i++) {
+            content.append(i).append(',');
+            content.append(i == doubleRow ? "1.5" : Integer.toString(i)).append(',');
+            content.append(i % 100 == 50 ? "NA" : Integer.toString(i % 7)).append(',');
+            if (i == 1) {
+                content.append("x1");
+            } else if (i == ROWS - 1) {
+                content.append(quotedLineFeed ? "\"x2\nin two lines\"" : "\"x2 in one line\"");
+            } else {
+                content.append(i);
+            }
+            content.append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        return content.toString();
+    }
+
+    private static FileReaderNodeSettings createSettings(final String content) throws IOException {
+        final FileReaderNodeSettings settings =
+            FileReaderTestFixtures.createSettings(new FileReaderNodeSettings(), content);
+        settings.setNumberOfColumns(4);
+        settings.setFileHasRowHeaders(false);
+        settings.setAnalyzeUsedAllRows(true);
+        return settings;
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.io.filereader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that the {@link FileChunkReader} returns the same rows and errors as the sequential {@link FileRowIterator}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class FileChunkReaderTest extends TestCase {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("text", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("number", IntCell.TYPE).createSpec());
+
+    private final Random m_random = new Random(42);
+
+    /**
+     * Reads a file with quoted line feeds, comments, duplicate and missing row IDs in small chunks.
+     *
+     * @throws IOException if the temp file can't be written
+     */
+    public void testRows() throws IOException {
+        final StringBuilder content = new StringBuilder("# a comment\nrow,text,number\n");
+        for (int i = 0; i < 2000; i++) {
+            content.append(m_random.nextInt(5) == 0 ? "" : "r" + m_random.nextInt(500)).append(',');
+            switch (m_random.nextInt(5)) {
+                case 0:
+                    content.append("\"multi\nline, \\\"quoted\\\"\"");
+                    break;
+                case 1:
+                    content.append("'#' is no comment in quotes");
+                    break;
+                case 2:
+                    content.append("value # comment\n");
+                    break;
+                case 3:
+                    // the line feeds after a comment starting a token are swallowed
+                    content.append("# comment at the beginning of a token\n\nnext line");
+                    break;
+                default:
+                    content.append("");
+            }
+            content.append(',').append(i).append(m_random.nextBoolean() ? "\n" : "\r\n");
+            if (m_random.nextInt(20) == 0) {
+                content.append("\n\n");
+            }
+        }
+        final FileReaderSettings settings = createSettings(content.toString());
+        final List<DataRow> expected = readSequentially(settings);
+        // comments after a value end the row early
+        assertTrue(expected.size() >= 2000);
+        for (int chunkSize : new int[]{1, 100, 4096, 1 << 20}) {
+            final FileChunkReader reader = FileChunkReader.createIfApplicable(settings, SPEC, new boolean[2], null,
+                chunkSize, 0, Long.MAX_VALUE, -1);
+            assertNotNull(reader);
+            final List<DataRow> rows = new ArrayList<DataRow>();
+            while (reader.hasNext()) {
+                rows.add(reader.next());
+            }
+            assertEquals(expected.size(), rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                assertEquals(expected.get(i).getKey(), rows.get(i).getKey());
+                assertEquals(expected.get(i).getCell(0), rows.get(i).getCell(0));
+                assertEquals(expected.get(i).getCell(1), rows.get(i).getCell(1));
+            }
+            assertFalse(reader.iteratorEndedEarly());
+        }
+    }
+
+    /**
+     * Tests that the errors in later chunks have the line numbers and row IDs of the file.
+     *
+     * @throws IOException if the temp file can't be written
+     */
+    public void testError() throws IOException {
+        final StringBuilder content = new StringBuilder("row,text,number\n");
+        for (int i = 0; i < 500; i++) {
+            content.append("r,\"text\nin two lines\",").append(i).append('\n');
+        }
+        content.append("r,too,many,elements\n");
+        final FileReaderSettings settings = createSettings(content.toString());
+        final FileRowIterator sequential = new FileRowIterator(settings, SPEC, new boolean[2], null);
+        final FileChunkReader reader =
+            FileChunkReader.createIfApplicable(settings, SPEC, new boolean[2], null, 1000, 0, Long.MAX_VALUE, -1);
+        assertNotNull(reader);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(sequential.next().getKey(), reader.next().getKey());
+        }
+        try {
+            sequential.next();
+            fail("Expected a FileReaderException");
+        } catch (FileReaderException expected) {
+            try {
+                reader.next();
+                fail("Expected a FileReaderException");
+            } catch (FileReaderException e) {
+                assertEquals(expected.getMessage(), e.getMessage());
+                assertEquals(expected.getErrorLineNumber(), e.getErrorLineNumber());
+                assertEquals(expected.getErrorRow().getKey(), e.getErrorRow().getKey());
+            }
+        }
+        assertFalse(reader.hasNext());
+    }
+
+    /**
+     * Tests that the chunks after a chunk which fails in parallel but not when parsed again are read, with the line
+     * numbers and row IDs of the file.
+     *
+     * @throws IOException if the temp file can't be written
+     */
+    public void testResumeAfterFailedChunk() throws IOException {
+        final StringBuilder content = new StringBuilder("row,text,number\n");
+        for (int i = 0; i < 500; i++) {
+            content.append(i % 7 == 0 ? "" : "r").append(",\"text\nin two lines\",").append(i).append('\n');
+        }
+        content.append("r,too,many,elements\n");
+        final FileReaderSettings settings = createSettings(content.toString());
+        final FileRowIterator sequential = new FileRowIterator(settings, SPEC, new boolean[2], null);
+        final FileChunkReader reader = FileChunkReader.createIfApplicable(settings, SPEC, new boolean[2], null, 1000,
+            0, Long.MAX_VALUE, content.length() / 2);
+        assertNotNull(reader);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(reader.hasNext());
+            final DataRow expected = sequential.next();
+            final DataRow row = reader.next();
+            assertEquals(expected.getKey(), row.getKey());
+            assertEquals(expected.getCell(0), row.getCell(0));
+            assertEquals(expected.getCell(1), row.getCell(1));
+        }
+        try {
+            sequential.next();
+            fail("Expected a FileReaderException");
+        } catch (FileReaderException expected) {
+            try {
+                reader.next();
+                fail("Expected a FileReaderException");
+            } catch (FileReaderException e) {
+                assertEquals(expected.getMessage(), e.getMessage());
+                assertEquals(expected.getErrorLineNumber(), e.getErrorLineNumber());
+                assertEquals(expected.getErrorRow().getKey(), e.getErrorRow().getKey());
+            }
+        }
+    }
+
+    /**
+     * Tests that the maximum number of rows is respected.
+     *
+     * @throws IOException if the temp file can't be written
+     */
+    public void testMaxRows() throws IOException {
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(",text,").append(i).append('\n');
+        }
+        final FileReaderSettings settings = createSettings(content.toString());
+        settings.setFileHasColumnHeaders(false);
+        settings.setMaximumNumberOfRowsToRead(300);
+        final FileChunkReader reader =
+            FileChunkReader.createIfApplicable(settings, SPEC, new boolean[2], null, 100, 0, Long.MAX_VALUE, -1);
+        int count = 0;
+        while (reader.hasNext()) {
+            assertEquals("?" + count, reader.next().getKey().getString());
+            count++;
+        }
+        assertEquals(300, count);
+        assertTrue(reader.iteratorEndedEarly());
+
+        // the first chunk holds more than the rows to read, no chunk is submitted when it is taken
+        settings.setMaximumNumberOfRowsToRead(5);
+        final FileChunkReader smallReader =
+            FileChunkReader.createIfApplicable(settings, SPEC, new boolean[2], null, 100, 0, 1, -1);
+        assertEquals(1, smallReader.getPendingChunkCount());
+        smallReader.next();
+        assertEquals(0, smallReader.getPendingChunkCount());
+        count = 1;
+        while (smallReader.hasNext()) {
+            smallReader.next();
+            count++;
+        }
+        assertEquals(5, count);
+        assertTrue(smallReader.iteratorEndedEarly());
+    }
+
+    /**
+     * Tests that with a small read-ahead memory only one chunk is parsed ahead, and all rows are read.
+     *
+     * @throws IOException if the temp file can't be written
+     */
+    public void testReadAheadMemory() throws IOException {
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("r").append(i).append(",text,").append(i).append('\n');
+        }
+        final FileReaderSettings settings = createSettings(content.toString());
+        settings.setFileHasColumnHeaders(false);
+        final List<DataRow> expected = readSequentially(settings);
+        final FileChunkReader reader =
+            FileChunkReader.createIfApplicable(settings, SPEC, new boolean[2], null, 100, 0, 1, -1);
+        int count = 0;
+        while (reader.hasNext()) {
+            assertTrue(reader.getPendingChunkCount() <= 1);
+            final DataRow row = reader.next();
+            assertEquals(expected.get(count).getKey(), row.getKey());
+            assertEquals(expected.get(count).getCell(1), row.getCell(1));
+            count++;
+        }
+        assertEquals(1000, count);
+        assertFalse(reader.iteratorEndedEarly());
+    }
+
+    private static List<DataRow> readSequentially(final FileReaderSettings settings) throws IOException {
+        final FileRowIterator iterator = new FileRowIterator(settings, SPEC, new boolean[2], null);
+        final List<DataRow> rows = new ArrayList<DataRow>();
+        while (iterator.hasNext()) {
+            rows.add(iterator.next());
+        }
+        return rows;
+    }
+
+    private static FileReaderSettings createSettings(final String content) throws IOException {
+        final FileReaderSettings settings = FileReaderTestFixtures.createSettings(new FileReaderSettings(), content);
+        settings.addQuotePattern("'", "'");
+        settings.setFileHasColumnHeaders(true);
+        settings.setFileHasRowHeaders(true);
+        settings.setUniquifyRowIDs(true);
+        settings.setIgnoreEmptyLines(true);
+        settings.setSupportShortLines(true);
+        return settings;
+    }
+}
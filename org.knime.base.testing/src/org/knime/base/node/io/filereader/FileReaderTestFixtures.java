@@ -0,0 +1,102 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.io.filereader;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Test fixtures for the tests of the parallel file reader (comma separated temp files and their settings).
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class FileReaderTestFixtures {
+
+    private FileReaderTestFixtures() {
+    }
+
+    /**
+     * Writes the content to a new temp file and points the settings to it. The settings are set up for comma
+     * separated values in UTF-8 with double quotes (line feeds allowed, backslash escapes) and "#" comments, tests
+     * add their specific settings.
+     *
+     * @param settings the settings to initialize
+     * @param content the content of the file
+     * @return the argument settings
+     * @throws IOException if the file can't be written
+     */
+    static <S extends FileReaderSettings> S createSettings(final S settings, final String content)
+        throws IOException {
+        final File file = File.createTempFile("FileReaderTest", ".csv");
+        file.deleteOnExit();
+        writeFile(file, content);
+        settings.setDataFileLocationAndUpdateTableName(file.toURI().toURL());
+        settings.setCharsetName("UTF-8");
+        settings.addDelimiterPattern(",", false, false, false);
+        settings.addRowDelimiter("\n", true);
+        settings.addQuotePattern("\"", "\"", '\\');
+        settings.addSingleLineCommentPattern("#", false, false);
+        settings.allowLFinQuotes(true);
+        return settings;
+    }
+
+    /**
+     * Overwrites the file and advances its modification time (it may not change within a second otherwise).
+     *
+     * @param file the file
+     * @param content the new content
+     * @throws IOException if the file can't be written
+     */
+    static void writeFile(final File file, final String content) throws IOException {
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+        file.setLastModified(file.lastModified() + 2000);
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.mine.cluster.hierarchical;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.knime.base.node.mine.cluster.hierarchical.HierarchicalClusterNodeModel.Linkage;
+import org.knime.base.node.mine.cluster.hierarchical.distfunctions.EuclideanDist;
+import org.knime.base.node.mine.cluster.hierarchical.distfunctions.MinkowskiDist;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Compares the merges of the {@link HierarchicalClusterEngine} with the ones of the greedy algorithm, which merges
+ * the closest pair of clusters in each step: the merged clusters and their distances, with and without distance
+ * cache.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class HierarchicalClusterEngineTest {
+
+    private static final MinkowskiDist DISTANCE = EuclideanDist.EUCLIDEAN_DISTANCE;
+
+    /**
+     * Single linkage with and without distance cache (the cache is never used for single linkage).
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testSingleLinkage() throws Exception {
+        compare(Linkage.SINGLE);
+    }
+
+    /**
+     * Average linkage with and without distance cache.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testAverageLinkage() throws Exception {
+        compare(Linkage.AVERAGE);
+    }
+
+    /**
+     * Complete linkage with and without distance cache.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testCompleteLinkage() throws Exception {
+        compare(Linkage.COMPLETE);
+    }
+
+    /**
+     * Computes a distance matrix large enough to be split into several tasks and compares it with the one computed
+     * in a single task and with the distances of the rows.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testParallelDistanceMatrix() throws Exception {
+        final Random random = new Random(23);
+        final int n = 1000;
+        assertTrue((long)n * (n - 1) / 2 > 4L * HierarchicalClusterEngine.MIN_TASK_SIZE);
+        final double[][] data = new double[n][];
+        final boolean[][] missing = new boolean[n][];
+        for (int i = 0; i < n; i++) {
+            data[i] = new double[]{random.nextDouble(), random.nextDouble(), 10 * random.nextDouble()};
+        }
+        final HierarchicalClusterEngine engine =
+            new HierarchicalClusterEngine(data, missing, DISTANCE, Linkage.AVERAGE, true);
+        final float[] expected = engine.computeDistanceMatrix(Integer.MAX_VALUE, new ExecutionMonitor());
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                assertEquals("Distance of " + i + " and " + j, (float)DISTANCE.calcDistance(data[i], null, data[j],
+                    null), expected[HierarchicalClusterEngine.matrixIndex(i, j)], 0f);
+            }
+        }
+        for (int minTaskSize : new int[]{HierarchicalClusterEngine.MIN_TASK_SIZE, 1000}) {
+            assertArrayEquals("Minimum task size " + minTaskSize, expected,
+                engine.computeDistanceMatrix(minTaskSize, new ExecutionMonitor()), 0f);
+        }
+    }
+
+    /** Tests that missing values are skipped and NaN values result in a NaN distance, as for data rows. */
+    @Test
+    public void testMissingAndNaN() {
+        final double[] x = {1, 2, 3};
+        final double[] y = {4, 6, Double.NaN};
+        assertEquals(5, DISTANCE.calcDistance(x, null, y, new boolean[]{false, false, true}), 1e-12);
+        assertEquals(5, DISTANCE.calcDistance(y, new boolean[]{false, false, true}, x, null), 1e-12);
+        assertTrue(Double.isNaN(DISTANCE.calcDistance(x, null, y, null)));
+    }
+
+    private static void compare(final Linkage linkage) throws Exception {
+        final Random random = new Random(17);
+        for (int n : new int[]{0, 1, 2, 50, 200}) {
+            final double[][] data = new double[n][];
+            final boolean[][] missing = new boolean[n][];
+            for (int i = 0; i < n; i++) {
+                data[i] = new double[]{random.nextDouble(), random.nextDouble(), 10 * random.nextDouble()};
+                if (random.nextInt(10) == 0) {
+                    missing[i] = new boolean[3];
+                    missing[i][random.nextInt(3)] = true;
+                }
+            }
+            final List<Merge> expected = greedy(data, missing, linkage);
+            for (boolean useMatrix : new boolean[]{true, false}) {
+                final HierarchicalClusterEngine engine =
+                    new HierarchicalClusterEngine(data, missing, DISTANCE, linkage, useMatrix);
+                engine.run(new ExecutionMonitor());
+                assertEquals(expected.size(), engine.getMergeCount());
+                // clusters as sets of rows, found by the union-find structure
+                final int[] parents = new int[n];
+                final List<Set<Integer>> members = new ArrayList<Set<Integer>>();
+                for (int i = 0; i < n; i++) {
+                    parents[i] = i;
+                    members.add(new HashSet<Integer>(Arrays.asList(i)));
+                }
+                for (int m = 0; m < engine.getMergeCount(); m++) {
+                    final String msg = linkage + ", " + n + " rows, cache " + useMatrix + ", merge " + m;
+                    final int root1 = find(parents, engine.getFirst(m));
+                    final int root2 = find(parents, engine.getSecond(m));
+                    final Set<Set<Integer>> merged = new HashSet<Set<Integer>>();
+                    merged.add(members.get(root1));
+                    merged.add(members.get(root2));
+                    assertEquals(msg, expected.get(m).m_clusters, merged);
+                    assertEquals(msg, expected.get(m).m_distance, engine.getDistance(m),
+                        1e-5 * Math.max(1, expected.get(m).m_distance));
+                    final Set<Integer> union = new HashSet<Integer>(members.get(root1));
+                    union.addAll(members.get(root2));
+                    parents[root2] = root1;
+                    members.set(root1, union);
+                }
+            }
+        }
+    }
+
+    private static int find(final int[] parents, final int row) {
+        int root = row;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        return root;
+    }
+
+    /** The greedy algorithm: merges the closest pair of clusters until one cluster is left. */
+    private static List<Merge> greedy(final double[][] data, final boolean[][] missing, final Linkage linkage) {
+        final List<Set<Integer>> clusters = new ArrayList<Set<Integer>>();
+        for (int i = 0; i < data.length; i++) {
+            clusters.add(new HashSet<Integer>(Arrays.asList(i)));
+        }
+        final List<Merge> merges = new ArrayList<Merge>();
+        while (clusters.size() > 1) {
+            int best1 = -1;
+            int best2 = -1;
+            double bestDistance = Double.POSITIVE_INFINITY;
+            for (int c1 = 0; c1 < clusters.size(); c1++) {
+                for (int c2 = c1 + 1; c2 < clusters.size(); c2++) {
+                    final double d = clusterDistance(data, missing, clusters.get(c1), clusters.get(c2), linkage);
+                    if (d < bestDistance) {
+                        bestDistance = d;
+                        best1 = c1;
+                        best2 = c2;
+                    }
+                }
+            }
+            final Merge merge = new Merge(bestDistance);
+            merge.m_clusters.add(clusters.get(best1));
+            merge.m_clusters.add(clusters.get(best2));
+            merges.add(merge);
+            final Set<Integer> union = new HashSet<Integer>(clusters.get(best1));
+            union.addAll(clusters.get(best2));
+            clusters.remove(best2);
+            clusters.set(best1, union);
+        }
+        return merges;
+    }
+
+    private static double clusterDistance(final double[][] data, final boolean[][] missing, final Set<Integer> c1,
+        final Set<Integer> c2, final Linkage linkage) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = 0;
+        double sum = 0;
+        for (int i : c1) {
+            for (int j : c2) {
+                final double d = DISTANCE.calcDistance(data[i], missing[i], data[j], missing[j]);
+                min = Math.min(min, d);
+                max = Math.max(max, d);
+                sum += d;
+            }
+        }
+        switch (linkage) {
+            case SINGLE:
+                return min;
+            case COMPLETE:
+                return max;
+            default:
+                return sum / (c1.size() * c2.size());
+        }
+    }
+
+    /** A merge of the greedy algorithm. */
+    private static final class Merge {
+
+        private final Set<Set<Integer>> m_clusters = new HashSet<Set<Integer>>();
+
+        private final double m_distance;
+
+        Merge(final double distance) {
+            m_distance = distance;
+        }
+    }
+}
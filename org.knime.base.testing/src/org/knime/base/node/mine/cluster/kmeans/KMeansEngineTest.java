@@ -0,0 +1,233 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.mine.cluster.kmeans;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.node.defaultnodesettings.SettingsModelFilterString;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Compares the result of the k-Means node computed by the {@link KMeansEngine} with the one of the iterations reading
+ * the table in each iteration: the assigned clusters of all rows and the cluster centers. The engine is run with
+ * different block sizes, so that the rows are split into one, several and a lot of blocks (and tasks).
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class KMeansEngineTest {
+
+    private ExecutionContext m_exec;
+
+    /**
+     * Creates the execution context.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Before
+    public void setUp() throws Exception {
+        NodeFactory<NodeModel> dummyFactory =
+            (NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0]);
+        m_exec = new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(dummyFactory),
+            SingleNodeContainer.MemoryPolicy.CacheOnDisc, new HashMap<Integer, ContainerTable>());
+    }
+
+    /**
+     * Clusters points around a few random centers.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testClusters() throws Exception {
+        final Random random = new Random(42);
+        final double[][] centers = new double[6][3];
+        for (double[] center : centers) {
+            for (int i = 0; i < center.length; i++) {
+                center[i] = 10 * random.nextDouble();
+            }
+        }
+        final double[][] values = new double[3000][];
+        for (int r = 0; r < values.length; r++) {
+            final double[] center = centers[random.nextInt(centers.length)];
+            values[r] = new double[center.length];
+            for (int i = 0; i < center.length; i++) {
+                values[r][i] = center[i] + random.nextGaussian();
+            }
+        }
+        compare(createTable(values), 6);
+    }
+
+    /**
+     * Clusters points on a small grid, i.e. with many duplicates. The first rows and hence some initial centers are
+     * equal, the clusters of all but the first of them stay empty.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testEmptyClustersAndDuplicatePoints() throws Exception {
+        final Random random = new Random(7);
+        final double[][] values = new double[2000][];
+        for (int r = 0; r < values.length; r++) {
+            values[r] = r < 3 ? new double[]{1, 1} : new double[]{random.nextInt(4), random.nextInt(4)};
+        }
+        final Set<String> clusters = compare(createTable(values), 6);
+        assertTrue("Expected empty clusters, found " + clusters, clusters.size() < 6);
+    }
+
+    /**
+     * Executes the node without caching and with caching in blocks of different sizes, compares the outputs and
+     * returns the assigned clusters.
+     */
+    private Set<String> compare(final BufferedDataTable table, final int nrOfClusters) throws Exception {
+        final PortObject[] expected = createModel(nrOfClusters, 0).execute(new PortObject[]{table}, m_exec);
+        final Set<String> clusters = new HashSet<String>();
+        for (int blockSize : new int[]{KMeansEngine.DEFAULT_BLOCK_SIZE, 1000, 1}) {
+            final PortObject[] actual = createModel(nrOfClusters, blockSize).execute(new PortObject[]{table}, m_exec);
+            compare(expected, actual, nrOfClusters, "Block size " + blockSize + ": ", clusters);
+        }
+        return clusters;
+    }
+
+    /** Compares the outputs of the node and adds the assigned clusters to the set. */
+    private static void compare(final PortObject[] expected, final PortObject[] actual, final int nrOfClusters,
+        final String message, final Set<String> clusters) {
+        final BufferedDataTable expectedLabels = (BufferedDataTable)expected[0];
+        final BufferedDataTable actualLabels = (BufferedDataTable)actual[0];
+        assertEquals(expectedLabels.size(), actualLabels.size());
+        final int labelIndex = expectedLabels.getDataTableSpec().getNumColumns() - 1;
+        final Iterator<DataRow> actualIt = actualLabels.iterator();
+        for (DataRow expectedRow : expectedLabels) {
+            final DataRow actualRow = actualIt.next();
+            assertEquals(expectedRow.getKey(), actualRow.getKey());
+            assertEquals(message + "Cluster of row " + expectedRow.getKey(), expectedRow.getCell(labelIndex),
+                actualRow.getCell(labelIndex));
+            clusters.add(expectedRow.getCell(labelIndex).toString());
+        }
+
+        final BufferedDataTable expectedCenters = (BufferedDataTable)expected[1];
+        final BufferedDataTable actualCenters = (BufferedDataTable)actual[1];
+        assertEquals(nrOfClusters, actualCenters.size());
+        final Iterator<DataRow> actualCenterIt = actualCenters.iterator();
+        for (DataRow expectedRow : expectedCenters) {
+            final DataRow actualRow = actualCenterIt.next();
+            assertEquals(expectedRow.getKey(), actualRow.getKey());
+            for (int i = 0; i < expectedRow.getNumCells(); i++) {
+                assertEquals(message + "Center " + expectedRow.getKey(),
+                    ((DoubleValue)expectedRow.getCell(i)).getDoubleValue(),
+                    ((DoubleValue)actualRow.getCell(i)).getDoubleValue(), 1e-9);
+            }
+        }
+    }
+
+    private static ClusterNodeModel createModel(final int nrOfClusters, final int engineBlockSize)
+        throws Exception {
+        final NodeSettings settings = new NodeSettings("k-Means");
+        new SettingsModelIntegerBounded(ClusterNodeModel.CFG_NR_OF_CLUSTERS, nrOfClusters, 1, Integer.MAX_VALUE)
+            .saveSettingsTo(settings);
+        new SettingsModelIntegerBounded(ClusterNodeModel.CFG_MAX_ITERATIONS, ClusterNodeModel.INITIAL_MAX_ITERATIONS,
+            1, Integer.MAX_VALUE).saveSettingsTo(settings);
+        new SettingsModelFilterString(ClusterNodeModel.CFG_COLUMNS, new String[0], new String[0], true)
+            .saveSettingsTo(settings);
+        final ClusterNodeModel model = new ClusterNodeModel(false, true, engineBlockSize);
+        model.validateSettings(settings);
+        model.loadValidatedSettingsFrom(settings);
+        return model;
+    }
+
+    /** Creates a table with the values and an ignored string column. */
+    private BufferedDataTable createTable(final double[][] values) {
+        final DataColumnSpec[] colSpecs = new DataColumnSpec[values[0].length + 1];
+        colSpecs[0] = new DataColumnSpecCreator("Name", StringCell.TYPE).createSpec();
+        for (int i = 0; i < values[0].length; i++) {
+            colSpecs[i + 1] = new DataColumnSpecCreator("Value" + i, DoubleCell.TYPE).createSpec();
+        }
+        final DataTableSpec spec = new DataTableSpec(colSpecs);
+        final BufferedDataContainer cont = m_exec.createDataContainer(spec);
+        for (int r = 0; r < values.length; r++) {
+            final DataCell[] cells = new DataCell[values[r].length + 1];
+            cells[0] = new StringCell("Name" + r);
+            for (int i = 0; i < values[r].length; i++) {
+                cells[i + 1] = new DoubleCell(values[r][i]);
+            }
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey((long)r), cells));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.preproc.groupby;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.base.data.aggregation.ColumnAggregator;
+import org.knime.base.data.aggregation.GlobalSettings;
+import org.knime.base.data.aggregation.GlobalSettings.AggregationContext;
+import org.knime.base.data.aggregation.OperatorColumnSettings;
+import org.knime.base.data.aggregation.general.FirstOperator;
+import org.knime.base.data.aggregation.general.ListCellOperator;
+import org.knime.base.data.aggregation.numerical.SumOperator;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.ContainerTable;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.util.memory.MemoryAlertSystem.MemoryActionIndicator;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * Compares the result of the {@link HashGroupByTable} with the one of the {@link BigGroupByTable}: rows, row order,
+ * row keys and hilite mapping, with and without retaining the row order and with and without moving groups to disc.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class HashGroupByTableTest {
+
+    private static final List<String> GROUP_COLS = Arrays.asList("Group", "Flag");
+
+    private ExecutionContext m_exec;
+
+    private BufferedDataTable m_table;
+
+    /**
+     * Creates the execution context and the input table.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Before
+    public void setUp() throws Exception {
+        NodeFactory<NodeModel> dummyFactory =
+            (NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(new PortType[0]);
+        m_exec = new ExecutionContext(new DefaultNodeProgressMonitor(), new Node(dummyFactory),
+            SingleNodeContainer.MemoryPolicy.CacheOnDisc, new HashMap<Integer, ContainerTable>());
+        m_table = createTable(2000, 200);
+    }
+
+    /**
+     * Groups without low memory events and sorted groups.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testSorted() throws Exception {
+        compare(false, 0);
+    }
+
+    /**
+     * Groups without low memory events in the order of the input table.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testRetainOrder() throws Exception {
+        compare(true, 0);
+    }
+
+    /**
+     * Groups with (simulated) low memory events and sorted groups.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testSortedWithSpilling() throws Exception {
+        compare(false, 10);
+    }
+
+    /**
+     * Groups with (simulated) low memory events in the order of the input table.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testRetainOrderWithSpilling() throws Exception {
+        compare(true, 10);
+    }
+
+    /**
+     * Groups with a low memory event for every new group, i.e. each group is moved to disc until all hash bits are
+     * used.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testSpillingEveryGroup() throws Exception {
+        compare(false, 1);
+    }
+
+    /**
+     * Compares the tables, the hash table simulates a low memory event whenever the given number of groups is held in
+     * memory (0 to disable).
+     */
+    private void compare(final boolean retainOrder, final int groupsBeforeSpill) throws Exception {
+        final BigGroupByTable reference = new BigGroupByTable(m_exec, m_table, GROUP_COLS, createAggregators(),
+            createGlobalSettings(), true, ColumnNamePolicy.AGGREGATION_METHOD_COLUMN_NAME, retainOrder);
+        // the captured parameter is set before the super class constructor creates the table
+        final HashGroupByTable test = new HashGroupByTable(m_exec, m_table, GROUP_COLS, createAggregators(),
+            createGlobalSettings(), true, ColumnNamePolicy.AGGREGATION_METHOD_COLUMN_NAME, retainOrder) {
+            @Override
+            boolean isLowMemory(final MemoryActionIndicator memIndicator, final int numGroups) {
+                return (groupsBeforeSpill > 0 && numGroups >= groupsBeforeSpill)
+                    || super.isLowMemory(memIndicator, numGroups);
+            }
+        };
+
+        final BufferedDataTable expected = reference.getBufferedTable();
+        final BufferedDataTable actual = test.getBufferedTable();
+        assertEquals("Table spec", expected.getDataTableSpec(), actual.getDataTableSpec());
+        assertTrue("No groups", expected.size() > 1);
+        assertEquals("Number of groups", expected.size(), actual.size());
+        final Iterator<DataRow> actualIt = actual.iterator();
+        for (final DataRow expectedRow : expected) {
+            final DataRow actualRow = actualIt.next();
+            assertEquals("Row key", expectedRow.getKey(), actualRow.getKey());
+            for (int i = 0; i < expectedRow.getNumCells(); i++) {
+                assertEquals("Cell " + i + " of row " + expectedRow.getKey(), expectedRow.getCell(i),
+                    actualRow.getCell(i));
+            }
+        }
+        assertEquals("Hilite mapping", reference.getHiliteMapping(), test.getHiliteMapping());
+        assertEquals("Skipped groups", reference.getSkippedGroupsByColName(), test.getSkippedGroupsByColName());
+    }
+
+    private GlobalSettings createGlobalSettings() {
+        return GlobalSettings.builder().setGroupColNames(GROUP_COLS).setDataTableSpec(m_table.getDataTableSpec())
+            .setNoOfRows(m_table.size()).setAggregationContext(AggregationContext.ROW_AGGREGATION).build();
+    }
+
+    /** Sum, first and list, the latter two depend on the order of the rows within each group. */
+    private ColumnAggregator[] createAggregators() {
+        final DataColumnSpec valueSpec = m_table.getDataTableSpec().getColumnSpec("Value");
+        return new ColumnAggregator[]{
+            new ColumnAggregator(valueSpec,
+                new SumOperator(GlobalSettings.DEFAULT, OperatorColumnSettings.DEFAULT_EXCL_MISSING)),
+            new ColumnAggregator(valueSpec,
+                new FirstOperator(GlobalSettings.DEFAULT, OperatorColumnSettings.DEFAULT_INCL_MISSING)),
+            new ColumnAggregator(valueSpec,
+                new ListCellOperator(GlobalSettings.DEFAULT, OperatorColumnSettings.DEFAULT_INCL_MISSING))};
+    }
+
+    /** Random groups (including missing group values) in random order with unique values. */
+    private BufferedDataTable createTable(final int numRows, final int numGroups) {
+        final DataTableSpec spec = new DataTableSpec(
+            new DataColumnSpecCreator("Group", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("Flag", IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("Value", IntCell.TYPE).createSpec());
+        final Random random = new Random(42);
+        final BufferedDataContainer dc = m_exec.createDataContainer(spec);
+        for (int i = 0; i < numRows; i++) {
+            final int group = random.nextInt(numGroups);
+            final DataCell groupCell = group == 0 ? DataType.getMissingCell() : new StringCell("G" + group);
+            final DataCell valueCell = i % 7 == 0 ? DataType.getMissingCell() : new IntCell(i);
+            dc.addRowToTable(
+                new DefaultRow(RowKey.createRowKey((long)i), groupCell, new IntCell(group % 2), valueCell));
+        }
+        dc.close();
+        return dc.getTable();
+    }
+}
@@ -130,6 +130,14 @@ private final void testRunner(final Joiner2Settings settings,
             final Integer[][] reference,
             final int numBitsInitial, final int numBitsMaximal)
             throws CanceledExecutionException, InvalidSettingsException {
+        testRunner(settings, reference, numBitsInitial, numBitsMaximal, 0);
+    }
+
+    private final void testRunner(final Joiner2Settings settings,
+            final Integer[][] reference,
+            final int numBitsInitial, final int numBitsMaximal,
+            final int rowsAddedBeforeOOM)
+            throws CanceledExecutionException, InvalidSettingsException {
         // Create data with fields that consume a lot memory
         DataTable leftInput = new IntegerTable(new String[]{"L1", "L2"},
             new Integer[][]{
@@ -166,6 +174,7 @@ private final void testRunner(final Joiner2Settings settings,
         // force one bin only
         joiner.setNumBitsInitial(numBitsInitial);
         joiner.setNumBitsMaximal(numBitsMaximal);
+        joiner.setRowsAddedBeforeOOM(rowsAddedBeforeOOM);
         BufferedDataTable output = joiner.computeJoinTable(bdtLeft, bdtRight,
                 m_exec);
         Integer[][] outputArray = toIntegerArray(output);
@@ -253,7 +262,8 @@ public final void testJoinAnyInner64PartitionsRun()
 
         Integer[][] reference = getReference(settings.getJoinMode());
 
-        testRunner(settings, reference, 6, Integer.SIZE);
+        // the tuples fit into memory - simulate low memory to partition the tables into 64 partitions
+        testRunner(settings, reference, 6, 6, 1);
     }
 
 
@@ -288,7 +298,8 @@ public final void testJoinAnyLeftOuter64PartitionsRun()
 
         Integer[][] reference = getReference(settings.getJoinMode());
 
-        testRunner(settings, reference, 6, Integer.SIZE);
+        // the tuples fit into memory - simulate low memory to partition the tables into 64 partitions
+        testRunner(settings, reference, 6, 6, 1);
     }
 
     /**
@@ -324,7 +335,8 @@ public final void testJoinAnyRightOuter64PartitionsRun()
 
         Integer[][] reference = getReference(settings.getJoinMode());
 
-        testRunner(settings, reference, 6, Integer.SIZE);
+        // the tuples fit into memory - simulate low memory to partition the tables into 64 partitions
+        testRunner(settings, reference, 6, 6, 1);
     }
 
     /**
@@ -359,7 +371,32 @@ public final void testJoinAnyFullOuter64PartitionsRun()
 
         Integer[][] reference = getReference(settings.getJoinMode());
 
-        testRunner(settings, reference, 6, Integer.SIZE);
+        // the tuples fit into memory - simulate low memory to partition the tables into 64 partitions
+        testRunner(settings, reference, 6, 6, 1);
+    }
+
+    /**
+     * Test all join modes with the partitioned join, forced by simulated low
+     * memory, which also splits partitions.
+     *
+     * @throws CanceledExecutionException when execution is canceled
+     * @throws InvalidSettingsException when settings are invalid
+     */
+    @Test
+    public final void testJoinAnyPartitionedRun()
+            throws CanceledExecutionException, InvalidSettingsException {
+        for (JoinMode mode : new JoinMode[]{JoinMode.InnerJoin,
+                JoinMode.LeftOuterJoin, JoinMode.RightOuterJoin,
+                JoinMode.FullOuterJoin}) {
+            Joiner2Settings settings = createBasicSettings();
+            settings.setJoinMode(mode);
+            settings.setMaxOpenFiles(3);
+
+            Integer[][] reference = getReference(settings.getJoinMode());
+
+            testRunner(settings, reference, 0, 6, 2);
+            testRunner(settings, reference, 1, Integer.SIZE, 2);
+        }
     }
 
     /**
@@ -0,0 +1,178 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.util.kdtree;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks the results of {@link PrimitiveKDTree} against a brute force search.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class PrimitiveKDTreeTest extends TestCase {
+
+    private final Random m_random = new Random(47);
+
+    /**
+     * Tests the search in various trees against a brute force search.
+     */
+    public void testSearch() {
+        for (int i = 0; i < 300; i++) {
+            final int size = m_random.nextInt(1000) + 1;
+            final int dimensions = m_random.nextInt(50) + 1;
+            final int neighbours = m_random.nextInt(size) + 1;
+            final int bucketSize = m_random.nextInt(16) + 1;
+            singleTest(size, dimensions, neighbours, bucketSize);
+        }
+    }
+
+    private void singleTest(final int size, final int dimensions, final int neighbours, final int bucketSize) {
+        final double[] patterns = new double[size * dimensions];
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = 120 * (m_random.nextDouble() - 0.5);
+        }
+        final PrimitiveKDTree tree = new PrimitiveKDTree(patterns, dimensions, bucketSize);
+        assertEquals(size, tree.size());
+        final PrimitiveKDTree.Searcher searcher = tree.createSearcher(neighbours);
+
+        // the same searcher for several queries
+        for (int q = 0; q < 5; q++) {
+            final double[] query = new double[dimensions];
+            for (int k = 0; k < query.length; k++) {
+                query[k] = 100 * (m_random.nextDouble() - 0.5);
+            }
+            final double[] distances = new double[size];
+            final Integer[] sorted = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                distances[i] = distance(patterns, i, query);
+                sorted[i] = i;
+            }
+            Arrays.sort(sorted, (a, b) -> Double.compare(distances[a], distances[b]));
+
+            assertEquals(neighbours, searcher.search(query));
+            for (int i = 0; i < neighbours; i++) {
+                assertEquals(sorted[i].intValue(), searcher.getIndex(i));
+                assertEquals(distances[sorted[i]], searcher.getDistance(i), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * Tests that all patterns with the same distance as the k-th nearest neighbour are returned.
+     */
+    public void testTies() {
+        for (int i = 0; i < 100; i++) {
+            final int size = m_random.nextInt(300) + 1;
+            final int dimensions = m_random.nextInt(3) + 1;
+            final int neighbours = m_random.nextInt(size) + 1;
+            final double[] patterns = new double[size * dimensions];
+            for (int k = 0; k < patterns.length; k++) {
+                // few distinct values, many ties
+                patterns[k] = m_random.nextInt(5);
+            }
+            final PrimitiveKDTree tree = new PrimitiveKDTree(patterns, dimensions, m_random.nextInt(8) + 1);
+            final PrimitiveKDTree.Searcher searcher = tree.createSearcher(neighbours);
+
+            final double[] query = new double[dimensions];
+            for (int k = 0; k < dimensions; k++) {
+                query[k] = m_random.nextInt(5);
+            }
+            final double[] distances = new double[size];
+            for (int p = 0; p < size; p++) {
+                distances[p] = distance(patterns, p, query);
+            }
+            final double[] sorted = distances.clone();
+            Arrays.sort(sorted);
+            int expectedCount = neighbours;
+            while (expectedCount < size && sorted[expectedCount] == sorted[neighbours - 1]) {
+                expectedCount++;
+            }
+
+            final int count = searcher.search(query);
+            assertEquals(expectedCount, count);
+            final boolean[] isFound = new boolean[size];
+            for (int n = 0; n < count; n++) {
+                assertFalse(isFound[searcher.getIndex(n)]);
+                isFound[searcher.getIndex(n)] = true;
+                assertEquals(sorted[n], searcher.getDistance(n), 1e-9);
+                assertEquals(sorted[n], distances[searcher.getIndex(n)], 1e-9);
+            }
+        }
+    }
+
+    /**
+     * Tests the corner cases of empty trees and zero neighbours.
+     */
+    public void testEmpty() {
+        final PrimitiveKDTree empty = new PrimitiveKDTree(new double[0], 3);
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.createSearcher(0).search(new double[3]));
+
+        final PrimitiveKDTree tree = new PrimitiveKDTree(new double[]{1, 2, 3, 4, 5, 6}, 3);
+        assertEquals(2, tree.size());
+        assertEquals(0, tree.createSearcher(0).search(new double[3]));
+        try {
+            tree.createSearcher(3);
+            fail("More neighbours than patterns requested");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static double distance(final double[] patterns, final int index, final double[] query) {
+        double sum = 0;
+        for (int k = 0; k < query.length; k++) {
+            final double diff = patterns[index * query.length + k] - query[k];
+            sum += diff * diff;
+        }
+        return Math.sqrt(sum);
+    }
+}
@@ -482,4 +482,128 @@ public void testUpdateChildMemberships() throws Exception {
         assertEquals("The produced BitSet is incorrect", expected, inChild);
     }
 
+    /**
+     * Tests that the binned split search finds the same splits as the exact one if each value has its own bin.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testBinnedSplitsWithBinPerValue() throws Exception {
+        final TreeEnsembleLearnerConfiguration config = createConfig();
+        config.setNumericBinCount(16);
+        final double[] data = asDataArray("60,70,75,85, 90, 95, 100,120,125,220");
+        final String[] target = asStringArray("No,No,No,Yes,Yes,Yes,No, No, No, No");
+        final Pair<TreeOrdinaryNumericColumnData, TreeTargetNominalColumnData> exampleData =
+            exampleData(config, data, target);
+        final TreeOrdinaryNumericColumnData columnData = exampleData.getFirst();
+        assertNotNull(columnData.getBins());
+        assertEquals(10, columnData.getBins().getNrBins());
+        final TreeTargetNominalColumnData targetData = exampleData.getSecond();
+        final double[] rowWeights = new double[data.length];
+        Arrays.fill(rowWeights, 1.0);
+        final TreeData treeData = createTreeDataClassification(exampleData);
+        final DataMemberships dataMemberships =
+            new RootDataMemberships(rowWeights, treeData, new DefaultDataIndexManager(treeData));
+        final SplitCandidate splitCandidate = columnData.calcBestSplitClassification(dataMemberships,
+            targetData.getDistribution(rowWeights, config), targetData, config.createRandomData());
+        assertNotNull(splitCandidate);
+        assertEquals(0.12, splitCandidate.getGainValue(), 0.00001);
+        final TreeNodeNumericCondition[] childConditions =
+            ((NumericSplitCandidate)splitCandidate).getChildConditions();
+        assertEquals((95.0 + 100.0) / 2.0, childConditions[0].getSplitValue(), 0.0);
+
+        // the child nodes are split with the same bins
+        final BitSet inChild = columnData.updateChildMemberships(childConditions[0], dataMemberships);
+        final DataMemberships childMemberships = dataMemberships.createChildMemberships(inChild);
+        final SplitCandidate splitCandidateChild = columnData.calcBestSplitClassification(childMemberships,
+            targetData.getDistribution(childMemberships, config), targetData, config.createRandomData());
+        assertEquals(0.5, splitCandidateChild.getGainValue(), 0.00001);
+        assertEquals((75.0 + 85.0) / 2.0,
+            ((NumericSplitCandidate)splitCandidateChild).getChildConditions()[0].getSplitValue(), 0.0);
+
+        final TreeEnsembleLearnerConfiguration regressionConfig = new TreeEnsembleLearnerConfiguration(true);
+        regressionConfig.setNumericBinCount(16);
+        final TestDataGenerator dataGen = new TestDataGenerator(regressionConfig);
+        final TreeTargetNumericColumnData regressionTarget =
+            TestDataGenerator.createNumericTargetColumn("1,5,4,4.3,6.5,6.5,4,3,3,4");
+        final TreeNumericColumnData attribute =
+            dataGen.createNumericAttributeColumn("1,2,3,4,5,6,7,8,9,10", "test-col", 0);
+        final TreeData regressionData =
+            new TreeData(new TreeAttributeColumnData[]{attribute}, regressionTarget, TreeType.Ordinary);
+        final double[] weights = new double[10];
+        Arrays.fill(weights, 1.0);
+        final DataMemberships rootMem =
+            new RootDataMemberships(weights, regressionData, new DefaultDataIndexManager(regressionData));
+        final SplitCandidate regressionSplit = attribute.calcBestSplitRegression(rootMem,
+            regressionTarget.getPriors(rootMem, regressionConfig), regressionTarget,
+            regressionConfig.createRandomData());
+        assertEquals(10.885444, regressionSplit.getGainValue(), 1e-5);
+        assertEquals(1.5,
+            ((TreeNodeNumericCondition)regressionSplit.getChildConditions()[0]).getSplitValue(), 0.0);
+    }
+
+    /**
+     * Tests that splits are only searched at the bin boundaries and that missing values are sent in the right
+     * direction.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testBinnedSplitsAtBinBoundaries() throws Exception {
+        final TreeEnsembleLearnerConfiguration config = createConfig();
+        config.setMissingValueHandling(MissingValueHandling.XGBoost);
+        config.setNumericBinCount(2);
+        final TestDataGenerator dataGen = new TestDataGenerator(config);
+        final int[] indices = new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        final double[] weights = new double[10];
+        Arrays.fill(weights, 1.0);
+        final MockDataColMem dataMem = new MockDataColMem(indices, indices, weights);
+        final TreeNumericColumnData col =
+            dataGen.createNumericAttributeColumn("1,2,3,4,5,6,7,8,NaN,NaN", "testCol", 0);
+        final TreeTargetNominalColumnData target = TestDataGenerator.createNominalTargetColumn("A,A,A,B,B,B,B,B,B,B");
+        final SplitCandidate split = col.calcBestSplitClassification(dataMem, target.getDistribution(weights, config),
+            target, config.createRandomData());
+        // the exact split would be at 3.5, but the only bin boundary is between 4 and 5
+        final TreeNodeNumericCondition numCondLeft = (TreeNodeNumericCondition)split.getChildConditions()[0];
+        assertEquals("Wrong split point.", 4.5, numCondLeft.getSplitValue(), 1e-8);
+        assertFalse("Missings were not sent in the correct direction.", numCondLeft.acceptsMissings());
+        // left: 3 x A, 1 x B; right: 6 x B
+        assertEquals("Wrong gain.", 0.42 - 0.4 * 0.375, split.getGainValue(), 1e-8);
+    }
+
+    /**
+     * Tests that the values are binned with about the same number of records per bin and that equal values are never
+     * in different bins.
+     */
+    @Test
+    public void testNumericColumnBins() {
+        final float[] sortedData = new float[]{1, 1, 1, 1, 1, 2, 3, Float.NaN};
+        TreeNumericColumnBins bins = TreeNumericColumnBins.create(sortedData, 7, 3);
+        assertEquals(3, bins.getNrBins());
+        final int[] expectedBins = new int[]{0, 0, 0, 0, 0, 1, 2};
+        for (int i = 0; i < expectedBins.length; i++) {
+            assertEquals("Wrong bin for index " + i, expectedBins[i], bins.getBin(i));
+        }
+        assertEquals(1.0, bins.getUpperBound(0), 0.0);
+        assertEquals(2.0, bins.getLowerBound(1), 0.0);
+
+        bins = TreeNumericColumnBins.create(sortedData, 7, 2);
+        assertEquals(2, bins.getNrBins());
+        assertEquals(1.0, bins.getUpperBound(0), 0.0);
+        assertEquals(2.0, bins.getLowerBound(1), 0.0);
+        assertEquals(3.0, bins.getUpperBound(1), 0.0);
+
+        // more than 256 bins are stored as short values
+        final float[] manyValues = new float[1000];
+        for (int i = 0; i < manyValues.length; i++) {
+            manyValues[i] = i;
+        }
+        bins = TreeNumericColumnBins.create(manyValues, manyValues.length, 500);
+        assertEquals(500, bins.getNrBins());
+        assertEquals(499, bins.getBin(999));
+        assertEquals(998.0, bins.getLowerBound(499), 0.0);
+
+        assertEquals(0, TreeNumericColumnBins.create(new float[]{Float.NaN}, 0, 10).getNrBins());
+    }
+
 }
@@ -0,0 +1,283 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.mine.treeensemble2.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+import org.knime.base.node.mine.treeensemble2.data.TestDataGenerator;
+import org.knime.base.node.mine.treeensemble2.data.TreeAttributeColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.data.TreeBitColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.data.TreeBitVectorColumnDataCreator;
+import org.knime.base.node.mine.treeensemble2.data.TreeMetaData;
+import org.knime.base.node.mine.treeensemble2.data.TreeNominalColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.data.TreeNumericColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.data.TreeTargetColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeEnsembleModel.TreeType;
+import org.knime.base.node.mine.treeensemble2.model.TreeNodeNumericCondition.NumericOperator;
+import org.knime.base.node.mine.treeensemble2.node.learner.TreeEnsembleLearnerConfiguration;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+import org.knime.core.data.vector.bytevector.DenseByteVectorCellFactory;
+import org.knime.core.data.vector.doublevector.DoubleVectorCellFactory;
+
+/**
+ * Tests that the {@link CompiledTreeModel} finds the same nodes as the tree it is compiled from.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class CompiledTreeModelTest {
+
+    /**
+     * Tests numeric, nominal, binary nominal and surrogate conditions with all combinations of values, missing values
+     * and unknown nominal values.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testFindMatchingNode() throws Exception {
+        final TestDataGenerator dataGen = new TestDataGenerator(new TreeEnsembleLearnerConfiguration(true));
+        final TreeNumericColumnMetaData num =
+            dataGen.createNumericAttributeColumn("1,2,3,4", "num", 0).getMetaData();
+        final TreeNominalColumnMetaData nom =
+            dataGen.createNominalAttributeColumn("A,B,C,D", "nom", 1).getMetaData();
+        final TreeTargetColumnMetaData target = TestDataGenerator.createNumericTargetColumn("1,2,3,4").getMetaData();
+
+        final TreeNodeRegression leftLeft = createNode(target, 1,
+            new TreeNodeNominalCondition(nom, 1, true));
+        final TreeNodeRegression leftRight = createNode(target, 2,
+            new TreeNodeNominalBinaryCondition(nom, BigInteger.valueOf(2), false, false));
+        // the first condition decides unless "num" is missing, then the second unless "nom" is missing too
+        final TreeNodeColumnCondition[] surrogates = new TreeNodeColumnCondition[]{
+            new TreeNodeNumericCondition(num, 2.5, NumericOperator.LessThanOrEqual, false),
+            new TreeNodeNominalBinaryCondition(nom, BigInteger.valueOf(5), true, false)};
+        final TreeNodeRegression left =
+            createNode(target, 3, new TreeNodeSurrogateCondition(surrogates, true), leftLeft, leftRight);
+        final TreeNodeRegression right = createNode(target, 4,
+            new TreeNodeNumericCondition(num, 2.5, NumericOperator.LargerThanOrMissing, true));
+        final TreeModelRegression tree = new TreeModelRegression(createNode(target, 0, null, left, right));
+
+        final TreeMetaData metaData =
+            TreeMetaData.createTreeMetaData(new TreeAttributeColumnMetaData[]{num, nom}, target);
+        final TreeEnsembleModel model =
+            new TreeEnsembleModel(metaData, new AbstractTreeModel[]{tree}, TreeType.Ordinary, false);
+        final DataTableSpec learnSpec =
+            new DataTableSpec(new DataColumnSpecCreator("num", DoubleCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("nom", StringCell.TYPE).createSpec());
+        final CompiledTreeEnsembleModel compiled = new CompiledTreeEnsembleModel(model, learnSpec);
+        assertEquals(1, compiled.getNrModels());
+
+        final DataCell[] numCells = new DataCell[]{DataType.getMissingCell(), new DoubleCell(Double.NaN),
+            new DoubleCell(1), new DoubleCell(2.5), new DoubleCell(3)};
+        final DataCell[] nomCells = new DataCell[]{DataType.getMissingCell(), new StringCell("A"),
+            new StringCell("B"), new StringCell("C"), new StringCell("D"), new StringCell("unknown")};
+        for (DataCell numCell : numCells) {
+            for (DataCell nomCell : nomCells) {
+                final DataRow row = new DefaultRow(RowKey.createRowKey(0L), numCell, nomCell);
+                assertSame("Wrong node for " + row, tree.findMatchingNode(model.createPredictorRecord(row, learnSpec)),
+                    compiled.getTreeModelRegression(0).findMatchingNode(compiled.createFeatureVector(row)));
+            }
+        }
+    }
+
+    /**
+     * Tests that a missing vector has no feature vector.
+     */
+    @Test
+    public void testMissingVector() {
+        final TreeTargetColumnMetaData target = TestDataGenerator.createNumericTargetColumn("1,2").getMetaData();
+        final TreeNumericColumnMetaData attribute = new TreeNumericColumnMetaData("Double 0");
+        attribute.setAttributeIndex(0);
+        final TreeModelRegression tree = new TreeModelRegression(createNode(target, 0, null));
+        final TreeEnsembleModel model = new TreeEnsembleModel(
+            TreeMetaData.createTreeMetaData(new TreeAttributeColumnMetaData[]{attribute}, target),
+            new AbstractTreeModel[]{tree}, TreeType.DoubleVector, false);
+        final CompiledTreeEnsembleModel compiled = new CompiledTreeEnsembleModel(model, null);
+        assertNull(compiled.createFeatureVector(new DefaultRow(RowKey.createRowKey(0L), DataType.getMissingCell())));
+    }
+
+    /**
+     * Tests bit conditions with all combinations of bits.
+     */
+    @Test
+    public void testBitVector() {
+        final TreeTargetColumnMetaData target = TestDataGenerator.createNumericTargetColumn("1,2").getMetaData();
+        final TreeBitVectorColumnDataCreator creator =
+            new TreeBitVectorColumnDataCreator(new DataColumnSpecCreator("bits", DenseBitVectorCell.TYPE).createSpec());
+        creator.add(RowKey.createRowKey(0L), new DenseBitVectorCellFactory(3).createDataCell());
+        final TreeEnsembleLearnerConfiguration config = new TreeEnsembleLearnerConfiguration(true);
+        final TreeBitColumnMetaData[] bits = new TreeBitColumnMetaData[3];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = (TreeBitColumnMetaData)creator.createColumnData(i, config).getMetaData();
+            bits[i].setAttributeIndex(i);
+        }
+
+        final TreeNodeRegression left = createNode(target, 1, new TreeNodeBitCondition(bits[0], true),
+            createNode(target, 3, new TreeNodeBitCondition(bits[1], true)),
+            createNode(target, 4, new TreeNodeBitCondition(bits[1], false)));
+        final TreeNodeRegression right = createNode(target, 2, new TreeNodeBitCondition(bits[0], false),
+            createNode(target, 5, new TreeNodeBitCondition(bits[2], false)),
+            createNode(target, 6, new TreeNodeBitCondition(bits[2], true)));
+        final TreeModelRegression tree = new TreeModelRegression(createNode(target, 0, null, left, right));
+        final TreeEnsembleModel model = createVectorModel(tree, TreeType.BitVector, bits, target);
+        final CompiledTreeEnsembleModel compiled = new CompiledTreeEnsembleModel(model, null);
+
+        for (int v = 0; v < 8; v++) {
+            final DenseBitVectorCellFactory factory = new DenseBitVectorCellFactory(bits.length);
+            for (int i = 0; i < bits.length; i++) {
+                factory.set(i, (v & (1 << i)) != 0);
+            }
+            assertSameNode(tree, model, compiled, factory.createDataCell());
+        }
+    }
+
+    /**
+     * Tests numeric conditions on bytes with values around the split values, including bytes larger than 127.
+     */
+    @Test
+    public void testByteVector() {
+        final TreeTargetColumnMetaData target = TestDataGenerator.createNumericTargetColumn("1,2").getMetaData();
+        final TreeNumericColumnMetaData[] bytes = new TreeNumericColumnMetaData[2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = new TreeNumericColumnMetaData(TreeNumericColumnMetaData.getAttributeNameByte(i));
+            bytes[i].setAttributeIndex(i);
+        }
+        final TreeModelRegression tree = createNumericTree(target, bytes, 100, false);
+        final TreeEnsembleModel model = createVectorModel(tree, TreeType.ByteVector, bytes, target);
+        final CompiledTreeEnsembleModel compiled = new CompiledTreeEnsembleModel(model, null);
+
+        final int[] values = new int[]{0, 1, 100, 101, 200, 255};
+        for (int first : values) {
+            for (int second : values) {
+                final DenseByteVectorCellFactory factory = new DenseByteVectorCellFactory(bytes.length);
+                factory.set(0, (byte)first);
+                factory.set(1, (byte)second);
+                assertSameNode(tree, model, compiled, factory.createDataCell());
+            }
+        }
+    }
+
+    /**
+     * Tests numeric conditions on doubles with all combinations of values and NaN entries, which are missing values.
+     */
+    @Test
+    public void testDoubleVector() {
+        final TreeTargetColumnMetaData target = TestDataGenerator.createNumericTargetColumn("1,2").getMetaData();
+        final TreeNumericColumnMetaData[] doubles = new TreeNumericColumnMetaData[2];
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = new TreeNumericColumnMetaData(TreeNumericColumnMetaData.getAttributeNameDouble(i));
+            doubles[i].setAttributeIndex(i);
+        }
+        final TreeModelRegression tree = createNumericTree(target, doubles, 2.5, true);
+        final TreeEnsembleModel model = createVectorModel(tree, TreeType.DoubleVector, doubles, target);
+        final CompiledTreeEnsembleModel compiled = new CompiledTreeEnsembleModel(model, null);
+
+        final double[] values = new double[]{Double.NaN, 1, 2.5, 3};
+        for (double first : values) {
+            for (double second : values) {
+                assertSameNode(tree, model, compiled, DoubleVectorCellFactory.createCell(new double[]{first, second}));
+            }
+        }
+    }
+
+    /**
+     * Creates a tree that splits on the first attribute and then on the second attribute. The missing values go
+     * to the right in the first split and, if <code>withMissings</code> is set, to the left in the second split.
+     */
+    private static TreeModelRegression createNumericTree(final TreeTargetColumnMetaData target,
+        final TreeNumericColumnMetaData[] attributes, final double splitValue, final boolean withMissings) {
+        final NumericOperator leftOperator =
+            withMissings ? NumericOperator.LessThanOrEqualOrMissing : NumericOperator.LessThanOrEqual;
+        final TreeNodeRegression left = createNode(target, 1,
+            new TreeNodeNumericCondition(attributes[0], splitValue, NumericOperator.LessThanOrEqual, false),
+            createNode(target, 3, new TreeNodeNumericCondition(attributes[1], splitValue, leftOperator, withMissings)),
+            createNode(target, 4,
+                new TreeNodeNumericCondition(attributes[1], splitValue, NumericOperator.LargerThan, false)));
+        final TreeNodeRegression right = createNode(target, 2,
+            new TreeNodeNumericCondition(attributes[0], splitValue, NumericOperator.LargerThanOrMissing, true),
+            createNode(target, 5,
+                new TreeNodeNumericCondition(attributes[1], splitValue, NumericOperator.LessThanOrEqual, false)),
+            createNode(target, 6,
+                new TreeNodeNumericCondition(attributes[1], splitValue, NumericOperator.LargerThan, false)));
+        return new TreeModelRegression(createNode(target, 0, null, left, right));
+    }
+
+    private static TreeEnsembleModel createVectorModel(final TreeModelRegression tree, final TreeType type,
+        final TreeAttributeColumnMetaData[] attributes, final TreeTargetColumnMetaData target) {
+        return new TreeEnsembleModel(TreeMetaData.createTreeMetaData(attributes, target),
+            new AbstractTreeModel[]{tree}, type, false);
+    }
+
+    private static void assertSameNode(final TreeModelRegression tree, final TreeEnsembleModel model,
+        final CompiledTreeEnsembleModel compiled, final DataCell vector) {
+        final DataRow row = new DefaultRow(RowKey.createRowKey(0L), vector);
+        assertSame("Wrong node for " + row, tree.findMatchingNode(model.createPredictorRecord(row, null)),
+            compiled.getTreeModelRegression(0).findMatchingNode(compiled.createFeatureVector(row)));
+    }
+
+    private static TreeNodeRegression createNode(final TreeTargetColumnMetaData target, final double mean,
+        final TreeNodeCondition condition, final TreeNodeRegression... children) {
+        final TreeNodeRegression node =
+            new TreeNodeRegression(target, TreeNodeSignature.ROOT_SIGNATURE, mean, 1, 0, children);
+        node.setTreeNodeCondition(condition);
+        return node;
+    }
+}
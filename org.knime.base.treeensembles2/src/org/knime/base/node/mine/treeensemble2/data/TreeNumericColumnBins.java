@@ -0,0 +1,155 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.mine.treeensemble2.data;
+
+/**
+ * The non missing values of a sorted numeric column quantized into bins with about the same number of records. Equal
+ * values are always in the same bin, hence a split between two bins is a split between two different values. The bin
+ * of each index in the sorted column is stored as byte if there are at most 256 bins and as short otherwise.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TreeNumericColumnBins {
+
+    /** The bin indices if there are at most 256 bins, null otherwise. */
+    private final byte[] m_byteBins;
+
+    /** The bin indices if there are more than 256 bins, null otherwise. */
+    private final short[] m_shortBins;
+
+    private final float[] m_lowerBounds;
+
+    private final float[] m_upperBounds;
+
+    private TreeNumericColumnBins(final byte[] byteBins, final short[] shortBins, final float[] lowerBounds,
+        final float[] upperBounds) {
+        m_byteBins = byteBins;
+        m_shortBins = shortBins;
+        m_lowerBounds = lowerBounds;
+        m_upperBounds = upperBounds;
+    }
+
+    /**
+     * Quantizes the sorted values.
+     *
+     * @param sortedData the sorted values of the column, followed by the missing values
+     * @param lengthNonMissing the number of non missing values
+     * @param maxNrBins the maximum number of bins, at most 65536
+     * @return the bins of the values
+     */
+    static TreeNumericColumnBins create(final float[] sortedData, final int lengthNonMissing, final int maxNrBins) {
+        final int[] binStarts = new int[Math.min(maxNrBins, lengthNonMissing) + 1];
+        int nrBins = 0;
+        int start = 0;
+        while (start < lengthNonMissing) {
+            binStarts[nrBins++] = start;
+            // the remaining records are distributed evenly over the remaining bins, the last bin takes the rest
+            final int remainingBins = maxNrBins - nrBins + 1;
+            int end = start + Math.max(1, (lengthNonMissing - start) / remainingBins);
+            if (remainingBins == 1) {
+                end = lengthNonMissing;
+            }
+            while (end < lengthNonMissing && sortedData[end] == sortedData[end - 1]) {
+                end++;
+            }
+            start = end;
+        }
+        binStarts[nrBins] = lengthNonMissing;
+
+        final float[] lowerBounds = new float[nrBins];
+        final float[] upperBounds = new float[nrBins];
+        final byte[] byteBins = nrBins <= 256 ? new byte[lengthNonMissing] : null;
+        final short[] shortBins = byteBins == null ? new short[lengthNonMissing] : null;
+        for (int b = 0; b < nrBins; b++) {
+            lowerBounds[b] = sortedData[binStarts[b]];
+            upperBounds[b] = sortedData[binStarts[b + 1] - 1];
+            for (int i = binStarts[b]; i < binStarts[b + 1]; i++) {
+                if (byteBins != null) {
+                    byteBins[i] = (byte)b;
+                } else {
+                    shortBins[i] = (short)b;
+                }
+            }
+        }
+        return new TreeNumericColumnBins(byteBins, shortBins, lowerBounds, upperBounds);
+    }
+
+    /**
+     * @return the number of bins, 0 if all values are missing
+     */
+    int getNrBins() {
+        return m_lowerBounds.length;
+    }
+
+    /**
+     * @param indexInColumn the index of a non missing value in the sorted column
+     * @return the bin of the value
+     */
+    int getBin(final int indexInColumn) {
+        if (m_byteBins != null) {
+            return m_byteBins[indexInColumn] & 0xFF;
+        }
+        return m_shortBins[indexInColumn] & 0xFFFF;
+    }
+
+    /**
+     * @param bin the bin
+     * @return the smallest value in the bin
+     */
+    double getLowerBound(final int bin) {
+        return m_lowerBounds[bin];
+    }
+
+    /**
+     * @param bin the bin
+     * @return the largest value in the bin
+     */
+    double getUpperBound(final int bin) {
+        return m_upperBounds[bin];
+    }
+}
@@ -96,6 +96,14 @@ public TreeNumericColumnMetaData getMetaData() {
      */
     public abstract int getLengthNonMissing();
 
+    /**
+     * @return the bins of the non missing values if numeric attributes are binned, null if the splits are searched on
+     *         the exact values
+     */
+    TreeNumericColumnBins getBins() {
+        return null;
+    }
+
     private BitSet getMissedRows(final ColumnMemberships columnMemberships) {
         final BitSet missedRows = new BitSet();
         if (columnMemberships.nextIndexFrom(getLengthNonMissing())) {
@@ -110,6 +118,10 @@ private BitSet getMissedRows(final ColumnMemberships columnMemberships) {
     @Override
     public NumericSplitCandidate calcBestSplitClassification(final DataMemberships dataMemberships,
         final ClassificationPriors targetPriors, final TreeTargetNominalColumnData targetColumn, final RandomData rd) {
+        final TreeNumericColumnBins bins = getBins();
+        if (bins != null) {
+            return calcBestBinSplitClassification(bins, dataMemberships, targetPriors, targetColumn, rd);
+        }
         final TreeEnsembleLearnerConfiguration config = getConfiguration();
         final NominalValueRepresentation[] targetVals = targetColumn.getMetaData().getValues();
         final boolean useAverageSplitPoints = config.isUseAverageSplitPoints();
@@ -322,6 +334,10 @@ public NumericSplitCandidate calcBestSplitClassification(final DataMemberships d
     @Override
     public SplitCandidate calcBestSplitRegression(final DataMemberships dataMemberships,
         final RegressionPriors targetPriors, final TreeTargetNumericColumnData targetColumn, final RandomData rd) {
+        final TreeNumericColumnBins bins = getBins();
+        if (bins != null) {
+            return calcBestBinSplitRegression(bins, dataMemberships, targetPriors, targetColumn, rd);
+        }
         final TreeEnsembleLearnerConfiguration config = getConfiguration();
         final boolean useAverageSplitPoints = config.isUseAverageSplitPoints();
         final int minChildNodeSize = config.getMinChildSize();
@@ -450,6 +466,283 @@ public SplitCandidate calcBestSplitRegression(final DataMemberships dataMembersh
         }
     }
 
+    /**
+     * Histogram based variant of {@link #calcBestSplitClassification(DataMemberships, ClassificationPriors,
+     * TreeTargetNominalColumnData, RandomData)}: The target distribution of the rows in the branch is summed up per
+     * bin in a single pass and the split candidates are only evaluated at the bin boundaries, i.e. the costs of the
+     * evaluation depend on the number of bins rather than on the number of rows. The pass over the rows of the branch
+     * remains (histograms are not derived from the parent's by subtraction), so the overall costs are still linear in
+     * the branch size.
+     */
+    private NumericSplitCandidate calcBestBinSplitClassification(final TreeNumericColumnBins bins,
+        final DataMemberships dataMemberships, final ClassificationPriors targetPriors,
+        final TreeTargetNominalColumnData targetColumn, final RandomData rd) {
+        final TreeEnsembleLearnerConfiguration config = getConfiguration();
+        final boolean useAverageSplitPoints = config.isUseAverageSplitPoints();
+        final int minChildNodeSize = config.getMinChildSize();
+        final boolean useXGBoostMissingValueHandling = config.getMissingValueHandling() == MissingValueHandling.XGBoost;
+        final int targetCounts = targetColumn.getMetaData().getValues().length;
+        final IImpurity impurityCriterion = targetPriors.getImpurityCriterion();
+        final double totalSumWeight = targetPriors.getNrRecords();
+        final int nrBins = bins.getNrBins();
+        final int lengthNonMissing = getLengthNonMissing();
+
+        final ColumnMemberships columnMemberships =
+            dataMemberships.getColumnMemberships(getMetaData().getAttributeIndex());
+
+        // histogram: target distribution per bin (bin-major) and of the missing values
+        final double[] binTargetCounts = new double[nrBins * targetCounts];
+        final double[] binWeights = new double[nrBins];
+        final double[] missingTargetCounts = new double[targetCounts];
+        double missingWeight = 0.0;
+        columnMemberships.reset();
+        while (columnMemberships.next()) {
+            final int indexInColumn = columnMemberships.getIndexInColumn();
+            final double weight = columnMemberships.getRowWeight();
+            final int classIdx = targetColumn.getValueFor(columnMemberships.getOriginalIndex());
+            if (indexInColumn >= lengthNonMissing) {
+                missingTargetCounts[classIdx] += weight;
+                missingWeight += weight;
+            } else {
+                final int bin = bins.getBin(indexInColumn);
+                binTargetCounts[bin * targetCounts + classIdx] += weight;
+                binWeights[bin] += weight;
+            }
+        }
+        columnMemberships.reset();
+
+        final boolean branchContainsMissingValues = missingWeight > 0.0;
+        final double[] targetCountsLeftOfSplit = new double[targetCounts];
+        final double[] targetCountsRightOfSplit =
+            TreeNominalColumnData.subtractMissingClassCounts(targetPriors.getDistribution(), missingTargetCounts);
+        double sumWeightsLeftOfSplit = 0.0;
+        double sumWeightsRightOfSplit = totalSumWeight - missingWeight;
+        if (sumWeightsRightOfSplit == 0) {
+            // all values in branch are missing
+            return null;
+        }
+        final double priorImpurity = useXGBoostMissingValueHandling || !branchContainsMissingValues
+            ? targetPriors.getPriorImpurity()
+            : impurityCriterion.getPartitionImpurity(targetCountsRightOfSplit, sumWeightsRightOfSplit);
+
+        double bestSplit = Double.NEGATIVE_INFINITY;
+        double bestGain = Double.NEGATIVE_INFINITY;
+        double bestGainValueForSplit = Double.NEGATIVE_INFINITY;
+        boolean missingsGoLeft = true;
+        final double[] partitionImpurities = new double[2];
+        final double[] partitionWeights = new double[2];
+        final double[] countsPlusMissing = new double[targetCounts];
+
+        // the last non empty bin, a candidate split is between this bin and the current one
+        int lastBin = -1;
+        for (int bin = 0; bin < nrBins; bin++) {
+            final double binWeight = binWeights[bin];
+            if (binWeight == 0.0) {
+                continue;
+            }
+            if (lastBin >= 0 && sumWeightsLeftOfSplit >= minChildNodeSize
+                && sumWeightsRightOfSplit >= minChildNodeSize) {
+                double postSplitImpurity;
+                boolean tempMissingsGoLeft = false;
+                if (branchContainsMissingValues && useXGBoostMissingValueHandling) {
+                    // send all missing values left
+                    addArrays(targetCountsLeftOfSplit, missingTargetCounts, countsPlusMissing);
+                    partitionImpurities[0] = impurityCriterion.getPartitionImpurity(countsPlusMissing,
+                        sumWeightsLeftOfSplit + missingWeight);
+                    partitionImpurities[1] =
+                        impurityCriterion.getPartitionImpurity(targetCountsRightOfSplit, sumWeightsRightOfSplit);
+                    final double[] weightsMissingsLeft =
+                        new double[]{sumWeightsLeftOfSplit + missingWeight, sumWeightsRightOfSplit};
+                    final double impurityMissingsLeft = impurityCriterion.getPostSplitImpurity(partitionImpurities,
+                        weightsMissingsLeft, totalSumWeight);
+                    // send all missing values right
+                    addArrays(targetCountsRightOfSplit, missingTargetCounts, countsPlusMissing);
+                    partitionImpurities[0] =
+                        impurityCriterion.getPartitionImpurity(targetCountsLeftOfSplit, sumWeightsLeftOfSplit);
+                    partitionImpurities[1] = impurityCriterion.getPartitionImpurity(countsPlusMissing,
+                        sumWeightsRightOfSplit + missingWeight);
+                    final double[] weightsMissingsRight =
+                        new double[]{sumWeightsLeftOfSplit, sumWeightsRightOfSplit + missingWeight};
+                    final double impurityMissingsRight = impurityCriterion.getPostSplitImpurity(partitionImpurities,
+                        weightsMissingsRight, totalSumWeight);
+                    tempMissingsGoLeft = impurityMissingsLeft < impurityMissingsRight;
+                    postSplitImpurity = tempMissingsGoLeft ? impurityMissingsLeft : impurityMissingsRight;
+                    final double[] weights = tempMissingsGoLeft ? weightsMissingsLeft : weightsMissingsRight;
+                    partitionWeights[0] = weights[0];
+                    partitionWeights[1] = weights[1];
+                } else {
+                    partitionImpurities[0] =
+                        impurityCriterion.getPartitionImpurity(targetCountsLeftOfSplit, sumWeightsLeftOfSplit);
+                    partitionImpurities[1] =
+                        impurityCriterion.getPartitionImpurity(targetCountsRightOfSplit, sumWeightsRightOfSplit);
+                    partitionWeights[0] = sumWeightsLeftOfSplit;
+                    partitionWeights[1] = sumWeightsRightOfSplit;
+                    postSplitImpurity =
+                        impurityCriterion.getPostSplitImpurity(partitionImpurities, partitionWeights, totalSumWeight);
+                }
+                if (postSplitImpurity < priorImpurity) {
+                    // absolute gain, see calcBestSplitClassification
+                    final double gain = priorImpurity - postSplitImpurity;
+                    final boolean randomTieBreaker = gain == bestGain ? rd.nextInt(0, 1) == 1 : false;
+                    if (gain > bestGain || randomTieBreaker) {
+                        bestGainValueForSplit = impurityCriterion.getGain(priorImpurity, postSplitImpurity,
+                            partitionWeights, totalSumWeight);
+                        bestGain = gain;
+                        bestSplit = getBinSplitValue(bins, lastBin, bin, useAverageSplitPoints);
+                        missingsGoLeft = branchContainsMissingValues ? tempMissingsGoLeft
+                            : sumWeightsLeftOfSplit > sumWeightsRightOfSplit;
+                    }
+                }
+            }
+            final int offset = bin * targetCounts;
+            for (int i = 0; i < targetCounts; i++) {
+                targetCountsLeftOfSplit[i] += binTargetCounts[offset + i];
+                targetCountsRightOfSplit[i] -= binTargetCounts[offset + i];
+            }
+            sumWeightsLeftOfSplit += binWeight;
+            sumWeightsRightOfSplit -= binWeight;
+            lastBin = bin;
+        }
+
+        if (bestGainValueForSplit < 0.0) {
+            return null;
+        }
+        if (useXGBoostMissingValueHandling) {
+            return new NumericSplitCandidate(this, bestSplit, bestGainValueForSplit, new BitSet(),
+                missingsGoLeft ? NumericSplitCandidate.MISSINGS_GO_LEFT : NumericSplitCandidate.MISSINGS_GO_RIGHT);
+        }
+        return new NumericSplitCandidate(this, bestSplit, bestGainValueForSplit, getMissedRows(columnMemberships),
+            NumericSplitCandidate.NO_MISSINGS);
+    }
+
+    /**
+     * Histogram based variant of {@link #calcBestSplitRegression(DataMemberships, RegressionPriors,
+     * TreeTargetNumericColumnData, RandomData)}, see {@link #calcBestBinSplitClassification(TreeNumericColumnBins,
+     * DataMemberships, ClassificationPriors, TreeTargetNominalColumnData, RandomData)}.
+     */
+    private NumericSplitCandidate calcBestBinSplitRegression(final TreeNumericColumnBins bins,
+        final DataMemberships dataMemberships, final RegressionPriors targetPriors,
+        final TreeTargetNumericColumnData targetColumn, final RandomData rd) {
+        final TreeEnsembleLearnerConfiguration config = getConfiguration();
+        final boolean useAverageSplitPoints = config.isUseAverageSplitPoints();
+        final int minChildNodeSize = config.getMinChildSize();
+        final boolean useXGBoostMissingValueHandling = config.getMissingValueHandling() == MissingValueHandling.XGBoost;
+        final int nrBins = bins.getNrBins();
+        final int lengthNonMissing = getLengthNonMissing();
+
+        final ColumnMemberships columnMemberships =
+            dataMemberships.getColumnMemberships(getMetaData().getAttributeIndex());
+
+        // histogram: weighted sum of the target and number of records per bin and of the missing values
+        final double[] binYSums = new double[nrBins];
+        final double[] binWeights = new double[nrBins];
+        double missingY = 0.0;
+        double missingWeight = 0.0;
+        columnMemberships.reset();
+        while (columnMemberships.next()) {
+            final double weight = columnMemberships.getRowWeight();
+            if (Math.floor(weight) != weight) {
+                throw new UnsupportedOperationException(
+                    "weighted records (missing values?) not supported, " + "weight is " + weight);
+            }
+            final int indexInColumn = columnMemberships.getIndexInColumn();
+            final double y = targetColumn.getValueFor(columnMemberships.getOriginalIndex());
+            if (indexInColumn >= lengthNonMissing) {
+                missingY += weight * y;
+                missingWeight += weight;
+            } else {
+                final int bin = bins.getBin(indexInColumn);
+                binYSums[bin] += weight * y;
+                binWeights[bin] += weight;
+            }
+        }
+        columnMemberships.reset();
+
+        final boolean branchContainsMissingValues = missingWeight > 0.0;
+        final double ySumTotal = targetPriors.getYSum() - missingY;
+        final double nrRecordsTotal = targetPriors.getNrRecords() - missingWeight;
+        if (nrRecordsTotal == 0) {
+            // all values in the current branch are missing
+            return null;
+        }
+        final double criterionTotal = useXGBoostMissingValueHandling
+            ? (ySumTotal + missingY) * (ySumTotal + missingY) / (nrRecordsTotal + missingWeight)
+            : ySumTotal * ySumTotal / nrRecordsTotal;
+
+        double ySumLeft = 0.0;
+        double nrRecordsLeft = 0.0;
+        double ySumRight = ySumTotal;
+        double nrRecordsRight = nrRecordsTotal;
+
+        double bestSplit = Double.NEGATIVE_INFINITY;
+        double bestImprovement = 0.0;
+        boolean missingsGoLeft = true;
+
+        // the last non empty bin, a candidate split is between this bin and the current one
+        int lastBin = -1;
+        for (int bin = 0; bin < nrBins; bin++) {
+            final double binWeight = binWeights[bin];
+            if (binWeight == 0.0) {
+                continue;
+            }
+            if (lastBin >= 0 && nrRecordsLeft >= minChildNodeSize && nrRecordsRight >= minChildNodeSize) {
+                boolean tempMissingsGoLeft = true;
+                double childrenSquaredSum;
+                if (branchContainsMissingValues && useXGBoostMissingValueHandling) {
+                    final double missingsLeft = ((ySumLeft + missingY) * (ySumLeft + missingY)
+                        / (nrRecordsLeft + missingWeight)) + (ySumRight * ySumRight / nrRecordsRight);
+                    final double missingsRight = (ySumLeft * ySumLeft / nrRecordsLeft)
+                        + ((ySumRight + missingY) * (ySumRight + missingY) / (nrRecordsRight + missingWeight));
+                    tempMissingsGoLeft = missingsLeft >= missingsRight;
+                    childrenSquaredSum = tempMissingsGoLeft ? missingsLeft : missingsRight;
+                } else {
+                    childrenSquaredSum =
+                        (ySumLeft * ySumLeft / nrRecordsLeft) + (ySumRight * ySumRight / nrRecordsRight);
+                }
+                final double criterion = childrenSquaredSum - criterionTotal;
+                final boolean randomTieBreaker = criterion == bestImprovement ? rd.nextInt(0, 1) == 1 : false;
+                if (criterion > bestImprovement || randomTieBreaker) {
+                    bestImprovement = criterion;
+                    bestSplit = getBinSplitValue(bins, lastBin, bin, useAverageSplitPoints);
+                    missingsGoLeft =
+                        branchContainsMissingValues ? tempMissingsGoLeft : nrRecordsLeft >= nrRecordsRight;
+                }
+            }
+            ySumLeft += binYSums[bin];
+            ySumRight -= binYSums[bin];
+            nrRecordsLeft += binWeight;
+            nrRecordsRight -= binWeight;
+            lastBin = bin;
+        }
+
+        if (bestImprovement > 0.0) {
+            if (useXGBoostMissingValueHandling) {
+                return new NumericSplitCandidate(this, bestSplit, bestImprovement, new BitSet(),
+                    missingsGoLeft ? NumericSplitCandidate.MISSINGS_GO_LEFT : NumericSplitCandidate.MISSINGS_GO_RIGHT);
+            }
+            return new NumericSplitCandidate(this, bestSplit, bestImprovement, getMissedRows(columnMemberships),
+                NumericSplitCandidate.NO_MISSINGS);
+        }
+        return null;
+    }
+
+    /**
+     * The split value between two bins: the largest value of the left bin (all values &lt;= split go left) or the
+     * center between the bins. As equal values are never in different bins, the rows are partitioned the same way as
+     * by a split between the rows of the branch.
+     */
+    private static double getBinSplitValue(final TreeNumericColumnBins bins, final int leftBin, final int rightBin,
+        final boolean useAverageSplitPoints) {
+        final double upperBound = bins.getUpperBound(leftBin);
+        return useAverageSplitPoints ? getCenter(upperBound, bins.getLowerBound(rightBin)) : upperBound;
+    }
+
+    private static void addArrays(final double[] a, final double[] b, final double[] result) {
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a[i] + b[i];
+        }
+    }
+
     /**
      * @param value
      * @return first index with value equal to <b>value</b> (or larger than <b>value</b> if there is no index with equal
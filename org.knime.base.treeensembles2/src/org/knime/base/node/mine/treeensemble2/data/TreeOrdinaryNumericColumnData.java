@@ -60,16 +60,20 @@ public class TreeOrdinaryNumericColumnData extends TreeNumericColumnData {
     private final float[] m_sortedData;
     private final int m_indexFirstMissing;
     private final boolean m_containsMissingValues;
+    /** The bins of the values if numeric attributes are binned, null otherwise. */
+    private final TreeNumericColumnBins m_bins;
 
 //    private final int[] m_originalIndexInColumnList;
 
     TreeOrdinaryNumericColumnData(final TreeNumericColumnMetaData metaData,
         final TreeEnsembleLearnerConfiguration configuration, final float[] sortedData,
-        final int[] orginalIndexInColumnList, final boolean containsMissingValues, final int indexFirstMissing) {
+        final int[] orginalIndexInColumnList, final boolean containsMissingValues, final int indexFirstMissing,
+        final TreeNumericColumnBins bins) {
         super(metaData, configuration, orginalIndexInColumnList);
         m_sortedData = sortedData;
         m_indexFirstMissing = indexFirstMissing;
         m_containsMissingValues = containsMissingValues;
+        m_bins = bins;
 //        m_originalIndexInColumnList = orginalIndexInColumnList;
     }
 
@@ -117,4 +121,12 @@ public boolean containsMissingValues() {
         return m_containsMissingValues;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    TreeNumericColumnBins getBins() {
+        return m_bins;
+    }
+
 }
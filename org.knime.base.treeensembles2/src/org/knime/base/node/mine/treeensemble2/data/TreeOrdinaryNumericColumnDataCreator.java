@@ -119,8 +119,12 @@ public TreeOrdinaryNumericColumnData createColumnData(final int attributeIndex,
         final TreeNumericColumnMetaData metaData = new TreeNumericColumnMetaData(n);
         final boolean containsMissingValues = m_numMissing > 0 ? true : false;
         final int numNonMissing = length - m_numMissing;
+        final int numericBinCount = configuration.getNumericBinCount();
+        final TreeNumericColumnBins bins =
+            numericBinCount == TreeEnsembleLearnerConfiguration.NUMERIC_BIN_COUNT_UNDEFINED ? null
+                : TreeNumericColumnBins.create(sortedData, numNonMissing, numericBinCount);
         return new TreeOrdinaryNumericColumnData(metaData, configuration, sortedData, sortIndex, containsMissingValues,
-            numNonMissing);
+            numNonMissing, bins);
     }
 
     private static class Tuple implements Comparable<Tuple> {
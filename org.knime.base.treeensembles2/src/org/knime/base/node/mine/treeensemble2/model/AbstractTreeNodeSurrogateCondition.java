@@ -99,6 +99,13 @@ public boolean testCondition(final PredictorRecord record) {
         return m_defaultResponse;
     }
 
+    /**
+     * @return the result if the values of all column conditions are missing
+     */
+    boolean getDefaultResponse() {
+        return m_defaultResponse;
+    }
+
     /**
      * @return the first condition (corresponding to the best split determined during training)
      */
@@ -0,0 +1,260 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.mine.treeensemble2.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.knime.base.node.mine.treeensemble2.data.NominalValueRepresentation;
+import org.knime.base.node.mine.treeensemble2.data.TreeNominalColumnMetaData;
+import org.knime.base.node.mine.treeensemble2.model.AbstractTreeEnsembleModel.TreeType;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.NominalValue;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bytevector.ByteVectorValue;
+import org.knime.core.data.vector.doublevector.DoubleVectorValue;
+
+/**
+ * The trees of a {@link TreeEnsembleModel} compiled into {@link CompiledTreeModel}s, together with the conversion of a
+ * row into the feature vector the compiled trees are evaluated on. The feature vector replaces the
+ * {@link org.knime.base.node.mine.treeensemble2.data.PredictorRecord}: numeric values are stored as they are, nominal
+ * values as the index of the value, bits as 0 or 1 and missing values as NaN. The nominal values are looked up in
+ * hash maps instead of being compared with all possible values.
+ * <p>
+ * Instances are immutable and can be used by multiple threads.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class CompiledTreeEnsembleModel {
+
+    private final CompiledTreeModel<?>[] m_models;
+
+    private final TreeType m_type;
+
+    private final int m_nrAttributes;
+
+    /** For ordinary trees the value indices of the nominal columns, null for numeric columns. */
+    private final Map<String, Integer>[] m_nominalValues;
+
+    /** For ordinary trees the columns that are neither nominal nor numeric. */
+    private final boolean[] m_unsupported;
+
+    private final DataTableSpec m_learnSpec;
+
+    /**
+     * Compiles the trees of the model.
+     *
+     * @param model the model to compile
+     * @param learnSpec the spec of the learn columns (without the target)
+     */
+    @SuppressWarnings("unchecked")
+    public CompiledTreeEnsembleModel(final TreeEnsembleModel model, final DataTableSpec learnSpec) {
+        m_models = new CompiledTreeModel<?>[model.getNrModels()];
+        for (int i = 0; i < m_models.length; i++) {
+            m_models[i] = compile(model.getTreeModel(i));
+        }
+        m_type = model.getType();
+        m_nrAttributes = model.getMetaData().getNrAttributes();
+        m_learnSpec = learnSpec;
+        if (m_type == TreeType.Ordinary) {
+            final int nrCols = learnSpec.getNumColumns();
+            m_nominalValues = new Map[nrCols];
+            m_unsupported = new boolean[nrCols];
+            for (int i = 0; i < nrCols; i++) {
+                final DataColumnSpec col = learnSpec.getColumnSpec(i);
+                if (col.getType().isCompatible(NominalValue.class)) {
+                    final NominalValueRepresentation[] nomVals =
+                        ((TreeNominalColumnMetaData)model.getMetaData().getAttributeMetaData(i)).getValues();
+                    m_nominalValues[i] = new HashMap<>((int)(nomVals.length / 0.75 + 1.0));
+                    for (NominalValueRepresentation nomVal : nomVals) {
+                        // the first matching value is used, like in createPredictorRecord
+                        m_nominalValues[i].putIfAbsent(nomVal.getNominalValue(), nomVal.getAssignedInteger());
+                    }
+                } else {
+                    m_unsupported[i] = !col.getType().isCompatible(DoubleValue.class);
+                }
+            }
+        } else {
+            m_nominalValues = null;
+            m_unsupported = null;
+        }
+    }
+
+    private static <N extends AbstractTreeNode> CompiledTreeModel<N> compile(final AbstractTreeModel<N> tree) {
+        return new CompiledTreeModel<>(tree);
+    }
+
+    /**
+     * @return the number of trees
+     */
+    public int getNrModels() {
+        return m_models.length;
+    }
+
+    /**
+     * Retrieves the tree at <b>index</b> as a classification tree.
+     *
+     * @param index of the classification tree to retrieve
+     * @return the compiled tree at <b>index</b>
+     */
+    @SuppressWarnings("unchecked")
+    public CompiledTreeModel<TreeNodeClassification> getTreeModelClassification(final int index) {
+        return (CompiledTreeModel<TreeNodeClassification>)m_models[index];
+    }
+
+    /**
+     * Retrieves the tree at <b>index</b> as a regression tree.
+     *
+     * @param index of the regression tree to retrieve
+     * @return the compiled tree at <b>index</b>
+     */
+    @SuppressWarnings("unchecked")
+    public CompiledTreeModel<TreeNodeRegression> getTreeModelRegression(final int index) {
+        return (CompiledTreeModel<TreeNodeRegression>)m_models[index];
+    }
+
+    /**
+     * Creates the feature vector of a row, the counterpart of
+     * {@link AbstractTreeEnsembleModel#createPredictorRecord(DataRow, DataTableSpec)}.
+     *
+     * @param filterRow the row with the learn columns only
+     * @return the values indexed by attribute index, null if the row contains a missing vector (in this case there is
+     *         no predictor record either)
+     */
+    public double[] createFeatureVector(final DataRow filterRow) {
+        switch (m_type) {
+            case Ordinary:
+                return createNominalNumericFeatureVector(filterRow);
+            case BitVector:
+                return createBitVectorFeatureVector(filterRow);
+            case ByteVector:
+                return createByteVectorFeatureVector(filterRow);
+            case DoubleVector:
+                return createDoubleVectorFeatureVector(filterRow);
+            default:
+                throw new IllegalStateException("Unknown tree type " + "(not implemented): " + m_type);
+        }
+    }
+
+    private double[] createNominalNumericFeatureVector(final DataRow filterRow) {
+        final double[] features = new double[m_nominalValues.length];
+        for (int i = 0; i < features.length; i++) {
+            final DataCell cell = filterRow.getCell(i);
+            if (cell.isMissing()) {
+                features[i] = Double.NaN;
+            } else if (m_nominalValues[i] != null) {
+                // values that are not known to the model are treated as missing values
+                final Integer assignedInteger = m_nominalValues[i].get(cell.toString());
+                features[i] = assignedInteger == null ? Double.NaN : assignedInteger;
+            } else if (m_unsupported[i]) {
+                final DataColumnSpec col = m_learnSpec.getColumnSpec(i);
+                throw new IllegalStateException("Expected nominal or numeric column type for column \""
+                    + col.getName() + "\" but got \"" + col.getType() + "\"");
+            } else {
+                // NaN is treated as missing value anyway (bug AP-7169)
+                features[i] = ((DoubleValue)cell).getDoubleValue();
+            }
+        }
+        return features;
+    }
+
+    private double[] createDoubleVectorFeatureVector(final DataRow filterRow) {
+        final DataCell c = filterRow.getCell(0);
+        if (c.isMissing()) {
+            return null;
+        }
+        final DoubleVectorValue dv = (DoubleVectorValue)c;
+        checkLength(dv.getLength(), "double", filterRow);
+        final double[] features = new double[m_nrAttributes];
+        for (int i = 0; i < features.length; i++) {
+            features[i] = dv.getValue(i);
+        }
+        return features;
+    }
+
+    private double[] createByteVectorFeatureVector(final DataRow filterRow) {
+        final DataCell c = filterRow.getCell(0);
+        if (c.isMissing()) {
+            return null;
+        }
+        final ByteVectorValue bv = (ByteVectorValue)c;
+        checkLength(bv.length(), "byte", filterRow);
+        final double[] features = new double[m_nrAttributes];
+        for (int i = 0; i < features.length; i++) {
+            features[i] = bv.get(i);
+        }
+        return features;
+    }
+
+    private double[] createBitVectorFeatureVector(final DataRow filterRow) {
+        final DataCell c = filterRow.getCell(0);
+        if (c.isMissing()) {
+            return null;
+        }
+        final BitVectorValue bv = (BitVectorValue)c;
+        checkLength(bv.length(), "bit", filterRow);
+        final double[] features = new double[m_nrAttributes];
+        // only the set bits are visited, fingerprints are usually sparse
+        for (long i = bv.nextSetBit(0); i >= 0 && i < features.length; i = bv.nextSetBit(i + 1)) {
+            features[(int)i] = 1;
+        }
+        return features;
+    }
+
+    private void checkLength(final long length, final String vectorType, final DataRow filterRow) {
+        if (length != m_nrAttributes) {
+            throw new IllegalArgumentException("The " + vectorType + "-vector in " + filterRow.getKey().getString()
+                + " has the wrong length. (" + length + " instead of " + m_nrAttributes + ")");
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.mine.treeensemble2.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A tree flattened into primitive arrays for fast prediction. The nodes are numbered in breadth first order, hence the
+ * children of a node are consecutive, and the conditions are stored as operator, attribute index and value. A record
+ * is represented by a double array indexed by the attribute index, see
+ * {@link CompiledTreeEnsembleModel#createFeatureVector(org.knime.core.data.DataRow)}.
+ * <p>
+ * The matching node is the same as the one found by {@link AbstractTreeModel#findMatchingNode(
+ * org.knime.base.node.mine.treeensemble2.data.PredictorRecord)}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @param <N> the type of the tree nodes
+ * @since 3.8
+ */
+public final class CompiledTreeModel<N extends AbstractTreeNode> {
+
+    /** Operator of the {@link TreeNodeTrueCondition}. */
+    private static final byte TRUE = 0;
+
+    /** Numeric "&lt;=", also used for "&lt;= or missing" as the missings are handled separately. */
+    private static final byte LESS_THAN_OR_EQUAL = 1;
+
+    /** Numeric "&gt;", also used for "&gt; or missing". */
+    private static final byte LARGER_THAN = 2;
+
+    /** Nominal or bit value equals the value. */
+    private static final byte EQUAL = 3;
+
+    /** The bit of the nominal value index is set in the mask, "is not in" conditions are inverted. */
+    private static final byte IN_MASK = 4;
+
+    /** The first column condition in the chain whose value isn't missing decides. */
+    private static final byte SURROGATE = 5;
+
+    private final AbstractTreeNode[] m_nodes;
+
+    private final int[] m_firstChild;
+
+    private final int[] m_nrChildren;
+
+    // the conditions, indexed by node, followed by the column conditions of the surrogate chains
+
+    private final byte[] m_operator;
+
+    private final int[] m_attribute;
+
+    private final double[] m_value;
+
+    /** The result if the value is missing, for surrogates if all values of the chain are missing. */
+    private final boolean[] m_acceptsMissings;
+
+    /** The bits of the accepted nominal values for {@link #IN_MASK}, null otherwise. */
+    private final long[][] m_masks;
+
+    /** The condition indices of the chain for {@link #SURROGATE}, null otherwise. */
+    private final int[][] m_surrogates;
+
+    /**
+     * Flattens the tree.
+     *
+     * @param tree the tree to compile
+     */
+    public CompiledTreeModel(final AbstractTreeModel<N> tree) {
+        final List<AbstractTreeNode> nodes = new ArrayList<>();
+        nodes.add(tree.getRootNode());
+        int nrConditions = 0;
+        for (int n = 0; n < nodes.size(); n++) {
+            final AbstractTreeNode node = nodes.get(n);
+            nodes.addAll(node.getChildren());
+            final TreeNodeCondition condition = node.getCondition();
+            if (condition instanceof AbstractTreeNodeSurrogateCondition) {
+                nrConditions += ((AbstractTreeNodeSurrogateCondition)condition).getNumSurrogates() + 1;
+            }
+        }
+        final int nrNodes = nodes.size();
+        nrConditions += nrNodes;
+        m_nodes = nodes.toArray(new AbstractTreeNode[nrNodes]);
+        m_firstChild = new int[nrNodes];
+        m_nrChildren = new int[nrNodes];
+        m_operator = new byte[nrConditions];
+        m_attribute = new int[nrConditions];
+        m_value = new double[nrConditions];
+        m_acceptsMissings = new boolean[nrConditions];
+        m_masks = new long[nrConditions][];
+        m_surrogates = new int[nrConditions][];
+
+        int nextChild = 1;
+        int nextSurrogate = nrNodes;
+        for (int n = 0; n < nrNodes; n++) {
+            m_firstChild[n] = nextChild;
+            m_nrChildren[n] = m_nodes[n].getNrChildren();
+            nextChild += m_nrChildren[n];
+            // the condition of the root is never tested
+            final TreeNodeCondition condition = n == 0 ? TreeNodeTrueCondition.INSTANCE : m_nodes[n].getCondition();
+            if (condition instanceof AbstractTreeNodeSurrogateCondition) {
+                final AbstractTreeNodeSurrogateCondition surrogate = (AbstractTreeNodeSurrogateCondition)condition;
+                final int[] chain = new int[surrogate.getNumSurrogates() + 1];
+                for (int i = 0; i < chain.length; i++) {
+                    chain[i] = nextSurrogate;
+                    compileColumnCondition(nextSurrogate++, surrogate.getColumnCondition(i));
+                }
+                m_operator[n] = SURROGATE;
+                m_surrogates[n] = chain;
+                m_acceptsMissings[n] = surrogate.getDefaultResponse();
+            } else if (condition instanceof TreeNodeColumnCondition) {
+                compileColumnCondition(n, (TreeNodeColumnCondition)condition);
+            } else if (condition instanceof TreeNodeTrueCondition) {
+                m_operator[n] = TRUE;
+            } else {
+                throw new IllegalStateException(
+                    "Unknown condition type " + condition.getClass().getName() + " (not implemented)");
+            }
+        }
+    }
+
+    private void compileColumnCondition(final int index, final TreeNodeColumnCondition condition) {
+        m_attribute[index] = condition.getColumnMetaData().getAttributeIndex();
+        m_acceptsMissings[index] = condition.acceptsMissings();
+        if (condition instanceof TreeNodeNumericCondition) {
+            final TreeNodeNumericCondition numericCondition = (TreeNodeNumericCondition)condition;
+            switch (numericCondition.getNumericOperator()) {
+                case LessThanOrEqual:
+                case LessThanOrEqualOrMissing:
+                    m_operator[index] = LESS_THAN_OR_EQUAL;
+                    break;
+                case LargerThan:
+                case LargerThanOrMissing:
+                    m_operator[index] = LARGER_THAN;
+                    break;
+                default:
+                    throw new UnsupportedOperationException(
+                        "Unsupported operator: " + numericCondition.getNumericOperator());
+            }
+            m_value[index] = numericCondition.getSplitValue();
+        } else if (condition instanceof TreeNodeNominalCondition) {
+            m_operator[index] = EQUAL;
+            m_value[index] = ((TreeNodeNominalCondition)condition).getValueIndex();
+        } else if (condition instanceof TreeNodeNominalBinaryCondition) {
+            m_operator[index] = IN_MASK;
+            m_masks[index] = toMask((TreeNodeNominalBinaryCondition)condition);
+        } else if (condition instanceof TreeNodeBitCondition) {
+            m_operator[index] = EQUAL;
+            m_value[index] = ((TreeNodeBitCondition)condition).getValue() ? 1 : 0;
+        } else {
+            throw new IllegalStateException(
+                "Unknown condition type " + condition.getClass().getName() + " (not implemented)");
+        }
+    }
+
+    /** The bits of the value indices that are accepted by the condition. */
+    private static long[] toMask(final TreeNodeNominalBinaryCondition condition) {
+        final int nrValues = condition.getColumnMetaData().getValues().length;
+        final long[] mask = new long[(nrValues + 63) >>> 6];
+        for (int i = 0; i < nrValues; i++) {
+            if (condition.testCondition(i)) {
+                mask[i >>> 6] |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Finds the matching node for the record.
+     *
+     * @param features the values of the record indexed by attribute index, missing values are NaN
+     * @return the node that matches the values
+     */
+    @SuppressWarnings("unchecked")
+    public N findMatchingNode(final double[] features) {
+        int node = 0;
+        while (m_nrChildren[node] > 0) {
+            int child = m_firstChild[node];
+            final int end = child + m_nrChildren[node];
+            while (child < end && !testCondition(child, features)) {
+                child++;
+            }
+            if (child == end) {
+                break;
+            }
+            node = child;
+        }
+        return (N)m_nodes[node];
+    }
+
+    private boolean testCondition(final int condition, final double[] features) {
+        final byte operator = m_operator[condition];
+        if (operator == TRUE) {
+            return true;
+        }
+        if (operator == SURROGATE) {
+            for (int columnCondition : m_surrogates[condition]) {
+                if (!Double.isNaN(features[m_attribute[columnCondition]])) {
+                    return testCondition(columnCondition, features);
+                }
+            }
+            return m_acceptsMissings[condition];
+        }
+        final double v = features[m_attribute[condition]];
+        if (Double.isNaN(v)) {
+            return m_acceptsMissings[condition];
+        }
+        switch (operator) {
+            case LESS_THAN_OR_EQUAL:
+                return v <= m_value[condition];
+            case LARGER_THAN:
+                return v > m_value[condition];
+            case EQUAL:
+                return v == m_value[condition];
+            case IN_MASK:
+                return isInMask(m_masks[condition], (int)v);
+            default:
+                throw new IllegalStateException("Unknown operator " + operator);
+        }
+    }
+
+    private static boolean isInMask(final long[] mask, final int valueIndex) {
+        final int word = valueIndex >>> 6;
+        return valueIndex >= 0 && word < mask.length && (mask[word] & (1L << valueIndex)) != 0;
+    }
+}
@@ -117,6 +117,10 @@ public class AdvancedOptionsPanel extends JPanel {
 
     private final JCheckBox m_useBinaryNominalSplitsChecker;
 
+    private final JCheckBox m_numericBinCountChecker;
+
+    private final JSpinner m_numericBinCountSpinner;
+
     private final JSpinner m_alphaFractionSpinner;
 
     private final JComboBox<MissingValueHandling> m_missingValueHandlingComboBox;
@@ -220,6 +224,17 @@ public void actionPerformed(final ActionEvent e) {
         m_useAverageSplitPointsChecker = new JCheckBox("Use mid point splits (only for numeric attributes)");
         m_useBinaryNominalSplitsChecker = new JCheckBox("Use binary splits for nominal columns");
         m_missingValueHandlingComboBox = new JComboBox<MissingValueHandling>(MissingValueHandling.values());
+        m_numericBinCountSpinner = new JSpinner(new SpinnerNumberModel(
+            TreeEnsembleLearnerConfiguration.DEF_NUMERIC_BIN_COUNT, 2,
+            TreeEnsembleLearnerConfiguration.MAX_NUMERIC_BIN_COUNT, 1));
+        m_numericBinCountChecker = new JCheckBox("Bin numeric attributes (number of bins)");
+        m_numericBinCountChecker.addItemListener(new ItemListener() {
+            @Override
+            public void itemStateChanged(final ItemEvent e) {
+                m_numericBinCountSpinner.setEnabled(m_numericBinCountChecker.isSelected());
+            }
+        });
+        m_numericBinCountSpinner.setEnabled(false);
 
         initPanel();
     }
@@ -265,6 +280,14 @@ private void initPanel() {
         gbc.gridx = 1;
         add(m_missingValueHandlingComboBox, gbc);
 
+        gbc.gridy += 1;
+        gbc.gridx = 0;
+        gbc.gridwidth = 1;
+        gbc.weightx = 0.0;
+        add(m_numericBinCountChecker, gbc);
+        gbc.gridx = 1;
+        gbc.weightx = 1.0;
+        add(m_numericBinCountSpinner, gbc);
 
         gbc.insets = defaultInsets;
         gbc.gridy += 1;
@@ -396,6 +419,16 @@ public void loadSettings(final GradientBoostingLearnerConfiguration cfg) {
         m_useAverageSplitPointsChecker.setSelected(cfg.isUseAverageSplitPoints());
         m_useBinaryNominalSplitsChecker.setSelected(cfg.isUseBinaryNominalSplits());
         m_missingValueHandlingComboBox.setSelectedItem(cfg.getMissingValueHandling());
+        int numericBinCount = cfg.getNumericBinCount();
+        if ((numericBinCount != TreeEnsembleLearnerConfiguration.NUMERIC_BIN_COUNT_UNDEFINED) != m_numericBinCountChecker
+            .isSelected()) {
+            m_numericBinCountChecker.doClick();
+        }
+        if (numericBinCount == TreeEnsembleLearnerConfiguration.NUMERIC_BIN_COUNT_UNDEFINED) {
+            m_numericBinCountSpinner.setValue(TreeEnsembleLearnerConfiguration.DEF_NUMERIC_BIN_COUNT);
+        } else {
+            m_numericBinCountSpinner.setValue(numericBinCount);
+        }
 
         double dataFrac = cfg.getDataFractionPerTree();
         boolean isDataWithReplacement = cfg.isDataSelectionWithReplacement();
@@ -456,6 +489,8 @@ public void saveSettings(final GradientBoostingLearnerConfiguration cfg) throws
             throw new InvalidSettingsException("Surrogate missing value handling can only be used if binary nominal splits are enabled.");
         }
         cfg.setMissingValueHandling((MissingValueHandling)m_missingValueHandlingComboBox.getSelectedItem());
+        cfg.setNumericBinCount(m_numericBinCountChecker.isSelected() ? (Integer)m_numericBinCountSpinner.getValue()
+            : TreeEnsembleLearnerConfiguration.NUMERIC_BIN_COUNT_UNDEFINED);
 
         double dataFrac;
         boolean isSamplingWithReplacement;
@@ -147,6 +147,8 @@ public class TreeEnsembleLearnerConfiguration {
 
     private static final String KEY_ROW_SAMPLING_MODE = "rowSamplingMode";
 
+    private static final String KEY_NUMERIC_BIN_COUNT = "numericBinCount";
+
     public enum MissingValueHandling {
             /**
              * Use surrogates to handle missing values
@@ -241,6 +243,27 @@ public enum ColumnSamplingMode {
     /** indicates minimum leaf size parameter is not defined. */
     public static final int MIN_CHILD_SIZE_UNDEFINED = -1;
 
+    /**
+     * indicates that numeric attributes are not binned, i.e. splits are searched on the exact values.
+     *
+     * @since 3.8
+     */
+    public static final int NUMERIC_BIN_COUNT_UNDEFINED = -1;
+
+    /**
+     * the maximum number of bins of a numeric attribute (the bin indices are stored as unsigned short values).
+     *
+     * @since 3.8
+     */
+    public static final int MAX_NUMERIC_BIN_COUNT = 1 << 16;
+
+    /**
+     * default number of bins of a numeric attribute if binning is enabled in the dialog.
+     *
+     * @since 3.8
+     */
+    public static final int DEF_NUMERIC_BIN_COUNT = 256;
+
     static final int DEF_MAX_LEVEL = MAX_LEVEL_INFINITE;
 
     static final RowSamplingMode DEF_ROW_SAMPLING_MODE = RowSamplingMode.Random;
@@ -298,6 +321,8 @@ public enum ColumnSamplingMode {
 
     private int m_minChildSize = MIN_CHILD_SIZE_UNDEFINED;
 
+    private int m_numericBinCount = NUMERIC_BIN_COUNT_UNDEFINED;
+
     private double m_dataFractionPerTree = DEF_DATA_FRACTION;
 
     private boolean m_isDataSelectionWithReplacement;
@@ -473,6 +498,35 @@ public void setMinSizes(final int minNodeSize, final int minChildSize) throws In
         m_minChildSize = minChildSize;
     }
 
+    /**
+     * The number of bins the values of numeric attributes are quantized into before learning. If set, split points are
+     * only searched at the bin boundaries, which are computed once per column, and the candidates are evaluated on
+     * histograms of the rows in a node rather than on each row. The rows of a node are still visited once per
+     * attribute to fill the histograms, hence only the split evaluation gets cheaper.
+     *
+     * @return the number of bins or {@link #NUMERIC_BIN_COUNT_UNDEFINED} if the exact values are used.
+     * @since 3.8
+     */
+    public int getNumericBinCount() {
+        return m_numericBinCount;
+    }
+
+    /**
+     * @param numericBinCount the number of bins, at least 2 and at most {@link #MAX_NUMERIC_BIN_COUNT} (or
+     *            {@link #NUMERIC_BIN_COUNT_UNDEFINED}), see {@link #getNumericBinCount()}.
+     * @throws InvalidSettingsException if the value is out of range
+     * @since 3.8
+     */
+    public void setNumericBinCount(final int numericBinCount) throws InvalidSettingsException {
+        if (numericBinCount == NUMERIC_BIN_COUNT_UNDEFINED) {
+            // ok
+        } else if (numericBinCount < 2 || numericBinCount > MAX_NUMERIC_BIN_COUNT) {
+            throw new InvalidSettingsException("Invalid number of bins for numeric attributes: " + numericBinCount
+                + " (must be between 2 and " + MAX_NUMERIC_BIN_COUNT + ")");
+        }
+        m_numericBinCount = numericBinCount;
+    }
+
     /**
      * The fraction of data that is used to train a model (each model in the bag gets a different (overlapping) portion
      * of the data).
@@ -823,6 +877,7 @@ public void save(final NodeSettingsWO settings) {
         settings.addInt(KEY_NR_HILITE_PATTERNS, m_nrHilitePatterns);
         settings.addBoolean(KEY_SAVE_TARGET_DISTRIBUTION_IN_NODES, m_saveTargetDistributionInNodes);
         settings.addString(KEY_ROW_SAMPLING_MODE, m_rowSamplingMode.name());
+        settings.addInt(KEY_NUMERIC_BIN_COUNT, m_numericBinCount);
     }
 
     /**
@@ -911,6 +966,8 @@ public void loadInModel(final NodeSettingsRO settings) throws InvalidSettingsExc
 
         setRowSamplingMode(
             RowSamplingMode.valueOf(settings.getString(KEY_ROW_SAMPLING_MODE, DEF_ROW_SAMPLING_MODE.name())));
+        // added in 3.8
+        setNumericBinCount(settings.getInt(KEY_NUMERIC_BIN_COUNT, NUMERIC_BIN_COUNT_UNDEFINED));
     }
 
     /**
@@ -1015,6 +1072,12 @@ public void loadInDialog(final NodeSettingsRO settings, final DataTableSpec inSp
             m_minChildSize = MIN_CHILD_SIZE_UNDEFINED;
         }
 
+        try {
+            setNumericBinCount(settings.getInt(KEY_NUMERIC_BIN_COUNT, NUMERIC_BIN_COUNT_UNDEFINED));
+        } catch (InvalidSettingsException e) {
+            m_numericBinCount = NUMERIC_BIN_COUNT_UNDEFINED;
+        }
+
         m_dataFractionPerTree = settings.getDouble(KEY_DATA_FRACTION, DEF_DATA_FRACTION);
         if (m_dataFractionPerTree <= 0.0 || m_dataFractionPerTree > 1.0) {
             m_dataFractionPerTree = DEF_DATA_FRACTION;
@@ -101,6 +101,10 @@ public final class TreeOptionsPanel extends JPanel {
 
     private final JSpinner m_minChildNodeSizeSpinner;
 
+    private final JCheckBox m_numericBinCountChecker;
+
+    private final JSpinner m_numericBinCountSpinner;
+
     private final JCheckBox m_hardCodedRootColumnChecker;
 
     private final ColumnSelectionComboxBox m_hardCodedRootColumnBox;
@@ -153,6 +157,17 @@ public void itemStateChanged(final ItemEvent e) {
             }
         });
         m_minChildNodeSizeChecker.doClick();
+        m_numericBinCountSpinner = new JSpinner(new SpinnerNumberModel(
+            TreeEnsembleLearnerConfiguration.DEF_NUMERIC_BIN_COUNT, 2,
+            TreeEnsembleLearnerConfiguration.MAX_NUMERIC_BIN_COUNT, 1));
+        m_numericBinCountChecker = new JCheckBox("Bin numeric attributes (number of bins)");
+        m_numericBinCountChecker.addItemListener(new ItemListener() {
+            @Override
+            public void itemStateChanged(final ItemEvent e) {
+                m_numericBinCountSpinner.setEnabled(m_numericBinCountChecker.isSelected());
+            }
+        });
+        m_numericBinCountSpinner.setEnabled(false);
         m_hardCodedRootColumnBox = new ColumnSelectionComboxBox((Border)null, NominalValue.class, DoubleValue.class);
         m_hardCodedRootColumnChecker = new JCheckBox("Use fixed root attribute");
         m_hardCodedRootColumnChecker.addItemListener(new ItemListener() {
@@ -223,6 +238,14 @@ private void initPanel() {
         gbc.weightx = 1.0;
         add(m_minChildNodeSizeSpinner, gbc);
 
+        gbc.gridy += 1;
+        gbc.gridx = 0;
+        gbc.weightx = 0.0;
+        add(m_numericBinCountChecker, gbc);
+        gbc.gridx += 1;
+        gbc.weightx = 1.0;
+        add(m_numericBinCountSpinner, gbc);
+
         gbc.gridy += 1;
         gbc.gridx = 0;
         gbc.weightx = 0.0;
@@ -291,6 +314,16 @@ public void loadSettingsFrom(final DataTableSpec inSpec, final TreeEnsembleLearn
         } else {
             m_minChildNodeSizeSpinner.setValue(minChildNodeSize);
         }
+        int numericBinCount = cfg.getNumericBinCount();
+        if ((numericBinCount != TreeEnsembleLearnerConfiguration.NUMERIC_BIN_COUNT_UNDEFINED) != m_numericBinCountChecker
+            .isSelected()) {
+            m_numericBinCountChecker.doClick();
+        }
+        if (numericBinCount == TreeEnsembleLearnerConfiguration.NUMERIC_BIN_COUNT_UNDEFINED) {
+            m_numericBinCountSpinner.setValue(TreeEnsembleLearnerConfiguration.DEF_NUMERIC_BIN_COUNT);
+        } else {
+            m_numericBinCountSpinner.setValue(numericBinCount);
+        }
         String rootCol = cfg.getHardCodedRootColumn();
         if (hasOrdinaryColumnsInInput) {
             DataTableSpec attSpec = m_attributePanel.getCurrentAttributeSpec();
@@ -350,6 +383,11 @@ public void saveSettings(final TreeEnsembleLearnerConfiguration cfg) throws Inva
                 : TreeEnsembleLearnerConfiguration.MIN_CHILD_SIZE_UNDEFINED;
         cfg.setMinSizes(minNodeSize, minChildNodeSize);
 
+        int numericBinCount =
+            m_numericBinCountChecker.isSelected() ? (Integer)m_numericBinCountSpinner.getValue()
+                : TreeEnsembleLearnerConfiguration.NUMERIC_BIN_COUNT_UNDEFINED;
+        cfg.setNumericBinCount(numericBinCount);
+
         String hardCodedRootCol =
             m_hardCodedRootColumnChecker.isSelected() ? m_hardCodedRootColumnBox.getSelectedColumn() : null;
         cfg.setHardCodedRootColumn(hardCodedRootCol);
@@ -9,6 +9,7 @@
 import org.knime.base.data.filter.column.FilterColumnRow;
 import org.knime.base.node.mine.treeensemble2.data.PredictorRecord;
 import org.knime.base.node.mine.treeensemble2.data.TreeTargetColumnData;
+import org.knime.base.node.mine.treeensemble2.model.CompiledTreeEnsembleModel;
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModel;
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModelPortObjectSpec;
 import org.knime.base.node.mine.treeensemble2.sample.row.RowSample;
@@ -29,6 +30,9 @@
 
     protected final TreeEnsembleModel m_model;
 
+    /** The trees flattened into arrays, null if there is no model (during configure). */
+    private final CompiledTreeEnsembleModel m_compiledModel;
+
     private final DataTableSpec m_learnSpec;
 
     private final int[] m_filterIndices;
@@ -44,6 +48,7 @@ public AbstractRandomForestPredictor(final TreeEnsembleModel model, final TreeEn
         m_model = model;
         m_filterIndices = modelSpec.calculateFilterIndices(predictSpec);
         m_learnSpec = modelSpec.getLearnTableSpec();
+        m_compiledModel = model == null ? null : new CompiledTreeEnsembleModel(model, m_learnSpec);
     }
 
     /**
@@ -67,9 +72,25 @@ public AbstractRandomForestPredictor(final TreeEnsembleModel model, final TreeEn
     @Override
     public P predict(final DataRow row) {
         FilterColumnRow filterRow = new FilterColumnRow(row, m_filterIndices);
-        return predictRecord(m_model.createPredictorRecord(filterRow, m_learnSpec), row.getKey());
+        final double[] features = m_compiledModel.createFeatureVector(filterRow);
+        if (features == null) {
+            // missing vector, handled by the record path as before
+            return predictRecord(m_model.createPredictorRecord(filterRow, m_learnSpec), row.getKey());
+        }
+        return predictFeatures(m_compiledModel, features, row.getKey());
     }
 
+    /**
+     * Predicts a row with the compiled trees.
+     *
+     * @param compiledModel the trees of {@link #m_model} flattened into arrays
+     * @param features the feature vector of the row, see
+     *            {@link CompiledTreeEnsembleModel#createFeatureVector(DataRow)}
+     * @param key the row key to access out of bag information
+     * @return the prediction, the same as {@link #predictRecord(PredictorRecord, RowKey)} returns
+     */
+    protected abstract P predictFeatures(CompiledTreeEnsembleModel compiledModel, double[] features, RowKey key);
+
     /**
      * @param record the record to predict
      * @param key the row key to access out of bag information
@@ -5,6 +5,7 @@
 
 import org.knime.base.node.mine.treeensemble2.data.PredictorRecord;
 import org.knime.base.node.mine.treeensemble2.data.TreeTargetColumnData;
+import org.knime.base.node.mine.treeensemble2.model.CompiledTreeEnsembleModel;
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModel;
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModelPortObjectSpec;
 import org.knime.base.node.mine.treeensemble2.model.TreeModelClassification;
@@ -60,25 +61,44 @@ public RandomForestClassificationPredictor(final TreeEnsembleModel model,
      */
     @Override
     protected RandomForestClassificationPrediction predictRecord(final PredictorRecord record, final RowKey key) {
-        return new RFClassificationPrediction(record, key, hasOutOfBagFilter());
+        final boolean hasOutOfBagFilter = hasOutOfBagFilter();
+        final Voting voting = m_votingFactory.createVoting();
+        final int nrModels = m_model.getNrModels();
+        for (int i = 0; i < nrModels; i++) {
+            if (hasOutOfBagFilter && isRowPartOfTrainingData(key, i)) {
+                // ignore, row was used to train the model
+            } else {
+                TreeModelClassification m = m_model.getTreeModelClassification(i);
+                TreeNodeClassification match = m.findMatchingNode(record);
+                voting.addVote(match);
+            }
+        }
+        return new RFClassificationPrediction(voting);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected RandomForestClassificationPrediction predictFeatures(final CompiledTreeEnsembleModel compiledModel,
+        final double[] features, final RowKey key) {
+        final boolean hasOutOfBagFilter = hasOutOfBagFilter();
+        final Voting voting = m_votingFactory.createVoting();
+        final int nrModels = compiledModel.getNrModels();
+        for (int i = 0; i < nrModels; i++) {
+            if (!hasOutOfBagFilter || !isRowPartOfTrainingData(key, i)) {
+                voting.addVote(compiledModel.getTreeModelClassification(i).findMatchingNode(features));
+            }
+        }
+        return new RFClassificationPrediction(voting);
     }
 
-    private class RFClassificationPrediction implements RandomForestClassificationPrediction {
+    private static class RFClassificationPrediction implements RandomForestClassificationPrediction {
 
         private final Voting m_voting;
 
-        RFClassificationPrediction(final PredictorRecord record, final RowKey key, final boolean hasOutOfBagFilter) {
-            m_voting = m_votingFactory.createVoting();
-            final int nrModels = m_model.getNrModels();
-            for (int i = 0; i < nrModels; i++) {
-                if (hasOutOfBagFilter && isRowPartOfTrainingData(key, i)) {
-                    // ignore, row was used to train the model
-                } else {
-                    TreeModelClassification m = m_model.getTreeModelClassification(i);
-                    TreeNodeClassification match = m.findMatchingNode(record);
-                    m_voting.addVote(match);
-                }
-            }
+        RFClassificationPrediction(final Voting voting) {
+            m_voting = voting;
         }
 
         /* (non-Javadoc)
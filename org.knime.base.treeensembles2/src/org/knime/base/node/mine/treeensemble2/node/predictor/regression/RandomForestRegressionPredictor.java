@@ -7,6 +7,7 @@
 import org.apache.commons.math.stat.descriptive.moment.Variance;
 import org.knime.base.node.mine.treeensemble2.data.PredictorRecord;
 import org.knime.base.node.mine.treeensemble2.data.TreeTargetColumnData;
+import org.knime.base.node.mine.treeensemble2.model.CompiledTreeEnsembleModel;
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModel;
 import org.knime.base.node.mine.treeensemble2.model.TreeEnsembleModelPortObjectSpec;
 import org.knime.base.node.mine.treeensemble2.model.TreeModelRegression;
@@ -55,10 +56,45 @@ public RandomForestRegressionPredictor(final TreeEnsembleModel model,
      */
     @Override
     protected RandomForestRegressionPrediction predictRecord(final PredictorRecord record, final RowKey key) {
-        return new RFRegressionPrediction(record, key, hasOutOfBagFilter());
+        final boolean hasOutOfBagFilter = hasOutOfBagFilter();
+        Mean mean = new Mean();
+        Variance variance = new Variance();
+        final int nrModels = m_model.getNrModels();
+        for (int i = 0; i < nrModels; i++) {
+            if (hasOutOfBagFilter && isRowPartOfTrainingData(key, i)) {
+                // ignore, row was used to train the model
+            } else {
+                TreeModelRegression m = m_model.getTreeModelRegression(i);
+                TreeNodeRegression match = m.findMatchingNode(record);
+                double nodeMean = match.getMean();
+                mean.increment(nodeMean);
+                variance.increment(nodeMean);
+            }
+        }
+        return new RFRegressionPrediction(mean, variance);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected RandomForestRegressionPrediction predictFeatures(final CompiledTreeEnsembleModel compiledModel,
+        final double[] features, final RowKey key) {
+        final boolean hasOutOfBagFilter = hasOutOfBagFilter();
+        Mean mean = new Mean();
+        Variance variance = new Variance();
+        final int nrModels = compiledModel.getNrModels();
+        for (int i = 0; i < nrModels; i++) {
+            if (!hasOutOfBagFilter || !isRowPartOfTrainingData(key, i)) {
+                double nodeMean = compiledModel.getTreeModelRegression(i).findMatchingNode(features).getMean();
+                mean.increment(nodeMean);
+                variance.increment(nodeMean);
+            }
+        }
+        return new RFRegressionPrediction(mean, variance);
     }
 
-    private class RFRegressionPrediction implements RandomForestRegressionPrediction {
+    private static class RFRegressionPrediction implements RandomForestRegressionPrediction {
 
         private final double m_mean;
 
@@ -66,24 +102,7 @@ private class RFRegressionPrediction implements RandomForestRegressionPrediction
 
         private final int m_modelCount;
 
-        /**
-         *
-         */
-        RFRegressionPrediction(final PredictorRecord record, final RowKey key, final boolean hasOutOfBagFilter) {
-            Mean mean = new Mean();
-            Variance variance = new Variance();
-            final int nrModels = m_model.getNrModels();
-            for (int i = 0; i < nrModels; i++) {
-                if (hasOutOfBagFilter && isRowPartOfTrainingData(key, i)) {
-                    // ignore, row was used to train the model
-                } else {
-                    TreeModelRegression m = m_model.getTreeModelRegression(i);
-                    TreeNodeRegression match = m.findMatchingNode(record);
-                    double nodeMean = match.getMean();
-                    mean.increment(nodeMean);
-                    variance.increment(nodeMean);
-                }
-            }
+        RFRegressionPrediction(final Mean mean, final Variance variance) {
             m_modelCount = (int)mean.getN();
             m_variance = variance.getResult();
             m_mean = mean.getResult();
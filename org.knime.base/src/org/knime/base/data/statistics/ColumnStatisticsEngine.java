@@ -0,0 +1,629 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.data.statistics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DataValueComparator;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.container.BlobWrapperDataCell;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Computes the statistics of numeric columns in a single scan of a table: counts of missing, {@link Double#NaN} and
+ * infinite values, minimum and maximum, the moments (mean, variance, skewness, kurtosis) and optionally the median
+ * and other quantiles. The rows are read in chunks which are processed in parallel, each into its own mergeable
+ * accumulators ({@link DoubleMoments}, {@link QuantileSketch}). The partial results are merged in the order of the
+ * chunks, so the minimum and maximum cells are the first occurrences, as with a sequential scan.
+ * <p>
+ * Quantiles are computed in one of the {@link QuantileMode modes}. In exact mode, the values are collected in
+ * memory and the quantiles are selected in place (no sorting of the table); if the values don't fit into memory the
+ * engine falls back to sketches or, in mode {@link QuantileMode#EXACT_IF_IN_MEMORY}, doesn't compute quantiles at all
+ * (for callers with their own exact fallback), see {@link #isExact()}.
+ * <p>
+ * Quantiles are computed from all non-missing values, {@link Double#NaN}s are ordered after all other values (as by
+ * the comparator of double cells). Quantiles between two values are interpolated linearly.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class ColumnStatisticsEngine {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ColumnStatisticsEngine.class);
+
+    /** Number of rows processed in one task. */
+    private static final int CHUNK_SIZE = 1024;
+
+    /** How to compute the quantiles. */
+    public enum QuantileMode {
+        /** No quantiles. */
+        NONE,
+        /** Exact quantiles, selected from the values collected in memory. */
+        EXACT,
+        /** Approximate quantiles from {@link QuantileSketch}es. */
+        SKETCH,
+        /** Exact quantiles if the values fit into memory, no quantiles otherwise. */
+        EXACT_IF_IN_MEMORY;
+    }
+
+    private final int[] m_columns;
+
+    private final DataValueComparator[] m_comparators;
+
+    private QuantileMode m_mode;
+
+    private ColumnAccumulator[] m_results;
+
+    private double[] m_medians;
+
+    /**
+     * @param spec the spec of the tables to scan
+     * @param columns the indices of the columns, all must be compatible to {@link DoubleValue}
+     * @param mode how to compute the quantiles
+     */
+    public ColumnStatisticsEngine(final DataTableSpec spec, final int[] columns, final QuantileMode mode) {
+        m_columns = columns.clone();
+        m_comparators = new DataValueComparator[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            final DataType type = spec.getColumnSpec(columns[i]).getType();
+            if (!type.isCompatible(DoubleValue.class)) {
+                throw new IllegalArgumentException(
+                    "Column \"" + spec.getColumnSpec(columns[i]).getName() + "\" is not numeric");
+            }
+            m_comparators[i] = type.getComparator();
+        }
+        m_mode = mode;
+    }
+
+    /**
+     * Scans the table and computes the statistics.
+     *
+     * @param table the table to scan
+     * @param exec for progress and cancelation
+     * @param rowConsumer called for each row in the order of the table on the scanning thread (the rows contain all
+     *            columns), may be <code>null</code>
+     * @throws CanceledExecutionException if canceled
+     */
+    public void compute(final BufferedDataTable table, final ExecutionMonitor exec,
+        final Consumer<DataRow> rowConsumer) throws CanceledExecutionException {
+        final long rowCount = table.size();
+        if (m_mode == QuantileMode.EXACT || m_mode == QuantileMode.EXACT_IF_IN_MEMORY) {
+            final Runtime runtime = Runtime.getRuntime();
+            final long availableMemory = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+            final long requiredMemory = 8 * rowCount * m_columns.length;
+            if (requiredMemory > availableMemory / 2 || rowCount > Integer.MAX_VALUE - 8) {
+                if (m_mode == QuantileMode.EXACT) {
+                    LOGGER.debugWithFormat(
+                        "Values of %d rows don't fit into memory, computing approximate quantiles", rowCount);
+                    m_mode = QuantileMode.SKETCH;
+                } else {
+                    LOGGER.debugWithFormat("Values of %d rows don't fit into memory, not computing quantiles",
+                        rowCount);
+                    m_mode = QuantileMode.NONE;
+                }
+            } else {
+                m_mode = QuantileMode.EXACT;
+            }
+        }
+        m_results = new ColumnAccumulator[m_columns.length];
+        for (int i = 0; i < m_columns.length; i++) {
+            m_results[i] = new ColumnAccumulator(i, m_mode == QuantileMode.EXACT ? (int)rowCount : 0);
+        }
+
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL;
+        final int maxPending = 2 * pool.getMaxThreads();
+        final Deque<Future<ColumnAccumulator[]>> pending = new ArrayDeque<Future<ColumnAccumulator[]>>();
+        try (CloseableRowIterator it = rowConsumer == null
+            ? table.iteratorBuilder().filterColumns(m_columns).build() : table.iterator()) {
+            DataCell[][] chunk = new DataCell[CHUNK_SIZE][];
+            int chunkSize = 0;
+            long rowIndex = 0;
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                exec.checkCanceled();
+                if (rowConsumer != null) {
+                    rowConsumer.accept(row);
+                }
+                final DataCell[] cells = new DataCell[m_columns.length];
+                for (int i = 0; i < cells.length; i++) {
+                    cells[i] = row.getCell(m_columns[i]);
+                }
+                chunk[chunkSize++] = cells;
+                rowIndex++;
+                if (chunkSize == CHUNK_SIZE) {
+                    exec.setProgress(rowIndex / (double)rowCount, "Calculating statistics, processing row "
+                        + rowIndex + " (\"" + row.getKey() + "\")");
+                    pending.add(pool.enqueue(createTask(chunk, chunkSize)));
+                    chunk = new DataCell[CHUNK_SIZE][];
+                    chunkSize = 0;
+                    while (pending.size() > maxPending) {
+                        merge(pending.removeFirst().get());
+                    }
+                }
+            }
+            if (chunkSize > 0) {
+                pending.add(pool.enqueue(createTask(chunk, chunkSize)));
+            }
+            while (!pending.isEmpty()) {
+                merge(pending.removeFirst().get());
+            }
+            if (m_mode == QuantileMode.EXACT) {
+                computeMedians();
+            }
+        } catch (InterruptedException e) {
+            throw new CanceledExecutionException("Statistics calculation canceled");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CanceledExecutionException) {
+                throw (CanceledExecutionException)e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error)e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            for (Future<ColumnAccumulator[]> f : pending) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    private Callable<ColumnAccumulator[]> createTask(final DataCell[][] chunk, final int chunkSize) {
+        return () -> {
+            final ColumnAccumulator[] result = new ColumnAccumulator[m_columns.length];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = new ColumnAccumulator(i, m_mode == QuantileMode.EXACT ? chunkSize : 0);
+            }
+            for (int r = 0; r < chunkSize; r++) {
+                final DataCell[] cells = chunk[r];
+                for (int i = 0; i < result.length; i++) {
+                    result[i].add(cells[i]);
+                }
+            }
+            return result;
+        };
+    }
+
+    private void merge(final ColumnAccumulator[] partial) {
+        for (int i = 0; i < m_results.length; i++) {
+            m_results[i].merge(partial[i]);
+        }
+    }
+
+    /** Selects the medians of all columns, one task per column. */
+    private void computeMedians() throws InterruptedException, ExecutionException {
+        m_medians = new double[m_columns.length];
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL;
+        final List<Future<?>> futures = new ArrayList<Future<?>>(m_columns.length);
+        try {
+            for (int i = 0; i < m_columns.length; i++) {
+                final int column = i;
+                futures.add(pool.enqueue(() -> {
+                    m_results[column].moveNaNsToEnd();
+                    m_medians[column] = m_results[column].getMedian();
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            for (Future<?> f : futures) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @return whether the quantiles are exact, false if not computed or if the values didn't fit into memory
+     */
+    public boolean isExact() {
+        return m_mode == QuantileMode.EXACT;
+    }
+
+    /**
+     * @param column the position of the column in the columns passed to the constructor
+     * @return the moments of the non-missing values
+     */
+    public DoubleMoments getMoments(final int column) {
+        return m_results[column].m_moments;
+    }
+
+    /**
+     * @param column the position of the column in the columns passed to the constructor
+     * @return the number of missing cells
+     */
+    public long getMissingCount(final int column) {
+        return m_results[column].m_missingCount;
+    }
+
+    /**
+     * @param column the position of the column in the columns passed to the constructor
+     * @return the number of {@link Double#NaN} values
+     */
+    public long getNaNCount(final int column) {
+        return m_results[column].m_nanCount;
+    }
+
+    /**
+     * @param column the position of the column in the columns passed to the constructor
+     * @return the number of positive infinite values
+     */
+    public long getPositiveInfinityCount(final int column) {
+        return m_results[column].m_positiveInfinityCount;
+    }
+
+    /**
+     * @param column the position of the column in the columns passed to the constructor
+     * @return the number of negative infinite values
+     */
+    public long getNegativeInfinityCount(final int column) {
+        return m_results[column].m_negativeInfinityCount;
+    }
+
+    /**
+     * @param column the position of the column in the columns passed to the constructor
+     * @return the first smallest cell (according to the column comparator, ignoring {@link Double#NaN}s), a missing
+     *         cell if there is none
+     */
+    public DataCell getMinCell(final int column) {
+        return m_results[column].m_min;
+    }
+
+    /**
+     * @param column the position of the column in the columns passed to the constructor
+     * @return the first largest cell (according to the column comparator, ignoring {@link Double#NaN}s), a missing
+     *         cell if there is none
+     */
+    public DataCell getMaxCell(final int column) {
+        return m_results[column].m_max;
+    }
+
+    /**
+     * Returns the smallest finite cell, the first cell if it is smaller than all finite cells (same as
+     * {@link Statistics3Table#getNonInfMin(int)}).
+     *
+     * @param column the position of the column in the columns passed to the constructor
+     * @return the smallest finite cell, a missing cell if there are no cells
+     */
+    public DataCell getNonInfMinCell(final int column) {
+        final ColumnAccumulator acc = m_results[column];
+        return acc.m_first.isMissing() || (!acc.m_finiteMin.isMissing()
+            && m_comparators[column].compare(acc.m_finiteMin, acc.m_first) < 0) ? acc.m_finiteMin : acc.m_first;
+    }
+
+    /**
+     * Returns the largest finite cell, the first cell if it is larger than all finite cells (same as
+     * {@link Statistics3Table#getNonInfMax(int)}).
+     *
+     * @param column the position of the column in the columns passed to the constructor
+     * @return the largest finite cell, a missing cell if there are no cells
+     */
+    public DataCell getNonInfMaxCell(final int column) {
+        final ColumnAccumulator acc = m_results[column];
+        return acc.m_first.isMissing() || (!acc.m_finiteMax.isMissing()
+            && m_comparators[column].compare(acc.m_finiteMax, acc.m_first) > 0) ? acc.m_finiteMax : acc.m_first;
+    }
+
+    /**
+     * @param column the position of the column in the columns passed to the constructor
+     * @return the median, the mean of the two middle values for an even number of values, {@link Double#NaN} if
+     *         there are no values
+     * @throws IllegalStateException if no quantiles were computed
+     */
+    public double getMedian(final int column) {
+        if (m_medians != null) {
+            return m_medians[column];
+        }
+        return m_results[column].getMedian();
+    }
+
+    /**
+     * Returns a quantile. In exact mode this selects the value (in linear time, reordering the collected values),
+     * this method is not thread-safe.
+     *
+     * @param column the position of the column in the columns passed to the constructor
+     * @param p the probability, between 0 and 1
+     * @return the quantile, {@link Double#NaN} if there are no values
+     * @throws IllegalStateException if no quantiles were computed
+     */
+    public double getQuantile(final int column, final double p) {
+        if (p < 0 || p > 1 || Double.isNaN(p)) {
+            throw new IllegalArgumentException("Probability must be between 0 and 1: " + p);
+        }
+        final ColumnAccumulator acc = m_results[column];
+        final long count = acc.getValueCount();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        final double rank = p * (count - 1);
+        final long lower = (long)Math.floor(rank);
+        final double lowerValue = acc.getValueAt(lower);
+        if (lower == rank) {
+            return lowerValue;
+        }
+        final double upperValue = acc.getValueAt(lower + 1);
+        return lowerValue == upperValue ? lowerValue : lowerValue + (rank - lower) * (upperValue - lowerValue);
+    }
+
+    /** The statistics of one column for a part of the table. */
+    private final class ColumnAccumulator {
+
+        private final int m_column;
+
+        private final DoubleMoments m_moments = new DoubleMoments();
+
+        private final QuantileSketch m_sketch;
+
+        /** The non-missing values in exact mode. */
+        private double[] m_values;
+
+        private int m_valueCount;
+
+        /** Number of non-NaN values after {@link #moveNaNsToEnd()}, -1 before. */
+        private int m_nonNaNCount = -1;
+
+        private long m_missingCount;
+
+        private long m_nanCount;
+
+        private long m_positiveInfinityCount;
+
+        private long m_negativeInfinityCount;
+
+        private DataCell m_min = DataType.getMissingCell();
+
+        private DataCell m_max = DataType.getMissingCell();
+
+        /** The first non-NaN cell, for the non-infinite minimum and maximum. */
+        private DataCell m_first = DataType.getMissingCell();
+
+        private DataCell m_finiteMin = DataType.getMissingCell();
+
+        private DataCell m_finiteMax = DataType.getMissingCell();
+
+        ColumnAccumulator(final int column, final int capacity) {
+            m_column = column;
+            m_sketch = m_mode == QuantileMode.SKETCH ? new QuantileSketch() : null;
+            m_values = m_mode == QuantileMode.EXACT ? new double[capacity] : null;
+        }
+
+        void add(final DataCell cell) {
+            if (cell.isMissing()) {
+                m_missingCount++;
+                return;
+            }
+            final DataCell value = cell instanceof BlobWrapperDataCell ? ((BlobWrapperDataCell)cell).getCell() : cell;
+            final double d = ((DoubleValue)value).getDoubleValue();
+            m_moments.add(d);
+            if (m_values != null) {
+                m_values[m_valueCount++] = d;
+            }
+            if (Double.isNaN(d)) {
+                m_nanCount++;
+                return;
+            }
+            if (m_sketch != null) {
+                m_sketch.add(d);
+            }
+            final boolean isInfinite = Double.isInfinite(d);
+            if (d == Double.POSITIVE_INFINITY) {
+                m_positiveInfinityCount++;
+            } else if (d == Double.NEGATIVE_INFINITY) {
+                m_negativeInfinityCount++;
+            }
+            final DataValueComparator comparator = m_comparators[m_column];
+            if (m_min.isMissing() || comparator.compare(value, m_min) < 0) {
+                m_min = value;
+            }
+            if (m_max.isMissing() || comparator.compare(value, m_max) > 0) {
+                m_max = value;
+            }
+            if (m_first.isMissing()) {
+                m_first = value;
+            }
+            if (!isInfinite) {
+                if (m_finiteMin.isMissing() || comparator.compare(value, m_finiteMin) < 0) {
+                    m_finiteMin = value;
+                }
+                if (m_finiteMax.isMissing() || comparator.compare(value, m_finiteMax) > 0) {
+                    m_finiteMax = value;
+                }
+            }
+        }
+
+        /** Merges the statistics of the following part of the table. */
+        void merge(final ColumnAccumulator other) {
+            m_moments.merge(other.m_moments);
+            if (m_sketch != null) {
+                m_sketch.merge(other.m_sketch);
+            }
+            if (m_values != null) {
+                System.arraycopy(other.m_values, 0, m_values, m_valueCount, other.m_valueCount);
+                m_valueCount += other.m_valueCount;
+            }
+            m_missingCount += other.m_missingCount;
+            m_nanCount += other.m_nanCount;
+            m_positiveInfinityCount += other.m_positiveInfinityCount;
+            m_negativeInfinityCount += other.m_negativeInfinityCount;
+            final DataValueComparator comparator = m_comparators[m_column];
+            if (m_min.isMissing() || (!other.m_min.isMissing() && comparator.compare(other.m_min, m_min) < 0)) {
+                m_min = other.m_min;
+            }
+            if (m_max.isMissing() || (!other.m_max.isMissing() && comparator.compare(other.m_max, m_max) > 0)) {
+                m_max = other.m_max;
+            }
+            if (m_first.isMissing()) {
+                m_first = other.m_first;
+            }
+            if (m_finiteMin.isMissing()
+                || (!other.m_finiteMin.isMissing() && comparator.compare(other.m_finiteMin, m_finiteMin) < 0)) {
+                m_finiteMin = other.m_finiteMin;
+            }
+            if (m_finiteMax.isMissing()
+                || (!other.m_finiteMax.isMissing() && comparator.compare(other.m_finiteMax, m_finiteMax) > 0)) {
+                m_finiteMax = other.m_finiteMax;
+            }
+        }
+
+        /** Number of non-missing values, including {@link Double#NaN}s. */
+        long getValueCount() {
+            return m_moments.getN();
+        }
+
+        double getMedian() {
+            final long count = getValueCount();
+            if (count == 0) {
+                return Double.NaN;
+            }
+            final double lower = getValueAt((count - 1) / 2);
+            final double upper = count % 2 == 0 ? getValueAt(count / 2) : lower;
+            return (lower + upper) / 2;
+        }
+
+        /** Returns the value with the given rank (counted from 0, NaNs last). */
+        double getValueAt(final long rank) {
+            if (m_mode == QuantileMode.NONE) {
+                throw new IllegalStateException("No quantiles computed");
+            }
+            final long nonNaNCount = getValueCount() - m_nanCount;
+            if (rank >= nonNaNCount) {
+                return Double.NaN;
+            }
+            if (m_mode == QuantileMode.SKETCH) {
+                return m_sketch.getQuantile(nonNaNCount == 1 ? 0 : rank / (double)(nonNaNCount - 1));
+            }
+            moveNaNsToEnd();
+            return select(m_values, 0, m_nonNaNCount - 1, (int)rank);
+        }
+
+        void moveNaNsToEnd() {
+            if (m_nonNaNCount >= 0) {
+                return;
+            }
+            int end = m_valueCount;
+            for (int i = 0; i < end; i++) {
+                if (Double.isNaN(m_values[i])) {
+                    end--;
+                    m_values[i] = m_values[end];
+                    m_values[end] = Double.NaN;
+                    i--;
+                }
+            }
+            m_nonNaNCount = end;
+        }
+    }
+
+    /**
+     * Returns the k-th smallest value of the (non-NaN) values between the indices from and to (inclusive),
+     * reordering them (quickselect with median of three).
+     */
+    private static double select(final double[] values, final int from, final int to, final int k) {
+        int left = from;
+        int right = to;
+        while (right > left) {
+            final int mid = (left + right) >>> 1;
+            // median of three as pivot
+            if (values[mid] < values[left]) {
+                swap(values, mid, left);
+            }
+            if (values[right] < values[left]) {
+                swap(values, right, left);
+            }
+            if (values[right] < values[mid]) {
+                swap(values, right, mid);
+            }
+            final double pivot = values[mid];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return values[k];
+            }
+        }
+        return values[k];
+    }
+
+    private static void swap(final double[] values, final int i, final int j) {
+        final double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.data.statistics;
+
+/**
+ * Mergeable accumulator for the first four central moments of a sequence of doubles. Values are added one by one
+ * with the same updates as the commons-math moment statistics (Terriberry's extension of Welford's algorithm),
+ * partial results of disjoint parts of the sequence can be merged with the pairwise formulas of P&eacute;bay
+ * (2008). The results follow the conventions of commons-math' {@code Mean}, {@code Variance} (bias corrected),
+ * {@code Skewness} and {@code Kurtosis}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class DoubleMoments {
+
+    /** Variances below this value result in a skewness and kurtosis of 0 (as in commons-math). */
+    private static final double MIN_VARIANCE = 10E-20;
+
+    private long m_n;
+
+    private double m_mean;
+
+    private double m_m2;
+
+    private double m_m3;
+
+    private double m_m4;
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value to add
+     */
+    public void add(final double value) {
+        final double n0 = m_n;
+        m_n++;
+        final double n = m_n;
+        final double delta = value - m_mean;
+        final double deltaN = delta / n;
+        final double deltaN2 = deltaN * deltaN;
+        final double term = delta * deltaN * n0;
+        m_mean += deltaN;
+        m_m4 += term * deltaN2 * (n * n - 3 * n + 3) + 6 * deltaN2 * m_m2 - 4 * deltaN * m_m3;
+        m_m3 += term * deltaN * (n - 2) - 3 * deltaN * m_m2;
+        m_m2 += term;
+    }
+
+    /**
+     * Merges the moments of another part of the sequence into this one.
+     *
+     * @param other the moments to merge, not modified
+     */
+    public void merge(final DoubleMoments other) {
+        if (other.m_n == 0) {
+            return;
+        }
+        if (m_n == 0) {
+            m_n = other.m_n;
+            m_mean = other.m_mean;
+            m_m2 = other.m_m2;
+            m_m3 = other.m_m3;
+            m_m4 = other.m_m4;
+            return;
+        }
+        final double na = m_n;
+        final double nb = other.m_n;
+        final double n = na + nb;
+        final double delta = other.m_mean - m_mean;
+        final double delta2 = delta * delta;
+        final double m2 = m_m2 + other.m_m2 + delta2 * na * nb / n;
+        final double m3 = m_m3 + other.m_m3 + delta2 * delta * na * nb * (na - nb) / (n * n)
+            + 3 * delta * (na * other.m_m2 - nb * m_m2) / n;
+        final double m4 = m_m4 + other.m_m4 + delta2 * delta2 * na * nb * (na * na - na * nb + nb * nb) / (n * n * n)
+            + 6 * delta2 * (na * na * other.m_m2 + nb * nb * m_m2) / (n * n)
+            + 4 * delta * (na * other.m_m3 - nb * m_m3) / n;
+        m_mean += delta * nb / n;
+        m_m2 = m2;
+        m_m3 = m3;
+        m_m4 = m4;
+        m_n += other.m_n;
+    }
+
+    /**
+     * @return the number of added values
+     */
+    public long getN() {
+        return m_n;
+    }
+
+    /**
+     * @return the mean, {@link Double#NaN} if no values were added
+     */
+    public double getMean() {
+        return m_n == 0 ? Double.NaN : m_mean;
+    }
+
+    /**
+     * @return the sum of the values, computed from the mean
+     */
+    public double getSum() {
+        return m_n == 0 ? 0 : m_mean * m_n;
+    }
+
+    /**
+     * @return the bias corrected variance, {@link Double#NaN} if no values and 0 if one value was added
+     */
+    public double getVariance() {
+        if (m_n == 0) {
+            return Double.NaN;
+        }
+        return m_n == 1 ? 0 : m_m2 / (m_n - 1);
+    }
+
+    /**
+     * @return the bias corrected skewness, {@link Double#NaN} if less than three values were added
+     */
+    public double getSkewness() {
+        if (m_n < 3) {
+            return Double.NaN;
+        }
+        final double variance = m_m2 / (m_n - 1);
+        if (variance < MIN_VARIANCE) {
+            return 0;
+        }
+        final double n = m_n;
+        return (n * m_m3) / ((n - 1) * (n - 2) * Math.sqrt(variance) * variance);
+    }
+
+    /**
+     * @return the bias corrected excess kurtosis, {@link Double#NaN} if less than four values were added
+     */
+    public double getKurtosis() {
+        if (m_n < 4) {
+            return Double.NaN;
+        }
+        final double variance = m_m2 / (m_n - 1);
+        if (variance < MIN_VARIANCE) {
+            return 0;
+        }
+        final double n = m_n;
+        return (n * (n + 1) * m_m4 - 3 * m_m2 * m_m2 * (n - 1))
+            / ((n - 1) * (n - 2) * (n - 3) * variance * variance);
+    }
+}
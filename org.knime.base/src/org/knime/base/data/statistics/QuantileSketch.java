@@ -0,0 +1,234 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.data.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable sketch for approximate quantiles of a sequence of doubles, a simplified variant of the sketch by Karnin,
+ * Lang and Liberty (2016). Values are kept in levels, a value in level <i>i</i> represents 2<sup><i>i</i></sup>
+ * values of the sequence. If a level holds more than the capacity, it is sorted and every other value is moved to
+ * the next level (starting with the first or second value, alternating). The memory is
+ * O(<i>k</i>&nbsp;log(<i>n</i>/<i>k</i>)), the rank error is roughly proportional to log(<i>n</i>/<i>k</i>)/<i>k</i>.
+ * <p>
+ * {@link Double#NaN} values must not be added.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class QuantileSketch {
+
+    /** The default capacity of the levels. */
+    public static final int DEFAULT_CAPACITY = 2048;
+
+    private final int m_capacity;
+
+    private double[][] m_levels = new double[1][];
+
+    private int[] m_sizes = new int[1];
+
+    /** Per level whether the next compaction starts with the second value. */
+    private boolean[] m_offsets = new boolean[1];
+
+    private long m_n;
+
+    private double m_min = Double.POSITIVE_INFINITY;
+
+    private double m_max = Double.NEGATIVE_INFINITY;
+
+    /** Creates a sketch with the {@link #DEFAULT_CAPACITY default capacity}. */
+    public QuantileSketch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of values per level, at least 2
+     */
+    public QuantileSketch(final int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2: " + capacity);
+        }
+        m_capacity = capacity;
+        m_levels[0] = new double[capacity];
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value, not {@link Double#NaN}
+     */
+    public void add(final double value) {
+        m_n++;
+        m_min = Math.min(m_min, value);
+        m_max = Math.max(m_max, value);
+        if (m_sizes[0] == m_levels[0].length) {
+            compact(0);
+        }
+        m_levels[0][m_sizes[0]++] = value;
+    }
+
+    /**
+     * Merges another sketch into this one.
+     *
+     * @param other the sketch to merge, not modified
+     */
+    public void merge(final QuantileSketch other) {
+        if (other.m_n == 0) {
+            return;
+        }
+        m_n += other.m_n;
+        m_min = Math.min(m_min, other.m_min);
+        m_max = Math.max(m_max, other.m_max);
+        for (int level = 0; level < other.m_sizes.length; level++) {
+            ensureLevel(level);
+            append(level, other.m_levels[level], other.m_sizes[level]);
+        }
+        for (int level = 0; level < m_sizes.length; level++) {
+            if (m_sizes[level] >= m_capacity) {
+                compact(level);
+            }
+        }
+    }
+
+    /**
+     * @return the number of added values
+     */
+    public long getN() {
+        return m_n;
+    }
+
+    /**
+     * Returns the approximate quantile, the value with the rank <code>p * (n - 1)</code> (counted from 0).
+     *
+     * @param p the probability, between 0 and 1
+     * @return the approximate quantile, {@link Double#NaN} if the sketch is empty
+     */
+    public double getQuantile(final double p) {
+        if (m_n == 0) {
+            return Double.NaN;
+        }
+        if (p <= 0) {
+            return m_min;
+        }
+        if (p >= 1) {
+            return m_max;
+        }
+        int count = 0;
+        for (int size : m_sizes) {
+            count += size;
+        }
+        final double[] values = new double[count];
+        final long[] weights = new long[count];
+        final Integer[] order = new Integer[count];
+        int i = 0;
+        for (int level = 0; level < m_sizes.length; level++) {
+            for (int j = 0; j < m_sizes[level]; j++) {
+                values[i] = m_levels[level][j];
+                weights[i] = 1L << level;
+                order[i] = i;
+                i++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        // compactions keep the total weight, it's always n
+        final double rank = p * (m_n - 1);
+        long cumulated = 0;
+        for (Integer index : order) {
+            cumulated += weights[index];
+            if (cumulated > rank) {
+                return values[index];
+            }
+        }
+        return m_max;
+    }
+
+    private void ensureLevel(final int level) {
+        if (level < m_sizes.length) {
+            return;
+        }
+        m_levels = Arrays.copyOf(m_levels, level + 1);
+        m_sizes = Arrays.copyOf(m_sizes, level + 1);
+        m_offsets = Arrays.copyOf(m_offsets, level + 1);
+        m_levels[level] = new double[m_capacity];
+    }
+
+    private void append(final int level, final double[] values, final int count) {
+        if (m_sizes[level] + count > m_levels[level].length) {
+            m_levels[level] = Arrays.copyOf(m_levels[level], Math.max(2 * m_levels[level].length,
+                m_sizes[level] + count));
+        }
+        System.arraycopy(values, 0, m_levels[level], m_sizes[level], count);
+        m_sizes[level] += count;
+    }
+
+    /** Moves every other value of the (sorted) level to the next one, an odd value stays in the level. */
+    private void compact(final int level) {
+        ensureLevel(level + 1);
+        final double[] values = m_levels[level];
+        final int size = m_sizes[level];
+        Arrays.sort(values, 0, size);
+        final int pairs = size / 2;
+        final int offset = m_offsets[level] ? 1 : 0;
+        m_offsets[level] = !m_offsets[level];
+        final double[] promoted = new double[pairs];
+        for (int i = 0; i < pairs; i++) {
+            promoted[i] = values[2 * i + offset];
+        }
+        // an odd value (the largest) stays
+        if (size % 2 == 1) {
+            values[0] = values[size - 1];
+            m_sizes[level] = 1;
+        } else {
+            m_sizes[level] = 0;
+        }
+        append(level + 1, promoted, pairs);
+        if (m_sizes[level + 1] >= m_capacity) {
+            compact(level + 1);
+        }
+    }
+}
@@ -54,6 +54,7 @@
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.mutable.MutableLong;
@@ -63,6 +64,7 @@
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.data.def.DefaultCellIterator;
 import org.knime.core.data.sort.ColumnBufferedDataTableSorter;
 import org.knime.core.data.sort.SortingConsumer;
@@ -164,7 +166,7 @@ public String evaluate(final BufferedDataTable dataTable, final ExecutionContext
 
             exec.setMessage("Sorting Data.");
 
-            final Iterator<DataRow> it = dataTable.iterator();
+            final Iterator<DataRow> it = createIterator(dataTable);
             final MutableLong count = new MutableLong();
             final ExecutionContext evalProgress = exec.createSubExecutionContext(0.3);
 
@@ -187,10 +189,13 @@ public void consume(final DataRow defaultRow) {
         } else {
             exec.setMessage("Evaluating statistics.");
             long count = 0;
-            for (DataRow currRow : dataTable) {
-                exec.setProgress(count++ / (double)dataTable.size(), "Processing Row: " + currRow.getKey());
-                for (Statistic stat : m_statistics) {
-                    stat.consumeRow(currRow);
+            try (CloseableRowIterator it = createIterator(dataTable)) {
+                while (it.hasNext()) {
+                    DataRow currRow = it.next();
+                    exec.setProgress(count++ / (double)dataTable.size(), "Processing Row: " + currRow.getKey());
+                    for (Statistic stat : m_statistics) {
+                        stat.consumeRow(currRow);
+                    }
                 }
             }
         }
@@ -205,6 +210,20 @@ public void consume(final DataRow defaultRow) {
         return warnings.length() > 0 ? warnings.toString() : null;
     }
 
+    /**
+     * @param dataTable the table to iterate
+     * @return an iterator that only reads the columns used by any of the statistics
+     */
+    private CloseableRowIterator createIterator(final BufferedDataTable dataTable) {
+        final Set<Integer> columns = new TreeSet<>();
+        for (Statistic stat : m_statistics) {
+            for (int i : stat.getIndices()) {
+                columns.add(i);
+            }
+        }
+        return dataTable.iteratorBuilder().filterColumns(columns.stream().mapToInt(i -> i).toArray()).build();
+    }
+
     /**
      * @param spec
      * @param createDataTableSpec
@@ -60,10 +60,6 @@
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.apache.commons.math.stat.descriptive.moment.Kurtosis;
-import org.apache.commons.math.stat.descriptive.moment.Mean;
-import org.apache.commons.math.stat.descriptive.moment.Skewness;
-import org.apache.commons.math.stat.descriptive.moment.Variance;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnDomainCreator;
 import org.knime.core.data.DataColumnSpec;
@@ -72,11 +68,8 @@
 import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
-import org.knime.core.data.DataValueComparator;
 import org.knime.core.data.DoubleValue;
-import org.knime.core.data.RowIterator;
 import org.knime.core.data.RowKey;
-import org.knime.core.data.container.BlobWrapperDataCell;
 import org.knime.core.data.container.DataContainer;
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.DefaultTable;
@@ -196,8 +189,10 @@ public class Statistics3Table {
     private final String m_warning;
 
     /**
-     * Create new statistic table from an existing one. This constructor calculates all values. It needs to traverse
-     * (twice) through the entire specified table. User can cancel action if an execution monitor is passed.
+     * Create new statistic table from an existing one. This constructor calculates all values. It traverses the
+     * entire specified table once, the numeric columns are processed in parallel (a second, sorting pass is only needed
+     * if the median has to be computed and the values don't fit into memory). User can cancel action if an execution
+     * monitor is passed.
      *
      * @param table table to be wrapped
      * @param computeMedian if the median has to be computed
@@ -258,8 +253,10 @@ private static int[] allColumns(final int numberOfColumns) {
     }
 
     /**
-     * Create new statistic table from an existing one. This constructor calculates all values. It needs to traverse
-     * (twice) through the entire specified table. User can cancel action if an execution monitor is passed.
+     * Create new statistic table from an existing one. This constructor calculates all values. It traverses the
+     * entire specified table once, the numeric columns are processed in parallel (a second, sorting pass is only needed
+     * if the median has to be computed and the values don't fit into memory). User can cancel action if an execution
+     * monitor is passed.
      *
      * @param table table to be wrapped
      * @param computeMedian if the median has to be computed
@@ -277,14 +274,7 @@ public Statistics3Table(final BufferedDataTable table, final boolean computeMedi
         m_spec = table.getDataTableSpec();
         // initialize cache arrays
         m_meanValues = new double[nrCols];
-        //Using Mean and Variance from commons math. Bug: 4286
-        Mean[] means = new Mean[nrCols];
         m_varianceValues = new double[nrCols];
-        Variance[] variances = new Variance[nrCols];
-        for (int i = nrCols; i-- > 0;) {
-            means[i] = new Mean();
-            variances[i] = new Variance(true);
-        }
         m_sum = new double[nrCols];
         m_minValues = new double[nrCols];
         m_maxValues = new double[nrCols];
@@ -302,21 +292,11 @@ public Statistics3Table(final BufferedDataTable table, final boolean computeMedi
             m_nominalValues.add(null);
         }
         m_rowCount = table.getRowCount();
-        //Using Skewness and Kurtosis from commons math.
         m_skewness = new double[nrCols];
         m_kurtosis = new double[nrCols];
-        final Skewness[] skewness = new Skewness[nrCols];
-        final Kurtosis[] kurtosis = new Kurtosis[nrCols];
-        for (int i = nrCols; i-- > 0;) {
-            skewness[i] = new Skewness();
-            kurtosis[i] = new Kurtosis();
-        }
 
         Set<String> nominalValueColumnsSet = new HashSet<String>(nominalValueColumns);
 
-        // the number of non-missing cells in each column
-        int[] validCount = new int[nrCols];
-        double[] sumsquare = new double[nrCols];
         for (int i = 0; i < nrCols; i++) {
             m_missingValueCnt[i] = 0;
             m_meanValues[i] = Double.NaN;
@@ -329,8 +309,6 @@ public Statistics3Table(final BufferedDataTable table, final boolean computeMedi
             m_skewness[i] = Double.NaN;
             m_kurtosis[i] = Double.NaN;
             m_median[i] = Double.NaN;
-            sumsquare[i] = 0.0;
-            validCount[i] = 0;
         }
 
         // used to store warnings
@@ -342,86 +320,58 @@ public Statistics3Table(final BufferedDataTable table, final boolean computeMedi
         for (int i = m_nominalValues.size(); i-- > 0;) {
             nominalValues.add(null);
         }
-
-        final int rowCnt = table.getRowCount();
-        double diffProgress = rowCnt;
-        if (computeMedian) {
-            for (int i : colIndices) {
-                if (m_spec.getColumnSpec(i).getType().isCompatible(DoubleValue.class)) {
-                    diffProgress += rowCnt;
+        final int[] nominalIndices =
+            Arrays.stream(colIndices).filter(c -> nominalValueColumnsSet.contains(m_spec.getColumnSpec(c).getName()))
+                .toArray();
+
+        // the numeric columns are processed in parallel in a single scan, the nominal values are counted and the
+        // hook is called on the scanning thread
+        final int[] numericIndices = filter(m_spec, colIndices);
+        // no sketches if the values don't fit into memory, the exact median is then computed by sorting the table
+        final ColumnStatisticsEngine engine = new ColumnStatisticsEngine(m_spec, numericIndices, computeMedian
+            ? ColumnStatisticsEngine.QuantileMode.EXACT_IF_IN_MEMORY : ColumnStatisticsEngine.QuantileMode.NONE);
+        final int[] otherIndices =
+            Arrays.stream(colIndices).filter(c -> !m_spec.getColumnSpec(c).getType().isCompatible(DoubleValue.class))
+                .toArray();
+        engine.compute(table, computeMedian ? exec.createSubProgress(0.5) : exec, row -> {
+            onStatisticComputation(row);
+            for (int c : otherIndices) {
+                if (row.getCell(c).isMissing()) {
+                    m_missingValueCnt[c]++;
                 }
             }
-        }
-        int rowIdx = 0;
-        for (RowIterator rowIt = table.iterator(); rowIt.hasNext(); rowIdx++) {
-            DataRow row = rowIt.next();
-            exec.setProgress(rowIdx / diffProgress, "Calculating statistics, processing row " + (rowIdx + 1) + " (\""
-                + row.getKey() + "\")");
-
-            onStatisticComputation(row);
-
-            for (int c : colIndices) {
-                exec.checkCanceled();
-                DataColumnSpec cspec = m_spec.getColumnSpec(c);
+            for (int c : nominalIndices) {
                 final DataCell cell = row.getCell(c);
-                if (!(cell.isMissing())) {
-                    // for double columns we calc the sum (for the mean calc)
-                    if (cspec.getType().isCompatible(DoubleValue.class)) {
-                        double d = ((DoubleValue)cell).getDoubleValue();
-                        means[c].increment(d);
-                        variances[c].increment(d);
-                        updateMinMax(c, cell, cspec.getType().getComparator());
-                        if (d == Double.POSITIVE_INFINITY) {
-                            m_posInfinityValueCnt[c]++;
-                        }
-                        if (d == Double.NEGATIVE_INFINITY) {
-                            m_negInfinityValueCnt[c]++;
-                        }
-                        if (Double.isNaN(d)) {
-                            m_nanValueCnt[c]++;
-                        }
-                        skewness[c].increment(d);
-                        kurtosis[c].increment(d);
-                        sumsquare[c] += d * d;
-                        validCount[c]++;
+                if (nominalValues.get(c) == null || (nominalValues.get(c) != null
+                // list is only empty, when the number of poss.
+                // values exceeded the maximum
+                    && nominalValues.get(c).size() > 0)) {
+                    if (nominalValues.get(c) == null) {
+                        nominalValues.set(c, new LinkedHashMap<DataCell, MutableInteger>());
                     }
-                } else {
-                    m_missingValueCnt[c]++;
-                }
-                if (nominalValueColumnsSet.contains(cspec.getName())) {
-                    if (nominalValues.get(c) == null || (nominalValues.get(c) != null
-                    // list is only empty, when the number of poss.
-                    // values exceeded the maximum
-                        && nominalValues.get(c).size() > 0)) {
-                        if (nominalValues.get(c) == null) {
-                            nominalValues.set(c, new LinkedHashMap<DataCell, MutableInteger>());
-                        }
-                        MutableInteger cnt = nominalValues.get(c).get(cell);
-                        if (cnt == null) {
-                            nominalValues.get(c).put(cell, new MutableInteger(1));
+                    MutableInteger cnt = nominalValues.get(c).get(cell);
+                    if (cnt == null) {
+                        nominalValues.get(c).put(cell, new MutableInteger(1));
+                    } else {
+                        cnt.inc();
+                    }
+                    if (nominalValues.get(c).size() == numNomValuesOutput + 1) {
+                        if (warn.length() == 0) {
+                            warn.append("Maximum number of unique possible " + "values (" + numNomValuesOutput
+                                + ") exceeds for column(s): ");
                         } else {
-                            cnt.inc();
-                        }
-                        if (nominalValues.get(c).size() == numNomValuesOutput + 1) {
-                            if (warn.length() == 0) {
-                                warn.append("Maximum number of unique possible " + "values (" + numNomValuesOutput
-                                    + ") exceeds for column(s): ");
-                            } else {
-                                warn.append(",");
-                            }
-                            warn.append("\"" + m_spec.getColumnSpec(c).getName() + "\"");
-                            nominalValues.get(c).clear();
+                            warn.append(",");
                         }
+                        warn.append("\"" + m_spec.getColumnSpec(c).getName() + "\"");
+                        nominalValues.get(c).clear();
                     }
                 }
             }
-        }
+        });
         //Table is empty, but we should provide the nominal values an empty map.
-        if (!table.iterator().hasNext()) {
-            for (int c : colIndices) {
-                if (nominalValueColumnsSet.contains(m_spec.getColumnSpec(c).getName())) {
-                    nominalValues.set(c, Collections.<DataCell, MutableInteger> emptyMap());
-                }
+        if (table.size() == 0) {
+            for (int c : nominalIndices) {
+                nominalValues.set(c, Collections.<DataCell, MutableInteger> emptyMap());
             }
         }
 
@@ -432,10 +382,27 @@ public Statistics3Table(final BufferedDataTable table, final boolean computeMedi
             m_warning = null;
         }
 
+        // position of the columns in the numeric columns of the engine
+        final int[] positions = new int[nrCols];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < numericIndices.length; i++) {
+            positions[numericIndices[i]] = i;
+        }
         for (int j = 0; j < nrCols; j++) {
+            final int i = positions[j];
+            if (i >= 0) {
+                m_missingValueCnt[j] = (int)engine.getMissingCount(i);
+                m_nanValueCnt[j] = (int)engine.getNaNCount(i);
+                m_posInfinityValueCnt[j] = (int)engine.getPositiveInfinityCount(i);
+                m_negInfinityValueCnt[j] = (int)engine.getNegativeInfinityCount(i);
+                m_minCells[j] = engine.getMinCell(i);
+                m_maxCells[j] = engine.getMaxCell(i);
+                m_minNonInfValues[j] = engine.getNonInfMinCell(i);
+                m_maxNonInfValues[j] = engine.getNonInfMaxCell(i);
+            }
             // in case we got an empty table or columns that contain only
             // missing values
-            if (validCount[j] == 0) {
+            if (i < 0 || engine.getMoments(i).getN() == 0) {
                 m_minValues[j] = Double.NaN;
                 m_maxValues[j] = Double.NaN;
                 m_meanValues[j] = Double.NaN;
@@ -444,13 +411,14 @@ public Statistics3Table(final BufferedDataTable table, final boolean computeMedi
                 m_skewness[j] = Double.NaN;
                 m_kurtosis[j] = Double.NaN;
             } else {
+                final DoubleMoments moments = engine.getMoments(i);
                 m_minValues[j] = m_minCells[j].isMissing() ? Double.NaN : ((DoubleValue) m_minCells[j]).getDoubleValue();
                 m_maxValues[j] = m_maxCells[j].isMissing() ? Double.NaN : ((DoubleValue) m_maxCells[j]).getDoubleValue();
-                m_meanValues[j] = means[j].getResult();
-                m_varianceValues[j] = variances[j].getResult();
-                m_sum[j] = means[j].getResult() * means[j].getN();
-                m_skewness[j] = skewness[j].getResult();
-                m_kurtosis[j] = kurtosis[j].getResult();
+                m_meanValues[j] = moments.getMean();
+                m_varianceValues[j] = moments.getVariance();
+                m_sum[j] = moments.getSum();
+                m_skewness[j] = moments.getSkewness();
+                m_kurtosis[j] = moments.getKurtosis();
                 // unreported bug fix: in cases in which a column contains
                 // almost only one value (for instance 1.0) but one single
                 // 'outlier' whose value is, for instance 0.9999998, we get
@@ -485,14 +453,18 @@ public int compare(final Entry<DataCell, MutableInteger> o1, final Entry<DataCel
             }
         }
 
-        // compute median values if desired
+        // compute median values if desired, selected in memory or, if the values didn't fit, by sorting the table
         if (computeMedian) {
-            final int[] filteredIndices = filter(table.getSpec(), colIndices);
-            final MedianTable medianTable = new MedianTable(table, filteredIndices);
-            medianTable.setInMemory(table.getRowCount() < Runtime.getRuntime().freeMemory() / Double.SIZE / 2);
-            double[] medianValues = medianTable.medianValues(exec);
-            for (int i = 0; i < filteredIndices.length; ++i) {
-                m_median[filteredIndices[i]] = medianValues[i];
+            if (engine.isExact()) {
+                for (int i = 0; i < numericIndices.length; ++i) {
+                    m_median[numericIndices[i]] = engine.getMedian(i);
+                }
+            } else {
+                final MedianTable medianTable = new MedianTable(table, numericIndices);
+                double[] medianValues = medianTable.medianValues(exec.createSubExecutionContext(0.5));
+                for (int i = 0; i < numericIndices.length; ++i) {
+                    m_median[numericIndices[i]] = medianValues[i];
+                }
             }
         }
     }
@@ -1324,57 +1296,6 @@ public static DataTableSpec getStatisticsSpecification() {
     }
 
 
-    /** Updates the min and max value for an respective column. This method
-     * does nothing if the min and max values don't need to be stored, e.g.
-     * the column at hand contains string values.
-     * @param col The column of interest.
-     * @param cell The new value to check.
-     */
-    private void updateMinMax(final int col, final DataCell cell, final DataValueComparator comparator) {
-        if (cell.isMissing()) {
-            return;
-        }
-        DataCell value = handleNaN(cell instanceof BlobWrapperDataCell ? ((BlobWrapperDataCell)cell).getCell() : cell);
-        if (value.isMissing()) {
-            return;
-        }
-
-        if (m_minCells[col].isMissing() || (comparator.compare(value, m_minCells[col]) < 0)) {
-            m_minCells[col] = value;
-        }
-        if (m_maxCells[col].isMissing() || (comparator.compare(value, m_maxCells[col]) > 0)) {
-            m_maxCells[col] = value;
-        }
-
-
-        if (m_minNonInfValues[col].isMissing() || (!Double.isInfinite(((DoubleValue) value).getDoubleValue())
-                && (comparator.compare(value, m_minNonInfValues[col]) < 0))) {
-            m_minNonInfValues[col] = value;
-        }
-        if (m_maxNonInfValues[col].isMissing() || (!Double.isInfinite(((DoubleValue) value).getDoubleValue())
-                && (comparator.compare(value, m_maxNonInfValues[col]) > 0))) {
-            m_maxNonInfValues[col] = value;
-        }
-    }
-
-    /*
-     * Returns
-     * - the cell if it is not a DoubleValue
-     * - the cell if it is not NaN
-     * - a missing cell if it is NaN
-     */
-    private static DataCell handleNaN(final DataCell cell) {
-        if (cell.getType().isCompatible(DoubleValue.class)) {
-            if (Double.isNaN(((DoubleValue) cell).getDoubleValue())) {
-                return DataType.getMissingCell();
-            } else {
-                return cell;
-            }
-        } else {
-            return cell;
-        }
-    }
-
     /**
      * @return the spec
      * @since 2.10
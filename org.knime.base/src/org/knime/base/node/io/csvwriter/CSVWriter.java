@@ -50,28 +50,61 @@
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTable;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.DataType;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.streamable.DataTableRowInput;
 import org.knime.core.node.streamable.RowInput;
+import org.knime.core.util.ThreadPool;
 
 /**
  * Class to write a {@link org.knime.core.data.DataTable} to an output stream.
+ * <p>
+ * A writer created on an {@link OutputStream} formats and encodes the rows in
+ * batches on the threads of the {@link KNIMEConstants#GLOBAL_THREAD_POOL
+ * global thread pool} and writes the encoded batches in table order to the
+ * stream. Subclasses must not change state in the formatting methods then, they
+ * are called concurrently.
  *
  * @author Bernd Wiswedel, University of Konstanz
  */
 public class CSVWriter extends BufferedWriter {
 
+    /** The number of cells formatted by one task (at least one row). */
+    private static final int BATCH_CELLS = 64 * 1024;
+
     private final FileWriterSettings m_settings;
 
+    // the stream the batches are written to, null if the rows are written
+    // sequentially to the writer
+    private final OutputStream m_out;
+
+    private final Charset m_charset;
+
+    // whether the batches are encoded in parallel, otherwise the formatted
+    // text is encoded by the writer when the batch is written
+    private final boolean m_encodeBatches;
+
     private String m_lastWarning;
 
     private String m_newLine;
@@ -96,7 +129,30 @@ public CSVWriter(final Writer writer) {
      *            tables are written to file.
      */
     public CSVWriter(final Writer writer, final FileWriterSettings settings) {
+        this(writer, settings, null, null);
+    }
+
+    /**
+     * Creates a new instance which writes tables to the given stream. The rows
+     * are formatted and encoded in parallel.
+     *
+     * @param out the stream to write to, it should be buffered
+     * @param settings the object holding all settings, influencing how data
+     *            tables are written to file.
+     * @param charset the encoding of the written characters
+     * @since 3.8
+     */
+    public CSVWriter(final OutputStream out, final FileWriterSettings settings,
+            final Charset charset) {
+        this(new OutputStreamWriter(out, charset), settings, out, charset);
+    }
+
+    private CSVWriter(final Writer writer, final FileWriterSettings settings,
+            final OutputStream out, final Charset charset) {
         super(writer);
+        m_out = out;
+        m_charset = charset;
+        m_encodeBatches = charset != null && canEncodeBatches(charset);
         if (settings == null) {
             throw new NullPointerException(
                     "The CSVWriter doesn't accept null settings.");
@@ -199,12 +255,22 @@ public void write(final RowInput input, final ExecutionMonitor exec)
         } // end of if write column names
 
         // write each row of the data
-        int i = 0;
         long rowCnt = -1;
         if (input instanceof DataTableRowInput) {
             rowCnt = ((DataTableRowInput)input).getRowCount();
         }
+        // the type of the columns is checked once
+        final boolean[] numerical = new boolean[colCount];
+        for (int c = 0; c < colCount; c++) {
+            numerical[c] = inSpec.getColumnSpec(c).getType().isCompatible(DoubleValue.class);
+        }
+        if (m_out != null) {
+            writeBatches(input, exec, numerical, rowCnt);
+            return;
+        }
 
+        final StringBuilder line = new StringBuilder();
+        long i = 0;
         DataRow row;
         while ((row = input.poll()) != null) {
 
@@ -223,60 +289,185 @@ public void write(final RowInput input, final ExecutionMonitor exec)
             // Check if execution was canceled !
             exec.checkCanceled();
 
-            // write the columns
-            first = true;
-            // first, the row id
-            if (m_settings.writeRowID()) {
-                write(quoteString(row.getKey().getString(), false));
-                first = false;
+            line.setLength(0);
+            String warning = appendRow(line, row, numerical, i);
+            if (m_lastWarning == null) {
+                m_lastWarning = warning;
             }
-            // now all data cells
-            for (int c = 0; c < colCount; c++) {
-
-                DataCell colValue = row.getCell(c);
-                if (!first) {
-                    write(m_settings.getColSeparator());
-                }
-                first = false;
+            write(line.toString());
+            newLine();
+            i++;
+        }
 
-                if (colValue.isMissing()) {
-                    // never quote missing patterns.
-                    write(m_settings.getMissValuePattern());
-                } else {
-                    boolean isNumerical = false;
-                    DataType type = inSpec.getColumnSpec(c).getType();
-                    String strVal = colValue.toString();
+    }
 
-                    if (type.isCompatible(DoubleValue.class)) {
-                        isNumerical = true;
+    /**
+     * Formats and encodes batches of rows on the threads of the global thread
+     * pool and writes them in table order to the stream. The rows are polled by
+     * the calling thread.
+     */
+    private void writeBatches(final RowInput input, final ExecutionMonitor exec,
+            final boolean[] numerical, final long rowCnt)
+            throws IOException, CanceledExecutionException, InterruptedException {
+        // the column header and comments written so far
+        flush();
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL;
+        final int maxPending = 2 * pool.getMaxThreads();
+        final int batchSize = Math.max(1, BATCH_CELLS / (numerical.length + 1));
+        final Deque<Future<Batch>> pending = new ArrayDeque<Future<Batch>>();
+        try {
+            long i = 0;
+            List<DataRow> rows = new ArrayList<DataRow>(batchSize);
+            DataRow row;
+            while ((row = input.poll()) != null) {
+                rows.add(row);
+                i++;
+                if (rows.size() == batchSize) {
+                    final long rowIdx = i;
+                    final String rowKey = row.getKey().toString();
+                    if (rowCnt <= 0) {
+                        exec.setMessage(() -> "Writing row " + rowIdx + " (\"" + rowKey + "\")");
+                    } else {
+                        exec.setProgress(rowIdx / (double)rowCnt,
+                            () -> "Writing row " + rowIdx + " (\"" + rowKey + "\") of " + rowCnt);
                     }
-                    if (isNumerical
-                            && (m_settings.getDecimalSeparator() != '.')) {
-                        // use the new separator only if it is not already
-                        // contained in the value.
-                        if (strVal.indexOf(m_settings.getDecimalSeparator())
-                                < 0) {
-                            strVal =
-                                    replaceDecimalSeparator(strVal, m_settings
-                                            .getDecimalSeparator());
-                        } else {
-                            if (m_lastWarning == null) {
-                                m_lastWarning = "Specified decimal separator ('"
-                                    + m_settings.getDecimalSeparator() + "') is"
-                                    + " contained in the numerical value. "
-                                    + "Not replacing decimal separator (e.g. "
-                                    + "in row #" + i + " column #" + c + ").";
-                            }
-                        }
+                    exec.checkCanceled();
+                    if (pending.size() == maxPending) {
+                        writeBatch(pending.removeFirst());
                     }
-                    write(quoteString(strVal, isNumerical));
-
+                    final List<DataRow> batchRows = rows;
+                    pending.add(pool.enqueue(() -> formatBatch(batchRows, numerical, rowIdx - batchRows.size())));
+                    rows = new ArrayList<DataRow>(batchSize);
                 }
             }
-            newLine();
-            i++;
+            if (!rows.isEmpty()) {
+                final List<DataRow> batchRows = rows;
+                final long firstRowIdx = i - rows.size();
+                pending.add(pool.enqueue(() -> formatBatch(batchRows, numerical, firstRowIdx)));
+            }
+            while (!pending.isEmpty()) {
+                exec.checkCanceled();
+                writeBatch(pending.removeFirst());
+            }
+        } finally {
+            for (Future<Batch> f : pending) {
+                f.cancel(true);
+            }
         }
+    }
 
+    /**
+     * Whether batches can be encoded independently of each other with a new
+     * encoder each. This requires an encoder that keeps no state between
+     * lines and doesn't write a byte order mark (as, e.g., UTF-16 does).
+     */
+    private static boolean canEncodeBatches(final Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+            || charset.equals(StandardCharsets.ISO_8859_1) || charset.equals(StandardCharsets.UTF_16BE)
+            || charset.equals(StandardCharsets.UTF_16LE);
+    }
+
+    /**
+     * Formats the rows and, if the charset allows it, encodes them like the
+     * {@link OutputStreamWriter}.
+     */
+    private Batch formatBatch(final List<DataRow> rows, final boolean[] numerical, final long firstRowIdx)
+        throws IOException {
+        final StringBuilder text = new StringBuilder(rows.size() * (numerical.length + 1) * 8);
+        String warning = null;
+        for (int r = 0; r < rows.size(); r++) {
+            final String rowWarning = appendRow(text, rows.get(r), numerical, firstRowIdx + r);
+            if (warning == null) {
+                warning = rowWarning;
+            }
+            text.append(m_newLine);
+        }
+        if (!m_encodeBatches) {
+            return new Batch(null, text.toString(), warning);
+        }
+        final ByteBuffer bytes = m_charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE).encode(CharBuffer.wrap(text));
+        return new Batch(bytes, null, warning);
+    }
+
+    /** Waits for the batch and writes it to the stream. */
+    private void writeBatch(final Future<Batch> future) throws IOException, InterruptedException {
+        final Batch batch;
+        try {
+            batch = future.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+        if (m_lastWarning == null) {
+            m_lastWarning = batch.m_warning;
+        }
+        if (batch.m_text != null) {
+            // one encoder for the entire stream
+            write(batch.m_text);
+            return;
+        }
+        final ByteBuffer bytes = batch.m_bytes;
+        m_out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+    }
+
+    /**
+     * Appends the row ID (if it is written) and the cells of the row, without
+     * the line ending.
+     *
+     * @return a warning, null if there is none
+     */
+    private String appendRow(final StringBuilder line, final DataRow row,
+            final boolean[] numerical, final long rowIdx) {
+        String warning = null;
+        final String colSeparator = m_settings.getColSeparator();
+        final char decimalSeparator = m_settings.getDecimalSeparator();
+        boolean first = true; // if first entry in the row (skip separator then)
+        // first, the row id
+        if (m_settings.writeRowID()) {
+            line.append(quoteString(row.getKey().getString(), false));
+            first = false;
+        }
+        // now all data cells
+        for (int c = 0; c < numerical.length; c++) {
+
+            DataCell colValue = row.getCell(c);
+            if (!first) {
+                line.append(colSeparator);
+            }
+            first = false;
+
+            if (colValue.isMissing()) {
+                // never quote missing patterns.
+                line.append(m_settings.getMissValuePattern());
+                continue;
+            }
+            String strVal = colValue.toString();
+            if (numerical[c] && (decimalSeparator != '.')) {
+                // use the new separator only if it is not already
+                // contained in the value.
+                if (strVal.indexOf(decimalSeparator) < 0) {
+                    strVal = replaceDecimalSeparator(strVal, decimalSeparator);
+                } else if (warning == null) {
+                    warning = "Specified decimal separator ('"
+                        + decimalSeparator + "') is"
+                        + " contained in the numerical value. "
+                        + "Not replacing decimal separator (e.g. "
+                        + "in row #" + rowIdx + " column #" + c + ").";
+                }
+            }
+            line.append(quoteString(strVal, numerical[c]));
+        }
+        return warning;
     }
 
     /**
@@ -479,4 +670,22 @@ public String getLastWarningMessage() {
     public void newLine() throws IOException {
         write(m_newLine);
     }
+
+    /** The encoded or only formatted rows of a batch. */
+    private static final class Batch {
+
+        // null if the batch isn't encoded
+        private final ByteBuffer m_bytes;
+
+        // null if the batch is encoded
+        private final String m_text;
+
+        private final String m_warning;
+
+        Batch(final ByteBuffer bytes, final String text, final String warning) {
+            m_bytes = bytes;
+            m_text = text;
+            m_warning = warning;
+        }
+    }
 }
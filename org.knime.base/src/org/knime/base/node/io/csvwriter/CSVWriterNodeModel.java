@@ -50,20 +50,20 @@
 
 import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.Date;
-import java.util.zip.GZIPOutputStream;
 
 import org.knime.base.node.io.csvwriter.FileWriterNodeSettings.FileOverwritePolicy;
 import org.knime.core.data.DataTableSpec;
@@ -253,7 +253,7 @@ private BufferedDataTable[] doIt(final BufferedDataTable data, final RowInput in
         Path localPath = FileUtil.resolveToPath(url);
 
         boolean writeColHeader = m_settings.writeColumnHeader();
-        OutputStream tempOut;
+        final OutputStream fileOut;
         URLConnection urlConnection = null;
         boolean appendToFile;
         if (localPath != null) {
@@ -267,16 +267,19 @@ private BufferedDataTable[] doIt(final BufferedDataTable data, final RowInput in
             } else {
                 appendToFile = false;
             }
+            // large direct buffer written to the file channel
             if (appendToFile) {
-                tempOut = Files.newOutputStream(localPath, StandardOpenOption.APPEND);
+                fileOut = new ChannelOutputStream(
+                    FileChannel.open(localPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
             } else {
-                tempOut = Files.newOutputStream(localPath);
+                fileOut = new ChannelOutputStream(FileChannel.open(localPath, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING));
             }
         } else {
             CheckUtils.checkState(m_settings.getFileOverwritePolicy() != FileOverwritePolicy.Append,
                 url + " points to a remote file but append to remote files is not possible!");
             urlConnection = FileUtil.openOutputConnection(url, "PUT");
-            tempOut = urlConnection.getOutputStream();
+            fileOut = new BufferedOutputStream(urlConnection.getOutputStream());
             appendToFile = false;
         }
 
@@ -284,26 +287,28 @@ private BufferedDataTable[] doIt(final BufferedDataTable data, final RowInput in
         FileWriterSettings writerSettings = new FileWriterSettings(m_settings);
         writerSettings.setWriteColumnHeader(writeColHeader);
 
-        if (m_settings.isGzipOutput()) {
-            tempOut = new GZIPOutputStream(tempOut);
-        }
-        tempOut = new BufferedOutputStream(tempOut);
-        Charset charSet = Charset.defaultCharset();
-        String encoding = writerSettings.getCharacterEncoding();
-        if (encoding != null) {
-            charSet = Charset.forName(encoding);
-        }
-        CSVWriter tableWriter = new CSVWriter(new OutputStreamWriter(tempOut, charSet), writerSettings);
-        // write the comment header, if we are supposed to
-        String tableName;
-        if (input == null) {
-            tableName = data.getDataTableSpec().getName();
-        } else {
-            tableName = input.getDataTableSpec().getName();
-        }
-        writeCommentHeader(m_settings, tableWriter, tableName, appendToFile);
-
+        OutputStream tempOut = fileOut;
+        CSVWriter tableWriter = null;
         try {
+            if (m_settings.isGzipOutput()) {
+                // compressed on its own thread while the rows are formatted
+                tempOut = new ThreadedGZIPOutputStream(fileOut);
+            }
+            Charset charSet = Charset.defaultCharset();
+            String encoding = writerSettings.getCharacterEncoding();
+            if (encoding != null) {
+                charSet = Charset.forName(encoding);
+            }
+            tableWriter = new CSVWriter(tempOut, writerSettings, charSet);
+            // write the comment header, if we are supposed to
+            String tableName;
+            if (input == null) {
+                tableName = data.getDataTableSpec().getName();
+            } else {
+                tableName = input.getDataTableSpec().getName();
+            }
+            writeCommentHeader(m_settings, tableWriter, tableName, appendToFile);
+
             if (input == null) {
                 tableWriter.write(data, exec);
             } else {
@@ -322,11 +327,8 @@ private BufferedDataTable[] doIt(final BufferedDataTable data, final RowInput in
                 return null;
             }
         } catch (CanceledExecutionException | InterruptedException e) {
-            try {
-                tableWriter.close();
-            } catch (IOException ex) {
-                // may happen if the stream is already closed by the interrupted thread
-            }
+            // the file must be closed before it can be deleted
+            closeQuietly(tableWriter, tempOut, fileOut);
             if (localPath != null) {
                 try {
                     Files.delete(localPath);
@@ -337,9 +339,32 @@ private BufferedDataTable[] doIt(final BufferedDataTable data, final RowInput in
                 }
             }
             throw e;
+        } finally {
+            // after an error the compressing thread must end and the file must be closed, too (no-op if closed)
+            closeQuietly(tableWriter, tempOut, fileOut);
         }
 
     }
+
+    /**
+     * Closes the writer and the streams it writes to in the given order, ignoring errors. Each of them is closed
+     * because closing a writer or a compressing stream doesn't close the underlying stream if the remaining bytes
+     * can't be written.
+     *
+     * @param closeables the writer and streams from the outermost to the innermost, null elements are ignored
+     */
+    static void closeQuietly(final Closeable... closeables) {
+        for (Closeable c : closeables) {
+            if (c != null) {
+                try {
+                    c.close();
+                } catch (IOException ex) {
+                    // the error of the writer has already been reported, if there was one
+                }
+            }
+        }
+    }
+
     /**
      * Writes a comment header to the file, if specified so in the settings.
      *
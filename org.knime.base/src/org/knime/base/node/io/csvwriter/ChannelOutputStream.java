@@ -0,0 +1,139 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.io.csvwriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Output stream that collects the written bytes in a large direct buffer and writes it to a channel when it is full.
+ * Writing a direct buffer to a file channel saves the copy into a temporary direct buffer a heap buffer needs.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ChannelOutputStream extends OutputStream {
+
+    /** The default size of the buffer. */
+    static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final WritableByteChannel m_channel;
+
+    private final ByteBuffer m_buffer;
+
+    /**
+     * Creates a stream with a buffer of the {@link #BUFFER_SIZE default size}.
+     *
+     * @param channel the channel to write to, closed when the stream is closed
+     */
+    ChannelOutputStream(final WritableByteChannel channel) {
+        this(channel, BUFFER_SIZE);
+    }
+
+    /**
+     * @param channel the channel to write to, closed when the stream is closed
+     * @param bufferSize the size of the direct buffer
+     */
+    ChannelOutputStream(final WritableByteChannel channel, final int bufferSize) {
+        m_channel = channel;
+        m_buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(final int b) throws IOException {
+        if (!m_buffer.hasRemaining()) {
+            drain();
+        }
+        m_buffer.put((byte)b);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int pos = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (!m_buffer.hasRemaining()) {
+                drain();
+            }
+            final int n = Math.min(remaining, m_buffer.remaining());
+            m_buffer.put(b, pos, n);
+            pos += n;
+            remaining -= n;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException {
+        if (!m_channel.isOpen()) {
+            return;
+        }
+        try {
+            drain();
+        } finally {
+            m_channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        m_buffer.flip();
+        while (m_buffer.hasRemaining()) {
+            m_channel.write(m_buffer);
+        }
+        m_buffer.clear();
+    }
+}
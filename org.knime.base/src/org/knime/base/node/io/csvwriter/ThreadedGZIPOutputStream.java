@@ -0,0 +1,229 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.io.csvwriter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.knime.core.util.ThreadUtils;
+
+/**
+ * Output stream that compresses the written bytes in GZIP format on its own thread. The bytes are collected in blocks
+ * that are handed over to the compressing thread, which writes them to the underlying stream. Errors of the
+ * compressing thread are thrown by the next write or when the stream is closed.
+ * <p>
+ * {@link #flush()} only hands over the collected bytes, they are written to the underlying stream when the stream is
+ * closed at the latest.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ThreadedGZIPOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 256 * 1024;
+
+    /** The number of blocks that are waiting to be compressed at most. */
+    private static final int QUEUE_SIZE = 8;
+
+    /** Marks the end of the data, identity matters. */
+    private static final byte[] END = new byte[0];
+
+    private final BlockingQueue<byte[]> m_queue = new ArrayBlockingQueue<byte[]>(QUEUE_SIZE);
+
+    private final Thread m_thread;
+
+    /** The error of the compressing thread, null if there was none. */
+    private volatile IOException m_error;
+
+    private byte[] m_block = new byte[BLOCK_SIZE];
+
+    private int m_blockLength;
+
+    private boolean m_closed;
+
+    /**
+     * Writes the GZIP header and starts the compressing thread.
+     *
+     * @param out the stream to write the compressed bytes to, closed when this stream is closed
+     * @throws IOException if the header can't be written
+     */
+    ThreadedGZIPOutputStream(final OutputStream out) throws IOException {
+        final GZIPOutputStream gzip = new GZIPOutputStream(out, BLOCK_SIZE);
+        m_thread = ThreadUtils.threadWithContext(() -> compress(gzip), "GZIP compression");
+        m_thread.start();
+    }
+
+    /** Compresses the blocks until the end, after an error the remaining blocks are discarded. */
+    private void compress(final GZIPOutputStream gzip) {
+        try {
+            byte[] block;
+            while ((block = m_queue.take()) != END) {
+                if (m_error == null) {
+                    try {
+                        gzip.write(block);
+                    } catch (IOException e) {
+                        m_error = e;
+                    }
+                }
+            }
+            gzip.close();
+        } catch (IOException e) {
+            if (m_error == null) {
+                m_error = e;
+            }
+        } catch (InterruptedException e) {
+            m_error = new InterruptedIOException("GZIP compression interrupted");
+            try {
+                gzip.close();
+            } catch (IOException ioe) {
+                // the underlying stream is closed as far as possible
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(final int b) throws IOException {
+        if (m_blockLength == m_block.length) {
+            handOver();
+        }
+        m_block[m_blockLength++] = (byte)b;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int pos = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (m_blockLength == m_block.length) {
+                handOver();
+            }
+            final int n = Math.min(remaining, m_block.length - m_blockLength);
+            System.arraycopy(b, pos, m_block, m_blockLength, n);
+            m_blockLength += n;
+            pos += n;
+            remaining -= n;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void flush() throws IOException {
+        if (m_blockLength > 0) {
+            handOver();
+        }
+    }
+
+    /**
+     * Hands over the remaining bytes and waits until they are compressed and the underlying stream is closed.
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        m_closed = true;
+        try {
+            if (m_blockLength > 0) {
+                handOver();
+            }
+        } finally {
+            // the thread must end even after an error, it discards the blocks then
+            try {
+                offer(END);
+                m_thread.join();
+            } catch (InterruptedIOException | InterruptedException e) {
+                // stop compressing, the file is incomplete anyway
+                m_thread.interrupt();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the GZIP compression");
+            }
+        }
+        checkError();
+    }
+
+    private void handOver() throws IOException {
+        checkError();
+        if (m_blockLength == m_block.length) {
+            offer(m_block);
+            m_block = new byte[BLOCK_SIZE];
+        } else {
+            offer(Arrays.copyOf(m_block, m_blockLength));
+        }
+        m_blockLength = 0;
+    }
+
+    /** Waits until the block is queued or the compressing thread ended. */
+    private void offer(final byte[] block) throws IOException {
+        try {
+            while (!m_queue.offer(block, 100, TimeUnit.MILLISECONDS)) {
+                if (!m_thread.isAlive()) {
+                    checkError();
+                    throw new IOException("GZIP compression stopped unexpectedly");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the GZIP compression");
+        }
+    }
+
+    private void checkError() throws IOException {
+        final IOException error = m_error;
+        if (error != null) {
+            throw new IOException("GZIP compression failed: " + error.getMessage(), error);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.io.filereader;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * The type of a column guessed by the {@link FileAnalyzer} from its tokens. A column is integer until a token can't
+ * be parsed as integer, and double until a token can't be parsed as double. One token per column that isn't a number
+ * is accepted as missing value pattern, a second one makes it a string column. The result doesn't depend on the order
+ * of the tokens, thus the guesses of consecutive parts of a file can be {@link #merge(ColumnTypeGuess) merged}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ColumnTypeGuess {
+
+    private DataType m_type = IntCell.TYPE;
+
+    // the one token that couldn't be parsed
+    private String m_missValPattern;
+
+    // we can use the missing value pattern only if we also got a real value
+    private boolean m_gotValue;
+
+    /**
+     * Checks the type against the next token of the column.
+     *
+     * @param token the trimmed token
+     * @param cellFactory the factory to parse the token with, its missing value pattern is changed
+     */
+    void addToken(final String token, final DataCellFactory cellFactory) {
+        cellFactory.setMissingValuePattern(m_missValPattern);
+
+        if (m_type.isCompatible(IntValue.class)) {
+            DataCell dc = cellFactory.createDataCellOfType(IntCell.TYPE, token);
+            if (dc != null) {
+                m_gotValue = m_gotValue || !dc.isMissing();
+                return;
+            }
+            // not an integer - could it be the missing value?
+            if (m_missValPattern == null) {
+                // we accept one token that can't be
+                // parsed per column - but we don't use doubles
+                // as missing value! Would be odd.
+                dc = cellFactory.createDataCellOfType(DoubleCell.TYPE, token);
+                if (dc == null) {
+                    m_missValPattern = token;
+                    return;
+                }
+            }
+            // not an integer, not the missing value
+            // - could be a double
+            m_type = DoubleCell.TYPE;
+        } // no else, we immediately check if it's a double
+
+        if (m_type.isCompatible(DoubleValue.class)) {
+            DataCell dc = cellFactory.createDataCellOfType(DoubleCell.TYPE, token);
+            if (dc != null) {
+                m_gotValue = m_gotValue || !dc.isMissing();
+                return;
+            }
+            // not a double - missing value maybe?
+            if (m_missValPattern == null) {
+                // we accept one token that can't be parsed
+                // per column as missing value pattern
+                m_missValPattern = token;
+                return;
+            }
+            // not a double, not a missing value,
+            // lets accept everything: StringCell
+            m_type = StringCell.TYPE;
+            m_gotValue = true;
+        }
+    }
+
+    /**
+     * Merges the guess of the tokens following the ones of this guess into this one. The result is the same as if
+     * the tokens were added to this guess.
+     *
+     * @param next the guess of the following tokens, not modified
+     */
+    void merge(final ColumnTypeGuess next) {
+        if (m_type.equals(StringCell.TYPE)) {
+            return;
+        }
+        if (next.m_type.equals(StringCell.TYPE) || (m_missValPattern != null && next.m_missValPattern != null
+            && !m_missValPattern.equals(next.m_missValPattern))) {
+            // two different tokens that are no numbers
+            m_type = StringCell.TYPE;
+            m_gotValue = true;
+            return;
+        }
+        if (next.m_type.equals(DoubleCell.TYPE)) {
+            m_type = DoubleCell.TYPE;
+        }
+        if (m_missValPattern == null) {
+            m_missValPattern = next.m_missValPattern;
+        }
+        m_gotValue = m_gotValue || next.m_gotValue;
+    }
+
+    /**
+     * @return the guessed type, integer, double or string
+     */
+    DataType getType() {
+        return m_type;
+    }
+
+    /**
+     * @return the one token that is not a number, null if there was none
+     */
+    String getMissingValuePattern() {
+        return m_missValPattern;
+    }
+
+    /**
+     * @return true if a token was a value (not the missing value pattern)
+     */
+    boolean gotValue() {
+        return m_gotValue;
+    }
+}
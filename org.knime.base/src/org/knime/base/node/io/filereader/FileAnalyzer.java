@@ -60,9 +60,6 @@
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataType;
-import org.knime.core.data.DoubleValue;
-import org.knime.core.data.IntValue;
-import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.IntCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.node.CanceledExecutionException;
@@ -288,7 +285,7 @@ public static FileReaderNodeSettings analyze(final FileReaderNodeSettings userSe
      *
      * @param exec the monitor to check for interrupts
      */
-    private static void checkInterrupt(final ExecutionMonitor exec) throws InterruptedExecutionException {
+    static void checkInterrupt(final ExecutionMonitor exec) throws InterruptedExecutionException {
         if (exec instanceof FileReaderExecutionMonitor) {
             ((FileReaderExecutionMonitor)exec).checkInterrupted();
         }
@@ -303,7 +300,7 @@ private static void checkInterrupt(final ExecutionMonitor exec) throws Interrupt
      * @return true, if analysis should be cut short, false otherwise.
      * @throws InterruptedExecutionException if the execution should be interrupted immediately
      */
-    private static boolean cutItShort(final ExecutionMonitor exec) throws InterruptedExecutionException {
+    static boolean cutItShort(final ExecutionMonitor exec) throws InterruptedExecutionException {
         if (exec instanceof FileReaderExecutionMonitor) {
             FileReaderExecutionMonitor m = (FileReaderExecutionMonitor)exec;
             m.checkInterrupted();
@@ -735,8 +732,6 @@ private static Vector<ColProperty> createColProps(final String[] colNames, final
     private static ColProperty[] createColumnTypes(final FileReaderNodeSettings userSettings,
         final FileReaderNodeSettings result, final ExecutionMonitor exec)
             throws IOException, InterruptedExecutionException {
-        BufferedFileReader reader = result.createNewInputReader();
-        long fileSize = reader.getFileSize();
 
         exec.setProgress("Guessing column types");
 
@@ -757,6 +752,16 @@ private static ColProperty[] createColumnTypes(final FileReaderNodeSettings user
                 }
             }
         }
+        // skip the first line - could be column headers - unless we know it's not
+        boolean skipFirstLine =
+            !userSettings.isFileHasColumnHeadersUserSet() || userSettings.getFileHasColumnHeaders();
+
+        // large local files are analyzed in parallel (or sampled)
+        ColumnTypeGuess[] guesses = FileChunkAnalyzer.guessColumnTypes(result, userTypes, skipFirstLine, exec);
+        if (guesses == null) {
+            guesses = guessColumnTypes(result, userTypes, skipFirstLine, exec);
+        }
+
         DataType[] types = new DataType[result.getNumberOfColumns()];
         // if we find a number that can't be parsed,
         // we set it as missing value pattern
@@ -770,11 +775,86 @@ private static ColProperty[] createColumnTypes(final FileReaderNodeSettings user
             if (userTypes[t] != null) {
                 types[t] = userTypes[t];
             } else {
-                types[t] = IntCell.TYPE;
+                types[t] = guesses[t].getType();
+                missValPattern[t] = guesses[t].getMissingValuePattern();
+                gotValue[t] = guesses[t].gotValue();
+            }
+        }
+
+        // set all columns we didn't see any real value for to String.
+        // Discard any (possible) missing value pattern (that works,
+        // because we don't accept doubles as missing value patterns).
+        // Warn the user.
+        String cols = "";
+        int cnt = 0;
+        for (int t = 0; t < types.length; t++) {
+            if (userTypes[t] == null && !gotValue[t]) {
+                // do it only for types not set by the user
+                assert types[t].equals(IntCell.TYPE);
+                types[t] = StringCell.TYPE;
+                boolean gotOneVal = missValPattern[t] != null;
+                missValPattern[t] = null;
+                if ((cnt < 21) && !gotOneVal && ((userColProps == null) || (userColProps.size() <= t)
+                    || (userColProps.get(t) == null) || (!userColProps.get(t).getSkipThisColumn()))) {
+                    if (cnt < 20) {
+                        cols += "#" + t + ", ";
+                        cnt++;
+                    } else if (cnt == 20) {
+                        cols += "...and more..., ";
+                        cnt++;
+                    }
+                }
+            }
+        }
+        if (cols.length() > 0) {
+            LOGGER.warn("Didn't get any value for column(s) with index "
+                // cut off the comma
+                + cols.substring(0, cols.length() - 2) + ". Please verify column type(s).");
+        }
+
+        // pack column types and column missing values in one object
+        ColProperty[] colPropResult = new ColProperty[types.length];
+        for (int c = 0; c < colPropResult.length; c++) {
+            ColProperty cp = new ColProperty();
+            DataColumnSpecCreator dcsc = new DataColumnSpecCreator("Foo", types[c]);
+            cp.setColumnSpec(dcsc.createSpec());
+            if (types[c].equals(StringCell.TYPE)) {
+                // for string columns we don't have a missing value.
+                // use the global one, if set, otherwise '?'
+                if (result.getMissValuePatternStrCols() != null) {
+                    cp.setMissingValuePattern(result.getMissValuePatternStrCols());
+                } else {
+                    cp.setMissingValuePattern("?");
+                }
+            } else {
+                // for int or double, use the one we figured out (or none)
+                cp.setMissingValuePattern(missValPattern[c]);
             }
-            // initialize the data structures:
-            missValPattern[t] = null;
-            gotValue[t] = false;
+            colPropResult[c] = cp;
+        }
+        return colPropResult;
+    }
+
+    /**
+     * Reads the whole file (or the number of lines the analysis is cut short to) and guesses the type of each column
+     * not preset by the user.
+     *
+     * @param result the settings so far, must contain data url, delimiters, comments, quotes, colNumber, and rowHeader
+     *            flag
+     * @param userTypes the types preset by the user, the elements of the other columns are null
+     * @param skipFirstLine if the first line could be column headers
+     * @param exec to check for cancellations and report progress to
+     * @return one guess per column
+     * @throws IOException if an I/O error occurs
+     */
+    private static ColumnTypeGuess[] guessColumnTypes(final FileReaderNodeSettings result, final DataType[] userTypes,
+        final boolean skipFirstLine, final ExecutionMonitor exec) throws IOException, InterruptedExecutionException {
+        BufferedFileReader reader = result.createNewInputReader();
+        long fileSize = reader.getFileSize();
+
+        ColumnTypeGuess[] guesses = new ColumnTypeGuess[result.getNumberOfColumns()];
+        for (int t = 0; t < guesses.length; t++) {
+            guesses[t] = new ColumnTypeGuess();
         }
 
         Tokenizer tokenizer = new Tokenizer(reader);
@@ -829,8 +909,7 @@ private static ColProperty[] createColumnTypes(final FileReaderNodeSettings user
                     }
                     continue;
                 }
-                if ((linesRead < 1)
-                    && (!userSettings.isFileHasColumnHeadersUserSet() || userSettings.getFileHasColumnHeaders())) {
+                if ((linesRead < 1) && skipFirstLine) {
                     // skip the first line - could be column headers -
                     // unless we know it's not
                     continue;
@@ -846,109 +925,14 @@ private static ColProperty[] createColumnTypes(final FileReaderNodeSettings user
                     continue;
                 }
 
-                cellFactory.setMissingValuePattern(missValPattern[colIdx]);
-
                 // for numbers we trim tokens and allow empty for missValue
-                token = token.trim();
-
-                if (types[colIdx].isCompatible(IntValue.class)) {
-                    DataCell dc = cellFactory.createDataCellOfType(IntCell.TYPE, token);
-                    if (dc != null) {
-                        gotValue[colIdx] = gotValue[colIdx] || !dc.isMissing();
-                        continue;
-                    }
-                    // not an integer - could it be the missing value?
-                    if (missValPattern[colIdx] == null) {
-                        // we accept one token that can't be
-                        // parsed per column - but we don't use doubles
-                        // as missing value! Would be odd.
-                        dc = cellFactory.createDataCellOfType(DoubleCell.TYPE, token);
-                        if (dc == null) {
-                            missValPattern[colIdx] = token;
-                            continue;
-                        }
-                    }
-                    // not an integer, not the missing value
-                    // - could be a double
-                    types[colIdx] = DoubleCell.TYPE;
-                } // no else, we immediately check if it's a double
-
-                if (types[colIdx].isCompatible(DoubleValue.class)) {
-                    DataCell dc = cellFactory.createDataCellOfType(DoubleCell.TYPE, token);
-                    if (dc != null) {
-                        gotValue[colIdx] = gotValue[colIdx] || !dc.isMissing();
-                        continue;
-                    }
-                    // not a double - missing value maybe?
-                    if (missValPattern[colIdx] == null) {
-                        // we accept one token that can't be parsed
-                        // per column as missing value pattern
-                        missValPattern[colIdx] = token;
-                        continue;
-                    }
-                    // not a double, not a missing value,
-                    // lets accept everything: StringCell
-                    types[colIdx] = StringCell.TYPE;
-                    gotValue[colIdx] = true;
-                }
+                guesses[colIdx].addToken(token.trim(), cellFactory);
 
             }
         } finally {
             tokenizer.closeSourceStream();
         }
-
-        // set all columns we didn't see any real value for to String.
-        // Discard any (possible) missing value pattern (that works,
-        // because we don't accept doubles as missing value patterns).
-        // Warn the user.
-        String cols = "";
-        int cnt = 0;
-        for (int t = 0; t < types.length; t++) {
-            if (userTypes[t] == null && !gotValue[t]) {
-                // do it only for types not set by the user
-                assert types[t].equals(IntCell.TYPE);
-                types[t] = StringCell.TYPE;
-                boolean gotOneVal = missValPattern[t] != null;
-                missValPattern[t] = null;
-                if ((cnt < 21) && !gotOneVal && ((userColProps == null) || (userColProps.size() <= t)
-                    || (userColProps.get(t) == null) || (!userColProps.get(t).getSkipThisColumn()))) {
-                    if (cnt < 20) {
-                        cols += "#" + t + ", ";
-                        cnt++;
-                    } else if (cnt == 20) {
-                        cols += "...and more..., ";
-                        cnt++;
-                    }
-                }
-            }
-        }
-        if (cols.length() > 0) {
-            LOGGER.warn("Didn't get any value for column(s) with index "
-                // cut off the comma
-                + cols.substring(0, cols.length() - 2) + ". Please verify column type(s).");
-        }
-
-        // pack column types and column missing values in one object
-        ColProperty[] colPropResult = new ColProperty[types.length];
-        for (int c = 0; c < colPropResult.length; c++) {
-            ColProperty cp = new ColProperty();
-            DataColumnSpecCreator dcsc = new DataColumnSpecCreator("Foo", types[c]);
-            cp.setColumnSpec(dcsc.createSpec());
-            if (types[c].equals(StringCell.TYPE)) {
-                // for string columns we don't have a missing value.
-                // use the global one, if set, otherwise '?'
-                if (result.getMissValuePatternStrCols() != null) {
-                    cp.setMissingValuePattern(result.getMissValuePatternStrCols());
-                } else {
-                    cp.setMissingValuePattern("?");
-                }
-            } else {
-                // for int or double, use the one we figured out (or none)
-                cp.setMissingValuePattern(missValPattern[c]);
-            }
-            colPropResult[c] = cp;
-        }
-        return colPropResult;
+        return guesses;
     }
 
     /**
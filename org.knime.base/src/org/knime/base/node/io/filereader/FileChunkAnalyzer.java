@@ -0,0 +1,428 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.io.filereader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.data.DataType;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadPool;
+import org.knime.core.util.tokenizer.Tokenizer;
+
+/**
+ * Guesses the column types of a large, uncompressed local file for the {@link FileAnalyzer} in parallel. The file is
+ * split into chunks by a {@link FileChunkScanner}, the chunks are tokenized on the threads of the
+ * {@link KNIMEConstants#GLOBAL_THREAD_POOL global thread pool} and their {@link ColumnTypeGuess guesses} are merged in
+ * file order, which results in the same types as analyzing the file sequentially.
+ * <p>
+ * If the {@link FileReaderExecutionMonitor#isSampleAnalysis() sample analysis} is requested, only evenly spaced
+ * blocks of the file are tokenized. The blocks start and end at the ends of records, so the tokens are the same as in
+ * the whole file, but rows that don't fit the guessed types may be missed. The start of a block is found from the
+ * block on, which is only possible if line feeds are not allowed in quotes. Otherwise the quotes would have to be
+ * tracked from the beginning of the file, so the whole file is analyzed instead and the monitor is
+ * {@link FileReaderExecutionMonitor#wasSampleAnalysisImpossible() told so}.
+ * <p>
+ * The guesses are cached by the size and modification time of the file, and the settings the file is tokenized with.
+ * The guesses of a full analysis are used for sample analyses as well.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class FileChunkAnalyzer {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(FileChunkAnalyzer.class);
+
+    /** Files smaller than this are analyzed sequentially. */
+    private static final long MIN_FILE_SIZE = 16 * 1024 * 1024;
+
+    /** The minimum size of a chunk of the full analysis. */
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /** The number of blocks sampled. */
+    private static final int SAMPLE_COUNT = 64;
+
+    /** The minimum size of a sampled block. */
+    private static final int SAMPLE_SIZE = 256 * 1024;
+
+    /** The number of files whose guesses are cached. */
+    private static final int CACHE_SIZE = 16;
+
+    private static final Map<String, CachedGuesses> CACHE = new LinkedHashMap<String, CachedGuesses>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedGuesses> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final FileReaderSettings m_frSettings;
+
+    /** The settings for all but the first chunk, they don't skip any lines. */
+    private final FileReaderSettings m_chunkSettings;
+
+    private final DataType[] m_userTypes;
+
+    private final boolean m_skipFirstLine;
+
+    private final FileChunkScanner m_scanner;
+
+    /** Set if the result is not needed anymore, the chunks stop at the end of the next row. */
+    private volatile boolean m_stopped;
+
+    /** The guesses of the chunks merged so far, null before the first one. */
+    private ColumnTypeGuess[] m_guesses;
+
+    private FileChunkAnalyzer(final FileReaderSettings frSettings, final DataType[] userTypes,
+        final boolean skipFirstLine, final File file) throws IOException {
+        m_frSettings = new FileReaderSettings(frSettings);
+        m_chunkSettings = new FileReaderSettings(frSettings);
+        m_chunkSettings.setSkipFirstLines(0);
+        m_userTypes = userTypes;
+        m_skipFirstLine = skipFirstLine;
+        m_scanner = new FileChunkScanner(frSettings, file);
+    }
+
+    /**
+     * Guesses the column types of the file in parallel, if it is large enough and the settings allow to split it. The
+     * analysis is sampled if the {@link FileReaderExecutionMonitor} says so. If it is cut short or the file is sampled
+     * the {@link FileReaderNodeSettings#analyzeUsedAllRows()} flag is cleared.
+     *
+     * @param result the settings so far, must contain data url, delimiters, comments, quotes, colNumber, and
+     *            rowHeader flag
+     * @param userTypes the types preset by the user, the elements of the other columns are null
+     * @param skipFirstLine if the first line could be column headers
+     * @param exec to check for cancellations and report progress to
+     * @return one guess per column, must not be modified, or null if the file should be analyzed sequentially
+     * @throws IOException if the file can't be read
+     * @throws InterruptedExecutionException if the analysis was interrupted
+     */
+    static ColumnTypeGuess[] guessColumnTypes(final FileReaderNodeSettings result, final DataType[] userTypes,
+        final boolean skipFirstLine, final ExecutionMonitor exec) throws IOException, InterruptedExecutionException {
+        final boolean sample = exec instanceof FileReaderExecutionMonitor
+            && ((FileReaderExecutionMonitor)exec).isSampleAnalysis();
+        return guessColumnTypes(result, userTypes, skipFirstLine, exec, sample, CHUNK_SIZE, SAMPLE_SIZE,
+            SAMPLE_COUNT, MIN_FILE_SIZE);
+    }
+
+    /**
+     * Guesses the column types of the file with the given chunk sizes if it is at least of the given size.
+     *
+     * @param result the settings so far
+     * @param userTypes the types preset by the user, the elements of the other columns are null
+     * @param skipFirstLine if the first line could be column headers
+     * @param exec to check for cancellations and report progress to
+     * @param sample whether only blocks of the file are analyzed
+     * @param chunkSize the minimum size of a chunk of the full analysis
+     * @param sampleSize the minimum size of a sampled block
+     * @param sampleCount the number of sampled blocks
+     * @param minFileSize the minimum size of the file
+     * @return one guess per column, or null if the file should be analyzed sequentially
+     * @throws IOException if the file can't be read
+     * @throws InterruptedExecutionException if the analysis was interrupted
+     */
+    static ColumnTypeGuess[] guessColumnTypes(final FileReaderNodeSettings result, final DataType[] userTypes,
+        final boolean skipFirstLine, final ExecutionMonitor exec, final boolean sample, final int chunkSize,
+        final int sampleSize, final int sampleCount, final long minFileSize)
+        throws IOException, InterruptedExecutionException {
+        if (FileAnalyzer.cutItShort(exec)) {
+            // only the first lines are analyzed
+            return null;
+        }
+        final File file = FileChunkScanner.getFileIfApplicable(result, minFileSize);
+        if (file == null) {
+            return null;
+        }
+        // sampling doesn't pay off if a large part of the file is sampled anyway
+        boolean sampleFile = sample && file.length() > 4L * sampleSize * sampleCount;
+        if (sampleFile && !FileChunkScanner.canResync(result)) {
+            // finding the records of a block requires scanning the file up to it, which costs about as much
+            LOGGER.debugWithFormat("Can't sample '%s', quoted values may contain line feeds", file.getAbsolutePath());
+            sampleFile = false;
+            if (exec instanceof FileReaderExecutionMonitor) {
+                ((FileReaderExecutionMonitor)exec).setSampleAnalysisImpossible();
+            }
+        }
+        final String key = createCacheKey(file, result, userTypes, skipFirstLine);
+        synchronized (CACHE) {
+            final CachedGuesses cached = CACHE.get(key);
+            if (cached != null && (sampleFile || !cached.m_sampled)) {
+                LOGGER.debugWithFormat("Using cached column types of '%s'", file.getAbsolutePath());
+                if (cached.m_sampled) {
+                    result.setAnalyzeUsedAllRows(false);
+                }
+                return cached.m_guesses;
+            }
+        }
+        LOGGER.debugWithFormat(sampleFile ? "Sampling '%s' in parallel" : "Analyzing '%s' in parallel",
+            file.getAbsolutePath());
+        final FileChunkAnalyzer analyzer = new FileChunkAnalyzer(result, userTypes, skipFirstLine, file);
+        final Boolean complete = sampleFile ? analyzer.analyze(exec, sampleSize, sampleCount)
+            : analyzer.analyze(exec, chunkSize, 0);
+        if (complete == null) {
+            // the sequential analysis creates the error
+            return null;
+        }
+        if (!complete.booleanValue() || sampleFile) {
+            result.setAnalyzeUsedAllRows(false);
+        }
+        if (complete.booleanValue()) {
+            synchronized (CACHE) {
+                final CachedGuesses cached = CACHE.get(key);
+                if (cached == null || cached.m_sampled) {
+                    CACHE.put(key, new CachedGuesses(analyzer.m_guesses, sampleFile));
+                }
+            }
+        }
+        return analyzer.m_guesses;
+    }
+
+    /** The key identifies the version of the file and everything the guesses depend on. */
+    private static String createCacheKey(final File file, final FileReaderNodeSettings result,
+        final DataType[] userTypes, final boolean skipFirstLine) {
+        final StringBuilder key = new StringBuilder(file.getAbsolutePath());
+        key.append('\n').append(file.length()).append('\n').append(file.lastModified());
+        key.append('\n').append(result.getCharsetName());
+        key.append('\n').append(result.getNumberOfColumns());
+        key.append('\n').append(Arrays.toString(userTypes));
+        key.append('\n').append(skipFirstLine);
+        // the column properties of the analyzed settings are not set yet
+        key.append('\n').append(new FileReaderSettings(result).toString());
+        return key.toString();
+    }
+
+    /**
+     * Analyzes the file in chunks of the given size and merges their guesses into {@link #m_guesses}.
+     *
+     * @param exec to check for cancellations and report progress to
+     * @param chunkSize the minimum size of a chunk
+     * @param sampleCount the number of evenly spaced chunks to analyze, 0 to analyze all
+     * @return true if all chunks were analyzed, false if the analysis was cut short, null if a chunk couldn't be
+     *         tokenized
+     */
+    private Boolean analyze(final ExecutionMonitor exec, final int chunkSize, final int sampleCount)
+        throws IOException, InterruptedExecutionException {
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL;
+        final int maxPending = 2 * pool.getMaxThreads();
+        final Deque<Future<ChunkGuesses>> pending = new ArrayDeque<Future<ChunkGuesses>>();
+        final long fileSize = m_scanner.getFileSize();
+        try {
+            // the first line is skipped in the first chunk, it must be complete
+            final long headerEnd = m_scanner.skipHeader(m_frSettings.getSkipFirstLines(), m_skipFirstLine);
+            long start = 0;
+            int chunkCount = 0;
+            while (start < fileSize) {
+                long minEnd = start + chunkSize;
+                if (start == 0) {
+                    minEnd = Math.max(minEnd, headerEnd);
+                }
+                final long chunkStart = start;
+                final long end =
+                    minEnd >= fileSize ? fileSize : m_scanner.skipLineBreaks(m_scanner.findRecordEnd(minEnd));
+                if (pending.size() == maxPending) {
+                    final Boolean merged = mergeNext(pending, exec, fileSize);
+                    if (merged == null || !merged.booleanValue()) {
+                        return merged;
+                    }
+                }
+                pending.add(pool.enqueue(() -> analyzeChunk(chunkStart, end)));
+                chunkCount++;
+                start = end;
+                if (sampleCount > 0) {
+                    if (chunkCount == sampleCount) {
+                        break;
+                    }
+                    // the next block starts at the first record after its position, without scanning up to it
+                    final long blockStart = chunkCount * (fileSize / sampleCount);
+                    if (blockStart > start) {
+                        start = m_scanner.skipLineBreaks(m_scanner.resync(blockStart));
+                    }
+                }
+            }
+            while (!pending.isEmpty()) {
+                final Boolean merged = mergeNext(pending, exec, fileSize);
+                if (merged == null || !merged.booleanValue()) {
+                    return merged;
+                }
+            }
+            return Boolean.TRUE;
+        } finally {
+            m_stopped = true;
+            for (Future<ChunkGuesses> f : pending) {
+                // don't interrupt, it would close the file
+                f.cancel(false);
+            }
+            m_scanner.close();
+        }
+    }
+
+    /**
+     * Waits for the first pending chunk and merges its guesses.
+     *
+     * @return true if the analysis should go on, false if it should be cut short, null if the chunk couldn't be
+     *         tokenized
+     */
+    private Boolean mergeNext(final Deque<Future<ChunkGuesses>> pending, final ExecutionMonitor exec,
+        final long fileSize) throws IOException, InterruptedExecutionException {
+        final ChunkGuesses chunk;
+        try {
+            chunk = pending.removeFirst().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedExecutionException("Execution interrupted.");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+        if (chunk.m_failed) {
+            return null;
+        }
+        if (m_guesses == null) {
+            m_guesses = chunk.m_guesses;
+        } else {
+            for (int c = 0; c < m_guesses.length; c++) {
+                m_guesses[c].merge(chunk.m_guesses[c]);
+            }
+        }
+        exec.setProgress(chunk.m_end / (double)fileSize, "Verifying column types");
+        return !FileAnalyzer.cutItShort(exec);
+    }
+
+    /** Tokenizes the chunk like {@link FileAnalyzer} does the whole file, without progress and cancellation. */
+    private ChunkGuesses analyzeChunk(final long start, final long end) throws IOException {
+        final ChunkGuesses chunk = new ChunkGuesses(end, m_userTypes.length);
+        final FileReaderSettings settings = start == 0 ? m_frSettings : m_chunkSettings;
+        final Tokenizer tokenizer = new Tokenizer(m_scanner.decode(m_scanner.read(start, end)));
+        tokenizer.setSettings(settings);
+        // we create simple cells only, no execContext needed
+        final DataCellFactory cellFactory = new DataCellFactory(null);
+        cellFactory.setDecimalSeparator(settings.getDecimalSeparator());
+        cellFactory.setThousandsSeparator(settings.getThousandsSeparator());
+        // only the first line of the file could be column headers
+        boolean skipLine = start == 0 && m_skipFirstLine;
+        int colIdx = -1;
+        try {
+            String token;
+            while (!m_stopped && (token = tokenizer.nextToken()) != null) {
+                colIdx++;
+                if (settings.getFileHasRowHeaders() && (colIdx == 0)
+                    && (!settings.isRowDelimiter(token, tokenizer.lastTokenWasQuoted()))) {
+                    // ignore the row header - get the next token/column
+                    token = tokenizer.nextToken();
+                    if (token == null) {
+                        break;
+                    }
+                }
+                if (settings.isRowDelimiter(token, tokenizer.lastTokenWasQuoted())) {
+                    if (colIdx > 0) {
+                        // only not empty lines count
+                        skipLine = false;
+                    }
+                    colIdx = -1;
+                    continue;
+                }
+                if (skipLine || colIdx >= m_userTypes.length || m_userTypes[colIdx] != null) {
+                    continue;
+                }
+                // for numbers we trim tokens and allow empty for missValue
+                chunk.m_guesses[colIdx].addToken(token.trim(), cellFactory);
+            }
+        } catch (RuntimeException e) {
+            // the error is created by the sequential analysis
+            chunk.m_failed = true;
+        }
+        return chunk;
+    }
+
+    /** The guesses of a chunk. */
+    private static final class ChunkGuesses {
+
+        private final long m_end;
+
+        private final ColumnTypeGuess[] m_guesses;
+
+        private boolean m_failed;
+
+        ChunkGuesses(final long end, final int numOfColumns) {
+            m_end = end;
+            m_guesses = new ColumnTypeGuess[numOfColumns];
+            for (int c = 0; c < numOfColumns; c++) {
+                m_guesses[c] = new ColumnTypeGuess();
+            }
+        }
+    }
+
+    /** The guesses of a completely analyzed or sampled file. */
+    private static final class CachedGuesses {
+
+        private final ColumnTypeGuess[] m_guesses;
+
+        private final boolean m_sampled;
+
+        CachedGuesses(final ColumnTypeGuess[] guesses, final boolean sampled) {
+            m_guesses = guesses;
+            m_sampled = sampled;
+        }
+    }
+}
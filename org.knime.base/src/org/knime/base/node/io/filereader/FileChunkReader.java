@@ -0,0 +1,533 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.io.filereader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Reads the rows of a large, uncompressed local file in parallel for the {@link FileRowIterator}. The file is split
+ * into chunks of a few megabytes after line feeds that end a record. The chunks are read in blocks, decoded and
+ * parsed by a {@link FileRowIterator} each on the threads of the {@link KNIMEConstants#GLOBAL_THREAD_POOL global
+ * thread pool}. The rows are returned in file order, their row IDs are created (and made unique) by the thread
+ * iterating the rows. If a chunk can't be parsed it is parsed again by the iterating thread with the row numbers,
+ * line numbers and row IDs of the whole file, which results in the same error as reading the file sequentially. If
+ * it is parsed without an error after all, the chunks after it are read in parallel again. The ends of the records
+ * are found by a {@link FileChunkScanner}, settings it doesn't support are read sequentially.
+ * <p>
+ * The chunks parsed ahead are bounded by the (estimated) heap size of their rows, at most 1/8 of the heap, and by the
+ * number of threads. No more chunks are submitted once the chunks taken so far hold the maximum number of rows to
+ * read.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class FileChunkReader {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(FileChunkReader.class);
+
+    /** Files smaller than this are read sequentially. */
+    private static final long MIN_FILE_SIZE = 16 * 1024 * 1024;
+
+    /** The minimum size of a chunk, the chunks end at the end of the first record after this size. */
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /** The maximum heap size of the rows parsed ahead. */
+    private static final long MAX_READ_AHEAD_MEMORY = 256L * 1024 * 1024;
+
+    /** The assumed heap size of the rows per byte of the file, until the first chunk is parsed. */
+    private static final double DEFAULT_ROW_BYTES_PER_FILE_BYTE = 4;
+
+    private final FileReaderSettings m_frSettings;
+
+    /** The settings for all but the first chunk, they don't skip any lines. */
+    private final FileReaderSettings m_chunkSettings;
+
+    private final DataTableSpec m_tableSpec;
+
+    private final boolean[] m_skipColumns;
+
+    private final ExecutionContext m_exec;
+
+    private final FileChunkScanner m_scanner;
+
+    private final long m_fileSize;
+
+    private final int m_chunkSize;
+
+    /** The chunk containing this position fails to parse (for testing), -1 if all chunks are parsed normally. */
+    private final long m_failingChunkPosition;
+
+    /** The maximum estimated heap size of the rows of the pending chunks. */
+    private final long m_readAheadMemory;
+
+    /** The start of the next chunk to submit. */
+    private long m_nextChunkStart;
+
+    /** The first chunk ends after this position, it contains the skipped lines and column headers. */
+    private final long m_firstChunkMinEnd;
+
+    // --- the rows
+
+    private final ThreadPool m_pool;
+
+    private final int m_maxPending;
+
+    private final Deque<Future<Chunk>> m_pending = new ArrayDeque<Future<Chunk>>();
+
+    /** The end of the last chunk taken from the pending ones (or parsed by the exact iterator). */
+    private long m_takenEnd;
+
+    /** The number of rows in the chunks taken so far, including the ones returned already. */
+    private long m_takenRows;
+
+    /** The estimated heap size of the rows of the chunks taken so far. */
+    private long m_takenRowBytes;
+
+    /** The size of the chunks taken so far in the file. */
+    private long m_takenFileBytes;
+
+    /** The estimated heap size of the rows per byte of the file, measured on the chunks taken so far. */
+    private double m_rowBytesPerFileByte = DEFAULT_ROW_BYTES_PER_FILE_BYTE;
+
+    private Chunk m_currentChunk;
+
+    private int m_currentIndex;
+
+    /** Parses a failed chunk with the row and line numbers of the file, null if no chunk failed. */
+    private FileRowIterator m_exactIterator;
+
+    /** The chunk parsed by the exact iterator, null if no chunk failed. */
+    private Chunk m_exactChunk;
+
+    /* The number of the next row (starting with 1). */
+    private int m_rowNumber = 1;
+
+    /* The number of lines before the current chunk. */
+    private int m_lineOffset;
+
+    // the resolved row header prefix, null if the row headers are read from the file
+    private final String m_rowHeaderPrefix;
+
+    private final HashMap<String, Number> m_rowIDhash = new HashMap<String, Number>();
+
+    private final long m_maxNumOfRows;
+
+    private boolean m_fileWasNotCompletelyRead;
+
+    private boolean m_closed;
+
+    private FileChunkReader(final FileReaderSettings frSettings, final DataTableSpec tableSpec,
+        final boolean[] skipColumns, final ExecutionContext exec, final File file, final int chunkSize,
+        final long readAheadMemory, final long failingChunkPosition) throws IOException {
+        m_frSettings = frSettings;
+        m_chunkSettings = new FileReaderSettings(frSettings);
+        m_chunkSettings.setSkipFirstLines(0);
+        m_chunkSettings.setFileHasColumnHeaders(false);
+        m_tableSpec = tableSpec;
+        m_skipColumns = skipColumns;
+        m_exec = exec;
+        m_chunkSize = chunkSize;
+        m_readAheadMemory = readAheadMemory;
+        m_failingChunkPosition = failingChunkPosition;
+        if (frSettings.getFileHasRowHeaders()) {
+            m_rowHeaderPrefix = null;
+        } else if (frSettings.getRowHeaderPrefix() != null) {
+            m_rowHeaderPrefix = frSettings.getRowHeaderPrefix();
+        } else {
+            m_rowHeaderPrefix = FileReaderSettings.DEF_ROWPREFIX;
+        }
+        m_maxNumOfRows = frSettings.getMaximumNumberOfRowsToRead() < 0 ? Long.MAX_VALUE
+            : frSettings.getMaximumNumberOfRowsToRead();
+        m_pool = KNIMEConstants.GLOBAL_THREAD_POOL;
+        m_maxPending = 2 * m_pool.getMaxThreads();
+
+        m_scanner = new FileChunkScanner(frSettings, file);
+        m_fileSize = m_scanner.getFileSize();
+        try {
+            m_firstChunkMinEnd =
+                m_scanner.skipHeader(frSettings.getSkipFirstLines(), frSettings.getFileHasColumnHeaders());
+            submitChunks();
+        } catch (IOException | RuntimeException e) {
+            m_scanner.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a reader for the file if it is large enough to be read in parallel and the settings allow to find the
+     * ends of the records without tokenizing the file.
+     *
+     * @param frSettings the settings to read the file with
+     * @param tableSpec the spec of the rows to create
+     * @param skipColumns the columns of the file to skip
+     * @param exec the execution context to report the progress to, can be null
+     * @return the reader, or null if the file should be read sequentially
+     * @throws IOException if the file can't be opened
+     */
+    static FileChunkReader createIfApplicable(final FileReaderSettings frSettings, final DataTableSpec tableSpec,
+        final boolean[] skipColumns, final ExecutionContext exec) throws IOException {
+        if (KNIMEConstants.GLOBAL_THREAD_POOL.getMaxThreads() < 2) {
+            return null;
+        }
+        final long readAheadMemory = Math.min(MAX_READ_AHEAD_MEMORY, Runtime.getRuntime().maxMemory() / 8);
+        return createIfApplicable(frSettings, tableSpec, skipColumns, exec, CHUNK_SIZE, MIN_FILE_SIZE,
+            readAheadMemory, -1);
+    }
+
+    /**
+     * Creates a reader with the given chunk size if the file is at least of the given size and the settings allow to
+     * read it in parallel.
+     *
+     * @param frSettings the settings to read the file with
+     * @param tableSpec the spec of the rows to create
+     * @param skipColumns the columns of the file to skip
+     * @param exec the execution context to report the progress to, can be null
+     * @param chunkSize the minimum size of a chunk
+     * @param minFileSize the minimum size of the file
+     * @param readAheadMemory the maximum estimated heap size of the rows of the chunks parsed ahead, at least one
+     *            chunk is parsed ahead
+     * @param failingChunkPosition the chunk containing this position fails to parse and is then parsed again by the
+     *            iterating thread (for testing), -1 to parse all chunks normally
+     * @return the reader, or null if the file should be read sequentially
+     * @throws IOException if the file can't be opened
+     */
+    static FileChunkReader createIfApplicable(final FileReaderSettings frSettings, final DataTableSpec tableSpec,
+        final boolean[] skipColumns, final ExecutionContext exec, final int chunkSize, final long minFileSize,
+        final long readAheadMemory, final long failingChunkPosition) throws IOException {
+        final File file = FileChunkScanner.getFileIfApplicable(frSettings, minFileSize);
+        if (file == null) {
+            return null;
+        }
+        LOGGER.debugWithFormat("Reading '%s' in parallel", file.getAbsolutePath());
+        return new FileChunkReader(frSettings, tableSpec, skipColumns, exec, file, chunkSize, readAheadMemory,
+            failingChunkPosition);
+    }
+
+    /**
+     * @return true if there is another row
+     * @see FileRowIterator#hasNext()
+     */
+    boolean hasNext() {
+        while (m_exactIterator != null || m_currentChunk == null
+            || m_currentIndex == m_currentChunk.m_rows.size()) {
+            if (m_exactIterator != null) {
+                if (m_exactIterator.hasNext()) {
+                    return true;
+                }
+                if (m_exactIterator.iteratorEndedEarly()) {
+                    close();
+                    return false;
+                }
+                resumeAfterExactChunk();
+            } else if (!nextChunk()) {
+                close();
+                return false;
+            }
+        }
+        if (m_rowNumber > m_maxNumOfRows) {
+            m_fileWasNotCompletelyRead = true;
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the next row
+     * @see FileRowIterator#next()
+     */
+    DataRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("The row iterator proceeded beyond the last line of '"
+                + m_frSettings.getDataFileLocation().toString() + "'.");
+        }
+        if (m_exactIterator != null) {
+            m_rowNumber++;
+            return m_exactIterator.next();
+        }
+        final DataRow row = m_currentChunk.m_rows.get(m_currentIndex);
+        final boolean headerMissing = m_currentChunk.m_missingRowHeaders.get(m_currentIndex);
+        // release the row, the chunk stays until all of its rows are returned
+        m_currentChunk.m_rows.set(m_currentIndex, null);
+        m_currentIndex++;
+        String rowHeader;
+        if (m_rowHeaderPrefix != null) {
+            rowHeader = m_rowHeaderPrefix + (m_rowNumber - 1);
+        } else {
+            // same as FileRowIterator#createRowHeader, with the row number in the file
+            rowHeader = headerMissing ? DataType.getMissingCell().toString() + (m_rowNumber - 1)
+                : row.getKey().getString();
+            if (m_frSettings.uniquifyRowIDs()) {
+                rowHeader = FileRowIterator.uniquifyRowHeader(rowHeader, m_rowIDhash);
+            }
+        }
+        m_rowNumber++;
+        return rowHeader.equals(row.getKey().getString()) ? row : new DefaultRow(rowHeader, row);
+    }
+
+    /**
+     * @return true if the maximum number of rows was reached before the end of the file
+     * @see FileRowIterator#iteratorEndedEarly()
+     */
+    boolean iteratorEndedEarly() {
+        return m_fileWasNotCompletelyRead || (m_exactIterator != null && m_exactIterator.iteratorEndedEarly());
+    }
+
+    /**
+     * @return the number of chunks submitted but not taken yet, used for testing
+     */
+    int getPendingChunkCount() {
+        return m_pending.size();
+    }
+
+    /** Cancels the pending chunks and closes the file. */
+    void close() {
+        if (m_closed) {
+            return;
+        }
+        m_closed = true;
+        for (Future<Chunk> f : m_pending) {
+            f.cancel(true);
+        }
+        m_pending.clear();
+        m_scanner.close();
+    }
+
+    /** Takes the next parsed chunk, returns false if there are no more chunks. */
+    private boolean nextChunk() {
+        m_currentChunk = null;
+        if (m_closed || m_pending.isEmpty()) {
+            return false;
+        }
+        final Chunk chunk;
+        try {
+            chunk = m_pending.removeFirst().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading '" + m_frSettings.getDataFileLocation()
+                + "'.", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IllegalStateException("I/O Error while reading '" + m_frSettings.getDataFileLocation()
+                + "': " + cause.getMessage(), cause);
+        }
+        if (chunk.m_failed) {
+            // parse it again with the numbers of the file to get the error right, no rows after it are read
+            // unless the chunk can be parsed after all
+            for (Future<Chunk> f : m_pending) {
+                // don't interrupt, it would close the channel
+                f.cancel(false);
+            }
+            m_pending.clear();
+            try {
+                m_exactIterator = new FileRowIterator(chunk.m_start == 0 ? m_frSettings : m_chunkSettings,
+                    m_tableSpec, m_skipColumns, m_scanner.decode(m_scanner.read(chunk.m_start, chunk.m_end)),
+                    m_rowNumber, m_lineOffset, m_rowIDhash);
+                m_exactChunk = chunk;
+            } catch (IOException e) {
+                throw new IllegalStateException("I/O Error while reading '" + m_frSettings.getDataFileLocation()
+                    + "': " + e.getMessage(), e);
+            }
+            return true;
+        }
+        m_currentChunk = chunk;
+        m_currentIndex = 0;
+        m_lineOffset += chunk.m_lineCount;
+        m_takenEnd = chunk.m_end;
+        m_takenRows += chunk.m_rows.size();
+        m_takenRowBytes += chunk.m_rowBytes;
+        m_takenFileBytes += chunk.m_end - chunk.m_start;
+        if (m_takenRowBytes > 0) {
+            m_rowBytesPerFileByte = m_takenRowBytes / (double)m_takenFileBytes;
+        }
+        submitChunks();
+        if (m_exec != null) {
+            m_exec.setProgress(chunk.m_end / (double)m_fileSize);
+        }
+        return true;
+    }
+
+    /** Continues with parallel reading after the chunk of the exact iterator was parsed without an error. */
+    private void resumeAfterExactChunk() {
+        m_lineOffset += m_exactChunk.m_lineCount;
+        m_nextChunkStart = m_exactChunk.m_end;
+        m_takenEnd = m_exactChunk.m_end;
+        m_takenRows = m_rowNumber - 1;
+        m_exactIterator = null;
+        m_exactChunk = null;
+        submitChunks();
+    }
+
+    /** Finds the ends of the next chunks and submits them until enough of them are pending. */
+    private void submitChunks() {
+        try {
+            while (m_nextChunkStart < m_fileSize && isReadAheadAllowed()) {
+                final long start = m_nextChunkStart;
+                long minEnd = start + m_chunkSize;
+                if (start == 0) {
+                    minEnd = Math.max(minEnd, m_firstChunkMinEnd);
+                }
+                final long end =
+                    minEnd >= m_fileSize ? m_fileSize : m_scanner.skipLineBreaks(m_scanner.findRecordEnd(minEnd));
+                m_nextChunkStart = end;
+                m_pending.add(m_pool.enqueue(() -> parseChunk(start, end)));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O Error while reading '" + m_frSettings.getDataFileLocation()
+                + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether another chunk is submitted: none if the taken chunks hold more than the rows to read (the pending ones
+     * are canceled when the reader is closed), one if they hold exactly as many to tell if the file has more rows,
+     * otherwise at least one and more as long as the estimated heap size of their rows is within the budget and there
+     * are threads to parse them.
+     */
+    private boolean isReadAheadAllowed() {
+        if (m_takenRows >= m_maxNumOfRows) {
+            return m_takenRows == m_maxNumOfRows && m_pending.isEmpty();
+        }
+        if (m_pending.isEmpty()) {
+            return true;
+        }
+        return m_pending.size() < m_maxPending
+            && (m_nextChunkStart - m_takenEnd) * m_rowBytesPerFileByte < m_readAheadMemory;
+    }
+
+    /** Reads the rows of the chunk, the row IDs are made unique when they are returned. */
+    private Chunk parseChunk(final long start, final long end) throws IOException {
+        final byte[] bytes = m_scanner.read(start, end);
+        final Chunk chunk = new Chunk(start, end);
+        chunk.m_lineCount = FileChunkScanner.countLines(bytes);
+        final FileRowIterator iterator = new FileRowIterator(start == 0 ? m_frSettings : m_chunkSettings,
+            m_tableSpec, m_skipColumns, m_scanner.decode(bytes), 1, 0, null);
+        try {
+            if (start <= m_failingChunkPosition && m_failingChunkPosition < end) {
+                throw new IllegalStateException("Failing chunk at " + start);
+            }
+            while (iterator.hasNext()) {
+                final DataRow row = iterator.next();
+                chunk.m_rows.add(row);
+                chunk.m_rowBytes += estimateHeapSize(row);
+                if (iterator.lastRowHeaderWasMissing()) {
+                    chunk.m_missingRowHeaders.set(chunk.m_rows.size() - 1);
+                }
+            }
+        } catch (RuntimeException e) {
+            // the error is created by the exact iterator
+            chunk.m_failed = true;
+            chunk.m_rows.clear();
+        }
+        return chunk;
+    }
+
+    /** Rough estimate of the heap size of a row: the row, its key and the cells, strings with two bytes a char. */
+    private static long estimateHeapSize(final DataRow row) {
+        long size = 64 + 2L * row.getKey().getString().length();
+        for (int i = 0, n = row.getNumCells(); i < n; i++) {
+            final DataCell cell = row.getCell(i);
+            size += 24;
+            if (!cell.isMissing() && cell instanceof StringValue) {
+                size += 40 + 2L * ((StringValue)cell).getStringValue().length();
+            }
+        }
+        return size;
+    }
+
+    /** The rows of a chunk, their IDs are not made unique. */
+    private static final class Chunk {
+
+        private final long m_start;
+
+        private final long m_end;
+
+        private final List<DataRow> m_rows = new ArrayList<DataRow>();
+
+        /** The rows whose header was missing in the file, their ID contains the row number in the chunk. */
+        private final BitSet m_missingRowHeaders = new BitSet();
+
+        private int m_lineCount;
+
+        /** The estimated heap size of the rows. */
+        private long m_rowBytes;
+
+        private boolean m_failed;
+
+        Chunk(final long start, final long end) {
+            m_start = start;
+            m_end = end;
+        }
+    }
+}
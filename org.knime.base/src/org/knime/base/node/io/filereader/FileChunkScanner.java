@@ -0,0 +1,571 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.io.filereader;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import org.knime.core.util.FileUtil;
+import org.knime.core.util.tokenizer.Comment;
+import org.knime.core.util.tokenizer.Delimiter;
+import org.knime.core.util.tokenizer.Quote;
+
+/**
+ * Finds the ends of records in a large, uncompressed local file without tokenizing it, and reads and decodes parts of
+ * the file concurrently. Used to split a file into chunks that can be tokenized independently.
+ * <p>
+ * Without quotes and comments every line feed ends a record. Otherwise the file is scanned sequentially for line
+ * feeds that are neither quoted, nor end a comment, nor follow one (the tokenizer swallows these if the comment starts
+ * a token), which is a lot cheaper than tokenizing it. If line feeds are not allowed in quotes, the ends of records
+ * can also be found from any position on, see {@link #resync(long)}. Settings that don't allow to find the ends of
+ * records without tokenizing (block comments, line continuations, combined delimiters, multi-character quotes, non
+ * ASCII compatible charsets) are not supported.
+ * <p>
+ * Only {@link #read(long, long)} and {@link #decode(byte[])} may be called concurrently.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class FileChunkScanner {
+
+    /** The size of the blocks read to find the ends of the records. */
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private static final byte LF = '\n';
+
+    private static final byte CR = '\r';
+
+    /** The row delimiter that is required to split the file, the end pattern of single line comments. */
+    private static final String LF_STR = "\n";
+
+    private final FileChannel m_channel;
+
+    private final long m_fileSize;
+
+    private final Charset m_charset;
+
+    /** True if there are quotes or comments, they must be tracked from the beginning of the file. */
+    private final boolean m_trackState;
+
+    private final Quote[] m_quotes;
+
+    private final byte[][] m_commentBegins;
+
+    /** The escape characters of the quotes, a line feed behind one of them could be quoted. */
+    private final byte[] m_escapes;
+
+    /** The quote the scanned position is in, null if not quoted. */
+    private Quote m_openQuote;
+
+    /** True if the last byte scanned was an escape character in quotes. */
+    private boolean m_escaped;
+
+    /** True if the scanned position is in a (single line) comment. */
+    private boolean m_inComment;
+
+    /** True if only line feeds were scanned since the end of a comment. */
+    private boolean m_afterComment;
+
+    /** The position up to which the file was scanned for quotes and comments. */
+    private long m_scanned;
+
+    private final byte[] m_block = new byte[BLOCK_SIZE];
+
+    private long m_blockStart;
+
+    private int m_blockLength;
+
+    /**
+     * Opens the file.
+     *
+     * @param frSettings the settings the file is read with, must be {@link #getFileIfApplicable(FileReaderSettings,
+     *            long) applicable}
+     * @param file the file
+     * @throws IOException if the file can't be opened
+     */
+    FileChunkScanner(final FileReaderSettings frSettings, final File file) throws IOException {
+        m_charset = getCharset(frSettings.getCharsetName());
+        m_quotes = frSettings.getAllQuotes().toArray(new Quote[0]);
+        final List<Comment> comments = frSettings.getAllComments();
+        m_commentBegins = new byte[comments.size()][];
+        for (int i = 0; i < m_commentBegins.length; i++) {
+            m_commentBegins[i] = comments.get(i).getBegin().getBytes(m_charset);
+        }
+        final byte[] escapes = new byte[m_quotes.length];
+        int escapeCount = 0;
+        for (Quote quote : m_quotes) {
+            if (quote.hasEscapeChar()) {
+                escapes[escapeCount++] = (byte)quote.getEscape();
+            }
+        }
+        m_escapes = Arrays.copyOf(escapes, escapeCount);
+        m_trackState = m_quotes.length > 0 || m_commentBegins.length > 0;
+        m_channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            m_fileSize = m_channel.size();
+        } catch (IOException e) {
+            m_channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the local file to read if it is at least of the given size and the settings allow to find the ends of
+     * the records without tokenizing it.
+     *
+     * @param frSettings the settings to read the file with
+     * @param minFileSize the minimum size of the file
+     * @return the file, or null if it should be read sequentially
+     * @throws IOException if the file can't be opened
+     */
+    static File getFileIfApplicable(final FileReaderSettings frSettings, final long minFileSize)
+        throws IOException {
+        if (getCharset(frSettings.getCharsetName()) == null || !canFindRecordEnds(frSettings)) {
+            return null;
+        }
+        final File file;
+        try {
+            file = FileUtil.getFileFromURL(frSettings.getDataFileLocation());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (file == null || !file.isFile() || file.length() < minFileSize || isCompressed(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    /** The charset if every byte below 0x80 in the encoded file is the ASCII character, otherwise null. */
+    private static Charset getCharset(final String charsetName) {
+        final Charset charset = charsetName == null ? Charset.defaultCharset() : Charset.forName(charsetName);
+        final String name = charset.name();
+        if (name.equals("UTF-8") || name.equals("US-ASCII") || name.startsWith("ISO-8859-")
+            || name.startsWith("windows-125")) {
+            return charset;
+        }
+        return null;
+    }
+
+    private static boolean canFindRecordEnds(final FileReaderSettings frSettings) {
+        if (!frSettings.isRowDelimiter(LF_STR, false) || frSettings.getCombineMultipleDelimiters()
+            || frSettings.getLineContinuationCharacter() != null) {
+            return false;
+        }
+        for (Delimiter delim : frSettings.getAllDelimiters()) {
+            if (!delim.getDelimiter().equals(LF_STR) && delim.getDelimiter().indexOf('\n') >= 0) {
+                return false;
+            }
+        }
+        for (Comment comment : frSettings.getAllComments()) {
+            // block comments could contain line feeds
+            if (!comment.getEnd().equals(LF_STR) || !isAscii(comment.getBegin())) {
+                return false;
+            }
+        }
+        // even if line feeds are not allowed in quotes, escaped line feeds are
+        for (Quote quote : frSettings.getAllQuotes()) {
+            if (quote.getLeft().length() != 1 || quote.getRight().length() != 1 || !isAscii(quote.getLeft())
+                || !isAscii(quote.getRight()) || (quote.hasEscapeChar() && quote.getEscape() >= 0x80)) {
+                return false;
+            }
+            // delimiters are recognized before quotes
+            for (Delimiter delim : frSettings.getAllDelimiters()) {
+                if (delim.getFirstChar() == quote.getFirstCharOfLeft()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if {@link #resync(long)} can be used with the settings, i.e. if line feeds in quotes are not
+     * allowed (then every line feed that is not escaped is outside of quotes), or if there are no quotes.
+     *
+     * @param frSettings the settings to read the file with
+     * @return whether the ends of records can be found without scanning the file from the beginning
+     */
+    static boolean canResync(final FileReaderSettings frSettings) {
+        return frSettings.getAllQuotes().isEmpty() || !frSettings.allowLFinQuotes();
+    }
+
+    private static boolean isAscii(final String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (str.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** True if the file starts like a GZIP or ZIP file, these are decompressed by the sequential reader. */
+    private static boolean isCompressed(final File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer magic = ByteBuffer.allocate(2);
+            channel.read(magic, 0);
+            return magic.position() == 2 && ((magic.get(0) == 0x1f && magic.get(1) == (byte)0x8b)
+                || (magic.get(0) == 'P' && magic.get(1) == 'K'));
+        }
+    }
+
+    /**
+     * @return the size of the file
+     */
+    long getFileSize() {
+        return m_fileSize;
+    }
+
+    /**
+     * Returns the position after the skipped lines and the column headers. The first chunk must not end before this
+     * position. Must be called before the record ends are searched.
+     *
+     * @param skipFirstLines the number of lines skipped by the settings
+     * @param hasColumnHeaders whether the first record after the skipped lines holds the column headers
+     * @return the position after the lines that are not data
+     * @throws IOException if the file can't be read
+     */
+    long skipHeader(final long skipFirstLines, final boolean hasColumnHeaders) throws IOException {
+        // the skipped lines ignore quotes and comments
+        long pos = 0;
+        for (long l = skipFirstLines; l > 0 && pos < m_fileSize; l--) {
+            pos = skipLine(pos);
+        }
+        m_scanned = pos;
+        if (hasColumnHeaders) {
+            // the header is the first record after empty lines
+            pos = findRecordEnd(skipLineBreaks(pos));
+        }
+        return pos;
+    }
+
+    /**
+     * Reads a part of the file, can be called concurrently.
+     *
+     * @param start the position of the first byte
+     * @param end the position after the last byte
+     * @return the bytes
+     * @throws IOException if the file can't be read
+     */
+    byte[] read(final long start, final long end) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int)(end - start));
+        while (buffer.hasRemaining()) {
+            // positional reads can be done concurrently
+            if (m_channel.read(buffer, start + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of file");
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a part of the file like the {@link java.io.InputStreamReader} of the sequential reader, can be called
+     * concurrently.
+     *
+     * @param bytes the bytes to decode
+     * @return a reader on the characters
+     * @throws IOException if the bytes can't be decoded
+     */
+    Reader decode(final byte[] bytes) throws IOException {
+        final CharBuffer chars = m_charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE).decode(ByteBuffer.wrap(bytes));
+        return new CharBufferReader(chars);
+    }
+
+    /** Closes the file, interrupting a thread that reads from it does so as well. */
+    void close() {
+        try {
+            m_channel.close();
+        } catch (IOException ioe) {
+            // then don't close it
+        }
+    }
+
+    private int byteAt(final long pos) throws IOException {
+        if (pos < m_blockStart || pos >= m_blockStart + m_blockLength) {
+            if (pos >= m_fileSize) {
+                return -1;
+            }
+            final ByteBuffer buffer = ByteBuffer.wrap(m_block);
+            m_blockStart = pos;
+            while (buffer.hasRemaining() && m_blockStart + buffer.position() < m_fileSize) {
+                if (m_channel.read(buffer, m_blockStart + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            m_blockLength = buffer.position();
+        }
+        return m_block[(int)(pos - m_blockStart)] & 0xFF;
+    }
+
+    /**
+     * Returns the position after the next line feed, ignoring quotes and comments.
+     *
+     * @param from the position to start at
+     * @return the position after the line feed, or the size of the file
+     * @throws IOException if the file can't be read
+     */
+    long skipLine(final long from) throws IOException {
+        long pos = from;
+        int b;
+        while ((b = byteAt(pos)) >= 0) {
+            pos++;
+            if (b == LF) {
+                break;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the position after line feeds (and carriage returns in front of them) at the given position.
+     *
+     * @param from the position to start at
+     * @return the position after the line breaks
+     * @throws IOException if the file can't be read
+     */
+    long skipLineBreaks(final long from) throws IOException {
+        long pos = from;
+        int b;
+        while ((b = byteAt(pos)) >= 0) {
+            if (b == LF) {
+                pos++;
+            } else if (b == CR && byteAt(pos + 1) == LF) {
+                pos += 2;
+            } else {
+                break;
+            }
+        }
+        if (m_trackState && pos > m_scanned) {
+            // line feeds at the end of a record don't change the state
+            m_scanned = pos;
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the position after the first line feed at or after the given position that ends a record. The
+     * positions must not decrease between calls, the quotes and comments are tracked from the last call (of this
+     * method or {@link #resync(long)}) on.
+     *
+     * @param from the position to start at
+     * @return the position after the line feed, or the size of the file
+     * @throws IOException if the file can't be read
+     */
+    long findRecordEnd(final long from) throws IOException {
+        if (!m_trackState) {
+            return skipLine(from);
+        }
+        // the quotes and comments must be tracked from the beginning
+        long pos = m_scanned;
+        int b;
+        while ((b = byteAt(pos)) >= 0) {
+            if (m_openQuote != null) {
+                if (m_escaped) {
+                    m_escaped = false;
+                } else if (m_openQuote.hasEscapeChar() && b == m_openQuote.getEscape()) {
+                    m_escaped = true;
+                } else if (b == m_openQuote.getRight().charAt(0)) {
+                    m_openQuote = null;
+                }
+            } else if (b == LF) {
+                if (m_inComment) {
+                    // the tokenizer swallows the line feeds after a comment at the beginning of a token, the
+                    // record might go on in the next line
+                    m_inComment = false;
+                    m_afterComment = true;
+                } else if (!m_afterComment && pos >= from) {
+                    m_scanned = pos + 1;
+                    return pos + 1;
+                }
+            } else if (m_inComment || (b == CR && byteAt(pos + 1) == LF)) {
+                // the rest of the line is ignored, a CR in front of a LF is swallowed
+            } else if (isCommentBegin(pos)) {
+                // same order as the tokenizer: comments before quotes
+                m_inComment = true;
+                m_afterComment = false;
+            } else {
+                m_afterComment = false;
+                for (Quote quote : m_quotes) {
+                    if (b == quote.getLeft().charAt(0)) {
+                        m_openQuote = quote;
+                        break;
+                    }
+                }
+            }
+            pos++;
+        }
+        m_scanned = pos;
+        return pos;
+    }
+
+    /**
+     * Returns the position after the first line feed after the given position that ends a record, without tracking the
+     * quotes and comments from the last call on, which is what makes sampling a file cheap. Line feeds are skipped
+     * until one that is not escaped, it can't be quoted and ends any comment. From there on the quotes and comments
+     * are tracked as by {@link #findRecordEnd(long)}, but the line feed is not taken as end of a record itself since it
+     * could follow a comment the tokenizer continues the record after. Must only be called if the settings
+     * {@link #canResync(FileReaderSettings) allow it}. The positions must not decrease between calls.
+     *
+     * @param from the position to start at
+     * @return the position after the line feed, or the size of the file
+     * @throws IOException if the file can't be read
+     */
+    long resync(final long from) throws IOException {
+        if (!m_trackState) {
+            return skipLine(from);
+        }
+        assert from >= m_scanned : "Position " + from + " is before the scanned position " + m_scanned;
+        long pos = from;
+        int b;
+        while ((b = byteAt(pos)) >= 0) {
+            pos++;
+            if (b == LF && !isEscaped(pos - 1)) {
+                m_openQuote = null;
+                m_escaped = false;
+                m_inComment = false;
+                m_afterComment = true;
+                m_scanned = pos;
+                return findRecordEnd(pos);
+            }
+        }
+        m_scanned = pos;
+        return pos;
+    }
+
+    /** True if the line feed at the position (or the carriage return in front of it) follows an escape character. */
+    private boolean isEscaped(final long lfPos) throws IOException {
+        long pos = lfPos - 1;
+        if (pos >= 0 && byteAt(pos) == CR) {
+            pos--;
+        }
+        if (pos < 0) {
+            return false;
+        }
+        final int b = byteAt(pos);
+        for (byte escape : m_escapes) {
+            if (b == (escape & 0xFF)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isCommentBegin(final long pos) throws IOException {
+        for (byte[] begin : m_commentBegins) {
+            int i = 0;
+            while (i < begin.length && byteAt(pos + i) == begin[i]) {
+                i++;
+            }
+            if (i == begin.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the line feeds in a part of the file.
+     *
+     * @param bytes the bytes of the part
+     * @return the number of line feeds
+     */
+    static int countLines(final byte[] bytes) {
+        int count = 0;
+        for (byte b : bytes) {
+            if (b == LF) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Reader on decoded characters, without the locking of the {@link java.io.CharArrayReader}. */
+    private static final class CharBufferReader extends Reader {
+
+        private final CharBuffer m_chars;
+
+        CharBufferReader(final CharBuffer chars) {
+            m_chars = chars;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int read() {
+            return m_chars.hasRemaining() ? m_chars.get() : -1;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!m_chars.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(len, m_chars.remaining());
+            m_chars.get(cbuf, off, n);
+            return n;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+}
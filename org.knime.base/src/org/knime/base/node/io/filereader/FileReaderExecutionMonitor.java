@@ -75,6 +75,10 @@ public class FileReaderExecutionMonitor extends ExecutionMonitor {
 
     private final AtomicInteger m_shortCutLines = new AtomicInteger(FileAnalyzer.NUMOFLINES);
 
+    private boolean m_sampleAnalysis = false;
+
+    private boolean m_sampleAnalysisImpossible = false;
+
     /**
      * Creates a new object with a default progress monitor.
      * @since 3.4
@@ -194,6 +198,57 @@ public void setShortCutLines(final int numOfLines) {
         m_shortCutLines.set(numOfLines);
     }
 
+    /**
+     * Returns true if the column types of large files should be guessed from samples of the file instead of the whole
+     * file. In sub execs the flag of the parent is returned.
+     *
+     * @return true if large files are sampled, false by default
+     * @since 3.8
+     */
+    public boolean isSampleAnalysis() {
+        if (m_parent != null) {
+            return m_parent.isSampleAnalysis();
+        }
+        return m_sampleAnalysis;
+    }
+
+    /**
+     * Sets whether the column types of large files should be guessed from evenly spaced blocks of the file. This is a
+     * lot faster, but the guessed types may not fit all rows of the file.
+     *
+     * @param sample true to sample large files, false to analyze the whole file
+     * @since 3.8
+     */
+    public void setSampleAnalysis(final boolean sample) {
+        assert m_parent == null;
+        m_sampleAnalysis = sample;
+    }
+
+    /**
+     * Returns true if a sample analysis was requested, but the whole file was analyzed because the records of a sample
+     * can't be found without reading the file up to it (if line feeds are allowed in quotes).
+     *
+     * @return true if the file couldn't be sampled
+     */
+    boolean wasSampleAnalysisImpossible() {
+        if (m_parent != null) {
+            return m_parent.wasSampleAnalysisImpossible();
+        }
+        return m_sampleAnalysisImpossible;
+    }
+
+    /**
+     * Called if the file is analyzed completely though a sample analysis was requested. In sub execs the flag of the
+     * parent is set.
+     */
+    void setSampleAnalysisImpossible() {
+        if (m_parent != null) {
+            m_parent.setSampleAnalysisImpossible();
+        } else {
+            m_sampleAnalysisImpossible = true;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -232,6 +232,9 @@ class FileReaderNodeDialog extends NodeDialogPane {
 
     private FileReaderExecutionMonitor m_analysisExecMonitor;
 
+    // the next analysis reads the whole file, otherwise large files are sampled
+    private boolean m_fullAnalysisRequested = false;
+
     private JProgressBar m_analyzeProgressBar;
 
     private JCheckBox m_preserveSettings;
@@ -328,6 +331,7 @@ public void actionPerformed(final ActionEvent e) {
                 if (!m_preserveSettings.isSelected()) {
                     resetSettings();
                 }
+                m_fullAnalysisRequested = true;
                 analyzeDataFileAndUpdatePreview(true);
             }
         });
@@ -1448,6 +1452,9 @@ protected void analyzeAction() {
             // We use our own progress monitor, we need to distinguish
             // between user cancel and code interrupts.
             m_analysisExecMonitor = new FileReaderExecutionMonitor();
+            // large files are sampled, unless the user asked for a rescan
+            m_analysisExecMonitor.setSampleAnalysis(!m_fullAnalysisRequested);
+            m_fullAnalysisRequested = false;
             m_analysisExecMonitor.getProgressMonitor().addProgressListener(
                     new NodeProgressListener() {
                         @Override
@@ -1546,6 +1553,16 @@ public void run() {
                                     + "are based on a partial file analysis "
                                     + "only! Please verify.");
                         }
+                    } else if ((newSettings != null)
+                            && !newSettings.analyzeUsedAllRows()) {
+                        setAnalWarningText("WARNING: suggested column types "
+                                + "are based on samples of the file only! "
+                                + "Press 'Rescan' to analyze the whole file.");
+                    } else if ((newSettings != null)
+                            && m_analysisExecMonitor.wasSampleAnalysisImpossible()) {
+                        setAnalWarningText("Note: the whole file was analyzed, "
+                                + "it can't be sampled if quoted values may "
+                                + "contain line feeds.");
                     } else {
                         setAnalWarningText("");
                     }
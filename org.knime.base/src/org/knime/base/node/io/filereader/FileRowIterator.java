@@ -45,6 +45,7 @@
 package org.knime.base.node.io.filereader;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.util.HashMap;
 import java.util.NoSuchElementException;
 
@@ -75,8 +76,12 @@ class FileRowIterator extends CloseableRowIterator {
     /* The tokenizer reads the next token from the input stream. */
     private final Tokenizer m_tokenizer;
 
+    // null if the iterator reads a chunk of the file or the file in parallel
     private final BufferedFileReader m_source;
 
+    // reads large files in parallel, null if the rows are read by this iterator
+    private final FileChunkReader m_chunkReader;
+
     // keep a reference for the filereader settings.
     private final FileReaderSettings m_frSettings;
 
@@ -86,12 +91,19 @@ class FileRowIterator extends CloseableRowIterator {
     /* Counts the number of rows read. */
     private int m_rowNumber;
 
+    /* The number of lines in the file before the source of the tokenizer. */
+    private final int m_lineOffset;
+
+    /* true if the last row header was created for a missing header in the file */
+    private boolean m_rowHeaderMissing;
+
     // the resolved row header prefix used for each row, if set. The constructor
     // resolves all possible user settings and default values and sets this.
     private final String m_rowHeaderPrefix;
 
     // a hash set where we store row header read in - to ensure ID uniquity, and
-    // we associate with it the last used suffix, to make it unique
+    // we associate with it the last used suffix, to make it unique. Null if
+    // the row IDs are made unique by the reader of the chunks.
     private final HashMap<String, Number> m_rowIDhash;
 
     // Used in the above hash to indicate that duplicate of that row was found.
@@ -137,6 +149,43 @@ class FileRowIterator extends CloseableRowIterator {
     FileRowIterator(final FileReaderSettings frSettings,
             final DataTableSpec tableSpec, final boolean[] skipColumns,
             final ExecutionContext exec) throws IOException {
+        this(frSettings, tableSpec, skipColumns, exec, null, 1, 0,
+                new HashMap<String, Number>());
+    }
+
+    /**
+     * Creates an iterator reading the rows of a chunk of the data file, used
+     * by the {@link FileChunkReader}. The settings must only skip lines and
+     * column headers if the chunk is at the beginning of the file.
+     *
+     * @param frSettings object containing the hows to read the data
+     * @param tableSpec the spec defining the structure of the rows to create
+     * @param skipColumns array with the element set to true if the
+     *            corresponding column should be skipped
+     * @param chunkSource the characters of the chunk, must end with a complete
+     *            row
+     * @param firstRowNumber the number of the first row of the chunk in the
+     *            file (starting with 1)
+     * @param lineOffset the number of lines in the file before the chunk
+     * @param rowIDhash the row headers of the previous chunks to make the
+     *            row IDs unique, or null if the row IDs are made unique by the
+     *            caller
+     * @throws IOException not thrown for chunks, they are already opened
+     */
+    FileRowIterator(final FileReaderSettings frSettings,
+            final DataTableSpec tableSpec, final boolean[] skipColumns,
+            final Reader chunkSource, final int firstRowNumber,
+            final int lineOffset, final HashMap<String, Number> rowIDhash)
+            throws IOException {
+        this(frSettings, tableSpec, skipColumns, null, chunkSource,
+                firstRowNumber, lineOffset, rowIDhash);
+    }
+
+    private FileRowIterator(final FileReaderSettings frSettings,
+            final DataTableSpec tableSpec, final boolean[] skipColumns,
+            final ExecutionContext exec, final Reader chunkSource,
+            final int firstRowNumber, final int lineOffset,
+            final HashMap<String, Number> rowIDhash) throws IOException {
 
         if (skipColumns.length < tableSpec.getNumColumns()) {
             throw new IllegalArgumentException("The number of columns can't"
@@ -160,18 +209,35 @@ class FileRowIterator extends CloseableRowIterator {
         m_exec = exec;
         m_lastReport = 0;
 
-        m_source = m_frSettings.createNewInputReader();
-        m_tokenizer = new Tokenizer(m_source);
+        if (chunkSource != null) {
+            m_chunkReader = null;
+            m_source = null;
+            m_tokenizer = new Tokenizer(chunkSource);
+        } else {
+            // large local files are read in parallel
+            m_chunkReader = FileChunkReader.createIfApplicable(frSettings,
+                    tableSpec, skipColumns, exec);
+            if (m_chunkReader != null) {
+                m_source = null;
+                m_tokenizer = null;
+            } else {
+                m_source = m_frSettings.createNewInputReader();
+                m_tokenizer = new Tokenizer(m_source);
+            }
+        }
 
         // set the tokenizer related settings in the tokenizer
-        m_tokenizer.setSettings(frSettings);
+        if (m_tokenizer != null) {
+            m_tokenizer.setSettings(frSettings);
+        }
 
         // cell factory used to create the cells of each row
         m_cellFactory = new DataCellFactory();
         m_cellFactory.setDecimalSeparator(frSettings.getDecimalSeparator());
         m_cellFactory.setThousandsSeparator(frSettings.getThousandsSeparator());
 
-        m_rowNumber = 1;
+        m_rowNumber = firstRowNumber;
+        m_lineOffset = lineOffset;
         if (m_frSettings.getMaximumNumberOfRowsToRead() < 0) {
             m_maxNumOfRows = Long.MAX_VALUE;
         } else {
@@ -199,12 +265,12 @@ class FileRowIterator extends CloseableRowIterator {
             }
         }
 
-        m_rowIDhash = new HashMap<String, Number>();
+        m_rowIDhash = rowIDhash;
 
         // if the column headers are stored in the data file, we must read
         // them (the first line) and discard them (if they are actually used
         // from the file they should have been stored in the table spec).
-        if (frSettings.getFileHasColumnHeaders()) {
+        if (m_tokenizer != null && frSettings.getFileHasColumnHeaders()) {
             if (hasNext()) { // call this first to eat up empty lines
                 String token = m_tokenizer.nextToken();
                 while (!frSettings.isRowDelimiter(token, m_tokenizer.lastTokenWasQuoted())) {
@@ -220,7 +286,7 @@ class FileRowIterator extends CloseableRowIterator {
      */
     @Override
     protected void finalize() throws Throwable {
-        m_source.close();
+        dispose();
         super.finalize();
     }
 
@@ -232,10 +298,14 @@ protected void finalize() throws Throwable {
      * {@link #next()} after disposing of the iterator has undefined behavior.
      */
     public void dispose() {
-        try {
-            m_source.close();
-        } catch (IOException ioe) {
-            // then don't close it
+        if (m_chunkReader != null) {
+            m_chunkReader.close();
+        } else if (m_source != null) {
+            try {
+                m_source.close();
+            } catch (IOException ioe) {
+                // then don't close it
+            }
         }
     }
 
@@ -251,6 +321,10 @@ public void close() {
     @Override
     public boolean hasNext() {
 
+        if (m_chunkReader != null) {
+            return m_chunkReader.hasNext();
+        }
+
         boolean result;
 
         if (m_exceptionThrown) {
@@ -302,6 +376,10 @@ public boolean hasNext() {
      */
     @Override
     public DataRow next() {
+        if (m_chunkReader != null) {
+            return m_chunkReader.next();
+        }
+
         int rowLength = m_tableSpec.getNumColumns();
         int colsToRead = m_skipColumns.length;
 
@@ -332,9 +410,9 @@ public DataRow next() {
             rowHeader = createRowHeader(m_rowNumber - 1);
         } catch (TokenizerException fte) {
             throw prepareForException(fte.getMessage() + " (line: "
-                    + m_tokenizer.getLineNumber() + " source: '"
-                    + m_frSettings.getDataFileLocation() + "')", m_tokenizer
-                    .getLineNumber(), "ERR", row);
+                    + getLineNumber() + " source: '"
+                    + m_frSettings.getDataFileLocation() + "')",
+                    getLineNumber(), "ERR", row);
         }
         // we made sure before that there is at least one token in the stream
         assert rowHeader != null;
@@ -347,9 +425,9 @@ public DataRow next() {
                 token = m_tokenizer.nextToken();
             } catch (TokenizerException fte) {
                 throw prepareForException(fte.getMessage() + " (line: "
-                        + m_tokenizer.getLineNumber() + " (" + rowHeader
+                        + getLineNumber() + " (" + rowHeader
                         + ") source: '" + m_frSettings.getDataFileLocation()
-                        + "')", m_tokenizer.getLineNumber(), rowHeader, row);
+                        + "')", getLineNumber(), rowHeader, row);
             }
             if (token != null) {
                 // remember the delimiter of the last token before the EOF
@@ -395,7 +473,7 @@ public DataRow next() {
             lastTokenWasDelimited = false;
         }
 
-        int lineNr = m_tokenizer.getLineNumber();
+        int lineNr = getLineNumber();
         if ((lineNr > 0) && (token != null) && (token.equals("\n"))) {
             lineNr--;
         }
@@ -462,8 +540,8 @@ public DataRow next() {
 
         // report progress
         // only if an execution context exists an if the underlying
-        // URL is a file whose size can be determined
-        double readBytes = m_source.getNumberOfBytesRead();
+        // URL is a file whose size can be determined (chunks have no source)
+        double readBytes = m_source == null ? 0 : m_source.getNumberOfBytesRead();
         if (m_exec != null && m_source.getFileSize() > 0
                 && readBytes / PROGRESS_JUNK_SIZE > m_lastReport) {
             // assert readBytes <= m_frSettings.getDataFileSize();
@@ -522,13 +600,13 @@ private DataCell createNewDataCellOfType(final DataType type,
         // create an error message
         String errorMsg = m_cellFactory.getErrorMessage();
         errorMsg +=
-                " In line " + m_tokenizer.getLineNumber() + " (" + rowHeader
+                " In line " + getLineNumber() + " (" + rowHeader
                         + ") at column #" + errCol + " ('"
                         + m_tableSpec.getColumnSpec(errCol).getName() + "').";
 
         // create a data row showing where things went
         // wrong, and close the stream
-        throw prepareForException(errorMsg, m_tokenizer.getLineNumber(),
+        throw prepareForException(errorMsg, getLineNumber(),
                 rowHeader, row);
 
     } // createNewDataCellOfType(Class,String,boolean)
@@ -571,16 +649,18 @@ private String createRowHeader(final int rowNumber) {
         if (m_rowHeaderPrefix == null) {
             assert fileHeader != null;
             String newRowHeader;
-            if (fileHeader.equals("") && !m_tokenizer.lastTokenWasQuoted()) {
+            m_rowHeaderMissing =
+                    fileHeader.equals("") && !m_tokenizer.lastTokenWasQuoted();
+            if (m_rowHeaderMissing) {
                 // seems we got a missing row delimiter. Let's build one.
                 newRowHeader = DataType.getMissingCell().toString() + rowNumber;
             } else {
                 newRowHeader = fileHeader;
             }
 
-            if (m_frSettings.uniquifyRowIDs()) {
+            if (m_frSettings.uniquifyRowIDs() && m_rowIDhash != null) {
                 // see if it's unique - and if not make it unique.
-                newRowHeader = uniquifyRowHeader(newRowHeader);
+                newRowHeader = uniquifyRowHeader(newRowHeader, m_rowIDhash);
             }
 
             return newRowHeader;
@@ -598,9 +678,10 @@ private String createRowHeader(final int rowNumber) {
      * unique row header, which could be the same than the one passed in (and
      * adds any rowheader returned to the hash set).
      */
-    private String uniquifyRowHeader(final String newRowHeader) {
+    static String uniquifyRowHeader(final String newRowHeader,
+            final HashMap<String, Number> rowIDhash) {
 
-        Number oldSuffix = m_rowIDhash.put(newRowHeader, NOSUFFIX);
+        Number oldSuffix = rowIDhash.put(newRowHeader, NOSUFFIX);
 
         if (oldSuffix == null) {
             // haven't seen the rowID so far.
@@ -620,23 +701,37 @@ private String uniquifyRowHeader(final String newRowHeader) {
             if (oldSuffix.equals(NOSUFFIX)) {
                 // until now the NOSUFFIX placeholder was in the hash
                 assert idx - 1 == NOSUFFIX.intValue();
-                m_rowIDhash.put(result, new MutableInteger(idx));
+                rowIDhash.put(result, new MutableInteger(idx));
             } else {
                 assert oldSuffix instanceof MutableInteger;
                 ((MutableInteger)oldSuffix).inc();
                 assert idx == oldSuffix.intValue();
                 // put back the old (incr.) suffix (overridden with NOSUFFIX).
-                m_rowIDhash.put(result, oldSuffix);
+                rowIDhash.put(result, oldSuffix);
             }
 
             result = result + "_" + idx;
-            oldSuffix = m_rowIDhash.put(result, NOSUFFIX);
+            oldSuffix = rowIDhash.put(result, NOSUFFIX);
 
         }
 
         return result;
     }
 
+    /* The current line number in the file. */
+    private int getLineNumber() {
+        return m_lineOffset + m_tokenizer.getLineNumber();
+    }
+
+    /**
+     * @return true if the header of the row returned last was missing in the
+     *         file and a header was created from its (chunk local) row number.
+     *         Only meaningful if the file contains row headers.
+     */
+    boolean lastRowHeaderWasMissing() {
+        return m_rowHeaderMissing;
+    }
+
     /*
      * !!!!!!!!!! Creates the exception object (storing the last read items in
      * the row of the exception), sets the global "exception thrown" flag, and
@@ -682,6 +777,9 @@ private FileReaderException prepareForException(final String msg,
      *         ({@link #hasNext()} returned false).
      */
     public boolean iteratorEndedEarly() {
+        if (m_chunkReader != null) {
+            return m_chunkReader.iteratorEndedEarly();
+        }
         return m_fileWasNotCompletelyRead;
     }
 
@@ -695,7 +793,8 @@ public boolean iteratorEndedEarly() {
      *         with more than one entry
      */
     public boolean zippedSourceHasMoreEntries() {
-        return m_source.hasMoreZipEntries();
+        // the chunk reader only reads uncompressed files
+        return m_source != null && m_source.hasMoreZipEntries();
     }
 
     /**
@@ -703,7 +802,7 @@ public boolean zippedSourceHasMoreEntries() {
      *         read. Null if not a ZIP source.
      */
     public String getZipEntryName() {
-        return m_source.getZipEntryName();
+        return m_source == null ? null : m_source.getZipEntryName();
     }
 
 
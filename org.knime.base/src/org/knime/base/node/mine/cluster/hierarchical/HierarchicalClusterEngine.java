@@ -0,0 +1,463 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.mine.cluster.hierarchical;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.base.node.mine.cluster.hierarchical.HierarchicalClusterNodeModel.Linkage;
+import org.knime.base.node.mine.cluster.hierarchical.distfunctions.MinkowskiDist;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Computes the merges of an agglomerative hierarchical clustering in O(n&sup2;) time, instead of searching the
+ * closest pair of clusters in each step.
+ * <ul>
+ * <li>Single linkage uses SLINK (Sibson 1973), which only needs O(n) memory.</li>
+ * <li>Average and complete linkage use the nearest-neighbor chain algorithm, either on the condensed matrix of all
+ * pairwise distances as floats, computed in parallel and updated with the Lance-Williams formula, or, if the
+ * distances are not cached, on cluster distances computed from the member rows (O(n) memory, but more distance
+ * computations).</li>
+ * </ul>
+ * Both produce the same hierarchy as the greedy algorithm (up to ties), the merges are reported in order of
+ * increasing distance. Clusters are identified by the index of any of their rows.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class HierarchicalClusterEngine {
+
+    /** Maximum number of rows for the distance matrix (its size must not exceed the maximum array size). */
+    static final int MAX_MATRIX_ROWS = 65500;
+
+    /** Minimum number of distances computed in a task. */
+    static final int MIN_TASK_SIZE = 1 << 14;
+
+    private final double[][] m_data;
+
+    /** Per row which values are missing, <code>null</code> for rows without missing values. */
+    private final boolean[][] m_missing;
+
+    private final MinkowskiDist m_distance;
+
+    private final Linkage m_linkage;
+
+    private final boolean m_useMatrix;
+
+    private int[] m_first;
+
+    private int[] m_second;
+
+    private float[] m_distances;
+
+    /**
+     * @param data the values of the rows
+     * @param missing per row which values are missing, the entry of a row without missing values can be
+     *            <code>null</code>
+     * @param distance the distance function
+     * @param linkage the linkage type
+     * @param useMatrix whether the distances are held in memory (not used for single linkage)
+     */
+    HierarchicalClusterEngine(final double[][] data, final boolean[][] missing, final MinkowskiDist distance,
+        final Linkage linkage, final boolean useMatrix) {
+        m_data = data;
+        m_missing = missing;
+        m_distance = distance;
+        m_linkage = linkage;
+        m_useMatrix = useMatrix && linkage != Linkage.SINGLE;
+        if (m_useMatrix && data.length > MAX_MATRIX_ROWS) {
+            throw new IllegalArgumentException("At most 65,500 patterns can be clustered with cached distances");
+        }
+    }
+
+    /**
+     * Computes the merges.
+     *
+     * @param exec for progress and cancelation
+     * @throws CanceledExecutionException if canceled
+     */
+    void run(final ExecutionMonitor exec) throws CanceledExecutionException {
+        final int n = m_data.length;
+        final int mergeCount = Math.max(0, n - 1);
+        final int[] first = new int[mergeCount];
+        final int[] second = new int[mergeCount];
+        final float[] distances = new float[mergeCount];
+        if (m_linkage == Linkage.SINGLE) {
+            slink(first, second, distances, exec);
+        } else if (m_useMatrix) {
+            exec.setMessage("Computing distances");
+            final float[] matrix = computeDistanceMatrix(MIN_TASK_SIZE, exec.createSubProgress(0.5));
+            exec.setMessage("Merging clusters");
+            nnChain(matrix, first, second, distances, exec.createSubProgress(0.5));
+        } else {
+            nnChain(null, first, second, distances, exec);
+        }
+
+        // sort by distance, stable (as a cluster is always created before it is merged again)
+        final Integer[] order = new Integer[mergeCount];
+        for (int m = 0; m < mergeCount; m++) {
+            order[m] = m;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(distances[a], distances[b]));
+        m_first = new int[mergeCount];
+        m_second = new int[mergeCount];
+        m_distances = new float[mergeCount];
+        for (int m = 0; m < mergeCount; m++) {
+            m_first[m] = first[order[m]];
+            m_second[m] = second[order[m]];
+            m_distances[m] = distances[order[m]];
+        }
+    }
+
+    /** @return the number of merges, one less than the number of rows */
+    int getMergeCount() {
+        return m_distances.length;
+    }
+
+    /**
+     * @param merge the index of the merge, merges are sorted by distance
+     * @return the index of a row in the first of the merged clusters
+     */
+    int getFirst(final int merge) {
+        return m_first[merge];
+    }
+
+    /**
+     * @param merge the index of the merge, merges are sorted by distance
+     * @return the index of a row in the second of the merged clusters
+     */
+    int getSecond(final int merge) {
+        return m_second[merge];
+    }
+
+    /**
+     * @param merge the index of the merge, merges are sorted by distance
+     * @return the distance of the merged clusters
+     */
+    float getDistance(final int merge) {
+        return m_distances[merge];
+    }
+
+    private float distance(final int i, final int j) {
+        return (float)m_distance.calcDistance(m_data[i], m_missing[i], m_data[j], m_missing[j]);
+    }
+
+    /** Index of the pair (i, j) in the condensed matrix, i != j. */
+    static int matrixIndex(final int i, final int j) {
+        return i > j ? (int)((long)i * (i - 1) / 2 + j) : (int)((long)j * (j - 1) / 2 + i);
+    }
+
+    /**
+     * Computes the condensed matrix, the rows are split into ranges of about the same number of distances.
+     *
+     * @param minTaskSize the minimum number of distances computed in a task, usually {@link #MIN_TASK_SIZE}
+     * @param exec for progress and cancelation
+     * @return the distances of all pairs (i, j), at {@link #matrixIndex(int, int)}
+     * @throws CanceledExecutionException if canceled
+     */
+    float[] computeDistanceMatrix(final int minTaskSize, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        final int n = m_data.length;
+        final long pairCount = (long)n * (n - 1) / 2;
+        final float[] matrix = new float[(int)pairCount];
+        final int taskCount =
+            (int)Math.max(1, Math.min(4L * KNIMEConstants.GLOBAL_THREAD_POOL.getMaxThreads(), pairCount / minTaskSize));
+        final int[] bounds = new int[taskCount + 1];
+        for (int t = 1; t < taskCount; t++) {
+            // row i starts at index i * (i - 1) / 2
+            bounds[t] = (int)Math.min(n, Math.round(Math.sqrt(2.0 * pairCount * t / taskCount)));
+        }
+        bounds[taskCount] = n;
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(taskCount);
+        for (int t = 0; t < taskCount; t++) {
+            final int from = bounds[t];
+            final int to = bounds[t + 1];
+            tasks.add(() -> {
+                for (int i = from; i < to; i++) {
+                    exec.checkCanceled();
+                    exec.setProgress(i / (double)n);
+                    final int offset = matrixIndex(i, 0);
+                    for (int j = 0; j < i; j++) {
+                        matrix[offset + j] = distance(i, j);
+                    }
+                }
+                return null;
+            });
+        }
+        runAll(tasks);
+        return matrix;
+    }
+
+    /** Computes the distances of row i to the rows 0..i-1, in parallel if there are enough. */
+    private void computeDistances(final int i, final float[] target) throws CanceledExecutionException {
+        final int taskCount =
+            Math.max(1, Math.min(KNIMEConstants.GLOBAL_THREAD_POOL.getMaxThreads(), i / MIN_TASK_SIZE));
+        if (taskCount == 1) {
+            for (int j = 0; j < i; j++) {
+                target[j] = distance(i, j);
+            }
+            return;
+        }
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(taskCount);
+        for (int t = 0; t < taskCount; t++) {
+            final int from = (int)((long)i * t / taskCount);
+            final int to = (int)((long)i * (t + 1) / taskCount);
+            tasks.add(() -> {
+                for (int j = from; j < to; j++) {
+                    target[j] = distance(i, j);
+                }
+                return null;
+            });
+        }
+        runAll(tasks);
+    }
+
+    /** Runs the tasks in the global thread pool and waits for all of them. */
+    private static void runAll(final List<Callable<Void>> tasks) throws CanceledExecutionException {
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL;
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>(tasks.size());
+        try {
+            for (Callable<Void> task : tasks) {
+                futures.add(pool.enqueue(task));
+            }
+            for (Future<Void> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            throw new CanceledExecutionException("Hierarchical clustering canceled");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CanceledExecutionException) {
+                throw (CanceledExecutionException)e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error)e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            for (Future<Void> f : futures) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * SLINK: computes the pointer representation of the single linkage hierarchy, row i is merged into the cluster
+     * of row <code>pointer[i]</code> at distance <code>lambda[i]</code>.
+     */
+    private void slink(final int[] first, final int[] second, final float[] distances, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        final int n = m_data.length;
+        final int[] pointer = new int[n];
+        final float[] lambda = new float[n];
+        final float[] m = new float[n];
+        for (int i = 0; i < n; i++) {
+            exec.checkCanceled();
+            exec.setProgress(i / (double)n, "Row " + i + " of " + n);
+            pointer[i] = i;
+            lambda[i] = Float.POSITIVE_INFINITY;
+            computeDistances(i, m);
+            for (int j = 0; j < i; j++) {
+                if (Float.isNaN(m[j])) {
+                    m[j] = Float.POSITIVE_INFINITY;
+                }
+            }
+            for (int j = 0; j < i; j++) {
+                final int p = pointer[j];
+                if (lambda[j] >= m[j]) {
+                    m[p] = Math.min(m[p], lambda[j]);
+                    lambda[j] = m[j];
+                    pointer[j] = i;
+                } else {
+                    m[p] = Math.min(m[p], m[j]);
+                }
+            }
+            for (int j = 0; j < i; j++) {
+                if (lambda[j] >= lambda[pointer[j]]) {
+                    pointer[j] = i;
+                }
+            }
+        }
+        for (int i = 0; i < n - 1; i++) {
+            first[i] = pointer[i];
+            second[i] = i;
+            distances[i] = lambda[i];
+        }
+    }
+
+    /**
+     * Nearest-neighbor chain: follows the chain of nearest neighbors until two clusters are mutual nearest
+     * neighbors, which are then merged. The merged cluster keeps the slot of the first cluster (a slot is the index
+     * of any member row).
+     *
+     * @param matrix the condensed distance matrix or <code>null</code> if the distances are computed from the
+     *            members
+     */
+    private void nnChain(final float[] matrix, final int[] first, final int[] second, final float[] distances,
+        final ExecutionMonitor exec) throws CanceledExecutionException {
+        final int n = m_data.length;
+        final boolean[] isActive = new boolean[n];
+        Arrays.fill(isActive, true);
+        final int[] sizes = new int[n];
+        Arrays.fill(sizes, 1);
+        // members of the clusters as linked lists (only used without matrix)
+        final int[] nextMember = new int[n];
+        final int[] lastMember = new int[n];
+        for (int i = 0; i < n; i++) {
+            nextMember[i] = -1;
+            lastMember[i] = i;
+        }
+        final int[] chain = new int[n];
+        int chainLength = 0;
+        int firstActive = 0;
+        for (int merge = 0; merge < n - 1; merge++) {
+            exec.checkCanceled();
+            exec.setProgress(merge / (double)n, (n - merge) + " clusters left to merge.");
+            if (chainLength == 0) {
+                while (!isActive[firstActive]) {
+                    firstActive++;
+                }
+                chain[chainLength++] = firstActive;
+            }
+            int a;
+            int b;
+            float dist;
+            while (true) {
+                a = chain[chainLength - 1];
+                // prefer the previous element of the chain in case of ties, otherwise the chain may cycle
+                b = chainLength > 1 ? chain[chainLength - 2] : -1;
+                dist = b >= 0 ? clusterDistance(matrix, a, b, sizes, nextMember) : Float.NaN;
+                final int previous = b;
+                for (int c = 0; c < n; c++) {
+                    if (c == a || c == previous || !isActive[c]) {
+                        continue;
+                    }
+                    final float d = clusterDistance(matrix, a, c, sizes, nextMember);
+                    if (b < 0 || d < dist || (Float.isNaN(dist) && !Float.isNaN(d))) {
+                        b = c;
+                        dist = d;
+                    }
+                }
+                if (b == previous) {
+                    break;
+                }
+                chain[chainLength++] = b;
+            }
+            chainLength -= 2;
+
+            first[merge] = Math.min(a, b);
+            second[merge] = Math.max(a, b);
+            distances[merge] = dist;
+            final int keep = Math.min(a, b);
+            final int drop = Math.max(a, b);
+            if (matrix != null) {
+                updateDistances(matrix, keep, drop, sizes, isActive);
+            } else {
+                nextMember[lastMember[keep]] = drop;
+                lastMember[keep] = lastMember[drop];
+            }
+            sizes[keep] += sizes[drop];
+            isActive[drop] = false;
+        }
+    }
+
+    /** Lance-Williams update of the distances of the merged cluster (stored in slot keep) to all other clusters. */
+    private void updateDistances(final float[] matrix, final int keep, final int drop, final int[] sizes,
+        final boolean[] isActive) {
+        final double keepSize = sizes[keep];
+        final double dropSize = sizes[drop];
+        for (int c = 0; c < isActive.length; c++) {
+            if (c == keep || c == drop || !isActive[c]) {
+                continue;
+            }
+            final float d1 = matrix[matrixIndex(keep, c)];
+            final float d2 = matrix[matrixIndex(drop, c)];
+            final float d;
+            if (m_linkage == Linkage.COMPLETE) {
+                d = Math.max(d1, d2);
+            } else {
+                // average linkage, the mean of both never drops below the smaller distance
+                d = Math.max(Math.min(d1, d2), (float)((keepSize * d1 + dropSize * d2) / (keepSize + dropSize)));
+            }
+            matrix[matrixIndex(keep, c)] = d;
+        }
+    }
+
+    /** Distance of the clusters in the slots a and b, from the matrix or computed from the members. */
+    private float clusterDistance(final float[] matrix, final int a, final int b, final int[] sizes,
+        final int[] nextMember) {
+        if (matrix != null) {
+            return matrix[matrixIndex(a, b)];
+        }
+        if (m_linkage == Linkage.COMPLETE) {
+            float maxDist = 0;
+            for (int i = a; i >= 0; i = nextMember[i]) {
+                for (int j = b; j >= 0; j = nextMember[j]) {
+                    maxDist = Math.max(maxDist, distance(i, j));
+                }
+            }
+            return maxDist;
+        } else {
+            double sumDist = 0;
+            for (int i = a; i >= 0; i = nextMember[i]) {
+                for (int j = b; j >= 0; j = nextMember[j]) {
+                    sumDist += distance(i, j);
+                }
+            }
+            // divide by the number pairwise distances
+            return (float)(sumDist / ((double)sizes[a] * sizes[b]));
+        }
+    }
+
+}
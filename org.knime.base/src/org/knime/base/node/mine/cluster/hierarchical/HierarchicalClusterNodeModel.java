@@ -55,10 +55,10 @@
 import org.knime.base.node.mine.cluster.hierarchical.distfunctions.DistanceFunction;
 import org.knime.base.node.mine.cluster.hierarchical.distfunctions.EuclideanDist;
 import org.knime.base.node.mine.cluster.hierarchical.distfunctions.ManhattanDist;
+import org.knime.base.node.mine.cluster.hierarchical.distfunctions.MinkowskiDist;
 import org.knime.base.node.util.DataArray;
 import org.knime.base.node.util.DefaultDataArray;
 import org.knime.base.node.viz.plotter.DataProvider;
-import org.knime.base.util.HalfFloatMatrix;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
@@ -164,7 +164,7 @@ public enum Linkage {
     private final SettingsModelString m_distFunctionName =
         HierarchicalClusterNodeDialog.createSettingsDistanceFunction();
 
-    private DistanceFunction m_distFunction;
+    private MinkowskiDist m_distFunction;
 
     private DataArray m_dataArray;
 
@@ -215,10 +215,22 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] data,
         }
 
         BufferedDataTable inputData = data[0];
-        if (inputData.size() > 65500) {
+        final Linkage linkage;
+        if (m_linkageType.getStringValue().equals(Linkage.SINGLE.name())) {
+            linkage = Linkage.SINGLE;
+        } else if (m_linkageType.getStringValue().equals(Linkage.AVERAGE.name())) {
+            linkage = Linkage.AVERAGE;
+        } else {
+            linkage = Linkage.COMPLETE;
+        }
+        // single linkage never needs the distance matrix
+        if (m_cacheDistances.getBooleanValue() && linkage != Linkage.SINGLE
+                && inputData.size() > HierarchicalClusterEngine.MAX_MATRIX_ROWS) {
             throw new RuntimeException("At most 65,500 patterns can be clustered");
         }
-
+        if (inputData.size() > Integer.MAX_VALUE) {
+            throw new RuntimeException("At most " + Integer.MAX_VALUE + " patterns can be clustered");
+        }
 
         DataTable outputData = null;
 
@@ -232,97 +244,69 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] data,
         // generate initial clustering
         // which means that every data point is one cluster
         List<ClusterNode> clusters = initClusters(inputData, exec);
+        final int numberDataRows = clusters.size();
+        final double[][] values = new double[numberDataRows][];
+        final boolean[][] missing = new boolean[numberDataRows][];
+        for (int i = 0; i < numberDataRows; i++) {
+            DataRow row = clusters.get(i).getLeafDataPoint();
+            values[i] = getValues(row, selectedColIndices);
+            missing[i] = getMissing(row, selectedColIndices);
+        }
+
+        // compute the merges, sorted by distance
+        HierarchicalClusterEngine engine = new HierarchicalClusterEngine(
+                values, missing, m_distFunction, linkage,
+                m_cacheDistances.getBooleanValue());
+        engine.run(exec.createSubProgress(0.9));
+
         // store the distance per each fusion step
         DataContainer fusionCont = exec.createDataContainer(createFusionSpec());
-        int iterationStep = 0;
 
-        final HalfFloatMatrix cache;
-        if (m_cacheDistances.getBooleanValue()) {
-            cache = new HalfFloatMatrix((int) inputData.size(), false);
-            cache.fill(Float.NaN);
-        } else {
-            cache = null;
+        // build the cluster nodes, a cluster is represented by the root of
+        // its rows in a union-find structure. The keys give the order of the
+        // clusters: initial clusters are ordered by their rows, new clusters
+        // are appended
+        final ClusterNode[] nodes =
+                clusters.toArray(new ClusterNode[numberDataRows]);
+        final int[] parents = new int[numberDataRows];
+        final int[] keys = new int[numberDataRows];
+        for (int i = 0; i < numberDataRows; i++) {
+            parents[i] = i;
+            keys[i] = i;
         }
-
-        double max = inputData.size();
-        // the number of clusters at the beginning is equal to the number
-        // of data rows (each row is a cluster)
-        int numberDataRows = clusters.size();
-
-        while (clusters.size() > 1) {
+        final int mergeCount = engine.getMergeCount();
+        for (int m = 0; m < mergeCount; m++) {
             // checks if number clusters to generate output table is reached
-            if (m_numClustersForOutput.getIntValue() == clusters.size()) {
-                outputData = createResultTable(inputData, clusters, exec);
+            if (m_numClustersForOutput.getIntValue() == numberDataRows - m) {
+                outputData = createResultTable(inputData,
+                        getClusters(nodes, parents, keys), exec);
             }
-            exec.setProgress((numberDataRows - clusters.size())
-                    / (double)numberDataRows, clusters.size()
-                    + " clusters left to merge.");
-            iterationStep++;
-            exec.setProgress(iterationStep / max, "Iteration " + iterationStep
-                    + ", " + clusters.size() + " clusters remaining");
-
-            // calculate distance between all clusters
-            float currentSmallestDist = Float.MAX_VALUE;
-            ClusterNode currentClosestCluster1 = null;
-            ClusterNode currentClosestCluster2 = null;
-
-            // subprogress for loop
-            double availableProgress = (1.0 / numberDataRows);
-            ExecutionContext subexec =
-                    exec.createSubExecutionContext(availableProgress);
-            for (int i = 0; i < clusters.size(); i++) {
-                exec.checkCanceled();
-                ClusterNode node1 = clusters.get(i);
-                for (int j = i + 1; j < clusters.size(); j++) {
-                    final float dist;
-                    ClusterNode node2 = clusters.get(j);
-
-                    // call the chosen function to calculate the distance
-                    // between two clusters. At the moment is single linkage
-                    // and average linkage supported.
-                    if (m_linkageType.getStringValue().equals(Linkage.SINGLE.name())) {
-                        dist = calculateSingleLinkageDist(node1, node2, cache,
-                                selectedColIndices);
-                    } else if (m_linkageType.getStringValue().equals(Linkage.AVERAGE.name())) {
-                        dist = calculateAverageLinkageDist(node1, node2, cache,
-                                selectedColIndices);
-                    } else {
-                        dist = calculateCompleteLinkageDist(node1, node2, cache,
-                                selectedColIndices);
-                    }
-
-                    if (dist < currentSmallestDist) {
-                        currentClosestCluster1 = node1;
-                        currentClosestCluster2 = node2;
-                        currentSmallestDist = dist;
-                    }
-                }
+            exec.checkCanceled();
+            int root1 = find(parents, engine.getFirst(m));
+            int root2 = find(parents, engine.getSecond(m));
+            if (keys[root1] > keys[root2]) {
+                int tmp = root1;
+                root1 = root2;
+                root2 = tmp;
             }
-            subexec.setProgress(1.0);
             // make one cluster of the two closest
-            ClusterNode newNode =
-                    new ClusterNode(currentClosestCluster1,
-                            currentClosestCluster2, currentSmallestDist);
-            clusters.remove(currentClosestCluster1);
-            clusters.remove(currentClosestCluster2);
-
-            clusters.add(newNode);
+            ClusterNode newNode = new ClusterNode(nodes[root1], nodes[root2],
+                    engine.getDistance(m));
+            parents[root2] = root1;
+            nodes[root1] = newNode;
+            nodes[root2] = null;
+            keys[root1] = numberDataRows + m;
 
             // store the distance per each fusion step
             fusionCont.addRowToTable(new DefaultRow(
             // row key
-                    Integer.toString(clusters.size()),
+                    Integer.toString(numberDataRows - m - 1),
                     // x-axis scatter plotter
-                    new IntCell(clusters.size()),
+                    new IntCell(numberDataRows - m - 1),
                     // y-axis scatter plotter
                     new DoubleCell(newNode.getDist())));
-
-            // // print number clusters and their data points
-            // LOGGER.debug("Iteration " + iterationStep + ":");
-            // LOGGER.debug(" Number Clusters: " + clusters.size());
-            // printClustersDataRows(clusters);
-
         }
+        clusters = getClusters(nodes, parents, keys);
         if (clusters.size() > 0) {
             m_rootNode = clusters.get(0);
 
@@ -336,143 +320,102 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] data,
         }
         m_dataArray = new DefaultDataArray(inputData, 1, (int)inputData.size());
         m_fusionTable = new DefaultDataArray(
-                fusionCont.getTable(), 1, iterationStep);
+                fusionCont.getTable(), 1, mergeCount);
 
         return new BufferedDataTable[]{exec.createBufferedDataTable(outputData,
                 exec)};
     }
 
-    private DataTableSpec createFusionSpec() {
-        DataColumnSpecCreator creatorX =
-                new DataColumnSpecCreator("Nr. of Clusters", IntCell.TYPE);
-        DataColumnSpecCreator creatorY =
-                new DataColumnSpecCreator("Distance", DoubleCell.TYPE);
-        DataTableSpec spec =
-                new DataTableSpec(creatorX.createSpec(), creatorY.createSpec());
-        return spec;
-    }
-
-    /**
-     * Resets all internal data.
-     */
-    @Override
-    public final void reset() {
-        m_dataArray = null;
-        m_rootNode = null;
-        m_fusionTable = null;
-    }
-
     /*
-     * Calculates the distance via the single linkage paradigm. That means two
-     * clusters have the distance of its closest data rows
-     *
+     * Returns the values of the selected columns, missing values and
+     * non-numeric cells as 0 (they are skipped in the distance).
      */
-    private float calculateSingleLinkageDist(final ClusterNode node1,
-            final ClusterNode node2, final HalfFloatMatrix cache,
+    private static double[] getValues(final DataRow row,
             final int[] selectedColIndices) {
-        float minDist = Float.MAX_VALUE;
-
-        for (ClusterNode node1Leaf : node1.leafs()) {
-            final DataRow row1 = node1Leaf.getLeafDataPoint();
-            final int row1Index = node1Leaf.getRowIndex();
-            for (ClusterNode node2Leaf : node2.leafs()) {
-                final DataRow row2 = node2Leaf.getLeafDataPoint();
-                final int row2Index = node2Leaf.getRowIndex();
-
-                float f = Float.NaN;
-                if (cache != null) {
-                    f = cache.get(row1Index, row2Index);
-                    if (Float.isNaN(f)) {
-                        f =
-                                (float)m_distFunction.calcDistance(row1, row2,
-                                        selectedColIndices);
-                        cache.set(row1Index, row2Index, f);
-                    }
-                } else {
-                    f =
-                            (float)m_distFunction.calcDistance(row1, row2,
-                                    selectedColIndices);
-                }
-                minDist = Math.min(minDist, f);
+        double[] values = new double[selectedColIndices.length];
+        for (int i = 0; i < values.length; i++) {
+            DataCell cell = row.getCell(selectedColIndices[i]);
+            if (!cell.isMissing() && cell instanceof DoubleValue) {
+                values[i] = ((DoubleValue)cell).getDoubleValue();
             }
         }
-
-        return minDist;
+        return values;
     }
 
     /*
-     * Calculates the distance via the complete linkage paradigm. That means two
-     * clusters have the distance of its farest data rows
-     *
+     * Returns which of the selected cells are missing or non-numeric,
+     * null if none is.
      */
-    private float calculateCompleteLinkageDist(final ClusterNode node1,
-            final ClusterNode node2, final HalfFloatMatrix cache,
+    private static boolean[] getMissing(final DataRow row,
             final int[] selectedColIndices) {
-        float maxDist = 0;
-
-        for (ClusterNode node1Leaf : node1.leafs()) {
-            final DataRow row1 = node1Leaf.getLeafDataPoint();
-            final int row1Index = node1Leaf.getRowIndex();
-            for (ClusterNode node2Leaf : node2.leafs()) {
-                final DataRow row2 = node2Leaf.getLeafDataPoint();
-                final int row2Index = node2Leaf.getRowIndex();
-
-                float f = Float.NaN;
-                if (cache != null) {
-                    f = cache.get(row1Index, row2Index);
-                    if (Float.isNaN(f)) {
-                        f =
-                                (float)m_distFunction.calcDistance(row1, row2,
-                                        selectedColIndices);
-                        cache.set(row1Index, row2Index, f);
-                    }
-                } else {
-                    f =
-                            (float)m_distFunction.calcDistance(row1, row2,
-                                    selectedColIndices);
+        boolean[] missing = null;
+        for (int i = 0; i < selectedColIndices.length; i++) {
+            DataCell cell = row.getCell(selectedColIndices[i]);
+            if (cell.isMissing() || !(cell instanceof DoubleValue)) {
+                if (missing == null) {
+                    missing = new boolean[selectedColIndices.length];
                 }
-                maxDist = Math.max(maxDist, f);
+                missing[i] = true;
             }
         }
+        return missing;
+    }
 
-        return maxDist;
+    /*
+     * Returns the root of the cluster the row belongs to.
+     */
+    private static int find(final int[] parents, final int row) {
+        int root = row;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        // path compression
+        int i = row;
+        while (parents[i] != root) {
+            int next = parents[i];
+            parents[i] = root;
+            i = next;
+        }
+        return root;
     }
 
     /*
-     * Calculates the distance via the average linkage paradigm. That means two
-     * clusters have the distance of the average distance of all their member
-     * data rows.
+     * Returns the current clusters in the order of their keys.
      */
-    private float calculateAverageLinkageDist(final ClusterNode node1,
-            final ClusterNode node2, final HalfFloatMatrix cache,
-            final int[] selectedColIndices) {
-        float sumDist = 0;
-
-        for (ClusterNode node1Leaf : node1.leafs()) {
-            final DataRow row1 = node1Leaf.getLeafDataPoint();
-            final int row1Index = node1Leaf.getRowIndex();
-            for (ClusterNode node2Leaf : node2.leafs()) {
-                final DataRow row2 = node2Leaf.getLeafDataPoint();
-                final int row2Index = node2Leaf.getRowIndex();
-
-                float f = Float.NaN;
-                if (cache != null) {
-                    f = cache.get(row1Index, row2Index);
-                    if (Float.isNaN(f)) {
-                        f = (float)m_distFunction.calcDistance(row1, row2,
-                                        selectedColIndices);
-                        cache.set(row1Index, row2Index, f);
-                    }
-                } else {
-                    f = (float)m_distFunction.calcDistance(row1, row2,
-                                    selectedColIndices);
-                }
-                sumDist += f;
+    private static List<ClusterNode> getClusters(final ClusterNode[] nodes,
+            final int[] parents, final int[] keys) {
+        List<Integer> roots = new ArrayList<Integer>();
+        for (int i = 0; i < parents.length; i++) {
+            if (parents[i] == i) {
+                roots.add(i);
             }
         }
+        roots.sort((a, b) -> Integer.compare(keys[a], keys[b]));
+        List<ClusterNode> clusters = new ArrayList<ClusterNode>(roots.size());
+        for (int root : roots) {
+            clusters.add(nodes[root]);
+        }
+        return clusters;
+    }
 
-        // divide by the number pairewise distances
-        return sumDist / (node1.getLeafCount() * node2.getLeafCount());
+    private DataTableSpec createFusionSpec() {
+        DataColumnSpecCreator creatorX =
+                new DataColumnSpecCreator("Nr. of Clusters", IntCell.TYPE);
+        DataColumnSpecCreator creatorY =
+                new DataColumnSpecCreator("Distance", DoubleCell.TYPE);
+        DataTableSpec spec =
+                new DataTableSpec(creatorX.createSpec(), creatorY.createSpec());
+        return spec;
+    }
+
+    /**
+     * Resets all internal data.
+     */
+    @Override
+    public final void reset() {
+        m_dataArray = null;
+        m_rootNode = null;
+        m_fusionTable = null;
     }
 
     /**
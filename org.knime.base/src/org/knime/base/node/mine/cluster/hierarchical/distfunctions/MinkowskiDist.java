@@ -103,7 +103,36 @@ public double calcDistance(final DataRow firstDataRow,
         
         return Math.pow(sumPowDist, (double)1 / (double)m_p);
     }
-    
+
+    /**
+     * Calculates the distance between two vectors, same as
+     * {@link #calcDistance(DataRow, DataRow, int[])} on the corresponding
+     * rows: missing values are skipped, {@link Double#NaN} values result in
+     * a NaN distance.
+     *
+     * @param x the first vector
+     * @param xMissing per value of the first vector whether it is missing,
+     *            <code>null</code> if no value is missing
+     * @param y the second vector, of the same length
+     * @param yMissing per value of the second vector whether it is missing,
+     *            <code>null</code> if no value is missing
+     * @return the distance of the two vectors
+     * @since 3.8
+     */
+    public double calcDistance(final double[] x, final boolean[] xMissing,
+            final double[] y, final boolean[] yMissing) {
+        double sumPowDist = 0;
+        for (int i = 0; i < x.length; i++) {
+            // skip missing values
+            if ((xMissing == null || !xMissing[i])
+                    && (yMissing == null || !yMissing[i])) {
+                double dist = Math.abs(x[i] - y[i]);
+                sumPowDist += Math.pow(dist, m_p);
+            }
+        }
+        return Math.pow(sumPowDist, (double)1 / (double)m_p);
+    }
+
     /**
      * @param o The object to compare with.
      * @return true if both instances (classes) are the same. 
@@ -173,6 +173,9 @@ public class ClusterNodeModel extends NodeModel {
     private boolean m_pmmlInEnabled;
     private boolean m_outputCenters;
 
+    /** The number of doubles per block of rows cached by the {@link KMeansEngine}, 0 to never cache the rows. */
+    private final int m_engineBlockSize;
+
     /**
      * Constructor, remember parent and initialize status.
      */
@@ -186,12 +189,24 @@ public class ClusterNodeModel extends NodeModel {
      * @param outputCenters if true, the node has another output port for the cluster centers
      */
     ClusterNodeModel(final boolean pmmlInEnabled, final boolean outputCenters) {
+        this(pmmlInEnabled, outputCenters, KMeansEngine.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructor, remember parent and initialize status.
+     * @param pmmlInEnabled if true, the node has an input PMML port
+     * @param outputCenters if true, the node has another output port for the cluster centers
+     * @param engineBlockSize the number of doubles per block of the rows cached in memory, 0 to read the table in each
+     *            iteration (used for testing)
+     */
+    ClusterNodeModel(final boolean pmmlInEnabled, final boolean outputCenters, final int engineBlockSize) {
         super(pmmlInEnabled ? new PortType[]{BufferedDataTable.TYPE, PMMLPortObject.TYPE_OPTIONAL}
                                 : new PortType[]{BufferedDataTable.TYPE},
             outputCenters ? new PortType[]{BufferedDataTable.TYPE, BufferedDataTable.TYPE, PMMLPortObject.TYPE}
         : new PortType[]{BufferedDataTable.TYPE, PMMLPortObject.TYPE});
         m_pmmlInEnabled = pmmlInEnabled;
         m_outputCenters = outputCenters;
+        m_engineBlockSize = engineBlockSize;
     }
 
 
@@ -318,64 +333,14 @@ protected PortObject[] execute(final PortObject[] data, final ExecutionContext e
         // also keep counts of how many patterns fall in a specific cluster
         int[] clusterCoverage = new int[m_nrOfClusters.getIntValue()];
 
-        // --------- create clusters --------------
-        // reserve space for cluster center updates (do batch update!)
-        double[][] delta = new double[m_nrOfClusters.getIntValue()][];
-        for (int c = 0; c < m_nrOfClusters.getIntValue(); c++) {
-            delta[c] = new double[m_dimension - m_nrIgnoredColumns];
+        // the numeric columns are held in memory (if possible) and the rows are assigned in parallel
+        final KMeansEngine engine = KMeansEngine.create(inData, m_ignoreColumn, m_engineBlockSize,
+            exec.createSubProgress(0.1));
+        if (engine != null) {
+            engine.run(clusters, m_nrMaxIterations.getIntValue(), clusterCoverage, exec.createSubProgress(0.8));
+        } else {
+            runIterations(inData, clusters, clusterCoverage, exec.createSubProgress(0.8));
         }
-
-        // main loop - until clusters stop changing or maxNrIterations reached
-        int currentIteration = 0;
-        boolean finished = false;
-        while ((!finished) && (currentIteration < m_nrMaxIterations.getIntValue())) {
-            exec.checkCanceled();
-            exec.setProgress((double)currentIteration / (double)m_nrMaxIterations.getIntValue(),
-                                 "Iteration " + currentIteration);
-            // initialize counts and cluster-deltas
-            for (int c = 0; c < m_nrOfClusters.getIntValue(); c++) {
-                clusterCoverage[c] = 0;
-                delta[c] = new double[m_dimension - m_nrIgnoredColumns];
-                int deltaPos = 0;
-                for (int i = 0; i < m_dimension; i++) {
-                    if (!m_ignoreColumn[i]) {
-                        delta[c][deltaPos++] = 0.0;
-                    }
-                }
-            }
-            // assume that we are done (i.e. clusters have stopped changing)
-            finished = true;
-            RowIterator rowIt = inData.iterator(); // first training example
-            while (rowIt.hasNext()) {
-                DataRow currentRow = rowIt.next();
-                int winner = findClosestPrototypeFor(currentRow, clusters);
-                if (winner >= 0) {
-                    // update winning cluster centers delta
-                    int deltaPos = 0;
-                    for (int i = 0; i < m_dimension; i++) {
-                        DataCell currentCell = currentRow.getCell(i);
-                        if (!m_ignoreColumn[i]) {
-                            if (!currentCell.isMissing()) {
-                                delta[winner][deltaPos] += ((DoubleValue)(currentCell)).getDoubleValue();
-                            } else {
-                                throw new Exception("Missing Values not (yet) allowed in k-Means.");
-                            }
-                            deltaPos++;
-                        }
-                    }
-                    clusterCoverage[winner]++;
-                } else {
-                    // we didn't find any winner - very odd
-                    assert (winner >= 0); // let's report this during
-                    // debugging!
-                    // otherwise just don't reproduce result
-                    throw new IllegalStateException("No winner found: " + winner);
-                }
-            }
-            // update cluster centers
-            finished = updateClusterCenters(clusterCoverage, clusters, delta);
-            currentIteration++;
-        } // while(!finished & nrIt<maxNrIt)
         // create list of feature names
         int k = 0;  // index of not-ignored columns
         int j = 0;  // index of column
@@ -389,8 +354,9 @@ protected PortObject[] execute(final PortObject[] data, final ExecutionContext e
         } while (j < m_dimension);
         // create output container and also mapping for HiLiteing
         BufferedDataContainer labeledInput = exec.createDataContainer(createAppendedSpec(spec));
+        long rowIndex = 0;
         for (DataRow row : inData) {
-            int winner = findClosestPrototypeFor(row, clusters);
+            int winner = engine != null ? engine.getWinner(rowIndex++) : findClosestPrototypeFor(row, clusters);
             DataCell cell = new StringCell(CLUSTER + winner);
             labeledInput.addRowToTable(new AppendedColumnRow(row, cell));
             if (m_enableHilite.getBooleanValue()) {
@@ -444,6 +410,69 @@ protected PortObject[] execute(final PortObject[] data, final ExecutionContext e
         }
      }
 
+    /** Runs the k-means iterations reading the rows from the table in each iteration. */
+    private void runIterations(final BufferedDataTable inData, final double[][] clusters, final int[] clusterCoverage,
+        final ExecutionMonitor exec) throws Exception {
+        // --------- create clusters --------------
+        // reserve space for cluster center updates (do batch update!)
+        double[][] delta = new double[m_nrOfClusters.getIntValue()][];
+        for (int c = 0; c < m_nrOfClusters.getIntValue(); c++) {
+            delta[c] = new double[m_dimension - m_nrIgnoredColumns];
+        }
+
+        // main loop - until clusters stop changing or maxNrIterations reached
+        int currentIteration = 0;
+        boolean finished = false;
+        while ((!finished) && (currentIteration < m_nrMaxIterations.getIntValue())) {
+            exec.checkCanceled();
+            exec.setProgress((double)currentIteration / (double)m_nrMaxIterations.getIntValue(),
+                                 "Iteration " + currentIteration);
+            // initialize counts and cluster-deltas
+            for (int c = 0; c < m_nrOfClusters.getIntValue(); c++) {
+                clusterCoverage[c] = 0;
+                delta[c] = new double[m_dimension - m_nrIgnoredColumns];
+                int deltaPos = 0;
+                for (int i = 0; i < m_dimension; i++) {
+                    if (!m_ignoreColumn[i]) {
+                        delta[c][deltaPos++] = 0.0;
+                    }
+                }
+            }
+            // assume that we are done (i.e. clusters have stopped changing)
+            finished = true;
+            RowIterator rowIt = inData.iterator(); // first training example
+            while (rowIt.hasNext()) {
+                DataRow currentRow = rowIt.next();
+                int winner = findClosestPrototypeFor(currentRow, clusters);
+                if (winner >= 0) {
+                    // update winning cluster centers delta
+                    int deltaPos = 0;
+                    for (int i = 0; i < m_dimension; i++) {
+                        DataCell currentCell = currentRow.getCell(i);
+                        if (!m_ignoreColumn[i]) {
+                            if (!currentCell.isMissing()) {
+                                delta[winner][deltaPos] += ((DoubleValue)(currentCell)).getDoubleValue();
+                            } else {
+                                throw new Exception("Missing Values not (yet) allowed in k-Means.");
+                            }
+                            deltaPos++;
+                        }
+                    }
+                    clusterCoverage[winner]++;
+                } else {
+                    // we didn't find any winner - very odd
+                    assert (winner >= 0); // let's report this during
+                    // debugging!
+                    // otherwise just don't reproduce result
+                    throw new IllegalStateException("No winner found: " + winner);
+                }
+            }
+            // update cluster centers
+            finished = updateClusterCenters(clusterCoverage, clusters, delta);
+            currentIteration++;
+        } // while(!finished & nrIt<maxNrIt)
+    }
+
     private boolean updateClusterCenters(final int[] clusterCoverage,
                                         final double[][] clusters,
                                         final double[][] delta) {
@@ -0,0 +1,515 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.mine.cluster.kmeans;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Runs the k-means iterations on a copy of the numeric input columns held in memory. The rows are cached once in
+ * blocks of primitive doubles, each iteration then assigns the rows to their closest cluster center in parallel
+ * (the blocks are split into ranges processed by one task each, with its own accumulators for the new centers).
+ *
+ * <p>
+ * Distance computations are skipped where possible using the bounds of Hamerly's algorithm: per row an upper bound
+ * of the distance to its assigned center and a lower bound of the distance to all other centers. If the upper bound
+ * is smaller than the lower bound (or than half the distance of the assigned center to its closest other center),
+ * the assignment can't change. The bounds are only used if all values are finite; the result (assignment and
+ * centers) is the same as with the row-wise computation in {@link ClusterNodeModel}, except for the summation
+ * order of the new centers.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class KMeansEngine {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(KMeansEngine.class);
+
+    /** Default number of doubles per block of cached rows. */
+    static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    /** Relative tolerance for the bound comparisons, guarding against rounding errors in the bounds. */
+    private static final double BOUND_TOLERANCE = 1e-10;
+
+    /** Per row the bytes used in addition to the cached values (assignment and bounds). */
+    private static final int ROW_OVERHEAD = 4 + 8 + 8;
+
+    private final int m_dimensions;
+
+    private final long m_rowCount;
+
+    private final int m_rowsPerBlock;
+
+    /** The cached values, row-major, {@link #m_rowsPerBlock} rows per block. */
+    private final double[][] m_blocks;
+
+    /** Per row the index of the closest cluster center, -1 if none found. */
+    private final int[][] m_assignments;
+
+    /** Per row the upper bound of the distance to its assigned center. */
+    private final double[][] m_upperBounds;
+
+    /** Per row the lower bound of the distance to all other centers. */
+    private final double[][] m_lowerBounds;
+
+    /** Whether all cached values are finite, only then the bounds are valid. */
+    private final boolean m_isFinite;
+
+    /** Whether all rows were assigned at least once, i.e. the bounds are initialized. */
+    private boolean m_isAssigned;
+
+    private KMeansEngine(final int dimensions, final long rowCount, final int rowsPerBlock, final double[][] blocks,
+        final boolean isFinite) {
+        m_dimensions = dimensions;
+        m_rowCount = rowCount;
+        m_rowsPerBlock = rowsPerBlock;
+        m_blocks = blocks;
+        m_isFinite = isFinite;
+        m_assignments = new int[blocks.length][];
+        m_upperBounds = new double[blocks.length][];
+        m_lowerBounds = new double[blocks.length][];
+        for (int b = 0; b < blocks.length; b++) {
+            final int rows = blockRowCount(b);
+            m_assignments[b] = new int[rows];
+            m_upperBounds[b] = new double[rows];
+            m_lowerBounds[b] = new double[rows];
+        }
+    }
+
+    /**
+     * Reads the used columns of the table into memory.
+     *
+     * @param table the input table
+     * @param ignoreColumn per column whether it's ignored
+     * @param blockSize the number of doubles per block of cached rows, usually {@link #DEFAULT_BLOCK_SIZE}; 0 to never
+     *            cache the rows (for testing)
+     * @param exec for progress and cancelation
+     * @return the engine or <code>null</code> if the table doesn't fit into the available memory or the block size
+     *         is 0
+     * @throws CanceledExecutionException if canceled
+     * @throws Exception if the table contains missing values in the used columns
+     */
+    static KMeansEngine create(final BufferedDataTable table, final boolean[] ignoreColumn, final int blockSize,
+        final ExecutionMonitor exec) throws Exception {
+        int dimensions = 0;
+        for (boolean ignore : ignoreColumn) {
+            if (!ignore) {
+                dimensions++;
+            }
+        }
+        final long rowCount = table.size();
+        final Runtime runtime = Runtime.getRuntime();
+        final long availableMemory = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        final long requiredMemory = rowCount * (8L * dimensions + ROW_OVERHEAD);
+        if (blockSize <= 0 || requiredMemory > availableMemory / 2) {
+            LOGGER.debugWithFormat("Not caching input table (%dMB required, %dMB available), rows are read in "
+                + "each iteration", requiredMemory >> 20, availableMemory >> 20);
+            return null;
+        }
+        final int rowsPerBlock = Math.max(1, blockSize / Math.max(1, dimensions));
+        final int blockCount = (int)((rowCount + rowsPerBlock - 1) / rowsPerBlock);
+        final double[][] blocks = new double[blockCount][];
+        boolean isFinite = true;
+        long row = 0;
+        for (DataRow r : table) {
+            exec.checkCanceled();
+            exec.setProgress(row / (double)rowCount);
+            final int block = (int)(row / rowsPerBlock);
+            if (blocks[block] == null) {
+                blocks[block] = new double[(int)Math.min(rowsPerBlock, rowCount - (long)block * rowsPerBlock)
+                    * dimensions];
+            }
+            int pos = (int)(row % rowsPerBlock) * dimensions;
+            for (int i = 0; i < ignoreColumn.length; i++) {
+                if (!ignoreColumn[i]) {
+                    final DataCell cell = r.getCell(i);
+                    if (cell.isMissing()) {
+                        throw new Exception("Missing Values not (yet) allowed in k-Means.");
+                    }
+                    final double value = ((DoubleValue)cell).getDoubleValue();
+                    isFinite &= !Double.isNaN(value) && !Double.isInfinite(value);
+                    blocks[block][pos++] = value;
+                }
+            }
+            row++;
+        }
+        return new KMeansEngine(dimensions, rowCount, rowsPerBlock, blocks, isFinite);
+    }
+
+    private int blockRowCount(final int block) {
+        return (int)Math.min(m_rowsPerBlock, m_rowCount - (long)block * m_rowsPerBlock);
+    }
+
+    /**
+     * Runs the k-means iterations until the centers don't change anymore or the maximum number of iterations is
+     * reached. Afterwards each row is assigned to its closest final center, see {@link #getWinner(long)}.
+     *
+     * @param clusters the initial cluster centers, updated in place
+     * @param maxIterations the maximum number of iterations
+     * @param clusterCoverage filled with the number of rows per cluster in the last iteration
+     * @param exec for progress and cancelation
+     * @throws CanceledExecutionException if canceled
+     */
+    void run(final double[][] clusters, final int maxIterations, final int[] clusterCoverage,
+        final ExecutionMonitor exec) throws CanceledExecutionException {
+        double[] movement = null;
+        int currentIteration = 0;
+        boolean finished = false;
+        while (!finished && currentIteration < maxIterations) {
+            exec.checkCanceled();
+            exec.setProgress((double)currentIteration / (double)maxIterations, "Iteration " + currentIteration);
+            final double[][] sums = new double[clusters.length][m_dimensions];
+            Arrays.fill(clusterCoverage, 0);
+            assign(clusters, movement, sums, clusterCoverage, exec);
+            movement = new double[clusters.length];
+            finished = updateClusterCenters(clusters, sums, clusterCoverage, movement);
+            currentIteration++;
+        }
+        LOGGER.debugWithFormat("k-Means finished after %d iteration(s)", currentIteration);
+        // the output is based on the updated centers
+        assign(clusters, movement, null, null, exec);
+    }
+
+    /**
+     * @param row the index of the row in the input table
+     * @return the index of the closest cluster center as determined in {@link #run(double[][], int, int[],
+     *         ExecutionMonitor)}, -1 if none found
+     */
+    int getWinner(final long row) {
+        return m_assignments[(int)(row / m_rowsPerBlock)][(int)(row % m_rowsPerBlock)];
+    }
+
+    /** Same as in ClusterNodeModel, additionally computes how far each center moved. */
+    private boolean updateClusterCenters(final double[][] clusters, final double[][] sums,
+        final int[] clusterCoverage, final double[] movement) {
+        boolean finished = true;
+        for (int c = 0; c < clusters.length; c++) {
+            if (clusterCoverage[c] > 0) {
+                double squaredMovement = 0;
+                for (int i = 0; i < m_dimensions; i++) {
+                    // normalize delta by nr of covered patterns
+                    final double newValue = sums[c][i] / clusterCoverage[c];
+                    final double diff = clusters[c][i] - newValue;
+                    // compare before assigning the value to make sure we
+                    // don't stop if things have changed substantially
+                    if (Math.abs(diff) > 1e-10) {
+                        finished = false;
+                    }
+                    squaredMovement += diff * diff;
+                    clusters[c][i] = newValue;
+                }
+                movement[c] = Math.sqrt(squaredMovement);
+            }
+        }
+        return finished;
+    }
+
+    /**
+     * Assigns all rows to their closest center, in parallel.
+     *
+     * @param movement how far each center moved since the last assignment, <code>null</code> in the first one
+     * @param sums if not <code>null</code> the values of the rows are added to the sums of their centers
+     * @param clusterCoverage if not <code>null</code> the number of rows per center is added
+     */
+    private void assign(final double[][] clusters, final double[] movement, final double[][] sums,
+        final int[] clusterCoverage, final ExecutionMonitor exec) throws CanceledExecutionException {
+        final boolean isFinite = m_isFinite && isFinite(clusters);
+        final boolean usePruning = isFinite && m_isAssigned && movement != null;
+        final Assigner first = new Assigner(clusters, usePruning ? movement : null, !isFinite, sums != null);
+
+        final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL;
+        final int taskCount = Math.max(1, Math.min(m_blocks.length, pool.getMaxThreads()));
+        final List<Assigner> assigners = new ArrayList<Assigner>(taskCount);
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>(taskCount);
+        try {
+            for (int t = 0; t < taskCount; t++) {
+                final Assigner assigner = t == 0 ? first : first.copy();
+                final int fromBlock = (int)((long)m_blocks.length * t / taskCount);
+                final int toBlock = (int)((long)m_blocks.length * (t + 1) / taskCount);
+                assigners.add(assigner);
+                futures.add(pool.enqueue(new Callable<Void>() {
+                    @Override
+                    public Void call() throws CanceledExecutionException {
+                        for (int b = fromBlock; b < toBlock; b++) {
+                            exec.checkCanceled();
+                            assigner.assignBlock(b);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            throw new CanceledExecutionException("k-Means canceled");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CanceledExecutionException) {
+                throw (CanceledExecutionException)e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error)e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            for (Future<Void> f : futures) {
+                f.cancel(true);
+            }
+        }
+        m_isAssigned = true;
+
+        // merge in fixed order, the result doesn't depend on the scheduling of the tasks
+        long skippedRows = 0;
+        for (Assigner assigner : assigners) {
+            skippedRows += assigner.m_skippedRows;
+            if (sums != null) {
+                for (int c = 0; c < clusters.length; c++) {
+                    clusterCoverage[c] += assigner.m_coverage[c];
+                    for (int i = 0; i < m_dimensions; i++) {
+                        sums[c][i] += assigner.m_sums[c][i];
+                    }
+                }
+            }
+        }
+        if (usePruning && LOGGER.isDebugEnabled()) {
+            LOGGER.debugWithFormat("k-Means: %d of %d row(s) not re-assigned due to distance bounds", skippedRows,
+                m_rowCount);
+        }
+    }
+
+    private static boolean isFinite(final double[][] clusters) {
+        for (double[] cluster : clusters) {
+            for (double v : cluster) {
+                if (Double.isNaN(v) || Double.isInfinite(v)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Assigns the rows of a range of blocks, not thread-safe (each task uses its own copy). */
+    private final class Assigner {
+
+        private final double[][] m_clusters;
+
+        /** Movement of each center, <code>null</code> if the bounds are not used. */
+        private final double[] m_movement;
+
+        /** Whether NaN differences are ignored in the distance, as in ClusterNodeModel. */
+        private final boolean m_ignoreNaN;
+
+        /** Per center half the distance to the closest other center. */
+        private final double[] m_halfClosestCenterDistance;
+
+        private final int m_maxMovementIndex;
+
+        private final double m_maxMovement;
+
+        private final double m_secondMaxMovement;
+
+        private final double[][] m_sums;
+
+        private final int[] m_coverage;
+
+        private long m_skippedRows;
+
+        Assigner(final double[][] clusters, final double[] movement, final boolean ignoreNaN,
+            final boolean accumulate) {
+            this(clusters, movement, null, ignoreNaN, accumulate);
+        }
+
+        private Assigner(final double[][] clusters, final double[] movement,
+            final double[] halfClosestCenterDistance, final boolean ignoreNaN, final boolean accumulate) {
+            m_clusters = clusters;
+            m_movement = movement;
+            m_ignoreNaN = ignoreNaN;
+            final int k = clusters.length;
+            if (movement != null) {
+                int maxIndex = -1;
+                double max = 0;
+                double secondMax = 0;
+                for (int c = 0; c < k; c++) {
+                    if (movement[c] > max) {
+                        secondMax = max;
+                        max = movement[c];
+                        maxIndex = c;
+                    } else if (movement[c] > secondMax) {
+                        secondMax = movement[c];
+                    }
+                }
+                m_maxMovementIndex = maxIndex;
+                m_maxMovement = max;
+                m_secondMaxMovement = secondMax;
+                m_halfClosestCenterDistance = halfClosestCenterDistance != null ? halfClosestCenterDistance
+                    : computeHalfClosestCenterDistances(clusters);
+            } else {
+                m_maxMovementIndex = -1;
+                m_maxMovement = 0;
+                m_secondMaxMovement = 0;
+                m_halfClosestCenterDistance = null;
+            }
+            m_sums = accumulate ? new double[k][m_dimensions] : null;
+            m_coverage = accumulate ? new int[k] : null;
+        }
+
+        /** @return a new instance with the same centers and bounds but its own accumulators */
+        Assigner copy() {
+            return new Assigner(m_clusters, m_movement, m_halfClosestCenterDistance, m_ignoreNaN, m_sums != null);
+        }
+
+        private double[] computeHalfClosestCenterDistances(final double[][] clusters) {
+            final double[] result = new double[clusters.length];
+            Arrays.fill(result, Double.POSITIVE_INFINITY);
+            for (int c1 = 0; c1 < clusters.length; c1++) {
+                for (int c2 = c1 + 1; c2 < clusters.length; c2++) {
+                    final double half = 0.5 * Math.sqrt(squaredDistance(clusters[c1], clusters[c2], 0));
+                    result[c1] = Math.min(result[c1], half);
+                    result[c2] = Math.min(result[c2], half);
+                }
+            }
+            return result;
+        }
+
+        void assignBlock(final int block) {
+            final double[] data = m_blocks[block];
+            final int[] assignments = m_assignments[block];
+            final double[] upperBounds = m_upperBounds[block];
+            final double[] lowerBounds = m_lowerBounds[block];
+            for (int r = 0, offset = 0; r < assignments.length; r++, offset += m_dimensions) {
+                int winner = assignments[r];
+                boolean isSkipped = false;
+                if (m_movement != null && winner >= 0) {
+                    upperBounds[r] += m_movement[winner];
+                    lowerBounds[r] -= winner == m_maxMovementIndex ? m_secondMaxMovement : m_maxMovement;
+                    final double bound = Math.max(m_halfClosestCenterDistance[winner], lowerBounds[r]);
+                    if (upperBounds[r] * (1 + BOUND_TOLERANCE) < bound) {
+                        isSkipped = true;
+                    } else {
+                        upperBounds[r] = Math.sqrt(squaredDistance(m_clusters[winner], data, offset));
+                        isSkipped = upperBounds[r] * (1 + BOUND_TOLERANCE) < bound;
+                    }
+                }
+                if (isSkipped) {
+                    m_skippedRows++;
+                } else {
+                    winner = findClosestCenter(data, offset, r, upperBounds, lowerBounds);
+                    assignments[r] = winner;
+                }
+                if (m_sums != null) {
+                    if (winner < 0) {
+                        // we didn't find any winner - very odd
+                        throw new IllegalStateException("No winner found: " + winner);
+                    }
+                    final double[] sum = m_sums[winner];
+                    for (int i = 0; i < m_dimensions; i++) {
+                        sum[i] += data[offset + i];
+                    }
+                    m_coverage[winner]++;
+                }
+            }
+        }
+
+        /** Computes the distances to all centers, same as in ClusterNodeModel, and initializes the bounds. */
+        private int findClosestCenter(final double[] data, final int offset, final int row,
+            final double[] upperBounds, final double[] lowerBounds) {
+            int winner = -1; // closest cluster so far
+            double winnerDistance = Double.MAX_VALUE; // best distance
+            double secondDistance = Double.MAX_VALUE;
+            for (int c = 0; c < m_clusters.length; c++) {
+                final double distance = m_ignoreNaN ? squaredDistanceIgnoreNaN(m_clusters[c], data, offset)
+                    : squaredDistance(m_clusters[c], data, offset);
+                if (distance < winnerDistance) { // found closer cluster
+                    secondDistance = winnerDistance;
+                    winner = c; // make it new winner
+                    winnerDistance = distance;
+                } else if (distance < secondDistance) {
+                    secondDistance = distance;
+                }
+            }
+            upperBounds[row] = Math.sqrt(winnerDistance);
+            lowerBounds[row] = Math.sqrt(secondDistance);
+            return winner;
+        }
+
+        private double squaredDistance(final double[] cluster, final double[] data, final int offset) {
+            double distance = 0.0;
+            for (int i = 0; i < cluster.length; i++) {
+                final double d = cluster[i] - data[offset + i];
+                distance += d * d;
+            }
+            return distance;
+        }
+
+        private double squaredDistanceIgnoreNaN(final double[] cluster, final double[] data, final int offset) {
+            double distance = 0.0;
+            for (int i = 0; i < cluster.length; i++) {
+                final double d = cluster[i] - data[offset + i];
+                if (!Double.isNaN(d)) {
+                    distance += d * d;
+                }
+            }
+            return distance;
+        }
+    }
+
+}
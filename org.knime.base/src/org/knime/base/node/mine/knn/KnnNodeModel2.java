@@ -54,15 +54,12 @@
 import java.util.List;
 import java.util.Map;
 
-import org.knime.base.util.kdtree.KDTree;
-import org.knime.base.util.kdtree.KDTreeBuilder;
-import org.knime.base.util.kdtree.NearestNeighbour;
+import org.knime.base.util.kdtree.PrimitiveKDTree;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.DataType;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.NominalValue;
 import org.knime.core.data.RowKey;
@@ -87,8 +84,6 @@
 import org.knime.core.node.streamable.PortOutput;
 import org.knime.core.node.streamable.StreamableFunction;
 import org.knime.core.node.streamable.StreamableOperator;
-import org.knime.core.util.MutableDouble;
-import org.knime.core.util.MutableInteger;
 
 /**
  * This is the model for the k Nearest Neighbor node. In contrast to most
@@ -102,9 +97,6 @@
 public class KnnNodeModel2 extends NodeModel {
     private KnnSettings2 m_settings = new KnnSettings2();
 
-    private final Map<DataCell, MutableInteger> m_classDistribution =
-            new HashMap<DataCell, MutableInteger>();
-
     /**
      * Creates a new model for the kNN node.
      */
@@ -215,7 +207,7 @@ protected DataTableSpec[] configure(final DataTableSpec[] inSpecs)
         }
 
         ColumnRearranger crea =
-                createRearranger(inSpecs[1], classColSpec, null, null, null, -1);
+                createRearranger(inSpecs[1], classColSpec, null, -1);
 
         return new DataTableSpec[]{crea.createSpec()};
     }
@@ -283,27 +275,34 @@ private ColumnRearranger createRearranger(final BufferedDataTable trainData, fin
         Map<Integer, Integer> firstToSecond = new HashMap<Integer, Integer>();
         checkInputTables(new DataTableSpec[]{trainData.getDataTableSpec(), inSpec2}, featureColumns, firstToSecond);
 
-        KDTreeBuilder<DataCell> treeBuilder = new KDTreeBuilder<DataCell>(featureColumns.size());
-        int count = 0;
+        final int dimensions = featureColumns.size();
+        final Map<DataCell, Integer> classIndexMap = new LinkedHashMap<DataCell, Integer>();
+        double[] patterns = new double[dimensions * 1024];
+        int[] patternClasses = new int[1024];
+        int patternCount = 0;
+        long count = 0;
+        final long trainRowCount = trainData.size();
         for (DataRow currentRow : trainData) {
             exec.checkCanceled();
-            exec.setProgress(0.1 * count * trainData.size(), "Reading row " + currentRow.getKey());
+            exec.setProgress(0.1 * count++ / trainRowCount, "Reading row " + currentRow.getKey());
 
             double[] features = createFeatureVector(currentRow, featureColumns);
             if (features == null) {
                 setWarningMessage("Input table contains missing values, the " + "affected rows are ignored.");
             } else {
                 DataCell thisClassCell = currentRow.getCell(classColIndex);
+                Integer classIndex = classIndexMap.get(thisClassCell);
+                if (classIndex == null) {
+                    classIndex = classIndexMap.size();
+                    classIndexMap.put(thisClassCell, classIndex);
+                }
                 // and finally add data
-                treeBuilder.addPattern(features, thisClassCell);
-
-                // compute the majority class for breaking possible ties later
-                MutableInteger t = m_classDistribution.get(thisClassCell);
-                if (t == null) {
-                    m_classDistribution.put(thisClassCell, new MutableInteger(1));
-                } else {
-                    t.inc();
+                if (patternCount == patternClasses.length) {
+                    patternClasses = Arrays.copyOf(patternClasses, 2 * patternCount);
+                    patterns = Arrays.copyOf(patterns, 2 * patternCount * dimensions);
                 }
+                System.arraycopy(features, 0, patterns, patternCount * dimensions, dimensions);
+                patternClasses[patternCount++] = classIndex;
             }
         }
 
@@ -311,7 +310,9 @@ private ColumnRearranger createRearranger(final BufferedDataTable trainData, fin
         DataColumnSpec classColumnSpec = trainData.getDataTableSpec().getColumnSpec(classColIndex);
 
         exec.setMessage("Building kd-tree");
-        KDTree<DataCell> tree = treeBuilder.buildTree(exec.createSubProgress(0.3));
+        PrimitiveKDTree tree =
+            new PrimitiveKDTree(Arrays.copyOf(patterns, patternCount * dimensions), dimensions);
+        exec.setProgress(0.4);
 
         if (tree.size() < m_settings.k()) {
             setWarningMessage("There are only " + tree.size() + " patterns in the input table, but " + m_settings.k()
@@ -319,9 +320,17 @@ private ColumnRearranger createRearranger(final BufferedDataTable trainData, fin
                 + " The prediction will be the majority class for all" + " input patterns.");
         }
 
+        int[] secondIndices = new int[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            secondIndices[i] = firstToSecond.get(featureColumns.get(i));
+        }
+        NearestNeighbourClassifier classifier = new NearestNeighbourClassifier(tree,
+            Arrays.copyOf(patternClasses, patternCount), classIndexMap.keySet().toArray(new DataCell[0]),
+            secondIndices, Math.min(m_settings.k(), tree.size()), m_settings.weightByDistance());
+
         exec.setMessage("Classifying");
         ColumnRearranger c =
-            createRearranger(inSpec2, classColumnSpec, featureColumns, firstToSecond, tree, numRowsTable2);
+            createRearranger(inSpec2, classColumnSpec, classifier, numRowsTable2);
         return c;
     }
 
@@ -330,7 +339,7 @@ private ColumnRearranger createRearranger(final BufferedDataTable trainData, fin
      */
     @Override
     protected void reset() {
-        m_classDistribution.clear();
+        // nothing to do
     }
 
     /**
@@ -384,9 +393,7 @@ protected void loadInternals(final File nodeInternDir,
      */
     private ColumnRearranger createRearranger(final DataTableSpec in,
             final DataColumnSpec classColumnSpec,
-            final List<Integer> featureColumns,
-            final Map<Integer, Integer> firstToSecond,
-            final KDTree<DataCell> tree, final double maxRows) {
+            final NearestNeighbourClassifier classifier, final double maxRows) {
         ColumnRearranger c = new ColumnRearranger(in);
         String newName = "Class [kNN]";
         while (in.containsName(newName)) {
@@ -422,10 +429,13 @@ public int compare(final DataCell o1, final DataCell o2) {
         } else {
             possibleValues = new DataCell[0];
         }
+        final int[] probabilityClasses =
+                classifier == null ? null : classifier.getClassIndices(possibleValues);
 
         final DataColumnSpec[] colSpecArray =
                 colSpecs.toArray(new DataColumnSpec[colSpecs.size()]);
-        c.append(new AbstractCellFactory(colSpecArray) {
+        // rows are classified concurrently, each thread uses its own search buffers
+        c.append(new AbstractCellFactory(true, colSpecArray) {
 
             /** {@inheritDoc} */
             @Override
@@ -440,92 +450,13 @@ public void setProgress(final long curRowNr, final long rowCount,
 
             @Override
             public DataCell[] getCells(final DataRow row) {
-                List<DataCell> output =
-                        classify(row, tree, featureColumns, firstToSecond,
-                                possibleValues);
-                return output.toArray(new DataCell[output.size()]);
+                return classifier.classify(row, probabilityClasses);
             }
 
         });
         return c;
     }
 
-    // returns a list where the first value if the winner class, and the
-    // following values are the class probabilities (if enabled)
-    private List<DataCell> classify(final DataRow row,
-            final KDTree<DataCell> tree, final List<Integer> featureColumns,
-            final Map<Integer, Integer> firstToSecond,
-            final DataCell[] allClassValues) {
-        double[] features =
-                createQueryVector(row, featureColumns, firstToSecond);
-        List<DataCell> output = new ArrayList<DataCell>();
-        if (features == null) {
-            for (int i = 0; i < 1 + allClassValues.length; i++) {
-                output.add(DataType.getMissingCell());
-            }
-            return output;
-        }
-
-        HashMap<DataCell, MutableDouble> classWeights =
-                new LinkedHashMap<DataCell, MutableDouble>();
-        List<NearestNeighbour<DataCell>> nearestN =
-                tree.getKNearestNeighbours(features,
-                        Math.min(m_settings.k(), tree.size()));
-
-        for (NearestNeighbour<DataCell> n : nearestN) {
-            MutableDouble count = classWeights.get(n.getData());
-            if (count == null) {
-                count = new MutableDouble(0);
-                classWeights.put(n.getData(), count);
-            }
-            if (m_settings.weightByDistance()) {
-                count.add(1 / n.getDistance());
-            } else {
-                count.inc();
-            }
-        }
-
-        double winnerWeight = 0;
-        double weightSum = 0;
-        DataCell winnerCell = DataType.getMissingCell();
-        for (Map.Entry<DataCell, MutableDouble> e : classWeights.entrySet()) {
-            double weight = e.getValue().doubleValue();
-            if (weight > winnerWeight) {
-                winnerWeight = weight;
-                winnerCell = e.getKey();
-            }
-            weightSum += weight;
-        }
-
-        // check if there are other classes with the same weight
-        for (Map.Entry<DataCell, MutableDouble> e : classWeights.entrySet()) {
-            double weight = e.getValue().doubleValue();
-            if (weight == winnerWeight) {
-                if (m_classDistribution.get(winnerCell).intValue() < m_classDistribution
-                        .get(e.getKey()).intValue()) {
-                    winnerCell = e.getKey();
-                }
-            }
-        }
-
-        output.add(winnerCell);
-
-        if (m_settings.outputClassProbabilities()) {
-            for (DataCell classVal : allClassValues) {
-                MutableDouble v = classWeights.get(classVal);
-                if (v == null) {
-                    output.add(new DoubleCell(0));
-//                } else if (Double.isInfinite(v.doubleValue())) { // if distance to prototype is 0
-//                    output.add(new DoubleCell(1));
-                } else {
-                    output.add(new DoubleCell(v.doubleValue() / weightSum));
-                }
-            }
-        }
-
-        return output;
-    }
-
     /**
      * Creates a double array with the features of one data row.
      *
@@ -550,33 +481,4 @@ private double[] createFeatureVector(final DataRow row,
         }
         return features;
     }
-
-    /**
-     * Creates a double array with the features of one data row used for
-     * querying the tree.
-     *
-     * @param row the row
-     * @param featureColumns the indices of the column with the features to use
-     * @param firstToSecond a map that maps the indices of the feature columns
-     *            from the first table to the columns in the second table
-     * @return a double array with the features' values
-     */
-    private double[] createQueryVector(final DataRow row,
-            final List<Integer> featureColumns,
-            final Map<Integer, Integer> firstToSecond) {
-        double[] features = new double[featureColumns.size()];
-        int currentIndex = 0;
-        for (Integer i : featureColumns) {
-            DataCell thisCell = row.getCell(firstToSecond.get(i));
-
-            if (!thisCell.isMissing()) {
-                features[currentIndex] =
-                        ((DoubleValue)thisCell).getDoubleValue();
-            } else {
-                return null;
-            }
-            currentIndex++;
-        }
-        return features;
-    }
 }
@@ -0,0 +1,213 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.mine.knn;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.knime.base.util.kdtree.PrimitiveKDTree;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.def.DoubleCell;
+
+/**
+ * Classifies rows by the (weighted) majority class of their nearest neighbours in the training data. The training
+ * data is held in a {@link PrimitiveKDTree}, classes are identified by their index. Instances can be used
+ * concurrently, each thread uses its own search buffers.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class NearestNeighbourClassifier {
+
+    private final PrimitiveKDTree m_tree;
+
+    /** The class index of each training pattern. */
+    private final int[] m_patternClasses;
+
+    /** The class values, in the order of their first occurrence in the training data. */
+    private final DataCell[] m_classValues;
+
+    /** The number of training patterns per class, used to break ties. */
+    private final int[] m_classCounts;
+
+    /** The indices of the feature columns in the table to classify. */
+    private final int[] m_featureColumns;
+
+    private final int m_k;
+
+    private final boolean m_weightByDistance;
+
+    private final ThreadLocal<Buffers> m_buffers = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * @param tree the tree with the training patterns
+     * @param patternClasses the class index of each training pattern
+     * @param classValues the class values, in the order of their first occurrence in the training data
+     * @param featureColumns the indices of the feature columns in the table to classify
+     * @param k the number of neighbours to consider, at most the size of the tree
+     * @param weightByDistance whether neighbours are weighted by their inverse distance
+     */
+    NearestNeighbourClassifier(final PrimitiveKDTree tree, final int[] patternClasses, final DataCell[] classValues,
+        final int[] featureColumns, final int k, final boolean weightByDistance) {
+        m_tree = tree;
+        m_patternClasses = patternClasses;
+        m_classValues = classValues;
+        m_classCounts = new int[classValues.length];
+        for (int c : patternClasses) {
+            m_classCounts[c]++;
+        }
+        m_featureColumns = featureColumns;
+        m_k = k;
+        m_weightByDistance = weightByDistance;
+    }
+
+    /**
+     * Maps class values to their indices.
+     *
+     * @param values class values, e.g. from the domain of the class column
+     * @return the index of each value, -1 if it doesn't occur in the training data
+     */
+    int[] getClassIndices(final DataCell[] values) {
+        Map<DataCell, Integer> indexMap = new HashMap<DataCell, Integer>();
+        for (int i = 0; i < m_classValues.length; i++) {
+            indexMap.put(m_classValues[i], i);
+        }
+        int[] indices = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Integer index = indexMap.get(values[i]);
+            indices[i] = index == null ? -1 : index;
+        }
+        return indices;
+    }
+
+    /**
+     * Classifies a row.
+     *
+     * @param row the row
+     * @param probabilityClasses the indices of the classes whose probabilities are output (see
+     *            {@link #getClassIndices(DataCell[])})
+     * @return the winner class followed by the class probabilities; all missing if the row contains missing values
+     */
+    DataCell[] classify(final DataRow row, final int[] probabilityClasses) {
+        final DataCell[] output = new DataCell[1 + probabilityClasses.length];
+        final Buffers buffers = m_buffers.get();
+        final double[] query = buffers.m_query;
+        for (int i = 0; i < m_featureColumns.length; i++) {
+            DataCell cell = row.getCell(m_featureColumns[i]);
+            if (cell.isMissing()) {
+                Arrays.fill(output, DataType.getMissingCell());
+                return output;
+            }
+            query[i] = ((DoubleValue)cell).getDoubleValue();
+        }
+
+        final double[] classWeights = buffers.m_classWeights;
+        final int[] foundClasses = buffers.m_foundClasses;
+        int foundClassCount = 0;
+        final int neighbourCount = buffers.m_searcher.search(query);
+        for (int i = 0; i < neighbourCount; i++) {
+            final int c = m_patternClasses[buffers.m_searcher.getIndex(i)];
+            if (!buffers.m_isFound[c]) {
+                buffers.m_isFound[c] = true;
+                foundClasses[foundClassCount++] = c;
+            }
+            classWeights[c] += m_weightByDistance ? 1 / buffers.m_searcher.getDistance(i) : 1;
+        }
+
+        // the classes in the order they were found, as ties are resolved by that order
+        double winnerWeight = 0;
+        double weightSum = 0;
+        int winner = -1;
+        for (int i = 0; i < foundClassCount; i++) {
+            final double weight = classWeights[foundClasses[i]];
+            if (weight > winnerWeight) {
+                winnerWeight = weight;
+                winner = foundClasses[i];
+            }
+            weightSum += weight;
+        }
+
+        // check if there are other classes with the same weight, prefer the more frequent one
+        for (int i = 0; i < foundClassCount; i++) {
+            final int c = foundClasses[i];
+            if (classWeights[c] == winnerWeight && (winner < 0 || m_classCounts[winner] < m_classCounts[c])) {
+                winner = c;
+            }
+        }
+        output[0] = winner < 0 ? DataType.getMissingCell() : m_classValues[winner];
+
+        for (int i = 0; i < probabilityClasses.length; i++) {
+            final int c = probabilityClasses[i];
+            output[i + 1] = new DoubleCell(c < 0 || !buffers.m_isFound[c] ? 0 : classWeights[c] / weightSum);
+        }
+
+        for (int i = 0; i < foundClassCount; i++) {
+            classWeights[foundClasses[i]] = 0;
+            buffers.m_isFound[foundClasses[i]] = false;
+        }
+        return output;
+    }
+
+    /** The per-thread buffers re-used for all rows. */
+    private final class Buffers {
+
+        private final PrimitiveKDTree.Searcher m_searcher = m_tree.createSearcher(m_k);
+
+        private final double[] m_query = new double[m_featureColumns.length];
+
+        private final double[] m_classWeights = new double[m_classValues.length];
+
+        private final boolean[] m_isFound = new boolean[m_classValues.length];
+
+        private final int[] m_foundClasses = new int[m_classValues.length];
+    }
+
+}
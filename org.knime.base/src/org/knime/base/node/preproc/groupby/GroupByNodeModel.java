@@ -102,6 +102,12 @@ public class GroupByNodeModel extends NodeModel {
     private static final NodeLogger LOGGER =
             NodeLogger.getLogger(GroupByNodeModel.class);
 
+    /** A system property that, if set to true, aggregates the groups of tables that are not processed in memory
+     * using a hash table ({@link HashGroupByTable}) instead of sorting the input table ({@link BigGroupByTable}).
+     * @since 3.8
+     */
+    public static final String PROPERTY_HASH_AGGREGATION = "knime.groupby.hash_aggregation";
+
     /**
      * Old configuration key of the selected aggregation method for numerical
      * columns. This key was used prior Knime 2.0.
@@ -680,6 +686,9 @@ protected final GroupByTable createGroupByTable(final ExecutionContext exec, fin
         if (inMemory || groupByCols.isEmpty()) {
             resultTable = new MemoryGroupByTable(exec, table, groupByCols, aggregators.toArray(new ColumnAggregator[0]),
                 globalSettings, enableHilite, colNamePolicy, retainOrder);
+        } else if (Boolean.getBoolean(PROPERTY_HASH_AGGREGATION)) {
+            resultTable = new HashGroupByTable(exec, table, groupByCols, aggregators.toArray(new ColumnAggregator[0]),
+                    globalSettings, enableHilite, colNamePolicy, retainOrder);
         } else {
             resultTable = new BigGroupByTable(exec, table, groupByCols, aggregators.toArray(new ColumnAggregator[0]),
                     globalSettings, enableHilite, colNamePolicy, retainOrder);
@@ -0,0 +1,420 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.node.preproc.groupby;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.knime.base.data.aggregation.AggregationOperator;
+import org.knime.base.data.aggregation.ColumnAggregator;
+import org.knime.base.data.aggregation.GlobalSettings;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.data.util.memory.MemoryAlertSystem.MemoryActionIndicator;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.Pair;
+
+/**
+ * A data table that groups a given input table by the given columns and calculates the aggregation values of the
+ * remaining rows using a hash table instead of sorting the input table (as done by {@link BigGroupByTable}). The result
+ * is the same as the one of the {@link BigGroupByTable}, i.e. the groups are sorted by the group columns unless the
+ * original row order is retained; only the (usually much smaller) result table is sorted.
+ *
+ * <p>The aggregation operators of all groups are held in memory. If the {@link MemoryAlertSystem} signals low memory
+ * the groups are partitioned by the hash of their group values: half of the groups in memory are discarded and the
+ * rows of these groups (the already processed ones are read again from the input table) are written to a temporary
+ * table, which is aggregated after the remaining input rows. This is repeated with the next hash bit whenever memory
+ * runs low again. As the aggregation operators can't be merged, the temporary tables contain the input rows instead
+ * of partial aggregation results; the rows are kept in their original order, which some operators (e.g. first, last
+ * or list) depend on.
+ *
+ * <p>Call the {@link #getBufferedTable()} method after instance creation to get the grouped table. If the enableHilite
+ * flag was set to <code>true</code> call the {@link #getHiliteMapping()} method to get the row key translation
+ * <code>Map</code>. Call the {@link #getSkippedGroupsByColName()} method to get a <code>Map</code> with all skipped
+ * groups or the {@link #getSkippedGroupsMessage(int, int)} for a appropriate warning message.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public class HashGroupByTable extends GroupByTable {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(HashGroupByTable.class);
+
+    /** Number of bits of the group hash, i.e. the maximal number of times the groups can be partitioned. */
+    private static final int HASH_BITS = Integer.SIZE;
+
+    /**
+     * Constructor for class HashGroupByTable.
+     *
+     * @param exec the <code>ExecutionContext</code>
+     * @param inDataTable the table to aggregate
+     * @param groupByCols the name of all columns to group by
+     * @param colAggregators the aggregation columns with the aggregation method to use in the order the columns
+     *            should be appear in the result table numerical columns
+     * @param globalSettings the global settings
+     * @param enableHilite <code>true</code> if a row key map should be maintained to enable hiliting
+     * @param colNamePolicy the {@link ColumnNamePolicy} for the aggregation columns
+     * @param retainOrder returns the row of the table in the same order as the input table if set to
+     *            <code>true</code>
+     * @throws CanceledExecutionException if the user has canceled the execution
+     */
+    public HashGroupByTable(final ExecutionContext exec, final BufferedDataTable inDataTable,
+        final List<String> groupByCols, final ColumnAggregator[] colAggregators, final GlobalSettings globalSettings,
+        final boolean enableHilite, final ColumnNamePolicy colNamePolicy, final boolean retainOrder)
+        throws CanceledExecutionException {
+        super(exec, inDataTable, groupByCols, colAggregators, globalSettings, enableHilite, colNamePolicy,
+            retainOrder);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected BufferedDataTable createGroupByTable(final ExecutionContext exec, final BufferedDataTable table,
+        final DataTableSpec resultSpec, final int[] groupColIdx) throws CanceledExecutionException {
+        LOGGER.debug("Entering createGroupByTable(exec, table) of class HashGroupByTable.");
+        initMissingValuesMap(); // cannot put init to the constructor, as the super() constructor directly calls the current function
+        // the order is rebuilt by the super class if the original order is retained
+        final boolean sortGroups = !isRetainOrder() && groupColIdx.length > 0;
+        final ExecutionContext groupExec = sortGroups ? exec.createSubExecutionContext(0.8) : exec;
+        final BufferedDataContainer dc = exec.createDataContainer(resultSpec);
+        // the row keys change when sorting, so the hilite mapping of the sorted groups is added afterwards
+        final Map<RowKey, Set<RowKey>> groupHiliteMapping = sortGroups && isEnableHilite() ? new HashMap<>() : null;
+        exec.setMessage("Creating groups");
+        final Aggregation aggregation = new Aggregation(groupExec, table, groupColIdx, dc, groupHiliteMapping);
+        aggregation.aggregate(table, 0);
+        dc.close();
+        final BufferedDataTable groupTable = dc.getTable();
+        if (!sortGroups) {
+            return groupTable;
+        }
+        exec.setMessage("Sorting groups...");
+        final BufferedDataTable sortedTable =
+            sortTable(exec.createSubExecutionContext(0.15), groupTable, getGroupCols());
+        final ExecutionContext rowKeyExec = exec.createSubExecutionContext(0.05);
+        final BufferedDataContainer resultDC = exec.createDataContainer(resultSpec);
+        final double numOfGroups = sortedTable.size();
+        long groupCounter = 0;
+        for (final DataRow row : sortedTable) {
+            rowKeyExec.checkCanceled();
+            final RowKey rowKey = RowKey.createRowKey(groupCounter);
+            resultDC.addRowToTable(new DefaultRow(rowKey, row));
+            if (groupHiliteMapping != null) {
+                addHiliteMapping(rowKey, groupHiliteMapping.get(row.getKey()));
+            }
+            rowKeyExec.setProgress(++groupCounter / numOfGroups);
+        }
+        resultDC.close();
+        if (sortedTable != groupTable) {
+            exec.clearTable(sortedTable);
+        }
+        exec.clearTable(groupTable);
+        return resultDC.getTable();
+    }
+
+    /**
+     * Returns true if the groups in memory must be moved to disc. Overridden in tests to simulate low memory events;
+     * note that it is called while the super class constructor creates the table.
+     *
+     * @param memIndicator the indicator of the aggregation
+     * @param numGroups the number of groups in memory
+     * @return whether the memory is low
+     */
+    boolean isLowMemory(final MemoryActionIndicator memIndicator, final int numGroups) {
+        return memIndicator.lowMemoryActionRequired();
+    }
+
+    /**
+     * @return a copy of the column aggregators
+     */
+    private ColumnAggregator[] cloneColumnAggregators() {
+        final ColumnAggregator[] origAggregators = getColAggregators();
+        final ColumnAggregator[] aggregators = new ColumnAggregator[origAggregators.length];
+        for (int i = 0, length = origAggregators.length; i < length; i++) {
+            aggregators[i] = origAggregators[i].clone();
+        }
+        return aggregators;
+    }
+
+    /**
+     * Returns the well distributed hash of the group values, all bits are used to partition the groups.
+     *
+     * @param key the group values
+     * @return the hash
+     */
+    private static int hash(final GroupKey key) {
+        // finalization step of murmur3
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Returns the temporary table a row belongs to: the rows of the groups kept in memory have all bits of the hash
+     * that were used to partition the groups so far set to 0, the rows of temporary table i have the bits up to i
+     * set to 0 and bit i set to 1.
+     *
+     * @param hash the hash of the group values
+     * @param hashOffset the number of bits that are the same for all rows of the processed table
+     * @param numSplits the number of times the groups were partitioned so far
+     * @return the index of the temporary table or -1 if the group is kept in memory
+     */
+    private static int getSpillIndex(final int hash, final int hashOffset, final int numSplits) {
+        if (numSplits == 0) {
+            return -1;
+        }
+        final int mask = numSplits >= HASH_BITS ? -1 : (1 << numSplits) - 1;
+        final int bits = (hash >>> hashOffset) & mask;
+        return bits == 0 ? -1 : Integer.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * The state of one aggregation, the groups of the input table and of each temporary table are processed
+     * recursively.
+     */
+    private final class Aggregation {
+
+        private final ExecutionContext m_exec;
+
+        private final int[] m_groupColIdx;
+
+        /** Column index of each of the column aggregators. */
+        private final int[] m_aggrColIdx;
+
+        private final BufferedDataContainer m_dc;
+
+        /** Hilite mapping of the groups if the groups are sorted afterwards, otherwise <code>null</code>. */
+        private final Map<RowKey, Set<RowKey>> m_groupHiliteMapping;
+
+        private final MemoryActionIndicator m_memIndicator = MemoryAlertSystem.getInstance().newIndicator();
+
+        private long m_groupCounter;
+
+        private long m_processedRows;
+
+        private long m_expectedRows;
+
+        Aggregation(final ExecutionContext exec, final BufferedDataTable table, final int[] groupColIdx,
+            final BufferedDataContainer dc, final Map<RowKey, Set<RowKey>> groupHiliteMapping) {
+            m_exec = exec;
+            m_groupColIdx = groupColIdx;
+            m_dc = dc;
+            m_groupHiliteMapping = groupHiliteMapping;
+            final DataTableSpec spec = table.getDataTableSpec();
+            final ColumnAggregator[] colAggregators = getColAggregators();
+            m_aggrColIdx = new int[colAggregators.length];
+            for (int i = 0, length = colAggregators.length; i < length; i++) {
+                m_aggrColIdx[i] = spec.findColumnIndex(colAggregators[i].getOriginalColName());
+            }
+            m_expectedRows = table.size();
+        }
+
+        /**
+         * Aggregates all rows of the given table and adds the groups to the result container.
+         *
+         * @param table the input table or a temporary table
+         * @param hashOffset the number of bits of the group hash that are the same for all rows of the table
+         * @throws CanceledExecutionException if the user has canceled the execution
+         */
+        void aggregate(final BufferedDataTable table, final int hashOffset) throws CanceledExecutionException {
+            final Map<GroupKey, Pair<ColumnAggregator[], Set<RowKey>>> groups = new LinkedHashMap<>();
+            final List<BufferedDataContainer> spills = new ArrayList<>();
+            final int maxSplits = HASH_BITS - hashOffset;
+            long rowIndex = 0;
+            try (CloseableRowIterator iter = table.iterator()) {
+                while (iter.hasNext()) {
+                    if (spills.size() < maxSplits && !groups.isEmpty() && isLowMemory(m_memIndicator, groups.size())) {
+                        final int split = spills.size();
+                        final BufferedDataContainer spill =
+                            m_exec.createDataContainer(table.getDataTableSpec(), false);
+                        spills.add(spill);
+                        releaseGroups(groups, hashOffset, split);
+                        spillProcessedRows(table, rowIndex, hashOffset, split, spill);
+                    }
+                    final DataRow row = iter.next();
+                    rowIndex++;
+                    final DataCell[] groupVals = new DataCell[m_groupColIdx.length];
+                    for (int i = 0, length = m_groupColIdx.length; i < length; i++) {
+                        groupVals[i] = row.getCell(m_groupColIdx[i]);
+                    }
+                    final GroupKey groupKey = new GroupKey(groupVals);
+                    final int spillIndex = getSpillIndex(hash(groupKey), hashOffset, spills.size());
+                    if (spillIndex >= 0) {
+                        spills.get(spillIndex).addRowToTable(row);
+                        m_expectedRows++;
+                    } else {
+                        addRow(groups, groupKey, row);
+                    }
+                    m_exec.checkCanceled();
+                    m_exec.setProgress(++m_processedRows / (double)m_expectedRows);
+                }
+            }
+            createTableRows(groups);
+            groups.clear();
+            for (int i = 0, length = spills.size(); i < length; i++) {
+                final BufferedDataContainer spill = spills.get(i);
+                spill.close();
+                final BufferedDataTable spillTable = spill.getTable();
+                if (spillTable.size() > 0) {
+                    aggregate(spillTable, hashOffset + i + 1);
+                }
+                m_exec.clearTable(spillTable);
+            }
+        }
+
+        private void addRow(final Map<GroupKey, Pair<ColumnAggregator[], Set<RowKey>>> groups,
+            final GroupKey groupKey, final DataRow row) {
+            Pair<ColumnAggregator[], Set<RowKey>> member = groups.get(groupKey);
+            if (member == null) {
+                final Set<RowKey> rowKeys = isEnableHilite() ? new HashSet<>() : Collections.emptySet();
+                member = new Pair<>(cloneColumnAggregators(), rowKeys);
+                groups.put(groupKey, member);
+            }
+            final ColumnAggregator[] colAggregators = member.getFirst();
+            for (int i = 0, length = colAggregators.length; i < length; i++) {
+                colAggregators[i].getOperator(getGlobalSettings()).compute(row, m_aggrColIdx[i]);
+            }
+            if (isEnableHilite()) {
+                member.getSecond().add(row.getKey());
+            }
+        }
+
+        /**
+         * Removes the groups that are moved to the temporary table of the given split from memory.
+         */
+        private void releaseGroups(final Map<GroupKey, Pair<ColumnAggregator[], Set<RowKey>>> groups,
+            final int hashOffset, final int split) {
+            final int sizeBefore = groups.size();
+            for (final Iterator<GroupKey> it = groups.keySet().iterator(); it.hasNext();) {
+                if (getSpillIndex(hash(it.next()), hashOffset, split + 1) == split) {
+                    it.remove();
+                }
+            }
+            LOGGER.debugWithFormat("Low memory, moving %d of %d groups to disc (partition level %d)",
+                sizeBefore - groups.size(), sizeBefore, hashOffset + split + 1);
+        }
+
+        /**
+         * Writes the already processed rows of the released groups to the temporary table; they precede all rows
+         * added afterwards in order to retain the row order within each group.
+         */
+        private void spillProcessedRows(final BufferedDataTable table, final long numRows, final int hashOffset,
+            final int split, final BufferedDataContainer spill) throws CanceledExecutionException {
+            long rowIndex = 0;
+            try (CloseableRowIterator iter = table.iterator()) {
+                while (rowIndex < numRows && iter.hasNext()) {
+                    final DataRow row = iter.next();
+                    rowIndex++;
+                    final DataCell[] groupVals = new DataCell[m_groupColIdx.length];
+                    for (int i = 0, length = m_groupColIdx.length; i < length; i++) {
+                        groupVals[i] = row.getCell(m_groupColIdx[i]);
+                    }
+                    if (getSpillIndex(hash(new GroupKey(groupVals)), hashOffset, split + 1) == split) {
+                        spill.addRowToTable(row);
+                        m_expectedRows++;
+                    }
+                    m_exec.checkCanceled();
+                }
+            }
+        }
+
+        /**
+         * Creates and adds the result rows for the given groups to the result container. It also handles the row
+         * key mapping if hilite translation is enabled.
+         */
+        private void createTableRows(final Map<GroupKey, Pair<ColumnAggregator[], Set<RowKey>>> groups) {
+            for (final Entry<GroupKey, Pair<ColumnAggregator[], Set<RowKey>>> e : groups.entrySet()) {
+                final DataCell[] groupVals = e.getKey().getGroupVals();
+                final ColumnAggregator[] colAggregators = e.getValue().getFirst();
+                final RowKey rowKey = RowKey.createRowKey(m_groupCounter++);
+                final DataCell[] rowVals = new DataCell[groupVals.length + colAggregators.length];
+                //add the group values first
+                System.arraycopy(groupVals, 0, rowVals, 0, groupVals.length);
+                int valIdx = groupVals.length;
+                //add the aggregation values
+                for (final ColumnAggregator colAggr : colAggregators) {
+                    final AggregationOperator operator = colAggr.getOperator(getGlobalSettings());
+                    rowVals[valIdx++] = operator.getResult();
+                    if (operator.isSkipped()) {
+                        //add skipped groups and the column that causes the
+                        //skipping into the skipped groups map
+                        addSkippedGroup(colAggr.getOriginalColName(), operator.getSkipMessage(), groupVals);
+                    }
+                    addToMissingValuesMap(colAggr.getOriginalColName(), operator.getMissingValuesCount());
+                }
+                m_dc.addRowToTable(new DefaultRow(rowKey, rowVals));
+                if (m_groupHiliteMapping != null) {
+                    m_groupHiliteMapping.put(rowKey, e.getValue().getSecond());
+                } else if (isEnableHilite()) {
+                    addHiliteMapping(rowKey, e.getValue().getSecond());
+                }
+            }
+        }
+    }
+}
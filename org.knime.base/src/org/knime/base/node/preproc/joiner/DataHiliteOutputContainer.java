@@ -125,7 +125,7 @@ class DataHiliteOutputContainer {
         m_leftSurvivors = leftSurvivors;
         m_rightSurvivors = rightSurvivors;
 
-        m_leftIter = leftTable.iterator();
+        m_leftIter = Joiner.createIterator(leftTable, leftSurvivors);
 
         if (m_leftIter.hasNext()) {
             m_left = m_leftIter.next();
@@ -161,7 +161,7 @@ private void addRow(final DataRow row) {
         if (leftIndex >= 0) {
             if (m_leftIndex > leftIndex) {
                 m_leftIter.close();
-                m_leftIter = m_leftTable.iterator();
+                m_leftIter = Joiner.createIterator(m_leftTable, m_leftSurvivors);
                 m_left = m_leftIter.next();
                 m_leftIndex = 0;
             }
@@ -60,6 +60,9 @@ class JoinTuple {
     /** The cells in the tuple. */
     private DataCell[] m_cells;
 
+    /** The hash code, computed once as tuples are hashed for partitioning and for the hash table. */
+    private final int m_hashCode;
+
     /**
      * Creates a new JoinTuple.
      *
@@ -67,6 +70,44 @@ class JoinTuple {
      */
     public JoinTuple(final DataCell[] cells) {
         m_cells = cells;
+        m_hashCode = cells.length == 1 ? cells[0].hashCode() : Arrays.hashCode(cells);
+    }
+
+    /**
+     * @return true if any of the cells is missing, such a tuple doesn't match any other tuple
+     */
+    boolean containsMissingCell() {
+        for (DataCell cell : m_cells) {
+            if (cell.isMissing()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the cells of this tuple, not to be modified
+     */
+    DataCell[] getCells() {
+        return m_cells;
+    }
+
+    /**
+     * The hash code used to assign the tuple to a partition of the hash join. All bits are well distributed (unlike
+     * {@link #hashCode()} of e.g. sequential integers), so that a partition can be split by taking the next bits into
+     * account.
+     *
+     * @return the partition hash
+     */
+    int partitionHash() {
+        // finalization step of MurmurHash3
+        int h = m_hashCode;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
     }
 
     /**
@@ -74,7 +115,7 @@ public JoinTuple(final DataCell[] cells) {
      */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(m_cells);
+        return m_hashCode;
     }
 
     /**
@@ -91,6 +132,9 @@ public boolean equals(final Object obj) {
             return false;
         }
         JoinTuple that = (JoinTuple)obj;
+        if (this.m_hashCode != that.m_hashCode) {
+            return false;
+        }
         for (int i = 0; i < this.m_cells.length; i++) {
             DataCell thisCell = this.m_cells[i];
             DataCell thatCell = that.m_cells[i];
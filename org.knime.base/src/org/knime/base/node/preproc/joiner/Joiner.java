@@ -47,23 +47,26 @@
  */
 package org.knime.base.node.preproc.joiner;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.stream.IntStream;
 
 import org.knime.base.data.sort.SortedTable;
 import org.knime.base.node.preproc.joiner.Joiner2Settings.CompositionMode;
 import org.knime.base.node.preproc.joiner.Joiner2Settings.DuplicateHandling;
+import org.knime.base.node.preproc.joiner.InputRow.WildCardCell;
 import org.knime.base.node.preproc.joiner.Joiner2Settings.JoinMode;
+import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
@@ -72,11 +75,13 @@
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.RowKey;
 import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.IntCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.util.memory.MemoryAlertSystem;
 import org.knime.core.data.util.memory.MemoryAlertSystem.MemoryActionIndicator;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -111,12 +116,18 @@ public final class Joiner {
      */
     private boolean m_matchAny;
 
+    /** The row indices of the left table that match a row of the right table. */
+    private BitSet m_leftMatches;
+
     /**
-     * This field is only used when (m_retainLeft && m_matchAny) is true. It
-     * holds the row indices of the left table that did not match to a row
-     * of the right table.
+     * The row indices of the right table that match a row of the left table,
+     * only used by the partitioned join when m_matchAny is true.
      */
-    private Set<Integer> m_globalLeftOuterJoins;
+    private BitSet m_rightMatches;
+
+    /** Rows processed and expected to be processed, to report progress. */
+    private long m_processedRows;
+    private long m_expectedRows;
 
     private InputRow.Settings m_inputDataRowSettings;
     private OutputRow.Settings m_outputDataRowSettings;
@@ -131,12 +142,9 @@ public final class Joiner {
     private final List<String> m_configWarnings;
     private final List<String> m_runtimeWarnings;
 
-    private int m_numBits;
-    private int m_bitMask;
-
-    /** The initial number of partitions the rows are read in. If not all
-     * partitions fit in main memory, they are joined subsequently using as
-     * much memory as possible.
+    /** The initial number of partitions is 2^m_numBitsInitial when the
+     * join tuples of the left table don't fit into main memory and both
+     * tables are partitioned. Partitions that still don't fit are split.
      */
     private int m_numBitsInitial = 6;
     /** The maximal number of partitions (changed in testing routines). */
@@ -505,14 +513,6 @@ public BufferedDataTable computeJoinTable(
             .equals(CompositionMode.MatchAny)
             && m_settings.getLeftJoinColumns().length > 1;
 
-        if (m_retainLeft && m_matchAny) {
-            m_globalLeftOuterJoins = new HashSet<Integer>();
-            for (int i = 0; i < leftTable.getRowCount(); i++) {
-                m_globalLeftOuterJoins.add(i);
-            }
-        }
-
-
         m_inputDataRowSettings = createInputDataRowSettings(leftTable,
                 rightTable);
         int[] rightSurvivors = getIndicesOf(rightTable, m_rightSurvivors);
@@ -520,50 +520,28 @@ public BufferedDataTable computeJoinTable(
                 rightTable.getDataTableSpec(),
                 rightSurvivors);
 
-        /* numBits -> numPartitions
-         * 0 -> 1
-         * 1 -> 2
-         * 2 -> 4
-         * 3 -> 8
-         * 4 -> 16
-         * 5 -> 32
-         * 6 -> 64
-         * 7 -> 128
-         */
-        m_numBits = m_numBitsInitial;
-        int numPartitions = 0x0001 << m_numBits;
-        m_bitMask = 0;
-        for (int i = 0; i < m_numBits; i++) {
-            m_bitMask += 0x0001 << i;
-        }
-
-        Set<Integer> pendingParts = new TreeSet<Integer>();
-        for (int i = 0; i < numPartitions; i++) {
-            pendingParts.add(i);
-        }
-
-
         JoinContainer joinCont = new JoinContainer(
                 m_outputDataRowSettings);
 
         double[] progressIntervals = new double[] {0.6, 0.2, 0.2};
         exec.setProgress(0.0);
-        while (pendingParts.size() > 0) {
-            Collection<Integer> processedParts = performJoin(
-                    innerTable, outerTable,
-                    joinCont, pendingParts, exec, progressIntervals[0]);
-            pendingParts.removeAll(processedParts);
+        ExecutionContext joinExec =
+            exec.createSubExecutionContext(progressIntervals[0]);
+        m_leftMatches = new BitSet();
+        m_rightMatches = new BitSet();
+        if (!joinInMemory(leftTable, rightTable, joinCont, joinExec)) {
+            joinPartitioned(leftTable, rightTable, joinCont, joinExec);
         }
 
-
-        if (m_retainLeft && m_matchAny) {
+        if (m_retainLeft) {
             // Add left outer joins
-            int c = 0;
-            for (Integer index : m_globalLeftOuterJoins) {
-                DataRow outRow = OutputRow.createDataRow(c, index, -1,
+            long numLeftRows = leftTable.size();
+            for (int index = m_leftMatches.nextClearBit(0); index < numLeftRows;
+                    index = m_leftMatches.nextClearBit(index + 1)) {
+                DataRow outRow = OutputRow.createDataRow(
+                        joinCont.getRowCount(), index, -1,
                         m_outputDataRowSettings);
                 joinCont.addLeftOuter(outRow, exec);
-                c++;
             }
         }
         joinCont.close();
@@ -618,375 +596,608 @@ public BufferedDataTable computeJoinTable(
         return oc.getTable();
     }
 
-    /** This method start with reading the partitions of the left table defined
-     * in currParts. If memory is low, partitions will be skipped or the
-     * number of partitions will be raised which leads to smaller partitions.
-     * Successfully read partitions will be joined. The return collection
-     * defines the successfully processed partitions.
+    /**
+     * Joins the tables with the join tuples of the left table held in a
+     * single hash table, which needs only one pass over each of the tables.
+     * Gives up (before any output is produced) if memory gets low while
+     * reading the left table.
      *
-     * @param leftTable The inner input table.
+     * @param leftTable The left input table.
      * @param rightTable The right input table.
-     * @param outputContainer The container used for storing matches.
-     * @param pendingParts The parts that are not processed yet.
+     * @param outputCont The joined rows will be added to this container.
      * @param exec The execution context.
-     * @param progressDiff The difference in the progress monitor.
-     * @return The partitions that were successfully processed (read + joined).
+     * @return true if the tables were joined, false if the join tuples of
+     * the left table don't fit into memory
      * @throws CanceledExecutionException when execution is canceled
      */
-    private Collection<Integer> performJoin(
-            final BufferedDataTable leftTable,
+    private boolean joinInMemory(final BufferedDataTable leftTable,
             final BufferedDataTable rightTable,
-            final JoinContainer outputContainer,
-            final Collection<Integer> pendingParts,
-            final ExecutionContext exec,
-            final double progressDiff) throws CanceledExecutionException  {
-        // Update increment for reporting progress
-        double progress = exec.getProgressMonitor().getProgress();
-        double numRows = leftTable.size() + rightTable.size();
-        double inc = (progressDiff - progress) / numRows;
-
-        Collection<Integer> currParts = new ArrayList<Integer>();
-        currParts.addAll(pendingParts);
-        setMessage("Read", exec, pendingParts, currParts);
-
-        // Partition left table
-        Map <Integer, Map<JoinTuple, Set<Integer>>> leftTableHashed =
-            new HashMap<Integer, Map<JoinTuple, Set<Integer>>>();
-        // This is only used when m_leftRetain is true and m_matchAny is false.
-        // It holds the row indices of the left table that do not match to
-        // any row of the right table
-        Map <Integer, Set<Integer>> leftOuterJoins =
-            new HashMap<Integer, Set<Integer>>();
-
-        MemoryActionIndicator memIndicator = MemoryAlertSystem.getInstance().newIndicator();
-
+            final JoinContainer outputCont,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        m_processedRows = 0;
+        m_expectedRows = Math.max(1, leftTable.size() + rightTable.size());
+        exec.setMessage("Read top table");
+
+        Map<JoinTuple, List<Integer>> leftTuples =
+            new HashMap<JoinTuple, List<Integer>>();
+        MemoryActionIndicator memIndicator =
+            MemoryAlertSystem.getInstance().newIndicator();
         int counter = 0;
-        long rowsAdded = 0;
-        CloseableRowIterator leftIter = leftTable.iterator();
-        while (leftIter.hasNext()) {
-            exec.checkCanceled();
-            boolean saveToAddMoreRows =
-                !memIndicator.lowMemoryActionRequired()
-                    && ((m_rowsAddedBeforeForcedOOM == 0)
-                            || (rowsAdded % m_rowsAddedBeforeForcedOOM != (m_rowsAddedBeforeForcedOOM - 1)));
-
-            if (saveToAddMoreRows) {
-                DataRow row = leftIter.next();
-                InputRow inputDataRow = new InputRow(row, counter,
-                        InputRow.Settings.InDataPort.Left,
+        // only the join columns are needed to build the hash table
+        try (CloseableRowIterator leftIter = createIterator(leftTable,
+                toIntArray(getLeftJoinIndices(leftTable)))) {
+            while (leftIter.hasNext()) {
+                reportProgress(exec);
+                if (isMemoryLow(memIndicator, counter)) {
+                    LOGGER.debug("Memory is low after reading " + counter
+                        + " rows of the top table, continue with "
+                        + "partitioned join.");
+                    return false;
+                }
+                InputRow inputDataRow = new InputRow(leftIter.next(),
+                        counter, InputRow.Settings.InDataPort.Left,
                         m_inputDataRowSettings);
-
                 for (JoinTuple tuple : inputDataRow.getJoinTuples()) {
-                    int partition = tuple.hashCode() & m_bitMask;
-                    if (currParts.contains(partition)) {
-                        addRow(leftTableHashed, leftOuterJoins,
-                                partition, tuple, inputDataRow);
-                        rowsAdded++;
+                    if (!tuple.containsMissingCell()) {
+                        addTuple(leftTuples, tuple, counter);
                     }
                 }
                 counter++;
-                // report progress
-                progress += inc;
-                exec.getProgressMonitor().setProgress(progress);
-            } else {
-                rowsAdded++;
+            }
+        }
 
-                // Build list of partitions that are not empty
-                List<Integer> nonEmptyPartitions = new ArrayList<Integer>();
-                for (Integer i : currParts) {
-                    if (null != leftTableHashed.get(i)) {
-                        nonEmptyPartitions.add(i);
-                    }
-                }
-                int numNonEmpty = nonEmptyPartitions.size();
-                if (numNonEmpty > 1) {
-                    // remove input partitions to free memory
-                    List<Integer> removeParts = new ArrayList<Integer>();
-                    for (int i = 0; i < numNonEmpty / 2; i++) {
-                        removeParts.add(nonEmptyPartitions.get(i));
-                    }
-                    // remove collected data of the no longer processed
-                    for (int i : removeParts) {
-                        leftTableHashed.remove(i);
-                        if (m_retainLeft && !m_matchAny) {
-                            leftOuterJoins.remove(i);
+        exec.setMessage("Join with bottom table");
+        counter = 0;
+        try (CloseableRowIterator rightIter = createIterator(rightTable,
+                getRightReadIndices(rightTable))) {
+            while (rightIter.hasNext()) {
+                reportProgress(exec);
+                DataRow dataRow = rightIter.next();
+                InputRow rightRow = new InputRow(dataRow, counter,
+                        InputRow.Settings.InDataPort.Right,
+                        m_inputDataRowSettings);
+
+                boolean matchFoundForRightRow = false;
+                for (JoinTuple joinTuple : rightRow.getJoinTuples()) {
+                    List<Integer> leftRows = leftTuples.get(joinTuple);
+                    if (null != leftRows) {
+                        matchFoundForRightRow = true;
+                        for (int leftRowIndex : leftRows) {
+                            // add inner join
+                            DataRow outRow = OutputRow.createDataRow(
+                                    outputCont.getRowCount(),
+                                    leftRowIndex, counter,
+                                    dataRow,
+                                    m_outputDataRowSettings);
+                            outputCont.addMatch(outRow, exec);
+                            m_leftMatches.set(leftRowIndex);
                         }
                     }
-                    currParts.removeAll(removeParts);
-                    LOGGER.debug("Skip partitions while "
-                            + "reading inner table. Currently Processed: "
-                            + currParts + ". Skip: " + removeParts);
-                    // update increment for reporting progress
-                    numRows += leftTable.size() + rightTable.size();
-                    inc = (progressDiff - progress) / numRows;
-
-                    setMessage("Read", exec, pendingParts, currParts);
-                } else if (nonEmptyPartitions.size() == 1) {
-                    if (m_numBits < m_numBitsMaximal) {
-                        LOGGER.debug("Increase number of partitions while "
-                                + "reading inner table. Currently "
-                                + "Processed: " + nonEmptyPartitions);
-
-                        // increase number of partitions
-                        m_numBits = m_numBits + 1;
-                        m_bitMask = m_bitMask | (0x0001 << (m_numBits - 1));
-                        Set<Integer> pending = new TreeSet<Integer>();
-                        pending.addAll(pendingParts);
-                        pendingParts.clear();
-                        for (int i : pending) {
-                            pendingParts.add(i);
-                            int ii = i | (0x0001 << (m_numBits - 1));
-                            pendingParts.add(ii);
-                        }
+                }
 
-                        int currPart = nonEmptyPartitions.iterator().next();
-                        currParts.clear();
-                        currParts.add(currPart);
-                        // update chunk size
-                        retainPartitions(leftTableHashed, leftOuterJoins,
-                                currPart);
-                        // update increment for reporting progress
-                        numRows += leftTable.size() + rightTable.size();
-                        inc = (progressDiff - progress) / numRows;
-
-                        setMessage("Read", exec, pendingParts, currParts);
-                    } else {
-                        // We have now 2^32 partitions.
-                        // We can only keep going and hope that other nodes
-                        // may free some memory.
-                        LOGGER.warn("Memory is low. "
-                            + "I have no chance to free memory. This may "
-                            + "cause an endless loop.");
-                    }
-                } else if (nonEmptyPartitions.size() < 1) {
-                    // We have only empty partitions.
-                    // Other node consume to much memory,
-                    // we cannot free more memory
-                    LOGGER.warn("Memory is low. "
-                            + "I have no chance to free memory. This may "
-                            + "cause an endless loop.");
+                if (m_retainRight && !matchFoundForRightRow) {
+                    // add right outer join
+                    DataRow outRow = OutputRow.createDataRow(
+                            outputCont.getRowCount(),
+                            -1, counter,
+                            dataRow,
+                            m_outputDataRowSettings);
+                    outputCont.addRightOuter(outRow, exec);
                 }
+                counter++;
             }
         }
+        return true;
+    }
 
-        setMessage("Join", exec, pendingParts, currParts);
-        // Join with outer table
-        joinInMemory(leftTableHashed, leftOuterJoins,
-                currParts, rightTable,
-                outputContainer,
-                exec, inc);
+    /**
+     * Joins the tables as a (hybrid) Grace hash join: Both tables are read
+     * once and their join tuples are written to partitions defined by the
+     * lower bits of the tuples' hash. The pairs of partitions of the left
+     * and right table are then joined in memory, one after the other. A
+     * partition whose left tuples don't fit into memory is split again
+     * using the next bits of the hash. Small partitions are not written to
+     * disc as the containers keep them in memory.
+     *
+     * @param leftTable The left input table.
+     * @param rightTable The right input table.
+     * @param outputCont The joined rows will be added to this container.
+     * @param exec The execution context.
+     * @throws CanceledExecutionException when execution is canceled
+     */
+    private void joinPartitioned(final BufferedDataTable leftTable,
+            final BufferedDataTable rightTable,
+            final JoinContainer outputCont,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        m_processedRows = 0;
+        // each row is written to and read from a partition at least once
+        m_expectedRows =
+            Math.max(1, 2 * (leftTable.size() + rightTable.size()));
+        int numBits = Math.min(Math.min(m_numBitsInitial, getMaxSplitBits()),
+            m_numBitsMaximal);
+
+        exec.setMessage("Partition top table");
+        BufferedDataTable[] leftParts =
+            writeLeftPartitions(leftTable, numBits, exec);
+        exec.setMessage("Partition bottom table");
+        BufferedDataTable[] rightParts = writeRightPartitions(rightTable,
+            numBits, outputCont, exec);
+
+        Deque<Partition> pendingParts = new ArrayDeque<Partition>();
+        addPartitions(pendingParts, leftParts, rightParts, numBits,
+            Long.MAX_VALUE, exec);
+        while (!pendingParts.isEmpty()) {
+            exec.setMessage("Join partitions | Pending: "
+                + pendingParts.size() + " parts");
+            joinPartition(pendingParts.pop(), pendingParts, outputCont, exec);
+        }
 
+        if (m_retainRight && m_matchAny) {
+            // the tuples of a row are spread over several partitions, hence
+            // right outer joins are determined once all partitions are joined
+            exec.setMessage("Add right outer joins");
+            int counter = 0;
+            try (CloseableRowIterator rightIter = createIterator(rightTable,
+                    getRightReadIndices(rightTable))) {
+                while (rightIter.hasNext()) {
+                    exec.checkCanceled();
+                    DataRow dataRow = rightIter.next();
+                    if (!m_rightMatches.get(counter)) {
+                        DataRow outRow = OutputRow.createDataRow(
+                                outputCont.getRowCount(),
+                                -1, counter,
+                                dataRow,
+                                m_outputDataRowSettings);
+                        outputCont.addRightOuter(outRow, exec);
+                    }
+                    counter++;
+                }
+            }
+        }
+    }
 
-        // Log which parts were successfully joined
-        for (int part : currParts) {
-            int numTuples = leftTableHashed.get(part) != null
-            ? leftTableHashed.get(part).values().size() : 0;
-            LOGGER.debug("Joined " + part + " with "
-                    + numTuples + " tuples.");
+    /**
+     * Reads the left tuples of the partition into memory and joins them
+     * with the right tuples of the partition. If memory gets low, the
+     * partition is split into smaller ones, which are added to the pending
+     * partitions instead.
+     *
+     * @param part The partition to join.
+     * @param pendingParts The partitions that are not processed yet.
+     * @param outputCont The joined rows will be added to this container.
+     * @param exec The execution context.
+     * @throws CanceledExecutionException when execution is canceled
+     */
+    private void joinPartition(final Partition part,
+            final Deque<Partition> pendingParts,
+            final JoinContainer outputCont,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        final boolean canSplit =
+            part.m_isSplittable && part.m_numBits < m_numBitsMaximal;
+        Map<JoinTuple, List<Integer>> leftTuples =
+            new HashMap<JoinTuple, List<Integer>>();
+        MemoryActionIndicator memIndicator =
+            MemoryAlertSystem.getInstance().newIndicator();
+        long rowsAdded = 0;
+        boolean isMemoryLowReported = false;
+        try (CloseableRowIterator leftIter = part.m_left.iterator()) {
+            while (leftIter.hasNext()) {
+                reportProgress(exec);
+                if (isMemoryLow(memIndicator, rowsAdded)) {
+                    if (canSplit && rowsAdded > 0) {
+                        leftTuples.clear();
+                        splitPartition(part, pendingParts, exec);
+                        return;
+                    } else if (!isMemoryLowReported) {
+                        LOGGER.debug("Memory is low, but partition with "
+                            + part.m_left.size() + " tuples can't be split"
+                            + " any further.");
+                        isMemoryLowReported = true;
+                    }
+                }
+                DataRow row = leftIter.next();
+                addTuple(leftTuples, readTuple(row, 0), readIndex(row, 0));
+                rowsAdded++;
+            }
         }
 
-        // Garbage collector has problems without this explicit clearance.
-        leftTableHashed.clear();
-        leftOuterJoins.clear();
+        final int rightKeyOffset = getRightKeyOffset();
+        try (CloseableRowIterator rightIter = part.m_right.iterator()) {
+            while (rightIter.hasNext()) {
+                reportProgress(exec);
+                DataRow row = rightIter.next();
+                int rightIndex = readIndex(row, rightKeyOffset);
+                List<Integer> leftRows =
+                    leftTuples.get(readTuple(row, rightKeyOffset));
+                if (null != leftRows) {
+                    for (int leftRowIndex : leftRows) {
+                        // add inner join
+                        DataRow outRow = OutputRow.createDataRowFromPartition(
+                                outputCont.getRowCount(),
+                                leftRowIndex, rightIndex,
+                                row,
+                                m_outputDataRowSettings);
+                        outputCont.addMatch(outRow, exec);
+                        m_leftMatches.set(leftRowIndex);
+                    }
+                    m_rightMatches.set(rightIndex);
+                } else if (m_retainRight && !m_matchAny) {
+                    // add right outer join (a row has only one tuple)
+                    DataRow outRow = OutputRow.createDataRowFromPartition(
+                            outputCont.getRowCount(),
+                            -1, rightIndex,
+                            row,
+                            m_outputDataRowSettings);
+                    outputCont.addRightOuter(outRow, exec);
+                }
+            }
+        }
+        LOGGER.debug("Joined partition with " + rowsAdded + " tuples.");
+        exec.clearTable(part.m_left);
+        exec.clearTable(part.m_right);
+    }
 
-        // return successfully joined parts
-        return currParts;
+    /**
+     * Splits the partition using the next bits of the partition hash and
+     * adds the new partitions to the pending partitions.
+     */
+    private void splitPartition(final Partition part,
+            final Deque<Partition> pendingParts,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        final int numBits =
+            Math.min(getMaxSplitBits(), m_numBitsMaximal - part.m_numBits);
+        final long leftSize = part.m_left.size();
+        final long rightSize = part.m_right.size();
+        LOGGER.debug("Memory is low, split partition with " + leftSize
+            + " tuples into " + (1 << numBits) + " parts.");
+        // the partition is read once more and written and read again
+        m_expectedRows += 2 * (leftSize + rightSize);
+        BufferedDataTable[] leftParts =
+            splitTable(part.m_left, 0, part.m_numBits, numBits, exec);
+        BufferedDataTable[] rightParts = splitTable(part.m_right,
+            getRightKeyOffset(), part.m_numBits, numBits, exec);
+        exec.clearTable(part.m_left);
+        exec.clearTable(part.m_right);
+        addPartitions(pendingParts, leftParts, rightParts,
+            part.m_numBits + numBits, leftSize, exec);
     }
 
     /**
-     * @param exec
-     * @param pendingParts
-     * @param currParts
+     * Adds the pairs of partitions that can produce output to the pending
+     * partitions, the others are cleared.
+     *
+     * @param parentLeftSize the number of left tuples of the partition
+     * that was split, a new partition holding all of them is not split again
      */
-    private void setMessage(final String activity,
-            final ExecutionContext exec,
-            final Collection<Integer> pendingParts,
-            final Collection<Integer> currParts) {
-        exec.setMessage(activity + " " + currParts.size()
-                + " parts | Pending : "
-                + (pendingParts.size() - currParts.size())
-                + " parts | Total: "
-                + (1 << m_numBits)
-                + " parts.");
+    private void addPartitions(final Deque<Partition> pendingParts,
+            final BufferedDataTable[] leftParts,
+            final BufferedDataTable[] rightParts, final int numBits,
+            final long parentLeftSize, final ExecutionContext exec) {
+        for (int i = 0; i < leftParts.length; i++) {
+            final long leftSize = leftParts[i].size();
+            final long rightSize = rightParts[i].size();
+            // right rows of a partition without left tuples are only of
+            // interest for right outer joins
+            if (rightSize == 0 || (leftSize == 0
+                    && !(m_retainRight && !m_matchAny))) {
+                m_processedRows += leftSize + rightSize;
+                exec.clearTable(leftParts[i]);
+                exec.clearTable(rightParts[i]);
+            } else {
+                pendingParts.push(new Partition(leftParts[i], rightParts[i],
+                    numBits, leftSize < parentLeftSize));
+            }
+        }
     }
 
     /**
-     * Called when the number of partitions is doubled. The innerHash is
-     * traversed and only those entries that are in the given part are
-     * retained. The innerIndexMap is build up so that it contains only
-     * the entries that are in the given part.
+     * Reads the join columns of the left table and writes its join tuples
+     * to the partitions defined by the lower bits of their hash.
      */
-    private void retainPartitions(
-            final Map<Integer, Map<JoinTuple, Set<Integer>>> innerHash,
-            final Map<Integer, Set<Integer>> innerIndexMap,
-            final int part) {
-        innerIndexMap.clear();
-
-        Map<JoinTuple, Set<Integer>> thisInnerHash = innerHash.get(part);
-        for (Iterator<JoinTuple> iter = thisInnerHash.keySet().iterator();
-        iter.hasNext();) {
-            JoinTuple tuple = iter.next();
-            int index = tuple.hashCode() & m_bitMask;
-            if (index != part) {
-                iter.remove();
-            } else if (m_retainLeft && !m_matchAny) {
-                Set<Integer> thisInnerIndexMap = innerIndexMap.get(index);
-                if (null == thisInnerIndexMap) {
-                    thisInnerIndexMap = new HashSet<Integer>();
-                    innerIndexMap.put(index, thisInnerIndexMap);
+    private BufferedDataTable[] writeLeftPartitions(
+            final BufferedDataTable leftTable, final int numBits,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        List<Integer> joinIndices = getLeftJoinIndices(leftTable);
+        DataTableSpec spec = createPartitionSpec(new DataType[0],
+            leftTable.getDataTableSpec(), joinIndices);
+        BufferedDataContainer[] containers =
+            createPartitionContainers(spec, numBits, exec);
+        final DataCell[] prefix = new DataCell[0];
+        int counter = 0;
+        try (CloseableRowIterator leftIter = createIterator(leftTable,
+                toIntArray(joinIndices))) {
+            while (leftIter.hasNext()) {
+                reportProgress(exec);
+                InputRow inputDataRow = new InputRow(leftIter.next(),
+                        counter, InputRow.Settings.InDataPort.Left,
+                        m_inputDataRowSettings);
+                JoinTuple[] tuples = inputDataRow.getJoinTuples();
+                for (int i = 0; i < tuples.length; i++) {
+                    // tuples with missing cells never match, rows without
+                    // matches are found via m_leftMatches
+                    if (!tuples[i].containsMissingCell()) {
+                        BufferedDataContainer cont =
+                            containers[getPartition(tuples[i], 0, numBits)];
+                        cont.addRowToTable(createPartitionRow(cont.size(),
+                            prefix, tuples[i], i, counter));
+                    }
                 }
-                for (Integer rowIndex : thisInnerHash.get(tuple)) {
-                    thisInnerIndexMap.add(rowIndex);
+                counter++;
+            }
+        }
+        return closePartitionContainers(containers);
+    }
+
+    /**
+     * Reads the right table and writes its join tuples along with the
+     * survivors and the row ID of the row to the partitions defined by the
+     * lower bits of the tuples' hash.
+     */
+    private BufferedDataTable[] writeRightPartitions(
+            final BufferedDataTable rightTable, final int numBits,
+            final JoinContainer outputCont, final ExecutionContext exec)
+            throws CanceledExecutionException {
+        int[] survivors = m_outputDataRowSettings.getSurvivors();
+        DataTableSpec outputSpec = m_outputDataRowSettings.getSpec();
+        DataType[] prefixTypes = new DataType[survivors.length + 1];
+        for (int i = 0; i < prefixTypes.length; i++) {
+            prefixTypes[i] = outputSpec.getColumnSpec(i).getType();
+        }
+        DataTableSpec spec = createPartitionSpec(prefixTypes,
+            rightTable.getDataTableSpec(), getRightJoinIndices(rightTable));
+        BufferedDataContainer[] containers =
+            createPartitionContainers(spec, numBits, exec);
+        int counter = 0;
+        try (CloseableRowIterator rightIter = createIterator(rightTable,
+                getRightReadIndices(rightTable))) {
+            while (rightIter.hasNext()) {
+                reportProgress(exec);
+                DataRow dataRow = rightIter.next();
+                InputRow rightRow = new InputRow(dataRow, counter,
+                        InputRow.Settings.InDataPort.Right,
+                        m_inputDataRowSettings);
+                JoinTuple[] tuples = rightRow.getJoinTuples();
+                DataCell[] prefix = null;
+                for (int i = 0; i < tuples.length; i++) {
+                    if (tuples[i].containsMissingCell()) {
+                        if (m_retainRight && !m_matchAny) {
+                            // add right outer join
+                            DataRow outRow = OutputRow.createDataRow(
+                                    outputCont.getRowCount(),
+                                    -1, counter,
+                                    dataRow,
+                                    m_outputDataRowSettings);
+                            outputCont.addRightOuter(outRow, exec);
+                        }
+                        continue;
+                    }
+                    if (null == prefix) {
+                        prefix = new DataCell[survivors.length + 1];
+                        for (int k = 0; k < survivors.length; k++) {
+                            prefix[k] = dataRow.getCell(survivors[k]);
+                        }
+                        prefix[survivors.length] =
+                            new StringCell(dataRow.getKey().getString());
+                    }
+                    BufferedDataContainer cont =
+                        containers[getPartition(tuples[i], 0, numBits)];
+                    cont.addRowToTable(createPartitionRow(cont.size(),
+                        prefix, tuples[i], i, counter));
                 }
+                counter++;
             }
         }
+        return closePartitionContainers(containers);
     }
 
     /**
-     * Add a row to innerHash and innerIndexMap.
-     * @param partition The index of the partition.
-     * @param joinTuple The join tuples of the row.
-     * @param row The row to be added.
+     * Copies the rows of a partition into new partitions defined by the
+     * next bits of the hash of their join tuples.
      */
-    private void addRow(
-            final Map <Integer, Map<JoinTuple, Set<Integer>>> leftTableHashed,
-            final Map <Integer, Set<Integer>> leftOuterJoins,
-            final int partition, final JoinTuple joinTuple,
-            final InputRow row) {
-        if (m_retainLeft  && !m_matchAny) {
-            Set<Integer> indices = leftOuterJoins.get(partition);
-            if (null == indices) {
-                indices = new HashSet<Integer>();
-                leftOuterJoins.put(partition, indices);
+    private BufferedDataTable[] splitTable(final BufferedDataTable table,
+            final int keyOffset, final int usedBits, final int numBits,
+            final ExecutionContext exec) throws CanceledExecutionException {
+        BufferedDataContainer[] containers = createPartitionContainers(
+            table.getDataTableSpec(), numBits, exec);
+        try (CloseableRowIterator iter = table.iterator()) {
+            while (iter.hasNext()) {
+                reportProgress(exec);
+                DataRow row = iter.next();
+                // row IDs are unique in the new partitions, too
+                containers[getPartition(readTuple(row, keyOffset), usedBits,
+                    numBits)].addRowToTable(row);
             }
-            indices.add(row.getIndex());
         }
+        return closePartitionContainers(containers);
+    }
 
-        Map<JoinTuple, Set<Integer>> partTuples =
-            leftTableHashed.get(partition);
-        if (null == partTuples) {
-            partTuples = new HashMap<JoinTuple, Set<Integer>>();
-            leftTableHashed.put(partition, partTuples);
+    /**
+     * Creates the spec of the partitions, which hold the given prefix
+     * columns followed by the cells of a join tuple, its position (only
+     * used for match any) and the index of the input row.
+     */
+    private static DataTableSpec createPartitionSpec(
+            final DataType[] prefixTypes, final DataTableSpec inputSpec,
+            final List<Integer> joinIndices) {
+        DataColumnSpec[] cspec =
+            new DataColumnSpec[prefixTypes.length + joinIndices.size() + 2];
+        Integer c = 0;
+        for (DataType type : prefixTypes) {
+            cspec[c] = new DataColumnSpecCreator(c.toString(), type)
+                .createSpec();
+            c++;
+        }
+        for (int index : joinIndices) {
+            DataType type = index >= 0
+                ? inputSpec.getColumnSpec(index).getType() : StringCell.TYPE;
+            cspec[c] = new DataColumnSpecCreator(c.toString(), type)
+                .createSpec();
+            c++;
         }
+        cspec[c] = new DataColumnSpecCreator(c.toString(), IntCell.TYPE)
+            .createSpec();
+        c++;
+        cspec[c] = new DataColumnSpecCreator(c.toString(), IntCell.TYPE)
+            .createSpec();
+        return new DataTableSpec(cspec);
+    }
 
+    private static BufferedDataContainer[] createPartitionContainers(
+            final DataTableSpec spec, final int numBits,
+            final ExecutionContext exec) {
+        BufferedDataContainer[] containers =
+            new BufferedDataContainer[1 << numBits];
+        for (int i = 0; i < containers.length; i++) {
+            containers[i] = exec.createDataContainer(spec, false);
+        }
+        return containers;
+    }
 
-        Set<Integer> c = partTuples.get(joinTuple);
-        if (null != c) {
-            c.add(row.getIndex());
-        } else {
-            Set<Integer> list = new HashSet<Integer>();
-            list.add(row.getIndex());
-            partTuples.put(joinTuple, list);
+    private static BufferedDataTable[] closePartitionContainers(
+            final BufferedDataContainer[] containers) {
+        BufferedDataTable[] tables = new BufferedDataTable[containers.length];
+        for (int i = 0; i < containers.length; i++) {
+            containers[i].close();
+            tables[i] = containers[i].getTable();
         }
+        return tables;
+    }
 
+    private static DataRow createPartitionRow(final long rowIndex,
+            final DataCell[] prefix, final JoinTuple tuple,
+            final int position, final int index) {
+        DataCell[] tupleCells = tuple.getCells();
+        DataCell[] cells =
+            new DataCell[prefix.length + tupleCells.length + 2];
+        System.arraycopy(prefix, 0, cells, 0, prefix.length);
+        int c = prefix.length;
+        for (DataCell cell : tupleCells) {
+            cells[c] = cell instanceof WildCardCell
+                ? DataType.getMissingCell() : cell;
+            c++;
+        }
+        cells[c] = new IntCell(position);
+        c++;
+        cells[c] = new IntCell(index);
+        return new DefaultRow(RowKey.createRowKey(rowIndex), cells);
+    }
 
+    /**
+     * Restores the join tuple from a row of a partition.
+     *
+     * @param row The row of the partition.
+     * @param keyOffset The index of the first cell of the tuple.
+     * @return The join tuple.
+     */
+    private JoinTuple readTuple(final DataRow row, final int keyOffset) {
+        int numJoinAttributes = m_settings.getLeftJoinColumns().length;
+        DataCell[] cells = new DataCell[numJoinAttributes];
+        if (m_matchAny) {
+            Arrays.fill(cells, WildCardCell.getDefault());
+            int position = ((IntCell)row.getCell(
+                keyOffset + numJoinAttributes)).getIntValue();
+            cells[position] = row.getCell(keyOffset + position);
+        } else {
+            for (int i = 0; i < numJoinAttributes; i++) {
+                cells[i] = row.getCell(keyOffset + i);
+            }
+        }
+        return new JoinTuple(cells);
     }
 
+    /**
+     * @return The index of the input row of a row of a partition.
+     */
+    private int readIndex(final DataRow row, final int keyOffset) {
+        return ((IntCell)row.getCell(keyOffset
+            + m_settings.getLeftJoinColumns().length + 1)).getIntValue();
+    }
 
     /**
-     * Join given rows in memory and append joined row to the outputCont.
-     *
-     * @param leftTableHashed Stores the rows of the left input table in parts.
-     * @param leftOuterJoins The same number as found in leftTableHashed used
-     * for left outer joins.
-     * @param currParts The parts of the outer table that will be joined.
-     * @param rightTable The outer table.
-     * @param outputCont The joined rows will be added to this container.
-     * @param exec The {@link ExecutionContext}
-     * @param incProgress The progress increment.
-     * @throws CanceledExecutionException When execution is canceled
+     * @return The index of the first tuple cell in rows of partitions of the
+     * right table (after the survivors and the row ID).
      */
-    private void joinInMemory(
-            final Map <Integer, Map<JoinTuple, Set<Integer>>> leftTableHashed,
-            final Map <Integer, Set<Integer>> leftOuterJoins,
-            final Collection<Integer> currParts,
-            final BufferedDataTable rightTable,
-            final JoinContainer outputCont,
-            final ExecutionContext exec,
-            final double incProgress) throws CanceledExecutionException {
-        double progress = exec.getProgressMonitor().getProgress();
-        int counter = 0;
-        for (DataRow dataRow : rightTable) {
-            progress += incProgress;
-            exec.getProgressMonitor().setProgress(progress);
-            exec.checkCanceled();
-
-            InputRow rightRow = new InputRow(dataRow, counter,
-                    InputRow.Settings.InDataPort.Right,
-                    m_inputDataRowSettings);
-
-            boolean matchFoundForRightRow = false;
-            boolean deferMatch = false;
-
-            for (JoinTuple joinTuple : rightRow.getJoinTuples()) {
-                int partition = joinTuple.hashCode() & m_bitMask;
-                if (!currParts.contains(partition)) {
-                    deferMatch = true;
-                    // skip and defer non-match when partition is not in the current partitions
-                    continue;
-                }
+    private int getRightKeyOffset() {
+        return m_outputDataRowSettings.getSurvivors().length + 1;
+    }
 
-                Map<JoinTuple, Set<Integer>> leftTuples =
-                    leftTableHashed.get(partition);
-                if (null == leftTuples) {
-                    // skip and check for outer join when the left table does not have rows that fall
-                    // in this partition
-                    deferMatch = false;
-                    continue;
-                }
+    /**
+     * @return The partition of the tuple according to the bits of its hash
+     * starting at usedBits.
+     */
+    private static int getPartition(final JoinTuple tuple, final int usedBits,
+            final int numBits) {
+        if (numBits == 0) {
+            return 0;
+        }
+        return (tuple.partitionHash() >>> usedBits) & ((1 << numBits) - 1);
+    }
 
-                Set<Integer> localLeftOuterJoins = null;
-                if (m_retainLeft  && !m_matchAny) {
-                    localLeftOuterJoins = leftOuterJoins.get(partition);
-                }
+    /**
+     * @return The number of bits a partition is split by, such that all
+     * partitions of one of the tables and the table being read don't exceed
+     * the maximum number of open files (at least 1).
+     */
+    private int getMaxSplitBits() {
+        return Math.max(1, 31 - Integer.numberOfLeadingZeros(
+            Math.max(1, m_settings.getMaxOpenFiles() - 1)));
+    }
 
-                Set<Integer> leftRows = leftTuples.get(joinTuple);
-                if (null != leftRows) {
-                    matchFoundForRightRow = true;
-                    for (Integer leftRowIndex : leftRows) {
-                        // add inner join
-                        DataRow outRow = OutputRow.createDataRow(
-                                outputCont.getRowCount(),
-                                leftRowIndex, rightRow.getIndex(),
-                                dataRow,
-                                m_outputDataRowSettings);
-                        outputCont.addMatch(outRow, exec);
-                        if (m_retainLeft && !m_matchAny) {
-                            localLeftOuterJoins.remove(leftRowIndex);
-                        }
-                        if (m_retainLeft && m_matchAny) {
-                            m_globalLeftOuterJoins.remove(leftRowIndex);
-                        }
-                    }
-                }
-            }
+    /**
+     * @return Whether the tuples held in memory need to be released, either
+     * because the memory is low or to simulate an out-of-memory event in
+     * test cases.
+     */
+    private boolean isMemoryLow(final MemoryActionIndicator memIndicator,
+            final long rowsAdded) {
+        return memIndicator.lowMemoryActionRequired()
+            || (m_rowsAddedBeforeForcedOOM > 0
+                && rowsAdded >= m_rowsAddedBeforeForcedOOM);
+    }
 
+    private void reportProgress(final ExecutionContext exec)
+            throws CanceledExecutionException {
+        exec.checkCanceled();
+        m_processedRows++;
+        exec.setProgress(Math.min(1.0,
+            m_processedRows / (double)m_expectedRows));
+    }
 
-            if (m_retainRight && !matchFoundForRightRow && !deferMatch) {
-                long outRowIndex = outputCont.getRowCount();
-                // add right outer join
-                DataRow outRow = OutputRow.createDataRow(outRowIndex,
-                        -1, rightRow.getIndex(),
-                        dataRow,
-                        m_outputDataRowSettings);
-                outputCont.addRightOuter(outRow, exec);
-            }
-            counter++;
+    private static void addTuple(final Map<JoinTuple, List<Integer>> tuples,
+            final JoinTuple tuple, final int rowIndex) {
+        List<Integer> rows = tuples.get(tuple);
+        if (null == rows) {
+            rows = new ArrayList<Integer>(1);
+            tuples.put(tuple, rows);
         }
+        rows.add(rowIndex);
+    }
 
-        if (m_retainLeft && !m_matchAny) {
-            for (int partition : leftOuterJoins.keySet()) {
-                for (Integer row : leftOuterJoins.get(partition)) {
-                    // add left outer join
-                    DataRow outRow = OutputRow.createDataRow(
-                            outputCont.getRowCount(),
-                            row, -1,
-                            m_outputDataRowSettings);
-                    outputCont.addLeftOuter(outRow, exec);
-                }
-            }
-        }
+    private static int[] toIntArray(final List<Integer> indices) {
+        return indices.stream().mapToInt(i -> i).toArray();
+    }
 
+    /**
+     * @return The columns of the right table that are read: the survivors
+     * and the joining columns.
+     */
+    private int[] getRightReadIndices(final BufferedDataTable rightTable) {
+        return IntStream.concat(
+            Arrays.stream(m_outputDataRowSettings.getSurvivors()),
+            getRightJoinIndices(rightTable).stream().mapToInt(i -> i))
+            .toArray();
+    }
+
+    /**
+     * Creates an iterator that only reads the given columns of the table.
+     *
+     * @param table the table to iterate
+     * @param indices the columns to read, negative values (the row key) are ignored
+     * @return a new iterator
+     */
+    static CloseableRowIterator createIterator(final BufferedDataTable table, final int[] indices) {
+        return table.iteratorBuilder().filterColumns(Arrays.stream(indices).filter(i -> i >= 0).distinct().toArray())
+            .build();
     }
 
     private List<Integer> getLeftJoinIndices(
@@ -1145,8 +1356,8 @@ private void compareDuplicates(final BufferedDataTable leftTable,
 
         String[] messages = new String[duplicates.size()];
 
-        CloseableRowIterator leftIter = leftTable.iterator();
-        CloseableRowIterator rightIter = rightTable.iterator();
+        CloseableRowIterator leftIter = createIterator(leftTable, leftIndex);
+        CloseableRowIterator rightIter = createIterator(rightTable, rightIndex);
         while (leftIter.hasNext()) {
             if (!rightIter.hasNext()) {
                 // right table has less rows
@@ -1239,5 +1450,25 @@ void setNumBitsMaximal(final int bits) {
         m_numBitsMaximal = bits;
     }
 
-}
+    /**
+     * A pair of partitions of the left and the right table, holding the
+     * tuples whose partition hash have the same lower bits.
+     */
+    private static final class Partition {
+        private final BufferedDataTable m_left;
+        private final BufferedDataTable m_right;
+        /** The number of lower bits of the partition hash in common. */
+        private final int m_numBits;
+        /** False if splitting did not reduce the size (skewed data). */
+        private final boolean m_isSplittable;
+
+        Partition(final BufferedDataTable left, final BufferedDataTable right,
+                final int numBits, final boolean isSplittable) {
+            m_left = left;
+            m_right = right;
+            m_numBits = numBits;
+            m_isSplittable = isSplittable;
+        }
+    }
 
+}
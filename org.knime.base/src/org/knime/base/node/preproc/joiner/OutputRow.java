@@ -111,6 +111,36 @@ static DataRow createDataRow(final long index,
         return  new DefaultRow(rowID, cells);
     }
 
+    /**
+     * Create a {@link DataRow} that stores information of a inner or
+     * outer join from a row of a partition of the right table, whose first
+     * cells are the survivors of the right row followed by its row ID.
+     *
+     * @param index The index of this row.
+     * @param leftIndex The index of the left row.
+     * @param rightIndex The index of the right row.
+     * @param partitionRow The row of the partition.
+     * @param settings The common settings object.
+     * @return New instance of {@link DataRow} populated with the given
+     * information.
+     */
+    static DataRow createDataRowFromPartition(final long index,
+            final long leftIndex, final long rightIndex,
+            final DataRow partitionRow,
+            final OutputRow.Settings settings) {
+        int numSurvivors = settings.getSurvivors().length;
+
+        DataCell[] cells =
+                new DataCell[numSurvivors + 3];
+        for (int i = 0; i <= numSurvivors; i++) {
+            cells[i] = partitionRow.getCell(i);
+        }
+        cells[numSurvivors + 1] = new LongCell(leftIndex);
+        cells[numSurvivors + 2] = new LongCell(rightIndex);
+        RowKey rowID = new RowKey(Long.toString(index));
+        return new DefaultRow(rowID, cells);
+    }
+
     /**
      * Create a {@link DataRow} that stores information of a right outer join.
      *
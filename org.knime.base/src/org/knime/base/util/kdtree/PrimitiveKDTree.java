@@ -0,0 +1,535 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.base.util.kdtree;
+
+import java.util.Arrays;
+
+/**
+ * A k-d tree on primitive double patterns, the patterns are identified by their index. Unlike {@link KDTree} the
+ * tree is stored in flat arrays (nodes as well as patterns, in the order of the leaves) and doesn't create any
+ * objects during a search. The search algorithm is the same as in {@link KDTree}, except that all patterns tied
+ * with the k-th nearest neighbour are returned (see {@link Searcher}).
+ *
+ * <p>
+ * The tree is immutable and can be searched concurrently, each thread using its own {@link Searcher}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ */
+public final class PrimitiveKDTree {
+
+    /** The default number of patterns in a leaf. */
+    public static final int DEFAULT_BUCKET_SIZE = 8;
+
+    private final int m_dimensions;
+
+    private final int m_size;
+
+    /** The patterns in the order of the leaves, row-major. */
+    private final double[] m_patterns;
+
+    /** The original index of the patterns in {@link #m_patterns}. */
+    private final int[] m_patternIndices;
+
+    /** Per node the split dimension, -1 for leaves. */
+    private int[] m_splitDimension;
+
+    /** Per node the split value, patterns &lt;= the value are in the left subtree. */
+    private double[] m_splitValue;
+
+    /** Per inner node the left child, per leaf the first pattern (inclusive). */
+    private int[] m_first;
+
+    /** Per inner node the right child, per leaf the last pattern (exclusive). */
+    private int[] m_second;
+
+    private int m_nodeCount;
+
+    /**
+     * Builds a tree with the {@linkplain #DEFAULT_BUCKET_SIZE default bucket size}.
+     *
+     * @param patterns the patterns, row-major, i.e. pattern <i>i</i> starts at position <i>i * dimensions</i>
+     * @param dimensions the dimensionality of the patterns, &gt; 0
+     */
+    public PrimitiveKDTree(final double[] patterns, final int dimensions) {
+        this(patterns, dimensions, DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * Builds a tree.
+     *
+     * @param patterns the patterns, row-major, i.e. pattern <i>i</i> starts at position <i>i * dimensions</i>; the
+     *            array is not modified nor referenced
+     * @param dimensions the dimensionality of the patterns, &gt; 0
+     * @param bucketSize the maximum number of patterns in a leaf, &gt; 0
+     */
+    public PrimitiveKDTree(final double[] patterns, final int dimensions, final int bucketSize) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("Dimensionality must be positive: " + dimensions);
+        }
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("Bucket size must be positive: " + bucketSize);
+        }
+        if (patterns.length % dimensions != 0) {
+            throw new IllegalArgumentException(
+                "Length of pattern array (" + patterns.length + ") is not a multiple of " + dimensions);
+        }
+        m_dimensions = dimensions;
+        m_size = patterns.length / dimensions;
+        int[] indices = new int[m_size];
+        for (int i = 0; i < m_size; i++) {
+            indices[i] = i;
+        }
+        int initialNodeCapacity = 2 * (m_size / bucketSize) + 1;
+        m_splitDimension = new int[initialNodeCapacity];
+        m_splitValue = new double[initialNodeCapacity];
+        m_first = new int[initialNodeCapacity];
+        m_second = new int[initialNodeCapacity];
+        if (m_size > 0) {
+            build(patterns, indices, 0, m_size, bucketSize);
+        }
+        m_patternIndices = indices;
+        m_patterns = new double[patterns.length];
+        for (int i = 0; i < m_size; i++) {
+            System.arraycopy(patterns, indices[i] * dimensions, m_patterns, i * dimensions, dimensions);
+        }
+    }
+
+    /** Builds the subtree for the patterns from..to (exclusive) and returns the index of its root node. */
+    private int build(final double[] patterns, final int[] indices, final int from, final int to,
+        final int bucketSize) {
+        final int node = addNode();
+        if (to - from <= bucketSize) {
+            m_splitDimension[node] = -1;
+            m_first[node] = from;
+            m_second[node] = to;
+            return node;
+        }
+        // split at the median of the dimension with the largest variance
+        int splitDimension = 0;
+        double maxVariance = -1;
+        for (int d = 0; d < m_dimensions; d++) {
+            double sum = 0;
+            double squareSum = 0;
+            for (int i = from; i < to; i++) {
+                double v = patterns[indices[i] * m_dimensions + d];
+                sum += v;
+                squareSum += v * v;
+            }
+            final int count = to - from;
+            double mean = sum / count;
+            double variance = squareSum / count - mean * mean;
+            if (variance > maxVariance) {
+                maxVariance = variance;
+                splitDimension = d;
+            }
+        }
+        final int mid = from + (to - from) / 2;
+        select(patterns, indices, from, to, mid - 1, splitDimension);
+        m_splitDimension[node] = splitDimension;
+        m_splitValue[node] = patterns[indices[mid - 1] * m_dimensions + splitDimension];
+        final int left = build(patterns, indices, from, mid, bucketSize);
+        final int right = build(patterns, indices, mid, to, bucketSize);
+        m_first[node] = left;
+        m_second[node] = right;
+        return node;
+    }
+
+    private int addNode() {
+        if (m_nodeCount == m_splitDimension.length) {
+            final int newCapacity = 2 * m_nodeCount + 1;
+            m_splitDimension = Arrays.copyOf(m_splitDimension, newCapacity);
+            m_splitValue = Arrays.copyOf(m_splitValue, newCapacity);
+            m_first = Arrays.copyOf(m_first, newCapacity);
+            m_second = Arrays.copyOf(m_second, newCapacity);
+        }
+        return m_nodeCount++;
+    }
+
+    /**
+     * Partially sorts the indices from..to (exclusive) so that the element at position <code>n</code> is the one
+     * in sorted order, all elements before are less or equal, all elements after are greater or equal (quickselect).
+     */
+    private void select(final double[] patterns, final int[] indices, final int from, final int to, final int n,
+        final int dimension) {
+        int lo = from;
+        int hi = to - 1;
+        while (hi > lo) {
+            // median of three as pivot
+            final int m = (lo + hi) >>> 1;
+            final double a = value(patterns, indices, lo, dimension);
+            final double b = value(patterns, indices, m, dimension);
+            final double c = value(patterns, indices, hi, dimension);
+            final double pivot = a < b ? (b < c ? b : (a < c ? c : a)) : (a < c ? a : (b < c ? c : b));
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (value(patterns, indices, i, dimension) < pivot) {
+                    i++;
+                }
+                while (value(patterns, indices, j, dimension) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final int tmp = indices[i];
+                    indices[i] = indices[j];
+                    indices[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (n <= j) {
+                hi = j;
+            } else if (n >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double value(final double[] patterns, final int[] indices, final int position, final int dimension) {
+        return patterns[indices[position] * m_dimensions + dimension];
+    }
+
+    /**
+     * Returns the number of patterns in the tree.
+     *
+     * @return the tree's size
+     */
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * @return the dimensionality of the patterns
+     */
+    public int getDimensions() {
+        return m_dimensions;
+    }
+
+    /**
+     * Creates a new searcher for the nearest neighbours. Searchers must not be used concurrently, each thread
+     * should create its own instance and reuse it for all of its queries.
+     *
+     * @param k the number of nearest neighbours to search, must not be larger than the size of the tree
+     * @return a new searcher
+     */
+    public Searcher createSearcher(final int k) {
+        if (k < 0 || k > m_size) {
+            throw new IllegalArgumentException("The tree contains only " + m_size + " elements, but " + k
+                + " were requested");
+        }
+        return new Searcher(k);
+    }
+
+    /**
+     * Searches the k nearest neighbours of query patterns, re-using its internal buffers for all queries. The result
+     * contains more than k neighbours if patterns have the same distance as the k-th nearest neighbour, and it
+     * always contains all of them. This differs from {@link KDTree#getKNearestNeighbours(double[], int)}, which
+     * removes one of the farthest patterns from its queue whenever it finds a closer one, even if that pattern is
+     * tied with the new k-th nearest neighbour. Its result may therefore contain only some of the ties, depending
+     * on the order of the search.
+     */
+    public final class Searcher {
+
+        private final int m_k;
+
+        private final double[] m_lowerBounds = new double[m_dimensions];
+
+        private final double[] m_upperBounds = new double[m_dimensions];
+
+        /** Max-heap of the squared distances of the k nearest patterns found so far. */
+        private final double[] m_heapDistances;
+
+        /** The (tree) positions of the patterns in the heap. */
+        private final int[] m_heapPositions;
+
+        private int m_heapSize;
+
+        /** Patterns having the same distance as the heap's top when the heap was full. */
+        private int[] m_tiePositions = new int[8];
+
+        private int m_tieCount;
+
+        private double m_tieDistance;
+
+        /** The result, sorted by distance. */
+        private double[] m_resultDistances;
+
+        private int[] m_resultIndices;
+
+        private int m_resultCount;
+
+        private Searcher(final int k) {
+            m_k = k;
+            m_heapDistances = new double[k];
+            m_heapPositions = new int[k];
+            m_resultDistances = new double[k];
+            m_resultIndices = new int[k];
+        }
+
+        /**
+         * Searches the nearest neighbours of the query, the result is available via {@link #getIndex(int)} and
+         * {@link #getDistance(int)} until the next call of this method.
+         *
+         * @param query the query pattern, must have the same dimensionality as the patterns in the tree
+         * @return the number of neighbours found, k or more if there are ties
+         */
+        public int search(final double[] query) {
+            if (query.length != m_dimensions) {
+                throw new IllegalArgumentException("The query vector has not length " + m_dimensions);
+            }
+            m_heapSize = 0;
+            m_tieCount = 0;
+            if (m_k > 0) {
+                Arrays.fill(m_lowerBounds, -Double.MAX_VALUE);
+                Arrays.fill(m_upperBounds, Double.MAX_VALUE);
+                search(0, query);
+            }
+            collectResult();
+            return m_resultCount;
+        }
+
+        /**
+         * @param i the rank of the neighbour, 0 for the nearest
+         * @return the index of the i-th nearest pattern (the position in the array passed to the constructor of
+         *         the tree)
+         */
+        public int getIndex(final int i) {
+            return m_resultIndices[i];
+        }
+
+        /**
+         * @param i the rank of the neighbour, 0 for the nearest
+         * @return the (euclidean) distance of the i-th nearest pattern to the query
+         */
+        public double getDistance(final int i) {
+            return m_resultDistances[i];
+        }
+
+        private double farthestDistance() {
+            return m_heapSize < m_k ? Double.MAX_VALUE : m_heapDistances[0];
+        }
+
+        /** @return whether the search can be aborted */
+        private boolean search(final int node, final double[] query) {
+            final int splitDimension = m_splitDimension[node];
+            if (splitDimension < 0) {
+                boolean newFound = false;
+                for (int p = m_first[node], end = m_second[node]; p < end; p++) {
+                    newFound |= offer(p, query);
+                }
+                return newFound && ballWithinBounds(query, farthestDistance());
+            }
+            final double splitValue = m_splitValue[node];
+            final boolean isLeftFirst = query[splitDimension] <= splitValue;
+            final int near = isLeftFirst ? m_first[node] : m_second[node];
+            final int far = isLeftFirst ? m_second[node] : m_first[node];
+
+            // recursive call on the closer child node
+            double[] nearBounds = isLeftFirst ? m_upperBounds : m_lowerBounds;
+            double temp = nearBounds[splitDimension];
+            nearBounds[splitDimension] = splitValue;
+            boolean finished = search(near, query);
+            nearBounds[splitDimension] = temp;
+            if (finished) {
+                return true;
+            }
+
+            // recursive call on the farther child node
+            double[] farBounds = isLeftFirst ? m_lowerBounds : m_upperBounds;
+            temp = farBounds[splitDimension];
+            farBounds[splitDimension] = splitValue;
+            if (boundsOverlapBall(query, farthestDistance())) {
+                search(far, query);
+            }
+            farBounds[splitDimension] = temp;
+
+            return ballWithinBounds(query, farthestDistance());
+        }
+
+        /** Adds the pattern at the argument tree position if it is among the nearest. */
+        private boolean offer(final int position, final double[] query) {
+            final int offset = position * m_dimensions;
+            final double farthest = farthestDistance();
+            double distance = 0;
+            for (int d = 0; d < m_dimensions; d++) {
+                final double diff = m_patterns[offset + d] - query[d];
+                distance += diff * diff;
+                if (distance > farthest) {
+                    return false;
+                }
+            }
+            if (m_heapSize < m_k) {
+                heapAdd(distance, position);
+            } else if (distance < farthest) {
+                final int removedPosition = m_heapPositions[0];
+                heapReplaceTop(distance, position);
+                if (m_heapDistances[0] < farthest) {
+                    // the k nearest are all closer than the removed (and tied) patterns
+                    m_tieCount = 0;
+                } else {
+                    // the removed pattern has the same distance as the new farthest neighbour
+                    addTie(removedPosition, farthest);
+                }
+            } else {
+                // same distance as the currently farthest neighbour
+                addTie(position, distance);
+            }
+            return true;
+        }
+
+        private void addTie(final int position, final double distance) {
+            if (m_tieCount == m_tiePositions.length) {
+                m_tiePositions = Arrays.copyOf(m_tiePositions, 2 * m_tieCount);
+            }
+            m_tiePositions[m_tieCount++] = position;
+            m_tieDistance = distance;
+        }
+
+        private void heapAdd(final double distance, final int position) {
+            int i = m_heapSize++;
+            while (i > 0) {
+                final int parent = (i - 1) >>> 1;
+                if (m_heapDistances[parent] >= distance) {
+                    break;
+                }
+                m_heapDistances[i] = m_heapDistances[parent];
+                m_heapPositions[i] = m_heapPositions[parent];
+                i = parent;
+            }
+            m_heapDistances[i] = distance;
+            m_heapPositions[i] = position;
+        }
+
+        private void heapReplaceTop(final double distance, final int position) {
+            siftDown(0, distance, position, m_heapSize);
+        }
+
+        private void siftDown(final int start, final double distance, final int position, final int heapSize) {
+            int i = start;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && m_heapDistances[child + 1] > m_heapDistances[child]) {
+                    child++;
+                }
+                if (m_heapDistances[child] <= distance) {
+                    break;
+                }
+                m_heapDistances[i] = m_heapDistances[child];
+                m_heapPositions[i] = m_heapPositions[child];
+                i = child;
+            }
+            m_heapDistances[i] = distance;
+            m_heapPositions[i] = position;
+        }
+
+        /** Empties the heap (and the ties) into the result arrays, sorted by distance. */
+        private void collectResult() {
+            m_resultCount = m_heapSize + m_tieCount;
+            if (m_resultCount > m_resultDistances.length) {
+                m_resultDistances = new double[m_resultCount];
+                m_resultIndices = new int[m_resultCount];
+            }
+            // ties are the farthest, then the heap in decreasing order
+            for (int i = 0; i < m_tieCount; i++) {
+                m_resultDistances[m_heapSize + i] = Math.sqrt(m_tieDistance);
+                m_resultIndices[m_heapSize + i] = m_patternIndices[m_tiePositions[i]];
+            }
+            for (int size = m_heapSize; size > 0; size--) {
+                m_resultDistances[size - 1] = Math.sqrt(m_heapDistances[0]);
+                m_resultIndices[size - 1] = m_patternIndices[m_heapPositions[0]];
+                if (size > 1) {
+                    siftDown(0, m_heapDistances[size - 1], m_heapPositions[size - 1], size - 1);
+                }
+            }
+            m_heapSize = 0;
+        }
+
+        /** @see KDTree */
+        private boolean boundsOverlapBall(final double[] query, final double farthestDist) {
+            double sum = 0;
+            for (int i = 0; i < m_dimensions; i++) {
+                if (query[i] < m_lowerBounds[i]) {
+                    final double dist = query[i] - m_lowerBounds[i];
+                    sum += dist * dist;
+                    if (sum > farthestDist) {
+                        return false;
+                    }
+                } else if (query[i] > m_upperBounds[i]) {
+                    final double dist = query[i] - m_upperBounds[i];
+                    sum += dist * dist;
+                    if (sum > farthestDist) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /** @see KDTree */
+        private boolean ballWithinBounds(final double[] query, final double farthestDist) {
+            for (int i = 0; i < m_dimensions; i++) {
+                double x = query[i] - m_lowerBounds[i];
+                if (x * x <= farthestDist) {
+                    return false;
+                }
+                x = query[i] - m_upperBounds[i];
+                if (x * x <= farthestDist) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
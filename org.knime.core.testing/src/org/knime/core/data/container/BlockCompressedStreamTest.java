@@ -0,0 +1,193 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+import org.knime.core.data.container.DefaultTableStoreFormat.CompressionFormat;
+
+/**
+ * Tests {@link BlockCompressedOutputStream} and {@link BlockCompressedInputStream} with the different codecs.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class BlockCompressedStreamTest {
+
+    private static byte[] createData(final int length, final boolean isRandom) {
+        byte[] data = new byte[length];
+        Random r = new Random(length);
+        if (isRandom) {
+            r.nextBytes(data);
+        } else {
+            StringBuilder b = new StringBuilder();
+            for (int i = 0; b.length() < length; i++) {
+                b.append("Row").append(i).append(';').append(r.nextInt(10)).append('\n');
+            }
+            System.arraycopy(b.toString().getBytes(StandardCharsets.US_ASCII), 0, data, 0, length);
+        }
+        return data;
+    }
+
+    private static byte[] compress(final byte[] data, final CompressionFormat format) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = format.createBlobOutputStream(bytes)) {
+            // mix single byte writes and array writes
+            out.write(data, 0, data.length / 2);
+            for (int i = data.length / 2; i < data.length; i++) {
+                out.write(data[i]);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void assertRoundTrip(final byte[] data, final CompressionFormat format) throws IOException {
+        byte[] compressed = compress(data, format);
+        try (InputStream in = CompressionFormat.createBlobInputStream(
+            new BufferedInputStream(new ByteArrayInputStream(compressed)))) {
+            byte[] result = new byte[data.length];
+            new DataInputStream(in).readFully(result);
+            assertArrayEquals("Data differs using " + format, data, result);
+            assertEquals("Stream not at end using " + format, -1, in.read());
+        }
+    }
+
+    /** Round trip for all formats with compressible, incompressible, small and multi-block data. */
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (CompressionFormat format : CompressionFormat.values()) {
+            for (int length : new int[]{0, 1, 12, 13, 1000, BlockCompressionCodec.MAX_BLOCK_SIZE,
+                3 * BlockCompressionCodec.MAX_BLOCK_SIZE + 17}) {
+                assertRoundTrip(createData(length, false), format);
+                assertRoundTrip(createData(length, true), format);
+            }
+        }
+    }
+
+    /** Fast codecs need to actually compress redundant data, blobs are compressed also without table compression. */
+    @Test
+    public void testCompresses() throws IOException {
+        byte[] data = createData(500000, false);
+        assertTrue(compress(data, CompressionFormat.Lz4).length < data.length / 2);
+        assertTrue(compress(data, CompressionFormat.Snappy).length < data.length / 2);
+        // blobs are compressed even if the table stream isn't
+        assertTrue(compress(data, CompressionFormat.None).length < data.length / 2);
+    }
+
+    /** A file that ends before the terminator (e.g. written only partially) must fail to read instead of silently
+     * returning less data. */
+    @Test
+    public void testTruncatedFile() throws IOException {
+        byte[] data = createData(3 * BlockCompressionCodec.MAX_BLOCK_SIZE + 17, false);
+        File file = File.createTempFile(getClass().getSimpleName(), ".bin");
+        try {
+            for (CompressionFormat format : new CompressionFormat[]{CompressionFormat.Lz4, CompressionFormat.Snappy}) {
+                try (OutputStream out = format.createBlobOutputStream(new FileOutputStream(file))) {
+                    out.write(data);
+                }
+                final long length = file.length();
+                // header only, within a block header, within block data, missing terminator only
+                for (long truncatedLength : new long[]{5, 7, length / 2, length - 4}) {
+                    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                        raf.setLength(truncatedLength);
+                    }
+                    try (InputStream in = CompressionFormat.createBlobInputStream(
+                        new BufferedInputStream(new FileInputStream(file)))) {
+                        byte[] result = new byte[data.length];
+                        new DataInputStream(in).readFully(result);
+                        fail("Truncated stream (" + format + ", " + truncatedLength + " of " + length
+                            + " bytes) read without failure");
+                    } catch (IOException e) {
+                        assertFalse("Unexpected end of data instead of truncated stream error (" + format + ", "
+                            + truncatedLength + " of " + length + " bytes)", e instanceof EOFException);
+                    }
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /** Files need to be identified by their header (blob files carry no meta information). */
+    @Test
+    public void testDetectFormat() throws IOException {
+        byte[] data = createData(1000, false);
+        assertTrue(BlockCompressedInputStream.isBlockCompressed(
+            new BufferedInputStream(new ByteArrayInputStream(compress(data, CompressionFormat.Snappy)))));
+        ByteArrayOutputStream gzipBytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzipBytes)) {
+            out.write(data);
+        }
+        InputStream gzipIn = new BufferedInputStream(new ByteArrayInputStream(gzipBytes.toByteArray()));
+        assertFalse(BlockCompressedInputStream.isBlockCompressed(gzipIn));
+        byte[] result = new byte[data.length];
+        new DataInputStream(CompressionFormat.createBlobInputStream(gzipIn)).readFully(result);
+        assertArrayEquals(data, result);
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests {@link BufferMemoryManager}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class BufferMemoryManagerTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(new String[]{"String", "Double"},
+        new DataType[]{StringCell.TYPE, DoubleCell.TYPE});
+
+    private long m_oldBudget;
+
+    /** Remembers the budget set by the environment. */
+    @Before
+    public void setUp() {
+        m_oldBudget = BufferMemoryManager.getInstance().getBudget();
+    }
+
+    /** Restores the budget. */
+    @After
+    public void tearDown() {
+        BufferMemoryManager.getInstance().setBudget(m_oldBudget);
+    }
+
+    private static ContainerTable createTable(final int rowCount) {
+        DataContainer c = new DataContainer(SPEC, true, Integer.MAX_VALUE);
+        for (int i = 0; i < rowCount; i++) {
+            c.addRowToTable(new DefaultRow("Row" + i, new StringCell("Value " + i), new DoubleCell(i)));
+        }
+        c.close();
+        return c.getBufferedTable();
+    }
+
+    private static void assertContent(final ContainerTable table, final int rowCount) {
+        int i = 0;
+        for (RowIterator it = table.iterator(); it.hasNext(); i++) {
+            DataRow row = it.next();
+            assertEquals("Row" + i, row.getKey().getString());
+            assertEquals(new StringCell("Value " + i), row.getCell(0));
+            assertEquals(new DoubleCell(i), row.getCell(1));
+        }
+        assertEquals(rowCount, i);
+    }
+
+    /** Least recently used tables are evicted and read back when accessed. */
+    @Test(timeout = 60000)
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        BufferMemoryManager manager = BufferMemoryManager.getInstance();
+        manager.setBudget(0L);
+        manager.setBudget(Long.MAX_VALUE);
+        ContainerTable first = createTable(1000);
+        final long tableSize = manager.getUsedSize();
+        assertTrue("Table size not estimated", tableSize > 1000 * 50);
+        ContainerTable second = createTable(1000);
+        assertEquals(2, manager.getTableCount());
+        // access first table so that second becomes least recently used
+        assertContent(first, 1000);
+
+        final long evictionCount = manager.getEvictionCount();
+        manager.setBudget(tableSize + tableSize / 2);
+        assertEquals(evictionCount + 1, manager.getEvictionCount());
+        assertEquals(1, manager.getTableCount());
+        while (!second.getBuffer().usesOutFile()) {
+            Thread.sleep(10);
+        }
+        assertFalse(first.getBuffer().usesOutFile());
+
+        // reading the evicted table loads it back, which in turn evicts the first table
+        final long reloadCount = manager.getReloadCount();
+        assertContent(second, 1000);
+        assertEquals(reloadCount + 1, manager.getReloadCount());
+        assertEquals(evictionCount + 2, manager.getEvictionCount());
+        assertContent(first, 1000);
+        assertContent(second, 1000);
+
+        first.clear();
+        second.clear();
+        assertEquals(0, manager.getTableCount());
+        assertEquals(0L, manager.getUsedSize());
+    }
+
+    /** A table larger than the budget stays in memory while it is the most recently used one instead of being
+     * evicted and read back with every access. */
+    @Test(timeout = 60000)
+    public void testTableLargerThanBudget() throws Exception {
+        BufferMemoryManager manager = BufferMemoryManager.getInstance();
+        manager.setBudget(0L);
+        manager.setBudget(Long.MAX_VALUE);
+        ContainerTable large = createTable(1000);
+        final long tableSize = manager.getUsedSize();
+
+        final long evictionCount = manager.getEvictionCount();
+        final long reloadCount = manager.getReloadCount();
+        manager.setBudget(tableSize / 2);
+        for (int i = 0; i < 3; i++) {
+            assertContent(large, 1000);
+        }
+        assertEquals("Table larger than budget evicted", evictionCount, manager.getEvictionCount());
+        assertEquals("Table larger than budget read back", reloadCount, manager.getReloadCount());
+        assertEquals(1, manager.getTableCount());
+        assertFalse(large.getBuffer().usesOutFile());
+
+        // a new table becomes the most recently used one, the large table is evicted (only once)
+        ContainerTable other = createTable(1000);
+        for (int i = 0; i < 3; i++) {
+            assertContent(other, 1000);
+        }
+        assertEquals(evictionCount + 1, manager.getEvictionCount());
+        assertEquals(reloadCount, manager.getReloadCount());
+        while (!large.getBuffer().usesOutFile()) {
+            Thread.sleep(10);
+        }
+        assertContent(large, 1000);
+
+        large.clear();
+        other.clear();
+        assertEquals(0, manager.getTableCount());
+        assertEquals(0L, manager.getUsedSize());
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.MissingCell;
+import org.knime.core.data.UnmaterializedCell;
+import org.knime.core.data.container.storage.AbstractTableStoreReader;
+import org.knime.core.data.container.storage.AbstractTableStoreReader.TableStoreCloseableRowIterator;
+import org.knime.core.data.container.storage.AbstractTableStoreWriter;
+import org.knime.core.data.container.storage.TableStoreFormat;
+import org.knime.core.data.container.storage.TableStoreFormatRegistry;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Tests the {@link ColumnarTableStoreFormat}, i.e. writing and reading tables column by column, incl. missing values,
+ * cells that need serialization and column projection.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ColumnarTableStoreFormatTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new String[]{"int", "long", "double", "string", "boolean", "other"},
+        new DataType[]{IntCell.TYPE, LongCell.TYPE, DoubleCell.TYPE, StringCell.TYPE, BooleanCell.TYPE,
+            DataType.getType(DataCell.class)});
+
+    /** More than one chunk and a partial last chunk. */
+    private static final int ROW_COUNT = 2 * ColumnarTableStoreFormat.CHUNK_SIZE + 17;
+
+    private File m_file;
+
+    /** Creates temp file. */
+    @Before
+    public void setUp() throws Exception {
+        m_file = FileUtil.createTempFile("columnar-test", ".col.bin");
+    }
+
+    /** Deletes temp file. */
+    @After
+    public void tearDown() {
+        m_file.delete();
+    }
+
+    private static DataRow createRow(final int i) {
+        DataCell[] cells = new DataCell[SPEC.getNumColumns()];
+        cells[0] = i % 7 == 0 ? DataType.getMissingCell() : new IntCell(i);
+        cells[1] = new LongCell(Long.MAX_VALUE - i);
+        cells[2] = i % 11 == 0 ? new MissingCell("error " + i) : new DoubleCell(i / 3.0);
+        cells[3] = i % 5 == 0 ? DataType.getMissingCell() : new StringCell("R\u00f6w " + i);
+        cells[4] = BooleanCell.get(i % 3 == 0);
+        cells[5] = i % 2 == 0 ? new IntCell(-i) : new StringCell("s" + i);
+        return new DefaultRow("Row" + i, cells);
+    }
+
+    private AbstractTableStoreReader writeAndCreateReader() throws Exception {
+        ColumnarTableStoreFormat format = new ColumnarTableStoreFormat();
+        NodeSettings settings = new NodeSettings("format");
+        try (AbstractTableStoreWriter writer = format.createWriter(m_file, SPEC, true)) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                writer.writeRow(createRow(i));
+            }
+            writer.close();
+            writer.writeMetaInfoAfterWrite(settings);
+        }
+        AbstractTableStoreReader reader = format.createReader(m_file, SPEC,
+            NotInWorkflowDataRepository.newInstance(), settings, Buffer.IVERSION, true);
+        reader.setBufferAndDataRepository(null, NotInWorkflowDataRepository.newInstance());
+        return reader;
+    }
+
+    /** Writes all rows and reads them back. */
+    @Test
+    public void testWriteRead() throws Exception {
+        AbstractTableStoreReader reader = writeAndCreateReader();
+        int i = 0;
+        try (TableStoreCloseableRowIterator it = reader.iteratorBuilder().build()) {
+            while (it.hasNext()) {
+                DataRow expected = createRow(i);
+                DataRow actual = it.next();
+                assertEquals(expected.getKey(), actual.getKey());
+                for (int c = 0; c < SPEC.getNumColumns(); c++) {
+                    assertEquals("Cell " + c + " in row " + i, expected.getCell(c), actual.getCell(c));
+                }
+                if (i % 11 == 0) {
+                    assertEquals("error " + i, ((MissingCell)actual.getCell(2)).getError());
+                }
+                i++;
+            }
+        }
+        assertEquals(ROW_COUNT, i);
+    }
+
+    /** Reads only a subset of columns. */
+    @Test
+    public void testColumnProjection() throws Exception {
+        AbstractTableStoreReader reader = writeAndCreateReader();
+        int i = 0;
+        try (TableStoreCloseableRowIterator it = reader.iteratorBuilder().filterColumns(2, 5).build()) {
+            while (it.hasNext()) {
+                DataRow expected = createRow(i);
+                DataRow actual = it.next();
+                assertSame(UnmaterializedCell.getInstance(), actual.getCell(0));
+                assertSame(UnmaterializedCell.getInstance(), actual.getCell(3));
+                assertEquals(expected.getCell(2), actual.getCell(2));
+                assertEquals(expected.getCell(5), actual.getCell(5));
+                i++;
+            }
+        }
+        assertEquals(ROW_COUNT, i);
+    }
+
+    /** Empty tables need to be readable as well. */
+    @Test
+    public void testEmptyTable() throws Exception {
+        ColumnarTableStoreFormat format = new ColumnarTableStoreFormat();
+        NodeSettings settings = new NodeSettings("format");
+        try (AbstractTableStoreWriter writer = format.createWriter(m_file, SPEC, false)) {
+            writer.close();
+            writer.writeMetaInfoAfterWrite(settings);
+        }
+        AbstractTableStoreReader reader = format.createReader(m_file, SPEC,
+            NotInWorkflowDataRepository.newInstance(), settings, Buffer.IVERSION, false);
+        reader.setBufferAndDataRepository(null, NotInWorkflowDataRepository.newInstance());
+        try (TableStoreCloseableRowIterator it = reader.iteratorBuilder().build()) {
+            assertFalse(it.hasNext());
+        }
+        assertTrue(format.validateVersion(format.getVersion()));
+    }
+
+    /** The columnar format is registered but the row based format stays the default (and the first choice for
+     * tables the configured format doesn't accept). */
+    @Test
+    public void testRegisteredButNotDefault() {
+        TableStoreFormatRegistry registry = TableStoreFormatRegistry.getInstance();
+        List<TableStoreFormat> formats = registry.getTableStoreFormats();
+        assertTrue("Columnar format not registered",
+            formats.stream().anyMatch(f -> f.getClass().equals(ColumnarTableStoreFormat.class)));
+        assertEquals(DefaultTableStoreFormat.class, formats.get(0).getClass());
+        assertEquals(DefaultTableStoreFormat.class, registry.getDefaultTableStoreFormat().getClass());
+    }
+}
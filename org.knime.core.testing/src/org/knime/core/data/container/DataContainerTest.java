@@ -74,6 +74,7 @@
 import org.knime.core.data.MissingValue;
 import org.knime.core.data.RowIterator;
 import org.knime.core.data.RowKey;
+import org.knime.core.data.UnmaterializedCell;
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.IntCell;
@@ -184,6 +185,34 @@ public final void testMemoryAlertAfterCloseWhileReading() throws Exception {
         }
     }
 
+    /**
+     * Column filters on a table need to return the selected cells, no matter if the table is kept in memory or was
+     * written to disc.
+     */
+    public final void testIteratorFilterColumns() throws Exception {
+        for (int maxCellsInMemory : new int[]{Integer.MAX_VALUE, 0}) {
+            DataContainer container = new DataContainer(SPEC_STR_INT_DBL, true, maxCellsInMemory, false);
+            int count = 1000;
+            for (RowIterator it = generateRows(count); it.hasNext();) {
+                container.addRowToTable(it.next());
+            }
+            container.close();
+            RowIterator referenceIterator = generateRows(count);
+            try (CloseableRowIterator it = container.getBufferedTable().iteratorBuilder().filterColumns(1).build()) {
+                while (it.hasNext()) {
+                    DataRow expected = referenceIterator.next();
+                    DataRow actual = it.next();
+                    assertEquals(expected.getKey(), actual.getKey());
+                    assertEquals(expected.getNumCells(), actual.getNumCells());
+                    assertSame(UnmaterializedCell.getInstance(), actual.getCell(0));
+                    assertEquals(expected.getCell(1), actual.getCell(1));
+                    assertSame(UnmaterializedCell.getInstance(), actual.getCell(2));
+                }
+            }
+            assertFalse(referenceIterator.hasNext());
+        }
+    }
+
     public void testMemoryAlertWhileWrite() throws Exception {
         DataContainer cont = new DataContainer(SPEC_STR_INT_DBL, true, 1000000);
         int nrRows = 10;
@@ -0,0 +1,120 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Tests {@link MappedFileInputStream}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class MappedFileInputStreamTest {
+
+    private File m_file;
+
+    private byte[] m_data;
+
+    /** Creates temp file with random content. */
+    @Before
+    public void setUp() throws Exception {
+        m_file = FileUtil.createTempFile("mapped-test", ".bin");
+        m_data = new byte[100000];
+        new Random(0).nextBytes(m_data);
+        Files.write(m_file.toPath(), m_data);
+    }
+
+    /** Deletes temp file. */
+    @After
+    public void tearDown() {
+        m_file.delete();
+    }
+
+    /** Two streams share one mapping but read independently. */
+    @Test
+    public void testSharedMapping() throws IOException {
+        ByteBuffer[] mapping = MappedFileInputStream.map(m_file);
+        try (MappedFileInputStream in1 = new MappedFileInputStream(mapping);
+                MappedFileInputStream in2 = new MappedFileInputStream(mapping)) {
+            assertEquals(m_data[0] & 0xFF, in1.read());
+            assertEquals(m_data[1] & 0xFF, in1.read());
+            assertEquals(1000, in1.skip(1000));
+            byte[] rest1 = new byte[m_data.length - 1002];
+            new DataInputStream(in1).readFully(rest1);
+            assertEquals(-1, in1.read());
+            byte[] all2 = new byte[m_data.length];
+            new DataInputStream(in2).readFully(all2);
+            assertArrayEquals(m_data, all2);
+            assertArrayEquals(Arrays.copyOfRange(m_data, 1002, m_data.length), rest1);
+            assertEquals(-1, in2.read(new byte[10], 0, 10));
+        }
+    }
+
+    /** Empty files can be mapped, too. */
+    @Test
+    public void testEmptyFile() throws IOException {
+        Files.write(m_file.toPath(), new byte[0]);
+        try (MappedFileInputStream in = new MappedFileInputStream(MappedFileInputStream.map(m_file))) {
+            assertEquals(-1, in.read());
+        }
+    }
+}
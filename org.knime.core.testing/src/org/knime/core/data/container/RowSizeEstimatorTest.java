@@ -0,0 +1,115 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.vector.bytevector.DenseByteVectorCellFactory;
+
+/**
+ * Tests {@link RowSizeEstimator}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class RowSizeEstimatorTest {
+
+    private static DataCell createList(final int size) {
+        List<DataCell> cells = new ArrayList<DataCell>(size);
+        for (int i = 0; i < size; i++) {
+            cells.add(new DoubleCell(i));
+        }
+        return CollectionCellFactory.createListCell(cells);
+    }
+
+    /** Sizes grow with the content of the cells. */
+    @Test
+    public void testEstimatesGrowWithContent() {
+        RowSizeEstimator estimator = new RowSizeEstimator(1);
+        long doubleSize = estimator.estimateRowSize(new DefaultRow("Row0", new DoubleCell(1.0)));
+        long shortStringSize = estimator.estimateRowSize(new DefaultRow("Row0", new StringCell("a")));
+        long longStringSize = estimator.estimateRowSize(new DefaultRow("Row0", new StringCell(new String(
+            new char[10000]))));
+        assertTrue(doubleSize > 0);
+        assertTrue(shortStringSize > doubleSize);
+        assertTrue(longStringSize > 20000);
+    }
+
+    /** Large collections are extrapolated from their first elements. */
+    @Test
+    public void testCollections() {
+        RowSizeEstimator estimator = new RowSizeEstimator(1);
+        long small = estimator.estimateRowSize(new DefaultRow("Row0", createList(10)));
+        long large = estimator.estimateRowSize(new DefaultRow("Row0", createList(10000)));
+        assertTrue("Collection of 10000 elements estimated to " + large + " bytes", large > 10000 * 24);
+        assertTrue(large > 100 * small);
+    }
+
+    /** Cells of unknown classes are estimated from their serialized size, which is sampled. */
+    @Test
+    public void testSampledCells() {
+        RowSizeEstimator estimator = new RowSizeEstimator(1);
+        DataRow row = new DefaultRow("Row0", new DenseByteVectorCellFactory(10000).createDataCell());
+        long first = estimator.estimateRowSize(row);
+        assertTrue("Estimate of byte vector of length 10000 is " + first, first > 10000);
+        for (int i = 0; i < 2 * RowSizeEstimator.SAMPLE_INTERVAL; i++) {
+            assertEquals(first, estimator.estimateRowSize(row));
+        }
+    }
+
+}
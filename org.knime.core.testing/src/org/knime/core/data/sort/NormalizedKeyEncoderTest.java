@@ -0,0 +1,173 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTable;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowIterator;
+import org.knime.core.data.container.DataContainer;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.xml.XMLCell;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Tests {@link NormalizedKeyEncoder} by comparing the results of sorting with and without normalized keys.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class NormalizedKeyEncoderTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new String[]{"Int", "Long", "Double", "String", "Boolean"},
+        new DataType[]{IntCell.TYPE, LongCell.TYPE, DoubleCell.TYPE, StringCell.TYPE, BooleanCell.TYPE});
+
+    private static final double[] SPECIAL_DOUBLES = {0.0, -0.0, Double.NaN, Double.NEGATIVE_INFINITY,
+        Double.POSITIVE_INFINITY, Double.MIN_VALUE, -Double.MAX_VALUE};
+
+    private static final String[] SPECIAL_STRINGS = {"", "a", "a\u0000", "a\u0000b", "ab", "\u007f", "\u0080",
+        "߿", "ࠀ", "￿", "￾", "😀", "Z"};
+
+    private static DataTable createTable(final int rowCount) {
+        Random r = new Random(rowCount);
+        DataContainer c = new DataContainer(SPEC);
+        for (int i = 0; i < rowCount; i++) {
+            DataCell[] cells = new DataCell[5];
+            // few distinct values so that subsequent columns and stability matter
+            cells[0] = new IntCell(r.nextInt(5) - 2 + (r.nextBoolean() ? 0 : Integer.MIN_VALUE));
+            cells[1] = new LongCell(r.nextInt(3) * Long.MAX_VALUE / 2 - r.nextInt(2));
+            cells[2] = new DoubleCell(r.nextBoolean() ? SPECIAL_DOUBLES[r.nextInt(SPECIAL_DOUBLES.length)]
+                : r.nextInt(3) - 1.5);
+            cells[3] = new StringCell(SPECIAL_STRINGS[r.nextInt(SPECIAL_STRINGS.length)]);
+            cells[4] = BooleanCell.get(r.nextBoolean());
+            for (int col = 0; col < cells.length; col++) {
+                if (r.nextInt(8) == 0) {
+                    cells[col] = DataType.getMissingCell();
+                }
+            }
+            c.addRowToTable(new DefaultRow("Row" + r.nextInt(rowCount), cells));
+        }
+        c.close();
+        return c.getTable();
+    }
+
+    private static List<String> sort(final DataTable table, final List<String> columns, final boolean[] ascending,
+        final boolean missingsToEnd, final boolean useNormalizedKeys) throws CanceledExecutionException {
+        DataTableSorter sorter = new DataTableSorter(table, 500, columns, ascending);
+        sorter.setSortColumns(columns, ascending, missingsToEnd);
+        sorter.setUseNormalizedKeys(useNormalizedKeys);
+        // force multiple chunks and merge stages
+        sorter.setMaxRows(60);
+        sorter.setMaxOpenContainers(3);
+        return toStrings(sorter.sort(new ExecutionMonitor(new DefaultNodeProgressMonitor())));
+    }
+
+    private static List<String> toStrings(final DataTable table) {
+        List<String> result = new ArrayList<>();
+        for (RowIterator it = table.iterator(); it.hasNext();) {
+            DataRow row = it.next();
+            StringBuilder b = new StringBuilder(row.getKey().getString());
+            for (DataCell cell : row) {
+                b.append('|').append(cell);
+            }
+            result.add(b.toString());
+        }
+        return result;
+    }
+
+    /** Sorting by normalized keys is identical to sorting with the row comparator. */
+    @Test
+    public void testSameOrderAsComparator() throws CanceledExecutionException {
+        DataTable table = createTable(500);
+        Random r = new Random(0);
+        for (int run = 0; run < 20; run++) {
+            List<String> columns = new ArrayList<>(Arrays.asList("Int", "Long", "Double", "String", "Boolean",
+                AbstractTableSorter.ROWKEY_SORT_SPEC.getName()));
+            Collections.shuffle(columns, r);
+            columns = columns.subList(0, 1 + r.nextInt(columns.size()));
+            boolean[] ascending = new boolean[columns.size()];
+            for (int i = 0; i < ascending.length; i++) {
+                ascending[i] = r.nextBoolean();
+            }
+            boolean missingsToEnd = r.nextBoolean();
+            assertEquals("Different order sorting " + columns + ", ascending " + Arrays.toString(ascending)
+                + ", missings to end " + missingsToEnd, sort(table, columns, ascending, missingsToEnd, false),
+                sort(table, columns, ascending, missingsToEnd, true));
+        }
+    }
+
+    /** Columns without known encoding fall back to the comparator. */
+    @Test
+    public void testUnsupportedType() {
+        DataTableSpec spec = new DataTableSpec(new String[]{"Int", "XML"}, new DataType[]{IntCell.TYPE, XMLCell.TYPE});
+        assertNotNull(NormalizedKeyEncoder.create(new int[]{0, -1}, new boolean[]{true, false}, false, spec));
+        assertNull(NormalizedKeyEncoder.create(new int[]{0, 1}, new boolean[]{true, true}, false, spec));
+    }
+
+}
@@ -70,6 +70,7 @@
 import org.knime.core.data.def.IntCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.DefaultNodeProgressMonitor;
@@ -140,6 +141,73 @@ public final void testMultiStageMerge() throws CanceledExecutionException {
         runMemoryTest(100, 5, 8);
     }
 
+    /**
+     * Test that parallel sorting (concurrent chunk writing, prefetching merge) gives the same result as sequential
+     * sorting, also if multiple merge stages are needed.
+     * @throws CanceledExecutionException
+     */
+    @Test
+    public final void testParallelMultiStageMerge() throws CanceledExecutionException {
+        BufferedDataTable bdt = m_exec.createBufferedDataTable(new TestData(100, 1), m_exec);
+        BufferedDataTableSorter sorter =
+            new BufferedDataTableSorter(bdt, Arrays.asList("Index"), new boolean[] {true});
+        sorter.setMaxRows(7);
+        sorter.setMaxOpenContainers(4);
+        sorter.setParallelism(1);
+        BufferedDataTable sequentialResult = sorter.sort(m_exec);
+
+        sorter.setParallelism(4);
+        BufferedDataTable parallelResult = sorter.sort(m_exec);
+
+        Assert.assertEquals(sequentialResult.size(), parallelResult.size());
+        RowIterator sequentialIter = sequentialResult.iterator();
+        RowIterator parallelIter = parallelResult.iterator();
+        while (sequentialIter.hasNext()) {
+            DataRow sequentialRow = sequentialIter.next();
+            DataRow parallelRow = parallelIter.next();
+            Assert.assertEquals(sequentialRow.getKey(), parallelRow.getKey());
+            Assert.assertEquals(sequentialRow.getCell(0), parallelRow.getCell(0));
+        }
+    }
+
+    /**
+     * Test that parallel sorting keeps the original order of rows with equal values (the sort is stable), with
+     * concurrently written chunks and multiple merge stages.
+     * @throws CanceledExecutionException
+     */
+    @Test
+    public final void testParallelSortIsStable() throws CanceledExecutionException {
+        final int rowCount = 2000;
+        BufferedDataContainer container = m_exec.createDataContainer(new DataTableSpec(
+            new String[]{"Group", "Index"}, new DataType[]{IntCell.TYPE, IntCell.TYPE}));
+        Random random = new Random(42);
+        for (int i = 0; i < rowCount; i++) {
+            container.addRowToTable(
+                new DefaultRow("Row" + i, new IntCell(random.nextInt(10)), new IntCell(i)));
+        }
+        container.close();
+        BufferedDataTableSorter sorter =
+            new BufferedDataTableSorter(container.getTable(), Arrays.asList("Group"), new boolean[] {true});
+        sorter.setMaxRows(37);
+        sorter.setMaxOpenContainers(4);
+        sorter.setParallelism(4);
+        BufferedDataTable result = sorter.sort(m_exec);
+
+        Assert.assertEquals(rowCount, result.size());
+        int prevGroup = Integer.MIN_VALUE;
+        int prevIndex = -1;
+        for (DataRow row : result) {
+            int group = ((IntValue)row.getCell(0)).getIntValue();
+            int index = ((IntValue)row.getCell(1)).getIntValue();
+            Assert.assertTrue("Not sorted", group >= prevGroup);
+            if (group == prevGroup) {
+                Assert.assertTrue("Order of equal rows not kept: " + row.getKey(), index > prevIndex);
+            }
+            prevGroup = group;
+            prevIndex = index;
+        }
+    }
+
     private void runMemoryTest(final int numRows,
             final int maxNumRowsPerContainer,
             final int maxOpenContainers) throws CanceledExecutionException {
@@ -0,0 +1,183 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.exec.streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.node.streamable.RowOutput;
+
+/**
+ * Tests {@link RowQueue} and the restoring of the row order by the {@link ChunkReorderer} if several partitions
+ * read from the same queue.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class ChunkReordererTest {
+
+    private static final int ROW_COUNT = 100 * RowQueue.CHUNK_SIZE + 17;
+
+    private static void produce(final RowQueue queue) throws InterruptedException {
+        List<DataRow> chunk = new ArrayList<>();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            chunk.add(new DefaultRow("Row" + i, new DataCell[0]));
+            if (chunk.size() == RowQueue.CHUNK_SIZE) {
+                queue.put(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        queue.put(chunk);
+        queue.finish();
+    }
+
+    /** Rows pass a queue in order, the producer doesn't run ahead of the consumer by more than the capacity. */
+    @Test
+    public void testQueue() throws Exception {
+        final RowQueue queue = new RowQueue(new PipelineMonitor());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> producer = executor.submit(() -> {
+                produce(queue);
+                return null;
+            });
+            QueueRowInput input = new QueueRowInput(queue, new DataTableSpec(), null);
+            for (int i = 0; i < ROW_COUNT; i++) {
+                assertEquals("Row" + i, input.poll().getKey().getString());
+            }
+            assertNull(input.poll());
+            producer.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Closing the queue from the consumer side must release a blocked producer. */
+    @Test(timeout = 10000)
+    public void testCloseReleasesProducer() throws Exception {
+        final RowQueue queue = new RowQueue(new PipelineMonitor());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> producer = executor.submit(() -> {
+                produce(queue);
+                return null;
+            });
+            QueueRowInput input = new QueueRowInput(queue, new DataTableSpec(), null);
+            assertEquals("Row0", input.poll().getKey().getString());
+            input.close();
+            producer.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Rows produced by several partitions are passed on in input order. */
+    @Test(timeout = 30000)
+    public void testPartitionsKeepOrder() throws Exception {
+        final int partitionCount = 4;
+        final PipelineMonitor monitor = new PipelineMonitor();
+        final RowQueue queue = new RowQueue(monitor);
+        final List<String> result = new ArrayList<>();
+        final RowOutput output = new RowOutput() {
+            @Override
+            public void push(final DataRow row) {
+                result.add(row.getKey().getString());
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final ChunkReorderer reorderer = new ChunkReorderer(monitor, new RowOutput[]{output}, partitionCount);
+        ExecutorService executor = Executors.newFixedThreadPool(partitionCount + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                produce(queue);
+                return null;
+            }));
+            for (int p = 0; p < partitionCount; p++) {
+                final ChunkReorderer.Partition partition = reorderer.getPartition(p);
+                futures.add(executor.submit(() -> {
+                    QueueRowInput input = new QueueRowInput(queue, new DataTableSpec(), partition);
+                    RowOutput partitionOutput = partition.createOutput(0);
+                    DataRow row;
+                    while ((row = input.poll()) != null) {
+                        if (ThreadLocalRandom.current().nextInt(100) == 0) {
+                            Thread.sleep(1);
+                        }
+                        partitionOutput.push(row);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            reorderer.close();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(ROW_COUNT, result.size());
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertEquals("Row" + i, result.get(i));
+        }
+    }
+
+}
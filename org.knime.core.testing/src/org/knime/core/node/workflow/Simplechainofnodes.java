@@ -44,10 +44,15 @@
  */
 package org.knime.core.node.workflow;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -219,4 +224,35 @@ public void testExecuteDeleteNode() throws Exception {
         assertFalse(m.canExecuteNode(m_tblView));
     }
 
+    /** Successors and predecessors (cached in the workflow) follow changes of the connections and nodes. */
+    @Test
+    public void testSuccessorsAfterConnectionChange() throws Exception {
+        WorkflowManager m = getManager();
+        Workflow workflow = m.getWorkflow();
+        assertEquals(Arrays.asList(m_dataGen, m_colFilter, m_rowFilter, m_tblView),
+            new ArrayList<NodeID>(workflow.getBreadthFirstListOfNodeAndSuccessors(m_dataGen, true).keySet()));
+        assertEquals(Arrays.asList(m_dataGen, m_colFilter, m_rowFilter, m_tblView),
+            new ArrayList<NodeID>(workflow.createBreadthFirstSortedList(workflow.getNodeIDs(), true).keySet()));
+        assertTrue(workflow.getPredecessors(m_tblView).contains(m_dataGen));
+        // modifying the result must not modify the cache
+        workflow.getBreadthFirstListOfNodeAndSuccessors(m_dataGen, true).remove(m_dataGen);
+        workflow.getPredecessors(m_tblView).clear();
+
+        ConnectionContainer connection = findInConnection(m_rowFilter, 1);
+        m.removeConnection(connection);
+        assertEquals(Arrays.asList(m_dataGen, m_colFilter),
+            new ArrayList<NodeID>(workflow.getBreadthFirstListOfNodeAndSuccessors(m_dataGen, true).keySet()));
+        assertEquals(Collections.singleton(m_rowFilter), workflow.getPredecessors(m_tblView));
+
+        m.addConnection(m_colFilter, 1, m_rowFilter, 1);
+        assertEquals(Arrays.asList(m_dataGen, m_colFilter, m_rowFilter, m_tblView),
+            new ArrayList<NodeID>(workflow.getBreadthFirstListOfNodeAndSuccessors(m_dataGen, true).keySet()));
+        assertTrue(workflow.getPredecessors(m_tblView).contains(m_dataGen));
+
+        m.removeNode(m_rowFilter);
+        assertEquals(Arrays.asList(m_dataGen, m_colFilter),
+            new ArrayList<NodeID>(workflow.getBreadthFirstListOfNodeAndSuccessors(m_dataGen, true).keySet()));
+        assertTrue(workflow.getPredecessors(m_tblView).isEmpty());
+    }
+
 }
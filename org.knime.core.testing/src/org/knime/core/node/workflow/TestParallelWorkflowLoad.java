@@ -0,0 +1,155 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.data.DataRow;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.node.port.PortObject;
+
+/**
+ * Loads a workflow with many nodes and a metanode with and without
+ * {@link KNIMEConstants#PROPERTY_WORKFLOW_LOAD_PARALLEL} and compares the loaded nodes (settings, states,
+ * connections) and the output after execution.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TestParallelWorkflowLoad extends WorkflowTestCase {
+
+    private File m_workflowDir;
+
+    private String m_oldProperty;
+
+    @Before
+    public void setUp() throws Exception {
+        m_oldProperty = System.getProperty(KNIMEConstants.PROPERTY_WORKFLOW_LOAD_PARALLEL);
+        m_workflowDir = getWorkflowDirectory("bug4185_ResetComplexFlow");
+    }
+
+    @Test(timeout = 120000)
+    public void testParallelEqualsSequentialLoad() throws Exception {
+        System.setProperty(KNIMEConstants.PROPERTY_WORKFLOW_LOAD_PARALLEL, "false");
+        List<String> expected = loadExecuteAndDescribe();
+        assertTrue("Number of nodes", expected.size() > 50);
+
+        System.setProperty(KNIMEConstants.PROPERTY_WORKFLOW_LOAD_PARALLEL, "true");
+        List<String> actual = loadExecuteAndDescribe();
+        assertEquals(expected, actual);
+    }
+
+    /** Loads the workflow, lists its nodes and connections as loaded and the output tables after execution. */
+    private List<String> loadExecuteAndDescribe() throws Exception {
+        loadAndSetWorkflow(m_workflowDir);
+        WorkflowManager m = getManager();
+        List<String> result = new ArrayList<String>();
+        describe(m, m.getID().toString(), result);
+        executeAllAndWait();
+        checkState(m, InternalNodeContainerState.EXECUTED);
+        for (SingleNodeContainer snc : iterateSNCs(m, true)) {
+            for (int i = 1; i < snc.getNrOutPorts(); i++) {
+                PortObject object = snc.getOutPort(i).getPortObject();
+                if (object instanceof BufferedDataTable) {
+                    BufferedDataTable table = (BufferedDataTable)object;
+                    result.add(relativeID(snc, m.getID().toString()) + ":" + i + " " + table.getDataTableSpec());
+                    for (DataRow row : table) {
+                        result.add(row.toString());
+                    }
+                }
+            }
+        }
+        closeWorkflow();
+        return result;
+    }
+
+    /** Adds name, state and settings of all nodes and the connections, by ID relative to the project. */
+    private static void describe(final WorkflowManager wfm, final String projectID, final List<String> result)
+        throws Exception {
+        for (NodeContainer nc : wfm.getNodeContainers()) {
+            result.add(relativeID(nc, projectID) + " " + nc.getName() + " " + nc.getInternalState());
+            if (nc instanceof WorkflowManager) {
+                describe((WorkflowManager)nc, projectID, result);
+            } else {
+                NodeSettings settings = new NodeSettings("settings");
+                wfm.saveNodeSettings(nc.getID(), settings);
+                result.add(settings.toString());
+            }
+        }
+        for (ConnectionContainer cc : wfm.getConnectionContainers()) {
+            result.add(cc.getSource().toString().replace(projectID, "") + ":" + cc.getSourcePort() + " -> "
+                + cc.getDest().toString().replace(projectID, "") + ":" + cc.getDestPort());
+        }
+    }
+
+    private static String relativeID(final NodeContainer nc, final String projectID) {
+        return nc.getID().toString().substring(projectID.length());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @After
+    public void tearDown() throws Exception {
+        if (m_oldProperty == null) {
+            System.clearProperty(KNIMEConstants.PROPERTY_WORKFLOW_LOAD_PARALLEL);
+        } else {
+            System.setProperty(KNIMEConstants.PROPERTY_WORKFLOW_LOAD_PARALLEL, m_oldProperty);
+        }
+        super.tearDown();
+    }
+
+}
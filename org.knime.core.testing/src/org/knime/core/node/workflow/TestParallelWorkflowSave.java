@@ -0,0 +1,141 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.data.DataRow;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Saves an executed workflow with a metanode with {@link KNIMEConstants#PROPERTY_WORKFLOW_SAVE_PARALLEL} enabled and
+ * checks that the reloaded workflow has the same node states and output tables.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TestParallelWorkflowSave extends WorkflowTestCase {
+
+    private File m_tmpWorkflowDir;
+
+    private String m_oldProperty;
+
+    @Before
+    public void setUp() throws Exception {
+        m_oldProperty = System.setProperty(KNIMEConstants.PROPERTY_WORKFLOW_SAVE_PARALLEL, "true");
+        m_tmpWorkflowDir = FileUtil.createTempDir(getClass().getSimpleName());
+        FileUtil.copyDir(getWorkflowDirectory("metawithsinglenode"), m_tmpWorkflowDir);
+        loadAndSetWorkflow(m_tmpWorkflowDir);
+    }
+
+    @Test(timeout = 60000)
+    public void testSaveAndLoad() throws Exception {
+        WorkflowManager m = getManager();
+        executeAllAndWait();
+        checkState(m, InternalNodeContainerState.EXECUTED);
+        Map<String, List<String>> expected = collectOutput(m);
+        assertEquals("Number of nodes", 3, expected.size());
+
+        m.save(m_tmpWorkflowDir, new ExecutionMonitor(), true);
+        assertFalse(m.isDirty());
+        closeWorkflow();
+
+        loadAndSetWorkflow(m_tmpWorkflowDir);
+        m = getManager();
+        checkState(m, InternalNodeContainerState.EXECUTED);
+        assertEquals(expected, collectOutput(m));
+    }
+
+    /** Table contents at the output ports of all nodes, including the ones in metanodes, by node ID relative to
+     * the workflow (the reloaded workflow has a different ID). */
+    private static Map<String, List<String>> collectOutput(final WorkflowManager wfm) {
+        Map<String, List<String>> result = new LinkedHashMap<String, List<String>>();
+        for (SingleNodeContainer snc : iterateSNCs(wfm, true)) {
+            List<String> rows = new ArrayList<String>();
+            for (int i = 1; i < snc.getNrOutPorts(); i++) {
+                PortObject object = snc.getOutPort(i).getPortObject();
+                if (object instanceof BufferedDataTable) {
+                    BufferedDataTable table = (BufferedDataTable)object;
+                    rows.add(table.getDataTableSpec().toString());
+                    for (DataRow row : table) {
+                        rows.add(row.toString());
+                    }
+                }
+            }
+            result.put(snc.getID().toString().substring(wfm.getID().toString().length()), rows);
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @After
+    public void tearDown() throws Exception {
+        if (m_oldProperty == null) {
+            System.clearProperty(KNIMEConstants.PROPERTY_WORKFLOW_SAVE_PARALLEL);
+        } else {
+            System.setProperty(KNIMEConstants.PROPERTY_WORKFLOW_SAVE_PARALLEL, m_oldProperty);
+        }
+        super.tearDown();
+        FileUtil.deleteRecursively(m_tmpWorkflowDir);
+    }
+
+}
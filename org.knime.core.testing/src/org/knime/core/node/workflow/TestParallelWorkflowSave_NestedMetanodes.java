@@ -0,0 +1,167 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.FileNodePersistor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodePersistor;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.node.adapter.AdapterNodeFactory;
+import org.knime.core.node.workflow.node.adapter.AdapterNodeModel;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Saves a workflow with nested metanodes whose nodes lock their workflow while saving their internals, with the
+ * default setting of {@link KNIMEConstants#PROPERTY_WORKFLOW_SAVE_PARALLEL}. Used to deadlock when the nodes were
+ * saved in the global thread pool while the saving thread held the workflow lock.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TestParallelWorkflowSave_NestedMetanodes extends WorkflowTestCase {
+
+    private static final String INTERNALS_FILE = "node_count.txt";
+
+    private File m_workflowDirectory;
+
+    private String m_oldProperty;
+
+    @Before
+    public void setUp() throws Exception {
+        m_oldProperty = System.getProperty(KNIMEConstants.PROPERTY_WORKFLOW_SAVE_PARALLEL);
+        System.clearProperty(KNIMEConstants.PROPERTY_WORKFLOW_SAVE_PARALLEL);
+        m_workflowDirectory = FileUtil.createTempDir(getClass().getSimpleName());
+        final WorkflowCreationHelper creationHelper = new WorkflowCreationHelper();
+        creationHelper.setWorkflowContext(new WorkflowContext.Factory(m_workflowDirectory).createContext());
+        WorkflowManager wm = WorkflowManager.ROOT.createAndAddProject(getClass().getSimpleName(), creationHelper);
+        setManager(wm);
+        WorkflowManager outer = wm.createAndAddSubWorkflow(new PortType[0], new PortType[0], "Outer");
+        WorkflowManager inner = outer.createAndAddSubWorkflow(new PortType[0], new PortType[0], "Inner");
+        for (WorkflowManager m : new WorkflowManager[]{wm, outer, inner}) {
+            for (int i = 0; i < 4; i++) {
+                m.addNode(new LockingSourceNodeFactory());
+            }
+        }
+    }
+
+    /** Executes and saves the workflow, checks that the internals and the output tables of all nodes are written.
+     * @throws Exception ... */
+    @Test(timeout = 60000)
+    public void testSaveDoesNotDeadlock() throws Exception {
+        WorkflowManager wm = getManager();
+        executeAllAndWait();
+        checkState(wm, InternalNodeContainerState.EXECUTED);
+
+        wm.save(m_workflowDirectory, new ExecutionMonitor(), true);
+        assertFalse(wm.isDirty());
+        int nodeCount = 0;
+        for (SingleNodeContainer snc : iterateSNCs(wm, true)) {
+            File nodeDir = snc.getNodeContainerDirectory().getFile();
+            File internalsFile = new File(new File(nodeDir, NodePersistor.INTERN_FILE_DIR), INTERNALS_FILE);
+            assertTrue("No internals written for " + snc.getNameWithID(), internalsFile.isFile());
+            String expectedCount = Integer.toString(snc.getParent().getNodeContainers().size());
+            assertEquals("Internals of " + snc.getNameWithID(), expectedCount,
+                new String(Files.readAllBytes(internalsFile.toPath()), StandardCharsets.UTF_8));
+            File tableDir = new File(nodeDir, FileNodePersistor.PORT_FOLDER_PREFIX + 1);
+            assertTrue("No output table written for " + snc.getNameWithID(),
+                new File(tableDir, "data.xml").isFile());
+            nodeCount += 1;
+        }
+        assertEquals("Number of nodes", 12, nodeCount);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @After
+    public void tearDown() throws Exception {
+        if (m_oldProperty != null) {
+            System.setProperty(KNIMEConstants.PROPERTY_WORKFLOW_SAVE_PARALLEL, m_oldProperty);
+        }
+        super.tearDown();
+        FileUtil.deleteRecursively(m_workflowDirectory);
+    }
+
+    /** Source with a small table that counts the nodes of its workflow in its internals - which needs the workflow
+     * lock, held by the saving thread. */
+    public static final class LockingSourceNodeFactory extends AdapterNodeFactory {
+
+        /** Creates a simple source node. */
+        public LockingSourceNodeFactory() {
+            super(true);
+        }
+
+        @Override
+        public AdapterNodeModel createNodeModel() {
+            return new AdapterNodeModel(0, 1) {
+                @Override
+                protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec)
+                    throws IOException {
+                    WorkflowManager parent = NodeContext.getContext().getNodeContainer().getParent();
+                    try (WorkflowLock lock = parent.lock()) {
+                        String count = Integer.toString(parent.getNodeContainers().size());
+                        Files.write(new File(nodeInternDir, INTERNALS_FILE).toPath(),
+                            count.getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,364 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.knime.core.node.workflow.InternalNodeContainerState.EXECUTED;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.container.SingleCellFactory;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.exec.streaming.StreamingNodeExecutionJobManagerFactory;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.MergeOperator;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortInput;
+import org.knime.core.node.streamable.PortObjectOutput;
+import org.knime.core.node.streamable.PortOutput;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.node.streamable.StreamableOperator;
+import org.knime.core.node.streamable.StreamableOperatorInternals;
+import org.knime.core.node.streamable.simple.SimpleStreamableOperatorInternals;
+import org.knime.core.node.workflow.node.adapter.AdapterNodeFactory;
+import org.knime.core.node.workflow.node.adapter.AdapterNodeModel;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Executes a component containing a source, a distributable node and a node with a {@link MergeOperator} with the
+ * streaming job manager and compares the output with the one of the non-streamed execution.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class TestSubnode_StreamingJobManager extends WorkflowTestCase {
+
+    private static final int ROW_COUNT = 20000;
+
+    private File m_workflowDirectory;
+
+    private NodeID m_component;
+
+    private NodeID m_distributedSink;
+
+    private NodeID m_mergedSink;
+
+    @Before
+    public void setUp() throws Exception {
+        m_workflowDirectory = FileUtil.createTempDir(getClass().getSimpleName());
+        final WorkflowCreationHelper creationHelper = new WorkflowCreationHelper();
+        creationHelper.setWorkflowContext(new WorkflowContext.Factory(m_workflowDirectory).createContext());
+        WorkflowManager wm = WorkflowManager.ROOT.createAndAddProject(getClass().getSimpleName(), creationHelper);
+        setManager(wm);
+        NodeID source = wm.addNode(new SourceNodeFactory());
+        NodeID distributed = wm.addNode(new DistributedNodeFactory());
+        NodeID merged = wm.addNode(new MergedNodeFactory());
+        m_distributedSink = wm.addNode(new AdapterNodeFactory());
+        m_mergedSink = wm.addNode(new AdapterNodeFactory());
+        wm.addConnection(source, 1, distributed, 1);
+        wm.addConnection(distributed, 1, merged, 1);
+        wm.addConnection(distributed, 1, m_distributedSink, 1);
+        wm.addConnection(merged, 1, m_mergedSink, 1);
+        NodeID metanode = wm.collapseIntoMetaNode(new NodeID[]{source, distributed, merged},
+            new WorkflowAnnotation[0], "Streamed").getCollapsedMetanodeID();
+        // the component keeps the ID of the metanode
+        wm.convertMetaNodeToSubNode(metanode);
+        m_component = metanode;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @After
+    public void tearDown() throws Exception {
+        super.tearDown();
+        FileUtil.deleteRecursively(m_workflowDirectory);
+    }
+
+    /** Executes the component sequentially and streamed, compares the output.
+     * @throws Exception ... */
+    @Test
+    public void testStreamedEqualsNonStreamed() throws Exception {
+        WorkflowManager wm = getManager();
+        executeAllAndWait();
+        checkState(wm, EXECUTED);
+        List<String> expectedDistributed = getRows(m_distributedSink);
+        List<String> expectedMerged = getRows(m_mergedSink);
+        assertEquals("Rows of non-streamed execution", ROW_COUNT, expectedDistributed.size());
+
+        wm.resetAndConfigureAll();
+        wm.setJobManager(m_component, StreamingNodeExecutionJobManagerFactory.INSTANCE.getInstance());
+        executeAllAndWait();
+        checkState(m_component, EXECUTED);
+        checkState(wm, EXECUTED);
+        assertEquals("Distributed output", expectedDistributed, getRows(m_distributedSink));
+        assertEquals("Merged output", expectedMerged, getRows(m_mergedSink));
+        assertFalse("Merged output is empty", expectedMerged.isEmpty());
+    }
+
+    private List<String> getRows(final NodeID id) {
+        BufferedDataTable table = (BufferedDataTable)findNodeContainer(id).getOutPort(1).getPortObject();
+        List<String> rows = new ArrayList<>();
+        for (DataRow row : table) {
+            rows.add(row.toString());
+        }
+        return rows;
+    }
+
+    private static DataTableSpec createSumSpec() {
+        return new DataTableSpec(new DataColumnSpecCreator("Count", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("Sum", DoubleCell.TYPE).createSpec());
+    }
+
+    /** Source with {@link #ROW_COUNT} rows. */
+    public static final class SourceNodeFactory extends AdapterNodeFactory {
+
+        @Override
+        public AdapterNodeModel createNodeModel() {
+            return new AdapterNodeModel(0, 1) {
+                private final DataTableSpec m_spec =
+                    new DataTableSpec(new DataColumnSpecCreator("Value", IntCell.TYPE).createSpec());
+
+                @Override
+                protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) {
+                    return new DataTableSpec[]{m_spec};
+                }
+
+                @Override
+                protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) {
+                    BufferedDataContainer cnt = exec.createDataContainer(m_spec);
+                    for (int i = 0; i < ROW_COUNT; i++) {
+                        cnt.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i), new IntCell(i % 1000)));
+                    }
+                    cnt.close();
+                    return new BufferedDataTable[]{cnt.getTable()};
+                }
+            };
+        }
+    }
+
+    /** Appends the doubled value, distributable. */
+    public static final class DistributedNodeFactory extends AdapterNodeFactory {
+
+        @Override
+        public AdapterNodeModel createNodeModel() {
+            return new AdapterNodeModel(1, 1) {
+
+                private ColumnRearranger createRearranger(final DataTableSpec spec) {
+                    ColumnRearranger rearranger = new ColumnRearranger(spec);
+                    rearranger.append(
+                        new SingleCellFactory(new DataColumnSpecCreator("Doubled", DoubleCell.TYPE).createSpec()) {
+                            @Override
+                            public DataCell getCell(final DataRow row) {
+                                return new DoubleCell(2.0 * ((IntCell)row.getCell(0)).getIntValue());
+                            }
+                        });
+                    return rearranger;
+                }
+
+                @Override
+                protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) {
+                    return new DataTableSpec[]{createRearranger((DataTableSpec)inSpecs[0]).createSpec()};
+                }
+
+                @Override
+                protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec)
+                    throws Exception {
+                    BufferedDataTable in = (BufferedDataTable)inObjects[0];
+                    return new BufferedDataTable[]{
+                        exec.createColumnRearrangeTable(in, createRearranger(in.getDataTableSpec()), exec)};
+                }
+
+                @Override
+                public InputPortRole[] getInputPortRoles() {
+                    return new InputPortRole[]{InputPortRole.DISTRIBUTED_STREAMABLE};
+                }
+
+                @Override
+                public OutputPortRole[] getOutputPortRoles() {
+                    return new OutputPortRole[]{OutputPortRole.DISTRIBUTED};
+                }
+
+                @Override
+                public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+                    final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+                    return createRearranger((DataTableSpec)inSpecs[0]).createStreamableFunction();
+                }
+            };
+        }
+    }
+
+    /** Counts the rows and sums up the second column, with a merge operator. */
+    public static final class MergedNodeFactory extends AdapterNodeFactory {
+
+        @Override
+        public AdapterNodeModel createNodeModel() {
+            return new AdapterNodeModel(1, 1) {
+
+                @Override
+                protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) {
+                    return new DataTableSpec[]{createSumSpec()};
+                }
+
+                @Override
+                protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) {
+                    long count = 0;
+                    double sum = 0;
+                    for (DataRow row : (BufferedDataTable)inObjects[0]) {
+                        count++;
+                        sum += ((DoubleCell)row.getCell(1)).getDoubleValue();
+                    }
+                    BufferedDataContainer cnt = exec.createDataContainer(createSumSpec());
+                    cnt.addRowToTable(new DefaultRow(RowKey.createRowKey(0L), new LongCell(count),
+                        new DoubleCell(sum)));
+                    cnt.close();
+                    return new BufferedDataTable[]{cnt.getTable()};
+                }
+
+                @Override
+                public InputPortRole[] getInputPortRoles() {
+                    return new InputPortRole[]{InputPortRole.DISTRIBUTED_STREAMABLE};
+                }
+
+                @Override
+                public OutputPortRole[] getOutputPortRoles() {
+                    return new OutputPortRole[]{OutputPortRole.NONDISTRIBUTED};
+                }
+
+                @Override
+                public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+                    final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+                    return new StreamableOperator() {
+                        private final SimpleStreamableOperatorInternals m_internals =
+                            new SimpleStreamableOperatorInternals();
+
+                        @Override
+                        public void runFinal(final PortInput[] inputs, final PortOutput[] outputs,
+                            final ExecutionContext exec) throws Exception {
+                            RowInput in = (RowInput)inputs[0];
+                            long count = 0;
+                            double sum = 0;
+                            DataRow row;
+                            while ((row = in.poll()) != null) {
+                                count++;
+                                sum += ((DoubleCell)row.getCell(1)).getDoubleValue();
+                            }
+                            in.close();
+                            m_internals.getConfig().addLong("count", count);
+                            m_internals.getConfig().addDouble("sum", sum);
+                        }
+
+                        @Override
+                        public StreamableOperatorInternals saveInternals() {
+                            return m_internals;
+                        }
+                    };
+                }
+
+                @Override
+                public MergeOperator createMergeOperator() {
+                    return new MergeOperator() {
+                        @Override
+                        public StreamableOperatorInternals mergeFinal(final StreamableOperatorInternals[] operators) {
+                            long count = 0;
+                            double sum = 0;
+                            for (StreamableOperatorInternals o : operators) {
+                                SimpleStreamableOperatorInternals internals = (SimpleStreamableOperatorInternals)o;
+                                count += internals.getConfig().getLong("count", 0L);
+                                sum += internals.getConfig().getDouble("sum", 0.0);
+                            }
+                            SimpleStreamableOperatorInternals result = new SimpleStreamableOperatorInternals();
+                            result.getConfig().addLong("count", count);
+                            result.getConfig().addDouble("sum", sum);
+                            return result;
+                        }
+                    };
+                }
+
+                @Override
+                public void finishStreamableExecution(final StreamableOperatorInternals internals,
+                    final ExecutionContext exec, final PortOutput[] output) throws Exception {
+                    SimpleStreamableOperatorInternals merged = (SimpleStreamableOperatorInternals)internals;
+                    DataRow row = new DefaultRow(RowKey.createRowKey(0L),
+                        new LongCell(merged.getConfig().getLong("count")),
+                        new DoubleCell(merged.getConfig().getDouble("sum")));
+                    if (output[0] instanceof RowOutput) {
+                        ((RowOutput)output[0]).push(row);
+                        ((RowOutput)output[0]).close();
+                    } else {
+                        BufferedDataContainer cnt = exec.createDataContainer(createSumSpec());
+                        cnt.addRowToTable(row);
+                        cnt.close();
+                        ((PortObjectOutput)output[0]).setPortObject(cnt.getTable());
+                    }
+                }
+            };
+        }
+    }
+}
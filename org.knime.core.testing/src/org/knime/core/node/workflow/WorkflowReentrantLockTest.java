@@ -0,0 +1,284 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.workflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the shared (read) mode of {@link WorkflowReentrantLock}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class WorkflowReentrantLockTest {
+
+    private ExecutorService m_executor;
+
+    private WorkflowReentrantLock m_lock;
+
+    /** Creates lock and threads. */
+    @Before
+    public void setUp() {
+        m_executor = Executors.newCachedThreadPool();
+        m_lock = new WorkflowReentrantLock();
+    }
+
+    /** Stops threads. */
+    @After
+    public void tearDown() {
+        m_executor.shutdownNow();
+    }
+
+    /** Multiple threads hold the read lock at the same time. */
+    @Test(timeout = 10000)
+    public void testConcurrentReaders() throws Exception {
+        final int readerCount = 4;
+        final CountDownLatch allReading = new CountDownLatch(readerCount);
+        final CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < readerCount; i++) {
+            m_executor.submit(() -> {
+                m_lock.lockRead();
+                try {
+                    allReading.countDown();
+                    release.await();
+                } finally {
+                    m_lock.unlockRead();
+                }
+                return null;
+            });
+        }
+        assertTrue("Readers blocked each other", allReading.await(5, TimeUnit.SECONDS));
+        assertEquals(readerCount, m_lock.getReadLockCount());
+        release.countDown();
+    }
+
+    /** The exclusive lock is granted only after the readers are gone, new readers wait for the writer. */
+    @Test(timeout = 10000)
+    public void testWriterWaitsForReaders() throws Exception {
+        m_lock.lockRead();
+        assertFalse("Exclusive lock granted while reader active",
+            m_executor.submit(() -> m_lock.tryLock()).get());
+        final AtomicBoolean isWriting = new AtomicBoolean();
+        Future<?> writer = m_executor.submit(() -> {
+            m_lock.lock();
+            try {
+                isWriting.set(true);
+                Thread.sleep(100);
+                isWriting.set(false);
+            } finally {
+                m_lock.unlock();
+            }
+            return null;
+        });
+        Thread.sleep(200);
+        assertFalse("Writer active while reader holds lock", isWriting.get());
+        m_lock.unlockRead();
+        writer.get();
+        Future<Boolean> reader = m_executor.submit(() -> {
+            m_lock.lockRead();
+            try {
+                return !isWriting.get();
+            } finally {
+                m_lock.unlockRead();
+            }
+        });
+        assertTrue("Reader active while writer holds lock", reader.get());
+        assertEquals(0, m_lock.getReadLockCount());
+    }
+
+    /** Writer can acquire the read lock, a reader can upgrade to the exclusive lock. */
+    @Test(timeout = 10000)
+    public void testReentrance() throws Exception {
+        m_lock.lock();
+        m_lock.lockRead();
+        m_lock.lock(); // still allowed, exclusive lock is held
+        m_lock.unlock();
+        m_lock.unlockRead();
+        m_lock.unlock();
+        assertFalse(m_lock.isLocked());
+        assertEquals(0, m_lock.getReadLockCount());
+
+        m_lock.lockRead();
+        m_lock.lockRead();
+        try {
+            m_lock.lock();
+            try {
+                assertTrue(m_lock.isHeldByCurrentThread());
+                assertTrue(m_lock.isReadLockHeldByCurrentThread());
+                // the read lock of the upgraded thread isn't counted
+                assertEquals(0, m_lock.getReadLockCount());
+            } finally {
+                m_lock.unlock();
+            }
+            assertEquals(1, m_lock.getReadLockCount());
+        } finally {
+            m_lock.unlockRead();
+            m_lock.unlockRead();
+        }
+        assertFalse(m_lock.isReadLockHeldByCurrentThread());
+        assertEquals(0, m_lock.getReadLockCount());
+
+        // read lock released while upgraded
+        m_lock.lockRead();
+        m_lock.lock();
+        m_lock.unlockRead();
+        m_lock.unlock();
+        assertFalse(m_lock.isLocked());
+        assertEquals(0, m_lock.getReadLockCount());
+    }
+
+    /** Readers upgrading to the exclusive lock at the same time don't deadlock and don't write concurrently. The
+     * upgrade waits for other readers, a failed tryLock keeps the read lock. */
+    @Test(timeout = 10000)
+    public void testConcurrentUpgrades() throws Exception {
+        final int readerCount = 4;
+        final CountDownLatch allReading = new CountDownLatch(readerCount);
+        final AtomicInteger writerCount = new AtomicInteger();
+        final AtomicBoolean isConcurrent = new AtomicBoolean();
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < readerCount; i++) {
+            futures.add(m_executor.submit(() -> {
+                m_lock.lockRead();
+                try {
+                    allReading.countDown();
+                    allReading.await();
+                    m_lock.lock();
+                    try {
+                        isConcurrent.compareAndSet(false, writerCount.incrementAndGet() > 1);
+                        Thread.sleep(20);
+                        writerCount.decrementAndGet();
+                    } finally {
+                        m_lock.unlock();
+                    }
+                } finally {
+                    m_lock.unlockRead();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        assertFalse("Upgraded readers wrote concurrently", isConcurrent.get());
+        assertFalse(m_lock.isLocked());
+        assertEquals(0, m_lock.getReadLockCount());
+
+        // the upgrade waits for the other reader
+        m_lock.lockRead();
+        final CountDownLatch otherReading = new CountDownLatch(1);
+        final CountDownLatch releaseOther = new CountDownLatch(1);
+        Future<?> other = m_executor.submit(() -> {
+            m_lock.lockRead();
+            try {
+                otherReading.countDown();
+                releaseOther.await();
+            } finally {
+                m_lock.unlockRead();
+            }
+            return null;
+        });
+        otherReading.await();
+        assertFalse("Upgrade granted while other reader active", m_lock.tryLock());
+        assertEquals(2, m_lock.getReadLockCount());
+        assertFalse("Upgrade granted while other reader active", m_lock.tryLock(100, TimeUnit.MILLISECONDS));
+        assertEquals(2, m_lock.getReadLockCount());
+        releaseOther.countDown();
+        other.get();
+        assertTrue(m_lock.tryLock(5, TimeUnit.SECONDS));
+        m_lock.unlock();
+        m_lock.unlockRead();
+        assertFalse(m_lock.isLocked());
+        assertEquals(0, m_lock.getReadLockCount());
+    }
+
+    /** A thread waking up from a condition doesn't run concurrently to readers that entered in the meantime. */
+    @Test(timeout = 10000)
+    public void testConditionWaitsForReaders() throws Exception {
+        final Condition condition = m_lock.newCondition();
+        final AtomicBoolean isReading = new AtomicBoolean();
+        final CountDownLatch waiterIn = new CountDownLatch(1);
+        Future<Boolean> waiter = m_executor.submit(() -> {
+            m_lock.lock();
+            try {
+                waiterIn.countDown();
+                condition.await(200, TimeUnit.MILLISECONDS);
+                return !isReading.get();
+            } finally {
+                m_lock.unlock();
+            }
+        });
+        waiterIn.await();
+        // granted once the waiter releases the lock in await
+        m_lock.lockRead();
+        try {
+            isReading.set(true);
+            Thread.sleep(500);
+            isReading.set(false);
+        } finally {
+            m_lock.unlockRead();
+        }
+        assertTrue("Woken up thread ran concurrently to reader", waiter.get());
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the order in which {@link FairTaskQueue} returns its tasks.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public class FairTaskQueueTest {
+
+    private static List<String> takeAll(final FairTaskQueue<String> queue) {
+        List<String> result = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            Iterator<String> it = queue.iterator();
+            result.add(it.next());
+            it.remove();
+        }
+        return result;
+    }
+
+    /** Higher ranks first, groups of the same rank take turns, tasks of a group in submission order. */
+    @Test
+    public void testOrder() {
+        FairTaskQueue<String> queue = new FairTaskQueue<>();
+        queue.add("a1", 0, "A");
+        queue.add("a2", 0, "A");
+        queue.add("a3", 0, "A");
+        queue.add("b1", 0, "B");
+        queue.add("n1", 0, null);
+        queue.add("h1", 2, "B");
+        queue.add("b2", 0, "B");
+        assertEquals(7, queue.size());
+        assertEquals(Arrays.asList("h1", "a1", "b1", "n1", "a2", "b2", "a3"), takeAll(queue));
+    }
+
+    /** Removing a task directly (e.g. canceled) doesn't affect the turns. */
+    @Test
+    public void testRemove() {
+        FairTaskQueue<String> queue = new FairTaskQueue<>();
+        queue.add("a1", 0, "A");
+        queue.add("a2", 0, "A");
+        queue.add("b1", 0, "B");
+        assertTrue(queue.remove("a1"));
+        assertFalse(queue.remove("a1"));
+        assertEquals(Arrays.asList("a2", "b1"), takeAll(queue));
+        assertEquals(0, queue.size());
+    }
+
+}
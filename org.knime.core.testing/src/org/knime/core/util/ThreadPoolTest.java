@@ -49,9 +49,15 @@
 
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.osgi.internal.framework.ContextFinder;
@@ -434,4 +440,127 @@ public ClassLoader call() throws Exception {
             Thread.currentThread().setContextClassLoader(cl);
         }
     }
+
+    /**
+     * Checks that a pool thread waiting for a queued task of a sub pool runs the task itself instead of waiting for
+     * another thread.
+     *
+     * @throws Exception if an error occurs
+     */
+    public void testWaitingThreadRunsQueuedTask() throws Exception {
+        final ThreadPool root = new ThreadPool(1);
+        Callable<Boolean> outer = new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                final Thread outerThread = Thread.currentThread();
+                ThreadPool sub = root.createSubPool(1);
+                List<Future<Thread>> futures = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    futures.add(sub.enqueue(new Callable<Thread>() {
+                        @Override
+                        public Thread call() throws Exception {
+                            return Thread.currentThread();
+                        }
+                    }));
+                }
+                boolean allInline = true;
+                for (Future<Thread> f : futures) {
+                    allInline &= f.get() == outerThread;
+                }
+                return allInline;
+            }
+        };
+        assertTrue("Queued sub tasks not run by the waiting thread", root.enqueue(outer).get());
+        root.waitForTermination();
+        root.shutdown();
+    }
+
+    /**
+     * Checks that a queued task of a sub pool is started once a pool thread that ran another task of the sub pool
+     * inline leaves the sub pool.
+     *
+     * @throws Exception if an error occurs
+     */
+    public void testQueuedTaskStartedAfterInlineTask() throws Exception {
+        final ThreadPool root = new ThreadPool(2);
+        final CountDownLatch blockerStarted = new CountDownLatch(1);
+        final CountDownLatch releaseBlocker = new CountDownLatch(1);
+        Future<?> blocker = root.enqueue(new Runnable() {
+            @Override
+            public void run() {
+                blockerStarted.countDown();
+                try {
+                    releaseBlocker.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        Callable<Boolean> outer = new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                blockerStarted.await();
+                ThreadPool sub = root.createSubPool(1);
+                final CountDownLatch secondStarted = new CountDownLatch(1);
+                // both are queued as the root pool is full
+                Future<?> first = sub.enqueue(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        // the slot of the root pool is freed while the sub pool is still full
+                        releaseBlocker.countDown();
+                        while (root.getRunningThreads() > 1) {
+                            Thread.sleep(10);
+                        }
+                        return null;
+                    }
+                });
+                sub.enqueue(new Runnable() {
+                    @Override
+                    public void run() {
+                        secondStarted.countDown();
+                    }
+                });
+                first.get();
+                return secondStarted.await(5, TimeUnit.SECONDS);
+            }
+        };
+        assertTrue("Queued sub task not started after inline task", root.enqueue(outer).get());
+        blocker.get();
+        root.waitForTermination();
+        root.shutdown();
+    }
+
+    /**
+     * Checks that tasks are started by priority.
+     *
+     * @throws Exception if an error occurs
+     */
+    public void testPriorities() throws Exception {
+        final ThreadPool root = new ThreadPool(1);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        root.enqueue(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blocker.await();
+                } catch (InterruptedException ex) {
+                    // ignore
+                }
+            }
+        });
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        for (ThreadPool.TaskPriority p : new ThreadPool.TaskPriority[]{ThreadPool.TaskPriority.LOW,
+            ThreadPool.TaskPriority.NORMAL, ThreadPool.TaskPriority.HIGH}) {
+            root.enqueue(new Runnable() {
+                @Override
+                public void run() {
+                    order.add(p.name());
+                }
+            }, p);
+        }
+        blocker.countDown();
+        root.waitForTermination();
+        assertEquals(Arrays.asList("HIGH", "NORMAL", "LOW"), order);
+        root.shutdown();
+    }
 }
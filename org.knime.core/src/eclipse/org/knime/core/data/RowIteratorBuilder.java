@@ -48,6 +48,7 @@
  */
 package org.knime.core.data;
 
+import java.util.Arrays;
 import java.util.function.Supplier;
 
 import org.knime.core.node.util.CheckUtils;
@@ -110,6 +111,9 @@
 
         private final DataTableSpec m_spec;
 
+        /** Indices as set via {@link #filterColumns(int...)}, null if all columns are to be iterated. */
+        private int[] m_filteredIndices;
+
         /**
          * Constructs a new {@link org.knime.core.data.RowIteratorBuilder.DefaultRowIteratorBuilder}.
          *
@@ -128,6 +132,7 @@ public DefaultRowIteratorBuilder(final Supplier<I> iteratorSupplier, final DataT
         @Override
         public RowIteratorBuilder<I> filterColumns(final int... indices) {
             m_spec.verifyIndices(indices);
+            m_filteredIndices = indices.clone();
             return this;
         }
 
@@ -147,6 +152,51 @@ public I build() {
             return m_iteratorSupplier.get();
         }
 
+        /**
+         * The indices of the columns the iterator is restricted to. Subclasses that are able to skip the reading of
+         * columns use this in {@link #build()}, the default implementation ignores it.
+         *
+         * @return the (sorted) column indices as set via {@link #filterColumns(int...)} or <code>null</code> if all
+         *         columns are to be iterated
+         * @since 3.8
+         */
+        protected final int[] getFilteredIndices() {
+            if (m_filteredIndices == null) {
+                return null;
+            }
+            int[] result = m_filteredIndices.clone();
+            Arrays.sort(result);
+            return result;
+        }
+
+        /**
+         * @return the spec of the table as passed in the constructor
+         * @since 3.8
+         */
+        protected final DataTableSpec getSpec() {
+            return m_spec;
+        }
+
+        /**
+         * Utility to convert the {@link #getFilteredIndices() filtered indices} into a mask.
+         *
+         * @param indices the filtered indices, possibly <code>null</code>
+         * @param numColumns the number of columns in the table
+         * @return an array of length <code>numColumns</code>, <code>true</code> for each column to be read;
+         *         <code>null</code> if the argument indices are <code>null</code>
+         * @since 3.8
+         */
+        public static boolean[] toColumnMask(final int[] indices, final int numColumns) {
+            if (indices == null) {
+                return null;
+            }
+            boolean[] mask = new boolean[numColumns];
+            for (int i : indices) {
+                mask[i] = true;
+            }
+            return mask;
+        }
+
     }
 
 }
@@ -0,0 +1,224 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream reading data as written by {@link BlockCompressedOutputStream}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BlockCompressedInputStream extends FilterInputStream {
+
+    private final BlockCompressionCodec m_codec;
+
+    private final DataInputStream m_in;
+
+    private final byte[] m_buffer = new byte[BlockCompressionCodec.MAX_BLOCK_SIZE];
+
+    private byte[] m_compressed;
+
+    private int m_count;
+
+    private int m_pos;
+
+    private boolean m_isEOF;
+
+    /**
+     * @param in the stream to read from, positioned at the stream header
+     * @throws IOException if the header can't be read or is invalid
+     */
+    BlockCompressedInputStream(final InputStream in) throws IOException {
+        super(in);
+        m_in = new DataInputStream(in);
+        final int magic = m_in.readInt();
+        if (magic != BlockCompressedOutputStream.MAGIC) {
+            throw new IOException(String.format("Invalid header of block compressed stream: 0x%08X", magic));
+        }
+        m_codec = BlockCompressionCodec.create(m_in.readByte());
+    }
+
+    /**
+     * Tests if the argument stream starts with the header of a block compressed stream. The stream needs to support
+     * {@link InputStream#mark(int)}, it is reset to its current position.
+     *
+     * @param in the stream to test
+     * @return that property
+     * @throws IOException if reading fails
+     */
+    static boolean isBlockCompressed(final InputStream in) throws IOException {
+        assert in.markSupported();
+        in.mark(4);
+        try {
+            int magic = 0;
+            for (int i = 0; i < 4; i++) {
+                final int b = in.read();
+                if (b < 0) {
+                    return false;
+                }
+                magic = (magic << 8) | b;
+            }
+            return magic == BlockCompressedOutputStream.MAGIC;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /** @return true if data is available, false if the end of the stream is reached */
+    private boolean ensureData() throws IOException {
+        while (m_pos == m_count) {
+            if (m_isEOF || !readBlock()) {
+                m_isEOF = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean readBlock() throws IOException {
+        try {
+            return readBlockFully();
+        } catch (EOFException e) {
+            // the stream always ends with a terminator (empty block), see BlockCompressedOutputStream#close()
+            throw new IOException("Truncated block compressed stream, end reached before terminator", e);
+        }
+    }
+
+    private boolean readBlockFully() throws IOException {
+        final int length = m_in.readInt();
+        if (length == 0) {
+            return false;
+        }
+        final int storedLength = m_in.readInt();
+        if (length < 0 || length > m_buffer.length || storedLength < 0 || storedLength > length) {
+            throw new IOException("Corrupt block compressed stream, invalid block length " + length + " ("
+                + storedLength + " stored)");
+        }
+        if (storedLength == length) {
+            m_in.readFully(m_buffer, 0, length);
+        } else {
+            if (m_codec == null) {
+                throw new IOException("Corrupt block compressed stream, compressed block in stream without codec");
+            }
+            if (m_compressed == null || m_compressed.length < storedLength) {
+                m_compressed = new byte[m_codec.maxCompressedLength(m_buffer.length)];
+            }
+            m_in.readFully(m_compressed, 0, storedLength);
+            m_codec.decompress(m_compressed, storedLength, m_buffer, length);
+        }
+        m_pos = 0;
+        m_count = length;
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return m_buffer[m_pos++] & 0xFF;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        final int length = Math.min(len, m_count - m_pos);
+        System.arraycopy(m_buffer, m_pos, b, off, length);
+        m_pos += length;
+        return length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && ensureData()) {
+            final int length = (int)Math.min(n - skipped, m_count - m_pos);
+            m_pos += length;
+            skipped += length;
+        }
+        return skipped;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int available() throws IOException {
+        return m_count - m_pos;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void mark(final int readlimit) {
+        // not supported
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that splits the data into blocks of at most {@link BlockCompressionCodec#MAX_BLOCK_SIZE} bytes and
+ * compresses each block with a {@link BlockCompressionCodec}. Blocks that don't get smaller are stored as they are.
+ *
+ * <p>Stream layout: {@link #MAGIC} (int), codec ID (byte), followed by blocks, each consisting of the uncompressed
+ * length (int), the stored length (int) and the stored bytes. The stream is terminated by a block of length 0.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @see BlockCompressedInputStream
+ */
+final class BlockCompressedOutputStream extends FilterOutputStream {
+
+    /** Magic number at the beginning of each stream ('KBC1'). */
+    static final int MAGIC = 0x4B424331;
+
+    private final BlockCompressionCodec m_codec;
+
+    private final DataOutputStream m_out;
+
+    private final byte[] m_buffer = new byte[BlockCompressionCodec.MAX_BLOCK_SIZE];
+
+    private final byte[] m_compressed;
+
+    private int m_count;
+
+    private boolean m_isClosed;
+
+    /**
+     * @param out the stream to write to
+     * @param codec the codec or null to store all blocks uncompressed
+     * @throws IOException if writing the header fails
+     */
+    BlockCompressedOutputStream(final OutputStream out, final BlockCompressionCodec codec) throws IOException {
+        super(out);
+        m_codec = codec;
+        m_out = new DataOutputStream(out);
+        m_compressed = codec == null ? null : new byte[codec.maxCompressedLength(m_buffer.length)];
+        m_out.writeInt(MAGIC);
+        m_out.writeByte(codec == null ? BlockCompressionCodec.ID_STORED : codec.getID());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(final int b) throws IOException {
+        if (m_count == m_buffer.length) {
+            writeBlock();
+        }
+        m_buffer[m_count++] = (byte)b;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (m_count == m_buffer.length) {
+                writeBlock();
+            }
+            final int length = Math.min(remaining, m_buffer.length - m_count);
+            System.arraycopy(b, offset, m_buffer, m_count, length);
+            m_count += length;
+            offset += length;
+            remaining -= length;
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (m_count == 0) {
+            return;
+        }
+        m_out.writeInt(m_count);
+        final int compressedLength = m_codec == null ? m_count : m_codec.compress(m_buffer, m_count, m_compressed);
+        if (compressedLength < m_count) {
+            m_out.writeInt(compressedLength);
+            m_out.write(m_compressed, 0, compressedLength);
+        } else {
+            m_out.writeInt(m_count);
+            m_out.write(m_buffer, 0, m_count);
+        }
+        m_count = 0;
+    }
+
+    /**
+     * Flushes the underlying stream but not the pending block (as a GZIP stream without sync flush), i.e. small flushes
+     * don't result in small blocks. {@inheritDoc}
+     */
+    @Override
+    public void flush() throws IOException {
+        m_out.flush();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException {
+        if (m_isClosed) {
+            return;
+        }
+        m_isClosed = true;
+        try {
+            writeBlock();
+            m_out.writeInt(0);
+            m_out.flush();
+        } finally {
+            m_out.close();
+        }
+    }
+
+}
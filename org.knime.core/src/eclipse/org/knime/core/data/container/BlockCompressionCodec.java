@@ -0,0 +1,478 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Fast byte-oriented LZ77 codecs that compress a block of bytes at a time. Unlike deflate (as used by GZIP) they don't
+ * apply any entropy coding, trading compression ratio for a much higher throughput. Used by
+ * {@link BlockCompressedOutputStream} and {@link BlockCompressedInputStream}.
+ *
+ * <p>Instances are not thread-safe (they keep a hash table for match finding); each stream creates its own codec.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+abstract class BlockCompressionCodec {
+
+    /** Codec ID of blocks that are always stored uncompressed. */
+    static final byte ID_STORED = 0;
+
+    /** Codec ID of the {@link Lz4} codec. */
+    static final byte ID_LZ4 = 1;
+
+    /** Codec ID of the {@link Snappy} codec. */
+    static final byte ID_SNAPPY = 2;
+
+    /** Maximum number of bytes in a block. Offsets of matches always fit into 16 bit. */
+    static final int MAX_BLOCK_SIZE = 1 << 16;
+
+    /** A match must not start within the last 12 bytes of a block (LZ4 requirement, also used for Snappy). */
+    private static final int MIN_MATCH_START_DISTANCE_TO_END = 12;
+
+    /** The last 5 bytes of a block are always literals (LZ4 requirement, also used for Snappy). */
+    private static final int LAST_LITERALS = 5;
+
+    private static final int MIN_MATCH = 4;
+
+    private static final int HASH_LOG = 12;
+
+    private final int[] m_hashTable = new int[1 << HASH_LOG];
+
+    /**
+     * @param id the codec ID as written into the stream header
+     * @return a new codec for the ID or null if the ID is {@link #ID_STORED}
+     * @throws IOException if the ID is unknown
+     */
+    static BlockCompressionCodec create(final byte id) throws IOException {
+        switch (id) {
+            case ID_STORED:
+                return null;
+            case ID_LZ4:
+                return new Lz4();
+            case ID_SNAPPY:
+                return new Snappy();
+            default:
+                throw new IOException("Unknown block compression codec ID: " + id);
+        }
+    }
+
+    /** @return the ID as written into the stream header. */
+    abstract byte getID();
+
+    /**
+     * @param length the length of an uncompressed block
+     * @return the maximum length of the compressed block
+     */
+    abstract int maxCompressedLength(int length);
+
+    /**
+     * Compresses a block.
+     *
+     * @param src the bytes to compress
+     * @param length number of bytes in <code>src</code>, at most {@link #MAX_BLOCK_SIZE}
+     * @param dest the destination, at least {@link #maxCompressedLength(int)} bytes long
+     * @return the number of bytes written to <code>dest</code>
+     */
+    final int compress(final byte[] src, final int length, final byte[] dest) {
+        int destPos = writeHeader(length, dest);
+        int anchor = 0;
+        if (length > MIN_MATCH_START_DISTANCE_TO_END) {
+            final int matchStartLimit = length - MIN_MATCH_START_DISTANCE_TO_END;
+            final int matchEndLimit = length - LAST_LITERALS;
+            final int[] hashTable = m_hashTable;
+            Arrays.fill(hashTable, -1);
+            int pos = 0;
+            while (pos < matchStartLimit) {
+                final int sequence = readInt(src, pos);
+                final int hash = (sequence * -1640531535) >>> (32 - HASH_LOG);
+                int ref = hashTable[hash];
+                hashTable[hash] = pos;
+                if (ref < 0 || pos - ref >= MAX_BLOCK_SIZE || readInt(src, ref) != sequence) {
+                    // skip faster over data that doesn't compress
+                    pos += 1 + ((pos - anchor) >>> 6);
+                    continue;
+                }
+                while (pos > anchor && ref > 0 && src[pos - 1] == src[ref - 1]) {
+                    pos--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (pos + matchLength < matchEndLimit && src[pos + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+                destPos = writeSequence(src, anchor, pos - anchor, pos - ref, matchLength, dest, destPos);
+                pos += matchLength;
+                anchor = pos;
+            }
+        }
+        return writeLastLiterals(src, anchor, length - anchor, dest, destPos);
+    }
+
+    /**
+     * Decompresses a block.
+     *
+     * @param src the compressed bytes
+     * @param length number of bytes in <code>src</code>
+     * @param dest the destination
+     * @param destLength the expected number of uncompressed bytes
+     * @throws IOException if the data is corrupt
+     */
+    abstract void decompress(byte[] src, int length, byte[] dest, int destLength) throws IOException;
+
+    /**
+     * Writes a preamble of a compressed block.
+     *
+     * @param length length of the uncompressed block
+     * @param dest the destination
+     * @return the position in <code>dest</code> after the header
+     */
+    int writeHeader(final int length, final byte[] dest) {
+        return 0;
+    }
+
+    /**
+     * Writes literals followed by a match.
+     *
+     * @param src the uncompressed block
+     * @param literalStart start of the literals in <code>src</code>
+     * @param literalLength number of literals, possibly 0
+     * @param offset distance of the match
+     * @param matchLength length of the match, at least 4
+     * @param dest the destination
+     * @param destPos position in the destination
+     * @return the new position in the destination
+     */
+    abstract int writeSequence(byte[] src, int literalStart, int literalLength, int offset, int matchLength,
+        byte[] dest, int destPos);
+
+    /**
+     * Writes the literals at the end of a block.
+     *
+     * @param src the uncompressed block
+     * @param literalStart start of the literals in <code>src</code>
+     * @param literalLength number of literals, possibly 0
+     * @param dest the destination
+     * @param destPos position in the destination
+     * @return the new position in the destination (= length of the compressed block)
+     */
+    abstract int writeLastLiterals(byte[] src, int literalStart, int literalLength, byte[] dest, int destPos);
+
+    private static int readInt(final byte[] b, final int pos) {
+        return (b[pos] & 0xFF) | (b[pos + 1] & 0xFF) << 8 | (b[pos + 2] & 0xFF) << 16 | (b[pos + 3] & 0xFF) << 24;
+    }
+
+    /** Copies a match, byte-wise if source and destination overlap. */
+    static void copyMatch(final byte[] dest, final int destPos, final int offset, final int matchLength)
+        throws IOException {
+        final int ref = destPos - offset;
+        if (offset <= 0 || ref < 0) {
+            throw new IOException("Corrupt compressed block, invalid match offset " + offset);
+        }
+        if (offset >= matchLength) {
+            System.arraycopy(dest, ref, dest, destPos, matchLength);
+        } else {
+            for (int i = 0; i < matchLength; i++) {
+                dest[destPos + i] = dest[ref + i];
+            }
+        }
+    }
+
+    /** The LZ4 block format. */
+    static final class Lz4 extends BlockCompressionCodec {
+
+        /** {@inheritDoc} */
+        @Override
+        byte getID() {
+            return ID_LZ4;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int maxCompressedLength(final int length) {
+            return length + length / 255 + 16;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int writeSequence(final byte[] src, final int literalStart, final int literalLength, final int offset,
+            final int matchLength, final byte[] dest, final int destPos) {
+            final int tokenPos = destPos;
+            int pos = writeLiterals(src, literalStart, literalLength, dest, destPos);
+            dest[pos++] = (byte)offset;
+            dest[pos++] = (byte)(offset >>> 8);
+            int remaining = matchLength - MIN_MATCH;
+            if (remaining >= 15) {
+                dest[tokenPos] |= 0x0F;
+                pos = writeLengthExtension(remaining - 15, dest, pos);
+            } else {
+                dest[tokenPos] |= remaining;
+            }
+            return pos;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int writeLastLiterals(final byte[] src, final int literalStart, final int literalLength, final byte[] dest,
+            final int destPos) {
+            return writeLiterals(src, literalStart, literalLength, dest, destPos);
+        }
+
+        /** Writes token (literal length only), length extension and the literals. */
+        private static int writeLiterals(final byte[] src, final int literalStart, final int literalLength,
+            final byte[] dest, final int destPos) {
+            int pos = destPos;
+            if (literalLength >= 15) {
+                dest[pos++] = (byte)(15 << 4);
+                pos = writeLengthExtension(literalLength - 15, dest, pos);
+            } else {
+                dest[pos++] = (byte)(literalLength << 4);
+            }
+            System.arraycopy(src, literalStart, dest, pos, literalLength);
+            return pos + literalLength;
+        }
+
+        private static int writeLengthExtension(final int length, final byte[] dest, final int destPos) {
+            int pos = destPos;
+            int remaining = length;
+            while (remaining >= 255) {
+                dest[pos++] = (byte)255;
+                remaining -= 255;
+            }
+            dest[pos++] = (byte)remaining;
+            return pos;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        void decompress(final byte[] src, final int length, final byte[] dest, final int destLength)
+            throws IOException {
+            int pos = 0;
+            int destPos = 0;
+            try {
+                while (true) {
+                    final int token = src[pos++] & 0xFF;
+                    int literalLength = token >>> 4;
+                    if (literalLength == 15) {
+                        int b;
+                        do {
+                            b = src[pos++] & 0xFF;
+                            literalLength += b;
+                        } while (b == 255);
+                    }
+                    System.arraycopy(src, pos, dest, destPos, literalLength);
+                    pos += literalLength;
+                    destPos += literalLength;
+                    if (pos >= length) {
+                        break;
+                    }
+                    final int offset = (src[pos++] & 0xFF) | (src[pos++] & 0xFF) << 8;
+                    int matchLength = token & 0x0F;
+                    if (matchLength == 15) {
+                        int b;
+                        do {
+                            b = src[pos++] & 0xFF;
+                            matchLength += b;
+                        } while (b == 255);
+                    }
+                    matchLength += MIN_MATCH;
+                    copyMatch(dest, destPos, offset, matchLength);
+                    destPos += matchLength;
+                }
+            } catch (IndexOutOfBoundsException e) {
+                throw new IOException("Corrupt LZ4 block", e);
+            }
+            if (destPos != destLength) {
+                throw new IOException("Corrupt LZ4 block, expected " + destLength + " bytes but got " + destPos);
+            }
+        }
+    }
+
+    /** The Snappy (raw) format. */
+    static final class Snappy extends BlockCompressionCodec {
+
+        /** {@inheritDoc} */
+        @Override
+        byte getID() {
+            return ID_SNAPPY;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int maxCompressedLength(final int length) {
+            return 32 + length + length / 6;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int writeHeader(final int length, final byte[] dest) {
+            int pos = 0;
+            int remaining = length;
+            while ((remaining & ~0x7F) != 0) {
+                dest[pos++] = (byte)((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            dest[pos++] = (byte)remaining;
+            return pos;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int writeSequence(final byte[] src, final int literalStart, final int literalLength, final int offset,
+            final int matchLength, final byte[] dest, final int destPos) {
+            int pos = writeLastLiterals(src, literalStart, literalLength, dest, destPos);
+            int remaining = matchLength;
+            // copy with 2 byte offset, length 1-64
+            while (remaining > 0) {
+                final int length = Math.min(remaining, 64);
+                dest[pos++] = (byte)(0x02 | ((length - 1) << 2));
+                dest[pos++] = (byte)offset;
+                dest[pos++] = (byte)(offset >>> 8);
+                remaining -= length;
+            }
+            return pos;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        int writeLastLiterals(final byte[] src, final int literalStart, final int literalLength, final byte[] dest,
+            final int destPos) {
+            if (literalLength == 0) {
+                return destPos;
+            }
+            int pos = destPos;
+            final int n = literalLength - 1;
+            if (n < 60) {
+                dest[pos++] = (byte)(n << 2);
+            } else if (n < (1 << 8)) {
+                dest[pos++] = (byte)(60 << 2);
+                dest[pos++] = (byte)n;
+            } else if (n < (1 << 16)) {
+                dest[pos++] = (byte)(61 << 2);
+                dest[pos++] = (byte)n;
+                dest[pos++] = (byte)(n >>> 8);
+            } else {
+                dest[pos++] = (byte)(62 << 2);
+                dest[pos++] = (byte)n;
+                dest[pos++] = (byte)(n >>> 8);
+                dest[pos++] = (byte)(n >>> 16);
+            }
+            System.arraycopy(src, literalStart, dest, pos, literalLength);
+            return pos + literalLength;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        void decompress(final byte[] src, final int length, final byte[] dest, final int destLength)
+            throws IOException {
+            int pos = 0;
+            int destPos = 0;
+            try {
+                int uncompressedLength = 0;
+                int shift = 0;
+                int b;
+                do {
+                    b = src[pos++] & 0xFF;
+                    uncompressedLength |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                if (uncompressedLength != destLength) {
+                    throw new IOException("Corrupt Snappy block, expected " + destLength + " bytes but header says "
+                        + uncompressedLength);
+                }
+                while (pos < length) {
+                    final int tag = src[pos++] & 0xFF;
+                    switch (tag & 0x03) {
+                        case 0: // literal
+                            int literalLength = tag >>> 2;
+                            if (literalLength >= 60) {
+                                final int bytes = literalLength - 59;
+                                literalLength = 0;
+                                for (int i = 0; i < bytes; i++) {
+                                    literalLength |= (src[pos++] & 0xFF) << (8 * i);
+                                }
+                            }
+                            literalLength++;
+                            System.arraycopy(src, pos, dest, destPos, literalLength);
+                            pos += literalLength;
+                            destPos += literalLength;
+                            break;
+                        case 1: { // copy, 1 byte offset
+                            final int matchLength = ((tag >>> 2) & 0x07) + 4;
+                            final int offset = ((tag & 0xE0) << 3) | (src[pos++] & 0xFF);
+                            copyMatch(dest, destPos, offset, matchLength);
+                            destPos += matchLength;
+                            break;
+                        }
+                        case 2: { // copy, 2 byte offset
+                            final int matchLength = (tag >>> 2) + 1;
+                            final int offset = (src[pos++] & 0xFF) | (src[pos++] & 0xFF) << 8;
+                            copyMatch(dest, destPos, offset, matchLength);
+                            destPos += matchLength;
+                            break;
+                        }
+                        default: { // copy, 4 byte offset
+                            final int matchLength = (tag >>> 2) + 1;
+                            final int offset = (src[pos++] & 0xFF) | (src[pos++] & 0xFF) << 8
+                                | (src[pos++] & 0xFF) << 16 | (src[pos++] & 0xFF) << 24;
+                            copyMatch(dest, destPos, offset, matchLength);
+                            destPos += matchLength;
+                            break;
+                        }
+                    }
+                }
+            } catch (IndexOutOfBoundsException e) {
+                throw new IOException("Corrupt Snappy block", e);
+            }
+            if (destPos != destLength) {
+                throw new IOException("Corrupt Snappy block, expected " + destLength + " bytes but got " + destPos);
+            }
+        }
+    }
+}
@@ -78,7 +78,6 @@
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.Deflater;
-import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipInputStream;
@@ -93,11 +92,13 @@
 import org.knime.core.data.RowIterator;
 import org.knime.core.data.RowIteratorBuilder;
 import org.knime.core.data.RowIteratorBuilder.DefaultRowIteratorBuilder;
+import org.knime.core.data.UnmaterializedCell;
 import org.knime.core.data.collection.BlobSupportDataCellIterator;
 import org.knime.core.data.collection.CellCollection;
 import org.knime.core.data.collection.CollectionDataValue;
 import org.knime.core.data.container.BlobDataCell.BlobAddress;
 import org.knime.core.data.container.DCObjectOutputVersion2.BlockableDCObjectOutputVersion2;
+import org.knime.core.data.container.DefaultTableStoreFormat.CompressionFormat;
 import org.knime.core.data.container.storage.AbstractTableStoreReader;
 import org.knime.core.data.container.storage.AbstractTableStoreReader.TableStoreCloseableRowIterator;
 import org.knime.core.data.container.storage.AbstractTableStoreWriter;
@@ -333,12 +334,6 @@ static boolean isUseCompressionForBlobs(final CellClassInfo cellClassInfo) {
         return result;
     }
 
-    /** Compression on the binary (main) file. */
-    enum CompressionFormat {
-        Gzip,
-        None;
-    }
-
     /** the file to write to. */
     private File m_binFile;
 
@@ -373,6 +368,9 @@ enum CompressionFormat {
     private IFileStoreHandler m_fileStoreHandler;
 
     private TableStoreFormat m_outputFormat;
+    /** Compression of the binary file (if written in the default format) and blob files. Determined when the buffer
+     * is created as it may depend on the node that creates it. */
+    private final CompressionFormat m_compressionFormat = CompressionFormat.getDefault();
     private AbstractTableStoreWriter m_outputWriter;
     private AbstractTableStoreReader m_outputReader;
 
@@ -388,6 +386,19 @@ enum CompressionFormat {
     /** maximum number of rows that are in memory. */
     private int m_maxRowsInMem;
 
+    /** maximum estimated size (in bytes) of the rows in memory, 0 if only limited by {@link #m_maxRowsInMem}. */
+    private long m_maxSizeInMem;
+
+    /** estimates the size of the rows added to m_list, null unless m_maxSizeInMem is set. */
+    private RowSizeEstimator m_rowSizeEstimator;
+
+    /** the estimated size of the rows in m_list (if m_maxSizeInMem is set or if tracked by the
+     * {@link BufferMemoryManager}), 0 if not known. */
+    private long m_sizeInMem;
+
+    /** the value of m_sizeInMem at which the free heap is checked next. */
+    private long m_nextHeapCheckSizeInMem;
+
     /** the current row count (how often has addRow been called). */
     private long m_size;
 
@@ -574,7 +585,7 @@ synchronized void addRow(final DataRow r, final boolean isCopyOfExisting, final
             getAndIncrementSize();
             if ((m_list != null) && (m_maxRowsInMem > 0)) {
                 m_list.add(row);
-                if (m_list.size() > m_maxRowsInMem) {
+                if (m_list.size() > m_maxRowsInMem || isMaxSizeInMemoryExceeded(row)) {
                     flushBuffer();
                 }
             } else {
@@ -601,6 +612,56 @@ synchronized void addRow(final DataRow r, final boolean isCopyOfExisting, final
         }
     } // addRow(DataRow)
 
+    /**
+     * Limits the rows kept in memory by their estimated heap size. Rows are swapped to disc once the estimated size of
+     * all rows exceeds the argument or a considerable fraction of the currently free heap, whichever is smaller. The
+     * row count limit passed in the constructor still applies. Must be called before rows are added.
+     *
+     * @param maxSizeInMemory the maximum estimated size in bytes, &gt; 0
+     */
+    synchronized void setMaxSizeInMemory(final long maxSizeInMemory) {
+        assert maxSizeInMemory > 0;
+        assert m_size == 0 : "Rows have been added already";
+        m_maxSizeInMem = maxSizeInMemory;
+        m_rowSizeEstimator = new RowSizeEstimator(m_spec.getNumColumns());
+        m_sizeInMem = 0L;
+        m_nextHeapCheckSizeInMem = HEAP_CHECK_INTERVAL;
+    }
+
+    /** The free heap is checked whenever the estimated size of the rows in memory has grown by that many bytes. */
+    private static final long HEAP_CHECK_INTERVAL = 4L << 20;
+
+    /** A buffer doesn't keep rows in memory which are estimated to occupy more than 1/n of the free heap. */
+    private static final int MAX_FRACTION_OF_FREE_HEAP = 4;
+
+    /**
+     * Called for each row added to m_list, updates the estimated size of the rows in memory.
+     *
+     * @return true if the rows in memory are too large and should be written to disc
+     */
+    private boolean isMaxSizeInMemoryExceeded(final BlobSupportDataRow row) {
+        if (m_rowSizeEstimator == null) {
+            return false;
+        }
+        m_sizeInMem += m_rowSizeEstimator.estimateRowSize(row);
+        if (m_sizeInMem > m_maxSizeInMem) {
+            LOGGER.debugWithFormat("Estimated size of %d rows in memory exceeds limit of %dMB, swapping to disc",
+                m_list.size(), m_maxSizeInMem >> 20);
+            return true;
+        }
+        if (m_sizeInMem >= m_nextHeapCheckSizeInMem) {
+            // other tables and nodes compete for the heap, spill early if it becomes scarce
+            final long freeHeap = MemoryAlertSystem.getMaximumMemory() - MemoryAlertSystem.getUsedMemory();
+            if (m_sizeInMem > freeHeap / MAX_FRACTION_OF_FREE_HEAP) {
+                LOGGER.debugWithFormat("Estimated size of %d rows in memory (%dMB) is large compared to free heap "
+                    + "(%dMB), swapping to disc", m_list.size(), m_sizeInMem >> 20, freeHeap >> 20);
+                return true;
+            }
+            m_nextHeapCheckSizeInMem = m_sizeInMem + HEAP_CHECK_INTERVAL;
+        }
+        return false;
+    }
+
     /**
      * Write all rows from list into file. Used while rows are added and if low mem condition is met.
      *
@@ -637,7 +698,12 @@ final int writeAllRowsFromListToFile() throws IOException {
      * @throws IOException
      */
     private void initOutputWriter(final OutputStream output) throws IOException, UnsupportedOperationException {
-        m_outputWriter = m_outputFormat.createWriter(output, m_spec, !shouldSkipRowKey());
+        if (m_outputFormat instanceof DefaultTableStoreFormat) {
+            m_outputWriter = ((DefaultTableStoreFormat)m_outputFormat).createWriter(
+                output, m_spec, !shouldSkipRowKey(), m_compressionFormat);
+        } else {
+            m_outputWriter = m_outputFormat.createWriter(output, m_spec, !shouldSkipRowKey());
+        }
         m_outputWriter.setFileStoreHandler((IWriteFileStoreHandler)m_fileStoreHandler);
     }
 
@@ -645,8 +711,12 @@ private void initOutputWriter(final OutputStream output) throws IOException, Uns
      * @throws IOException
      */
     private void initOutputWriter(final File binFile) throws IOException {
-        m_outputWriter = m_outputFormat.createWriter(binFile, m_spec, !shouldSkipRowKey());
-        m_outputWriter.setFileStoreHandler((IWriteFileStoreHandler)m_fileStoreHandler);
+        if (m_outputFormat instanceof DefaultTableStoreFormat) {
+            initOutputWriter(new FileOutputStream(binFile));
+        } else {
+            m_outputWriter = m_outputFormat.createWriter(binFile, m_spec, !shouldSkipRowKey());
+            m_outputWriter.setFileStoreHandler((IWriteFileStoreHandler)m_fileStoreHandler);
+        }
     }
 
     private BlobSupportDataRow saveBlobsAndFileStores(final DataRow row, final boolean isCopyOfExisting,
@@ -906,10 +976,7 @@ private void writeBlobDataCell(final BlobDataCell cell, final BlobAddress a) thr
         OutputStream out = new BufferedOutputStream(new FileOutputStream(outFile));
         Buffer.onFileCreated(outFile);
         if (isToCompress) {
-            out = new GZIPOutputStream(out);
-            // buffering the gzip stream brings another performance boost
-            // (in one case from 5mins down to 2 mins)
-            out = new BufferedOutputStream(out);
+            out = m_compressionFormat.createBlobOutputStream(out);
         }
         try (BlockableDCObjectOutputVersion2 outStream =
             new BlockableDCObjectOutputVersion2(out)) {
@@ -977,6 +1044,10 @@ void closeInternal() {
             m_list = newList;
             if (!m_list.isEmpty()) {
                 registerMemoryAlertListener();
+                BufferMemoryManager memoryManager = BufferMemoryManager.getInstance();
+                if (memoryManager.isEnabled()) {
+                    memoryManager.bufferLoaded(this, getSizeInMemory(), false);
+                }
             }
         } else {
             try {
@@ -1028,10 +1099,47 @@ private synchronized void onMemoryAlert() {
             final int nrRowsWritten = m_list.size();
             flushBuffer();
             closeInternal();
+            BufferMemoryManager.getInstance().bufferReleased(this);
             LOGGER.debug("Wrote " + nrRowsWritten + " rows in order to free memory");
         }
     }
 
+    /**
+     * Called by the {@link BufferMemoryManager} to release the rows held in memory. They are written to disc (unless
+     * they have been read from disc) and read back into memory with the next iteration.
+     */
+    synchronized void evictFromMemory() {
+        if (m_list == null || m_backIntoMemoryIterator != null) {
+            // cleared, swapped to disc concurrently, or currently read back into memory
+            return;
+        }
+        final int nrRows = m_list.size();
+        if (m_outputReader != null) {
+            // rows have been read back from the file, which is still present
+            m_list = null;
+        } else {
+            flushBuffer();
+            closeInternal();
+        }
+        unregisterMemoryAlertListener();
+        m_useBackIntoMemoryIterator = true;
+        LOGGER.debug("Evicted " + nrRows + " rows from memory");
+    }
+
+    /**
+     * @return the estimated size of the rows in memory, estimated now if not done while rows were added
+     */
+    private long getSizeInMemory() {
+        assert Thread.holdsLock(this);
+        if (m_sizeInMem == 0L && m_list != null) {
+            RowSizeEstimator estimator = new RowSizeEstimator(m_spec.getNumColumns());
+            for (BlobSupportDataRow row : m_list) {
+                m_sizeInMem += estimator.estimateRowSize(row);
+            }
+        }
+        return m_sizeInMem;
+    }
+
     private void unregisterMemoryAlertListener() {
         if (m_memoryAlertListener != null) {
             MemoryAlertSystem.getInstance().removeListener(m_memoryAlertListener);
@@ -1214,6 +1322,10 @@ final synchronized void restoreIntoMemory() {
 
     /** Called from back into memory iterator when the last row was read. */
     final synchronized void onAllRowsReadBackIntoMemory() {
+        BufferMemoryManager memoryManager = BufferMemoryManager.getInstance();
+        if (memoryManager.isEnabled()) {
+            memoryManager.bufferLoaded(this, getSizeInMemory(), true);
+        }
         if (m_memoryAlertListener == null) {
             m_memoryAlertListener = new MemoryAlertListener() {
                 @Override
@@ -1388,13 +1500,28 @@ synchronized RowIteratorBuilder<? extends CloseableRowIterator> iteratorBuilder(
                 m_backIntoMemoryIterator = iteratorBuilder().build();
                 // we never store more than 2^31 rows in memory, therefore it's safe to cast to int
                 m_list = new ArrayList<BlobSupportDataRow>((int) size());
-                return new DefaultRowIteratorBuilder<>(() -> new FromListIterator(), getTableSpec());
+                return new FromListIteratorBuilder();
             }
             RowIteratorBuilder<? extends TableStoreCloseableRowIterator> iteratorBuilder =
                 m_outputReader.iteratorBuilder();
             return iteratorBuilder;
         } else {
-            return new DefaultRowIteratorBuilder<>(() -> new FromListIterator(), getTableSpec());
+            BufferMemoryManager.getInstance().bufferAccessed(this);
+            return new FromListIteratorBuilder();
+        }
+    }
+
+    /** Builder for iterators on the in-memory list, returns projected rows if columns are filtered (so that the
+     * behavior doesn't depend on whether the table is held in memory or not). */
+    private final class FromListIteratorBuilder extends DefaultRowIteratorBuilder<CloseableRowIterator> {
+
+        FromListIteratorBuilder() {
+            super(() -> new FromListIterator(null), getTableSpec());
+        }
+
+        @Override
+        public CloseableRowIterator build() {
+            return new FromListIterator(toColumnMask(getFilteredIndices(), getSpec().getNumColumns()));
         }
     }
 
@@ -1601,6 +1728,7 @@ public int getBufferID() {
     /** Clears the temp file. Any subsequent iteration will fail! */
     synchronized void clear() {
         BufferTracker.getInstance().bufferCleared(this);
+        BufferMemoryManager.getInstance().bufferReleased(this);
         m_list = null;
         unregisterMemoryAlertListener();
         if (m_binFile != null) {
@@ -1716,6 +1844,14 @@ private class FromListIterator extends CloseableRowIterator {
         private int m_nextIndex = 0;
         private final List<BlobSupportDataRow> m_listReference = m_list;
 
+        /** Columns to return, null for all columns. */
+        private final boolean[] m_columnMask;
+
+        /** @param columnMask Columns to return, null for all columns. */
+        FromListIterator(final boolean[] columnMask) {
+            m_columnMask = columnMask;
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -1729,6 +1865,18 @@ public boolean hasNext() {
          */
         @Override
         public DataRow next() {
+            BlobSupportDataRow row = nextInternal();
+            if (m_columnMask == null) {
+                return row;
+            }
+            DataCell[] cells = new DataCell[m_columnMask.length];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = m_columnMask[i] ? row.getRawCell(i) : UnmaterializedCell.getInstance();
+            }
+            return new BlobSupportDataRow(row.getKey(), cells);
+        }
+
+        private BlobSupportDataRow nextInternal() {
             if (!hasNext()) {
                 throw new NoSuchElementException("No more rows in buffer");
             }
@@ -54,14 +54,15 @@
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.NoSuchElementException;
-import java.util.zip.GZIPInputStream;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataCellSerializer;
 import org.knime.core.data.DataType;
 import org.knime.core.data.RowKey;
+import org.knime.core.data.UnmaterializedCell;
 import org.knime.core.data.container.BlobDataCell.BlobAddress;
 import org.knime.core.data.container.DCObjectInputVersion2.BlockableDCObjectInputVersion2;
+import org.knime.core.data.container.DefaultTableStoreFormat.CompressionFormat;
 import org.knime.core.data.container.DefaultTableStoreReader.FromFileIterator;
 import org.knime.core.data.container.storage.AbstractTableStoreReader;
 import org.knime.core.data.filestore.FileStoreCell;
@@ -102,12 +103,27 @@ public final class BufferFromFileIteratorVersion20 extends FromFileIterator {
     /** Utility object with designated functionality to deserialize datacell. */
     private DataCellStreamReader m_dataCellStreamReader;
 
+    /** Columns to deserialize, null if all columns are read. Cells of other columns are skipped in the stream and
+     * returned as {@link UnmaterializedCell}. */
+    private final boolean[] m_columnMask;
+
     /** Inits iterator, opens input stream.
      * @param tableFormatReader The associated buffer.
      * @throws IOException If stream reading fails.
      */
     BufferFromFileIteratorVersion20(final DefaultTableStoreReader tableFormatReader) throws IOException {
+        this(tableFormatReader, null);
+    }
+
+    /** Inits iterator, opens input stream.
+     * @param tableFormatReader The associated buffer.
+     * @param columnMask The columns to read or null to read all columns
+     * @throws IOException If stream reading fails.
+     */
+    BufferFromFileIteratorVersion20(final DefaultTableStoreReader tableFormatReader, final boolean[] columnMask)
+        throws IOException {
         m_pointer = 0;
+        m_columnMask = columnMask;
         if (tableFormatReader.getBinFile() == null) {
             throw new IOException("Unable to read table from file, "
                     + "table has been cleared.");
@@ -116,20 +132,13 @@ public final class BufferFromFileIteratorVersion20 extends FromFileIterator {
         assert m_tableFormatReader.getReadVersion() >= 6 : "Iterator is not backward "
             + "compatible, use instead "
             + BufferFromFileIteratorVersion1x.class.getSimpleName();
-        BufferedInputStream bufferedStream =
-            new BufferedInputStream(new FileInputStream(tableFormatReader.getBinFile()));
+        InputStream bufferedStream = tableFormatReader.openBinFileStream();
         InputStream in;
-        switch (tableFormatReader.getBinFileCompressionFormat()) {
-            case Gzip:
-                in = new GZIPInputStream(bufferedStream);
-                // buffering is important when reading gzip streams
-                in = new BufferedInputStream(in);
-                break;
-            case None:
-                in = bufferedStream;
-                break;
-            default:
-                throw new IOException("Unsupported compression format: " + tableFormatReader.getBinFileCompressionFormat());
+        try {
+            in = tableFormatReader.getBinFileCompressionFormat().createInputStream(bufferedStream);
+        } catch (IOException ioe) {
+            bufferedStream.close();
+            throw ioe;
         }
         m_dataCellStreamReader = new DataCellStreamReader(tableFormatReader);
         m_inStream = new BlockableDCObjectInputVersion2(in, m_dataCellStreamReader);
@@ -178,6 +187,16 @@ public synchronized BlobSupportDataRow next() {
         DataCell[] cells = new DataCell[colCount];
         for (int i = 0; i < colCount; i++) {
             DataCell nextCell;
+            if (m_columnMask != null && !m_columnMask[i]) {
+                // skip the bytes of the cell, no deserialization
+                try {
+                    m_inStream.endBlock();
+                } catch (final IOException e) {
+                    handleReadThrowable(e);
+                }
+                cells[i] = UnmaterializedCell.getInstance();
+                continue;
+            }
             try {
                 try {
                     nextCell = m_dataCellStreamReader.readDataCell(m_inStream);
@@ -287,9 +306,8 @@ static BlobDataCell readBlobDataCell(final BlobAddress blobAddress, final CellCl
         File inFile = buffer.getBlobFile(indexInColumn, column, false, isCompress);
         InputStream in = new BufferedInputStream(new FileInputStream(inFile));
         if (isCompress) {
-            in = new GZIPInputStream(in);
-            // that buffering is important
-            in = new BufferedInputStream(in);
+            // the file is either gzip'ed or block compressed, see CompressionFormat#createBlobOutputStream
+            in = CompressionFormat.createBlobInputStream(in);
         }
         Class<? extends DataCell> cellClass = cl.getCellClass();
         DataCellSerializer<? extends DataCell> ser = cl.getSerializer();
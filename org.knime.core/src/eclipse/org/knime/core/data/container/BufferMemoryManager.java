@@ -0,0 +1,332 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Central bookkeeping of the tables held in memory by all {@link Buffer}s of this JVM. Each buffer that keeps its
+ * rows in memory after it is closed is registered with its estimated size (see {@link RowSizeEstimator}); the
+ * least recently iterated buffers are written to disc once the total size exceeds the budget (except for the most
+ * recently used one, which may therefore exceed the budget on its own). Evicted buffers are
+ * read back into memory with the next iteration (which registers them again). Buffers are referenced weakly so that
+ * tables that are no longer used (and never cleared) can still be garbage collected; their size is then no longer
+ * counted.
+ *
+ * <p>The manager is disabled (budget 0) unless the java property {@link KNIMEConstants#PROPERTY_TABLE_MEMORY_BUDGET}
+ * is set or a budget is set via {@link #setBudget(long)}. Independent of the budget, buffers still swap to disc when
+ * the {@link org.knime.core.data.util.memory.MemoryAlertSystem} signals low memory.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @noreference This class is not intended to be referenced by clients.
+ * @since 3.8
+ */
+public final class BufferMemoryManager {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(BufferMemoryManager.class);
+
+    private static final BufferMemoryManager INSTANCE = new BufferMemoryManager(readBudgetProperty());
+
+    /** Writes evicted buffers to disc, not done in the caller's thread as it may hold the lock on another buffer. */
+    private final ThreadPoolExecutor m_evictionExecutor = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(), r -> {
+            Thread t = new Thread(r, "KNIME-Buffer-Evictor");
+            t.setDaemon(true);
+            return t;
+        });
+
+    /** Registered buffers with their estimated size in bytes, in access order (least recently used first). */
+    private final LinkedHashMap<BufferReference, Long> m_buffers = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Keys of {@link #m_buffers} whose buffer has been garbage collected. */
+    private final ReferenceQueue<Buffer> m_collectedBuffers = new ReferenceQueue<>();
+
+    private long m_budget;
+
+    private long m_usedSize;
+
+    private long m_evictionCount;
+
+    private long m_evictedSize;
+
+    private long m_reloadCount;
+
+    private BufferMemoryManager(final long budget) {
+        m_budget = budget;
+    }
+
+    private static long readBudgetProperty() {
+        String property = System.getProperty(KNIMEConstants.PROPERTY_TABLE_MEMORY_BUDGET);
+        if (property == null) {
+            return 0L;
+        }
+        try {
+            long budgetMB = Long.parseLong(property.trim());
+            if (budgetMB < 0) {
+                throw new NumberFormatException("memory budget < 0: " + budgetMB);
+            }
+            LOGGER.debug("Setting memory budget for tables held in memory to " + budgetMB + "MB");
+            return budgetMB << 20;
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Unable to parse property " + KNIMEConstants.PROPERTY_TABLE_MEMORY_BUDGET
+                + ", tables in memory are not limited by a budget", e);
+            return 0L;
+        }
+    }
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return the singleton instance
+     */
+    public static BufferMemoryManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return whether buffers are tracked, i.e. whether the budget is &gt; 0
+     */
+    public synchronized boolean isEnabled() {
+        return m_budget > 0;
+    }
+
+    /**
+     * @return the maximum estimated size in bytes of all tables held in memory, 0 if not limited
+     */
+    public synchronized long getBudget() {
+        return m_budget;
+    }
+
+    /**
+     * Sets a new budget, evicting tables if the current tables don't fit into it. Setting a budget of 0 disables the
+     * manager; tables that are currently tracked remain in memory.
+     *
+     * @param budget the maximum estimated size in bytes of all tables held in memory, 0 to disable
+     * @throws IllegalArgumentException if the argument is negative
+     */
+    public synchronized void setBudget(final long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Budget must not be negative: " + budget);
+        }
+        m_budget = budget;
+        if (budget == 0) {
+            m_buffers.clear();
+            m_usedSize = 0L;
+        } else {
+            evictIfOverBudget();
+        }
+    }
+
+    /**
+     * @return the estimated size in bytes of all tracked tables held in memory
+     */
+    public synchronized long getUsedSize() {
+        removeCollectedBuffers();
+        return m_usedSize;
+    }
+
+    /**
+     * @return the number of tracked tables held in memory
+     */
+    public synchronized int getTableCount() {
+        removeCollectedBuffers();
+        return m_buffers.size();
+    }
+
+    /**
+     * @return how often a table was evicted from memory (since the start of the application)
+     */
+    public synchronized long getEvictionCount() {
+        return m_evictionCount;
+    }
+
+    /**
+     * @return the estimated size in bytes of all evicted tables (since the start of the application)
+     */
+    public synchronized long getEvictedSize() {
+        return m_evictedSize;
+    }
+
+    /**
+     * @return how often a table was read back into memory from disc, e.g. after being evicted (since the start of
+     *         the application)
+     */
+    public synchronized long getReloadCount() {
+        return m_reloadCount;
+    }
+
+    /**
+     * Called when a buffer holds all of its rows in memory, either after being closed or after having been read back
+     * from disc. May evict this or other buffers.
+     *
+     * @param buffer the buffer
+     * @param sizeInMemory the estimated size of its rows
+     * @param isReload whether the rows were read back from disc
+     */
+    synchronized void bufferLoaded(final Buffer buffer, final long sizeInMemory, final boolean isReload) {
+        if (m_budget <= 0) {
+            return;
+        }
+        Long old = m_buffers.put(new BufferReference(buffer, m_collectedBuffers), sizeInMemory);
+        m_usedSize += sizeInMemory - (old == null ? 0L : old);
+        if (isReload) {
+            m_reloadCount++;
+        }
+        evictIfOverBudget();
+    }
+
+    /**
+     * Called when a buffer in memory is iterated.
+     *
+     * @param buffer the buffer
+     */
+    synchronized void bufferAccessed(final Buffer buffer) {
+        if (m_budget > 0) {
+            // updates the access order
+            m_buffers.get(new BufferReference(buffer, null));
+        }
+    }
+
+    /**
+     * Called when a buffer no longer holds its rows in memory (cleared or swapped to disc for other reasons).
+     *
+     * @param buffer the buffer
+     */
+    synchronized void bufferReleased(final Buffer buffer) {
+        Long size = m_buffers.remove(new BufferReference(buffer, null));
+        if (size != null) {
+            m_usedSize -= size;
+        }
+    }
+
+    private void evictIfOverBudget() {
+        assert Thread.holdsLock(this);
+        removeCollectedBuffers();
+        if (m_usedSize <= m_budget) {
+            return;
+        }
+        final List<Buffer> evicted = new ArrayList<>();
+        // the most recently used buffer (the last entry) is never evicted, a table larger than the budget would
+        // otherwise be written to disc and read back with every access
+        int evictableCount = m_buffers.size() - 1;
+        for (Iterator<Map.Entry<BufferReference, Long>> it = m_buffers.entrySet().iterator();
+                evictableCount > 0 && m_usedSize > m_budget; evictableCount--) {
+            Map.Entry<BufferReference, Long> entry = it.next();
+            it.remove();
+            m_usedSize -= entry.getValue();
+            Buffer buffer = entry.getKey().get();
+            if (buffer != null) {
+                m_evictedSize += entry.getValue();
+                m_evictionCount++;
+                evicted.add(buffer);
+            }
+        }
+        if (evicted.isEmpty()) {
+            return;
+        }
+        LOGGER.debugWithFormat("Evicting %d table(s) from memory, %dMB of %dMB budget in use", evicted.size(),
+            m_usedSize >> 20, m_budget >> 20);
+        m_evictionExecutor.execute(() -> evicted.forEach(Buffer::evictFromMemory));
+    }
+
+    /** Removes the entries of buffers that have been garbage collected without being cleared. */
+    private void removeCollectedBuffers() {
+        assert Thread.holdsLock(this);
+        Reference<? extends Buffer> ref;
+        while ((ref = m_collectedBuffers.poll()) != null) {
+            Long size = m_buffers.remove(ref);
+            if (size != null) {
+                m_usedSize -= size;
+            }
+        }
+    }
+
+    /** Weak reference to a buffer used as map key, equal to all references to the same buffer. */
+    private static final class BufferReference extends WeakReference<Buffer> {
+
+        private final int m_hashCode;
+
+        BufferReference(final Buffer buffer, final ReferenceQueue<Buffer> queue) {
+            super(buffer, queue);
+            m_hashCode = System.identityHashCode(buffer);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return m_hashCode;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof BufferReference)) {
+                return false;
+            }
+            Buffer buffer = get();
+            return buffer != null && buffer == ((BufferReference)obj).get();
+        }
+    }
+
+}
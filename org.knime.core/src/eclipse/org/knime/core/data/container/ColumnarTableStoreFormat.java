@@ -0,0 +1,224 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.IDataRepository;
+import org.knime.core.data.container.storage.AbstractTableStoreReader;
+import org.knime.core.data.container.storage.AbstractTableStoreWriter;
+import org.knime.core.data.container.storage.TableStoreFormat;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+
+/**
+ * Table format that stores the data column by column. Rows are grouped into chunks of {@link #CHUNK_SIZE} rows; within
+ * each chunk every column is written as a separate segment. Columns of type {@link IntCell}, {@link LongCell},
+ * {@link DoubleCell}, {@link StringCell} and {@link BooleanCell} are written as typed vectors along with a bitmap of
+ * missing values; all other columns fall back to the serialization used by the {@link DefaultTableStoreFormat}.
+ *
+ * <p>As each column segment can be located via the footer of the file, a reader that is restricted to a subset of
+ * columns (see {@link org.knime.core.data.RowIteratorBuilder#filterColumns(int...)}) only reads the bytes of the
+ * selected columns.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ * @since 3.8
+ * @noextend This class is not intended to be subclassed by clients.
+ * @noreference This class is not intended to be referenced by clients.
+ */
+public final class ColumnarTableStoreFormat implements TableStoreFormat {
+
+    /** Number of rows that are written as one chunk. */
+    static final int CHUNK_SIZE = 8192;
+
+    /** The version written into the meta information (validated on read). */
+    static final String VERSION = "columnar-1";
+
+    /** Config key for the encodings used for each column (string array). */
+    static final String CFG_COLUMN_ENCODINGS = "columnar.encodings";
+
+    /** Config key for the segment compression. */
+    static final String CFG_COMPRESSION = "columnar.compression";
+
+    /** Magic bytes at the beginning and the end of each file. */
+    static final int MAGIC = 0x4B434F4C; // 'KCOL'
+
+    /** How the cells of a column are written to a segment. */
+    enum ColumnEncoding {
+            /** {@link IntCell} vector. */
+            INT(IntCell.class),
+            /** {@link LongCell} vector. */
+            LONG(LongCell.class),
+            /** {@link DoubleCell} vector. */
+            DOUBLE(DoubleCell.class),
+            /** {@link StringCell} vector. */
+            STRING(StringCell.class),
+            /** {@link BooleanCell} vector. */
+            BOOLEAN(BooleanCell.class),
+            /** Any other cell, serialized as in the default format. */
+            CELL(null);
+
+        private final Class<? extends DataCell> m_cellClass;
+
+        ColumnEncoding(final Class<? extends DataCell> cellClass) {
+            m_cellClass = cellClass;
+        }
+
+        /**
+         * @param cell a non-missing cell in a column of this encoding
+         * @return true if the cell can be written as primitive, false if it needs to be serialized (e.g. subclasses
+         *         or blob wrappers)
+         */
+        boolean isPrimitive(final DataCell cell) {
+            return m_cellClass != null && cell.getClass() == m_cellClass;
+        }
+
+        /**
+         * @param type the column type
+         * @return the encoding for a column of that type, {@link #CELL} if not natively supported
+         */
+        static ColumnEncoding forType(final DataType type) {
+            Class<? extends DataCell> cellClass = type.getCellClass();
+            for (ColumnEncoding e : values()) {
+                if (e.m_cellClass != null && e.m_cellClass.equals(cellClass)) {
+                    return e;
+                }
+            }
+            return CELL;
+        }
+    }
+
+    /** Compression applied to each column segment. */
+    enum SegmentCompression {
+            Deflate,
+            None,
+            /** Segment written as {@link BlockCompressedOutputStream} using LZ4. */
+            Lz4,
+            /** Segment written as {@link BlockCompressedOutputStream} using Snappy. */
+            Snappy;
+
+        /**
+         * @param format the compression selected for the table
+         * @return the corresponding segment compression
+         */
+        static SegmentCompression forFormat(final DefaultTableStoreFormat.CompressionFormat format) {
+            switch (format) {
+                case Gzip:
+                    return Deflate;
+                case Lz4:
+                    return Lz4;
+                case Snappy:
+                    return Snappy;
+                default:
+                    return None;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Columnar (typed column vectors)";
+    }
+
+    @Override
+    public String getFilenameSuffix() {
+        return ".col.bin";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean accepts(final DataTableSpec spec) {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractTableStoreWriter createWriter(final File binFile, final DataTableSpec spec,
+        final boolean writeRowKey) throws IOException {
+        return createWriter(new FileOutputStream(binFile), spec, writeRowKey);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractTableStoreWriter createWriter(final OutputStream output, final DataTableSpec spec,
+        final boolean writeRowKey) throws IOException {
+        return new ColumnarTableStoreWriter(spec, output, writeRowKey);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractTableStoreReader createReader(final File binFile, final DataTableSpec spec,
+        final IDataRepository dataRepository, final NodeSettingsRO settings, final int version,
+        final boolean isReadRowKey) throws IOException, InvalidSettingsException {
+        return new ColumnarTableStoreReader(binFile, spec, settings, version, isReadRowKey);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getVersion() {
+        return VERSION;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean validateVersion(final String versionString) {
+        return VERSION.equals(versionString);
+    }
+
+}
@@ -0,0 +1,496 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowIteratorBuilder;
+import org.knime.core.data.RowIteratorBuilder.DefaultRowIteratorBuilder;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.UnmaterializedCell;
+import org.knime.core.data.container.BufferFromFileIteratorVersion20.DataCellStreamReader;
+import org.knime.core.data.container.ColumnarTableStoreFormat.ColumnEncoding;
+import org.knime.core.data.container.ColumnarTableStoreFormat.SegmentCompression;
+import org.knime.core.data.container.DCObjectInputVersion2.BlockableDCObjectInputVersion2;
+import org.knime.core.data.container.storage.AbstractTableStoreReader;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeSettingsRO;
+
+/**
+ * Reader for files written by the {@link ColumnarTableStoreWriter}. The footer is read once at construction time;
+ * iterators then only read and decode the segments of the columns they were restricted to.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ColumnarTableStoreReader extends AbstractTableStoreReader {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ColumnarTableStoreReader.class);
+
+    private final File m_binFile;
+
+    private final boolean m_isReadRowKey;
+
+    private final ColumnEncoding[] m_encodings;
+
+    private final SegmentCompression m_compression;
+
+    /** Number of rows in each chunk. */
+    private final int[] m_chunkRowCounts;
+
+    /** [chunk][segment] positions, lengths as stored and lengths after decompression. */
+    private final long[][] m_offsets;
+    private final int[][] m_storedLengths;
+    private final int[][] m_rawLengths;
+
+    private final boolean m_hasRowKeySegment;
+
+    private final long m_rowCount;
+
+    /**
+     * Constructs a reader for materializing tables written in the columnar format.
+     *
+     * @param binFile the local file from which to read
+     * @param spec the specification of the data table
+     * @param settings the settings written by {@link ColumnarTableStoreWriter#writeMetaInfoAfterWrite(
+     *            org.knime.core.node.NodeSettingsWO)}
+     * @param version The version as defined in the {@link Buffer} class
+     * @param isReadRowKey whether or not row keys are to be read
+     * @throws IOException any type of I/O problem (including a corrupt footer)
+     * @throws InvalidSettingsException if the settings are invalid
+     */
+    ColumnarTableStoreReader(final File binFile, final DataTableSpec spec, final NodeSettingsRO settings,
+        final int version, final boolean isReadRowKey) throws IOException, InvalidSettingsException {
+        super(binFile, spec, settings, version);
+        readCellClassInfoArrayFromMetaVersion2(settings);
+        m_binFile = binFile;
+        m_isReadRowKey = isReadRowKey;
+        String[] encodings = settings.getStringArray(ColumnarTableStoreFormat.CFG_COLUMN_ENCODINGS);
+        if (encodings.length != spec.getNumColumns()) {
+            throw new InvalidSettingsException("Number of column encodings (" + encodings.length
+                + ") does not match number of columns in spec (" + spec.getNumColumns() + ")");
+        }
+        m_encodings = new ColumnEncoding[encodings.length];
+        String compression = settings.getString(ColumnarTableStoreFormat.CFG_COMPRESSION);
+        try {
+            for (int i = 0; i < encodings.length; i++) {
+                m_encodings[i] = ColumnEncoding.valueOf(encodings[i]);
+            }
+            m_compression = SegmentCompression.valueOf(compression);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSettingsException("Unable to parse columnar table settings: " + e.getMessage(), e);
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(binFile, "r")) {
+            final long length = raf.length();
+            if (length < 2 * Integer.BYTES + Long.BYTES) {
+                throw new IOException("File too short (" + length + " bytes), no valid columnar table file");
+            }
+            raf.seek(length - Integer.BYTES - Long.BYTES);
+            final long footerOffset = raf.readLong();
+            if (raf.readInt() != ColumnarTableStoreFormat.MAGIC) {
+                throw new IOException("Invalid file end, no valid columnar table file");
+            }
+            byte[] footer = new byte[(int)(length - Integer.BYTES - Long.BYTES - footerOffset)];
+            raf.seek(footerOffset);
+            raf.readFully(footer);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer));
+            final int segmentCount = in.readInt();
+            final int chunkCount = in.readInt();
+            m_hasRowKeySegment = segmentCount > m_encodings.length;
+            m_chunkRowCounts = new int[chunkCount];
+            m_offsets = new long[chunkCount][segmentCount];
+            m_storedLengths = new int[chunkCount][segmentCount];
+            m_rawLengths = new int[chunkCount][segmentCount];
+            long rowCount = 0L;
+            for (int c = 0; c < chunkCount; c++) {
+                m_chunkRowCounts[c] = in.readInt();
+                rowCount += m_chunkRowCounts[c];
+                for (int s = 0; s < segmentCount; s++) {
+                    m_offsets[c][s] = in.readLong();
+                    m_storedLengths[c][s] = in.readInt();
+                    m_rawLengths[c][s] = in.readInt();
+                }
+            }
+            m_rowCount = rowCount;
+        }
+        if (m_isReadRowKey && !m_hasRowKeySegment) {
+            throw new IOException("File does not contain row keys");
+        }
+    }
+
+    /** @return total number of rows as per file footer. */
+    long getRowCount() {
+        return m_rowCount;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TableStoreCloseableRowIterator iterator() {
+        return createIterator(null);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RowIteratorBuilder<? extends TableStoreCloseableRowIterator> iteratorBuilder() {
+        return new DefaultRowIteratorBuilder<TableStoreCloseableRowIterator>(() -> iterator(), getSpec()) {
+            @Override
+            public TableStoreCloseableRowIterator build() {
+                TableStoreCloseableRowIterator iterator = createIterator(getFilteredIndices());
+                registerNewIteratorInstance(iterator);
+                return iterator;
+            }
+        };
+    }
+
+    private TableStoreCloseableRowIterator createIterator(final int[] columnIndices) {
+        try {
+            return new ColumnarRowIterator(columnIndices);
+        } catch (IOException ioe) {
+            checkAndReportOpenFiles(ioe);
+            throw new RuntimeException("Cannot read file \"" + m_binFile.getName() + "\"", ioe);
+        }
+    }
+
+    /** Iterator reading the table chunk by chunk, only decoding the selected columns. */
+    private final class ColumnarRowIterator extends TableStoreCloseableRowIterator {
+
+        private FileChannel m_channel;
+
+        /** Whether a column is read, indexed by column. */
+        private final boolean[] m_isSelected;
+
+        private final DataCellStreamReader m_cellReader;
+
+        private final Inflater m_inflater;
+
+        /** Index of the next chunk to load. */
+        private int m_nextChunk;
+
+        /** Decoded cells of the current chunk, [column][row]; null for unselected columns. */
+        private final DataCell[][] m_chunkCells;
+
+        private RowKey[] m_chunkKeys;
+
+        private int m_chunkRowCount;
+
+        private int m_rowInChunk;
+
+        private long m_pointer;
+
+        private boolean m_hasThrownReadException;
+
+        ColumnarRowIterator(final int[] columnIndices) throws IOException {
+            final int colCount = m_encodings.length;
+            m_isSelected = new boolean[colCount];
+            if (columnIndices == null) {
+                Arrays.fill(m_isSelected, true);
+            } else {
+                System.arraycopy(DefaultRowIteratorBuilder.toColumnMask(columnIndices, colCount), 0, m_isSelected, 0,
+                    colCount);
+            }
+            m_chunkCells = new DataCell[colCount][];
+            m_cellReader = new DataCellStreamReader(ColumnarTableStoreReader.this);
+            m_inflater = m_compression == SegmentCompression.Deflate ? new Inflater() : null;
+            m_channel = FileChannel.open(m_binFile.toPath(), StandardOpenOption.READ);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized boolean hasNext() {
+            boolean hasNext = m_pointer < m_rowCount;
+            if (!hasNext && m_channel != null) {
+                close();
+            }
+            return hasNext;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized BlobSupportDataRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Iterator at end");
+            }
+            final int colCount = m_encodings.length;
+            DataCell[] cells = new DataCell[colCount];
+            if (m_channel == null) { // closed
+                Arrays.fill(cells, DataType.getMissingCell());
+                m_pointer++;
+                return new BlobSupportDataRow(
+                    new RowKey("INVALID_ROW (table is closed) - (Row " + m_pointer + ")"), cells);
+            }
+            if (m_rowInChunk == m_chunkRowCount) {
+                loadNextChunk();
+            }
+            final int r = m_rowInChunk++;
+            for (int i = 0; i < colCount; i++) {
+                cells[i] = m_isSelected[i] ? m_chunkCells[i][r] : UnmaterializedCell.getInstance();
+            }
+            RowKey key = m_chunkKeys != null ? m_chunkKeys[r] : DUMMY_ROW_KEY;
+            m_pointer++;
+            return new BlobSupportDataRow(key, cells);
+        }
+
+        private void loadNextChunk() {
+            final int chunk = m_nextChunk++;
+            final int rowCount = m_chunkRowCounts[chunk];
+            for (int col = 0; col < m_encodings.length; col++) {
+                if (!m_isSelected[col]) {
+                    continue;
+                }
+                try {
+                    m_chunkCells[col] = decodeColumn(readSegment(chunk, col), m_encodings[col]);
+                } catch (IOException | RuntimeException e) {
+                    handleReadThrowable(e);
+                    m_chunkCells[col] = new DataCell[rowCount];
+                    Arrays.fill(m_chunkCells[col], DataType.getMissingCell());
+                }
+            }
+            if (m_isReadRowKey) {
+                m_chunkKeys = new RowKey[rowCount];
+                try {
+                    DataInputStream in = readSegment(chunk, m_encodings.length);
+                    in.readInt();
+                    for (int r = 0; r < rowCount; r++) {
+                        m_chunkKeys[r] = new RowKey(readString(in));
+                    }
+                } catch (IOException e) {
+                    handleReadThrowable(e);
+                    for (int r = 0; r < rowCount; r++) {
+                        m_chunkKeys[r] = new RowKey("Read_failed__auto_generated_key_" + (m_pointer + r));
+                    }
+                }
+            }
+            m_chunkRowCount = rowCount;
+            m_rowInChunk = 0;
+        }
+
+        /** Reads (and inflates) a segment, returns a stream on the raw bytes. */
+        private DataInputStream readSegment(final int chunk, final int segment) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(m_storedLengths[chunk][segment]);
+            long position = m_offsets[chunk][segment];
+            while (buffer.hasRemaining()) {
+                int read = m_channel.read(buffer, position + buffer.position());
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+            }
+            byte[] bytes = buffer.array();
+            if (m_compression == SegmentCompression.Lz4 || m_compression == SegmentCompression.Snappy) {
+                return new DataInputStream(new BlockCompressedInputStream(new ByteArrayInputStream(bytes)));
+            }
+            if (m_inflater != null) {
+                byte[] raw = new byte[m_rawLengths[chunk][segment]];
+                m_inflater.reset();
+                m_inflater.setInput(bytes);
+                try {
+                    int off = 0;
+                    while (off < raw.length) {
+                        int n = m_inflater.inflate(raw, off, raw.length - off);
+                        if (n == 0 && (m_inflater.finished() || m_inflater.needsInput())) {
+                            throw new IOException("Corrupt segment, expected " + raw.length + " bytes, got " + off);
+                        }
+                        off += n;
+                    }
+                } catch (DataFormatException dfe) {
+                    throw new IOException("Corrupt segment: " + dfe.getMessage(), dfe);
+                }
+                bytes = raw;
+            }
+            return new DataInputStream(new ByteArrayInputStream(bytes));
+        }
+
+        /** Inverse of {@link ColumnarTableStoreWriter}'s column encoding. */
+        private DataCell[] decodeColumn(final DataInputStream in, final ColumnEncoding encoding) throws IOException {
+            final int rowCount = in.readInt();
+            final DataCell[] cells = new DataCell[rowCount];
+            if (encoding == ColumnEncoding.CELL) {
+                readSerializedCells(in, cells, null, rowCount);
+                return cells;
+            }
+            long[] missingBits = null;
+            if (in.readBoolean()) {
+                missingBits = new long[(rowCount + 63) >>> 6];
+                for (int i = 0; i < missingBits.length; i++) {
+                    missingBits[i] = in.readLong();
+                }
+            }
+            final int exceptionCount = in.readInt();
+            final int[] exceptions = new int[exceptionCount];
+            for (int i = 0; i < exceptionCount; i++) {
+                exceptions[i] = in.readInt();
+            }
+            switch (encoding) {
+                case INT:
+                    for (int r = 0; r < rowCount; r++) {
+                        cells[r] = new IntCell(in.readInt());
+                    }
+                    break;
+                case LONG:
+                    for (int r = 0; r < rowCount; r++) {
+                        cells[r] = new LongCell(in.readLong());
+                    }
+                    break;
+                case DOUBLE:
+                    for (int r = 0; r < rowCount; r++) {
+                        cells[r] = new DoubleCell(in.readDouble());
+                    }
+                    break;
+                case STRING:
+                    for (int r = 0; r < rowCount; r++) {
+                        String s = readString(in);
+                        cells[r] = s == null ? null : new StringCell(s);
+                    }
+                    break;
+                case BOOLEAN:
+                    long[] valueBits = new long[(rowCount + 63) >>> 6];
+                    for (int i = 0; i < valueBits.length; i++) {
+                        valueBits[i] = in.readLong();
+                    }
+                    for (int r = 0; r < rowCount; r++) {
+                        cells[r] = BooleanCell.get((valueBits[r >>> 6] & (1L << r)) != 0L);
+                    }
+                    break;
+                default:
+                    throw new IOException("Unsupported column encoding: " + encoding);
+            }
+            if (missingBits != null) {
+                final DataCell missing = DataType.getMissingCell();
+                for (int r = 0; r < rowCount; r++) {
+                    if ((missingBits[r >>> 6] & (1L << r)) != 0L) {
+                        cells[r] = missing;
+                    }
+                }
+            }
+            if (exceptionCount > 0) {
+                readSerializedCells(in, cells, exceptions, exceptionCount);
+            }
+            return cells;
+        }
+
+        private void readSerializedCells(final DataInputStream in, final DataCell[] cells, final int[] indices,
+            final int count) throws IOException {
+            BlockableDCObjectInputVersion2 cellIn = new BlockableDCObjectInputVersion2(in, m_cellReader);
+            for (int i = 0; i < count; i++) {
+                DataCell cell;
+                try {
+                    try {
+                        cell = m_cellReader.readDataCell(cellIn);
+                    } finally {
+                        cellIn.endBlock();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    handleReadThrowable(e);
+                    cell = DataType.getMissingCell();
+                }
+                cells[indices == null ? i : indices[i]] = cell;
+            }
+        }
+
+        /** Handle exceptions, make sure to issue errors only once. */
+        private void handleReadThrowable(final Throwable throwable) {
+            String warnMessage = "Errors while reading chunk " + m_nextChunk + " from file \"" + m_binFile.getName()
+                + "\": " + throwable.getMessage();
+            if (!m_hasThrownReadException) {
+                LOGGER.error(warnMessage + "; Suppressing further warnings.", throwable);
+            } else {
+                LOGGER.debug(warnMessage, throwable);
+            }
+            m_hasThrownReadException = true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public synchronized boolean performClose() throws IOException {
+            if (m_channel == null) {
+                return false;
+            }
+            FileChannel channel = m_channel;
+            m_channel = null;
+            Arrays.fill(m_chunkCells, null);
+            m_chunkKeys = null;
+            if (m_inflater != null) {
+                m_inflater.end();
+            }
+            channel.close();
+            return true;
+        }
+    }
+
+    /** Reads a string written by the writer (length-prefixed UTF-8, -1 for null). */
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] b = new byte[length];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,390 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.container.ColumnarTableStoreFormat.ColumnEncoding;
+import org.knime.core.data.container.ColumnarTableStoreFormat.SegmentCompression;
+import org.knime.core.data.container.DefaultTableStoreFormat.CompressionFormat;
+import org.knime.core.data.container.DCObjectOutputVersion2.BlockableDCObjectOutputVersion2;
+import org.knime.core.data.container.storage.AbstractTableStoreWriter;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.NodeSettingsWO;
+
+/**
+ * Writer for the {@link ColumnarTableStoreFormat}. Rows are collected until a chunk is full, then each column of the
+ * chunk is encoded into a segment and appended to the output. The footer, written on {@link #close()}, lists the
+ * position of each segment.
+ *
+ * <p>File layout:
+ * <pre>
+ * MAGIC
+ * chunk_0: segment_0 ... segment_n   (segment_n holds the row keys, if written)
+ * ...
+ * footer: #segments #chunks { #rows { offset storedLength rawLength }* }*
+ * footerOffset(long) MAGIC
+ * </pre>
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ColumnarTableStoreWriter extends AbstractTableStoreWriter {
+
+    private final DataOutputStream m_out;
+
+    private final ColumnEncoding[] m_encodings;
+
+    private final SegmentCompression m_compression;
+
+    /** Cells of the current chunk, indexed by [column][row]. */
+    private final DataCell[][] m_chunkCells;
+
+    /** Row keys of the current chunk, null if keys are not written. */
+    private final String[] m_chunkKeys;
+
+    private int m_chunkRowCount;
+
+    /** Bytes written so far (position in output). */
+    private long m_position;
+
+    /** Footer content, one entry per chunk. */
+    private final List<ChunkInfo> m_chunks;
+
+    private final Deflater m_deflater;
+
+    private boolean m_isClosed;
+
+    /**
+     * Constructs a writer for writing KNIME tables column by column.
+     *
+     * @param spec the specification of the KNIME table to write to disk
+     * @param outputStream to write to (will be closed when the writer is closed)
+     * @param writeRowKey a flag that determines whether to store the row keys
+     * @throws IOException any type of I/O problem
+     */
+    ColumnarTableStoreWriter(final DataTableSpec spec, final OutputStream outputStream, final boolean writeRowKey)
+        throws IOException {
+        super(spec, writeRowKey);
+        final int colCount = spec.getNumColumns();
+        m_encodings = new ColumnEncoding[colCount];
+        for (int i = 0; i < colCount; i++) {
+            m_encodings[i] = ColumnEncoding.forType(spec.getColumnSpec(i).getType());
+        }
+        m_compression = SegmentCompression.forFormat(CompressionFormat.getDefault());
+        m_deflater = m_compression == SegmentCompression.Deflate ? new Deflater(Deflater.BEST_SPEED) : null;
+        m_chunkCells = new DataCell[colCount][ColumnarTableStoreFormat.CHUNK_SIZE];
+        m_chunkKeys = writeRowKey ? new String[ColumnarTableStoreFormat.CHUNK_SIZE] : null;
+        m_chunks = new ArrayList<>();
+        m_out = new DataOutputStream(new BufferedOutputStream(outputStream, 1 << 16));
+        m_out.writeInt(ColumnarTableStoreFormat.MAGIC);
+        m_position = Integer.BYTES;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void writeRow(final DataRow row) throws IOException {
+        final int rowIndex = m_chunkRowCount;
+        if (m_chunkKeys != null) {
+            m_chunkKeys[rowIndex] = row.getKey().getString();
+        }
+        final boolean isBlobRow = row instanceof BlobSupportDataRow;
+        for (int i = 0; i < m_encodings.length; i++) {
+            m_chunkCells[i][rowIndex] = isBlobRow ? ((BlobSupportDataRow)row).getRawCell(i) : row.getCell(i);
+        }
+        m_chunkRowCount++;
+        if (m_chunkRowCount == ColumnarTableStoreFormat.CHUNK_SIZE) {
+            flushChunk();
+        }
+    }
+
+    /** Encodes and writes all columns of the current chunk. */
+    private void flushChunk() throws IOException {
+        final int rowCount = m_chunkRowCount;
+        if (rowCount == 0) {
+            return;
+        }
+        final int segmentCount = m_encodings.length + (m_chunkKeys != null ? 1 : 0);
+        ChunkInfo info = new ChunkInfo(rowCount, segmentCount);
+        for (int s = 0; s < segmentCount; s++) {
+            byte[] raw = s < m_encodings.length ? encodeColumn(s, rowCount) : encodeRowKeys(rowCount);
+            byte[] stored = compress(raw);
+            info.m_offsets[s] = m_position;
+            info.m_storedLengths[s] = stored.length;
+            info.m_rawLengths[s] = raw.length;
+            m_out.write(stored);
+            m_position += stored.length;
+        }
+        m_chunks.add(info);
+        for (DataCell[] column : m_chunkCells) {
+            Arrays.fill(column, 0, rowCount, null);
+        }
+        m_chunkRowCount = 0;
+    }
+
+    private byte[] encodeRowKeys(final int rowCount) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rowCount * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            writeString(m_chunkKeys[r], out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes the cells of a column. Typed columns are written as: row count, missing bitmap (if any), indices of
+     * cells that can't be written as primitives ("exceptions"), the value vector, and finally the serialized
+     * exception cells. {@link ColumnEncoding#CELL} columns only contain the serialized cells.
+     */
+    private byte[] encodeColumn(final int col, final int rowCount) throws IOException {
+        final DataCell[] cells = m_chunkCells[col];
+        final ColumnEncoding encoding = m_encodings[col];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rowCount * 9);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(rowCount);
+        if (encoding == ColumnEncoding.CELL) {
+            writeSerializedCells(cells, null, rowCount, bytes);
+            return bytes.toByteArray();
+        }
+        final DataCell missing = DataType.getMissingCell();
+        long[] missingBits = null;
+        int[] exceptions = new int[0];
+        int exceptionCount = 0;
+        for (int r = 0; r < rowCount; r++) {
+            DataCell c = cells[r];
+            if (c == missing) {
+                if (missingBits == null) {
+                    missingBits = new long[(rowCount + 63) >>> 6];
+                }
+                missingBits[r >>> 6] |= 1L << r;
+            } else if (!encoding.isPrimitive(c)) {
+                if (exceptionCount == exceptions.length) {
+                    exceptions = Arrays.copyOf(exceptions, Math.max(8, 2 * exceptionCount));
+                }
+                exceptions[exceptionCount++] = r;
+            }
+        }
+        out.writeBoolean(missingBits != null);
+        if (missingBits != null) {
+            for (long l : missingBits) {
+                out.writeLong(l);
+            }
+        }
+        out.writeInt(exceptionCount);
+        for (int i = 0; i < exceptionCount; i++) {
+            out.writeInt(exceptions[i]);
+        }
+        switch (encoding) {
+            case INT:
+                for (int r = 0; r < rowCount; r++) {
+                    DataCell c = cells[r];
+                    out.writeInt(encoding.isPrimitive(c) ? ((IntCell)c).getIntValue() : 0);
+                }
+                break;
+            case LONG:
+                for (int r = 0; r < rowCount; r++) {
+                    DataCell c = cells[r];
+                    out.writeLong(encoding.isPrimitive(c) ? ((LongCell)c).getLongValue() : 0L);
+                }
+                break;
+            case DOUBLE:
+                for (int r = 0; r < rowCount; r++) {
+                    DataCell c = cells[r];
+                    out.writeDouble(encoding.isPrimitive(c) ? ((DoubleCell)c).getDoubleValue() : 0.0);
+                }
+                break;
+            case STRING:
+                for (int r = 0; r < rowCount; r++) {
+                    DataCell c = cells[r];
+                    writeString(encoding.isPrimitive(c) ? ((StringCell)c).getStringValue() : null, out);
+                }
+                break;
+            case BOOLEAN:
+                long[] valueBits = new long[(rowCount + 63) >>> 6];
+                for (int r = 0; r < rowCount; r++) {
+                    DataCell c = cells[r];
+                    if (encoding.isPrimitive(c) && ((BooleanCell)c).getBooleanValue()) {
+                        valueBits[r >>> 6] |= 1L << r;
+                    }
+                }
+                for (long l : valueBits) {
+                    out.writeLong(l);
+                }
+                break;
+            default:
+                throw new IOException("Unsupported column encoding: " + encoding);
+        }
+        if (exceptionCount > 0) {
+            writeSerializedCells(cells, exceptions, exceptionCount, bytes);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Serializes cells (all of them if indices is null) using the block stream of the default format. */
+    private void writeSerializedCells(final DataCell[] cells, final int[] indices, final int count,
+        final OutputStream bytes) throws IOException {
+        try (BlockableDCObjectOutputVersion2 cellOut = new BlockableDCObjectOutputVersion2(bytes, this)) {
+            for (int i = 0; i < count; i++) {
+                writeDataCell(cells[indices == null ? i : indices[i]], cellOut);
+                cellOut.endBlock();
+            }
+        }
+    }
+
+    /** Writes a string as length-prefixed UTF-8, null as length -1. */
+    private static void writeString(final String s, final DataOutputStream out) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(b.length);
+            out.write(b);
+        }
+    }
+
+    private byte[] compress(final byte[] raw) throws IOException {
+        if (m_compression == SegmentCompression.Lz4 || m_compression == SegmentCompression.Snappy) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+            try (BlockCompressedOutputStream blockOut = new BlockCompressedOutputStream(out,
+                m_compression == SegmentCompression.Lz4 ? new BlockCompressionCodec.Lz4()
+                    : new BlockCompressionCodec.Snappy())) {
+                blockOut.write(raw);
+            }
+            return out.toByteArray();
+        }
+        if (m_deflater == null) {
+            return raw;
+        }
+        m_deflater.reset();
+        m_deflater.setInput(raw);
+        m_deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 2));
+        byte[] buf = new byte[1 << 14];
+        while (!m_deflater.finished()) {
+            int n = m_deflater.deflate(buf);
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void writeMetaInfoAfterWrite(final NodeSettingsWO settings) {
+        String[] encodings = new String[m_encodings.length];
+        for (int i = 0; i < encodings.length; i++) {
+            encodings[i] = m_encodings[i].name();
+        }
+        settings.addStringArray(ColumnarTableStoreFormat.CFG_COLUMN_ENCODINGS, encodings);
+        settings.addString(ColumnarTableStoreFormat.CFG_COMPRESSION, m_compression.name());
+        super.writeMetaInfoAfterWrite(settings);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException {
+        if (m_isClosed) {
+            return;
+        }
+        m_isClosed = true;
+        try {
+            flushChunk();
+            final long footerOffset = m_position;
+            final int segmentCount = m_encodings.length + (m_chunkKeys != null ? 1 : 0);
+            m_out.writeInt(segmentCount);
+            m_out.writeInt(m_chunks.size());
+            for (ChunkInfo info : m_chunks) {
+                m_out.writeInt(info.m_rowCount);
+                for (int s = 0; s < segmentCount; s++) {
+                    m_out.writeLong(info.m_offsets[s]);
+                    m_out.writeInt(info.m_storedLengths[s]);
+                    m_out.writeInt(info.m_rawLengths[s]);
+                }
+            }
+            m_out.writeLong(footerOffset);
+            m_out.writeInt(ColumnarTableStoreFormat.MAGIC);
+        } finally {
+            m_out.close();
+            if (m_deflater != null) {
+                m_deflater.end();
+            }
+        }
+    }
+
+    /** Location of the segments of one chunk. */
+    private static final class ChunkInfo {
+        private final int m_rowCount;
+        private final long[] m_offsets;
+        private final int[] m_storedLengths;
+        private final int[] m_rawLengths;
+
+        ChunkInfo(final int rowCount, final int segmentCount) {
+            m_rowCount = rowCount;
+            m_offsets = new long[segmentCount];
+            m_storedLengths = new int[segmentCount];
+            m_rawLengths = new int[segmentCount];
+        }
+    }
+
+}
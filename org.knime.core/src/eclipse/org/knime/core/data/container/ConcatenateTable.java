@@ -51,6 +51,8 @@
 
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowIteratorBuilder;
+import org.knime.core.data.RowIteratorBuilder.DefaultRowIteratorBuilder;
 import org.knime.core.data.RowKey;
 import org.knime.core.data.append.AppendedRowsTable;
 import org.knime.core.data.append.AppendedRowsTable.DuplicatePolicy;
@@ -174,12 +176,27 @@ public DataTableSpec getDataTableSpec() {
     public CloseableRowIterator iterator() {
         // return MyIterator if all specs are the same indicated by m_tablesWrapper == null
         if(m_tablesWrapper == null) {
-            return new MyIterator();
+            return new MyIterator(null);
         } else {
             return m_tablesWrapper.iterator(null, -1);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Column filters are pushed down to the concatenated tables if all their specs are the same.
+     */
+    @Override
+    public RowIteratorBuilder<? extends CloseableRowIterator> iteratorBuilder() {
+        return new DefaultRowIteratorBuilder<CloseableRowIterator>(() -> iterator(), m_spec) {
+            @Override
+            public CloseableRowIterator build() {
+                return m_tablesWrapper == null ? new MyIterator(getFilteredIndices()) : iterator();
+            }
+        };
+    }
+
     /** {@inheritDoc} */
     @Override
     public void putIntoTableRepository(final WorkflowDataRepository dataRepository) {
@@ -323,11 +340,14 @@ private class MyIterator extends CloseableRowIterator {
         private int m_tableIndex;
         private CloseableRowIterator m_curIterator;
         private DataRow m_next;
+        private final int[] m_columnIndices;
 
-        /** Creates new iterator. */
-        public MyIterator() {
+        /** Creates new iterator.
+         * @param columnIndices the columns to read or null to read all columns */
+        public MyIterator(final int[] columnIndices) {
+            m_columnIndices = columnIndices;
             m_tableIndex = 0;
-            m_curIterator = m_tables[m_tableIndex].iterator();
+            m_curIterator = TableSpecReplacerTable.buildFiltered(m_tables[m_tableIndex], m_columnIndices);
             m_next = internalNext();
         }
 
@@ -355,7 +375,7 @@ private DataRow internalNext() {
             }
             if (m_tableIndex < m_tables.length - 1) {
                 m_tableIndex++;
-                m_curIterator = m_tables[m_tableIndex].iterator();
+                m_curIterator = TableSpecReplacerTable.buildFiltered(m_tables[m_tableIndex], m_columnIndices);
                 return internalNext();
             }
             return null;
@@ -198,7 +198,7 @@ static final class BlockableDCObjectOutputVersion2 extends DCObjectOutputVersion
         private final BlockableOutputStream m_out;
 
         private BlockableDCObjectOutputVersion2(final BlockableOutputStream out,
-            final DefaultTableStoreWriter tableStoreWriter) {
+            final AbstractTableStoreWriter tableStoreWriter) {
             super(out, tableStoreWriter);
             m_out = out;
         }
@@ -208,7 +208,7 @@ private BlockableDCObjectOutputVersion2(final BlockableOutputStream out,
          * @param tableStoreWriter the corresponding writer (callback for embedded cell writing)
          */
         @SuppressWarnings("resource")
-        BlockableDCObjectOutputVersion2(final OutputStream out, final DefaultTableStoreWriter tableStoreWriter) {
+        BlockableDCObjectOutputVersion2(final OutputStream out, final AbstractTableStoreWriter tableStoreWriter) {
             this(new BlockableOutputStream(out), tableStoreWriter);
         }
 
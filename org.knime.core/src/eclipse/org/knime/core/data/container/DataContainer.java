@@ -181,6 +181,24 @@ public class DataContainer implements RowAppender {
         }
         MAX_CELLS_IN_MEMORY = size;
 
+        long sizeInMemory = 0L;
+        String valSizeInMem = System.getProperty(KNIMEConstants.PROPERTY_SIZE_IN_MEMORY);
+        if (valSizeInMem != null) {
+            String s = valSizeInMem.trim();
+            try {
+                long newSizeMB = Long.parseLong(s);
+                if (newSizeMB <= 0) {
+                    throw new NumberFormatException("max size in memory <= 0: " + newSizeMB);
+                }
+                sizeInMemory = newSizeMB << 20;
+                LOGGER.debug("Limiting tables held in memory to an estimated size of " + newSizeMB + "MB");
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Unable to parse property " + KNIMEConstants.PROPERTY_SIZE_IN_MEMORY
+                    + ", limiting tables in memory by cell count", e);
+            }
+        }
+        MAX_SIZE_IN_MEMORY = sizeInMemory;
+
         int maxPossValues = DEF_MAX_POSSIBLE_VALUES;
         String envPossValues = KNIMEConstants.PROPERTY_DOMAIN_MAX_POSSIBLE_VALUES;
         String valPossValues = System.getProperty(envPossValues);
@@ -254,6 +272,16 @@ public class DataContainer implements RowAppender {
      */
     public static final int MAX_CELLS_IN_MEMORY;
 
+    /**
+     * Estimated heap size in bytes of the rows of a table that are cached without being written to the temp file, or
+     * 0 if the number of cells ({@link #MAX_CELLS_IN_MEMORY}) is used instead. Set by the java property
+     * {@link KNIMEConstants#PROPERTY_SIZE_IN_MEMORY}, it only applies to containers created with the default cell
+     * count.
+     *
+     * @since 3.8
+     */
+    public static final long MAX_SIZE_IN_MEMORY;
+
     /**
      * Minimum disc space requirement, see {@link KNIMEConstants#PROPERTY_MIN_FREE_DISC_SPACE_IN_TEMP_IN_MB}.
      *
@@ -342,6 +370,9 @@ public Thread newThread(final Runnable r) {
 
     private int m_maxRowsInMemory;
 
+    /** Maximum estimated size of the rows in memory, see {@link #MAX_SIZE_IN_MEMORY}; 0 if not limited by size. */
+    private final long m_maxSizeInMemory;
+
     /** Holds the keys of the added rows to check for duplicates. */
     private DuplicateChecker m_duplicateChecker;
 
@@ -453,9 +484,16 @@ protected DataContainer(final DataTableSpec spec, final boolean initDomain, fina
 
         m_domainCreator = new DataTableDomainCreator(m_spec, initDomain);
         m_size = 0;
-        // how many rows will occupy MAX_CELLS_IN_MEMORY
-        final int colCount = spec.getNumColumns();
-        m_maxRowsInMemory = maxCellsInMemory / ((colCount > 0) ? colCount : 1);
+        if (MAX_SIZE_IN_MEMORY > 0 && maxCellsInMemory == MAX_CELLS_IN_MEMORY) {
+            // default memory policy: the buffer decides based on the estimated size of its rows
+            m_maxRowsInMemory = Integer.MAX_VALUE;
+            m_maxSizeInMemory = MAX_SIZE_IN_MEMORY;
+        } else {
+            // how many rows will occupy MAX_CELLS_IN_MEMORY
+            final int colCount = spec.getNumColumns();
+            m_maxRowsInMemory = maxCellsInMemory / ((colCount > 0) ? colCount : 1);
+            m_maxSizeInMemory = 0L;
+        }
         m_bufferCreator = new BufferCreator();
     }
 
@@ -770,6 +808,9 @@ public void addRowToTable(final DataRow row) {
             if (m_buffer == null) {
                 throw new NullPointerException("Implementation error, must not return a null buffer.");
             }
+            if (m_maxSizeInMemory > 0) {
+                m_buffer.setMaxSizeInMemory(m_maxSizeInMemory);
+            }
         }
         if (m_isSynchronousWrite) {
             if (MemoryAlertSystem.getInstance().isMemoryLow()) {
@@ -47,10 +47,16 @@
  */
 package org.knime.core.data.container;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.IDataRepository;
@@ -61,6 +67,10 @@
 import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.workflow.FlowObjectStack;
+import org.knime.core.node.workflow.FlowVariable;
+import org.knime.core.node.workflow.NodeContainer;
+import org.knime.core.node.workflow.NodeContext;
 
 /**
  *
@@ -104,10 +114,151 @@ public final class DefaultTableStoreFormat implements TableStoreFormat {
         }
     }
 
-    /** Compression on the binary (main) file. */
+    /**
+     * Name of a flow variable that selects the {@link CompressionFormat} of tables created by a node (or all nodes in a
+     * workflow when defined as workflow variable). Overrides {@link KNIMEConstants#PROPERTY_TABLE_COMPRESSION_CODEC}.
+     */
+    static final String FLOW_VARIABLE_COMPRESSION_CODEC = "knime_table_compression";
+
+    /** Compression on the binary (main) file and blob files. The name is stored in the meta information. */
     enum CompressionFormat {
+            /** Deflate (GZIP), best compression but slow. Default for backward compatibility. */
             Gzip,
-            None;
+            /** No compression. */
+            None,
+            /** LZ4 block compression, fast. */
+            Lz4,
+            /** Snappy block compression, fast. */
+            Snappy;
+
+        /**
+         * Wraps the stream to write the binary file.
+         *
+         * @param out the (buffered) file stream
+         * @return the stream to write the uncompressed data to
+         * @throws IOException if creating the stream fails
+         */
+        OutputStream createOutputStream(final OutputStream out) throws IOException {
+            switch (this) {
+                case Gzip:
+                    // buffering the gzip stream is important as the blockable
+                    // stream, which will be put on top of it, writes bytes individually
+                    return new BufferedOutputStream(new GZIPOutputStream(out));
+                case None:
+                    return out;
+                default:
+                    return new BlockCompressedOutputStream(out, createCodec());
+            }
+        }
+
+        /**
+         * Wraps the stream to read the binary file.
+         *
+         * @param in the (buffered) file stream
+         * @return the stream to read the uncompressed data from
+         * @throws IOException if creating the stream fails
+         */
+        InputStream createInputStream(final InputStream in) throws IOException {
+            switch (this) {
+                case Gzip:
+                    // buffering is important when reading gzip streams
+                    return new BufferedInputStream(new GZIPInputStream(in));
+                case None:
+                    return in;
+                default:
+                    return new BlockCompressedInputStream(in);
+            }
+        }
+
+        /**
+         * Wraps the stream to write a blob file, whose cell class requires compression. Disabling the compression of
+         * the binary file doesn't apply to blobs: using {@link #None} they are gzip'ed (as they always were), the fast
+         * codecs are used for blobs as well.
+         *
+         * @param out the (buffered) file stream
+         * @return the stream to write the uncompressed data to
+         * @throws IOException if creating the stream fails
+         * @see #createBlobInputStream(InputStream)
+         */
+        OutputStream createBlobOutputStream(final OutputStream out) throws IOException {
+            return this == None ? Gzip.createOutputStream(out) : createOutputStream(out);
+        }
+
+        /**
+         * Wraps the stream to read a compressed blob file. Blob files don't carry any meta information, their format
+         * is determined from the header of the file.
+         *
+         * @param in the file stream, must support {@link InputStream#mark(int)}
+         * @return the stream to read the uncompressed data from
+         * @throws IOException if creating the stream fails
+         */
+        static InputStream createBlobInputStream(final InputStream in) throws IOException {
+            if (BlockCompressedInputStream.isBlockCompressed(in)) {
+                return new BlockCompressedInputStream(in);
+            }
+            return Gzip.createInputStream(in);
+        }
+
+        private BlockCompressionCodec createCodec() {
+            switch (this) {
+                case Lz4:
+                    return new BlockCompressionCodec.Lz4();
+                case Snappy:
+                    return new BlockCompressionCodec.Snappy();
+                default:
+                    throw new IllegalStateException("Not a block compression: " + this);
+            }
+        }
+
+        /**
+         * Determines the format to use for new tables. That's (in this order) the value of the flow variable
+         * {@value #FLOW_VARIABLE_COMPRESSION_CODEC} visible to the node currently executing, the system property
+         * {@value KNIMEConstants#PROPERTY_TABLE_COMPRESSION_CODEC}, or {@link #Gzip} or {@link #None} depending on
+         * {@link #IS_USE_GZIP}.
+         *
+         * @return the format, not null
+         */
+        static CompressionFormat getDefault() {
+            NodeContext context = NodeContext.getContext();
+            NodeContainer nc = context == null ? null : context.getNodeContainer();
+            FlowObjectStack stack = nc == null ? null : nc.getFlowObjectStack();
+            if (stack != null) {
+                FlowVariable v = stack.getAvailableFlowVariables().get(FLOW_VARIABLE_COMPRESSION_CODEC);
+                CompressionFormat f = v == null ? null : parse(v.getValueAsString(),
+                    "flow variable \"" + FLOW_VARIABLE_COMPRESSION_CODEC + "\"");
+                if (f != null) {
+                    return f;
+                }
+            }
+            return DEFAULT_COMPRESSION_FORMAT;
+        }
+
+        /** Case-insensitive lookup, warns if the name is invalid and returns null. */
+        private static CompressionFormat parse(final String name, final String origin) {
+            for (CompressionFormat f : values()) {
+                if (f.name().equalsIgnoreCase(name)) {
+                    return f;
+                }
+            }
+            LOGGER.warn("Invalid table compression \"" + name + "\" (" + origin + "), valid values are "
+                + Arrays.toString(values()));
+            return null;
+        }
+    }
+
+    /** Format used when not overwritten by a flow variable, see {@link CompressionFormat#getDefault()}. */
+    private static final CompressionFormat DEFAULT_COMPRESSION_FORMAT;
+
+    static {
+        String codec = System.getProperty(KNIMEConstants.PROPERTY_TABLE_COMPRESSION_CODEC);
+        CompressionFormat f = codec == null ? null
+            : CompressionFormat.parse(codec, "property " + KNIMEConstants.PROPERTY_TABLE_COMPRESSION_CODEC);
+        if (f == null) {
+            f = IS_USE_GZIP ? CompressionFormat.Gzip : CompressionFormat.None;
+        } else {
+            LOGGER.debug("Setting table stream compression to " + f);
+        }
+        DEFAULT_COMPRESSION_FORMAT = f;
     }
 
     @Override
@@ -140,6 +291,21 @@ public AbstractTableStoreWriter createWriter(final OutputStream output, final Da
         return new DefaultTableStoreWriter(spec, output, writeRowKey);
     }
 
+    /**
+     * Creates a writer using the given compression.
+     *
+     * @param output the stream to write to
+     * @param spec the spec of the table
+     * @param writeRowKey whether to write the row keys
+     * @param compressionFormat the compression of the stream
+     * @return a new writer
+     * @throws IOException if the stream can't be initialized
+     */
+    AbstractTableStoreWriter createWriter(final OutputStream output, final DataTableSpec spec,
+        final boolean writeRowKey, final CompressionFormat compressionFormat) throws IOException {
+        return new DefaultTableStoreWriter(spec, output, writeRowKey, compressionFormat);
+    }
+
     @Override
     public AbstractTableStoreReader createReader(final File binFile, final DataTableSpec spec,
         final IDataRepository dataRepository, final NodeSettingsRO settings, final int version,
@@ -47,11 +47,17 @@
  */
 package org.knime.core.data.container;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.container.Buffer.CompressionFormat;
+import org.knime.core.data.RowIteratorBuilder;
+import org.knime.core.data.RowIteratorBuilder.DefaultRowIteratorBuilder;
+import org.knime.core.data.container.DefaultTableStoreFormat.CompressionFormat;
 import org.knime.core.data.container.storage.AbstractTableStoreReader;
 import org.knime.core.data.container.storage.AbstractTableStoreWriter;
 import org.knime.core.node.InvalidSettingsException;
@@ -68,6 +74,9 @@ final class DefaultTableStoreReader extends AbstractTableStoreReader {
     private final DataTableSpec m_spec;
     private final boolean m_isReadRowKey;
 
+    /** The memory mapped bin file, shared by all iterators. Created lazily, only if uncompressed. */
+    private ByteBuffer[] m_mappedBinFile;
+
     /**
      * Constructs a reader for materializing serialized KNIME tables.
      *
@@ -115,11 +124,32 @@ final class DefaultTableStoreReader extends AbstractTableStoreReader {
 
     @Override
     public TableStoreCloseableRowIterator iterator() {
+        return createIterator(null);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RowIteratorBuilder<? extends TableStoreCloseableRowIterator> iteratorBuilder() {
+        return new DefaultRowIteratorBuilder<TableStoreCloseableRowIterator>(() -> iterator(), m_spec) {
+            @Override
+            public TableStoreCloseableRowIterator build() {
+                TableStoreCloseableRowIterator iterator = createIterator(
+                    DefaultRowIteratorBuilder.toColumnMask(getFilteredIndices(), m_spec.getNumColumns()));
+                registerNewIteratorInstance(iterator);
+                return iterator;
+            }
+        };
+    }
+
+    /**
+     * @param columnMask the columns to be read (other cells are skipped in the stream), null to read all columns.
+     */
+    private TableStoreCloseableRowIterator createIterator(final boolean[] columnMask) {
         try {
             if (getReadVersion() <= 5) { // 2.0 tech preview and before
                 return new BufferFromFileIteratorVersion1x(this);
             } else {
-                return new BufferFromFileIteratorVersion20(this);
+                return new BufferFromFileIteratorVersion20(this, columnMask);
             }
         } catch (IOException ioe) {
             StringBuilder b = new StringBuilder("Cannot read file \"");
@@ -130,6 +160,34 @@ public TableStoreCloseableRowIterator iterator() {
         }
     }
 
+    /**
+     * Opens a stream on the bin file. Uncompressed files are memory mapped (unless disabled via
+     * {@link MappedFileInputStream#IS_USE_MEMORY_MAPPING}), the mapping is shared by all iterators.
+     *
+     * @return a new (buffered) stream on the bin file, still to be decompressed
+     * @throws IOException if the file can't be opened
+     */
+    InputStream openBinFileStream() throws IOException {
+        if (m_compressionFormat == CompressionFormat.None && MappedFileInputStream.IS_USE_MEMORY_MAPPING) {
+            synchronized (this) {
+                if (m_mappedBinFile == null) {
+                    m_mappedBinFile = MappedFileInputStream.map(m_binFile);
+                }
+                return new MappedFileInputStream(m_mappedBinFile);
+            }
+        }
+        return new BufferedInputStream(new FileInputStream(m_binFile));
+    }
+
+    /** {@inheritDoc} Also releases the memory mapping of the bin file (it's unmapped once garbage collected). */
+    @Override
+    public void clearIteratorInstances() {
+        super.clearIteratorInstances();
+        synchronized (this) {
+            m_mappedBinFile = null;
+        }
+    }
+
     /** @return Whether stream is zipped. */
     CompressionFormat getBinFileCompressionFormat() {
         return m_compressionFormat;
@@ -50,7 +50,6 @@
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.zip.GZIPOutputStream;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
@@ -85,8 +84,22 @@ final class DefaultTableStoreWriter extends AbstractTableStoreWriter implements
      */
     public DefaultTableStoreWriter(final DataTableSpec spec, final OutputStream outputStream, final boolean writeRowKey)
         throws IOException {
+        this(spec, outputStream, writeRowKey, CompressionFormat.getDefault());
+    }
+
+    /**
+     * Constructs a writer for writing KNIME tables to disk.
+     *
+     * @param spec the specification of the KNIME table to write to disk
+     * @param outputStream
+     * @param writeRowKey a flag that determines whether to store the row keys in the Parquet file
+     * @param compressionFormat the compression of the stream
+     * @throws IOException any type of I/O problem
+     */
+    DefaultTableStoreWriter(final DataTableSpec spec, final OutputStream outputStream, final boolean writeRowKey,
+        final CompressionFormat compressionFormat) throws IOException {
         super(spec, writeRowKey);
-        m_compressionFormat = DefaultTableStoreFormat.IS_USE_GZIP ? CompressionFormat.Gzip : CompressionFormat.None;
+        m_compressionFormat = compressionFormat;
         m_outStream = initOutFile(new BufferedOutputStream(outputStream));
     }
 
@@ -127,24 +140,7 @@ void writeRowKey(final RowKey key, final BlockableDCObjectOutputVersion2 outStre
      * Creates short cut array and wraps the argument stream in a {@link DCObjectOutputVersion2}.
      */
     private BlockableDCObjectOutputVersion2 initOutFile(final OutputStream outStream) throws IOException {
-        BlockableOutputStream bos;
-        OutputStream wrap;
-        switch (m_compressionFormat) {
-            case Gzip:
-                wrap = new GZIPOutputStream(outStream);
-                // buffering the input stream is important as the blockable
-                // stream, which will be put on top of it, reads bytes individually
-                // (had a table, on which a single read-scan took ~6min without
-                // and ~30s with buffering)
-                wrap = new BufferedOutputStream(wrap);
-                break;
-            case None:
-                wrap = outStream;
-                break;
-            default:
-                throw new IOException("Unsupported compression format: " + m_compressionFormat);
-        }
-        return new BlockableDCObjectOutputVersion2(wrap, this);
+        return new BlockableDCObjectOutputVersion2(m_compressionFormat.createOutputStream(outStream), this);
     }
 
     /** {@inheritDoc} */
@@ -49,10 +49,13 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Map;
 
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.RowIterator;
+import org.knime.core.data.RowIteratorBuilder;
+import org.knime.core.data.RowIteratorBuilder.DefaultRowIteratorBuilder;
 import org.knime.core.data.RowKey;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.BufferedDataTable.KnowsRowCountTable;
@@ -126,6 +129,31 @@ public CloseableRowIterator iterator() {
                 m_rightTable.iterator(), m_map, m_flags);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Column filters are pushed down to the left and right table.
+     */
+    @Override
+    public RowIteratorBuilder<? extends CloseableRowIterator> iteratorBuilder() {
+        return new DefaultRowIteratorBuilder<CloseableRowIterator>(() -> iterator(), m_spec) {
+            @Override
+            public CloseableRowIterator build() {
+                final int[] indices = getFilteredIndices();
+                if (indices == null) {
+                    return iterator();
+                }
+                final int colsLeft = m_leftTable.getDataTableSpec().getNumColumns();
+                int[] leftIndices = Arrays.stream(indices).filter(i -> i < colsLeft).toArray();
+                int[] rightIndices = Arrays.stream(indices).filter(i -> i >= colsLeft).map(i -> i - colsLeft)
+                    .toArray();
+                return new JoinTableIterator(
+                    TableSpecReplacerTable.buildFiltered(m_leftTable, leftIndices),
+                    TableSpecReplacerTable.buildFiltered(m_rightTable, rightIndices), m_map, m_flags);
+            }
+        };
+    }
+
     /**
      * Does nothing.
      * {@inheritDoc}
@@ -0,0 +1,191 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.core.runtime.Platform;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Input stream on a memory mapped file. The mapping ({@link #map(File)}) is created once per file and shared by all
+ * streams reading it, each stream only holds its own position. Reading from the stream doesn't involve any system
+ * call nor copying through intermediate buffers, and, unlike {@link java.io.BufferedInputStream}, it is not
+ * synchronized.
+ *
+ * <p>Used for uncompressed table files, see {@link DefaultTableStoreReader}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class MappedFileInputStream extends InputStream {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(MappedFileInputStream.class);
+
+    /** Files larger than that are mapped in multiple segments. */
+    static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    /**
+     * Whether uncompressed table files are memory mapped, see {@link KNIMEConstants#PROPERTY_TABLE_MEMORY_MAPPING}.
+     * Disabled by default on Windows, where mapped files can't be deleted until the mapping is garbage collected.
+     */
+    static final boolean IS_USE_MEMORY_MAPPING;
+
+    static {
+        String property = System.getProperty(KNIMEConstants.PROPERTY_TABLE_MEMORY_MAPPING);
+        if (property == null) {
+            IS_USE_MEMORY_MAPPING = !Platform.OS_WIN32.equals(Platform.getOS());
+        } else if ("true".equals(property) || "false".equals(property)) {
+            IS_USE_MEMORY_MAPPING = Boolean.parseBoolean(property);
+            LOGGER.debug("Setting memory mapping of table files to " + IS_USE_MEMORY_MAPPING);
+        } else {
+            LOGGER.warn("Unable to read property " + KNIMEConstants.PROPERTY_TABLE_MEMORY_MAPPING + " (\"" + property
+                + "\"); memory mapping of table files is disabled");
+            IS_USE_MEMORY_MAPPING = false;
+        }
+    }
+
+    private final ByteBuffer[] m_segments;
+
+    private int m_segmentIndex;
+
+    private ByteBuffer m_current;
+
+    /**
+     * Creates a stream reading from the start of the argument mapping.
+     *
+     * @param segments the mapping as returned by {@link #map(File)}, not modified
+     */
+    MappedFileInputStream(final ByteBuffer[] segments) {
+        m_segments = new ByteBuffer[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            m_segments[i] = segments[i].duplicate();
+        }
+        m_current = m_segments.length > 0 ? m_segments[0] : ByteBuffer.allocate(0);
+    }
+
+    /**
+     * Maps the argument file (read-only) into memory.
+     *
+     * @param file the file to map
+     * @return the mapped segments, each at most {@link #MAX_SEGMENT_SIZE} bytes long
+     * @throws IOException if the file can't be mapped
+     */
+    static ByteBuffer[] map(final File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final int segmentCount = (int)((size + MAX_SEGMENT_SIZE - 1) / MAX_SEGMENT_SIZE);
+            ByteBuffer[] segments = new ByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                final long position = (long)i * MAX_SEGMENT_SIZE;
+                segments[i] = channel.map(MapMode.READ_ONLY, position, Math.min(MAX_SEGMENT_SIZE, size - position));
+            }
+            // the mapping stays valid after the channel is closed
+            return segments;
+        }
+    }
+
+    /** @return true if there are bytes left, switches to the next segment if needed */
+    private boolean ensureRemaining() {
+        while (!m_current.hasRemaining()) {
+            if (m_segmentIndex + 1 >= m_segments.length) {
+                return false;
+            }
+            m_current = m_segments[++m_segmentIndex];
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int read() throws IOException {
+        if (!ensureRemaining()) {
+            return -1;
+        }
+        return m_current.get() & 0xFF;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureRemaining()) {
+            return -1;
+        }
+        final int length = Math.min(len, m_current.remaining());
+        m_current.get(b, off, length);
+        return length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && ensureRemaining()) {
+            final int length = (int)Math.min(n - skipped, m_current.remaining());
+            m_current.position(m_current.position() + length);
+            skipped += length;
+        }
+        return skipped;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int available() throws IOException {
+        return m_current.remaining();
+    }
+
+}
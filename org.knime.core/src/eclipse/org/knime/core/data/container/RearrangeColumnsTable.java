@@ -70,6 +70,8 @@
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.IDataRepository;
 import org.knime.core.data.RowIterator;
+import org.knime.core.data.RowIteratorBuilder;
+import org.knime.core.data.RowIteratorBuilder.DefaultRowIteratorBuilder;
 import org.knime.core.data.RowKey;
 import org.knime.core.data.container.ColumnRearranger.SpecAndFactoryObject;
 import org.knime.core.data.def.DefaultRow;
@@ -271,16 +273,38 @@ public DataTableSpec getDataTableSpec() {
      */
     @Override
     public CloseableRowIterator iterator() {
+        return createIterator(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Column filters are pushed down to the reference and the appended table.
+     */
+    @Override
+    public RowIteratorBuilder<? extends CloseableRowIterator> iteratorBuilder() {
+        return new DefaultRowIteratorBuilder<CloseableRowIterator>(() -> iterator(), m_spec) {
+            @Override
+            public CloseableRowIterator build() {
+                return createIterator(toColumnMask(getFilteredIndices(), m_map.length));
+            }
+        };
+    }
+
+    /** @param columnMask the columns to read (in the output spec) or null for all columns */
+    private CloseableRowIterator createIterator(final boolean[] columnMask) {
         CloseableRowIterator appendIt;
         if (m_appendTable != null) {
-            int[] appendIndices =
-                IntStream.range(0, m_map.length).filter(i -> !m_isFromRefTable[i]).map(i -> m_map[i]).toArray();
+            int[] appendIndices = IntStream.range(0, m_map.length)
+                .filter(i -> !m_isFromRefTable[i] && (columnMask == null || columnMask[i]))
+                .map(i -> m_map[i]).toArray();
             appendIt = m_appendTable.iteratorBuilder().filterColumns(appendIndices).build();
         } else {
             appendIt = EMPTY_ITERATOR;
         }
-        int[] refIndices =
-            IntStream.range(0, m_map.length).filter(i -> m_isFromRefTable[i]).map(i -> m_map[i]).toArray();
+        int[] refIndices = IntStream.range(0, m_map.length)
+            .filter(i -> m_isFromRefTable[i] && (columnMask == null || columnMask[i]))
+            .map(i -> m_map[i]).toArray();
         CloseableRowIterator refIt = m_reference.iteratorBuilder().filterColumns(refIndices).build();
         return new JoinTableIterator(refIt, appendIt, m_map, m_isFromRefTable);
     }
@@ -0,0 +1,323 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.container;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.data.DataCellSerializer;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTypeRegistry;
+import org.knime.core.data.MissingCell;
+import org.knime.core.data.collection.CollectionDataValue;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Estimates the heap retained by rows kept in memory by a {@link Buffer}. The common cell implementations are
+ * estimated from their known object layout; the size of any other cell is derived from the size of its serialized
+ * form, which is sampled for the first cells of each column and then only every {@value #SAMPLE_INTERVAL}th cell.
+ *
+ * <p>The numbers are approximations (assuming a 64bit VM with compressed references), they are meant to decide when
+ * to swap rows to disc, not to account memory precisely. Not thread-safe.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class RowSizeEstimator {
+
+    /** Object header plus cell array reference and row key of a row, and its reference in the buffer's list. */
+    private static final int ROW_OVERHEAD = 16 + 8 + 16 + 8 + 4;
+
+    /** Object header and fields of a {@link String} plus its array header (characters are added separately). */
+    private static final int STRING_OVERHEAD = 24 + 16;
+
+    /** Object header (and padding) of a cell. */
+    private static final int CELL_OVERHEAD = 16;
+
+    /** Estimate for a cell that can't be serialized. */
+    private static final int DEFAULT_CELL_SIZE = 64;
+
+    /** Number of elements of a collection cell that are looked at, larger collections are extrapolated. */
+    private static final int MAX_COLLECTION_SAMPLE = 100;
+
+    /** Number of cells per column whose serialized size is always determined. */
+    private static final int INITIAL_SAMPLE_COUNT = 16;
+
+    /** After {@link #INITIAL_SAMPLE_COUNT} cells only every n-th cell of a column is serialized. */
+    static final int SAMPLE_INTERVAL = 256;
+
+    private final long[] m_sampledSizeSums;
+
+    private final int[] m_sampleCounts;
+
+    private final int[] m_opaqueCellCounts;
+
+    private final CountingDataCellOutput m_countingOutput = new CountingDataCellOutput();
+
+    /**
+     * @param columnCount number of columns of the rows to estimate
+     */
+    RowSizeEstimator(final int columnCount) {
+        m_sampledSizeSums = new long[columnCount];
+        m_sampleCounts = new int[columnCount];
+        m_opaqueCellCounts = new int[columnCount];
+    }
+
+    /**
+     * Estimates the heap occupied by the argument row.
+     *
+     * @param row the row, as it is kept in memory (blob cells not unwrapped)
+     * @return the estimated size in bytes
+     */
+    long estimateRowSize(final DataRow row) {
+        final int cellCount = row.getNumCells();
+        long size = ROW_OVERHEAD + 4L * cellCount + estimateStringSize(row.getKey().getString());
+        for (int i = 0; i < cellCount; i++) {
+            DataCell cell = row instanceof BlobSupportDataRow ? ((BlobSupportDataRow)row).getRawCell(i)
+                : row.getCell(i);
+            size += estimateCellSize(cell, i);
+        }
+        return size;
+    }
+
+    private long estimateCellSize(final DataCell cell, final int column) {
+        final Class<? extends DataCell> cellClass = cell.getClass();
+        if (cellClass == BooleanCell.class) {
+            return 0L; // singletons
+        } else if (cellClass == IntCell.class) {
+            return CELL_OVERHEAD;
+        } else if (cellClass == DoubleCell.class || cellClass == LongCell.class) {
+            return CELL_OVERHEAD + 8;
+        } else if (cellClass == StringCell.class) {
+            return CELL_OVERHEAD + estimateStringSize(((StringCell)cell).getStringValue());
+        } else if (cellClass == MissingCell.class) {
+            return CELL_OVERHEAD + estimateStringSize(((MissingCell)cell).getError());
+        } else if (cell instanceof BlobWrapperDataCell) {
+            // blob content is only softly referenced, it can be reclaimed by the garbage collector
+            return CELL_OVERHEAD + 32;
+        } else if (cell instanceof CollectionDataValue) {
+            return estimateCollectionSize((CollectionDataValue)cell, column);
+        } else {
+            return estimateOpaqueCellSize(cell, column);
+        }
+    }
+
+    private long estimateCollectionSize(final CollectionDataValue collection, final int column) {
+        final int size = collection.size();
+        long elementSizes = 0L;
+        int count = 0;
+        for (DataCell element : collection) {
+            if (count == MAX_COLLECTION_SAMPLE) {
+                break;
+            }
+            elementSizes += estimateCellSize(element, column) + 4;
+            count++;
+        }
+        if (count > 0 && count < size) {
+            elementSizes = elementSizes * size / count;
+        }
+        return CELL_OVERHEAD + 16 + elementSizes;
+    }
+
+    private long estimateOpaqueCellSize(final DataCell cell, final int column) {
+        final int opaqueCount = m_opaqueCellCounts[column]++;
+        if (m_sampleCounts[column] < INITIAL_SAMPLE_COUNT || opaqueCount % SAMPLE_INTERVAL == 0) {
+            m_sampledSizeSums[column] += CELL_OVERHEAD + m_countingOutput.getSerializedSize(cell);
+            m_sampleCounts[column]++;
+        }
+        return m_sampledSizeSums[column] / m_sampleCounts[column];
+    }
+
+    private static long estimateStringSize(final String s) {
+        return s == null ? 0L : STRING_OVERHEAD + 2L * s.length();
+    }
+
+    /** Output that only counts the bytes a cell serializes into. */
+    private static final class CountingDataCellOutput implements DataCellDataOutput {
+
+        private final CountingOutputStream m_counter = new CountingOutputStream();
+
+        private final DataOutputStream m_out = new DataOutputStream(m_counter);
+
+        /**
+         * @param cell the cell to serialize
+         * @return the size of the serialized cell, or a default if it can't be serialized
+         */
+        long getSerializedSize(final DataCell cell) {
+            m_counter.m_count = 0L;
+            try {
+                writeDataCell(cell);
+            } catch (IOException | RuntimeException e) {
+                return DEFAULT_CELL_SIZE;
+            }
+            return m_counter.m_count;
+        }
+
+        /** Counts characters as they are held in memory (no 64k limitation). {@inheritDoc} */
+        @Override
+        public void writeUTF(final String s) throws IOException {
+            m_counter.m_count += estimateStringSize(s);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeDataCell(final DataCell cell) throws IOException {
+            Optional<DataCellSerializer<DataCell>> serializer =
+                DataTypeRegistry.getInstance().getSerializer(cell.getClass());
+            if (serializer.isPresent()) {
+                serializer.get().serialize(cell, this);
+            } else {
+                m_counter.m_count += DEFAULT_CELL_SIZE;
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(final int b) throws IOException {
+            m_out.write(b);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(final byte[] b) throws IOException {
+            m_out.write(b);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            m_out.write(b, off, len);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeBoolean(final boolean v) throws IOException {
+            m_out.writeBoolean(v);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeByte(final int v) throws IOException {
+            m_out.writeByte(v);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeShort(final int v) throws IOException {
+            m_out.writeShort(v);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeChar(final int v) throws IOException {
+            m_out.writeChar(v);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeInt(final int v) throws IOException {
+            m_out.writeInt(v);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeLong(final long v) throws IOException {
+            m_out.writeLong(v);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeFloat(final float v) throws IOException {
+            m_out.writeFloat(v);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeDouble(final double v) throws IOException {
+            m_out.writeDouble(v);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeBytes(final String s) throws IOException {
+            m_out.writeBytes(s);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void writeChars(final String s) throws IOException {
+            m_out.writeChars(s);
+        }
+    }
+
+    /** Stream discarding all data, only counting its length. */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long m_count;
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(final int b) {
+            m_count++;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            m_count += len;
+        }
+    }
+
+}
@@ -56,6 +56,8 @@
 import java.util.zip.ZipFile;
 
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowIteratorBuilder;
+import org.knime.core.data.RowIteratorBuilder.DefaultRowIteratorBuilder;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.BufferedDataTable.KnowsRowCountTable;
 import org.knime.core.node.CanceledExecutionException;
@@ -207,6 +209,36 @@ public CloseableRowIterator iterator() {
         return m_reference.iterator();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Column filters are resolved against the new spec and pushed down to the reference table.
+     */
+    @Override
+    public RowIteratorBuilder<? extends CloseableRowIterator> iteratorBuilder() {
+        return new DefaultRowIteratorBuilder<CloseableRowIterator>(() -> iterator(), m_newSpec) {
+            @Override
+            public CloseableRowIterator build() {
+                return buildFiltered(m_reference, getFilteredIndices());
+            }
+        };
+    }
+
+    /**
+     * Builds an iterator on the argument table, restricted to the given columns.
+     *
+     * @param table the table to iterate
+     * @param indices the columns to read or null to read all columns
+     * @return a new iterator
+     */
+    static CloseableRowIterator buildFiltered(final BufferedDataTable table, final int[] indices) {
+        RowIteratorBuilder<? extends CloseableRowIterator> builder = table.iteratorBuilder();
+        if (indices != null) {
+            builder.filterColumns(indices);
+        }
+        return builder.build();
+    }
+
     /**
      * {@inheritDoc}
      * @deprecated use {@link #size()} instead which supports more than {@link Integer#MAX_VALUE} rows
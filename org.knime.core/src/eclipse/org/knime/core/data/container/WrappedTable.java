@@ -52,6 +52,7 @@
 import java.util.Map;
 
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowIteratorBuilder;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.BufferedDataTable.KnowsRowCountTable;
 import org.knime.core.node.CanceledExecutionException;
@@ -124,6 +125,12 @@ public CloseableRowIterator iterator() {
         return m_table.iterator();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public RowIteratorBuilder<? extends CloseableRowIterator> iteratorBuilder() {
+        return m_table.iteratorBuilder();
+    }
+
     /** {@inheritDoc} */
     @Override
     public DataTableSpec getDataTableSpec() {
@@ -51,6 +51,7 @@
 import java.text.NumberFormat;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -62,6 +63,8 @@
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
@@ -71,6 +74,7 @@
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
 import org.knime.core.data.DataValueComparator;
+import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.data.container.DataContainer;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.util.memory.MemoryAlertSystem;
@@ -78,7 +82,10 @@
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadPool;
+import org.knime.core.util.ThreadUtils;
 
 /**
  * Class to sort a table. See <a href="package.html">package description</a> for details.
@@ -98,6 +105,24 @@ abstract class AbstractTableSorter {
      */
     public static final int DEF_MAX_OPENCONTAINER = 40;
 
+    /**
+     * Upper bound for the number of open containers if determined automatically in parallel mode (each open
+     * container requires a file handle and a prefetching thread).
+     */
+    static final int MAX_AUTO_OPENCONTAINER = 128;
+
+    /** Estimated memory used by a prefetching container in the merge phase, used to determine the merge fan-in. */
+    private static final long MEMORY_PER_OPENCONTAINER = 4L << 20;
+
+    /** Number of rows read ahead at once by a prefetching merge input. */
+    private static final int PREFETCH_BATCH_SIZE = 1024;
+
+    /** Rough estimate of the memory used by a cell held in memory, used to derive the chunk size in parallel mode. */
+    private static final int ESTIMATED_CELL_SIZE = 64;
+
+    /** Lower bound for the number of rows of a chunk in parallel mode (unless memory gets low). */
+    private static final int MIN_PARALLEL_CHUNK_ROWS = 1000;
+
     private MemoryAlertSystem m_memService = MemoryAlertSystem.getInstance();
 
     private final DataTable m_inputTable;
@@ -111,6 +136,18 @@ abstract class AbstractTableSorter {
      */
     private int m_maxOpenContainers = DEF_MAX_OPENCONTAINER;
 
+    /** Whether {@link #m_maxOpenContainers} was set by the client (otherwise it's determined in parallel mode). */
+    private boolean m_isMaxOpenContainersSet;
+
+    /** Number of threads used to sort, see {@link #setParallelism(int)}. */
+    private int m_parallelism = 1;
+
+    /** Prefetching merge inputs currently reading, closed when sorting ends (also if failed or canceled). */
+    private final List<PrefetchingIterator> m_prefetchingIterators = new ArrayList<>();
+
+    /** Sub pool of the global thread pool used while sorting in parallel mode, null otherwise. */
+    private ThreadPool m_pool;
+
     /**
      * Maximum number of rows. Only changed in unit test. Defaults to {@link Integer#MAX_VALUE}.
      */
@@ -121,6 +158,12 @@ abstract class AbstractTableSorter {
     /** The RowComparator to compare two DataRows (inner class). */
     private Comparator<DataRow> m_rowComparator;
 
+    /** Encodes the sort columns if sorted by columns and all their types are supported, otherwise null. */
+    private NormalizedKeyEncoder m_keyEncoder;
+
+    /** See {@link #setUseNormalizedKeys(boolean)}. */
+    private boolean m_useNormalizedKeys = true;
+
     private DataContainer m_currentContainer;
 
     private Queue<Iterable<DataRow>> m_chunksContainer = new LinkedList<Iterable<DataRow>>();
@@ -278,6 +321,7 @@ public void setRowComparator(final Comparator<DataRow> rowComparator) {
             throw new NullPointerException("Argument must not be null.");
         }
         m_rowComparator = rowComparator;
+        m_keyEncoder = null;
     }
 
     /**
@@ -334,6 +378,81 @@ public void setSortColumns(final Collection<String> inclList, final boolean[] so
             indices[curIndex++] = index;
         }
         setRowComparator(new RowComparator(indices, sortAscending, sortMissingsToEnd, spec));
+        m_keyEncoder = NormalizedKeyEncoder.create(indices, sortAscending, sortMissingsToEnd, spec);
+    }
+
+    /**
+     * @return the useNormalizedKeys field, see {@link #setUseNormalizedKeys(boolean)} for details.
+     * @since 3.8
+     */
+    public boolean getUseNormalizedKeys() {
+        return m_useNormalizedKeys;
+    }
+
+    /**
+     * If set to true, rows are compared by a binary key that encodes the values of all sort columns instead of the
+     * row comparator. The key is computed once per row (when sorting a chunk and when a row is read during a merge),
+     * which is much cheaper than comparing cells for each comparison. Only applies if the sort order is defined via
+     * {@link #setSortColumns(Collection, boolean[], boolean)} and all sort columns are of type int, long, double,
+     * string or boolean (or the row key); otherwise the row comparator is used. The result is the same in either case.
+     *
+     * <p>
+     * The default value for this option is <b>true</b>, i.e. normalized keys are used whenever the sort columns
+     * support them.
+     *
+     * @param useNormalizedKeys whether to compare normalized keys
+     * @since 3.8
+     */
+    public void setUseNormalizedKeys(final boolean useNormalizedKeys) {
+        m_useNormalizedKeys = useNormalizedKeys;
+    }
+
+    /** @return the key encoder to use or null if rows are compared using the row comparator */
+    NormalizedKeyEncoder getActiveKeyEncoder() {
+        return m_useNormalizedKeys ? m_keyEncoder : null;
+    }
+
+    /**
+     * Sorts the argument list according to the sort order, either using the row comparator or normalized keys.
+     *
+     * @param rows the rows to sort, modified in place
+     */
+    private void sortRows(final List<DataRow> rows) {
+        final NormalizedKeyEncoder keyEncoder = getActiveKeyEncoder();
+        if (keyEncoder == null) {
+            Collections.sort(rows, m_rowComparator);
+            return;
+        }
+        final int size = rows.size();
+        KeyedRow[] keyedRows = new KeyedRow[size];
+        for (int i = 0; i < size; i++) {
+            DataRow row = rows.get(i);
+            keyedRows[i] = new KeyedRow(keyEncoder.encode(row), row);
+        }
+        // stable, just as Collections#sort
+        Arrays.sort(keyedRows);
+        for (int i = 0; i < size; i++) {
+            rows.set(i, keyedRows[i].m_row);
+        }
+    }
+
+    /** A row and its normalized key, used to sort in memory. */
+    private static final class KeyedRow implements Comparable<KeyedRow> {
+
+        private final byte[] m_key;
+
+        private final DataRow m_row;
+
+        KeyedRow(final byte[] key, final DataRow row) {
+            m_key = key;
+            m_row = row;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int compareTo(final KeyedRow o) {
+            return NormalizedKeyEncoder.compare(m_key, o.m_key);
+        }
     }
 
     /**
@@ -350,7 +469,8 @@ public int getMaxOpenContainers() {
      * sort, the higher the number the fewer iterations in the final merge need to be done.
      *
      * <p>
-     * The default is {@value #DEF_MAX_OPENCONTAINER}.
+     * The default is {@value #DEF_MAX_OPENCONTAINER}. In parallel mode (see {@link #setParallelism(int)}) the number
+     * is derived from the available memory unless set by this method.
      *
      * @param value the maxOpenContainers to number of maximal open containers.
      * @throws IllegalArgumentException If argument is smaller or equal to 2.
@@ -360,6 +480,48 @@ public void setMaxOpenContainers(final int value) {
             throw new IllegalArgumentException("Invalid open container count: " + value);
         }
         m_maxOpenContainers = value;
+        m_isMaxOpenContainersSet = true;
+    }
+
+    /**
+     * @return the number of threads used for sorting, see {@link #setParallelism(int)}.
+     * @since 3.8
+     */
+    public int getParallelism() {
+        return m_parallelism;
+    }
+
+    /**
+     * Sets the number of threads used for sorting on disk. If larger than 1, the table is cut into chunks whose size is
+     * derived from the available memory; the chunks are sorted and written concurrently (up to the given number at a
+     * time) while the table is read on. In the merge phase each chunk is read ahead in batches. The work is done in
+     * the {@link KNIMEConstants#GLOBAL_THREAD_POOL global thread pool}. Unless set via
+     * {@link #setMaxOpenContainers(int)}, the number of chunks merged at once is then derived from the available
+     * memory (between {@value #DEF_MAX_OPENCONTAINER} and {@value #MAX_AUTO_OPENCONTAINER}). The result is the same
+     * as in sequential mode (the sort is stable).
+     *
+     * <p>
+     * The default value is 1, i.e. sorting happens in the calling thread, except for the
+     * {@link BufferedDataTableSorter}, see {@link #getDefaultParallelism()}.
+     *
+     * @param parallelism the number of threads, e.g. {@link Runtime#availableProcessors()}
+     * @throws IllegalArgumentException If argument is smaller than 1.
+     * @since 3.8
+     */
+    public void setParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + parallelism);
+        }
+        m_parallelism = parallelism;
+    }
+
+    /**
+     * @return the number of threads used by default by the {@link BufferedDataTableSorter}, the size of the global
+     *         thread pool but at most the number of processors
+     */
+    static int getDefaultParallelism() {
+        return Math.max(1,
+            Math.min(Runtime.getRuntime().availableProcessors(), KNIMEConstants.GLOBAL_THREAD_POOL.getMaxThreads()));
     }
 
     /**
@@ -414,18 +576,34 @@ public void setSortInMemory(final boolean sortInMemory) {
      */
     DataTable sortInternal(final ExecutionMonitor exec) throws CanceledExecutionException {
         DataTable result;
-        if (m_sortInMemory && (m_rowsInInputTable <= Integer.MAX_VALUE)) {
-            result = sortInMemory(exec);
-        } else {
-            if (m_rowsInInputTable > Integer.MAX_VALUE) {
-                LOGGER.info("Not sorting table in memory, because it has more than " + Integer.MAX_VALUE + " rows.");
+        m_pool = m_parallelism > 1 ? KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(m_parallelism) : null;
+        try {
+            if (m_sortInMemory && (m_rowsInInputTable <= Integer.MAX_VALUE)) {
+                result = sortInMemory(exec);
+            } else {
+                if (m_rowsInInputTable > Integer.MAX_VALUE) {
+                    LOGGER.info(
+                        "Not sorting table in memory, because it has more than " + Integer.MAX_VALUE + " rows.");
+                }
+                result = sortOnDisk(exec);
             }
-            result = sortOnDisk(exec);
+        } finally {
+            // stops reading ahead if sorting failed or was canceled
+            closePrefetchingIterators();
+            m_pool = null;
         }
         exec.setProgress(1.0);
         return result;
     }
 
+    /** Closes the prefetching merge inputs, stopping to read ahead. */
+    private void closePrefetchingIterators() {
+        for (PrefetchingIterator it : m_prefetchingIterators) {
+            it.close();
+        }
+        m_prefetchingIterators.clear();
+    }
+
     private DataTable sortInMemory(final ExecutionMonitor exec) throws CanceledExecutionException {
         final DataTable dataTable = m_inputTable;
         List<DataRow> rowList = new ArrayList<DataRow>();
@@ -451,7 +629,7 @@ private DataTable sortInMemory(final ExecutionMonitor exec) throws CanceledExecu
         }
 
         exec.setMessage("Sorting");
-        Collections.sort(rowList, m_rowComparator);
+        sortRows(rowList);
 
         exec.setMessage("Creating sorted table");
 
@@ -501,7 +679,8 @@ private DataTable sortOnDisk(final ExecutionMonitor exec) throws CanceledExecuti
 
         m_progress = 0.0;
         m_incProgress = m_rowsInInputTable <= 0 ? -1.0 : 1.0 / (2.0 * m_rowsInInputTable);
-        long counter = createInitialChunks(exec, dataTable);
+        long counter = m_parallelism > 1 ? createInitialChunksParallel(exec, dataTable)
+            : createInitialChunks(exec, dataTable);
         // no or one row only in input table, can exit immediately
         // (can't rely on global rowCount - might not be set)
         if (counter <= 1) {
@@ -524,6 +703,19 @@ private DataTable sortOnDisk(final ExecutionMonitor exec) throws CanceledExecuti
         return resultContainer.getTable();
     }
 
+    /**
+     * @return the number of containers merged at once, see {@link #setMaxOpenContainers(int)}
+     */
+    private int getEffectiveMaxOpenContainers() {
+        if (m_parallelism <= 1 || m_isMaxOpenContainersSet) {
+            return m_maxOpenContainers;
+        }
+        final long freeMemory = MemoryAlertSystem.getMaximumMemory() - MemoryAlertSystem.getUsedMemory();
+        // only use half the free memory for read-ahead buffers
+        final long maxOpenContainers = freeMemory / 2 / MEMORY_PER_OPENCONTAINER;
+        return (int)Math.max(m_maxOpenContainers, Math.min(maxOpenContainers, MAX_AUTO_OPENCONTAINER));
+    }
+
     /**
      * @param exec execution context
      * @param mergeCompletely if <code>true</code> the chunks are merged until only one chunk is left, otherwise the
@@ -533,24 +725,26 @@ private DataTable sortOnDisk(final ExecutionMonitor exec) throws CanceledExecuti
      */
     Iterator<DataRow> mergeChunks(final ExecutionMonitor exec, final boolean mergeCompletely)
         throws CanceledExecutionException {
+        final int maxOpenContainers = getEffectiveMaxOpenContainers();
         while (!m_chunksContainer.isEmpty()) {
             exec.setMessage("Merging temporary tables, " + m_chunksContainer.size() + " remaining");
-            if (m_chunksContainer.size() < m_maxOpenContainers) {
+            if (m_chunksContainer.size() < maxOpenContainers) {
                 if (m_rowsInInputTable > 0) {
                     m_incProgress = (1.0 - m_progress) / m_rowsInInputTable;
                 }
             } else {
                 if (m_rowsInInputTable > 0) {
                     double estimatedReads =
-                        Math.ceil(m_chunksContainer.size() / (double)m_maxOpenContainers) * m_rowsInInputTable;
+                        Math.ceil(m_chunksContainer.size() / (double)maxOpenContainers) * m_rowsInInputTable;
                     m_incProgress = (1.0 - m_progress) / estimatedReads;
                 }
             }
 
             Queue<MergeEntry> containersToMerge = new ArrayDeque<>();
 
-            for (int i = 0; !m_chunksContainer.isEmpty() && i < m_maxOpenContainers; i++) {
-                containersToMerge.add(new MergeEntry(m_chunksContainer.poll(), i, m_rowComparator));
+            for (int i = 0; !m_chunksContainer.isEmpty() && i < maxOpenContainers; i++) {
+                containersToMerge.add(
+                    new MergeEntry(m_chunksContainer.poll(), i, m_rowComparator, getActiveKeyEncoder()));
             }
 
             MergingIterator mergingIterator = new MergingIterator(containersToMerge);
@@ -611,7 +805,7 @@ private long createInitialChunks(final ExecutionMonitor exec, final DataTable da
                 }
                 exec.setMessage("Sorting temporary buffer");
                 // sort buffer
-                Collections.sort(buffer, m_rowComparator);
+                sortRows(buffer);
                 // write buffer to disk
                 openChunk();
                 final int totalBufferSize = buffer.size();
@@ -638,13 +832,125 @@ private long createInitialChunks(final ExecutionMonitor exec, final DataTable da
         // Add buffer to the chunks
         if (!buffer.isEmpty()) {
             // sort buffer
-            Collections.sort(buffer, m_rowComparator);
+            sortRows(buffer);
             m_chunksContainer.add(buffer);
         }
         outerCounter = counter;
         return outerCounter;
     }
 
+    /**
+     * Parallel version of {@link #createInitialChunks(ExecutionMonitor, DataTable)}: the table is cut into chunks of
+     * {@link #getParallelChunkSize()} rows (or earlier if memory gets low), which are sorted and written in the pool
+     * while the table is read on. At most {@link #m_parallelism} chunks are pending at a time, only if memory gets low
+     * all of them are waited for. The chunk containers are created and closed in this thread (in the order of the
+     * chunks, keeping the sort stable), only adding rows happens concurrently.
+     */
+    private long createInitialChunksParallel(final ExecutionMonitor exec, final DataTable dataTable)
+        throws CanceledExecutionException {
+        final int chunkSize = getParallelChunkSize();
+        long counter = 0;
+        ArrayList<DataRow> buffer = new ArrayList<DataRow>();
+        long chunkStartRow = 0;
+        int rowsInCurrentChunk = 0;
+        final ArrayDeque<Future<DataContainer>> pendingChunks = new ArrayDeque<>();
+
+        MemoryActionIndicator memObservable = m_memService.newIndicator();
+
+        exec.setMessage("Reading table");
+        try {
+            for (Iterator<DataRow> iter = dataTable.iterator(); iter.hasNext();) {
+                counter++;
+                rowsInCurrentChunk++;
+                exec.checkCanceled();
+                String message = "Reading table, " + counter + " rows read";
+                if (m_rowsInInputTable > 0) {
+                    m_progress += m_incProgress;
+                    exec.setProgress(m_progress, message);
+                } else {
+                    exec.setMessage(message);
+                }
+                buffer.add(iter.next());
+                final boolean isLowMemory = memObservable.lowMemoryActionRequired();
+                if ((isLowMemory && (rowsInCurrentChunk >= m_maxOpenContainers))
+                    || rowsInCurrentChunk >= chunkSize) {
+                    LOGGER.debug("Submitting chunk [" + chunkStartRow + ":" + counter + "] - mem usage: "
+                        + getMemUsage());
+                    if (pendingChunks.size() >= m_parallelism) {
+                        closeParallelChunk(pendingChunks.poll());
+                    }
+                    final ArrayList<DataRow> chunk = buffer;
+                    final DataContainer container = createDataContainer(m_dataTableSpec, true);
+                    container.setMaxPossibleValues(0);
+                    pendingChunks.add(m_pool.enqueue(ThreadUtils.callableWithContext(() -> {
+                        sortRows(chunk);
+                        final int totalBufferSize = chunk.size();
+                        for (int i = 0; i < totalBufferSize; i++) {
+                            // free rows as early as possible
+                            container.addRowToTable(chunk.set(i, null));
+                        }
+                        return container;
+                    }, false)));
+                    if (isLowMemory) {
+                        // memory is only released when pending chunks are written
+                        while (!pendingChunks.isEmpty()) {
+                            closeParallelChunk(pendingChunks.poll());
+                        }
+                    }
+                    buffer = new ArrayList<DataRow>();
+                    chunkStartRow = counter + 1;
+                    rowsInCurrentChunk = 0;
+                }
+            }
+            while (!pendingChunks.isEmpty()) {
+                closeParallelChunk(pendingChunks.poll());
+            }
+        } finally {
+            for (Future<DataContainer> f : pendingChunks) {
+                f.cancel(true);
+            }
+        }
+        // Add buffer to the chunks
+        if (!buffer.isEmpty()) {
+            // sort buffer
+            sortRows(buffer);
+            m_chunksContainer.add(buffer);
+        }
+        return counter;
+    }
+
+    /**
+     * @return the number of rows of a chunk in parallel mode: the chunks in memory (one being read and the pending
+     *         ones) use at most about a quarter of the heap, estimated by the number of cells
+     */
+    private int getParallelChunkSize() {
+        final long budget = MemoryAlertSystem.getMaximumMemory() / 4 / (m_parallelism + 1);
+        final long rows = budget / ESTIMATED_CELL_SIZE / Math.max(1, m_dataTableSpec.getNumColumns());
+        return (int)Math.min(m_maxRowsPerChunk, Math.max(MIN_PARALLEL_CHUNK_ROWS, rows));
+    }
+
+    /** Waits for a chunk submitted in {@link #createInitialChunksParallel(ExecutionMonitor, DataTable)}, closes
+     * its container and adds it to the chunk list. */
+    private void closeParallelChunk(final Future<DataContainer> chunk) throws CanceledExecutionException {
+        DataContainer container;
+        try {
+            container = chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CanceledExecutionException("Interrupted while sorting temporary buffer");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new RuntimeException("Unable to write temporary table: " + cause.getMessage(), cause);
+        }
+        container.close();
+        m_chunksContainer.offer(container.getTable());
+    }
+
     /**
      * Opens a chunk data container to accept rows using {@link #addRowToChunk(DataRow)}, {@link #closeChunk()} closes
      * the current container and adds it to the chunk list.
@@ -696,6 +1002,11 @@ private String getMemUsage() {
     private final class MergeEntry implements Comparable<MergeEntry>, Iterator<DataRow> {
         private DataRow m_row;
 
+        /** Key of m_row if m_keyEncoder is set. */
+        private byte[] m_key;
+
+        private final NormalizedKeyEncoder m_keyEncoder;
+
         private Iterable<DataRow> m_iterable;
 
         private Iterator<DataRow> m_iterator;
@@ -708,18 +1019,32 @@ private final class MergeEntry implements Comparable<MergeEntry>, Iterator<DataR
          * @param iterator
          * @param index
          * @param comparator
+         * @param keyEncoder encoder of normalized keys, used instead of the comparator if not null
          */
-        MergeEntry(final Iterable<DataRow> iterable, final int index, final Comparator<DataRow> comparator) {
+        MergeEntry(final Iterable<DataRow> iterable, final int index, final Comparator<DataRow> comparator,
+            final NormalizedKeyEncoder keyEncoder) {
             m_iterable = iterable;
             m_index = index;
             m_comparator = comparator;
+            m_keyEncoder = keyEncoder;
+        }
+
+        private void setRow(final DataRow row) {
+            m_row = row;
+            m_key = row != null && m_keyEncoder != null ? m_keyEncoder.encode(row) : null;
         }
 
         private void open() {
             if (m_iterator == null) {
-                m_iterator = m_iterable.iterator();
+                if (m_pool != null && m_iterable instanceof DataTable) {
+                    PrefetchingIterator prefetchingIterator = new PrefetchingIterator(m_iterable, m_pool);
+                    m_prefetchingIterators.add(prefetchingIterator);
+                    m_iterator = prefetchingIterator;
+                } else {
+                    m_iterator = m_iterable.iterator();
+                }
                 if (m_iterator.hasNext()) {
-                    m_row = m_iterator.next();
+                    setRow(m_iterator.next());
                 }
             }
         }
@@ -749,7 +1074,7 @@ public DataRow next() {
                 throw new NoSuchElementException();
             }
             DataRow toReturn = m_row;
-            m_row = m_iterator.hasNext() ? m_iterator.next() : null;
+            setRow(m_iterator.hasNext() ? m_iterator.next() : null);
             return toReturn;
         }
 
@@ -766,7 +1091,8 @@ public void remove() {
          */
         @Override
         public int compareTo(final MergeEntry that) {
-            int value = m_comparator.compare(this.m_row, that.m_row);
+            int value = m_keyEncoder != null ? NormalizedKeyEncoder.compare(this.m_key, that.m_key)
+                : m_comparator.compare(this.m_row, that.m_row);
             if (value == 0) {
                 return this.m_index - that.m_index;
             } else {
@@ -805,6 +1131,106 @@ public boolean equals(final Object obj) {
         }
     }
 
+    /**
+     * Iterator on a chunk that reads ahead in the thread pool, used in the merge phase in parallel mode so that reading
+     * (and decompressing) chunks overlaps with merging. The next batch of rows is read by a pool task while the
+     * current one is consumed; the tasks don't block, waiting for a batch that isn't read yet runs the task in the
+     * waiting thread if possible (see {@link ThreadPool}).
+     */
+    private static final class PrefetchingIterator implements Iterator<DataRow> {
+
+        private final Iterator<DataRow> m_iterator;
+
+        private final ThreadPool m_pool;
+
+        private boolean m_isClosed;
+
+        private Future<List<DataRow>> m_nextBatch;
+
+        private List<DataRow> m_batch = Collections.emptyList();
+
+        private int m_batchIndex;
+
+        private boolean m_isEnd;
+
+        PrefetchingIterator(final Iterable<DataRow> iterable, final ThreadPool pool) {
+            m_iterator = iterable.iterator();
+            m_pool = pool;
+            submitBatch();
+        }
+
+        private void submitBatch() {
+            m_nextBatch = m_pool.enqueue(ThreadUtils.callableWithContext(this::readBatch, false));
+        }
+
+        /** Reads the next batch in a pool thread, empty at the end (or if closed). */
+        private synchronized List<DataRow> readBatch() {
+            final List<DataRow> batch = new ArrayList<>(PREFETCH_BATCH_SIZE);
+            while (!m_isClosed && batch.size() < PREFETCH_BATCH_SIZE && m_iterator.hasNext()) {
+                batch.add(m_iterator.next());
+            }
+            return batch;
+        }
+
+        /** Stops reading ahead and closes the underlying iterator, the iterator must not be used afterwards. */
+        synchronized void close() {
+            if (!m_isClosed) {
+                m_isClosed = true;
+                m_nextBatch.cancel(false);
+                if (m_iterator instanceof CloseableRowIterator) {
+                    ((CloseableRowIterator)m_iterator).close();
+                }
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            while (m_batchIndex == m_batch.size()) {
+                if (m_isEnd) {
+                    return false;
+                }
+                try {
+                    m_batch = m_nextBatch.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while reading temporary table", e);
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException)cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error)cause;
+                    }
+                    throw new IllegalStateException("Unable to read temporary table: " + cause.getMessage(), cause);
+                }
+                m_batchIndex = 0;
+                if (m_batch.isEmpty()) {
+                    m_isEnd = true;
+                    close();
+                } else {
+                    submitBatch();
+                }
+            }
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public DataRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return m_batch.get(m_batchIndex++);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     /**
      * Lazily opens the given MergeEntry's (The runs of this merging step) and returns the rows.
      *
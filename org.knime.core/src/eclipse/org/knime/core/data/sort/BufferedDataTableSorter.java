@@ -70,6 +70,11 @@
  * varies set-methods (defaults are generally fine) and finally call the {@link #sort(ExecutionContext)} method.
  *
  * <p>
+ * Other than the {@link DataTableSorter}, this sorter sorts in parallel by default (see
+ * {@link #setParallelism(int)}), using as many threads as the global thread pool has (at most the number of
+ * processors).
+ *
+ * <p>
  * For details on the sorting mechanism see the <a href="package.html"> package description</a>.
  *
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
@@ -91,6 +96,7 @@ public class BufferedDataTableSorter extends AbstractTableSorter {
     public BufferedDataTableSorter(final BufferedDataTable inputTable, final Collection<String> inclList,
         final boolean[] sortAscending) {
         super(inputTable, inputTable.size(), inclList, sortAscending);
+        setParallelism(getDefaultParallelism());
     }
 
     /**
@@ -107,6 +113,7 @@ public BufferedDataTableSorter(final BufferedDataTable inputTable, final Collect
     public BufferedDataTableSorter(final BufferedDataTable inputTable, final Collection<String> inclList,
         final boolean[] sortAscending, final boolean sortMissingsToEnd) {
         super(inputTable, inputTable.size(), inclList, sortAscending, sortMissingsToEnd);
+        setParallelism(getDefaultParallelism());
     }
 
     /**
@@ -117,6 +124,7 @@ public BufferedDataTableSorter(final BufferedDataTable inputTable, final Collect
      */
     public BufferedDataTableSorter(final BufferedDataTable inputTable, final Comparator<DataRow> rowComparator) {
         super(inputTable, inputTable.size(), rowComparator);
+        setParallelism(getDefaultParallelism());
     }
 
     /**
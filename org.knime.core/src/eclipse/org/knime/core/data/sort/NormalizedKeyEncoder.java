@@ -0,0 +1,289 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.data.sort;
+
+import java.util.Arrays;
+
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DataValueComparator;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.DoubleValueComparator;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.IntValueComparator;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.LongValueComparator;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.StringValueComparator;
+import org.knime.core.data.def.BooleanCell;
+
+/**
+ * Encodes the sort columns of a row into a byte array whose unsigned lexicographic order (see
+ * {@link #compare(byte[], byte[])}) is the order defined by the sorter's row comparator. Comparing such keys
+ * avoids the cell access, unwrapping and comparator dispatch per comparison.
+ *
+ * <p>Only available if all sort columns are of a type with a known comparator (int, long, double, string and
+ * boolean columns and the row key); the encoding is exact, i.e. two keys are equal if and only if the comparator
+ * considers the rows equal. Each column is encoded as a presence byte (distinguishing missing cells) followed by
+ * the order preserving encoding of the value; descending columns are encoded with all bits inverted. Instances are
+ * immutable and can be used concurrently.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class NormalizedKeyEncoder {
+
+    private enum ColumnEncoding {
+        Int, Long, Double, String, Boolean
+    }
+
+    /** Column indices, -1 for the row key. */
+    private final int[] m_indices;
+
+    private final ColumnEncoding[] m_encodings;
+
+    private final boolean[] m_sortAscending;
+
+    private final boolean m_sortMissingsToEnd;
+
+    private NormalizedKeyEncoder(final int[] indices, final ColumnEncoding[] encodings,
+        final boolean[] sortAscending, final boolean sortMissingsToEnd) {
+        m_indices = indices;
+        m_encodings = encodings;
+        m_sortAscending = sortAscending;
+        m_sortMissingsToEnd = sortMissingsToEnd;
+    }
+
+    /**
+     * Creates the encoder for the sort order as defined by the sorter's row comparator.
+     *
+     * @param indices sort column indices, -1 for the row key
+     * @param sortAscending sort order per column
+     * @param sortMissingsToEnd whether missing values are sorted to the end independent of the sort order
+     * @param spec the spec of the table to sort
+     * @return the encoder or <code>null</code> if any of the sort columns can't be encoded
+     */
+    static NormalizedKeyEncoder create(final int[] indices, final boolean[] sortAscending,
+        final boolean sortMissingsToEnd, final DataTableSpec spec) {
+        ColumnEncoding[] encodings = new ColumnEncoding[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] == -1) {
+                encodings[i] = ColumnEncoding.String;
+                continue;
+            }
+            DataType type = spec.getColumnSpec(indices[i]).getType();
+            if (BooleanCell.TYPE.equals(type)) {
+                encodings[i] = ColumnEncoding.Boolean;
+                continue;
+            }
+            // the exact classes (not subclasses) as the encoding must reproduce the comparison
+            Class<? extends DataValueComparator> comparatorClass = type.getComparator().getClass();
+            if (comparatorClass == IntValueComparator.class) {
+                encodings[i] = ColumnEncoding.Int;
+            } else if (comparatorClass == LongValueComparator.class) {
+                encodings[i] = ColumnEncoding.Long;
+            } else if (comparatorClass == DoubleValueComparator.class) {
+                encodings[i] = ColumnEncoding.Double;
+            } else if (comparatorClass == StringValueComparator.class) {
+                encodings[i] = ColumnEncoding.String;
+            } else {
+                return null;
+            }
+        }
+        return new NormalizedKeyEncoder(indices, encodings, sortAscending, sortMissingsToEnd);
+    }
+
+    /**
+     * @param row the row to encode
+     * @return the key of the row
+     */
+    byte[] encode(final DataRow row) {
+        KeyBuilder key = new KeyBuilder();
+        for (int i = 0; i < m_indices.length; i++) {
+            final int start = key.m_length;
+            final int invertFrom;
+            if (m_indices[i] == -1) {
+                invertFrom = start;
+                key.writeString(row.getKey().getString());
+            } else {
+                DataCell cell = row.getCell(m_indices[i]);
+                if (cell.isMissing()) {
+                    // with 'missings to end' the presence byte is not inverted for descending order
+                    key.write(m_sortMissingsToEnd ? 1 : 0);
+                } else {
+                    key.write(m_sortMissingsToEnd ? 0 : 1);
+                    writeValue(key, m_encodings[i], cell);
+                }
+                invertFrom = m_sortMissingsToEnd ? start + 1 : start;
+            }
+            if (!m_sortAscending[i]) {
+                key.invert(invertFrom);
+            }
+        }
+        return key.toByteArray();
+    }
+
+    private static void writeValue(final KeyBuilder key, final ColumnEncoding encoding, final DataCell cell) {
+        switch (encoding) {
+            case Int:
+                key.writeInt(((IntValue)cell).getIntValue() ^ Integer.MIN_VALUE);
+                break;
+            case Long:
+                key.writeLong(((LongValue)cell).getLongValue() ^ Long.MIN_VALUE);
+                break;
+            case Double:
+                // same order as Double#compare: -0.0 < 0.0, NaN is largest
+                long bits = Double.doubleToLongBits(((DoubleValue)cell).getDoubleValue());
+                key.writeLong(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
+                break;
+            case String:
+                key.writeString(((StringValue)cell).getStringValue());
+                break;
+            case Boolean:
+                key.write(((BooleanValue)cell).getBooleanValue() ? 1 : 0);
+                break;
+            default:
+                throw new IllegalStateException("Unsupported encoding: " + encoding);
+        }
+    }
+
+    /**
+     * Compares two keys as unsigned bytes.
+     *
+     * @param k1 first key
+     * @param k2 second key
+     * @return the comparison result
+     */
+    static int compare(final byte[] k1, final byte[] k2) {
+        final int length = Math.min(k1.length, k2.length);
+        for (int i = 0; i < length; i++) {
+            if (k1[i] != k2[i]) {
+                return (k1[i] & 0xFF) - (k2[i] & 0xFF);
+            }
+        }
+        return k1.length - k2.length;
+    }
+
+    /** Growable byte array. */
+    private static final class KeyBuilder {
+
+        private byte[] m_bytes = new byte[32];
+
+        private int m_length;
+
+        private void ensureCapacity(final int additional) {
+            if (m_length + additional > m_bytes.length) {
+                m_bytes = Arrays.copyOf(m_bytes, Math.max(2 * m_bytes.length, m_length + additional));
+            }
+        }
+
+        void write(final int b) {
+            ensureCapacity(1);
+            m_bytes[m_length++] = (byte)b;
+        }
+
+        void writeInt(final int v) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                m_bytes[m_length++] = (byte)(v >>> shift);
+            }
+        }
+
+        void writeLong(final long v) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                m_bytes[m_length++] = (byte)(v >>> shift);
+            }
+        }
+
+        /**
+         * Writes the string in the order of {@link String#compareTo(String)}: each char c is written as c + 1 in
+         * UTF-8 encoding (no 0 bytes, order preserving), followed by a 0 terminator (making the encoding prefix free).
+         */
+        void writeString(final String s) {
+            final int length = s.length();
+            ensureCapacity(length + 1);
+            for (int i = 0; i < length; i++) {
+                final int v = s.charAt(i) + 1;
+                if (v < 0x80) {
+                    m_bytes[m_length++] = (byte)v;
+                } else if (v < 0x800) {
+                    ensureCapacity(2);
+                    m_bytes[m_length++] = (byte)(0xC0 | (v >> 6));
+                    m_bytes[m_length++] = (byte)(0x80 | (v & 0x3F));
+                } else if (v < 0x10000) {
+                    ensureCapacity(3);
+                    m_bytes[m_length++] = (byte)(0xE0 | (v >> 12));
+                    m_bytes[m_length++] = (byte)(0x80 | ((v >> 6) & 0x3F));
+                    m_bytes[m_length++] = (byte)(0x80 | (v & 0x3F));
+                } else {
+                    ensureCapacity(4);
+                    m_bytes[m_length++] = (byte)(0xF0 | (v >> 18));
+                    m_bytes[m_length++] = (byte)(0x80 | ((v >> 12) & 0x3F));
+                    m_bytes[m_length++] = (byte)(0x80 | ((v >> 6) & 0x3F));
+                    m_bytes[m_length++] = (byte)(0x80 | (v & 0x3F));
+                }
+            }
+            write(0);
+        }
+
+        /** Inverts all bytes from the argument position to the end. */
+        void invert(final int from) {
+            for (int i = from; i < m_length; i++) {
+                m_bytes[i] = (byte)~m_bytes[i];
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(m_bytes, m_length);
+        }
+    }
+
+}
@@ -59,6 +59,7 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -1159,9 +1160,52 @@ public IFileStoreHandler getFileStoreHandler() {
      * @since 2.9
      */
     public static void save(final NativeNodeContainer nnc, final NodeSettingsWO settings,
+        final ExecutionMonitor execMon, final ReferencedFile nodeDirRef,
+        final boolean isSaveData) throws IOException, CanceledExecutionException {
+        writeData(prepareSave(nnc, settings, execMon, nodeDirRef, isSaveData));
+    }
+
+    /**
+     * Saves the node like {@link #save(NativeNodeContainer, NodeSettingsWO, ExecutionMonitor, ReferencedFile,
+     * boolean)} but leaves the writing of the node's data (output tables, port objects, internally held objects and
+     * file stores) to the returned task. The settings and the internals are saved in the calling thread as they may
+     * access the node and its workflow. The task only writes into the node directory, it can run in another thread
+     * while the calling thread keeps the workflow locked. The settings are complete when this method returns, the
+     * node directory only once the task has completed.
+     *
+     * @param nnc ...
+     * @param settings ...
+     * @param execMon Used to report progress during saving.
+     * @param nodeDirRef Directory associated with node - will create internals folder in it
+     * @param isSaveData  ...
+     * @return the task writing the data of the node, to be called exactly once
+     * @throws IOException If the node file can't be found or read.
+     * @throws CanceledExecutionException If the saving has been canceled.
+     * @since 3.8
+     * @noreference This method is not intended to be referenced by clients.
+     */
+    public static Callable<Void> saveDeferringData(final NativeNodeContainer nnc, final NodeSettingsWO settings,
+        final ExecutionMonitor execMon, final ReferencedFile nodeDirRef,
+        final boolean isSaveData) throws IOException, CanceledExecutionException {
+        final List<DataWriter> writers = prepareSave(nnc, settings, execMon, nodeDirRef, isSaveData);
+        return () -> {
+            NodeContext.pushContext(nnc);
+            try {
+                writeData(writers);
+            } finally {
+                NodeContext.removeLastContext();
+            }
+            return null;
+        };
+    }
+
+    /** Saves the settings and the internals of the node and collects the writers of its data, in the order in which
+     * they need to be run. */
+    private static List<DataWriter> prepareSave(final NativeNodeContainer nnc, final NodeSettingsWO settings,
         final ExecutionMonitor execMon, final ReferencedFile nodeDirRef,
         final boolean isSaveData) throws IOException, CanceledExecutionException {
         final Node node = nnc.getNode();
+        final List<DataWriter> writers = new ArrayList<DataWriter>();
 
         saveCustomName(node, settings);
         saveHasContent(node, settings);
@@ -1197,22 +1241,36 @@ public static void save(final NativeNodeContainer nnc, final NodeSettingsWO sett
          * as "internal" held table. See bug 2117. */
         final Set<Integer> savedTableIDs = new HashSet<Integer>();
         execMon.setMessage("Ports");
-        savePorts(node, nodeDirRef, settings, savedTableIDs, portMon, isSaveData);
-        portMon.setProgress(1.0);
-        execMon.setMessage("Internal Tables");
-        saveInternalHeldTables(node, nodeDirRef, settings, savedTableIDs, internalMon, isSaveData);
-        intTblsMon.setProgress(1.0);
+        savePorts(node, nodeDirRef, settings, savedTableIDs, portMon, isSaveData, writers);
+        writers.add(() -> portMon.setProgress(1.0));
+        saveInternalHeldTables(node, nodeDirRef, settings, savedTableIDs, internalMon, isSaveData, writers);
+        writers.add(() -> intTblsMon.setProgress(1.0));
         // save them last as now all tables have been saved (all cells ran through persistor) and all
         // FileStore#getFile() have been called and saved
-        execMon.setMessage("File Store Objects");
-        saveFileStoreObjects(node, nodeDirRef, settings, fileStoreMon, isSaveData);
-        fileStoreMon.setProgress(1.0);
-        execMon.setProgress(1.0);
+        saveFileStoreObjects(node, nodeDirRef, settings, fileStoreMon, isSaveData, writers);
+        writers.add(() -> {
+            fileStoreMon.setProgress(1.0);
+            execMon.setProgress(1.0);
+        });
+        return writers;
+    }
+
+    private static void writeData(final List<DataWriter> writers) throws IOException, CanceledExecutionException {
+        for (DataWriter writer : writers) {
+            writer.write();
+        }
+    }
+
+    /** Writes (part of) the data of a node, see {@link #prepareSave(NativeNodeContainer, NodeSettingsWO,
+     * ExecutionMonitor, ReferencedFile, boolean)}. */
+    @FunctionalInterface
+    private interface DataWriter {
+        void write() throws IOException, CanceledExecutionException;
     }
 
     private static void savePorts(final Node node, final ReferencedFile nodeDirRef, final NodeSettingsWO settings,
-        final Set<Integer> savedTableIDs, final ExecutionMonitor exec, final boolean saveData) throws IOException,
-        CanceledExecutionException {
+        final Set<Integer> savedTableIDs, final ExecutionMonitor exec, final boolean saveData,
+        final List<DataWriter> writers) throws IOException {
         if (node.getNrOutPorts() == 0) {
             return;
         }
@@ -1243,18 +1301,18 @@ private static void savePorts(final Node node, final ReferencedFile nodeDirRef,
                 if (!portDir.canWrite()) {
                     throw new IOException("Cannot write to port directory " + portDir.getAbsolutePath());
                 }
-                savePort(node, portDir, singlePortSetting, savedTableIDs, subProgress, i, saveData);
+                savePort(node, portDir, singlePortSetting, savedTableIDs, subProgress, i, saveData, writers);
             } else {
                 portDirName = null;
             }
             singlePortSetting.addString("port_dir_location", portDirName);
-            subProgress.setProgress(1.0);
+            writers.add(() -> subProgress.setProgress(1.0));
         }
     }
 
     private static void saveInternalHeldTables(final Node node, final ReferencedFile nodeDirRef,
         final NodeSettingsWO settings, final Set<Integer> savedTableIDs, final ExecutionMonitor exec,
-        final boolean saveData) throws IOException, CanceledExecutionException {
+        final boolean saveData, final List<DataWriter> writers) throws IOException {
         PortObject[] internalObjects = node.getInternalHeldPortObjects();
         if (internalObjects == null || !saveData) {
             return;
@@ -1281,7 +1339,8 @@ private static void saveInternalHeldTables(final Node node, final ReferencedFile
                 singlePortSetting.addString("type", "null");
             } else if (t instanceof BufferedDataTable) {
                 BufferedDataTable table = (BufferedDataTable)t;
-                saveBufferedDataTable(table, savedTableIDs, createDirectory(portDir), exec);
+                File tableDir = createDirectory(portDir);
+                writers.add(() -> saveBufferedDataTable(table, savedTableIDs, tableDir, exec));
                 singlePortSetting.addString("type", "table");
                 singlePortSetting.addString("table_dir_location", objName);
             } else {
@@ -1294,10 +1353,10 @@ private static void saveInternalHeldTables(final Node node, final ReferencedFile
                 } else {
                     singlePortSetting.addString("type", "non-table");
                     singlePortSetting.addString("port_dir_location", objName);
-                    savePortObject(t.getSpec(), t, createDirectory(portDir), singlePortSetting, exec);
+                    savePortObject(t.getSpec(), t, createDirectory(portDir), singlePortSetting, exec, writers);
                 }
             }
-            subProgress.setProgress(1.0);
+            writers.add(() -> subProgress.setProgress(1.0));
         }
     }
 
@@ -1319,8 +1378,8 @@ private static File createDirectory(final File portDir) throws IOException {
     }
 
     private static void savePort(final Node node, final File portDir, final NodeSettingsWO settings,
-        final Set<Integer> savedTableIDs, final ExecutionMonitor exec, final int portIdx, final boolean saveData)
-        throws IOException, CanceledExecutionException {
+        final Set<Integer> savedTableIDs, final ExecutionMonitor exec, final int portIdx, final boolean saveData,
+        final List<DataWriter> writers) throws IOException {
         PortObjectSpec spec = node.getOutputSpec(portIdx);
         PortObject object = node.getOutputObject(portIdx);
         String summary = node.getOutputObjectSummary(portIdx);
@@ -1339,21 +1398,20 @@ private static void savePort(final Node node, final File portDir, final NodeSett
                 + object.getClass().getSimpleName();
             // executed and instructed to save data
             if (saveData && object != null) {
-                saveBufferedDataTable((BufferedDataTable)object, savedTableIDs, portDir, exec);
+                writers.add(() -> saveBufferedDataTable((BufferedDataTable)object, savedTableIDs, portDir, exec));
             }
         } else {
             if (isSaveObject) {
-                exec.setMessage("Saving object");
                 assert spec != null : "Spec is null but port object is non-null (port " + portIdx + " of node "
                         + node.getName() + ")";
-                savePortObject(spec, object, portDir, settings, exec);
+                savePortObject(spec, object, portDir, settings, exec, writers);
             }
         }
     }
 
     private static void savePortObject(final PortObjectSpec spec, final PortObject object,
-        final File portDir, final NodeSettingsWO settings, final ExecutionMonitor exec)
-                throws IOException, FileNotFoundException, CanceledExecutionException {
+        final File portDir, final NodeSettingsWO settings, final ExecutionMonitor exec,
+        final List<DataWriter> writers) throws IOException {
         settings.addString("port_spec_class", spec.getClass().getName());
         settings.addString("port_object_class", object.getClass().getName());
         String specDirName = "spec";
@@ -1363,12 +1421,6 @@ private static void savePortObject(final PortObjectSpec spec, final PortObject o
 
         File specFile = new File(specDir, specFileName);
         settings.addString("port_spec_location", specPath);
-        try (PortObjectSpecZipOutputStream out = PortUtil.getPortObjectSpecZipOutputStream(
-            new BufferedOutputStream(new FileOutputStream(specFile)))) {
-            PortObjectSpecSerializer serializer =
-                    PortTypeRegistry.getInstance().getSpecSerializer(spec.getClass()).get();
-            serializer.savePortObjectSpec(spec, out);
-        }
 
         String objectDirName = null;
         objectDirName = "object";
@@ -1379,6 +1431,22 @@ private static void savePortObject(final PortObjectSpec spec, final PortObject o
         objectPath = objectDirName + "/" + objectFileName;
         settings.addString("port_object_location", objectPath);
         File file = new File(objectDir, objectFileName);
+        writers.add(() -> {
+            exec.setMessage("Saving object");
+            savePortObject(spec, object, specFile, objectDir, file, exec);
+        });
+    }
+
+    private static void savePortObject(final PortObjectSpec spec, final PortObject object, final File specFile,
+        final File objectDir, final File file, final ExecutionMonitor exec)
+                throws IOException, FileNotFoundException, CanceledExecutionException {
+        try (PortObjectSpecZipOutputStream out = PortUtil.getPortObjectSpecZipOutputStream(
+            new BufferedOutputStream(new FileOutputStream(specFile)))) {
+            PortObjectSpecSerializer serializer =
+                    PortTypeRegistry.getInstance().getSpecSerializer(spec.getClass()).get();
+            serializer.savePortObjectSpec(spec, out);
+        }
+
         try (PortObjectZipOutputStream out =
             PortUtil.getPortObjectZipOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
             PortObjectSerializer serializer =
@@ -1406,10 +1474,11 @@ private static void savePortObject(final PortObjectSpec spec, final PortObject o
      * @param settings
      * @param fileStoreMon
      * @param isSaveData
-     * @throws IOException
+     * @param writers the copying of the file stores is added to this list
      */
     private static void saveFileStoreObjects(final Node node, final ReferencedFile nodeDirRef,
-        final NodeSettingsWO settings, final ExecutionMonitor fileStoreMon, final boolean isSaveData) throws IOException {
+        final NodeSettingsWO settings, final ExecutionMonitor fileStoreMon, final boolean isSaveData,
+        final List<DataWriter> writers) {
         NodeSettingsWO fsSettings = settings.addNodeSettings("filestores");
         IFileStoreHandler fileStoreHandler = node.getFileStoreHandler();
         String uuidS;
@@ -1420,7 +1489,7 @@ private static void saveFileStoreObjects(final Node node, final ReferencedFile n
             dirNameInFlow = baseDir == null ? null : FILESTORE_FOLDER_PREFIX;
             if (dirNameInFlow != null) {
                 File saveLocation = new File(nodeDirRef.getFile(), dirNameInFlow);
-                FileUtil.copyDir(baseDir, saveLocation);
+                writers.add(() -> FileUtil.copyDir(baseDir, saveLocation));
             }
             uuidS = defFileStoreHandler.getStoreUUID().toString();
         } else {
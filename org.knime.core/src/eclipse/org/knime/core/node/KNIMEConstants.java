@@ -148,6 +148,22 @@ public final class KNIMEConstants {
      */
     public static final String PROPERTY_CELLS_IN_MEMORY = "org.knime.container.cellsinmemory";
 
+    /** Java property name to limit the tables held in main memory (if memory setting is "Keep only small tables in
+     * memory") by their estimated heap size in MB rather than by their cell count. Tables whose rows are estimated to
+     * exceed this size, or to occupy a large share of the remaining free heap, are swapped to disc. If not set (the
+     * default), the cell count threshold ({@link #PROPERTY_CELLS_IN_MEMORY}) applies.
+     * @since 3.8
+     */
+    public static final String PROPERTY_SIZE_IN_MEMORY = "org.knime.container.sizeinmemory";
+
+    /** Java property name to set a budget in MB for the estimated size of all tables held in main memory. If the
+     * budget is exceeded, the least recently used tables are written to disc; they are read back into memory when
+     * accessed again. If not set (the default), tables are only swapped to disc when memory is low.
+     * @since 3.8
+     * @see org.knime.core.data.container.BufferMemoryManager
+     */
+    public static final String PROPERTY_TABLE_MEMORY_BUDGET = "org.knime.container.memorybudget";
+
     /** Java property name to specify the minimum free disc space in MB that needs to be available. If less is
      * available, no further table files &amp; blobs will be created (resulting in an exception). Default is
      * {@value org.knime.core.data.container.DataContainer#DEF_MIN_FREE_DISC_SPACE_IN_TEMP_IN_MB} MB.
@@ -165,6 +181,36 @@ public final class KNIMEConstants {
     public static final String PROPERTY_TABLE_GZIP_COMPRESSION =
         "knime.compress.io";
 
+    /** Java property to select the compression of table streams and blob files, one of "Gzip", "Lz4", "Snappy" or
+     * "None" (case-insensitive). Lz4 and Snappy are considerably faster than Gzip at the cost of larger files. If
+     * set, this property takes precedence over {@link #PROPERTY_TABLE_GZIP_COMPRESSION}. It can be overwritten for
+     * individual nodes or workflows by defining a flow variable "knime_table_compression". Tables record their
+     * compression so that tables written with any setting remain readable. "None" only applies to table streams, blob
+     * files are then gzip'ed (as with {@link #PROPERTY_TABLE_GZIP_COMPRESSION} set to false).
+     * @since 3.8 */
+    public static final String PROPERTY_TABLE_COMPRESSION_CODEC =
+        "knime.compress.io.codec";
+
+    /** Java property to enable/disable reading the settings files of the nodes in a workflow in parallel (using
+     * the global thread pool) when a workflow is loaded. The nodes are still instantiated and loaded one after the
+     * other, in the same order as when reading sequentially. The default is <code>true</code>.
+     * @since 3.8 */
+    public static final String PROPERTY_WORKFLOW_LOAD_PARALLEL = "knime.workflow.load.parallel";
+
+    /** Java property to enable/disable writing the data (output tables, port objects and file stores) of the
+     * (non-metanode) nodes of a workflow in parallel (using the global thread pool) when the workflow is saved. The
+     * settings and internals of the nodes are still saved one after the other by the saving thread, which holds the
+     * workflow lock. The default is <code>true</code>.
+     * @since 3.8 */
+    public static final String PROPERTY_WORKFLOW_SAVE_PARALLEL = "knime.workflow.save.parallel";
+
+    /** Java property to enable/disable memory mapping of uncompressed table files when reading them. Mapped files
+     * are shared by all iterators on a table and read without copying through intermediate buffers. The default is
+     * <code>true</code>, except on Windows where mapped files can't be deleted while still mapped.
+     * @since 3.8 */
+    public static final String PROPERTY_TABLE_MEMORY_MAPPING =
+        "knime.table.mmap";
+
     /** Java property to enable/disable row ID duplicate checks on tables.
      * Tables in KNIME are supposed to have unique IDs, whereby the uniqueness
      * is asserted using a duplicate checker. This property will disable this
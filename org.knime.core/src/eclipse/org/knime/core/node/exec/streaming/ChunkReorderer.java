@@ -0,0 +1,250 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.exec.streaming;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.node.streamable.RowOutput;
+
+/**
+ * Collects the rows produced by the partitions of a distributed node and passes them to the node's outputs in the
+ * order of the input chunks they were produced from. All partitions read from the same input queue; the rows a
+ * partition pushes while processing a chunk are held back until all previous chunks are done. A partition that runs
+ * too far ahead of the oldest unfinished chunk waits (see {@link #awaitTurn(long)}), which limits the number of rows
+ * held in memory.
+ *
+ * <p>Rows pushed outside of a chunk (before reading the first or after reading the last row) are passed on after
+ * all chunks, in the order of the partitions.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ChunkReorderer implements PipelineMonitor.BoundedBuffer {
+
+    private final PipelineMonitor m_monitor;
+
+    /** The outputs of the node, null for ports that are not distributed. */
+    private final RowOutput[] m_outputs;
+
+    private final Partition[] m_partitions;
+
+    /** Only one thread at a time passes rows to the outputs (which may block). */
+    private final ReentrantLock m_emitLock = new ReentrantLock();
+
+    /** Rows of finished chunks that can't be passed on yet, guarded by this. */
+    private final Map<Long, List<DataRow>[]> m_finishedChunks = new HashMap<>();
+
+    private long m_nextIndex;
+
+    private int m_maxPending;
+
+    private int m_waitingCount;
+
+    /**
+     * @param monitor the monitor of the pipeline
+     * @param outputs the row outputs of the node, <code>null</code> for ports that are not distributed
+     * @param partitionCount the number of partitions
+     */
+    ChunkReorderer(final PipelineMonitor monitor, final RowOutput[] outputs, final int partitionCount) {
+        m_monitor = monitor;
+        m_outputs = outputs;
+        m_maxPending = 4 * partitionCount;
+        m_partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            m_partitions[i] = new Partition();
+        }
+        monitor.register(this);
+    }
+
+    /**
+     * @param index the index of the partition
+     * @return the state of the partition, used as listener of its input
+     */
+    Partition getPartition(final int index) {
+        return m_partitions[index];
+    }
+
+    /**
+     * Waits while the argument chunk is too far ahead of the oldest unfinished chunk.
+     *
+     * @param index the index of the chunk a partition is about to process
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private synchronized void awaitTurn(final long index) throws InterruptedException {
+        while (index - m_nextIndex >= m_maxPending) {
+            m_waitingCount++;
+            try {
+                m_monitor.waitOn(this);
+            } finally {
+                m_waitingCount--;
+            }
+        }
+    }
+
+    private void chunkFinished(final long index, final List<DataRow>[] rows) throws InterruptedException {
+        synchronized (this) {
+            m_finishedChunks.put(index, rows);
+        }
+        if (!m_emitLock.tryLock()) {
+            // another partition is passing on rows, it may not see this chunk anymore
+            m_monitor.await(m_emitLock::lockInterruptibly);
+        }
+        try {
+            while (true) {
+                final List<DataRow>[] next;
+                synchronized (this) {
+                    next = m_finishedChunks.remove(m_nextIndex);
+                    if (next == null) {
+                        return;
+                    }
+                    m_nextIndex++;
+                    notifyAll();
+                }
+                emit(next);
+            }
+        } finally {
+            m_emitLock.unlock();
+        }
+    }
+
+    private void emit(final List<DataRow>[] rows) throws InterruptedException {
+        for (int port = 0; port < m_outputs.length; port++) {
+            if (m_outputs[port] != null) {
+                for (DataRow row : rows[port]) {
+                    m_outputs[port].push(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called after all partitions are done, passes on the rows pushed outside of chunks and closes the outputs.
+     *
+     * @throws InterruptedException if interrupted while passing on the rows
+     */
+    void close() throws InterruptedException {
+        for (Partition partition : m_partitions) {
+            emit(partition.m_trailingRows);
+        }
+        for (RowOutput output : m_outputs) {
+            if (output != null) {
+                output.close();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized boolean growIfFull() {
+        if (m_waitingCount > 0) {
+            m_maxPending *= 2;
+            notifyAll();
+            return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DataRow>[] newRowLists() {
+        List<DataRow>[] rows = new List[m_outputs.length];
+        for (int port = 0; port < rows.length; port++) {
+            rows[port] = new ArrayList<>();
+        }
+        return rows;
+    }
+
+    /** The rows of a partition, only accessed by the thread running the partition. */
+    final class Partition implements QueueRowInput.ChunkListener {
+
+        private final List<DataRow>[] m_trailingRows = newRowLists();
+
+        private long m_chunkIndex = -1L;
+
+        private List<DataRow>[] m_chunkRows;
+
+        /** {@inheritDoc} */
+        @Override
+        public void chunkStarted(final long index) throws InterruptedException {
+            awaitTurn(index);
+            m_chunkIndex = index;
+            m_chunkRows = newRowLists();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void chunkFinished() throws InterruptedException {
+            final List<DataRow>[] rows = m_chunkRows;
+            m_chunkRows = null;
+            ChunkReorderer.this.chunkFinished(m_chunkIndex, rows);
+        }
+
+        /**
+         * @param port the output port
+         * @return the output the partition pushes its rows to
+         */
+        RowOutput createOutput(final int port) {
+            return new RowOutput() {
+
+                @Override
+                public void push(final DataRow row) {
+                    (m_chunkRows != null ? m_chunkRows : m_trailingRows)[port].add(row);
+                }
+
+                @Override
+                public void close() {
+                    // the outputs are closed once all partitions are done
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,553 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.exec.streaming;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.BufferedDataTableHolder;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeModelWarningListener;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectHolder;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.port.flowvariable.FlowVariablePortObject;
+import org.knime.core.node.streamable.DataTableRowInput;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.MergeOperator;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortInput;
+import org.knime.core.node.streamable.PortObjectInput;
+import org.knime.core.node.streamable.PortObjectOutput;
+import org.knime.core.node.streamable.PortOutput;
+import org.knime.core.node.streamable.StreamableOperator;
+import org.knime.core.node.streamable.StreamableOperatorInternals;
+import org.knime.core.node.workflow.FlowVariable;
+import org.knime.core.node.workflow.NativeNodeContainer;
+import org.knime.core.node.workflow.NodeContext;
+import org.knime.core.node.workflow.NodeMessage;
+import org.knime.core.node.workflow.execresult.NativeNodeContainerExecutionResult;
+import org.knime.core.node.workflow.execresult.NodeExecutionResult;
+
+/**
+ * The execution of a single node as part of a streamed execution. The node runs its {@link StreamableOperator} on
+ * the inputs as set up by the job: streamed data inputs read from a {@link RowQueue}, all other inputs are the
+ * complete output objects of upstream stages that finished before this stage is started. Data outputs pass their
+ * rows to the queues of the downstream nodes and are only kept if needed (see {@link StreamedRowOutput}).
+ *
+ * <p>A node whose only streamed input is distributable is run in multiple partitions if its outputs are
+ * distributable or it provides a {@link MergeOperator}. Nodes that iterate over their input (see
+ * {@link NodeModel#iterate(StreamableOperatorInternals)}) don't get streamed inputs.
+ *
+ * <p>Port indices used in this class are those of the node model, i.e. without the flow variable port.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class NodeStage {
+
+    private final NativeNodeContainer m_nnc;
+
+    private final NodeModel m_model;
+
+    private final PipelineMonitor m_monitor;
+
+    /** Runs a task in a thread of the pool of the job. */
+    private final Function<Runnable, Future<?>> m_executor;
+
+    private final BiConsumer<NodeStage, Throwable> m_failureHandler;
+
+    /** Whether the node was executed before, in which case its outputs are only passed on. */
+    private final boolean m_isExecuted;
+
+    /** The internals if the node iterates over its input, otherwise null. */
+    private final StreamableOperatorInternals m_initialInternals;
+
+    private final PortObjectSpec[] m_inSpecs;
+
+    private final RowQueue[] m_inQueues;
+
+    private final NodeStage[] m_upstreamStages;
+
+    private final int[] m_upstreamPorts;
+
+    private final List<List<RowQueue>> m_outQueues;
+
+    private final boolean[] m_isMaterialized;
+
+    private final PortObject[] m_outObjects;
+
+    private StreamedRowOutput[] m_rowOutputs;
+
+    private ExecutionContext m_exec;
+
+    private volatile String m_warningMessage;
+
+    /**
+     * @param nnc the node
+     * @param monitor the monitor of the pipeline
+     * @param executor runs additional partitions in the thread pool of the job
+     * @param failureHandler called if a partition running in a separate thread fails
+     */
+    NodeStage(final NativeNodeContainer nnc, final PipelineMonitor monitor, final Function<Runnable, Future<?>> executor,
+        final BiConsumer<NodeStage, Throwable> failureHandler) {
+        m_nnc = nnc;
+        m_model = nnc.getNodeModel();
+        m_monitor = monitor;
+        m_executor = executor;
+        m_failureHandler = failureHandler;
+        m_isExecuted = nnc.getNodeContainerState().isExecuted();
+        m_initialInternals = m_isExecuted ? null : m_model.createInitialStreamableOperatorInternals();
+        final int nrIn = nnc.getNrInPorts() - 1;
+        final int nrOut = nnc.getNrOutPorts() - 1;
+        m_inSpecs = new PortObjectSpec[nrIn];
+        m_inQueues = new RowQueue[nrIn];
+        m_upstreamStages = new NodeStage[nrIn];
+        m_upstreamPorts = new int[nrIn];
+        m_outQueues = new ArrayList<>(nrOut);
+        for (int i = 0; i < nrOut; i++) {
+            m_outQueues.add(new ArrayList<>());
+        }
+        m_isMaterialized = new boolean[nrOut];
+        m_outObjects = new PortObject[nrOut];
+    }
+
+    /** @return the node */
+    NativeNodeContainer getNodeContainer() {
+        return m_nnc;
+    }
+
+    /**
+     * @param type a port type
+     * @return whether objects of the port are passed as {@link org.knime.core.node.streamable.RowInput} or
+     *         {@link org.knime.core.node.streamable.RowOutput}
+     */
+    static boolean isDataPort(final PortType type) {
+        return BufferedDataTable.TYPE.equals(type);
+    }
+
+    /**
+     * @param port an input port
+     * @return whether the input can be read from a queue
+     */
+    boolean isStreamable(final int port) {
+        return !m_isExecuted && m_initialInternals == null && isDataPort(m_nnc.getInPort(port + 1).getPortType())
+            && m_model.getInputPortRoles()[port].isStreamable();
+    }
+
+    /**
+     * @param port an output port
+     * @return whether the output is a data port
+     */
+    boolean isDataOutput(final int port) {
+        return isDataPort(m_nnc.getOutPort(port + 1).getPortType());
+    }
+
+    /**
+     * Sets a streamed input.
+     *
+     * @param port the input port
+     * @param queue the queue to read from
+     * @param spec the spec of the input
+     */
+    void setInput(final int port, final RowQueue queue, final PortObjectSpec spec) {
+        m_inQueues[port] = queue;
+        m_inSpecs[port] = spec;
+    }
+
+    /**
+     * Sets an input that is read from the complete output of an upstream stage.
+     *
+     * @param port the input port
+     * @param upstream the upstream stage, finished before this stage starts
+     * @param upstreamPort the output port of the upstream stage
+     * @param spec the spec of the input
+     */
+    void setInput(final int port, final NodeStage upstream, final int upstreamPort, final PortObjectSpec spec) {
+        m_upstreamStages[port] = upstream;
+        m_upstreamPorts[port] = upstreamPort;
+        m_inSpecs[port] = spec;
+    }
+
+    /**
+     * @param port a data output port
+     * @param queue a queue the rows of the port are passed to
+     */
+    void addOutputQueue(final int port, final RowQueue queue) {
+        m_outQueues.get(port).add(queue);
+    }
+
+    /**
+     * @param port an output port whose complete output object is needed by a downstream stage
+     */
+    void setMaterialized(final int port) {
+        m_isMaterialized[port] = true;
+    }
+
+    /**
+     * @param port an output port marked using {@link #setMaterialized(int)}
+     * @return the complete output object, available after the stage finished
+     */
+    PortObject getOutputObject(final int port) {
+        return m_outObjects[port];
+    }
+
+    /**
+     * Runs the node (or passes on its outputs if already executed), called in its own thread.
+     *
+     * @throws Exception any exception thrown by the node
+     */
+    void run() throws Exception {
+        m_monitor.threadStarted();
+        NodeContext.pushContext(m_nnc);
+        final NodeModelWarningListener warningListener = w -> m_warningMessage = w;
+        m_model.addWarningListener(warningListener);
+        try {
+            m_exec = m_nnc.createExecutionContext();
+            final PortOutput[] outputs = createOutputs();
+            if (m_isExecuted) {
+                for (int port = 0; port < outputs.length; port++) {
+                    final PortObject object = m_nnc.getOutPort(port + 1).getPortObject();
+                    if (outputs[port] instanceof StreamedRowOutput) {
+                        ((StreamedRowOutput)outputs[port]).setFully((BufferedDataTable)object);
+                    } else {
+                        ((PortObjectOutput)outputs[port]).setPortObject(object);
+                    }
+                }
+            } else if (m_initialInternals != null) {
+                executeIterative(outputs);
+            } else {
+                final int partitionCount = getPartitionCount();
+                if (partitionCount > 1) {
+                    executePartitioned(outputs, partitionCount);
+                } else {
+                    executeSingle(outputs);
+                }
+            }
+            for (int port = 0; port < outputs.length; port++) {
+                if (outputs[port] instanceof StreamedRowOutput) {
+                    final StreamedRowOutput rowOutput = (StreamedRowOutput)outputs[port];
+                    rowOutput.close();
+                    m_outObjects[port] = rowOutput.getTable();
+                } else {
+                    m_outObjects[port] = ((PortObjectOutput)outputs[port]).getPortObject();
+                }
+            }
+        } finally {
+            for (RowQueue queue : m_inQueues) {
+                if (queue != null) {
+                    queue.close();
+                }
+            }
+            m_model.removeWarningListener(warningListener);
+            NodeContext.removeLastContext();
+            m_monitor.threadFinished();
+        }
+    }
+
+    private PortOutput[] createOutputs() {
+        final PortOutput[] outputs = new PortOutput[m_outObjects.length];
+        m_rowOutputs = new StreamedRowOutput[outputs.length];
+        for (int port = 0; port < outputs.length; port++) {
+            if (isDataOutput(port)) {
+                final PortObjectSpec spec = m_nnc.getOutPort(port + 1).getPortObjectSpec();
+                m_rowOutputs[port] = new StreamedRowOutput(m_exec, spec instanceof DataTableSpec ? (DataTableSpec)spec
+                    : null, m_outQueues.get(port), m_isMaterialized[port]);
+                outputs[port] = m_rowOutputs[port];
+            } else {
+                outputs[port] = new PortObjectOutput();
+            }
+        }
+        return outputs;
+    }
+
+    /** @return whether any of the connected inputs is distributable */
+    private boolean hasDistributedInput() {
+        final InputPortRole[] roles = m_model.getInputPortRoles();
+        for (int port = 0; port < roles.length; port++) {
+            if (roles[port].isDistributable() && (m_inQueues[port] != null || m_upstreamStages[port] != null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the outputs to pass to {@link StreamableOperator#runFinal(PortInput[], PortOutput[], ExecutionContext)}:
+     * if the input is distributable and the node merges its results, the non distributed outputs are set in
+     * {@link NodeModel#finishStreamableExecution(StreamableOperatorInternals, ExecutionContext, PortOutput[])}.
+     */
+    private PortOutput[] getOperatorOutputs(final PortOutput[] outputs, final MergeOperator merge) {
+        if (merge == null || !hasDistributedInput()) {
+            return outputs;
+        }
+        final OutputPortRole[] roles = m_model.getOutputPortRoles();
+        final PortOutput[] result = new PortOutput[outputs.length];
+        for (int port = 0; port < outputs.length; port++) {
+            result[port] = roles[port].isDistributable() ? outputs[port] : null;
+        }
+        return result;
+    }
+
+    private void finishExecution(final MergeOperator merge, final StreamableOperator[] operators,
+        final PortOutput[] outputs) throws Exception {
+        if (merge == null || !hasDistributedInput()) {
+            return;
+        }
+        final StreamableOperatorInternals[] internals = new StreamableOperatorInternals[operators.length];
+        for (int i = 0; i < operators.length; i++) {
+            internals[i] = operators[i].saveInternals();
+        }
+        m_model.finishStreamableExecution(merge.mergeFinal(internals), m_exec, outputs);
+    }
+
+    private PortInput[] createInputs(final QueueRowInput.ChunkListener listener) {
+        final PortInput[] inputs = new PortInput[m_inSpecs.length];
+        for (int port = 0; port < inputs.length; port++) {
+            if (m_inQueues[port] != null) {
+                inputs[port] = new QueueRowInput(m_inQueues[port], (DataTableSpec)m_inSpecs[port], listener);
+            } else if (m_upstreamStages[port] != null) {
+                inputs[port] = new PortObjectInput(m_upstreamStages[port].getOutputObject(m_upstreamPorts[port]));
+            }
+        }
+        return inputs;
+    }
+
+    private void executeSingle(final PortOutput[] outputs) throws Exception {
+        final MergeOperator merge = m_model.createMergeOperator();
+        final StreamableOperator operator = m_model.createStreamableOperator(new PartitionInfo(0, 1), m_inSpecs);
+        operator.runFinal(createInputs(null), getOperatorOutputs(outputs, merge), m_exec);
+        finishExecution(merge, new StreamableOperator[]{operator}, outputs);
+    }
+
+    /**
+     * @return the number of partitions the node can be run in, 1 if it's not distributable
+     */
+    private int getPartitionCount() {
+        final InputPortRole[] inRoles = m_model.getInputPortRoles();
+        int distributedCount = 0;
+        for (int port = 0; port < inRoles.length; port++) {
+            if (m_inQueues[port] != null) {
+                if (!inRoles[port].isDistributable()) {
+                    return 1;
+                }
+                distributedCount++;
+            }
+        }
+        if (distributedCount != 1) {
+            return 1;
+        }
+        if (m_model.createMergeOperator() == null) {
+            final OutputPortRole[] outRoles = m_model.getOutputPortRoles();
+            for (int port = 0; port < outRoles.length; port++) {
+                if (!outRoles[port].isDistributable() || !isDataOutput(port)) {
+                    return 1;
+                }
+            }
+        }
+        return Math.min(Runtime.getRuntime().availableProcessors(),
+            KNIMEConstants.GLOBAL_THREAD_POOL.getMaxThreads());
+    }
+
+    private void executePartitioned(final PortOutput[] outputs, final int partitionCount) throws Exception {
+        final MergeOperator merge = m_model.createMergeOperator();
+        final PortOutput[] operatorOutputs = getOperatorOutputs(outputs, merge);
+        final StreamedRowOutput[] distributedOutputs = new StreamedRowOutput[outputs.length];
+        for (int port = 0; port < outputs.length; port++) {
+            if (operatorOutputs[port] != null) {
+                distributedOutputs[port] = m_rowOutputs[port];
+            }
+        }
+        final ChunkReorderer reorderer = new ChunkReorderer(m_monitor, distributedOutputs, partitionCount);
+        final StreamableOperator[] operators = new StreamableOperator[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            operators[i] = m_model.createStreamableOperator(new PartitionInfo(i, partitionCount), m_inSpecs);
+        }
+        final List<Future<?>> futures = new ArrayList<>(partitionCount - 1);
+        for (int i = 1; i < partitionCount; i++) {
+            final int partition = i;
+            futures.add(m_executor.apply(() -> {
+                m_monitor.threadStarted();
+                NodeContext.pushContext(m_nnc);
+                try {
+                    runPartition(operators[partition], reorderer, partition, distributedOutputs);
+                } catch (Throwable t) {
+                    m_failureHandler.accept(this, t);
+                } finally {
+                    NodeContext.removeLastContext();
+                    m_monitor.threadFinished();
+                }
+            }));
+        }
+        runPartition(operators[0], reorderer, 0, distributedOutputs);
+        m_monitor.blocked();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+        } finally {
+            m_monitor.unblocked();
+        }
+        m_exec.checkCanceled();
+        reorderer.close();
+        finishExecution(merge, operators, outputs);
+    }
+
+    private void runPartition(final StreamableOperator operator, final ChunkReorderer reorderer, final int partition,
+        final StreamedRowOutput[] distributedOutputs) throws Exception {
+        final ChunkReorderer.Partition state = reorderer.getPartition(partition);
+        final PortInput[] inputs = createInputs(state);
+        final PortOutput[] outputs = new PortOutput[distributedOutputs.length];
+        for (int port = 0; port < outputs.length; port++) {
+            if (distributedOutputs[port] != null) {
+                outputs[port] = state.createOutput(port);
+            }
+        }
+        operator.runFinal(inputs, outputs, m_exec);
+        for (PortInput input : inputs) {
+            if (input instanceof QueueRowInput) {
+                ((QueueRowInput)input).finishChunk();
+            }
+        }
+    }
+
+    private void executeIterative(final PortOutput[] outputs) throws Exception {
+        final MergeOperator merge = m_model.createMergeOperator();
+        StreamableOperatorInternals internals = m_initialInternals;
+        while (m_model.iterate(internals)) {
+            m_exec.checkCanceled();
+            final StreamableOperator operator =
+                m_model.createStreamableOperator(new PartitionInfo(0, 1), m_inSpecs);
+            operator.loadInternals(internals);
+            operator.runIntermediate(createIterationInputs(), m_exec);
+            internals = operator.saveInternals();
+            if (merge != null) {
+                internals = merge.mergeIntermediate(new StreamableOperatorInternals[]{internals});
+            }
+        }
+        final PortObjectSpec[] finalSpecs = m_model.computeFinalOutputSpecs(internals, m_inSpecs);
+        for (int port = 0; port < outputs.length; port++) {
+            if (m_rowOutputs[port] != null && finalSpecs != null && finalSpecs[port] instanceof DataTableSpec) {
+                m_rowOutputs[port].setSpec((DataTableSpec)finalSpecs[port]);
+            }
+        }
+        final StreamableOperator operator = m_model.createStreamableOperator(new PartitionInfo(0, 1), m_inSpecs);
+        operator.loadInternals(internals);
+        operator.runFinal(createIterationInputs(), getOperatorOutputs(outputs, merge), m_exec);
+        finishExecution(merge, new StreamableOperator[]{operator}, outputs);
+    }
+
+    /** @return inputs reading the complete upstream tables, as row input if the port is streamable */
+    private PortInput[] createIterationInputs() {
+        final InputPortRole[] roles = m_model.getInputPortRoles();
+        final PortInput[] inputs = createInputs(null);
+        for (int port = 0; port < inputs.length; port++) {
+            if (inputs[port] != null && roles[port].isStreamable()) {
+                final PortObject object = ((PortObjectInput)inputs[port]).getPortObject();
+                if (object instanceof BufferedDataTable) {
+                    inputs[port] = new DataTableRowInput((BufferedDataTable)object);
+                }
+            }
+        }
+        return inputs;
+    }
+
+    /**
+     * Creates the result that is loaded into the node after the streamed execution. Data outputs that were not kept
+     * are represented by empty tables.
+     *
+     * @return the result or <code>null</code> if the node was executed before
+     */
+    NativeNodeContainerExecutionResult createExecutionResult() {
+        if (m_isExecuted) {
+            return null;
+        }
+        final PortObject[] objects = new PortObject[m_outObjects.length + 1];
+        final PortObjectSpec[] specs = new PortObjectSpec[objects.length];
+        objects[0] = FlowVariablePortObject.INSTANCE;
+        for (int port = 0; port < m_outObjects.length; port++) {
+            objects[port + 1] = m_rowOutputs[port] != null ? m_rowOutputs[port].getTableOrEmpty() : m_outObjects[port];
+        }
+        for (int i = 0; i < objects.length; i++) {
+            specs[i] = objects[i] == null ? null : objects[i].getSpec();
+        }
+        final NodeExecutionResult nodeResult = new NodeExecutionResult();
+        nodeResult.setPortObjects(objects);
+        nodeResult.setPortObjectSpecs(specs);
+        if (m_model instanceof PortObjectHolder) {
+            nodeResult.setInternalHeldPortObjects(((PortObjectHolder)m_model).getInternalPortObjects());
+        } else if (m_model instanceof BufferedDataTableHolder) {
+            nodeResult.setInternalHeldPortObjects(((BufferedDataTableHolder)m_model).getInternalTables());
+        }
+        final List<FlowVariable> flowVariables = m_nnc.getOutgoingFlowObjectStack().getAvailableFlowVariables()
+            .values().stream().filter(f -> f.getScope().equals(FlowVariable.Scope.Flow)).collect(Collectors.toList());
+        Collections.reverse(flowVariables); // the bottom most element should remain at the bottom of the stack
+        nodeResult.setFlowVariables(flowVariables);
+        final String warningMessage = m_warningMessage;
+        nodeResult.setWarningMessage(warningMessage);
+        final NativeNodeContainerExecutionResult result = new NativeNodeContainerExecutionResult();
+        result.setNodeExecutionResult(nodeResult);
+        result.setSuccess(true);
+        result.setMessage(warningMessage == null ? NodeMessage.NONE : NodeMessage.newWarning(warningMessage));
+        return result;
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.exec.streaming;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Keeps track of the threads of a streamed execution and of the bounded buffers between them. The buffers are only
+ * soft limits: a pipeline whose threads are all waiting on each other (which happens for instance if a node reads
+ * its inputs one after the other while both are fed by the same upstream node) is resolved by growing the full
+ * buffers, see {@link #checkStalled()}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class PipelineMonitor {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(PipelineMonitor.class);
+
+    /** A buffer with a capacity that can be increased. */
+    interface BoundedBuffer {
+
+        /**
+         * Increases the capacity if the buffer is full.
+         *
+         * @return whether the capacity was increased
+         */
+        boolean growIfFull();
+    }
+
+    /** A wait of a thread of the pipeline for another one. */
+    @FunctionalInterface
+    interface Wait {
+
+        /**
+         * Waits for another thread.
+         *
+         * @throws InterruptedException if interrupted while waiting
+         */
+        void await() throws InterruptedException;
+    }
+
+    private final List<BoundedBuffer> m_buffers = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger m_activeThreads = new AtomicInteger();
+
+    private final AtomicInteger m_blockedThreads = new AtomicInteger();
+
+    private final AtomicLong m_transferCount = new AtomicLong();
+
+    private long m_lastTransferCount = -1L;
+
+    /**
+     * @param buffer a buffer whose capacity is increased if the pipeline stalls
+     */
+    void register(final BoundedBuffer buffer) {
+        m_buffers.add(buffer);
+    }
+
+    /** Called by a thread of the pipeline when it starts working. */
+    void threadStarted() {
+        m_activeThreads.incrementAndGet();
+    }
+
+    /** Called by a thread of the pipeline when it's done. */
+    void threadFinished() {
+        m_activeThreads.decrementAndGet();
+    }
+
+    /** Called before a thread of the pipeline waits for another one. */
+    void blocked() {
+        m_blockedThreads.incrementAndGet();
+    }
+
+    /** Called after a thread of the pipeline waited for another one. */
+    void unblocked() {
+        m_blockedThreads.decrementAndGet();
+    }
+
+    /**
+     * Waits on the argument object, counting the calling thread as blocked. Must be called while holding the lock on
+     * the argument.
+     *
+     * @param lock the object to wait on
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void waitOn(final Object lock) throws InterruptedException {
+        await(lock::wait);
+    }
+
+    /**
+     * Runs the argument wait for another thread of the pipeline, counting the calling thread as blocked. A thread
+     * taken out of the global {@link ThreadPool} (or one of its sub pools) doesn't count as running thread of the
+     * global pool while waiting, hence the threads of the pipeline that are still queued can run even if all threads
+     * of the pool are waiting.
+     *
+     * @param wait the wait
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void await(final Wait wait) throws InterruptedException {
+        blocked();
+        try {
+            if (ThreadPool.currentPool() == null) {
+                wait.await();
+            } else {
+                KNIMEConstants.GLOBAL_THREAD_POOL.runInvisible(() -> {
+                    wait.await();
+                    return null;
+                });
+            }
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            unblocked();
+        }
+    }
+
+    /** Called whenever data was passed from one thread to another. */
+    void transferred() {
+        m_transferCount.incrementAndGet();
+    }
+
+    /**
+     * Called periodically by the job. If all threads were blocked and no data was transferred since the last call,
+     * the capacity of all full buffers is increased.
+     */
+    void checkStalled() {
+        final long transferCount = m_transferCount.get();
+        final int activeThreads = m_activeThreads.get();
+        if (activeThreads > 0 && m_blockedThreads.get() >= activeThreads && transferCount == m_lastTransferCount) {
+            int grownCount = 0;
+            for (BoundedBuffer buffer : m_buffers) {
+                if (buffer.growIfFull()) {
+                    grownCount++;
+                }
+            }
+            LOGGER.debugWithFormat("Streamed execution stalled with %d waiting thread(s), increased capacity of %d "
+                + "buffer(s)", activeThreads, grownCount);
+        }
+        m_lastTransferCount = transferCount;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.exec.streaming;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.streamable.RowInput;
+
+/**
+ * Row input reading from a {@link RowQueue}. If several partitions of a node read from the same queue, each of them
+ * uses its own input with a {@link ChunkListener} that is notified whenever the partition switches to the next chunk.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class QueueRowInput extends RowInput {
+
+    /** Notified by an input shared by several partitions. */
+    interface ChunkListener {
+
+        /**
+         * Called before the first row of a chunk is returned.
+         *
+         * @param index the position of the chunk in the stream
+         * @throws InterruptedException if interrupted while waiting
+         */
+        void chunkStarted(long index) throws InterruptedException;
+
+        /**
+         * Called after all rows of the current chunk were returned (or the partition stopped reading).
+         *
+         * @throws InterruptedException if interrupted while waiting
+         */
+        void chunkFinished() throws InterruptedException;
+    }
+
+    private final RowQueue m_queue;
+
+    private final DataTableSpec m_spec;
+
+    private final ChunkListener m_listener;
+
+    private List<DataRow> m_rows = Collections.emptyList();
+
+    private int m_rowIndex;
+
+    private boolean m_isInChunk;
+
+    /**
+     * @param queue the queue to read from
+     * @param spec the spec of the rows
+     * @param listener the listener if the queue is shared by several partitions, otherwise <code>null</code>
+     */
+    QueueRowInput(final RowQueue queue, final DataTableSpec spec, final ChunkListener listener) {
+        m_queue = queue;
+        m_spec = spec;
+        m_listener = listener;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DataTableSpec getDataTableSpec() {
+        return m_spec;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DataRow poll() throws InterruptedException {
+        while (m_rowIndex >= m_rows.size()) {
+            finishChunk();
+            final RowQueue.Chunk chunk = m_queue.take();
+            if (chunk == null) {
+                return null;
+            }
+            if (m_listener != null) {
+                m_listener.chunkStarted(chunk.getIndex());
+                m_isInChunk = true;
+            }
+            m_rows = chunk.getRows();
+            m_rowIndex = 0;
+        }
+        return m_rows.get(m_rowIndex++);
+    }
+
+    /**
+     * Notifies the listener that the current chunk is done (if not already done).
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void finishChunk() throws InterruptedException {
+        if (m_isInChunk) {
+            m_isInChunk = false;
+            m_listener.chunkFinished();
+        }
+    }
+
+    /** Closes the queue unless it's shared with other partitions. {@inheritDoc} */
+    @Override
+    public void close() {
+        if (m_listener == null) {
+            m_queue.close();
+        }
+    }
+
+}
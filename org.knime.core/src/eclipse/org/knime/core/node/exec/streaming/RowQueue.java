@@ -0,0 +1,172 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.exec.streaming;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+import org.knime.core.data.DataRow;
+
+/**
+ * Queue of row chunks connecting a data output of a node with a streamed input of another node. The producer blocks
+ * while the queue is full, the consumer(s) block while it's empty. Each chunk carries its position in the stream,
+ * which is used to restore the row order if several partitions of a node consume the same queue.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class RowQueue implements PipelineMonitor.BoundedBuffer {
+
+    /** Maximum number of rows per chunk. */
+    static final int CHUNK_SIZE = 256;
+
+    /** Initial capacity in chunks. */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Consecutive rows of the stream. */
+    static final class Chunk {
+
+        private final long m_index;
+
+        private final List<DataRow> m_rows;
+
+        private Chunk(final long index, final List<DataRow> rows) {
+            m_index = index;
+            m_rows = rows;
+        }
+
+        /** @return the position of the chunk in the stream (0, 1, 2, ...) */
+        long getIndex() {
+            return m_index;
+        }
+
+        /** @return the rows of the chunk */
+        List<DataRow> getRows() {
+            return m_rows;
+        }
+    }
+
+    private final PipelineMonitor m_monitor;
+
+    private final ArrayDeque<Chunk> m_chunks = new ArrayDeque<>();
+
+    private int m_capacity = INITIAL_CAPACITY;
+
+    private long m_nextIndex;
+
+    private boolean m_isFinished;
+
+    private boolean m_isClosed;
+
+    /**
+     * @param monitor the monitor of the pipeline
+     */
+    RowQueue(final PipelineMonitor monitor) {
+        m_monitor = monitor;
+        monitor.register(this);
+    }
+
+    /**
+     * Appends a chunk, waits while the queue is full. The rows are discarded if the consumer closed the queue.
+     *
+     * @param rows the rows of the chunk, not modified afterwards
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized void put(final List<DataRow> rows) throws InterruptedException {
+        while (!m_isClosed && m_chunks.size() >= m_capacity) {
+            m_monitor.waitOn(this);
+        }
+        if (!m_isClosed) {
+            m_chunks.add(new Chunk(m_nextIndex++, rows));
+            m_monitor.transferred();
+            notifyAll();
+        }
+    }
+
+    /** Called by the producer after the last chunk. */
+    synchronized void finish() {
+        m_isFinished = true;
+        notifyAll();
+    }
+
+    /**
+     * Removes the next chunk, waits while the queue is empty.
+     *
+     * @return the next chunk or <code>null</code> if the producer finished and all chunks were taken
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized Chunk take() throws InterruptedException {
+        while (m_chunks.isEmpty() && !m_isFinished && !m_isClosed) {
+            m_monitor.waitOn(this);
+        }
+        final Chunk chunk = m_chunks.poll();
+        if (chunk != null) {
+            m_monitor.transferred();
+            notifyAll();
+        }
+        return chunk;
+    }
+
+    /** Called by the consumer if it doesn't read any further rows, the producer then no longer blocks. */
+    synchronized void close() {
+        m_isClosed = true;
+        m_chunks.clear();
+        notifyAll();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized boolean growIfFull() {
+        if (!m_isClosed && m_chunks.size() >= m_capacity) {
+            m_capacity *= 2;
+            notifyAll();
+            return true;
+        }
+        return false;
+    }
+
+}
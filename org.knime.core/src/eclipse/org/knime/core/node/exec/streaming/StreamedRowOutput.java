@@ -0,0 +1,195 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.exec.streaming;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.streamable.RowOutput;
+
+/**
+ * Row output of a data port of a streamed node. The rows are passed in chunks to the queues of all streamed
+ * downstream inputs; they are only written into a table if a downstream node needs the full table (or if the
+ * node provides the full table itself using {@link #setFully(BufferedDataTable)}).
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class StreamedRowOutput extends RowOutput {
+
+    private final ExecutionContext m_exec;
+
+    private final List<RowQueue> m_queues;
+
+    private final boolean m_isMaterialize;
+
+    private DataTableSpec m_spec;
+
+    private List<DataRow> m_chunk;
+
+    private BufferedDataContainer m_container;
+
+    private BufferedDataTable m_table;
+
+    private boolean m_isClosed;
+
+    /**
+     * @param exec the context of the node, used to create the table
+     * @param spec the spec of the table
+     * @param queues the queues of the downstream inputs
+     * @param isMaterialize whether the rows are written into a table
+     */
+    StreamedRowOutput(final ExecutionContext exec, final DataTableSpec spec, final List<RowQueue> queues,
+        final boolean isMaterialize) {
+        m_exec = exec;
+        m_spec = spec;
+        m_queues = queues;
+        m_isMaterialize = isMaterialize;
+        m_chunk = new ArrayList<>(RowQueue.CHUNK_SIZE);
+    }
+
+    /**
+     * @param spec the final spec of the table, replaces the spec determined during configure
+     */
+    void setSpec(final DataTableSpec spec) {
+        m_spec = spec;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void push(final DataRow row) throws InterruptedException {
+        if (m_isClosed) {
+            throw new IllegalStateException("Output has already been closed");
+        }
+        if (m_isMaterialize) {
+            if (m_container == null) {
+                m_container = m_exec.createDataContainer(m_spec);
+            }
+            m_container.addRowToTable(row);
+        }
+        if (!m_queues.isEmpty()) {
+            m_chunk.add(row);
+            if (m_chunk.size() >= RowQueue.CHUNK_SIZE) {
+                flush();
+            }
+        }
+    }
+
+    /** Keeps the table (no copy), only the downstream queues are fed. {@inheritDoc} */
+    @Override
+    public void setFully(final BufferedDataTable table) throws InterruptedException {
+        if (m_isClosed) {
+            throw new IllegalStateException("Output has already been closed");
+        }
+        m_table = table;
+        if (!m_queues.isEmpty()) {
+            for (DataRow row : table) {
+                m_chunk.add(row);
+                if (m_chunk.size() >= RowQueue.CHUNK_SIZE) {
+                    flush();
+                }
+            }
+        }
+        close();
+    }
+
+    private void flush() throws InterruptedException {
+        if (m_chunk.isEmpty()) {
+            return;
+        }
+        for (RowQueue queue : m_queues) {
+            queue.put(m_chunk);
+        }
+        m_chunk = new ArrayList<>(RowQueue.CHUNK_SIZE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws InterruptedException {
+        if (m_isClosed) {
+            return;
+        }
+        flush();
+        for (RowQueue queue : m_queues) {
+            queue.finish();
+        }
+        if (m_table == null && m_isMaterialize) {
+            if (m_container == null) {
+                m_container = m_exec.createDataContainer(m_spec);
+            }
+            m_container.close();
+            m_table = m_container.getTable();
+        }
+        m_isClosed = true;
+    }
+
+    /**
+     * @return the table with all rows pushed to this output, <code>null</code> if the rows were not kept or the
+     *         output is not closed yet
+     */
+    BufferedDataTable getTable() {
+        return m_table;
+    }
+
+    /**
+     * @return the table with all rows or an empty table if the rows were not kept
+     */
+    BufferedDataTable getTableOrEmpty() {
+        if (m_table == null) {
+            BufferedDataContainer empty = m_exec.createDataContainer(m_spec == null ? new DataTableSpec() : m_spec);
+            empty.close();
+            m_table = empty.getTable();
+        }
+        return m_table;
+    }
+
+}
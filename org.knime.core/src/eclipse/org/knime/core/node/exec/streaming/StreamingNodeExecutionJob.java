@@ -0,0 +1,348 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.exec.streaming;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.workflow.ConnectionContainer;
+import org.knime.core.node.workflow.NativeNodeContainer;
+import org.knime.core.node.workflow.NodeContainer;
+import org.knime.core.node.workflow.NodeExecutionJob;
+import org.knime.core.node.workflow.NodeID;
+import org.knime.core.node.workflow.NodeMessage;
+import org.knime.core.node.workflow.ScopeEndNode;
+import org.knime.core.node.workflow.ScopeStartNode;
+import org.knime.core.node.workflow.SubNodeContainer;
+import org.knime.core.node.workflow.WorkflowManager;
+import org.knime.core.node.workflow.WorkflowPersistor.LoadResult;
+import org.knime.core.node.workflow.WorkflowPersistor.LoadResultEntry.LoadResultEntryType;
+import org.knime.core.node.workflow.execresult.NativeNodeContainerExecutionResult;
+import org.knime.core.node.workflow.execresult.NodeContainerExecutionStatus;
+import org.knime.core.node.workflow.execresult.SubnodeContainerExecutionResult;
+import org.knime.core.node.workflow.execresult.WorkflowExecutionResult;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Executes the content of a component in a single pass: all nodes run concurrently, each in its own thread, and data
+ * is passed between streamable ports in chunks of rows (see {@link NodeStage}). The result is loaded into the
+ * component the same way as the result of a remote execution.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class StreamingNodeExecutionJob extends NodeExecutionJob {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(StreamingNodeExecutionJob.class);
+
+    /** Interval in which the pipeline is checked for stalls. */
+    private static final long CHECK_INTERVAL_MS = 500L;
+
+    private Future<?> m_future;
+
+    /** Sub pool of the global thread pool running the nodes of the pipeline. */
+    private ThreadPool m_pool;
+
+    /** The tasks enqueued in the pool, canceled if the execution fails. */
+    private final Queue<Future<?>> m_tasks = new ConcurrentLinkedQueue<>();
+
+    /** The first failure, guarded by this. */
+    private Throwable m_failure;
+
+    private NodeStage m_failedStage;
+
+    /**
+     * @param snc the component to execute
+     * @param data its input objects
+     */
+    StreamingNodeExecutionJob(final SubNodeContainer snc, final PortObject[] data) {
+        super(snc, data);
+    }
+
+    /**
+     * Set the future that represents the pending execution.
+     * @param future the future to set
+     */
+    void setFuture(final Future<?> future) {
+        m_future = future;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean cancel() {
+        if (m_future == null) {
+            throw new IllegalStateException("Future that represents the execution has not been set.");
+        }
+        return m_future.cancel(true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean isReConnecting() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected NodeContainerExecutionStatus mainExecute() {
+        final SubNodeContainer snc = (SubNodeContainer)getNodeContainer();
+        final WorkflowManager wfm = snc.getWorkflowManager();
+        final List<NodeContainer> nodes = sortTopologically(wfm);
+        for (NodeContainer nc : nodes) {
+            if (!(nc instanceof NativeNodeContainer)) {
+                return failure(snc, "Nested metanodes and components can't be streamed: " + nc.getNameWithID());
+            }
+            final NodeModel model = ((NativeNodeContainer)nc).getNodeModel();
+            if (model instanceof ScopeStartNode || model instanceof ScopeEndNode) {
+                return failure(snc, "Loops and other scopes can't be streamed: " + nc.getNameWithID());
+            }
+        }
+        final PipelineMonitor monitor = new PipelineMonitor();
+        // all nodes run concurrently, limited by the global pool only as threads waiting for other nodes don't count
+        // (see PipelineMonitor#await)
+        m_pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(Integer.MAX_VALUE);
+        try {
+            final Map<NodeID, NodeStage> stages = new LinkedHashMap<>();
+            final Map<NodeStage, Set<NodeStage>> barriers = new HashMap<>();
+            for (NodeContainer nc : nodes) {
+                final NodeStage stage = new NodeStage((NativeNodeContainer)nc, monitor, this::enqueue, this::fail);
+                final Set<NodeStage> stageBarriers = new LinkedHashSet<>();
+                for (ConnectionContainer cc : wfm.getIncomingConnectionsFor(nc.getID())) {
+                    final NodeStage upstream = stages.get(cc.getSource());
+                    if (upstream == null) {
+                        continue;
+                    }
+                    final int sourcePort = cc.getSourcePort() - 1;
+                    final int destPort = cc.getDestPort() - 1;
+                    if (sourcePort < 0 || destPort < 0) {
+                        // flow variable connection, only defines the order
+                        stageBarriers.add(upstream);
+                        continue;
+                    }
+                    final PortObjectSpec spec = wfm.getNodeContainer(cc.getSource()).getOutPort(cc.getSourcePort())
+                        .getPortObjectSpec();
+                    if (stage.isStreamable(destPort) && upstream.isDataOutput(sourcePort)) {
+                        final RowQueue queue = new RowQueue(monitor);
+                        upstream.addOutputQueue(sourcePort, queue);
+                        stage.setInput(destPort, queue, spec);
+                    } else {
+                        upstream.setMaterialized(sourcePort);
+                        stage.setInput(destPort, upstream, sourcePort, spec);
+                        stageBarriers.add(upstream);
+                    }
+                }
+                stages.put(nc.getID(), stage);
+                barriers.put(stage, stageBarriers);
+            }
+
+            final Map<NodeStage, CompletableFuture<Void>> futures = new HashMap<>();
+            for (NodeStage stage : stages.values()) {
+                final CompletableFuture<?>[] barrierFutures =
+                    barriers.get(stage).stream().map(futures::get).toArray(CompletableFuture[]::new);
+                futures.put(stage, CompletableFuture.allOf(barrierFutures).thenRunAsync(() -> {
+                    try {
+                        stage.run();
+                    } catch (Throwable t) {
+                        fail(stage, t);
+                        throw new CompletionException(t);
+                    }
+                }, this::enqueue));
+            }
+            final CompletableFuture<Void> all =
+                CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[futures.size()]));
+            final Callable<Void> waitForPipeline = () -> {
+                while (true) {
+                    try {
+                        all.get(CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                        return null;
+                    } catch (TimeoutException e) {
+                        synchronized (this) {
+                            if (m_failure != null) {
+                                // the stages that didn't start yet are canceled and never complete
+                                return null;
+                            }
+                        }
+                        monitor.checkStalled();
+                    }
+                }
+            };
+            try {
+                // don't block a thread of the pool while waiting, other nodes may be executed meanwhile
+                final ThreadPool pool = ThreadPool.currentPool();
+                if (pool != null) {
+                    pool.runInvisible(waitForPipeline);
+                } else {
+                    waitForPipeline.call();
+                }
+            } catch (ExecutionException e) {
+                fail(null, e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause());
+            } catch (Exception e) {
+                fail(null, e);
+            }
+            synchronized (this) {
+                if (m_failure != null) {
+                    final String message = m_failedStage == null ? "Streamed execution failed: "
+                        + m_failure.getMessage() : "Streamed execution failed in "
+                        + m_failedStage.getNodeContainer().getNameWithID() + ": " + m_failure.getMessage();
+                    LOGGER.debug(message, m_failure);
+                    return failure(snc, message);
+                }
+            }
+            return loadResult(snc, stages.values());
+        } finally {
+            m_pool.shutdown();
+        }
+    }
+
+    /** Runs the task in the pool of the job. */
+    private Future<?> enqueue(final Runnable task) {
+        final Future<?> future = m_pool.enqueue(task);
+        m_tasks.add(future);
+        return future;
+    }
+
+    /** Records the first failure and stops all threads. */
+    private void fail(final NodeStage stage, final Throwable t) {
+        synchronized (this) {
+            if (m_failure == null) {
+                m_failure = t;
+                m_failedStage = stage;
+            }
+        }
+        m_pool.shutdown();
+        for (Future<?> task : m_tasks) {
+            task.cancel(true);
+        }
+    }
+
+    private static NodeContainerExecutionStatus failure(final SubNodeContainer snc, final String message) {
+        snc.setNodeMessage(NodeMessage.newError(message));
+        return NodeContainerExecutionStatus.newFailure(message);
+    }
+
+    private static NodeContainerExecutionStatus loadResult(final SubNodeContainer snc,
+        final Collection<NodeStage> stages) {
+        final WorkflowExecutionResult wfmResult = new WorkflowExecutionResult(snc.getWorkflowManager().getID());
+        for (NodeStage stage : stages) {
+            final NativeNodeContainerExecutionResult result = stage.createExecutionResult();
+            if (result != null) {
+                wfmResult.addNodeExecutionResult(stage.getNodeContainer().getID(), result);
+            }
+        }
+        wfmResult.setSuccess(true);
+        final SubnodeContainerExecutionResult result = new SubnodeContainerExecutionResult(snc.getID());
+        result.setWorkflowExecutionResult(wfmResult);
+        result.setMessage(NodeMessage.NONE);
+        result.setSuccess(true);
+        final LoadResult lR = new LoadResult("streamed execution result");
+        snc.loadExecutionResult(result, new ExecutionMonitor(), lR);
+        if (lR.hasErrors()) {
+            LOGGER.error("Errors loading the result of the streamed execution:\n"
+                + lR.getFilteredError("", LoadResultEntryType.Warning));
+        }
+        return result;
+    }
+
+    /** @return the nodes of the workflow, each node after all of its predecessors */
+    private static List<NodeContainer> sortTopologically(final WorkflowManager wfm) {
+        final Map<NodeID, Integer> inDegrees = new HashMap<>();
+        final Map<NodeID, List<NodeID>> successors = new HashMap<>();
+        for (NodeContainer nc : wfm.getNodeContainers()) {
+            final Set<NodeID> predecessors = new LinkedHashSet<>();
+            for (ConnectionContainer cc : wfm.getIncomingConnectionsFor(nc.getID())) {
+                if (!cc.getSource().equals(wfm.getID())) {
+                    predecessors.add(cc.getSource());
+                }
+            }
+            inDegrees.put(nc.getID(), predecessors.size());
+            for (NodeID predecessor : predecessors) {
+                successors.computeIfAbsent(predecessor, id -> new ArrayList<>()).add(nc.getID());
+            }
+        }
+        final Deque<NodeID> ready = new ArrayDeque<>();
+        inDegrees.forEach((id, degree) -> {
+            if (degree == 0) {
+                ready.add(id);
+            }
+        });
+        final List<NodeContainer> result = new ArrayList<>(inDegrees.size());
+        while (!ready.isEmpty()) {
+            final NodeID id = ready.poll();
+            result.add(wfm.getNodeContainer(id));
+            for (NodeID successor : successors.getOrDefault(id, new ArrayList<>())) {
+                if (inDegrees.merge(successor, -1, Integer::sum) == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+        return result;
+    }
+
+}
@@ -57,6 +57,7 @@
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.knime.core.eclipseUtil.GlobalClassCreator;
 import org.knime.core.internal.ReferencedFile;
@@ -516,6 +517,18 @@ static void save(final NativeNodeContainer nnc, final NodeSettingsWO settings,
             isSaveData && nnc.getInternalState().equals(InternalNodeContainerState.EXECUTED));
     }
 
+    /** Saves the node like {@link #save(NativeNodeContainer, NodeSettingsWO, ExecutionMonitor, ReferencedFile,
+     * boolean)} but leaves the writing of its data to the returned task, see
+     * {@link FileNodePersistor#saveDeferringData(NativeNodeContainer, NodeSettingsWO, ExecutionMonitor,
+     * ReferencedFile, boolean)}. */
+    static Callable<Void> saveDeferringData(final NativeNodeContainer nnc, final NodeSettingsWO settings,
+        final ExecutionMonitor execMon, final ReferencedFile nodeDirRef,
+        final boolean isSaveData) throws IOException, CanceledExecutionException {
+        saveNodeFactory(settings, nnc);
+        return FileNodePersistor.saveDeferringData(nnc, settings, execMon, nodeDirRef,
+            isSaveData && nnc.getInternalState().equals(InternalNodeContainerState.EXECUTED));
+    }
+
     private static void saveNodeFactory(final NodeSettingsWO settings, final NativeNodeContainer nnc) {
         final Node node = nnc.getNode();
         // node info to missing node is the info to the actual instance, not MissingNodeFactory
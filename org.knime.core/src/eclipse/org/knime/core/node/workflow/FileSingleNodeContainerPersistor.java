@@ -57,6 +57,7 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import org.knime.core.internal.ReferencedFile;
 import org.knime.core.node.BufferedDataTable;
@@ -209,10 +210,15 @@ public void preLoadNodeContainer(final WorkflowPersistor parentPersistor, final
         }
         NodeSettingsRO settings;
         try {
-            InputStream in = new FileInputStream(settingsFile);
-            // parentPersitor is null for loaded subnode templates
-            in = parentPersistor == null ? in : parentPersistor.decipherInput(in);
-            settings = NodeSettings.loadFromXML(new BufferedInputStream(in));
+            if (parentPersistor instanceof FileWorkflowPersistor) {
+                // possibly read already while the parent loaded its nodes
+                settings = ((FileWorkflowPersistor)parentPersistor).loadChildNodeSettings(settingsFile);
+            } else {
+                InputStream in = new FileInputStream(settingsFile);
+                // parentPersitor is null for loaded subnode templates
+                in = parentPersistor == null ? in : parentPersistor.decipherInput(in);
+                settings = NodeSettings.loadFromXML(new BufferedInputStream(in));
+            }
         } catch (IOException ioe) {
             setDirtyAfterLoad();
             throw ioe;
@@ -521,6 +527,16 @@ public LoadNodeModelSettingsFailPolicy getModelSettingsFailPolicy(
     protected static String save(final SingleNodeContainer singleNC, final ReferencedFile rawNodeDirRef,
         final ExecutionMonitor exec, final WorkflowSaveHelper saveHelper)
                 throws CanceledExecutionException, IOException, LockFailedException {
+        return save(singleNC, rawNodeDirRef, exec, saveHelper, null);
+    }
+
+    /** Saves the node; if the argument list is non-null and the node is a native node the writing of its data
+     * (tables, port objects and file stores) is added to the list, to be run by the caller in any thread before the
+     * workflow is unlocked. Everything that accesses the node or its workflow is done in the calling thread.
+     * @param dataWriters the list to add the data writing to or null to write it in the calling thread */
+    static String save(final SingleNodeContainer singleNC, final ReferencedFile rawNodeDirRef,
+        final ExecutionMonitor exec, final WorkflowSaveHelper saveHelper, final List<Callable<Void>> dataWriters)
+                throws CanceledExecutionException, IOException, LockFailedException {
         String settingsDotXML = singleNC.getDirectNCParent().getCipherFileName(SETTINGS_FILE_NAME);
         ReferencedFile nodeDirRef = rawNodeDirRef;
         ReferencedFile sncWorkingDirRef = singleNC.getNodeContainerDirectory();
@@ -589,8 +605,24 @@ protected static String save(final SingleNodeContainer singleNC, final Reference
         FileNodeContainerMetaPersistor.save(settings, singleNC, nodeDirRef);
         if (singleNC instanceof NativeNodeContainer) {
             NativeNodeContainer nativeNC = (NativeNodeContainer)singleNC;
-            FileNativeNodeContainerPersistor.save(nativeNC, settings, exec, nodeDirRef,
-                saveHelper.isSaveData() && singleNC.getInternalState().equals(InternalNodeContainerState.EXECUTED));
+            boolean isSaveData =
+                saveHelper.isSaveData() && singleNC.getInternalState().equals(InternalNodeContainerState.EXECUTED);
+            if (dataWriters == null) {
+                FileNativeNodeContainerPersistor.save(nativeNC, settings, exec, nodeDirRef, isSaveData);
+            } else {
+                Callable<Void> dataWriter = FileNativeNodeContainerPersistor.saveDeferringData(nativeNC, settings,
+                    exec, nodeDirRef, isSaveData);
+                final ReferencedFile writtenNodeDirRef = nodeDirRef;
+                dataWriters.add(() -> {
+                    try {
+                        return dataWriter.call();
+                    } catch (Throwable t) {
+                        // the node directory is incomplete, write it again on the next save
+                        writtenNodeDirRef.setDirty(true);
+                        throw t;
+                    }
+                });
+            }
         } else {
             SubNodeContainer subnodeNC = (SubNodeContainer)singleNC;
             FileSubNodeContainerPersistor.save(subnodeNC, settings, exec, nodeDirRef, saveHelper);
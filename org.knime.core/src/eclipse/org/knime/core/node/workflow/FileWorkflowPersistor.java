@@ -52,6 +52,7 @@
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.text.DateFormat;
 import java.text.ParseException;
@@ -67,6 +68,9 @@
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.knime.core.internal.ReferencedFile;
 import org.knime.core.node.BufferedDataTable;
@@ -222,6 +226,11 @@ public String toString() {
 
     private final List<ReferencedFile> m_obsoleteNodeDirectories;
 
+    /** Settings files of the contained nodes (settings.xml or workflow.knime) that are read in parallel while
+     * loading the nodes, see {@link #loadChildNodeSettings(File)}. Only accessed by the loading thread. */
+    private final Map<File, FutureTask<NodeSettingsRO>> m_prefetchedNodeSettings =
+        new HashMap<File, FutureTask<NodeSettingsRO>>();
+
     /** Parse the version string, return {@link LoadVersion#FUTURE} if it can't be parsed. */
     static LoadVersion parseVersion(final String versionString) {
         boolean isBeforeV2 = versionString.equals("0.9.0");
@@ -515,15 +524,20 @@ public void preLoadNodeContainer(final WorkflowPersistor parentPersistor, final
         m_mustWarnOnDataLoadError = loadIfMustWarnOnDataLoadError(parentRef.getFile());
         NodeSettingsRO subWFSettings;
         try {
-            InputStream in = new FileInputStream(nodeFile);
-            if (m_parentPersistor != null) { // real metanode, not a project
-                // the workflow.knime (or template.knime) file is not encrypted
-                // with this metanode's cipher but possibly with a parent
-                // cipher
-                in = m_parentPersistor.decipherInput(in);
-            }
-            in = new BufferedInputStream(in);
-            subWFSettings = NodeSettings.loadFromXML(in);
+            if (m_parentPersistor instanceof FileWorkflowPersistor) {
+                // possibly read already while the parent loaded its nodes
+                subWFSettings = ((FileWorkflowPersistor)m_parentPersistor).loadChildNodeSettings(nodeFile);
+            } else {
+                InputStream in = new FileInputStream(nodeFile);
+                if (m_parentPersistor != null) { // real metanode, not a project
+                    // the workflow.knime (or template.knime) file is not encrypted
+                    // with this metanode's cipher but possibly with a parent
+                    // cipher
+                    in = m_parentPersistor.decipherInput(in);
+                }
+                in = new BufferedInputStream(in);
+                subWFSettings = NodeSettings.loadFromXML(in);
+            }
         } catch (IOException ioe) {
             setDirtyAfterLoad();
             throw ioe;
@@ -848,6 +862,136 @@ public void loadNodeContainer(final Map<Integer, BufferedDataTable> tblRep, fina
             new HashMap<Integer, NodeFactoryUnknownException>();
         exec.setMessage("node information");
         final ReferencedFile workflowDirRef = workflowKNIMEFile.getParent();
+        if (isParallelLoad() && nodes.keySet().size() > 1) {
+            prefetchNodeSettings(nodes, workflowDirRef);
+        }
+        try {
+            loadNodes(nodes, workflowDirRef, failingNodeIDSet, missingNodeIDMap, exec, loadResult);
+        } finally {
+            // settings of nodes that were skipped (or of all remaining nodes if canceled)
+            for (FutureTask<NodeSettingsRO> task : m_prefetchedNodeSettings.values()) {
+                task.cancel(false);
+            }
+            m_prefetchedNodeSettings.clear();
+        }
+
+        /* read connections */
+        exec.setMessage("connection information");
+        NodeSettingsRO connections;
+        try {
+            connections = loadSettingsForConnections(m_workflowSett);
+            if (connections == null) {
+                connections = EMPTY_SETTINGS;
+            }
+        } catch (InvalidSettingsException e) {
+            String error = "Can't load workflow connections, config not found: " + e.getMessage();
+            getLogger().debug(error, e);
+            setDirtyAfterLoad();
+            loadResult.addError(error);
+            connections = EMPTY_SETTINGS;
+        }
+        for (String connectionKey : connections.keySet()) {
+            exec.checkCanceled();
+            ConnectionContainerTemplate c;
+            try {
+                c = loadConnection(connections.getNodeSettings(connectionKey));
+            } catch (InvalidSettingsException e) {
+                String error = "Can't load connection with internal ID \"" + connectionKey + "\": " + e.getMessage();
+                getLogger().debug(error, e);
+                setDirtyAfterLoad();
+                loadResult.addError(error);
+                continue;
+            }
+            int sourceIDSuffix = c.getSourceSuffix();
+            NodeContainerPersistor sourceNodePersistor = m_nodeContainerLoaderMap.get(sourceIDSuffix);
+            if (sourceNodePersistor == null && sourceIDSuffix != -1) {
+                setDirtyAfterLoad();
+                if (!failingNodeIDSet.contains(sourceIDSuffix)) {
+                    loadResult.addError("Unable to load node connection " + c + ", source node does not exist");
+                }
+                continue;
+            }
+            fixSourcePortIfNecessary(sourceNodePersistor, c);
+
+            int destIDSuffix = c.getDestSuffix();
+            NodeContainerPersistor destNodePersistor = m_nodeContainerLoaderMap.get(destIDSuffix);
+            if (destNodePersistor == null && destIDSuffix != -1) {
+                setDirtyAfterLoad();
+                if (!failingNodeIDSet.contains(destIDSuffix)) {
+                    loadResult.addError("Unable to load node connection " + c + ", destination node does not exist");
+                }
+                continue;
+            }
+            fixDestPortIfNecessary(destNodePersistor, c);
+
+            if (!m_connectionSet.add(c)) {
+                setDirtyAfterLoad();
+                loadResult.addError("Duplicate connection information: " + c);
+            }
+        }
+
+        for (Map.Entry<Integer, NodeFactoryUnknownException> missingNode : missingNodeIDMap.entrySet()) {
+            exec.checkCanceled();
+            int missingNodeSuffix = missingNode.getKey();
+            NodeAndBundleInformationPersistor nodeInfo = missingNode.getValue().getNodeAndBundleInformation();
+            loadResult.addMissingNode(nodeInfo);
+            NodeSettingsRO additionalFactorySettings = missingNode.getValue().getAdditionalFactorySettings();
+            ArrayList<PersistorWithPortIndex> upstreamNodes = new ArrayList<PersistorWithPortIndex>();
+            ArrayList<List<PersistorWithPortIndex>> downstreamNodes = new ArrayList<List<PersistorWithPortIndex>>();
+            for (ConnectionContainerTemplate t : m_connectionSet) {
+                // check upstream nodes
+                int sourceSuffix = t.getSourceSuffix();
+                int destSuffix = t.getDestSuffix();
+                int sourcePort = t.getSourcePort();
+                int destPort = t.getDestPort();
+                if (destSuffix == missingNodeSuffix) {
+                    FromFileNodeContainerPersistor persistor;
+                    if (sourceSuffix == -1) { // connected to this metanode's input port bar
+                        persistor = this;
+                    } else {
+                        persistor = m_nodeContainerLoaderMap.get(sourceSuffix);
+                    }
+                    ensureArrayListIndexValid(upstreamNodes, destPort);
+                    upstreamNodes.set(destPort, new PersistorWithPortIndex(persistor, sourcePort));
+                }
+                // check downstream nodes
+                if (sourceSuffix == missingNodeSuffix) {
+                    FromFileNodeContainerPersistor persistor;
+                    if (destSuffix == -1) { // connect to this metanode's output port bar
+                        persistor = this;
+                    } else {
+                        persistor = m_nodeContainerLoaderMap.get(destSuffix);
+                    }
+                    ensureArrayListIndexValid(downstreamNodes, sourcePort);
+                    List<PersistorWithPortIndex> downstreamNodesAtPort = downstreamNodes.get(sourcePort);
+                    if (downstreamNodesAtPort == null) {
+                        downstreamNodesAtPort = new ArrayList<PersistorWithPortIndex>();
+                        downstreamNodes.set(sourcePort, downstreamNodesAtPort);
+                    }
+                    downstreamNodesAtPort.add(new PersistorWithPortIndex(persistor, destPort));
+                }
+            }
+            FromFileNodeContainerPersistor failingNodePersistor = m_nodeContainerLoaderMap.get(missingNodeSuffix);
+            failingNodePersistor.guessPortTypesFromConnectedNodes(nodeInfo, additionalFactorySettings, upstreamNodes,
+                downstreamNodes);
+        }
+        exec.setProgress(1.0);
+    }
+
+    /** Instantiates and pre-loads the persistors of the contained nodes, part of
+     * {@link #loadNodeContainer(Map, ExecutionMonitor, LoadResult)}.
+     *
+     * @param nodes the nodes sub-config of the workflow settings
+     * @param workflowDirRef the directory of this workflow
+     * @param failingNodeIDSet to add the ids of nodes to that failed to load
+     * @param missingNodeIDMap to add the ids of nodes to whose factory can't be loaded
+     * @param exec for cancelation
+     * @param loadResult where to add errors to
+     * @throws CanceledExecutionException if canceled
+     */
+    private void loadNodes(final NodeSettingsRO nodes, final ReferencedFile workflowDirRef,
+        final Set<Integer> failingNodeIDSet, final Map<Integer, NodeFactoryUnknownException> missingNodeIDMap,
+        final ExecutionMonitor exec, final LoadResult loadResult) throws CanceledExecutionException {
         /* Load nodes */
         for (String nodeKey : nodes.keySet()) {
             exec.checkCanceled();
@@ -985,108 +1129,71 @@ public void loadNodeContainer(final Map<Integer, BufferedDataTable> tblRep, fina
             }
             m_nodeContainerLoaderMap.put(nodeIDSuffix, persistor);
         }
+    }
 
-        /* read connections */
-        exec.setMessage("connection information");
-        NodeSettingsRO connections;
-        try {
-            connections = loadSettingsForConnections(m_workflowSett);
-            if (connections == null) {
-                connections = EMPTY_SETTINGS;
-            }
-        } catch (InvalidSettingsException e) {
-            String error = "Can't load workflow connections, config not found: " + e.getMessage();
-            getLogger().debug(error, e);
-            setDirtyAfterLoad();
-            loadResult.addError(error);
-            connections = EMPTY_SETTINGS;
-        }
-        for (String connectionKey : connections.keySet()) {
-            exec.checkCanceled();
-            ConnectionContainerTemplate c;
+    /** Starts reading the settings files of the contained nodes in the global thread pool. The files are picked up
+     * by the child persistors when they are pre-loaded, see {@link #loadChildNodeSettings(File)}. Errors are ignored
+     * here, they are reported when the node itself is loaded.
+     *
+     * @param nodes the nodes sub-config of the workflow settings
+     * @param workflowDirRef the directory of this workflow
+     */
+    private void prefetchNodeSettings(final NodeSettingsRO nodes, final ReferencedFile workflowDirRef) {
+        for (String nodeKey : nodes.keySet()) {
+            final File nodeFile;
             try {
-                c = loadConnection(connections.getNodeSettings(connectionKey));
-            } catch (InvalidSettingsException e) {
-                String error = "Can't load connection with internal ID \"" + connectionKey + "\": " + e.getMessage();
-                getLogger().debug(error, e);
-                setDirtyAfterLoad();
-                loadResult.addError(error);
-                continue;
-            }
-            int sourceIDSuffix = c.getSourceSuffix();
-            NodeContainerPersistor sourceNodePersistor = m_nodeContainerLoaderMap.get(sourceIDSuffix);
-            if (sourceNodePersistor == null && sourceIDSuffix != -1) {
-                setDirtyAfterLoad();
-                if (!failingNodeIDSet.contains(sourceIDSuffix)) {
-                    loadResult.addError("Unable to load node connection " + c + ", source node does not exist");
+                NodeSettingsRO nodeSetting = nodes.getNodeSettings(nodeKey);
+                if (shouldSkipThisNode(nodeSetting)) {
+                    continue;
                 }
+                nodeFile = loadNodeFile(nodeSetting, workflowDirRef).getFile();
+            } catch (InvalidSettingsException e) {
                 continue;
             }
-            fixSourcePortIfNecessary(sourceNodePersistor, c);
-
-            int destIDSuffix = c.getDestSuffix();
-            NodeContainerPersistor destNodePersistor = m_nodeContainerLoaderMap.get(destIDSuffix);
-            if (destNodePersistor == null && destIDSuffix != -1) {
-                setDirtyAfterLoad();
-                if (!failingNodeIDSet.contains(destIDSuffix)) {
-                    loadResult.addError("Unable to load node connection " + c + ", destination node does not exist");
-                }
-                continue;
+            FutureTask<NodeSettingsRO> task = new FutureTask<NodeSettingsRO>(() -> readChildNodeSettings(nodeFile));
+            if (m_prefetchedNodeSettings.putIfAbsent(nodeFile, task) == null) {
+                KNIMEConstants.GLOBAL_THREAD_POOL.enqueue(task);
             }
-            fixDestPortIfNecessary(destNodePersistor, c);
+        }
+    }
 
-            if (!m_connectionSet.add(c)) {
-                setDirtyAfterLoad();
-                loadResult.addError("Duplicate connection information: " + c);
+    /** Reads the settings file of a contained node (its settings.xml or, for metanodes, workflow.knime), which is
+     * possibly encrypted by this workflow's cipher. If the file is read already in parallel (see
+     * {@link #prefetchNodeSettings(NodeSettingsRO, ReferencedFile)}) its result is returned, if it's not yet
+     * picked up by the thread pool it is read in the calling thread.
+     *
+     * @param file the file to read
+     * @return its content
+     * @throws IOException if the file can't be read
+     */
+    NodeSettingsRO loadChildNodeSettings(final File file) throws IOException {
+        FutureTask<NodeSettingsRO> task = m_prefetchedNodeSettings.remove(file);
+        if (task == null) {
+            return readChildNodeSettings(file);
+        }
+        task.run(); // no-op if already started in the thread pool
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading \"" + file.getAbsolutePath() + "\"");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
             }
+            throw new IOException(cause.getMessage(), cause);
         }
+    }
 
-        for (Map.Entry<Integer, NodeFactoryUnknownException> missingNode : missingNodeIDMap.entrySet()) {
-            exec.checkCanceled();
-            int missingNodeSuffix = missingNode.getKey();
-            NodeAndBundleInformationPersistor nodeInfo = missingNode.getValue().getNodeAndBundleInformation();
-            loadResult.addMissingNode(nodeInfo);
-            NodeSettingsRO additionalFactorySettings = missingNode.getValue().getAdditionalFactorySettings();
-            ArrayList<PersistorWithPortIndex> upstreamNodes = new ArrayList<PersistorWithPortIndex>();
-            ArrayList<List<PersistorWithPortIndex>> downstreamNodes = new ArrayList<List<PersistorWithPortIndex>>();
-            for (ConnectionContainerTemplate t : m_connectionSet) {
-                // check upstream nodes
-                int sourceSuffix = t.getSourceSuffix();
-                int destSuffix = t.getDestSuffix();
-                int sourcePort = t.getSourcePort();
-                int destPort = t.getDestPort();
-                if (destSuffix == missingNodeSuffix) {
-                    FromFileNodeContainerPersistor persistor;
-                    if (sourceSuffix == -1) { // connected to this metanode's input port bar
-                        persistor = this;
-                    } else {
-                        persistor = m_nodeContainerLoaderMap.get(sourceSuffix);
-                    }
-                    ensureArrayListIndexValid(upstreamNodes, destPort);
-                    upstreamNodes.set(destPort, new PersistorWithPortIndex(persistor, sourcePort));
-                }
-                // check downstream nodes
-                if (sourceSuffix == missingNodeSuffix) {
-                    FromFileNodeContainerPersistor persistor;
-                    if (destSuffix == -1) { // connect to this metanode's output port bar
-                        persistor = this;
-                    } else {
-                        persistor = m_nodeContainerLoaderMap.get(destSuffix);
-                    }
-                    ensureArrayListIndexValid(downstreamNodes, sourcePort);
-                    List<PersistorWithPortIndex> downstreamNodesAtPort = downstreamNodes.get(sourcePort);
-                    if (downstreamNodesAtPort == null) {
-                        downstreamNodesAtPort = new ArrayList<PersistorWithPortIndex>();
-                        downstreamNodes.set(sourcePort, downstreamNodesAtPort);
-                    }
-                    downstreamNodesAtPort.add(new PersistorWithPortIndex(persistor, destPort));
-                }
-            }
-            FromFileNodeContainerPersistor failingNodePersistor = m_nodeContainerLoaderMap.get(missingNodeSuffix);
-            failingNodePersistor.guessPortTypesFromConnectedNodes(nodeInfo, additionalFactorySettings, upstreamNodes,
-                downstreamNodes);
+    private NodeSettingsRO readChildNodeSettings(final File file) throws IOException {
+        try (InputStream in = decipherInput(new FileInputStream(file))) {
+            return NodeSettings.loadFromXML(new BufferedInputStream(in));
         }
-        exec.setProgress(1.0);
     }
 
     private NodeUIInformation loadNodeUIInformation(final NodeSettingsRO nodeSetting) throws InvalidSettingsException {
@@ -1916,19 +2023,39 @@ private static void saveContent(final WorkflowManager wm, final NodeSettings pre
             NodeSettingsWO nodesSettings = saveSettingsForNodes(preFilledSettings);
             Collection<NodeContainer> nodes = wm.getNodeContainers();
             double progRatio = 1.0 / (nodes.size() + 1);
+            final boolean isParallel = isParallelSave() && nodes.size() > 1;
+            // the data of native nodes (tables, port objects) is written in the global thread pool - everything that
+            // accesses a node or the workflow (and hence needs the workflow lock) is done in this thread
+            final List<Callable<Void>> dataWriters = isParallel ? new ArrayList<Callable<Void>>() : null;
+            List<FutureTask<Void>> saveTasks = new ArrayList<FutureTask<Void>>();
 
-            for (NodeContainer nextNode : nodes) {
-                int id = nextNode.getID().getIndex();
-                ExecutionMonitor subExec = execMon.createSubProgress(progRatio);
-                execMon.setMessage(nextNode.getNameWithID());
-                NodeSettingsWO sub = nodesSettings.addNodeSettings("node_" + id);
-                NodeContext.pushContext(nextNode);
-                try {
-                    saveNodeContainer(sub, workflowDirRef, nextNode, subExec, saveHelper);
-                } finally {
-                    NodeContext.removeLastContext();
+            boolean isAllSubmitted = false;
+            try {
+                for (NodeContainer nextNode : nodes) {
+                    int id = nextNode.getID().getIndex();
+                    ExecutionMonitor subExec = execMon.createSubProgress(progRatio);
+                    NodeSettingsWO sub = nodesSettings.addNodeSettings("node_" + id);
+                    execMon.setMessage(nextNode.getNameWithID());
+                    saveNodeContainerWithContext(sub, workflowDirRef, nextNode, subExec, saveHelper, dataWriters);
+                    if (isParallel) {
+                        for (Callable<Void> dataWriter : dataWriters) {
+                            FutureTask<Void> task = new FutureTask<Void>(dataWriter);
+                            saveTasks.add(task);
+                            KNIMEConstants.GLOBAL_THREAD_POOL.enqueue(task);
+                        }
+                        dataWriters.clear();
+                    }
+                }
+                isAllSubmitted = true;
+            } finally {
+                if (!isAllSubmitted) {
+                    // failed saving a node in this thread, don't bother writing the remaining ones
+                    saveTasks.forEach(t -> t.cancel(false));
                 }
-                subExec.setProgress(1.0);
+            }
+            if (!saveTasks.isEmpty()) {
+                execMon.setMessage("node data");
+                waitForSaveTasks(saveTasks);
             }
 
             execMon.setMessage("connection information");
@@ -2139,9 +2266,93 @@ protected static NodeSettingsWO saveSettingsForConnections(final NodeSettingsWO
         return settings.addNodeSettings(KEY_CONNECTIONS);
     }
 
+    private static void saveNodeContainerWithContext(final NodeSettingsWO settings,
+        final ReferencedFile workflowDirRef, final NodeContainer container, final ExecutionMonitor exec,
+        final WorkflowSaveHelper saveHelper, final List<Callable<Void>> dataWriters)
+        throws CanceledExecutionException, IOException, LockFailedException {
+        NodeContext.pushContext(container);
+        try {
+            saveNodeContainer(settings, workflowDirRef, container, exec, saveHelper, dataWriters);
+        } finally {
+            NodeContext.removeLastContext();
+        }
+        exec.setProgress(1.0);
+    }
+
+    /** Whether the settings files of the contained nodes are read in parallel, see
+     * {@link KNIMEConstants#PROPERTY_WORKFLOW_LOAD_PARALLEL}. The property is read on each load so that it can be
+     * changed at runtime (e.g. by test cases).
+     * @return true unless the property is set to "false" */
+    private static boolean isParallelLoad() {
+        return !"false".equalsIgnoreCase(System.getProperty(KNIMEConstants.PROPERTY_WORKFLOW_LOAD_PARALLEL));
+    }
+
+    /** Whether the data of the native nodes of a workflow is written in parallel, see
+     * {@link KNIMEConstants#PROPERTY_WORKFLOW_SAVE_PARALLEL}. The property is read on each save so that it can be
+     * changed at runtime (e.g. by test cases).
+     * @return true unless the property is set to "false" */
+    private static boolean isParallelSave() {
+        return !"false".equalsIgnoreCase(System.getProperty(KNIMEConstants.PROPERTY_WORKFLOW_SAVE_PARALLEL));
+    }
+
+    /** Waits for the node data written in the global thread pool, tasks that are not yet picked up by the pool are
+     * run in the calling thread. All tasks are completed (so that no node is still written when this method returns),
+     * the first failure is then re-thrown.
+     *
+     * @param saveTasks the tasks as created in {@link #saveContent(WorkflowManager, NodeSettings, ReferencedFile,
+     *            ExecutionMonitor, WorkflowSaveHelper)}
+     */
+    private static void waitForSaveTasks(final List<FutureTask<Void>> saveTasks)
+        throws IOException, CanceledExecutionException, LockFailedException {
+        Throwable failure = null;
+        boolean isInterrupted = false;
+        for (FutureTask<Void> task : saveTasks) {
+            task.run(); // no-op if already started in the thread pool
+            while (true) {
+                try {
+                    task.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // the node may still be written by another thread, wait for it
+                    isInterrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof IOException) {
+            throw (IOException)failure;
+        } else if (failure instanceof CanceledExecutionException) {
+            throw (CanceledExecutionException)failure;
+        } else if (failure instanceof LockFailedException) {
+            throw (LockFailedException)failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException)failure;
+        } else if (failure instanceof Error) {
+            throw (Error)failure;
+        } else if (failure != null) {
+            throw new IOException(failure.getMessage(), failure);
+        }
+    }
+
     protected static void saveNodeContainer(final NodeSettingsWO settings, final ReferencedFile workflowDirRef,
         final NodeContainer container, final ExecutionMonitor exec, final WorkflowSaveHelper saveHelper)
         throws CanceledExecutionException, IOException, LockFailedException {
+        saveNodeContainer(settings, workflowDirRef, container, exec, saveHelper, null);
+    }
+
+    /** Saves the node container, the writing of the data of a native node is added to the argument list if non-null
+     * (see {@link FileSingleNodeContainerPersistor#save(SingleNodeContainer, ReferencedFile, ExecutionMonitor,
+     * WorkflowSaveHelper, List)}). */
+    private static void saveNodeContainer(final NodeSettingsWO settings, final ReferencedFile workflowDirRef,
+        final NodeContainer container, final ExecutionMonitor exec, final WorkflowSaveHelper saveHelper,
+        final List<Callable<Void>> dataWriters) throws CanceledExecutionException, IOException, LockFailedException {
         WorkflowManager parent = container.getParent();
         ReferencedFile workingDir = parent.getNodeContainerDirectory();
         boolean isWorkingDir = workflowDirRef.equals(workingDir);
@@ -2170,7 +2381,7 @@ protected static void saveNodeContainer(final NodeSettingsWO settings, final Ref
             fileName = FileWorkflowPersistor.save((WorkflowManager)container, nodeDirectoryRef, exec, saveHelper);
         } else {
             fileName =  FileSingleNodeContainerPersistor.save(
-                (SingleNodeContainer)container, nodeDirectoryRef, exec, saveHelper);
+                (SingleNodeContainer)container, nodeDirectoryRef, exec, saveHelper, dataWriters);
         }
         saveFileLocation(settings, nodeDirID + "/" + fileName);
         saveNodeType(settings, container);
@@ -52,6 +52,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -90,6 +91,26 @@ class Workflow {
     private final Map<NodeID, Set<ConnectionContainer>> m_connectionsByDest
                                   = new TreeMap<NodeID, Set<ConnectionContainer>>();
 
+    /** Maximum number of node IDs held in {@link #m_successorCache} and {@link #m_predecessorCache} (each). */
+    private static final int MAX_CACHED_NODE_COUNT = 1 << 18;
+
+    /** Cached results of {@link #getBreadthFirstListOfNodeAndSuccessors(NodeID, boolean)} (WFM not skipped), keyed
+     * by the start node, in access order. An entry is dropped when a connection leaving one of its nodes
+     * is added or removed. */
+    private final LinkedHashMap<NodeID, LinkedHashMap<NodeID, Set<Integer>>> m_successorCache
+                                  = new LinkedHashMap<NodeID, LinkedHashMap<NodeID, Set<Integer>>>(16, 0.75f, true);
+    private int m_successorCacheNodeCount;
+
+    /** Cached results of {@link #getPredecessors(NodeID)}, in access order. An entry is dropped when a connection
+     * entering the node itself or one of its predecessors is added or removed. */
+    private final LinkedHashMap<NodeID, Set<NodeID>> m_predecessorCache
+                                  = new LinkedHashMap<NodeID, Set<NodeID>>(16, 0.75f, true);
+    private int m_predecessorCacheNodeCount;
+
+    /** Cached result of {@link #createBreadthFirstSortedList(Set, boolean)} for all nodes (WFM not skipped), null
+     * if not computed since the last change of the graph. */
+    private LinkedHashMap<NodeID, Set<Integer>> m_allNodesBreadthFirstCache;
+
     private WorkflowManager m_wfm;
     private NodeID m_id;
 
@@ -169,6 +190,8 @@ NodeContainer removeNode(final NodeID id) {
         // and then clean up the connection lists  (avoid inconsistent node - connection setup)
         m_connectionsBySource.remove(id);
         m_connectionsByDest.remove(id);
+        invalidateSuccessorCache(id);
+        invalidatePredecessorCache(id);
         clearGraphAnnotationCache();
         // and return removed node container
         return node;
@@ -249,6 +272,8 @@ void removeConnection(final ConnectionContainer cc) throws IllegalArgumentExcept
         if (!m_connectionsByDest.get(cc.getDest()).remove(cc)) {
             throw new IllegalArgumentException("Connection did not exist (it did exist as outcoming conn.)!");
         }
+        invalidateSuccessorCache(cc.getSource());
+        invalidatePredecessorCache(cc.getDest());
     }
 
     /** Add a connection.
@@ -266,6 +291,8 @@ void addConnection(final ConnectionContainer cc) throws IllegalArgumentException
         if (!m_connectionsByDest.get(cc.getDest()).add(cc)) {
             throw new IllegalArgumentException("Connection already exists (oddly enough only as incoming)!");
         }
+        invalidateSuccessorCache(cc.getSource());
+        invalidatePredecessorCache(cc.getDest());
     }
 
     /** Return map of node ids connected to the given node sorted in breadth
@@ -275,12 +302,35 @@ void addConnection(final ConnectionContainer cc) throws IllegalArgumentException
      * The set of integers represents the indices of input ports which are
      * actually used within the graph covered in the result list.
      *
+     * The result is cached until the graph downstream of the node changes, the returned map is a copy.
+     *
      * @param id of node
      * @param skipWFM if true, do not include WFM in the list
      * @return map as described above.
      */
     LinkedHashMap<NodeID, Set<Integer>> getBreadthFirstListOfNodeAndSuccessors(
             final NodeID id, final boolean skipWFM) {
+        LinkedHashMap<NodeID, Set<Integer>> bfsSortedNodes = m_successorCache.get(id);
+        if (bfsSortedNodes == null) {
+            bfsSortedNodes = createBreadthFirstListOfNodeAndSuccessors(id);
+            m_successorCache.put(id, bfsSortedNodes);
+            m_successorCacheNodeCount += bfsSortedNodes.size();
+            for (Iterator<LinkedHashMap<NodeID, Set<Integer>>> it = m_successorCache.values().iterator();
+                    m_successorCacheNodeCount > MAX_CACHED_NODE_COUNT && it.hasNext();) {
+                // evict least recently used (the new entry is last and at most the size of the workflow)
+                m_successorCacheNodeCount -= it.next().size();
+                it.remove();
+            }
+        }
+        return copyBreadthFirstList(bfsSortedNodes, skipWFM);
+    }
+
+    /** Computes the result of {@link #getBreadthFirstListOfNodeAndSuccessors(NodeID, boolean)}, not skipping the
+     * WFM.
+     * @param id of node
+     * @return map as described above.
+     */
+    private LinkedHashMap<NodeID, Set<Integer>> createBreadthFirstListOfNodeAndSuccessors(final NodeID id) {
         // assemble unsorted list of successors
         HashSet<NodeID> inclusionList = new HashSet<NodeID>();
         completeSet(inclusionList, id, -1);
@@ -291,13 +341,26 @@ LinkedHashMap<NodeID, Set<Integer>> getBreadthFirstListOfNodeAndSuccessors(
         // interest -  into the map
         bfsSortedNodes.put(id, new HashSet<Integer>());
         expandListBreadthFirst(bfsSortedNodes, inclusionList);
-        // if wanted (and contained): remove WFM itself
-        if (skipWFM && bfsSortedNodes.keySet().contains(this.getID())) {
-            bfsSortedNodes.remove(this.getID());
-        }
         return bfsSortedNodes;
     }
 
+    /** Copy of a cached breadth first list (including the port sets), which the caller is free to modify.
+     * @param bfsSortedNodes cached list
+     * @param skipWFM if true, do not include WFM in the copy
+     * @return a new map as described above.
+     */
+    private LinkedHashMap<NodeID, Set<Integer>> copyBreadthFirstList(
+            final LinkedHashMap<NodeID, Set<Integer>> bfsSortedNodes, final boolean skipWFM) {
+        LinkedHashMap<NodeID, Set<Integer>> result = new LinkedHashMap<NodeID, Set<Integer>>(
+                Math.max(16, 2 * bfsSortedNodes.size()));
+        for (Map.Entry<NodeID, Set<Integer>> e : bfsSortedNodes.entrySet()) {
+            if (!(skipWFM && e.getKey().equals(getID()))) {
+                result.put(e.getKey(), new HashSet<Integer>(e.getValue()));
+            }
+        }
+        return result;
+    }
+
     /** Return map of node ids connected to the given outport of the given node
      * sorted in breadth first order mapped to a set of portIDs.
      * See also {@link #getBreadthFirstListOfNodeAndSuccessors(NodeID, boolean)}
@@ -342,6 +405,8 @@ LinkedHashMap<NodeID, Set<Integer>> getBreadthFirstListOfPortSuccessors(
      * the set of port indices represents the input ports actually used
      * within the graph covered.
      *
+     * The list of all nodes of this workflow is cached until the graph changes, the returned map is a copy.
+     *
      * @param ids of interest, for example m_workflow.m_nodes.keySet()
      * @param skipWFM if true, do not include WFM in the list
      * @return BF sorted list of node ids
@@ -349,6 +414,25 @@ LinkedHashMap<NodeID, Set<Integer>> getBreadthFirstListOfPortSuccessors(
     LinkedHashMap<NodeID, Set<Integer>> createBreadthFirstSortedList(
             final Set<NodeID> ids,
             final boolean skipWFM) {
+        if (ids.size() == m_nodes.size() && m_nodes.keySet().equals(ids)) {
+            if (m_allNodesBreadthFirstCache == null) {
+                m_allNodesBreadthFirstCache = createBreadthFirstSortedList(ids);
+            }
+            return copyBreadthFirstList(m_allNodesBreadthFirstCache, skipWFM);
+        }
+        LinkedHashMap<NodeID, Set<Integer>> bfsSortedNodes = createBreadthFirstSortedList(ids);
+        // if wanted (and contained): remove WFM itself
+        if (skipWFM && bfsSortedNodes.containsKey(this.getID())) {
+            bfsSortedNodes.remove(this.getID());
+        }
+        return bfsSortedNodes;
+    }
+
+    /** Computes the result of {@link #createBreadthFirstSortedList(Set, boolean)}, not skipping the WFM.
+     * @param ids of interest
+     * @return BF sorted list of node ids
+     */
+    private LinkedHashMap<NodeID, Set<Integer>> createBreadthFirstSortedList(final Set<NodeID> ids) {
         // first create list of nodes without predecessor or only the WFM
         // itself (i.e. connected to outside "world" only.
         Set<NodeID> sources = getSourceNodes(ids);
@@ -361,10 +445,6 @@ LinkedHashMap<NodeID, Set<Integer>> createBreadthFirstSortedList(
         }
         // and finally complete this list by adding all successors...
         expandListBreadthFirst(bfsSortedNodes, ids);
-        // if wanted (and contained): remove WFM itself
-        if (skipWFM && bfsSortedNodes.containsKey(this.getID())) {
-            bfsSortedNodes.remove(this.getID());
-        }
         return bfsSortedNodes;
     }
 
@@ -445,12 +525,11 @@ private void expandListBreadthFirst(
         // infinite loops (i.e. starting with incoming connections again
         // but if encountered remember to node&ports at the end of the search:
         Set<Integer> parentOutgoingPorts = new HashSet<Integer>();
+        // keys of the map in insertion order - we constantly add to it in this loop
+        ArrayList<NodeID> bfsQueue = new ArrayList<NodeID>(bfsSortedNodes.keySet());
         // keep adding nodes until we can't find new ones anymore
-        for (int i = 0; i < bfsSortedNodes.size(); i++) {
-            // Not a very nice way to iterate over the keys of a map...
-            //   (but since we constantly add to it in this loop?!)
-            Object[] ani = bfsSortedNodes.keySet().toArray();
-            NodeID currNode = (NodeID)(ani[i]);
+        for (int i = 0; i < bfsQueue.size(); i++) {
+            NodeID currNode = bfsQueue.get(i);
             Set<Integer> currInPorts = bfsSortedNodes.get(currNode);
             Set<Integer> currOutPorts = new HashSet<Integer>();
             NodeContainer currNC = getNode(currNode);
@@ -498,6 +577,7 @@ private void expandListBreadthFirst(
                                 // if all predecessors are already in the BFS list
                                 // (or not to be considered): add it!
                                 bfsSortedNodes.put(succNode, incomingPorts);
+                                bfsQueue.add(succNode);
                             }
                         }
                     }
@@ -971,10 +1051,21 @@ private void completeSetBackwards(final HashSet<NodeID> nodes, final NodeID id,
      * @return set of predecessors.
      */
     public Set<NodeID> getPredecessors(final NodeID id) {
-        final HashSet<NodeID> result = new HashSet<NodeID>();
-        completePredecessorSet(result, id, -1);
-        result.remove(id);
-        return result;
+        Set<NodeID> predecessors = m_predecessorCache.get(id);
+        if (predecessors == null) {
+            final HashSet<NodeID> result = new HashSet<NodeID>();
+            completePredecessorSet(result, id, -1);
+            result.remove(id);
+            predecessors = result;
+            m_predecessorCache.put(id, predecessors);
+            m_predecessorCacheNodeCount += predecessors.size();
+            for (Iterator<Set<NodeID>> it = m_predecessorCache.values().iterator();
+                    m_predecessorCacheNodeCount > MAX_CACHED_NODE_COUNT && it.hasNext();) {
+                m_predecessorCacheNodeCount -= it.next().size();
+                it.remove();
+            }
+        }
+        return new HashSet<NodeID>(predecessors);
     }
 
     /** Complete set of nodes backwards depth-first starting with node id.
@@ -1559,12 +1650,54 @@ public NodeGraphAnnotation getSingleNodeGraphAnnotation(final NodeID id)
     /** hold graph based annotations for all nodes. */
     private ArrayList<NodeGraphAnnotation> m_nodeAnnotationCache = null;
 
-    /** clean cache - called internally whenever the structure (connections/nodes) are altered. */
+    /** clean cache - called internally whenever the structure (connections/nodes) are altered. The successor and
+     * predecessor caches of this workflow are invalidated by the caller (only entries that are affected by the
+     * change), those of the parent are cleared entirely. */
     private void clearGraphAnnotationCache() {
         m_nodeAnnotationCache = null;
+        m_allNodesBreadthFirstCache = null;
         // also clear cache in parent - changes here may affect the connectivity outside as well.
         if (m_wfm != null && m_wfm.getParent() != null && m_wfm.getParent().getWorkflow() != null) {
-            m_wfm.getParent().getWorkflow().clearGraphAnnotationCache();
+            m_wfm.getParent().getWorkflow().clearGraphCaches();
+        }
+    }
+
+    /** clear all graph based caches - called if the connectivity of a metanode in this workflow has changed. */
+    private void clearGraphCaches() {
+        m_successorCache.clear();
+        m_successorCacheNodeCount = 0;
+        m_predecessorCache.clear();
+        m_predecessorCacheNodeCount = 0;
+        clearGraphAnnotationCache();
+    }
+
+    /** Drop all cached successor lists which contain the given node, i.e. which may change if connections leaving
+     * the node are added or removed (or the node itself is removed).
+     *
+     * @param id of the node
+     */
+    private void invalidateSuccessorCache(final NodeID id) {
+        for (Iterator<LinkedHashMap<NodeID, Set<Integer>>> it = m_successorCache.values().iterator(); it.hasNext();) {
+            LinkedHashMap<NodeID, Set<Integer>> successors = it.next();
+            if (successors.containsKey(id)) {
+                m_successorCacheNodeCount -= successors.size();
+                it.remove();
+            }
+        }
+    }
+
+    /** Drop all cached predecessor sets of the given node and of nodes which have it as predecessor, i.e. which
+     * may change if connections entering the node are added or removed (or the node itself is removed).
+     *
+     * @param id of the node
+     */
+    private void invalidatePredecessorCache(final NodeID id) {
+        for (Iterator<Map.Entry<NodeID, Set<NodeID>>> it = m_predecessorCache.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<NodeID, Set<NodeID>> e = it.next();
+            if (e.getKey().equals(id) || e.getValue().contains(id)) {
+                m_predecessorCacheNodeCount -= e.getValue().size();
+                it.remove();
+            }
         }
     }
 
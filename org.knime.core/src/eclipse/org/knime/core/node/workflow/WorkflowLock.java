@@ -64,15 +64,17 @@
  * <p/>
  * This class is wrapping a {@link ReentrantLock}. Workflows and contained meta/sub nodes share the same
  * {@link ReentrantLock} but are still distinct {@link WorkflowLock} instances to properly isolate the status
- * update request.
+ * update request. The lock additionally has a shared (read) mode, see {@link #lockRead()}, used by queries that
+ * don't modify the workflow.
  *
  * @noreference This class is not intended to be referenced by clients.
  * @author Bernd Wiswedel, KNIME AG, Zurich, Switzerland
  */
 public final class WorkflowLock implements AutoCloseable {
 
-    private final ReentrantLock m_reentrantLock;
+    private final WorkflowReentrantLock m_reentrantLock;
     private final WorkflowManager m_wfm;
+    private final ReadLock m_readLock = new ReadLock();
 
     private boolean m_checkForNodeStateChanges;
     private boolean m_propagateChanges;
@@ -91,20 +93,24 @@ public final class WorkflowLock implements AutoCloseable {
      */
     WorkflowLock(final WorkflowManager wfm) {
         m_wfm = CheckUtils.checkArgumentNotNull(wfm);
-        m_reentrantLock = new ReentrantLock();
+        m_reentrantLock = new WorkflowReentrantLock();
     }
 
     /** An instance for a contained metanode or sub node.
      * @param wfm The metanode instance itself (or wfm within a {@link SubNodeContainer}).
-     * @param parent The parent workflow.
+     * @param parent The parent workflow (or the {@link SubNodeContainer}).
      */
     WorkflowLock(final WorkflowManager wfm, final NodeContainerParent parent) {
         m_wfm = CheckUtils.checkArgumentNotNull(wfm);
-        m_reentrantLock = parent.getReentrantLockInstance();
+        // a subnode shares the lock of the workflow containing it
+        final NodeContainerParent parentWFM =
+            parent instanceof SubNodeContainer ? ((SubNodeContainer)parent).getParent() : parent;
+        CheckUtils.checkArgument(parentWFM instanceof WorkflowManager, "Unsupported parent: %s", parent);
+        m_reentrantLock = ((WorkflowManager)parentWFM).getWorkflowLock().getReentrantLock();
     }
 
     /** @return the {@link ReentrantLock} - rarely used except for wait methods that need to sleep on the lock. */
-    ReentrantLock getReentrantLock() {
+    WorkflowReentrantLock getReentrantLock() {
         return m_reentrantLock;
     }
 
@@ -115,6 +121,22 @@ boolean isHeldByCurrentThread() {
         return m_reentrantLock.isHeldByCurrentThread();
     }
 
+    /** Acquires the shared read lock and returns a handle releasing it when closed. Used by queries that don't modify
+     * the workflow, which then can run concurrently. The code run while holding the read lock should not call
+     * {@link #lock()}: it's granted, but other threads may modify the workflow in between (the upgrade isn't atomic).
+     * @return the handle to release the read lock
+     * @see WorkflowReentrantLock#lockRead()
+     */
+    ReadLock lockRead() {
+        m_reentrantLock.lockRead();
+        return m_readLock;
+    }
+
+    /** @return whether the calling thread holds the read lock (acquired via {@link #lockRead()}). */
+    boolean isReadLockHeldByCurrentThread() {
+        return m_reentrantLock.isReadLockHeldByCurrentThread();
+    }
+
     /** Acquires the lock (and increments hold count) and returns this instance. See {@link NodeContainerParent#lock()}.
      * @return this.
      */
@@ -178,6 +200,15 @@ InternalNodeContainerState getWFMInternalState() {
         return m_checkForNodeStateChanges ? m_wfm.computeNewState() : m_wfm.getMostRecentInternalState();
     }
 
+    /** Callback by {@link WorkflowManager} to retrieve the status of the workflow when the calling thread holds the
+     * read lock only.
+     * @return The state of the workflow or null if a state update is queued, which needs to be computed while holding
+     *         the exclusive lock (see {@link #getWFMInternalState()}). */
+    InternalNodeContainerState getWFMInternalStateIfUpToDate() {
+        assert isReadLockHeldByCurrentThread();
+        return m_checkForNodeStateChanges ? null : m_wfm.getMostRecentInternalState();
+    }
+
     /** Queues a state update check and notification when the lock is finally released by the calling thread.
      * This method is to be called when the lock is hold by the calling thread.
      * @param propagateChanges Whether to propagate state changes to the parent workflow (if any)
@@ -199,4 +230,15 @@ public void close() {
         unlock();
     }
 
+    /** Handle to the read lock as returned by {@link WorkflowLock#lockRead()}, {@linkplain #close() closing} it
+     * releases the read lock. */
+    final class ReadLock implements AutoCloseable {
+
+        /** Releases the read lock. */
+        @Override
+        public void close() {
+            m_reentrantLock.unlockRead();
+        }
+    }
+
 }
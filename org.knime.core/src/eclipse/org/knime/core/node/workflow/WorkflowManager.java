@@ -556,6 +556,21 @@ public WorkflowLock lock() {
         return m_workflowLock;
     }
 
+    /** @return the lock instance without acquiring it, contained metanodes and subnodes share its underlying lock. */
+    WorkflowLock getWorkflowLock() {
+        return m_workflowLock;
+    }
+
+    /**
+     * Acquires the shared read lock, used by queries that don't modify the workflow. See
+     * {@link WorkflowLock#lockRead()}.
+     *
+     * @return The handle releasing the read lock when closed.
+     */
+    private WorkflowLock.ReadLock lockRead() {
+        return m_workflowLock.lockRead();
+    }
+
     /**
      * Like {@link #lock()} just that it assert that the lock is already held by the calling thread. Used in private
      * methods that need to be called while locked.
@@ -1353,7 +1368,7 @@ public void removeConnection(final ConnectionContainer cc) {
      * @return all outgoing connections for the passed node at the specified port
      */
     public Set<ConnectionContainer> getOutgoingConnectionsFor(final NodeID id, final int portIdx) {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             Set<ConnectionContainer> outConnections = m_workflow.getConnectionsBySource(id);
             Set<ConnectionContainer> outConsForPort = new HashSet<ConnectionContainer>();
             if (outConnections == null) {
@@ -1376,7 +1391,7 @@ public Set<ConnectionContainer> getOutgoingConnectionsFor(final NodeID id, final
      * @throws IllegalArgumentException If the node is unknown or null.
      */
     public Set<ConnectionContainer> getOutgoingConnectionsFor(final NodeID id) {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             getNodeContainer(id); // for exception handling
             return new LinkedHashSet<ConnectionContainer>(m_workflow.getConnectionsBySource(id));
         }
@@ -1391,7 +1406,7 @@ public Set<ConnectionContainer> getOutgoingConnectionsFor(final NodeID id) {
      * @throws IllegalArgumentException If node is not contained in workflow, nor is it the ID of this WFM
      */
     public ConnectionContainer getIncomingConnectionFor(final NodeID id, final int portIdx) {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             CheckUtils.checkArgument(id.equals(getID()) || containsNodeContainer(id),
                 "Node ID \"%s\" not contained in workflow, nor it's the workflow itself (ID of this workflow is \"%s\")",
                 id, getID());
@@ -1415,7 +1430,7 @@ public ConnectionContainer getIncomingConnectionFor(final NodeID id, final int p
      * @throws IllegalArgumentException If the node is unknown or null.
      */
     public Set<ConnectionContainer> getIncomingConnectionsFor(final NodeID id) {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             getNodeContainer(id); // for exception handling
             return new LinkedHashSet<ConnectionContainer>(m_workflow.getConnectionsByDest(id));
         }
@@ -1428,7 +1443,7 @@ public Set<ConnectionContainer> getIncomingConnectionsFor(final NodeID id) {
      * @return the connection with the specified id
      */
     public ConnectionContainer getConnection(final ConnectionID id) {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             return getIncomingConnectionFor(id.getDestinationNode(), id.getDestinationPort());
         }
     }
@@ -1443,7 +1458,7 @@ public ConnectionContainer getConnection(final ConnectionID id) {
      * @since 2.6
      */
     public MetaPortInfo[] getMetanodeInputPortInfo(final NodeID metaNodeID) {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             return m_workflow.getMetanodeInputPortInfo(metaNodeID);
         }
     }
@@ -1458,7 +1473,7 @@ public MetaPortInfo[] getMetanodeInputPortInfo(final NodeID metaNodeID) {
      * @since 2.6
      */
     public MetaPortInfo[] getMetanodeOutputPortInfo(final NodeID metaNodeID) {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             return m_workflow.getMetanodeOutputPortInfo(metaNodeID);
         }
     }
@@ -6234,7 +6249,7 @@ public String toString() {
     /** {@inheritDoc} */
     @Override
     public Collection<NodeContainer> getNodeContainers() {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             // TODO should we copy the list as changes to the wkf later will change this list
             return m_workflow.getNodeValues();
         }
@@ -6308,7 +6323,7 @@ public boolean containsNodeContainer(final NodeID id) {
     /** {@inheritDoc} */
     @Override
     public boolean containsExecutedNode() {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             for (NodeContainer nc : m_workflow.getNodeValues()) {
                 if (nc instanceof WorkflowManager) {
                     if (((WorkflowManager)nc).containsExecutedNode()) {
@@ -6349,7 +6364,7 @@ public List<Pair<String, NodeMessage>> getNodeMessages(final NodeMessage.Type...
         final List<Type> asList = Arrays.asList(types);
         CheckUtils.checkArgument(asList.size() > 0 && !asList.contains(null),
             "Type list must not be empty, nor contain null");
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             ArrayList<Pair<String, NodeMessage>> result = new ArrayList<>();
             for (NodeContainer nc : m_workflow.getNodeValues()) {
                 if (nc instanceof NativeNodeContainer) {
@@ -8414,6 +8429,19 @@ public void setDirty() {
      */
     @Override
     InternalNodeContainerState getInternalState() {
+        if (!isLockedByCurrentThread()) {
+            // state polls (UI, progress, remote clients) don't need the exclusive lock unless an update is queued
+            final boolean isReadLocked = m_workflowLock.isReadLockHeldByCurrentThread();
+            try (WorkflowLock.ReadLock readLock = lockRead()) {
+                InternalNodeContainerState state = m_workflowLock.getWFMInternalStateIfUpToDate();
+                if (state != null) {
+                    return state;
+                } else if (isReadLocked) {
+                    // don't upgrade to the exclusive lock, the queued update is applied by the thread queuing it
+                    return getMostRecentInternalState();
+                }
+            }
+        }
         try (WorkflowLock lock = lock()) {
             return lock.getWFMInternalState();
         }
@@ -9140,7 +9168,7 @@ public void nodeUIInformationChanged(final NodeUIInformationEvent evt) {
      * @return a list of all node annotations in the contained flow.
      */
     public List<NodeAnnotation> getNodeAnnotations() {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             Collection<NodeContainer> nodeContainers = getNodeContainers();
             List<NodeAnnotation> result = new LinkedList<NodeAnnotation>();
             for (NodeContainer node : nodeContainers) {
@@ -9286,7 +9314,7 @@ public <T> Map<NodeID, T> findNodes(final Class<T> nodeModelClass, final NodeMod
      * @since 2.6
      */
     public NodeContainer findNodeContainer(final NodeID id) {
-        try (WorkflowLock lock = lock()) {
+        try (WorkflowLock.ReadLock lock = lockRead()) {
             final NodeID prefix = id.getPrefix();
             if (prefix.equals(getID())) {
                 return getNodeContainer(id);
@@ -0,0 +1,377 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.node.workflow;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.knime.core.node.util.CheckUtils;
+
+/**
+ * The {@link ReentrantLock} shared by a workflow and its contained metanodes and subnodes, extended by a shared
+ * (read) mode. The exclusive lock is acquired via the usual lock methods, it's only granted when no other thread holds
+ * the read lock. Any number of threads can hold the read lock ({@link #lockRead()}) as long as no other thread holds
+ * the exclusive lock. Queries that don't modify the workflow (state polls, lookup of nodes and connections) use the
+ * read lock and therefore don't serialize behind each other.
+ *
+ * <p>
+ * The thread holding the exclusive lock can also acquire the read lock. A thread holding only the read lock may
+ * acquire the exclusive lock, its read lock is then not counted until it releases the exclusive lock again (so that
+ * two readers upgrading at the same time don't wait for each other). The upgrade isn't atomic: other writers may
+ * modify the workflow between the read section and the exclusive section. Writers are preferred, i.e. new readers
+ * wait while a writer waits for the current readers to finish. Threads sleeping on a {@link #newCondition()
+ * condition} also re-acquire the lock only once all readers are gone.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class WorkflowReentrantLock extends ReentrantLock {
+
+    private static final long serialVersionUID = 4781930427612393580L;
+
+    /** Signaled when the last reader leaves. */
+    private final Condition m_noReadersCondition = super.newCondition();
+
+    /** Signaled when no writer is waiting for the readers to leave. */
+    private final Condition m_noWaitingWritersCondition = super.newCondition();
+
+    /** Number of threads holding the read lock, guarded by the exclusive lock. */
+    private int m_readerCount;
+
+    /** Number of threads waiting for the readers to leave, guarded by the exclusive lock. */
+    private int m_waitingWriterCount;
+
+    /** Per thread the number of times the read lock is held. */
+    private final ThreadLocal<MutableInt> m_readHoldCountThreadLocal = ThreadLocal.withInitial(MutableInt::new);
+
+    /** Per thread whether it upgraded from the read lock to the exclusive lock, its read lock is then not counted in
+     * {@link #m_readerCount}. */
+    private final ThreadLocal<MutableBoolean> m_isUpgradedThreadLocal = ThreadLocal.withInitial(MutableBoolean::new);
+
+    /** {@inheritDoc} */
+    @Override
+    public void lock() {
+        super.lock();
+        if (getHoldCount() == 1) {
+            suspendReadLockOfUpgrade();
+            awaitNoReadersUninterruptibly();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        super.lockInterruptibly();
+        if (getHoldCount() == 1) {
+            suspendReadLockOfUpgrade();
+        }
+        if (getHoldCount() == 1 && m_readerCount > 0) {
+            boolean isAcquired = false;
+            m_waitingWriterCount++;
+            try {
+                while (m_readerCount > 0) {
+                    m_noReadersCondition.await();
+                }
+                isAcquired = true;
+            } finally {
+                writerStoppedWaiting();
+                if (!isAcquired) {
+                    resumeReadLockOfUpgrade();
+                    super.unlock();
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean tryLock() {
+        if (!super.tryLock()) {
+            return false;
+        }
+        if (getHoldCount() == 1) {
+            suspendReadLockOfUpgrade();
+            if (m_readerCount > 0) {
+                resumeReadLockOfUpgrade();
+                super.unlock();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean tryLock(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!super.tryLock(timeout, unit)) {
+            return false;
+        }
+        if (getHoldCount() == 1) {
+            suspendReadLockOfUpgrade();
+        }
+        if (getHoldCount() == 1 && m_readerCount > 0) {
+            boolean isAcquired = false;
+            m_waitingWriterCount++;
+            try {
+                long nanos = deadline - System.nanoTime();
+                while (m_readerCount > 0 && nanos > 0L) {
+                    nanos = m_noReadersCondition.awaitNanos(nanos);
+                }
+                isAcquired = m_readerCount == 0;
+            } finally {
+                writerStoppedWaiting();
+                if (!isAcquired) {
+                    resumeReadLockOfUpgrade();
+                    super.unlock();
+                }
+            }
+            return isAcquired;
+        }
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void unlock() {
+        if (getHoldCount() == 1) {
+            resumeReadLockOfUpgrade();
+        }
+        super.unlock();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Condition newCondition() {
+        return new ReaderAwareCondition(super.newCondition());
+    }
+
+    /**
+     * Acquires the read lock, waiting while another thread holds the exclusive lock (or waits for it). Reentrant, also
+     * when called by the thread holding the exclusive lock.
+     */
+    void lockRead() {
+        final MutableInt readHoldCount = m_readHoldCountThreadLocal.get();
+        if (readHoldCount.intValue() == 0) {
+            final boolean isWriter = isHeldByCurrentThread();
+            super.lock();
+            try {
+                while (!isWriter && m_waitingWriterCount > 0) {
+                    m_noWaitingWritersCondition.awaitUninterruptibly();
+                }
+                m_readerCount++;
+            } finally {
+                super.unlock();
+            }
+        }
+        readHoldCount.increment();
+    }
+
+    /** Releases the read lock as acquired by {@link #lockRead()}. */
+    void unlockRead() {
+        final MutableInt readHoldCount = m_readHoldCountThreadLocal.get();
+        CheckUtils.checkState(readHoldCount.intValue() > 0, "Read lock not held by current thread");
+        readHoldCount.decrement();
+        if (readHoldCount.intValue() == 0) {
+            final boolean isWriter = isHeldByCurrentThread();
+            super.lock();
+            try {
+                final MutableBoolean isUpgraded = m_isUpgradedThreadLocal.get();
+                if (isWriter && isUpgraded.booleanValue()) {
+                    // not counted while upgraded
+                    isUpgraded.setFalse();
+                } else {
+                    m_readerCount--;
+                    if (m_readerCount == 0) {
+                        m_noReadersCondition.signalAll();
+                    }
+                }
+            } finally {
+                super.unlock();
+            }
+        }
+    }
+
+    /** @return whether the calling thread holds the read lock. */
+    boolean isReadLockHeldByCurrentThread() {
+        return m_readHoldCountThreadLocal.get().intValue() > 0;
+    }
+
+    /** @return the number of threads holding the read lock (a snapshot, for monitoring and tests). */
+    int getReadLockCount() {
+        super.lock();
+        try {
+            return m_readerCount;
+        } finally {
+            super.unlock();
+        }
+    }
+
+    /** Called when the exclusive lock is just acquired: a reader upgrading to the exclusive lock doesn't wait for its
+     * own read lock. */
+    private void suspendReadLockOfUpgrade() {
+        if (isReadLockHeldByCurrentThread()) {
+            m_readerCount--;
+            m_isUpgradedThreadLocal.get().setTrue();
+        }
+    }
+
+    /** Called before the exclusive lock is finally released: counts the read lock of an upgraded reader again. */
+    private void resumeReadLockOfUpgrade() {
+        final MutableBoolean isUpgraded = m_isUpgradedThreadLocal.get();
+        if (isUpgraded.booleanValue()) {
+            isUpgraded.setFalse();
+            m_readerCount++;
+        }
+    }
+
+    /** Called when the exclusive lock is just acquired (or re-acquired after waiting on a condition). */
+    private void awaitNoReadersUninterruptibly() {
+        if (m_readerCount > 0) {
+            m_waitingWriterCount++;
+            try {
+                while (m_readerCount > 0) {
+                    m_noReadersCondition.awaitUninterruptibly();
+                }
+            } finally {
+                writerStoppedWaiting();
+            }
+        }
+    }
+
+    private void writerStoppedWaiting() {
+        m_waitingWriterCount--;
+        if (m_waitingWriterCount == 0) {
+            m_noWaitingWritersCondition.signalAll();
+        }
+    }
+
+    /** Condition that after waking up waits for the readers that entered while the lock was released. */
+    private final class ReaderAwareCondition implements Condition {
+
+        private final Condition m_delegate;
+
+        ReaderAwareCondition(final Condition delegate) {
+            m_delegate = delegate;
+        }
+
+        private void checkBeforeAwait() {
+            // the exclusive lock is released while sleeping, a read lock would block all other writers
+            CheckUtils.checkState(!isReadLockHeldByCurrentThread(),
+                "Can't wait on workflow lock condition while holding the read lock");
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void await() throws InterruptedException {
+            checkBeforeAwait();
+            try {
+                m_delegate.await();
+            } finally {
+                awaitNoReadersUninterruptibly();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void awaitUninterruptibly() {
+            checkBeforeAwait();
+            m_delegate.awaitUninterruptibly();
+            awaitNoReadersUninterruptibly();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long awaitNanos(final long nanosTimeout) throws InterruptedException {
+            checkBeforeAwait();
+            try {
+                return m_delegate.awaitNanos(nanosTimeout);
+            } finally {
+                awaitNoReadersUninterruptibly();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean await(final long time, final TimeUnit unit) throws InterruptedException {
+            checkBeforeAwait();
+            try {
+                return m_delegate.await(time, unit);
+            } finally {
+                awaitNoReadersUninterruptibly();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean awaitUntil(final Date deadline) throws InterruptedException {
+            checkBeforeAwait();
+            try {
+                return m_delegate.awaitUntil(deadline);
+            } finally {
+                awaitNoReadersUninterruptibly();
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void signal() {
+            m_delegate.signal();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void signalAll() {
+            m_delegate.signalAll();
+        }
+    }
+
+}
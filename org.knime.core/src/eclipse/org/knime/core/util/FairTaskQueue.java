@@ -0,0 +1,181 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * -------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026: created
+ */
+package org.knime.core.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Queue of the tasks waiting in a {@link ThreadPool}. Tasks are ordered by their rank (higher rank first); tasks of
+ * the same rank are grouped, usually by the workflow that submitted them, and the groups take turns: whenever a task
+ * is removed via the iterator its group moves to the end of the line. Within a group tasks are in submission order.
+ *
+ * <p>Iteration returns the tasks in this order; the iterator is meant to pick the first task that can be started.
+ * Not thread-safe, tasks are compared by identity (as futures are).
+ *
+ * @param <T> the type of the tasks
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class FairTaskQueue<T> implements Iterable<T> {
+
+    /** Key for tasks without a group. */
+    private static final Object NO_GROUP = new Object();
+
+    /** Groups per rank, highest rank first; groups in the order they take turns. */
+    private final TreeMap<Integer, LinkedHashMap<Object, ArrayDeque<T>>> m_ranks =
+        new TreeMap<>((a, b) -> Integer.compare(b, a));
+
+    /** Rank and group of each task. */
+    private final Map<T, Object[]> m_keys = new HashMap<>();
+
+    /**
+     * Appends a task.
+     *
+     * @param task the task to add
+     * @param rank the rank of the task, tasks with a higher rank are returned first
+     * @param group the group of the task, may be <code>null</code>
+     */
+    void add(final T task, final int rank, final Object group) {
+        final Object groupKey = group == null ? NO_GROUP : group;
+        m_ranks.computeIfAbsent(rank, r -> new LinkedHashMap<>()).computeIfAbsent(groupKey, g -> new ArrayDeque<>())
+            .add(task);
+        m_keys.put(task, new Object[]{rank, groupKey});
+    }
+
+    /**
+     * Removes a task (without changing the turn of its group).
+     *
+     * @param task the task to remove
+     * @return whether the task was queued
+     */
+    boolean remove(final Object task) {
+        return remove(task, false);
+    }
+
+    private boolean remove(final Object task, final boolean isEndOfTurn) {
+        final Object[] key = m_keys.remove(task);
+        if (key == null) {
+            return false;
+        }
+        final LinkedHashMap<Object, ArrayDeque<T>> groups = m_ranks.get(key[0]);
+        final ArrayDeque<T> tasks = groups.get(key[1]);
+        tasks.remove(task);
+        if (tasks.isEmpty()) {
+            groups.remove(key[1]);
+            if (groups.isEmpty()) {
+                m_ranks.remove(key[0]);
+            }
+        } else if (isEndOfTurn) {
+            groups.remove(key[1]);
+            groups.put(key[1], tasks);
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of queued tasks
+     */
+    int size() {
+        return m_keys.size();
+    }
+
+    /**
+     * @return whether there are no queued tasks
+     */
+    boolean isEmpty() {
+        return m_keys.isEmpty();
+    }
+
+    /**
+     * Returns the tasks in the order they are to be started (a snapshot, the queue may be modified during
+     * iteration). Removing a task via the iterator ends the turn of its group.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        final List<T> snapshot = new ArrayList<>(m_keys.size());
+        for (LinkedHashMap<Object, ArrayDeque<T>> groups : m_ranks.values()) {
+            for (ArrayDeque<T> tasks : groups.values()) {
+                snapshot.addAll(tasks);
+            }
+        }
+        final Iterator<T> it = snapshot.iterator();
+        return new Iterator<T>() {
+
+            private T m_last;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public T next() {
+                m_last = it.next();
+                return m_last;
+            }
+
+            @Override
+            public void remove() {
+                if (m_last == null) {
+                    throw new IllegalStateException();
+                }
+                FairTaskQueue.this.remove(m_last, true);
+                m_last = null;
+            }
+        };
+    }
+
+}
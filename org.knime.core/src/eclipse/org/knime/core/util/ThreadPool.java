@@ -50,7 +50,6 @@
 
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -66,23 +65,56 @@
 
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.NodeLogger;
+import org.knime.core.node.workflow.NodeContext;
 
 /**
  * Implements a sophisticated thread pool.
  *
+ * <p>Queued tasks are started in the order of their {@link TaskPriority}; tasks submitted from within a pool thread
+ * (e.g. the sub tasks of a node) precede other tasks of the same priority. Tasks of different workflows (as
+ * determined by the {@link NodeContext} at submission time) take turns. A pool thread waiting for the result of a
+ * task that has not been started yet runs the task itself, if it belongs to the thread's pool or one of its sub pools
+ * with a free slot; nested parallel code thus doesn't depend on further threads becoming available.
+ *
  * @author Thorsten Meinl, University of Konstanz
  */
 public class ThreadPool {
 
+    /**
+     * Priority of a task, among the queued tasks the ones with a higher priority are started first.
+     *
+     * @since 3.8
+     */
+    public enum TaskPriority {
+        /** Started after all other tasks, e.g. for background work. */
+        LOW,
+        /** The default. */
+        NORMAL,
+        /** Started before all other tasks, e.g. for interactive work. */
+        HIGH
+    }
+
     private class MyFuture<T> extends FutureTask<T> {
         private final CountDownLatch m_startWaiter = new CountDownLatch(1);
         private final ClassLoader m_contextClassloader = Thread.currentThread().getContextClassLoader();
 
+        /** Tasks submitted from pool threads rank before other tasks of the same priority. */
+        private final int m_rank;
+
+        /** The workflow the task was submitted from, may be null. */
+        private final Object m_group;
+
         /**
          * @see FutureTask#FutureTask(Callable)
          */
         public MyFuture(final Callable<T> callable) {
+            this(callable, TaskPriority.NORMAL);
+        }
+
+        MyFuture(final Callable<T> callable, final TaskPriority priority) {
             super(ThreadUtils.callableWithContext(callable, false));
+            m_rank = computeRank(priority);
+            m_group = getSubmittingWorkflow();
         }
 
         /**
@@ -98,7 +130,13 @@ public MyFuture(final Callable<T> callable) {
          * @throws NullPointerException if runnable is null
          */
         public MyFuture(final Runnable runnable, final T result) {
+            this(runnable, result, TaskPriority.NORMAL);
+        }
+
+        MyFuture(final Runnable runnable, final T result, final TaskPriority priority) {
             super(ThreadUtils.runnableWithContext(runnable, false), result);
+            m_rank = computeRank(priority);
+            m_group = getSubmittingWorkflow();
         }
 
         /**
@@ -156,6 +194,9 @@ public void waitUntilStarted() throws InterruptedException {
         public T get() throws InterruptedException, ExecutionException {
             if (Thread.currentThread() instanceof Worker) {
                 Worker w = (Worker)Thread.currentThread();
+                if (tryRunInline(w)) {
+                    return super.get();
+                }
                 w.m_startedFrom.m_invisibleThreads.incrementAndGet();
                 try {
                     checkQueue();
@@ -181,6 +222,9 @@ public T get(final long timeout, final TimeUnit unit)
                 TimeoutException {
             if (Thread.currentThread() instanceof Worker) {
                 Worker w = (Worker)Thread.currentThread();
+                if (tryRunInline(w)) {
+                    return super.get(timeout, unit);
+                }
                 w.m_startedFrom.m_invisibleThreads.incrementAndGet();
                 try {
                     checkQueue();
@@ -192,6 +236,48 @@ public T get(final long timeout, final TimeUnit unit)
                 return super.get(timeout, unit);
             }
         }
+
+        /**
+         * Runs this task in the argument worker (which waits for its result) if it's still queued and belongs to the
+         * worker's pool or one of its sub pools.
+         *
+         * @param w the current thread
+         * @return whether the task has been run
+         */
+        private boolean tryRunInline(final Worker w) {
+            final ThreadPool workerPool = w.m_startedFrom;
+            if (isDone() || workerPool == null) {
+                return false;
+            }
+            synchronized (m_queuedFutures) {
+                if (!ThreadPool.this.addInlineWorker(w, workerPool)) {
+                    return false;
+                }
+                if (!m_queuedFutures.remove(this)) {
+                    // already started by another thread
+                    ThreadPool.this.removeInlineWorker(w, workerPool);
+                    return false;
+                }
+            }
+            w.m_startedFrom = ThreadPool.this;
+            try {
+                run();
+            } finally {
+                w.m_startedFrom = workerPool;
+                ThreadPool.this.removeInlineWorker(w, workerPool);
+                decrementPendingJobs();
+            }
+            return true;
+        }
+    }
+
+    private static int computeRank(final TaskPriority priority) {
+        return 2 * priority.ordinal() + (Thread.currentThread() instanceof Worker ? 1 : 0);
+    }
+
+    private static Object getSubmittingWorkflow() {
+        NodeContext context = NodeContext.getContext();
+        return context == null ? null : context.getWorkflowManager();
     }
 
     private static int workerCounter;
@@ -301,7 +387,7 @@ public boolean wakeup(final MyFuture<?> r, final ThreadPool pool) {
 
     private final ThreadPool m_parent;
 
-    private final Queue<MyFuture<?>> m_queuedFutures;
+    private final FairTaskQueue<MyFuture<?>> m_queuedFutures;
 
     private final Set<Worker> m_runningWorkers = new HashSet<Worker>();
 
@@ -316,7 +402,7 @@ public ThreadPool(final int maxThreads) {
         }
         m_maxThreads.set(maxThreads);
         m_parent = null;
-        m_queuedFutures = new LinkedList<MyFuture<?>>();
+        m_queuedFutures = new FairTaskQueue<MyFuture<?>>();
         m_availableWorkers = new ConcurrentLinkedQueue<Worker>();
     }
 
@@ -400,16 +486,31 @@ public ThreadPool createSubPool(final int maxThreads) {
      * @see #submit(Callable)
      */
     public <T> Future<T> enqueue(final Callable<T> task) {
+        return enqueue(task, TaskPriority.NORMAL);
+    }
+
+    /**
+     * Submits a value-returning task for execution with the given priority and returns a Future representing the
+     * pending results of the task. The method immediately returns and puts the task into a queue.
+     *
+     * @param task the task to submit
+     * @param priority the priority of the task in the queue
+     * @param <T> any result type
+     * @return a Future representing pending completion of the task
+     * @see #enqueue(Callable)
+     * @since 3.8
+     */
+    public <T> Future<T> enqueue(final Callable<T> task, final TaskPriority priority) {
         if (task == null) {
             throw new IllegalArgumentException("Task must not be null");
         }
 
-        MyFuture<T> ftask = new MyFuture<T>(task);
+        MyFuture<T> ftask = new MyFuture<T>(task, priority);
 
         synchronized (m_queuedFutures) {
             incrementPendingJobs();
             if (wakeupWorker(ftask, this) == null) {
-                m_queuedFutures.add(ftask);
+                m_queuedFutures.add(ftask, ftask.m_rank, ftask.m_group);
             }
         }
 
@@ -446,12 +547,27 @@ private void decrementPendingJobs() {
      * @see #submit(Runnable)
      */
     public Future<?> enqueue(final Runnable r) {
-        MyFuture<?> ftask = new MyFuture<Object>(r, null);
+        return enqueue(r, TaskPriority.NORMAL);
+    }
+
+    /**
+     * Submits a Runnable task for execution with the given priority and returns a Future representing that task.
+     * The method immediately returns and puts the runnable into a queue.
+     *
+     * @param r the task to submit
+     * @param priority the priority of the task in the queue
+     * @return a Future representing pending completion of the task, and whose <tt>get()</tt> method will return
+     *         <tt>null</tt> upon completion.
+     * @see #enqueue(Runnable)
+     * @since 3.8
+     */
+    public Future<?> enqueue(final Runnable r, final TaskPriority priority) {
+        MyFuture<?> ftask = new MyFuture<Object>(r, null, priority);
 
         synchronized (m_queuedFutures) {
             incrementPendingJobs();
             if (wakeupWorker(ftask, this) == null) {
-                m_queuedFutures.add(ftask);
+                m_queuedFutures.add(ftask, ftask.m_rank, ftask.m_group);
             }
         }
 
@@ -547,6 +663,42 @@ private Worker wakeupWorker(final MyFuture<?> task, final ThreadPool pool) {
         }
     }
 
+    /**
+     * Registers the argument worker, which is taken out of the argument ancestor pool (or this pool), as running in
+     * this pool and all pools up to the ancestor. Must be called while holding the lock on the queue.
+     *
+     * @return <code>false</code> if one of the pools has no free slot or the ancestor is not an ancestor of this pool,
+     *         in which case nothing has been registered
+     */
+    private boolean addInlineWorker(final Worker w, final ThreadPool ancestor) {
+        for (ThreadPool p = this; p != ancestor; p = p.m_parent) {
+            if (p == null) {
+                return false;
+            }
+            synchronized (p.m_runningWorkers) {
+                if (p.m_runningWorkers.size() - p.m_invisibleThreads.get() >= p.m_maxThreads.get()) {
+                    return false;
+                }
+            }
+        }
+        for (ThreadPool p = this; p != ancestor; p = p.m_parent) {
+            synchronized (p.m_runningWorkers) {
+                p.m_runningWorkers.add(w);
+            }
+        }
+        return true;
+    }
+
+    /** Reverts {@link #addInlineWorker(Worker, ThreadPool)} and starts queued tasks that fit into the freed slots. */
+    private void removeInlineWorker(final Worker w, final ThreadPool ancestor) {
+        for (ThreadPool p = this; p != ancestor && p != null; p = p.m_parent) {
+            synchronized (p.m_runningWorkers) {
+                p.m_runningWorkers.remove(w);
+            }
+        }
+        checkQueue();
+    }
+
     /**
      * Returns the maximum number of threads in the pool.
      *